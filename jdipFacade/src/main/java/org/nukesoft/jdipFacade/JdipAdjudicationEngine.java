@@ -0,0 +1,517 @@
+//
+//  @(#)JdipAdjudicationEngine.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package org.nukesoft.jdipFacade;
+
+import org.nukesoft.jdipFacade.JdipEngineMetrics.Operation;
+import org.nukesoft.jdipFacade.exception.GameLimitException;
+import org.nukesoft.jdipFacade.exception.GameNotFoundException;
+import org.nukesoft.jdipFacade.exception.JdipException;
+import org.nukesoft.jdipFacade.exception.JdipFacadeException;
+import org.nukesoft.jdipFacade.exception.PowerNotFoundException;
+import org.nukesoft.jdipFacade.exception.ResourceLoadException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * An instance-based, threadsafe alternative to <code>JdipAdjudicatorFacade</code>,
+ * intended for servers that host many games at once.
+ * <p>
+ * Games are identified by a <code>String</code> id. Calls on different games run
+ * concurrently; calls on the same game are serialized. New games are copied from
+ * a per-variant template world, so the variant is only parsed once.
+ * <p>
+ * Every call is timed; see <code>getMetrics()</code>.
+ * <p>
+ * The number of games is unlimited by default; see <code>setMaxGames()</code>.
+ * <p>
+ * The <code>VariantManager</code> is shared by all engines and by
+ * <code>JdipAdjudicatorFacade</code>, so all must use the same Jdip root path.
+ */
+public class JdipAdjudicationEngine {
+    private final ImplementationStrategy strategy;
+    private final WorldTemplatePool templatePool = WorldTemplatePool.getInstance();
+    private final ConcurrentHashMap<String, JdipWorld> games = new ConcurrentHashMap<>();
+    private final Object addGameLock = new Object();
+    private final AtomicLong nextGameId = new AtomicLong();
+    private final JdipEngineMetrics metrics = new JdipEngineMetrics();
+    private volatile ForkJoinPool parallelPool = null;
+    private volatile int maxGames = Integer.MAX_VALUE;
+
+    /**
+     * A query that is run against a game while no other call may modify it.
+     * The <code>JdipWorld</code> (and objects obtained from it, such as
+     * <code>JdipPower</code>) must not be used after the query returns.
+     */
+    public interface GameQuery<T> {
+        T query(JdipWorld world) throws JdipFacadeException;
+    }
+
+    /**
+     * A query that is run against a game right after it is adjudicated, before
+     * any other call may modify it. The same restrictions as for a
+     * <code>GameQuery</code> apply.
+     */
+    public interface AdjudicationQuery<T> {
+        T query(JdipWorld world, boolean advanced) throws JdipFacadeException;
+    }
+
+    /**
+     * Creates an engine and initializes the <code>VariantManager</code>, if needed.
+     * Does not explicitly disable AWT.
+     *
+     * @param jdipRootPath the filesystem path to a standard Jdip installation.
+     * @throws JdipException
+     */
+    public JdipAdjudicationEngine(String jdipRootPath)
+            throws JdipException {
+        this(jdipRootPath, new HeadlessImplementationStrategy(false));
+    }
+
+    /**
+     * Creates an engine and initializes the <code>VariantManager</code>, if needed.
+     *
+     * @param jdipRootPath the filesystem path to a standard Jdip installation.
+     * @param strategy     the <code>ImplementationStrategy</code> to use.
+     * @throws JdipException
+     */
+    public JdipAdjudicationEngine(String jdipRootPath, ImplementationStrategy strategy)
+            throws JdipException {
+        if (jdipRootPath == null || strategy == null) {
+            throw new IllegalArgumentException();
+        }
+        JdipAdjudicatorFacade.initializeVariantManager(jdipRootPath);
+        this.strategy = strategy;
+    }
+
+    /**
+     * Sets the pool used to resolve independent movement orders in parallel.
+     * By default, orders are resolved serially, which is usually best when
+     * many games are adjudicated at once.
+     *
+     * @param pool the pool to use, or <code>null</code> to resolve orders serially
+     */
+    public void setParallelResolution(ForkJoinPool pool) {
+        this.parallelPool = pool;
+    }
+
+    /**
+     * Sets the maximum number of games. Games cannot be created or imported while
+     * the engine hosts this many; existing games are not removed.
+     *
+     * @param maxGames the maximum number of games; must be positive
+     */
+    public void setMaxGames(int maxGames) {
+        if (maxGames <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.maxGames = maxGames;
+    }
+
+    /**
+     * Gets the maximum number of games.
+     *
+     * @return the maximum number of games
+     */
+    public int getMaxGames() {
+        return maxGames;
+    }
+
+    /**
+     * Gets the latency metrics of this engine.
+     *
+     * @return the <code>JdipEngineMetrics</code>
+     */
+    public JdipEngineMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Fetches the name of all loaded variants.
+     *
+     * @return a <code>String[]</code> of variant names.
+     */
+    public String[] getVariantNames() {
+        return new JdipWorldFactory(strategy).getVariantNames();
+    }
+
+    /**
+     * Creates a new game with a generated id.
+     *
+     * @param variantName the variant to play
+     * @return the id of the new game
+     * @throws ResourceLoadException if the variant could not be found
+     * @throws GameLimitException    if the engine hosts the maximum number of games
+     * @throws JdipException         if the <code>World</code> failed to load
+     */
+    public String createGame(String variantName)
+            throws ResourceLoadException, GameLimitException, JdipException {
+        String gameId = generateGameId();
+        createGame(gameId, variantName);
+        return gameId;
+    }
+
+    /**
+     * Creates a new game with the given id.
+     *
+     * @param gameId      the id of the new game
+     * @param variantName the variant to play
+     * @throws ResourceLoadException if the variant could not be found
+     * @throws GameLimitException    if the engine hosts the maximum number of games
+     * @throws JdipException         if the <code>World</code> failed to load, or the id is in use
+     */
+    public void createGame(String gameId, String variantName)
+            throws ResourceLoadException, GameLimitException, JdipException {
+        if (gameId == null) {
+            throw new IllegalArgumentException();
+        }
+        final long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            addGame(gameId, new JdipWorld(templatePool.createWorld(variantName), strategy));
+            succeeded = true;
+        } finally {
+            metrics.record(Operation.CREATE_GAME, System.nanoTime() - start, succeeded);
+        }
+    }
+
+    /**
+     * Creates a new game with a generated id from a snapshot.
+     *
+     * @param snapshot a snapshot created by <code>exportGame()</code> or <code>JdipWorld.exportSnapshot()</code>
+     * @return the id of the new game
+     * @throws ResourceLoadException if the snapshot's variant could not be found
+     * @throws GameLimitException    if the engine hosts the maximum number of games
+     * @throws JdipException         if the snapshot is invalid, or the <code>World</code> failed to load
+     */
+    public String importGame(byte[] snapshot)
+            throws ResourceLoadException, GameLimitException, JdipException {
+        String gameId = generateGameId();
+        importGame(gameId, snapshot);
+        return gameId;
+    }
+
+    /**
+     * Creates a new game with the given id from a snapshot.
+     *
+     * @param gameId   the id of the new game
+     * @param snapshot a snapshot created by <code>exportGame()</code> or <code>JdipWorld.exportSnapshot()</code>
+     * @throws ResourceLoadException if the snapshot's variant could not be found
+     * @throws GameLimitException    if the engine hosts the maximum number of games
+     * @throws JdipException         if the snapshot is invalid, the <code>World</code> failed to load,
+     *                               or the id is in use
+     */
+    public void importGame(String gameId, byte[] snapshot)
+            throws ResourceLoadException, GameLimitException, JdipException {
+        if (gameId == null || snapshot == null) {
+            throw new IllegalArgumentException();
+        }
+        final long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            addGame(gameId, new JdipWorldFactory(strategy).createWorldFromSnapshot(snapshot));
+            succeeded = true;
+        } finally {
+            metrics.record(Operation.CREATE_GAME, System.nanoTime() - start, succeeded);
+        }
+    }
+
+    /**
+     * Exports the current state of a game as a compact binary snapshot,
+     * which can be imported by this or another engine.
+     *
+     * @param gameId the game
+     * @return the snapshot
+     * @throws GameNotFoundException
+     */
+    public byte[] exportGame(String gameId)
+            throws GameNotFoundException {
+        return queryGame(gameId, JdipWorld::exportSnapshot);
+    }
+
+    /**
+     * Removes a game. Calls already in progress on the game will complete.
+     *
+     * @param gameId the game to remove
+     * @return <code>true</code> if the game existed
+     */
+    public boolean removeGame(String gameId) {
+        return games.remove(gameId) != null;
+    }
+
+    /**
+     * Gets the ids of all games.
+     *
+     * @return an unmodifiable, live view of the game ids
+     */
+    public Set<String> getGameIds() {
+        return Collections.unmodifiableSet(games.keySet());
+    }
+
+    /**
+     * Gets the number of games.
+     *
+     * @return the number of games
+     */
+    public int getGameCount() {
+        return games.size();
+    }
+
+    /**
+     * Loads orders for a particular power into the current turn state of a game.
+     * Overwrites any existing orders for the given power.
+     *
+     * @param gameId       the game
+     * @param powerName    the power to load against
+     * @param orderStrings the orders to load
+     * @throws GameNotFoundException
+     * @throws PowerNotFoundException
+     * @throws JdipException
+     */
+    public void submitOrders(String gameId, String powerName, String[] orderStrings)
+            throws GameNotFoundException, PowerNotFoundException, JdipException {
+        submitOrders(gameId, Collections.singletonMap(powerName, orderStrings));
+    }
+
+    /**
+     * Loads orders for any number of powers into the current turn state of a game.
+     * All orders are parsed before any are set; if any order cannot be parsed,
+     * no orders are changed. Overwrites any existing orders for the given powers.
+     *
+     * @param gameId        the game
+     * @param ordersByPower the orders to load, keyed by power name
+     * @throws GameNotFoundException
+     * @throws PowerNotFoundException
+     * @throws JdipException
+     */
+    public void submitOrders(String gameId, Map<String, String[]> ordersByPower)
+            throws GameNotFoundException, PowerNotFoundException, JdipException {
+        final long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            JdipWorld world = getGame(gameId);
+            synchronized (world) {
+                world.setOrders(ordersByPower);
+            }
+            succeeded = true;
+        } finally {
+            metrics.record(Operation.SUBMIT_ORDERS, System.nanoTime() - start, succeeded);
+        }
+    }
+
+    /**
+     * Adjudicates the current turn state of a game, and advances to the next turn state.
+     *
+     * @param gameId the game
+     * @return <code>true</code> if a new turn state was created, <code>false</code> if otherwise.
+     * @throws GameNotFoundException
+     */
+    public boolean adjudicate(String gameId)
+            throws GameNotFoundException {
+        try {
+            return adjudicate(gameId, (world, advanced) -> advanced);
+        } catch (GameNotFoundException e) {
+            throw e;
+        } catch (JdipFacadeException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adjudicates the current turn state of a game, advances to the next turn state,
+     * and runs a query against the game. No other call can modify the game between
+     * the adjudication and the query.
+     *
+     * @param gameId the game
+     * @param query  the query to run
+     * @return the result of the query
+     * @throws GameNotFoundException
+     * @throws JdipFacadeException   if the query throws it
+     */
+    public <T> T adjudicate(String gameId, AdjudicationQuery<T> query)
+            throws JdipFacadeException {
+        final long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            JdipWorld world = getGame(gameId);
+            T result;
+            synchronized (world) {
+                result = query.query(world, world.adjudicate(parallelPool));
+            }
+            succeeded = true;
+            return result;
+        } finally {
+            metrics.record(Operation.ADJUDICATE, System.nanoTime() - start, succeeded);
+        }
+    }
+
+    /**
+     * Gets the expanded name of the current phase of a game.
+     *
+     * @param gameId the game
+     * @return phase name
+     * @throws GameNotFoundException
+     */
+    public String getCurrentPhaseTitle(String gameId)
+            throws GameNotFoundException {
+        return queryGame(gameId, JdipWorld::getCurrentPhaseTitle);
+    }
+
+    /**
+     * Gets the type (Adjustment, Movement, Retreat) of the current phase of a game.
+     *
+     * @param gameId the game
+     * @return one of the <code>JdipWorld</code> phase type constants.
+     * @throws GameNotFoundException
+     */
+    public int getCurrentPhaseType(String gameId)
+            throws GameNotFoundException {
+        return queryGame(gameId, JdipWorld::getCurrentPhaseType);
+    }
+
+    /**
+     * Determines if a game is over.
+     *
+     * @param gameId the game
+     * @return <code>true</code>/<code>false</code>
+     * @throws GameNotFoundException
+     */
+    public boolean isGameOver(String gameId)
+            throws GameNotFoundException {
+        return queryGame(gameId, JdipWorld::isGameOver);
+    }
+
+    /**
+     * Returns all general messages from the last adjudicated turn state of a game.
+     *
+     * @param gameId the game
+     * @param format one of the <code>JdipWorld</code> format constants
+     * @return an array of <code>JdipResult</code>s
+     * @throws GameNotFoundException
+     */
+    public JdipResult[] getGeneralResults(String gameId, final int format)
+            throws GameNotFoundException {
+        return queryGame(gameId, world -> world.getAllGeneralResults(format));
+    }
+
+    /**
+     * Returns all results for a power from the last adjudicated turn state of a game.
+     *
+     * @param gameId    the game
+     * @param powerName the power to get results for
+     * @param format    one of the <code>JdipWorld</code> format constants
+     * @return an array of <code>JdipResult</code>s
+     * @throws GameNotFoundException
+     * @throws PowerNotFoundException
+     */
+    public JdipResult[] getResultsForPower(String gameId, final String powerName, final int format)
+            throws GameNotFoundException, PowerNotFoundException {
+        try {
+            return query(gameId, world -> world.getAllResultsForPower(world.getPower(powerName), format));
+        } catch (GameNotFoundException | PowerNotFoundException e) {
+            throw e;
+        } catch (JdipFacadeException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Runs a query against a game. No other call can modify the game while the query runs.
+     *
+     * @param gameId the game
+     * @param query  the query to run
+     * @return the result of the query
+     * @throws GameNotFoundException
+     * @throws JdipFacadeException   if the query throws it
+     */
+    public <T> T query(String gameId, GameQuery<T> query)
+            throws JdipFacadeException {
+        final long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            JdipWorld world = getGame(gameId);
+            T result;
+            synchronized (world) {
+                result = query.query(world);
+            }
+            succeeded = true;
+            return result;
+        } finally {
+            metrics.record(Operation.QUERY, System.nanoTime() - start, succeeded);
+        }
+    }
+
+    /**
+     * Runs a query that throws no checked exceptions, other than for a missing game.
+     */
+    private <T> T queryGame(String gameId, GameQuery<T> query)
+            throws GameNotFoundException {
+        try {
+            return query(gameId, query);
+        } catch (GameNotFoundException e) {
+            throw e;
+        } catch (JdipFacadeException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Generates an unused game id.
+     */
+    private String generateGameId() {
+        String gameId;
+        do {
+            gameId = "game-" + nextGameId.incrementAndGet();
+        } while (games.containsKey(gameId));
+        return gameId;
+    }
+
+    /**
+     * Adds a game, unless the id is in use or the engine is full.
+     * Adds are serialized, so that concurrent adds cannot exceed the maximum.
+     */
+    private void addGame(String gameId, JdipWorld world)
+            throws GameLimitException, JdipException {
+        synchronized (addGameLock) {
+            if (games.size() >= maxGames) {
+                throw new GameLimitException("Too many games: " + games.size());
+            }
+            if (games.putIfAbsent(gameId, world) != null) {
+                throw new JdipException("Game already exists: " + gameId);
+            }
+        }
+    }
+
+    /**
+     * Gets the world of a game.
+     */
+    private JdipWorld getGame(String gameId)
+            throws GameNotFoundException {
+        JdipWorld world = (gameId == null) ? null : games.get(gameId);
+        if (world == null) {
+            throw new GameNotFoundException("Could not find game: " + gameId);
+        }
+        return world;
+    }
+}
@@ -16,10 +16,6 @@
  */
 package org.nukesoft.jdipFacade;
 
-import info.jdip.process.Adjudicator;
-import info.jdip.process.StdAdjudicator;
-import info.jdip.world.TurnState;
-import info.jdip.world.World;
 import info.jdip.world.variant.VariantManager;
 import org.nukesoft.jdipFacade.exception.JdipException;
 import org.nukesoft.jdipFacade.exception.StateError;
@@ -35,8 +31,9 @@ import java.io.File;
  */
 public class JdipAdjudicatorFacade {
     private static String jdipRootPath;
-    private static boolean isVariantManagerInitialized = false;
+    private static volatile boolean isVariantManagerInitialized = false;
     private static ImplementationStrategy strategy;
+    private static String variantRootPath = null;
 
     /**
      * Instantiates a <code>JdipAdjudicatorFacade</code> and initializes the <code>VariantManager</code>.
@@ -59,19 +56,36 @@ public class JdipAdjudicatorFacade {
      * @param strategy     the <code>ImplementationStrategy</code> to use.
      * @throws JdipException
      */
-    public static void initializeJdip(String jdipRootPath, ImplementationStrategy strategy)
+    public static synchronized void initializeJdip(String jdipRootPath, ImplementationStrategy strategy)
             throws JdipException {
+        if (isVariantManagerInitialized) {
+            throw new StateError("Cannot set jdipRootPath twice.");
+        }
+        initializeVariantManager(jdipRootPath);
         JdipAdjudicatorFacade.strategy = strategy;
         JdipAdjudicatorFacade.jdipRootPath = jdipRootPath;
-        try {
-            if (!isVariantManagerInitialized) {
+        isVariantManagerInitialized = true;
+    }
+
+    /**
+     * Initializes the <code>VariantManager</code>, if it has not already been initialized.
+     * The <code>VariantManager</code> is shared by this class and all
+     * <code>JdipAdjudicationEngine</code>s, so it may only be initialized from one path.
+     *
+     * @param jdipRootPath the filesystem path to a standard Jdip installation.
+     * @throws JdipException
+     */
+    static synchronized void initializeVariantManager(String jdipRootPath)
+            throws JdipException {
+        if (variantRootPath == null) {
+            try {
                 VariantManager.init(new File[]{new File(jdipRootPath, "/variants")}, true);
-                isVariantManagerInitialized = true;
-            } else {
-                throw new StateError("Cannot set jdipRootPath twice.");
+            } catch (Exception e) {
+                throw new JdipException("Error initializing VariantManager in JdipAdjudicatorFacade", e);
             }
-        } catch (Exception e) {
-            throw new JdipException("Error initializing VariantManager in JdipAdjudicatorFacade", e);
+            variantRootPath = jdipRootPath;
+        } else if (!variantRootPath.equals(jdipRootPath)) {
+            throw new StateError("VariantManager already initialized from " + variantRootPath);
         }
     }
 
@@ -80,7 +94,7 @@ public class JdipAdjudicatorFacade {
      *
      * @return the <code>JdipWorldFactory</code>
      */
-    public static JdipWorldFactory getJdipWorldFactory() {
+    public static synchronized JdipWorldFactory getJdipWorldFactory() {
         if (isVariantManagerInitialized) {
             return new JdipWorldFactory(strategy);
         } else {
@@ -96,18 +110,7 @@ public class JdipAdjudicatorFacade {
      */
     public static boolean adjudicate(JdipWorld worldFacade) {
         if (isVariantManagerInitialized) {
-            World world = worldFacade.getWorld();
-            //adjudicate
-            Adjudicator stdJudge = new StdAdjudicator(worldFacade.getStrategy().getOrderFactory(), world.getLastTurnState());
-            stdJudge.process();
-            //advance turn state
-            TurnState nextTurnState = stdJudge.getNextTurnState();
-            if (nextTurnState != null) {
-                world.setTurnState(nextTurnState);
-                return true;
-            } else {
-                return false;
-            }
+            return worldFacade.adjudicate(null);
         } else {
             throw new StateError("Cannot adjudicate a world factory without first setting jdipRootPath.");
         }
@@ -0,0 +1,169 @@
+//
+//  @(#)JdipEngineMetrics.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package org.nukesoft.jdipFacade;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Per-call latency metrics for a <code>JdipAdjudicationEngine</code>. For each
+ * kind of operation, the number of calls, the number of failed calls, and the
+ * total and maximum latency are kept. Latency includes any time spent waiting
+ * for another call on the same game to complete.
+ * <p>
+ * Threadsafe; recording a call does not block other threads.
+ */
+public class JdipEngineMetrics {
+
+    /**
+     * The kinds of operation measured.
+     */
+    public enum Operation {
+        CREATE_GAME,
+        SUBMIT_ORDERS,
+        ADJUDICATE,
+        QUERY
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final LongAdder[] counts = new LongAdder[OPERATIONS.length];
+    private final LongAdder[] failures = new LongAdder[OPERATIONS.length];
+    private final LongAdder[] totalNanos = new LongAdder[OPERATIONS.length];
+    private final LongAccumulator[] maxNanos = new LongAccumulator[OPERATIONS.length];
+
+    /**
+     * Creates an empty <code>JdipEngineMetrics</code>.
+     */
+    JdipEngineMetrics() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            counts[i] = new LongAdder();
+            failures[i] = new LongAdder();
+            totalNanos[i] = new LongAdder();
+            maxNanos[i] = new LongAccumulator(Math::max, 0L);
+        }
+    }
+
+    /**
+     * Records a completed call.
+     *
+     * @param operation the kind of operation
+     * @param nanos     the latency of the call, in nanoseconds
+     * @param succeeded <code>false</code> if the call threw an exception
+     */
+    void record(Operation operation, long nanos, boolean succeeded) {
+        final int i = operation.ordinal();
+        counts[i].increment();
+        totalNanos[i].add(nanos);
+        maxNanos[i].accumulate(nanos);
+        if (!succeeded) {
+            failures[i].increment();
+        }
+    }
+
+    /**
+     * Gets the number of calls of an operation, including failed calls.
+     *
+     * @param operation the operation
+     * @return the number of calls
+     */
+    public long getCount(Operation operation) {
+        return counts[operation.ordinal()].sum();
+    }
+
+    /**
+     * Gets the number of calls of an operation that threw an exception.
+     *
+     * @param operation the operation
+     * @return the number of failed calls
+     */
+    public long getFailureCount(Operation operation) {
+        return failures[operation.ordinal()].sum();
+    }
+
+    /**
+     * Gets the total latency of all calls of an operation.
+     *
+     * @param operation the operation
+     * @return the total latency, in nanoseconds
+     */
+    public long getTotalNanos(Operation operation) {
+        return totalNanos[operation.ordinal()].sum();
+    }
+
+    /**
+     * Gets the largest latency of any call of an operation.
+     *
+     * @param operation the operation
+     * @return the maximum latency, in nanoseconds
+     */
+    public long getMaxNanos(Operation operation) {
+        return maxNanos[operation.ordinal()].get();
+    }
+
+    /**
+     * Gets the mean latency of calls of an operation.
+     *
+     * @param operation the operation
+     * @return the mean latency, in nanoseconds, or 0 if there have been no calls
+     */
+    public long getMeanNanos(Operation operation) {
+        final long count = getCount(operation);
+        return (count == 0) ? 0L : getTotalNanos(operation) / count;
+    }
+
+    /**
+     * Clears all metrics. Calls in progress may or may not be included afterwards.
+     */
+    public void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            counts[i].reset();
+            failures[i].reset();
+            totalNanos[i].reset();
+            maxNanos[i].reset();
+        }
+    }
+
+    /**
+     * For debugging: the metrics of every operation, with latencies in microseconds.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(getClass().getName());
+        sb.append('[');
+        for (Operation operation : OPERATIONS) {
+            if (operation.ordinal() > 0) {
+                sb.append(", ");
+            }
+            sb.append(operation);
+            sb.append("={count=");
+            sb.append(getCount(operation));
+            sb.append(", failures=");
+            sb.append(getFailureCount(operation));
+            sb.append(", meanMicros=");
+            sb.append(getMeanNanos(operation) / 1000L);
+            sb.append(", maxMicros=");
+            sb.append(getMaxNanos(operation) / 1000L);
+            sb.append('}');
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
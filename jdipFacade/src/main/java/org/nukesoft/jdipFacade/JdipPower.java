@@ -88,8 +88,7 @@ public class JdipPower {
      * @return the number of dislodgements
      */
     public int getDislodgedUnitCount() {
-        //get the adjustment
-        return getAdjustmentInfo().getDislodgedUnitCount();
+        return world.getLastTurnState().getPosition().getDislodgedUnitCount(power);
     }
 
     /**
@@ -98,8 +97,7 @@ public class JdipPower {
      * @return the number of supply centers
      */
     public int getSupplyCenterCount() {
-        //get the adjustment
-        return getAdjustmentInfo().getSupplyCenterCount();
+        return world.getLastTurnState().getPosition().getOwnedSupplyCenterCount(power);
     }
 
     /**
@@ -116,7 +114,7 @@ public class JdipPower {
      * Returns the number of units this power owns
      */
     public int getUnitCount() {
-        return getAdjustmentInfo().getUnitCount();
+        return world.getLastTurnState().getPosition().getUnitCount(power);
     }
 
     /**
@@ -23,16 +23,22 @@ import info.jdip.order.OrderFormatOptions;
 import info.jdip.order.OrderParser;
 import info.jdip.order.Orderable;
 import info.jdip.order.result.Result;
+import info.jdip.process.StdAdjudicator;
 import info.jdip.world.Phase.PhaseType;
 import info.jdip.world.Power;
 import info.jdip.world.TurnState;
+import info.jdip.world.TurnStateSnapshot;
 import info.jdip.world.World;
 import org.nukesoft.jdipFacade.exception.JdipException;
 import org.nukesoft.jdipFacade.exception.PowerNotFoundException;
 import org.nukesoft.jdipFacade.exception.StateError;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
@@ -104,20 +110,109 @@ public class JdipWorld {
         if (power == null) {
             throw new PowerNotFoundException();
         }
-        //parse the orders
-        ArrayList<Orderable> orders = new ArrayList<>();
+        //parse and set the orders
+        List<Orderable> orders = parseOrders(OrderParser.getInstance(), power, orderStrings);
+        world.getLastTurnState().setOrders(power, orders);
+    }
+
+    /**
+     * Loads orders for any number of powers into the most recent turn state.
+     * All orders are parsed before any are set; if any order cannot be parsed,
+     * no orders are changed. Overwrites any existing orders for the given powers.
+     *
+     * @param ordersByPower the orders to load, keyed by power name
+     * @throws PowerNotFoundException
+     * @throws JdipException
+     */
+    public void setOrders(Map<String, String[]> ordersByPower)
+            throws PowerNotFoundException, JdipException {
+        //parse all the orders
         OrderParser parser = OrderParser.getInstance();
+        LinkedHashMap<Power, List<Orderable>> parsedOrders = new LinkedHashMap<>();
+        for (Map.Entry<String, String[]> entry : ordersByPower.entrySet()) {
+            Power power = getPower(entry.getKey()).getPower();
+            parsedOrders.put(power, parseOrders(parser, power, entry.getValue()));
+        }
+        //set the orders
+        TurnState turnState = world.getLastTurnState();
+        for (Map.Entry<Power, List<Orderable>> entry : parsedOrders.entrySet()) {
+            turnState.setOrders(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Parses orders for a power against the most recent turn state.
+     *
+     * @param parser       the parser to use
+     * @param power        the power to parse for
+     * @param orderStrings the orders to parse
+     * @return the parsed orders
+     * @throws JdipException
+     */
+    private List<Orderable> parseOrders(OrderParser parser, Power power, String[] orderStrings)
+            throws JdipException {
+        ArrayList<Orderable> orders = new ArrayList<>(orderStrings.length);
         OrderFactory of = strategy.getOrderFactory();
+        TurnState turnState = world.getLastTurnState();
         try {
             for (String orderString : orderStrings) {
-                Order o = parser.parse(of, power.getName() + " " + orderString, power, world.getLastTurnState(), true, false);
+                Order o = parser.parse(of, power.getName() + " " + orderString, power, turnState, true, false);
                 orders.add(o);
             }
         } catch (OrderException e) {
             throw new JdipException(e.getMessage() + " <" + e.getOrder() + ">", e);
         }
-        //set the orders
-        world.getLastTurnState().setOrders(power, orders);
+        return orders;
+    }
+
+    /**
+     * Adjudicates the most recent turn state, and advances to the next turn state.
+     *
+     * @param pool the pool to use for parallel resolution of movement orders,
+     *             or <code>null</code> to resolve orders serially
+     * @return <code>true</code> if a new turn state was created, <code>false</code> if otherwise.
+     */
+    boolean adjudicate(ForkJoinPool pool) {
+        //adjudicate
+        StdAdjudicator stdJudge = new StdAdjudicator(strategy.getOrderFactory(), world.getLastTurnState());
+        stdJudge.setParallelResolution(pool);
+        stdJudge.process();
+        //advance turn state
+        TurnState nextTurnState = stdJudge.getNextTurnState();
+        if (nextTurnState != null) {
+            world.setTurnState(nextTurnState);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Exports the current and previous turn states as a compact binary snapshot.
+     * Provinces and powers are encoded by index, so the snapshot can only be
+     * loaded into a world of the same variant.
+     *
+     * @return the snapshot
+     * @see JdipWorldFactory#createWorldFromSnapshot(byte[])
+     */
+    public byte[] exportSnapshot() {
+        return TurnStateSnapshot.toByteArray(world);
+    }
+
+    /**
+     * Replaces the state of this world with a snapshot created by <code>exportSnapshot()</code>.
+     * If the snapshot cannot be loaded, this world is not changed.
+     *
+     * @param snapshot the snapshot to load
+     * @throws JdipException if the snapshot is invalid, or is for another variant
+     */
+    public void loadSnapshot(byte[] snapshot)
+            throws JdipException {
+        try {
+            TurnStateSnapshot.fromByteArray(world, strategy.getOrderFactory(), snapshot);
+        } catch (IOException e) {
+            throw new JdipException("Failed to load snapshot: " + e.getMessage(), e);
+        }
     }
 
     /**
@@ -130,15 +225,11 @@ public class JdipWorld {
         OrderFormatOptions ofo = this.ceateOrderFormat(format);
 
         TurnState state = world.getPreviousTurnState(world.getLastTurnState());
-        List<Result> allResults = state.getResultList();
         ArrayList<JdipResult> generalResults = new ArrayList<>();
 
-        for (Result result : allResults) {
-            JdipResult r = new JdipResult(result, ofo);
-            //find all general resluts
-            if (r.isGeneralResult()) {
-                generalResults.add(r);
-            }
+        //general results have no power
+        for (Result result : state.getResultIndex().getResults((Power) null)) {
+            generalResults.add(new JdipResult(result, ofo));
         }
 
         return toJdipResultArray(generalResults.toArray());
@@ -155,15 +246,11 @@ public class JdipWorld {
         OrderFormatOptions ofo = this.ceateOrderFormat(format);
 
         TurnState state = world.getPreviousTurnState(world.getLastTurnState());
-        List<Result> allResults = state.getResultList();
         ArrayList<JdipResult> generalResults = new ArrayList<>();
 
-        for (Result result : allResults) {
-            JdipResult r = new JdipResult(result, ofo);
-            //find all resluts for given power
-            if (!r.isGeneralResult() && r.getPower().equals(power.getPowerName())) {
-                generalResults.add(r);
-            }
+        //find all resluts for given power
+        for (Result result : state.getResultIndex().getResults(power.getPower())) {
+            generalResults.add(new JdipResult(result, ofo));
         }
 
         return toJdipResultArray(generalResults.toArray());
@@ -178,6 +265,15 @@ public class JdipWorld {
         return result;
     }
 
+    /**
+     * Determines if any phase has been adjudicated, so that results are available.
+     *
+     * @return <code>true</code>/<code>false</code>
+     */
+    public boolean hasResults() {
+        return world.getPreviousTurnState(world.getLastTurnState()) != null;
+    }
+
     /**
      * Gets the expanded name of the current phase.
      *
@@ -16,15 +16,15 @@
  */
 package org.nukesoft.jdipFacade;
 
-import info.jdip.world.InvalidWorldException;
-import info.jdip.world.RuleOptions;
+import info.jdip.world.TurnStateSnapshot;
 import info.jdip.world.World;
-import info.jdip.world.WorldFactory;
 import info.jdip.world.variant.VariantManager;
 import info.jdip.world.variant.data.Variant;
 import org.nukesoft.jdipFacade.exception.JdipException;
 import org.nukesoft.jdipFacade.exception.ResourceLoadException;
 
+import java.io.IOException;
+
 
 /**
  * Creates <code>JdipWorld</code> objects.
@@ -81,29 +81,37 @@ public class JdipWorldFactory {
     }
 
     /**
-     * Creates a world object.
+     * Creates a world from a snapshot created by <code>JdipWorld.exportSnapshot()</code>.
+     * Uses the default headless implementation strategy.
+     *
+     * @param snapshot the snapshot to load
+     * @return a <code>World</code> object
+     * @throws ResourceLoadException if the snapshot's variant could not be found
+     * @throws JdipException         if the snapshot is invalid, or the <code>World</code> failed to load
+     */
+    public JdipWorld createWorldFromSnapshot(byte[] snapshot)
+            throws JdipException, ResourceLoadException {
+        String variantName;
+        try {
+            variantName = TurnStateSnapshot.getVariantName(snapshot);
+        } catch (IOException e) {
+            throw new JdipException("Failed to load snapshot: " + e.getMessage(), e);
+        }
+        JdipWorld world = createWorld(variantName);
+        world.loadSnapshot(snapshot);
+        return world;
+    }
+
+    /**
+     * Creates a world object, copied from the variant's template.
      *
      * @param variantName
      * @return a world
      * @throws ResourceLoadException
-     * @throws InvalidWorldException
+     * @throws JdipException
      */
     private World getWorldFromVariant(String variantName)
             throws ResourceLoadException, JdipException {
-        try {
-            //initialize the variant
-            Variant v = VariantManager.getVariant(variantName, VariantManager.VERSION_NEWEST);
-            if (v == null) {
-                throw new ResourceLoadException("Failed to load variant \"" +
-                        variantName + "\"");
-            }
-            //create the world and establish the rules
-            World w = WorldFactory.getInstance().createWorld(v);
-            w.setRuleOptions(RuleOptions.createFromVariant(v));
-
-            return w;
-        } catch (InvalidWorldException e) {
-            throw new JdipException("Failed to load world", e);
-        }
+        return WorldTemplatePool.getInstance().createWorld(variantName);
     }
 }
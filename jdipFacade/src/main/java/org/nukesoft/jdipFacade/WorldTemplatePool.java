@@ -0,0 +1,127 @@
+//
+//  @(#)WorldTemplatePool.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package org.nukesoft.jdipFacade;
+
+import info.jdip.world.InvalidWorldException;
+import info.jdip.world.RuleOptions;
+import info.jdip.world.World;
+import info.jdip.world.WorldFactory;
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.Variant;
+import org.nukesoft.jdipFacade.exception.JdipException;
+import org.nukesoft.jdipFacade.exception.ResourceLoadException;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Pool of template worlds, one per variant. A template is created from the
+ * variant the first time a world for that variant is requested; all later
+ * worlds are copied from the template, which avoids parsing the variant
+ * and building the map again.
+ * <p>
+ * Threadsafe. Templates are never handed out, so they are never modified.
+ */
+final class WorldTemplatePool {
+    private static final WorldTemplatePool instance = new WorldTemplatePool();
+
+    private final ConcurrentHashMap<String, World> templates = new ConcurrentHashMap<>();
+    private final Object createLock = new Object();
+
+    private WorldTemplatePool() {
+    }
+
+    /**
+     * Gets the shared pool.
+     *
+     * @return the <code>WorldTemplatePool</code>
+     */
+    static WorldTemplatePool getInstance() {
+        return instance;
+    }
+
+    /**
+     * Creates a new world for the given variant.
+     *
+     * @param variantName the variant to load
+     * @return a new <code>World</code>
+     * @throws ResourceLoadException if the variant could not be found
+     * @throws JdipException         if the <code>World</code> failed to load
+     */
+    World createWorld(String variantName)
+            throws ResourceLoadException, JdipException {
+        return WorldFactory.getInstance().createWorld(getTemplate(variantName));
+    }
+
+    /**
+     * Discards all templates. Worlds already created are not affected.
+     */
+    void clear() {
+        templates.clear();
+    }
+
+    /**
+     * Gets the template for a variant, creating it if needed. Templates are
+     * created one at a time, since creating a World from a Variant is not threadsafe.
+     */
+    private World getTemplate(String variantName)
+            throws ResourceLoadException, JdipException {
+        if (variantName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final String key = variantName.toLowerCase();
+        World template = templates.get(key);
+        if (template == null) {
+            synchronized (createLock) {
+                template = templates.get(key);
+                if (template == null) {
+                    template = createTemplate(variantName);
+                    templates.put(key, template);
+                }
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Creates a template world from the newest version of a variant.
+     */
+    private World createTemplate(String variantName)
+            throws ResourceLoadException, JdipException {
+        try {
+            //initialize the variant
+            Variant v = VariantManager.getVariant(variantName, VariantManager.VERSION_NEWEST);
+            if (v == null) {
+                throw new ResourceLoadException("Failed to load variant \"" +
+                        variantName + "\"");
+            }
+            //create the world and establish the rules
+            World w = WorldFactory.getInstance().createWorld(v);
+            World.VariantInfo vi = w.getVariantInfo();
+            vi.setVariantName(v.getName());
+            vi.setVariantVersion(v.getVersion());
+            vi.setRuleOptions(RuleOptions.createFromVariant(v));
+
+            return w;
+        } catch (InvalidWorldException e) {
+            throw new JdipException("Failed to load world", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+//
+//  @(#)GameLimitException.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package org.nukesoft.jdipFacade.exception;
+
+
+/**
+ * An exception for when a game cannot be created because the engine
+ * already hosts its maximum number of games.
+ */
+public class GameLimitException extends JdipFacadeException {
+
+    public GameLimitException() {
+        super();
+    }
+
+    public GameLimitException(String msg) {
+        super(msg);
+    }
+
+    public GameLimitException(String msg, Throwable e) {
+        super(msg, e);
+    }
+
+    public GameLimitException(Throwable e) {
+        super(e);
+    }
+}
@@ -0,0 +1,42 @@
+//
+//  @(#)GameNotFoundException.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package org.nukesoft.jdipFacade.exception;
+
+
+/**
+ * An exception for when a specified game cannot be found.
+ */
+public class GameNotFoundException extends JdipFacadeException {
+
+    public GameNotFoundException() {
+        super();
+    }
+
+    public GameNotFoundException(String msg) {
+        super(msg);
+    }
+
+    public GameNotFoundException(String msg, Throwable e) {
+        super(msg, e);
+    }
+
+    public GameNotFoundException(Throwable e) {
+        super(e);
+    }
+}
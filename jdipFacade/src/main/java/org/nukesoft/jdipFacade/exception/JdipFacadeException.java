@@ -61,6 +61,15 @@ public class JdipFacadeException extends Exception {
         return getMessage(0);
     }
 
+    /**
+     * Gets the message without the error header or root causes.
+     *
+     * @return the message, or <code>null</code>
+     */
+    public String getPlainMessage() {
+        return super.getMessage();
+    }
+
     /**
      * @param tabs the number of tabs to indent
      * @return
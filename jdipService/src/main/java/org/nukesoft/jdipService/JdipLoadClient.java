@@ -0,0 +1,231 @@
+//
+//  @(#)JdipLoadClient.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package org.nukesoft.jdipService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Load-test client for <code>JdipServer</code>. Plays the first Standard movement
+ * phase repeatedly, from many client threads, and reports throughput and latency.
+ * <p>
+ * Arguments: baseUrl [mode [threads [iterations]]]
+ * <pre>
+ *  games   each iteration is 4 requests: create, orders, adjudicate, delete (default)
+ *  batch   each iteration is a create request, then one /batch request of 4 requests
+ *  stream  each thread sends one /stream request, with one "run" line per iteration
+ * </pre>
+ */
+public class JdipLoadClient {
+    private static final Map<String, List<String>> ORDERS = new LinkedHashMap<>();
+
+    static {
+        ORDERS.put("Austria", Arrays.asList("A vie-gal", "A bud-ser", "F tri-alb"));
+        ORDERS.put("England", Arrays.asList("F lon-nth", "F edi-nwg", "A lvp-yor"));
+        ORDERS.put("France", Arrays.asList("A par-bur", "A mar S A par-bur", "F bre-mao"));
+        ORDERS.put("Germany", Arrays.asList("A mun-bur", "F kie-den", "A ber-kie"));
+        ORDERS.put("Italy", Arrays.asList("A ven-tyr", "F nap-ion", "A rom-apu"));
+        ORDERS.put("Russia", Arrays.asList("A war-gal", "A mos-ukr", "F sev-bla", "F stp/sc-bot"));
+        ORDERS.put("Turkey", Arrays.asList("F ank-bla", "A con-bul", "A smy-arm"));
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+
+    private JdipLoadClient(String baseUrl) {
+        this.baseUrl = baseUrl.replaceAll("/+$", "");
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    public static void main(String[] args)
+            throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: JdipLoadClient baseUrl [games|batch|stream [threads [iterations]]]");
+            System.exit(1);
+        }
+        final String mode = (args.length > 1) ? args[1] : "games";
+        final int threads = (args.length > 2) ? Integer.parseInt(args[2]) : 64;
+        final int iterations = (args.length > 3) ? Integer.parseInt(args[3]) : 50;
+
+        final JdipLoadClient loadClient = new JdipLoadClient(args[0]);
+        loadClient.runIteration(mode, 1);    // warm up, and fail fast if the server is unreachable
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> futures = new ArrayList<>(threads);
+        final long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> loadClient.runThread(mode, iterations)));
+        }
+
+        ArrayList<Long> latencies = new ArrayList<>(threads * iterations);
+        for (Future<long[]> future : futures) {
+            for (long latency : future.get()) {
+                latencies.add(latency);
+            }
+        }
+        final long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        final long adjudications = (long) threads * iterations;
+        final long requests;
+        if ("games".equals(mode)) {
+            requests = adjudications * 4;
+        } else if ("batch".equals(mode)) {
+            requests = adjudications * 2;
+        } else {
+            requests = threads;
+        }
+        final double seconds = elapsed / 1e9;
+        latencies.sort(null);
+        System.out.printf("mode=%s threads=%d iterations=%d time=%.2fs%n", mode, threads, iterations, seconds);
+        System.out.printf("adjudications/s=%.1f  http requests/s=%.1f%n", adjudications / seconds, requests / seconds);
+        System.out.printf("latency per %s (ms): p50=%.2f p95=%.2f p99=%.2f max=%.2f%n",
+                "stream".equals(mode) ? "stream" : "iteration",
+                percentile(latencies, 0.50), percentile(latencies, 0.95),
+                percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    /**
+     * Runs all iterations for one client thread; returns the latency of each request.
+     */
+    private long[] runThread(String mode, int iterations)
+            throws IOException, InterruptedException {
+        if ("stream".equals(mode)) {
+            final long start = System.nanoTime();
+            runIteration(mode, iterations);
+            return new long[]{System.nanoTime() - start};
+        }
+        long[] latencies = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            final long start = System.nanoTime();
+            runIteration(mode, 1);
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    /**
+     * Runs one iteration (or, for streams, a stream of <code>count</code> lines).
+     */
+    private void runIteration(String mode, int count)
+            throws IOException, InterruptedException {
+        LinkedHashMap<String, Object> orders = new LinkedHashMap<>();
+        orders.put("orders", ORDERS);
+
+        if ("games".equals(mode)) {
+            Map<?, ?> created = (Map<?, ?>) send("POST", "/games", "{\"variant\":\"Standard\"}");
+            String game = "/games/" + created.get("game");
+            send("POST", game + "/orders", Json.toJson(orders));
+            send("POST", game + "/adjudicate", "");
+            send("DELETE", game, "");
+        } else if ("batch".equals(mode)) {
+            Map<?, ?> created = (Map<?, ?>) send("POST", "/games", "{\"variant\":\"Standard\"}");
+            Object game = created.get("game");
+            List<Object> batch = new ArrayList<>();
+            batch.add(createRequest("orders", game, ORDERS));
+            batch.add(createRequest("adjudicate", game, null));
+            batch.add(createRequest("results", game, null));
+            batch.add(createRequest("delete", game, null));
+            Map<?, ?> response = (Map<?, ?>) send("POST", "/batch", Json.toJson(batch));
+            for (Object r : (List<?>) response.get("responses")) {
+                checkResponse(r);
+            }
+        } else if ("stream".equals(mode)) {
+            orders.put("variant", "Standard");
+            String line = Json.toJson(orders);
+            StringBuilder body = new StringBuilder(line.length() * count + count);
+            for (int i = 0; i < count; i++) {
+                body.append(line).append('\n');
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/stream"))
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+            HttpResponse<java.io.InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            int lines = 0;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String responseLine;
+                while ((responseLine = reader.readLine()) != null) {
+                    checkResponse(Json.parse(responseLine));
+                    lines++;
+                }
+            }
+            if (lines != count) {
+                throw new IOException("Expected " + count + " responses, got " + lines);
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+    }
+
+    private static Map<String, Object> createRequest(String op, Object game, Object orders) {
+        LinkedHashMap<String, Object> request = new LinkedHashMap<>();
+        request.put("op", op);
+        request.put("game", game);
+        if (orders != null) {
+            request.put("orders", orders);
+        }
+        return request;
+    }
+
+    private Object send(String method, String path, String body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .method(method, body.isEmpty() ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Object json = Json.parse(response.body());
+        if (response.statusCode() != 200) {
+            throw new IOException(method + " " + path + ": " + response.body());
+        }
+        return json;
+    }
+
+    private static void checkResponse(Object response)
+            throws IOException {
+        if (response instanceof Map && ((Map<?, ?>) response).containsKey("error")) {
+            throw new IOException("Request failed: " + Json.toJson(response));
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1))) / 1e6;
+    }
+}
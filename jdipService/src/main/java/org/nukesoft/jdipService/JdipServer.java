@@ -0,0 +1,543 @@
+//
+//  @(#)JdipServer.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package org.nukesoft.jdipService;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.nukesoft.jdipFacade.JdipAdjudicationEngine;
+import org.nukesoft.jdipFacade.JdipEngineMetrics;
+import org.nukesoft.jdipFacade.exception.JdipException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * An embeddable HTTP/JSON adjudication server, built on the JDK <code>HttpServer</code>.
+ * <p>
+ * Endpoints:
+ * <pre>
+ *  GET    /variants                        list variant names
+ *  POST   /games            {variant}      create a game
+ *  GET    /games/ID                        phase, game over, powers
+ *  DELETE /games/ID                        remove a game
+ *  POST   /games/ID/orders  {orders}       set orders; orders are {power:[order...]}
+ *  POST   /games/ID/adjudicate             adjudicate, and return the results
+ *  GET    /games/ID/results                results of the last adjudicated phase
+ *  GET    /games/ID/map                    provinces, units, supply centers
+ *  GET    /games/ID/snapshot               compact snapshot of the game, as base64
+ *  POST   /games            {snapshot}     create a game from a snapshot
+ *  POST   /batch            [request...]   run requests in order (see JdipService)
+ *  POST   /stream           NDJSON         run one request per line; one response per line
+ *  GET    /metrics                         engine latency metrics
+ * </pre>
+ * Query parameters (such as <code>format</code> and <code>power</code>) are added to
+ * the request. Errors are returned as <code>{"error":..., "status":...}</code>.
+ * <p>
+ * Request bodies, and lines of a stream, are limited to <code>MAX_BODY_SIZE</code> bytes.
+ * Requests are not authenticated; <code>main()</code> listens on the loopback address
+ * unless another address is given.
+ * <p>
+ * Requests to <code>/stream</code> are read and answered incrementally; requests on
+ * a stream are run concurrently, but responses are written in request order. Lines
+ * without an "op" are run as a "run" request (a one-shot adjudication).
+ * <p>
+ * Each HTTP request is handled on its own virtual thread when the runtime supports
+ * them, and on a fixed-size pool of platform threads otherwise.
+ */
+public class JdipServer {
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final String NDJSON_TYPE = "application/x-ndjson; charset=utf-8";
+
+    /**
+     * The maximum size of a request body, or of a line of a stream, in bytes.
+     */
+    public static final int MAX_BODY_SIZE = 1 << 20;
+
+    /**
+     * The maximum number of games hosted by a server run by <code>main()</code>.
+     */
+    public static final int DEFAULT_MAX_GAMES = 10000;
+
+    private final JdipService service;
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ExecutorService streamExecutor;
+    private final int streamWindow;
+
+    /**
+     * Creates a server. It must be started with <code>start()</code>.
+     *
+     * @param engine         the engine hosting the games
+     * @param address        the address to listen on; port 0 picks a free port
+     * @param requestThreads the number of request threads, if virtual threads are not available
+     * @throws IOException if the server could not be bound
+     */
+    public JdipServer(JdipAdjudicationEngine engine, InetSocketAddress address, int requestThreads)
+            throws IOException {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        this.service = new JdipService(engine);
+        this.requestExecutor = createRequestExecutor(requestThreads);
+        this.streamExecutor = Executors.newFixedThreadPool(processors, new DaemonThreadFactory("jdip-stream-"));
+        this.streamWindow = processors * 2;
+        this.server = HttpServer.create(address, 0);
+        this.server.createContext("/", new ServiceHandler());
+        this.server.setExecutor(requestExecutor);
+    }
+
+    /**
+     * Starts the server.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, waiting up to <code>delay</code> seconds for requests in progress.
+     *
+     * @param delay the maximum time to wait, in seconds
+     */
+    public void stop(int delay) {
+        server.stop(delay);
+        requestExecutor.shutdown();
+        streamExecutor.shutdown();
+    }
+
+    /**
+     * Gets the address the server is listening on.
+     *
+     * @return the address
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Gets the service.
+     *
+     * @return the <code>JdipService</code>
+     */
+    public JdipService getService() {
+        return service;
+    }
+
+    /**
+     * Runs a server until the process is killed.
+     * Arguments: jdipRootPath [port [requestThreads [bindAddress]]]
+     * <p>
+     * The server listens on the loopback address unless a bind address is given,
+     * and hosts at most <code>DEFAULT_MAX_GAMES</code> games.
+     */
+    public static void main(String[] args)
+            throws IOException, JdipException {
+        if (args.length < 1) {
+            System.err.println("Usage: JdipServer jdipRootPath [port [requestThreads [bindAddress]]]");
+            System.exit(1);
+        }
+        final int port = (args.length > 1) ? Integer.parseInt(args[1]) : 8080;
+        final int threads = (args.length > 2) ? Integer.parseInt(args[2]) : 200;
+        final InetAddress bindAddress = (args.length > 3)
+                ? InetAddress.getByName(args[3]) : InetAddress.getLoopbackAddress();
+
+        JdipAdjudicationEngine engine = new JdipAdjudicationEngine(args[0]);
+        engine.setMaxGames(DEFAULT_MAX_GAMES);
+        JdipServer server = new JdipServer(engine, new InetSocketAddress(bindAddress, port), threads);
+        server.start();
+        System.out.println("jDip service listening on " + server.getAddress());
+    }
+
+    /**
+     * Uses a virtual thread per task if available (Java 21+), otherwise a fixed pool.
+     */
+    private static ExecutorService createRequestExecutor(int threads) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads, new DaemonThreadFactory("jdip-http-"));
+        }
+    }
+
+    /**
+     * Routes every request to the <code>JdipService</code>.
+     */
+    private class ServiceHandler implements HttpHandler {
+        public void handle(HttpExchange exchange)
+                throws IOException {
+            try {
+                final String method = exchange.getRequestMethod();
+                final String[] path = splitPath(exchange.getRequestURI().getPath());
+
+                if (path.length == 1 && "stream".equals(path[0])) {
+                    requireMethod(method, "POST");
+                    handleStream(exchange);
+                    return;
+                }
+
+                Object response = route(exchange, method, path);
+                sendJson(exchange, 200, response);
+            } catch (ServiceException e) {
+                sendJson(exchange, e.getStatus(), JdipService.errorResponse(e));
+            } catch (RuntimeException e) {
+                sendJson(exchange, ServiceException.INTERNAL_ERROR, JdipService.errorResponse(
+                        new ServiceException(ServiceException.INTERNAL_ERROR, String.valueOf(e), e)));
+            } finally {
+                exchange.close();
+            }
+        }
+
+        /**
+         * Handles all non-streaming requests.
+         */
+        private Object route(HttpExchange exchange, String method, String[] path)
+                throws IOException, ServiceException {
+            if (path.length == 1 && "variants".equals(path[0])) {
+                requireMethod(method, "GET");
+                return service.listVariants();
+            } else if (path.length == 1 && "metrics".equals(path[0])) {
+                requireMethod(method, "GET");
+                return createMetrics(service.getEngine().getMetrics());
+            } else if (path.length == 1 && "batch".equals(path[0])) {
+                requireMethod(method, "POST");
+                Object body = readBody(exchange);
+                if (body instanceof Map && ((Map<?, ?>) body).get("requests") instanceof List) {
+                    body = ((Map<?, ?>) body).get("requests");
+                }
+                if (!(body instanceof List)) {
+                    throw new ServiceException(ServiceException.BAD_REQUEST, "Batch must be a JSON array");
+                }
+                LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+                response.put("responses", service.executeBatch((List<?>) body));
+                return response;
+            } else if (path.length >= 1 && "games".equals(path[0])) {
+                Map<String, Object> request = createRequest(exchange);
+                if (path.length == 1) {
+                    requireMethod(method, "POST");
+                    request.put("op", request.containsKey("snapshot") ? "import" : "create");
+                } else {
+                    request.put("game", path[1]);
+                    if (path.length == 2 && "GET".equals(method)) {
+                        request.put("op", "state");
+                    } else if (path.length == 2 && "DELETE".equals(method)) {
+                        request.put("op", "delete");
+                    } else if (path.length == 3 && "orders".equals(path[2])) {
+                        requireMethod(method, "POST");
+                        request.put("op", "orders");
+                    } else if (path.length == 3 && "adjudicate".equals(path[2])) {
+                        requireMethod(method, "POST");
+                        request.put("op", "adjudicate");
+                    } else if (path.length == 3 && "results".equals(path[2])) {
+                        requireMethod(method, "GET");
+                        request.put("op", "results");
+                    } else if (path.length == 3 && "map".equals(path[2])) {
+                        requireMethod(method, "GET");
+                        request.put("op", "map");
+                    } else if (path.length == 3 && "snapshot".equals(path[2])) {
+                        requireMethod(method, "GET");
+                        request.put("op", "export");
+                    } else if (path.length == 2) {
+                        throw new ServiceException(ServiceException.METHOD_NOT_ALLOWED, "Method not allowed: " + method);
+                    } else {
+                        throw new ServiceException(ServiceException.NOT_FOUND, "Not found: " + exchange.getRequestURI().getPath());
+                    }
+                }
+                return service.execute(request);
+            }
+            throw new ServiceException(ServiceException.NOT_FOUND, "Not found: " + exchange.getRequestURI().getPath());
+        }
+
+        /**
+         * Reads one request per line and writes one response per line. Up to
+         * <code>streamWindow</code> requests are run at once.
+         */
+        private void handleStream(HttpExchange exchange)
+                throws IOException {
+            exchange.getResponseHeaders().set("Content-Type", NDJSON_TYPE);
+            exchange.sendResponseHeaders(200, 0);
+
+            final ArrayDeque<Future<Map<String, Object>>> pending = new ArrayDeque<>(streamWindow);
+            try (InputStream in = exchange.getRequestBody();
+                 Writer writer = new BufferedWriter(
+                         new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                LineReader reader = new LineReader(in, MAX_BODY_SIZE);
+                while (reader.next()) {
+                    if (reader.isTooLong()) {
+                        pending.add(CompletableFuture.completedFuture(JdipService.errorResponse(
+                                new ServiceException(ServiceException.PAYLOAD_TOO_LARGE,
+                                        "Line exceeds " + MAX_BODY_SIZE + " bytes"))));
+                    } else {
+                        String line = reader.getLine();
+                        if (line.trim().isEmpty()) {
+                            continue;
+                        }
+                        pending.add(submitLine(line));
+                    }
+                    while (pending.size() >= streamWindow) {
+                        writeNext(pending, writer);
+                    }
+                }
+                while (!pending.isEmpty()) {
+                    writeNext(pending, writer);
+                }
+            } finally {
+                for (Future<Map<String, Object>> future : pending) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        private Future<Map<String, Object>> submitLine(String line) {
+            final Object request;
+            try {
+                request = Json.parse(line);
+            } catch (IllegalArgumentException e) {
+                return CompletableFuture.completedFuture(JdipService.errorResponse(
+                        new ServiceException(ServiceException.BAD_REQUEST, e.getMessage())));
+            }
+            if (request instanceof Map && !((Map<?, ?>) request).containsKey("op")) {
+                @SuppressWarnings("unchecked")
+                Map<Object, Object> map = (Map<Object, Object>) request;
+                map.put("op", "run");
+            }
+            return streamExecutor.submit(() -> service.executeSafely(request));
+        }
+
+        /**
+         * Writes the oldest pending response; flushes first if it is not ready.
+         */
+        private void writeNext(ArrayDeque<Future<Map<String, Object>>> pending, Writer writer)
+                throws IOException {
+            Future<Map<String, Object>> future = pending.poll();
+            if (!future.isDone()) {
+                writer.flush();
+            }
+            Map<String, Object> response;
+            try {
+                response = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            } catch (ExecutionException e) {
+                response = JdipService.errorResponse(new ServiceException(
+                        ServiceException.INTERNAL_ERROR, String.valueOf(e.getCause()), e.getCause()));
+            }
+            writer.write(Json.toJson(response));
+            writer.write('\n');
+        }
+    }
+
+    private static String[] splitPath(String path) {
+        String trimmed = path.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static void requireMethod(String method, String required)
+            throws ServiceException {
+        if (!required.equals(method)) {
+            throw new ServiceException(ServiceException.METHOD_NOT_ALLOWED, "Method not allowed: " + method);
+        }
+    }
+
+    /**
+     * Creates a request from the JSON body (if any) and the query parameters.
+     */
+    private static Map<String, Object> createRequest(HttpExchange exchange)
+            throws IOException, ServiceException {
+        LinkedHashMap<String, Object> request = new LinkedHashMap<>();
+        Object body = readBody(exchange);
+        if (body instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) body).entrySet()) {
+                request.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+        } else if (body != null) {
+            throw new ServiceException(ServiceException.BAD_REQUEST, "Request body must be a JSON object");
+        }
+
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String param : query.split("&")) {
+                int eq = param.indexOf('=');
+                if (eq > 0) {
+                    request.put(URLDecoder.decode(param.substring(0, eq), StandardCharsets.UTF_8),
+                            URLDecoder.decode(param.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return request;
+    }
+
+    /**
+     * Reads the request body as JSON; returns <code>null</code> if there is no body.
+     */
+    private static Object readBody(HttpExchange exchange)
+            throws IOException, ServiceException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return readJson(in, MAX_BODY_SIZE);
+        }
+    }
+
+    /**
+     * Reads a JSON value of at most <code>maxSize</code> bytes; returns <code>null</code>
+     * if there is no value.
+     *
+     * @param in      the stream to read
+     * @param maxSize the maximum number of bytes to read
+     * @return the value, or <code>null</code>
+     * @throws IOException      if the stream could not be read
+     * @throws ServiceException if the stream is longer than <code>maxSize</code>, or not valid JSON
+     */
+    static Object readJson(InputStream in, int maxSize)
+            throws IOException, ServiceException {
+        byte[] bytes = in.readNBytes(maxSize + 1);
+        if (bytes.length > maxSize) {
+            throw new ServiceException(ServiceException.PAYLOAD_TOO_LARGE,
+                    "Request body exceeds " + maxSize + " bytes");
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        if (text.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Json.parse(text);
+        } catch (IllegalArgumentException e) {
+            throw new ServiceException(ServiceException.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Object response)
+            throws IOException {
+        byte[] bytes = Json.toJson(response).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, Object> createMetrics(JdipEngineMetrics metrics) {
+        LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+        for (JdipEngineMetrics.Operation operation : JdipEngineMetrics.Operation.values()) {
+            LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+            map.put("count", metrics.getCount(operation));
+            map.put("failures", metrics.getFailureCount(operation));
+            map.put("meanNanos", metrics.getMeanNanos(operation));
+            map.put("maxNanos", metrics.getMaxNanos(operation));
+            response.put(operation.name().toLowerCase(), map);
+        }
+        return response;
+    }
+
+    /**
+     * Reads lines of UTF-8 text, keeping at most <code>maxLength</code> bytes of each.
+     * Unlike <code>BufferedReader.readLine()</code>, a long line cannot exhaust memory.
+     */
+    static final class LineReader {
+        private final InputStream in;
+        private final int maxLength;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        private boolean tooLong = false;
+
+        LineReader(InputStream in, int maxLength) {
+            this.in = new BufferedInputStream(in);
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Reads the next line.
+         *
+         * @return <code>false</code> at the end of the stream
+         * @throws IOException if the stream could not be read
+         */
+        boolean next()
+                throws IOException {
+            line.reset();
+            tooLong = false;
+            int b = in.read();
+            if (b < 0) {
+                return false;
+            }
+            while (b >= 0 && b != '\n') {
+                if (line.size() < maxLength) {
+                    line.write(b);
+                } else {
+                    tooLong = true;
+                }
+                b = in.read();
+            }
+            return true;
+        }
+
+        /**
+         * Determines if the current line is longer than the maximum; if so, its
+         * text is not available.
+         */
+        boolean isTooLong() {
+            return tooLong;
+        }
+
+        /**
+         * Gets the current line, without the line terminator.
+         */
+        String getLine() {
+            String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+            return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+        }
+    }
+
+    /**
+     * Creates named daemon threads, so that the pools do not keep the VM alive.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        DaemonThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
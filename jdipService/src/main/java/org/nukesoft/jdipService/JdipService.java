@@ -0,0 +1,542 @@
+//
+//  @(#)JdipService.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package org.nukesoft.jdipService;
+
+import org.nukesoft.jdipFacade.JdipAdjudicationEngine;
+import org.nukesoft.jdipFacade.JdipMapInfo;
+import org.nukesoft.jdipFacade.JdipPower;
+import org.nukesoft.jdipFacade.JdipResult;
+import org.nukesoft.jdipFacade.JdipWorld;
+import org.nukesoft.jdipFacade.exception.GameLimitException;
+import org.nukesoft.jdipFacade.exception.GameNotFoundException;
+import org.nukesoft.jdipFacade.exception.JdipFacadeException;
+import org.nukesoft.jdipFacade.exception.PowerNotFoundException;
+import org.nukesoft.jdipFacade.exception.ResourceLoadException;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * The operations of the adjudication service, independent of HTTP. Requests and
+ * responses are JSON-style maps (see <code>Json</code>).
+ * <p>
+ * Every request has an <code>"op"</code>:
+ * <pre>
+ *  variants                                      list variant names
+ *  create      variant                           create a game
+ *  orders      game, orders:{power:[order...]}   set orders for any number of powers
+ *  adjudicate  game, [format]                    adjudicate, and return the results
+ *  state       game                              phase, game over, powers
+ *  results     game, [power], [format]           results of the last adjudicated phase
+ *  map         game                              provinces, units, supply centers
+ *  delete      game                              remove a game
+ *  export      game                              snapshot of the game, as base64
+ *  import      snapshot, [game]                  create a game from a snapshot
+ *  run         variant, orders, [format]         create, order, adjudicate and delete a game
+ * </pre>
+ * Formats are "default", "terse", "verbose" or "debug".
+ * <p>
+ * Threadsafe.
+ */
+public class JdipService {
+    private final JdipAdjudicationEngine engine;
+
+    /**
+     * Creates a service for the given engine.
+     *
+     * @param engine the engine hosting the games
+     */
+    public JdipService(JdipAdjudicationEngine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException();
+        }
+        this.engine = engine;
+    }
+
+    /**
+     * Gets the engine.
+     *
+     * @return the <code>JdipAdjudicationEngine</code>
+     */
+    public JdipAdjudicationEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Executes a single request.
+     *
+     * @param request the request; must contain an "op"
+     * @return the response
+     * @throws ServiceException if the request failed
+     */
+    public Map<String, Object> execute(Map<?, ?> request)
+            throws ServiceException {
+        String op = getString(request, "op", true);
+        switch (op) {
+            case "variants":
+                return listVariants();
+            case "create":
+                return createGame(getString(request, "variant", true));
+            case "orders":
+                return submitOrders(getString(request, "game", true), getOrders(request));
+            case "adjudicate":
+                return adjudicate(getString(request, "game", true), getFormat(request));
+            case "state":
+                return getState(getString(request, "game", true));
+            case "results":
+                return getResults(getString(request, "game", true),
+                        getString(request, "power", false), getFormat(request));
+            case "map":
+                return getMapInfo(getString(request, "game", true));
+            case "delete":
+                return deleteGame(getString(request, "game", true));
+            case "export":
+                return exportGame(getString(request, "game", true));
+            case "import":
+                return importGame(getString(request, "game", false), getString(request, "snapshot", true));
+            case "run":
+                return run(getString(request, "variant", true), getOrders(request), getFormat(request));
+            default:
+                throw new ServiceException(ServiceException.BAD_REQUEST, "Unknown op: " + op);
+        }
+    }
+
+    /**
+     * Executes a batch of requests, in order. A failed request does not stop
+     * the batch; its response is an error response.
+     *
+     * @param requests the requests
+     * @return one response per request
+     */
+    public List<Map<String, Object>> executeBatch(List<?> requests) {
+        ArrayList<Map<String, Object>> responses = new ArrayList<>(requests.size());
+        for (Object request : requests) {
+            responses.add(executeSafely(request));
+        }
+        return responses;
+    }
+
+    /**
+     * Executes a request, returning an error response rather than throwing.
+     *
+     * @param request the request, which should be a <code>Map</code>
+     * @return the response
+     */
+    public Map<String, Object> executeSafely(Object request) {
+        try {
+            if (!(request instanceof Map)) {
+                throw new ServiceException(ServiceException.BAD_REQUEST, "Request must be a JSON object");
+            }
+            return execute((Map<?, ?>) request);
+        } catch (ServiceException e) {
+            return errorResponse(e);
+        } catch (RuntimeException e) {
+            return errorResponse(new ServiceException(ServiceException.INTERNAL_ERROR, String.valueOf(e), e));
+        }
+    }
+
+    /**
+     * Creates the response for a failed request.
+     *
+     * @param e the failure
+     * @return the response
+     */
+    public static Map<String, Object> errorResponse(ServiceException e) {
+        LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+        response.put("error", e.getMessage());
+        response.put("status", e.getStatus());
+        return response;
+    }
+
+    /**
+     * Lists the names of all variants.
+     *
+     * @return the response
+     */
+    public Map<String, Object> listVariants() {
+        LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+        response.put("variants", engine.getVariantNames());
+        return response;
+    }
+
+    /**
+     * Creates a game.
+     *
+     * @param variantName the variant to play
+     * @return the response
+     * @throws ServiceException
+     */
+    public Map<String, Object> createGame(String variantName)
+            throws ServiceException {
+        try {
+            String gameId = engine.createGame(variantName);
+            return getState(gameId);
+        } catch (JdipFacadeException e) {
+            throw toServiceException(e);
+        }
+    }
+
+    /**
+     * Sets orders for any number of powers. If any order cannot be parsed,
+     * no orders are set.
+     *
+     * @param gameId        the game
+     * @param ordersByPower the orders, keyed by power name
+     * @return the response
+     * @throws ServiceException
+     */
+    public Map<String, Object> submitOrders(String gameId, Map<String, String[]> ordersByPower)
+            throws ServiceException {
+        try {
+            engine.submitOrders(gameId, ordersByPower);
+        } catch (JdipFacadeException e) {
+            throw toServiceException(e);
+        }
+        LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+        response.put("game", gameId);
+        int count = 0;
+        for (String[] orders : ordersByPower.values()) {
+            count += orders.length;
+        }
+        response.put("orders", count);
+        return response;
+    }
+
+    /**
+     * Adjudicates the current phase of a game.
+     *
+     * @param gameId the game
+     * @param format one of the <code>JdipWorld</code> format constants
+     * @return the response, including the results of the adjudicated phase
+     * @throws ServiceException
+     */
+    public Map<String, Object> adjudicate(String gameId, int format)
+            throws ServiceException {
+        try {
+            return engine.adjudicate(gameId, (world, advanced) -> {
+                Map<String, Object> response = createState(gameId, world);
+                response.put("advanced", advanced);
+                response.put("results", createResults(world, null, format));
+                return response;
+            });
+        } catch (JdipFacadeException e) {
+            throw toServiceException(e);
+        }
+    }
+
+    /**
+     * Gets the state of a game.
+     *
+     * @param gameId the game
+     * @return the response
+     * @throws ServiceException
+     */
+    public Map<String, Object> getState(String gameId)
+            throws ServiceException {
+        try {
+            return engine.query(gameId, world -> createState(gameId, world));
+        } catch (JdipFacadeException e) {
+            throw toServiceException(e);
+        }
+    }
+
+    /**
+     * Gets the results of the last adjudicated phase of a game.
+     *
+     * @param gameId    the game
+     * @param powerName the power to get results for, or <code>null</code> for all results
+     * @param format    one of the <code>JdipWorld</code> format constants
+     * @return the response
+     * @throws ServiceException
+     */
+    public Map<String, Object> getResults(String gameId, String powerName, int format)
+            throws ServiceException {
+        try {
+            return engine.query(gameId, world -> {
+                LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+                response.put("game", gameId);
+                response.put("phase", world.hasResults() ? world.getLastPhaseTitle() : null);
+                response.put("results", createResults(world, powerName, format));
+                return response;
+            });
+        } catch (JdipFacadeException e) {
+            throw toServiceException(e);
+        }
+    }
+
+    /**
+     * Gets map information for a game: provinces, units, and per-power units and supply centers.
+     *
+     * @param gameId the game
+     * @return the response
+     * @throws ServiceException
+     */
+    public Map<String, Object> getMapInfo(String gameId)
+            throws ServiceException {
+        try {
+            return engine.query(gameId, world -> {
+                JdipMapInfo mapInfo = world.getMapInfo();
+                LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+                response.put("game", gameId);
+                response.put("phase", world.getCurrentPhaseTitle());
+                response.put("provinces", mapInfo.getAllProvinceNames(JdipMapInfo.SHORT_NAMES));
+                response.put("units", mapInfo.getAllUnitPositionProvinceNames(JdipMapInfo.SHORT_NAMES));
+                response.put("convoyEndpoints", mapInfo.getConvoyEndpointProvinces(JdipMapInfo.SHORT_NAMES));
+                LinkedHashMap<String, Object> powers = new LinkedHashMap<>();
+                for (String powerName : world.getPowerNames()) {
+                    JdipPower power = world.getPower(powerName);
+                    LinkedHashMap<String, Object> powerInfo = new LinkedHashMap<>();
+                    powerInfo.put("units", mapInfo.getUnitPositionProvinceNamesForPower(power, JdipMapInfo.SHORT_NAMES));
+                    powerInfo.put("dislodged", mapInfo.getDislodgedUnitProvinceNames(power, JdipMapInfo.SHORT_NAMES));
+                    powerInfo.put("homeSupplyCenters", mapInfo.getHomeSupplyCenterProvinceNames(power, JdipMapInfo.SHORT_NAMES));
+                    powerInfo.put("supplyCenterCount", power.getSupplyCenterCount());
+                    powerInfo.put("eliminated", power.isEliminated());
+                    powers.put(powerName, powerInfo);
+                }
+                response.put("powers", powers);
+                return response;
+            });
+        } catch (JdipFacadeException e) {
+            throw toServiceException(e);
+        }
+    }
+
+    /**
+     * Removes a game.
+     *
+     * @param gameId the game
+     * @return the response
+     * @throws ServiceException if the game does not exist
+     */
+    public Map<String, Object> deleteGame(String gameId)
+            throws ServiceException {
+        if (!engine.removeGame(gameId)) {
+            throw new ServiceException(ServiceException.NOT_FOUND, "Could not find game: " + gameId);
+        }
+        LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+        response.put("game", gameId);
+        response.put("deleted", true);
+        return response;
+    }
+
+    /**
+     * Exports a snapshot of a game. Snapshots are compact binary data, which is
+     * returned base64-encoded; see <code>JdipWorld.exportSnapshot()</code>.
+     *
+     * @param gameId the game
+     * @return the response
+     * @throws ServiceException
+     */
+    public Map<String, Object> exportGame(String gameId)
+            throws ServiceException {
+        byte[] snapshot;
+        try {
+            snapshot = engine.exportGame(gameId);
+        } catch (JdipFacadeException e) {
+            throw toServiceException(e);
+        }
+        LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+        response.put("game", gameId);
+        response.put("snapshot", Base64.getEncoder().encodeToString(snapshot));
+        return response;
+    }
+
+    /**
+     * Creates a game from a snapshot created by <code>exportGame()</code>.
+     *
+     * @param gameId   the id of the new game, or <code>null</code> to generate one
+     * @param snapshot the base64-encoded snapshot
+     * @return the response
+     * @throws ServiceException
+     */
+    public Map<String, Object> importGame(String gameId, String snapshot)
+            throws ServiceException {
+        byte[] data;
+        try {
+            data = Base64.getDecoder().decode(snapshot);
+        } catch (IllegalArgumentException e) {
+            throw new ServiceException(ServiceException.BAD_REQUEST, "Invalid snapshot: " + e.getMessage(), e);
+        }
+        try {
+            if (gameId == null) {
+                gameId = engine.importGame(data);
+            } else {
+                engine.importGame(gameId, data);
+            }
+            return getState(gameId);
+        } catch (JdipFacadeException e) {
+            throw toServiceException(e);
+        }
+    }
+
+    /**
+     * Adjudicates a single set of orders from the starting position of a variant.
+     * The game used is removed afterwards.
+     *
+     * @param variantName   the variant
+     * @param ordersByPower the orders, keyed by power name
+     * @param format        one of the <code>JdipWorld</code> format constants
+     * @return the response, including the results
+     * @throws ServiceException
+     */
+    public Map<String, Object> run(String variantName, Map<String, String[]> ordersByPower, int format)
+            throws ServiceException {
+        String gameId;
+        try {
+            gameId = engine.createGame(variantName);
+        } catch (JdipFacadeException e) {
+            throw toServiceException(e);
+        }
+        try {
+            submitOrders(gameId, ordersByPower);
+            Map<String, Object> response = adjudicate(gameId, format);
+            response.remove("game");
+            return response;
+        } finally {
+            engine.removeGame(gameId);
+        }
+    }
+
+    /**
+     * Creates the state of a game. Must be called within a query.
+     */
+    private static Map<String, Object> createState(String gameId, JdipWorld world) {
+        LinkedHashMap<String, Object> state = new LinkedHashMap<>();
+        state.put("game", gameId);
+        state.put("phase", world.getCurrentPhaseTitle());
+        state.put("phaseType", getPhaseTypeName(world.getCurrentPhaseType()));
+        state.put("gameOver", world.isGameOver());
+        state.put("powers", world.getPowerNames());
+        return state;
+    }
+
+    /**
+     * Creates the results of the last adjudicated phase. Must be called within a query.
+     */
+    private static List<Object> createResults(JdipWorld world, String powerName, int format)
+            throws PowerNotFoundException {
+        ArrayList<Object> results = new ArrayList<>();
+        if (!world.hasResults()) {
+            return results;
+        }
+        if (powerName == null) {
+            addResults(results, world.getAllGeneralResults(format));
+            for (String name : world.getPowerNames()) {
+                addResults(results, world.getAllResultsForPower(world.getPower(name), format));
+            }
+        } else {
+            addResults(results, world.getAllResultsForPower(world.getPower(powerName), format));
+        }
+        return results;
+    }
+
+    private static void addResults(List<Object> list, JdipResult[] results) {
+        for (JdipResult result : results) {
+            LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+            if (!result.isGeneralResult()) {
+                map.put("power", result.getPower());
+                map.put("order", result.getFormattedOrder());
+                map.put("success", result.isSuccessfull());
+            }
+            map.put("message", result.getMessage());
+            list.add(map);
+        }
+    }
+
+    private static String getPhaseTypeName(int phaseType) {
+        switch (phaseType) {
+            case JdipWorld.PHASE_TYPE_MOVEMENT:
+                return "movement";
+            case JdipWorld.PHASE_TYPE_RETREAT:
+                return "retreat";
+            default:
+                return "adjustment";
+        }
+    }
+
+    /**
+     * Converts a facade exception to a <code>ServiceException</code> with a suitable status.
+     */
+    private static ServiceException toServiceException(JdipFacadeException e) {
+        if (e instanceof GameLimitException) {
+            return new ServiceException(ServiceException.SERVICE_UNAVAILABLE, e.getPlainMessage(), e);
+        }
+        final boolean notFound = (e instanceof GameNotFoundException
+                || e instanceof PowerNotFoundException
+                || e instanceof ResourceLoadException);
+        return new ServiceException(notFound ? ServiceException.NOT_FOUND : ServiceException.BAD_REQUEST,
+                e.getPlainMessage(), e);
+    }
+
+    private static String getString(Map<?, ?> request, String key, boolean required)
+            throws ServiceException {
+        Object value = request.get(key);
+        if (value == null) {
+            if (required) {
+                throw new ServiceException(ServiceException.BAD_REQUEST, "Missing \"" + key + "\"");
+            }
+            return null;
+        }
+        return value.toString();
+    }
+
+    private static int getFormat(Map<?, ?> request)
+            throws ServiceException {
+        String format = getString(request, "format", false);
+        if (format == null || "default".equals(format)) {
+            return JdipWorld.ORDER_FORMAT_DEFAULT;
+        } else if ("terse".equals(format)) {
+            return JdipWorld.ORDER_FORMAT_TERSE;
+        } else if ("verbose".equals(format)) {
+            return JdipWorld.ORDER_FORMAT_VERBOSE;
+        } else if ("debug".equals(format)) {
+            return JdipWorld.ORDER_FORMAT_DEBUG;
+        }
+        throw new ServiceException(ServiceException.BAD_REQUEST, "Unknown format: " + format);
+    }
+
+    /**
+     * Gets the "orders" object: power names mapped to arrays of order strings.
+     */
+    static Map<String, String[]> getOrders(Map<?, ?> request)
+            throws ServiceException {
+        Object value = request.get("orders");
+        if (!(value instanceof Map)) {
+            throw new ServiceException(ServiceException.BAD_REQUEST, "\"orders\" must be an object");
+        }
+        LinkedHashMap<String, String[]> orders = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (!(entry.getValue() instanceof List)) {
+                throw new ServiceException(ServiceException.BAD_REQUEST,
+                        "Orders for " + entry.getKey() + " must be an array");
+            }
+            List<?> list = (List<?>) entry.getValue();
+            String[] strings = new String[list.size()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = String.valueOf(list.get(i));
+            }
+            orders.put(String.valueOf(entry.getKey()), strings);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,123 @@
+package org.nukesoft.jdipService;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JdipServerTest {
+
+    @Test
+    @DisplayName("Request bodies are read as JSON")
+    public void readJson() throws Exception {
+        assertNull(JdipServer.readJson(stream(""), 100));
+        assertNull(JdipServer.readJson(stream(" \n "), 100));
+        assertEquals(Collections.singletonMap("op", "variants"),
+                JdipServer.readJson(stream("{\"op\":\"variants\"}"), 100));
+    }
+
+    @Test
+    @DisplayName("Malformed request bodies are rejected with 400")
+    public void readJsonMalformed() {
+        ServiceException e = assertThrows(ServiceException.class,
+                () -> JdipServer.readJson(stream("{\"op\":"), 100));
+        assertEquals(ServiceException.BAD_REQUEST, e.getStatus());
+
+        String deep = String.join("", Collections.nCopies(10000, "[")) + String.join("", Collections.nCopies(10000, "]"));
+        e = assertThrows(ServiceException.class, () -> JdipServer.readJson(stream(deep), deep.length()));
+        assertEquals(ServiceException.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    @DisplayName("Oversized request bodies are rejected with 413")
+    public void readJsonOversized() throws Exception {
+        String body = "{\"op\":\"variants\"}";
+        assertEquals(Collections.singletonMap("op", "variants"), JdipServer.readJson(stream(body), body.length()));
+
+        CountingStream in = new CountingStream(new byte[JdipServer.MAX_BODY_SIZE * 4]);
+        ServiceException e = assertThrows(ServiceException.class,
+                () -> JdipServer.readJson(in, JdipServer.MAX_BODY_SIZE));
+        assertEquals(ServiceException.PAYLOAD_TOO_LARGE, e.getStatus());
+        assertTrue(in.count <= JdipServer.MAX_BODY_SIZE + 1, "read " + in.count + " bytes");
+    }
+
+    @Test
+    @DisplayName("Stream lines are split, and long lines are flagged")
+    public void lineReader() throws Exception {
+        JdipServer.LineReader reader = new JdipServer.LineReader(
+                stream("{\"a\":1}\r\n\n0123456789abc\n\u00e9\u00e9"), 10);
+        assertTrue(reader.next());
+        assertFalse(reader.isTooLong());
+        assertEquals("{\"a\":1}", reader.getLine());
+        assertTrue(reader.next());
+        assertEquals("", reader.getLine());
+        assertTrue(reader.next());
+        assertTrue(reader.isTooLong());
+        assertTrue(reader.next());
+        assertFalse(reader.isTooLong());
+        assertEquals("\u00e9\u00e9", reader.getLine());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    @DisplayName("A long stream line does not stop the following lines")
+    public void lineReaderOversized() throws Exception {
+        byte[] longLine = new byte[1000];
+        Arrays.fill(longLine, (byte) 'x');
+        String text = "a\n" + new String(longLine, StandardCharsets.US_ASCII) + "\nb\n";
+        JdipServer.LineReader reader = new JdipServer.LineReader(stream(text), 100);
+        assertTrue(reader.next());
+        assertEquals("a", reader.getLine());
+        assertTrue(reader.next());
+        assertTrue(reader.isTooLong());
+        assertTrue(reader.next());
+        assertFalse(reader.isTooLong());
+        assertEquals("b", reader.getLine());
+        assertFalse(reader.next());
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Counts the bytes read.
+     */
+    private static class CountingStream extends ByteArrayInputStream {
+        int count = 0;
+
+        CountingStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read() {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.nukesoft.jdipService;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonTest {
+
+    @Test
+    @DisplayName("Values survive a round trip")
+    public void roundTrip() {
+        LinkedHashMap<String, Object> orders = new LinkedHashMap<>();
+        orders.put("France", Arrays.asList("A par-bur", "F bre-mao"));
+        orders.put("Germany", Arrays.asList());
+        LinkedHashMap<String, Object> request = new LinkedHashMap<>();
+        request.put("op", "run");
+        request.put("variant", "Standard");
+        request.put("orders", orders);
+        request.put("count", 42L);
+        request.put("ratio", -1.5);
+        request.put("ok", Boolean.TRUE);
+        request.put("none", null);
+        request.put("text", "quote \" backslash \\ newline \n tab \t control \u0001 unicode \u00e9");
+
+        String json = Json.toJson(request);
+        assertEquals(request, Json.parse(json));
+        assertEquals(json, Json.toJson(Json.parse(json)));
+    }
+
+    @Test
+    @DisplayName("String arrays are written as arrays")
+    public void writeStringArray() {
+        assertEquals("[\"a\",\"b\"]", Json.toJson(new String[]{"a", "b"}));
+        assertEquals(Arrays.asList("a", "b"), Json.parse(Json.toJson(new String[]{"a", "b"})));
+    }
+
+    @Test
+    @DisplayName("Escapes and whitespace are read")
+    public void parseEscapes() {
+        Map<?, ?> map = (Map<?, ?>) Json.parse(" { \"a\" : [ 1 , 2.5 , \"\\u0041\\/\\n\" ] } ");
+        List<?> list = (List<?>) map.get("a");
+        assertEquals(1L, list.get(0));
+        assertEquals(2.5, list.get(1));
+        assertEquals("A/\n", list.get(2));
+    }
+
+    @Test
+    @DisplayName("Malformed input is rejected")
+    public void parseMalformed() {
+        String[] malformed = {
+                "", "{", "}", "[1,", "[1 2]", "{\"a\"}", "{\"a\":}", "{a:1}", "\"abc",
+                "\"\\x\"", "tru", "nul", "-", "1.2.3", "{} {}", "[1]]", "\"\\u12\"",
+        };
+        for (String text : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(text), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Deeply nested input is rejected")
+    public void parseTooDeep() {
+        assertEquals(nest(Json.MAX_DEPTH), Json.toJson(Json.parse(nest(Json.MAX_DEPTH))));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> Json.parse(nest(Json.MAX_DEPTH + 1)));
+        assertTrue(e.getMessage().contains("deep"));
+
+        // deep enough to overflow the stack of a recursive reader without a limit
+        assertThrows(IllegalArgumentException.class, () -> Json.parse(nest(100000)));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":" + nest(Json.MAX_DEPTH) + "}"));
+    }
+
+    private static String nest(int depth) {
+        StringBuilder sb = new StringBuilder(depth * 2);
+        for (int i = 0; i < depth; i++) {
+            sb.append('[');
+        }
+        for (int i = 0; i < depth; i++) {
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+}
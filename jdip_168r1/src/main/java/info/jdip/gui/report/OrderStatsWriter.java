@@ -31,10 +31,9 @@ import info.jdip.order.Move;
 import info.jdip.order.OrderFormatOptions;
 import info.jdip.order.Orderable;
 import info.jdip.order.Support;
-import info.jdip.order.result.OrderResult;
-import info.jdip.order.result.Result;
 import info.jdip.world.Phase;
 import info.jdip.world.Power;
+import info.jdip.world.ResultIndex;
 import info.jdip.world.TurnState;
 import info.jdip.world.Unit;
 import info.jdip.world.World;
@@ -42,7 +41,6 @@ import info.jdip.world.World;
 import javax.swing.*;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 /**
@@ -293,18 +291,7 @@ public class OrderStatsWriter {
 
 
         private void collectStats(TurnState ts) {
-            // create order-result mapping
-            HashMap<Orderable, Boolean> resultMap = new HashMap<>(53);
-            for (Result obj : ts.getResultList()) {
-                if (obj instanceof OrderResult) {
-                    OrderResult ordRes = (OrderResult) obj;
-
-                    // we only map SUCCESSFULL orders.
-                    if (ordRes.getResultType() == OrderResult.ResultType.SUCCESS) {
-                        resultMap.put(ordRes.getOrder(), Boolean.TRUE);
-                    }
-                }
-            }
+            final ResultIndex resultIndex = ts.getResultIndex();
 
             // create statistics
             for (int i = 0; i < allPowers.length; i++) {
@@ -315,7 +302,7 @@ public class OrderStatsWriter {
                 for (Orderable order : ts.getOrders(allPowers[i])) {
                     s.nOrders++;
 
-                    final boolean success = (resultMap.get(order) == Boolean.TRUE);
+                    final boolean success = resultIndex.isSuccessful(order);
 
                     if (order instanceof Move) {
                         s.nMoves++;
@@ -26,6 +26,7 @@ import info.jdip.gui.ClientFrame;
 import info.jdip.gui.dialog.TextViewer;
 import info.jdip.misc.Help;
 import info.jdip.misc.Utils;
+import info.jdip.order.OrderFormat;
 import info.jdip.order.OrderFormatOptions;
 import info.jdip.order.Orderable;
 import info.jdip.order.result.OrderResult;
@@ -33,6 +34,7 @@ import info.jdip.order.result.OrderResult.ResultType;
 import info.jdip.order.result.Result;
 import info.jdip.world.Position;
 import info.jdip.world.Power;
+import info.jdip.world.ResultIndex;
 import info.jdip.world.TurnState;
 import info.jdip.world.World;
 
@@ -140,18 +142,9 @@ public class ResultWriter {
      * a specific power).
      */
     private String getGeneralResults() {
-        List<Result> resultList = turnState.getResultList();
-
         // we want only results with a 'null' power.
         // these results are addressed to all.
-        List<Result> generalResults = new ArrayList<>(32);
-        Iterator<Result> iter = resultList.iterator();
-        while (iter.hasNext()) {
-            Result r = iter.next();
-            if (r.getPower() == null) {
-                generalResults.add(r);
-            }
-        }
+        List<Result> generalResults = new ArrayList<>(turnState.getResultIndex().getResults((Power) null));
 
         // sort
         Collections.sort(generalResults);
@@ -164,7 +157,7 @@ public class ResultWriter {
 
 
         StringBuilder sb = new StringBuilder(2048);
-        iter = generalResults.iterator();
+        Iterator<Result> iter = generalResults.iterator();
         while (iter.hasNext()) {
             Result r = iter.next();
             sb.append(r.getMessage(ofo));
@@ -181,30 +174,30 @@ public class ResultWriter {
      * results will come before order results.
      */
     private String getPerPowerResults() {
-        // Seperate results into OrderResults and 'regular' Results
-        List<OrderResult> orderResults = new ArrayList<>(128);
-        List<Result> otherResults = new ArrayList<>(64);
-
-        List<Result> resultList = turnState.getResultList();
-        for (Result r : resultList) {
-            if (r.getPower() != null) {
-                if (r instanceof OrderResult) {
-                    orderResults.add((OrderResult)r);
-                } else {
-                    otherResults.add(r);
-                }
-            }
-        }
-
-        // Sort the results
-        Collections.sort(orderResults);
-        Collections.sort(otherResults);
+        final ResultIndex resultIndex = turnState.getResultIndex();
+        List<OrderResult> orderResults = new ArrayList<>(32);
+        List<Result> otherResults = new ArrayList<>(16);
 
         // Print results, by power.
         StringBuilder sb = new StringBuilder(4096);
         for (Power power : allPowers) {
             // SKIP power if eliminated.
             if (!position.isEliminated(power)) {
+                // Seperate results into OrderResults and 'regular' Results
+                orderResults.clear();
+                otherResults.clear();
+                for (Result r : resultIndex.getResults(power)) {
+                    if (r instanceof OrderResult) {
+                        orderResults.add((OrderResult) r);
+                    } else {
+                        otherResults.add(r);
+                    }
+                }
+
+                // Sort the results
+                Collections.sort(orderResults);
+                Collections.sort(otherResults);
+
                 // power name
                 sb.append("<div class=\"indent1cm\"><b>");
                 sb.append(power);
@@ -301,7 +294,7 @@ public class ResultWriter {
             OrderResult or = iter.next();
 
             if (or.getOrder() != null) {
-                sb.append(or.getOrder().toFormattedString(ofo));    // use OrderFormat
+                sb.append(OrderFormat.formatCached(ofo, or.getOrder()));    // use OrderFormat
             }
 
             sb.append(" <i>");
@@ -349,10 +342,10 @@ public class ResultWriter {
         // underline order if failure
         if (hasFailed) {
             sb.append("<u>");
-            sb.append(order.toFormattedString(ofo));
+            sb.append(OrderFormat.formatCached(ofo, order));
             sb.append("</u>");
         } else {
-            sb.append(order.toFormattedString(ofo));
+            sb.append(OrderFormat.formatCached(ofo, order));
         }
 
         // print the messages; they should always be in italics.
@@ -28,6 +28,7 @@ import info.jdip.gui.map.MapMetadata;
 import info.jdip.gui.map.SVGColorParser;
 import info.jdip.misc.Utils;
 import info.jdip.world.Phase;
+import info.jdip.world.PhaseIndex;
 import info.jdip.world.Position;
 import info.jdip.world.Power;
 import info.jdip.world.Province;
@@ -39,7 +40,6 @@ import java.awt.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 
 
@@ -225,14 +225,14 @@ public class SCHistoryWriter {
         //
         ArrayList<TurnState> turnList = new ArrayList<>(100);    // array of TurnStates
 
-        Iterator<TurnState> iter = world.getAllTurnStates().iterator();
-        while (iter.hasNext()) {
+        final PhaseIndex phaseIndex = world.getPhaseIndex();
+        for (int i = 0; i < phaseIndex.size(); i++) {
             // we want the MOVE phase for a SPRING season in case of ADJUSTMENT being skipped,
             // but use ADJUSTMENT if that is the current phase
-            TurnState ts = iter.next();
+            TurnState ts = phaseIndex.get(i);
             Phase phase = ts.getPhase();
             if ((phase.getSeasonType() == Phase.SeasonType.SPRING && phase.getPhaseType() == Phase.PhaseType.MOVEMENT) ||
-                (phase.getPhaseType() == Phase.PhaseType.ADJUSTMENT && !iter.hasNext())) {
+                (phase.getPhaseType() == Phase.PhaseType.ADJUSTMENT && i == phaseIndex.size() - 1)) {
                 turnList.add(ts);
             }
         }
@@ -301,15 +301,15 @@ public class SCHistoryWriter {
         sb.append("</tr>");
 
         // make the rows.
-        Iterator<TurnState> iter = world.getAllTurnStates().iterator();
-        while (iter.hasNext()) {
+        final PhaseIndex phaseIndex = world.getPhaseIndex();
+        for (int i = 0; i < phaseIndex.size(); i++) {
             // we want the MOVE phase for a SPRING season in case of ADJUSTMENT being skipped,
             // but use ADJUSTMENT if that is the current phase
-            TurnState ts = iter.next();
+            TurnState ts = phaseIndex.get(i);
             Phase phase = ts.getPhase();
             if ((phase.getSeasonType() == Phase.SeasonType.SPRING && phase.getPhaseType() == Phase.PhaseType.MOVEMENT) ||
-                (phase.getPhaseType() == Phase.PhaseType.ADJUSTMENT && !iter.hasNext())) {
-                sb.append(makeSCCountTableRow(ts));
+                (phase.getPhaseType() == Phase.PhaseType.ADJUSTMENT && i == phaseIndex.size() - 1)) {
+                sb.append(makeSCCountTableRow(ts, i == 0));
             }
         }
 
@@ -321,7 +321,7 @@ public class SCHistoryWriter {
     /**
      * Make a row for the SC Summary table, including the Index.
      */
-    private String makeSCCountTableRow(TurnState ts) {
+    private String makeSCCountTableRow(TurnState ts, boolean isInitial) {
         final Phase phase = ts.getPhase();
         StringBuilder sb = new StringBuilder(64);
 
@@ -330,7 +330,7 @@ public class SCHistoryWriter {
         // year, unless initial turnstate.
         sb.append(TD_HEADER);
         sb.append("<b>");
-        if (world.getInitialTurnState() == ts) {
+        if (isInitial) {
             sb.append(Utils.getLocalString(LABEL_INITIAL));
         } else {
             sb.append(phase.getYearType());
@@ -339,8 +339,7 @@ public class SCHistoryWriter {
 
         int sumOfSquares = 0;
         for (Power power : allPowers) {
-            Province[] ownedSC = ts.getPosition().getOwnedSupplyCenters(power);
-            final int count = ownedSC.length;
+            final int count = ts.getPosition().getOwnedSupplyCenterCount(power);
 
             sumOfSquares += (count * count);
             sb.append("<td>");
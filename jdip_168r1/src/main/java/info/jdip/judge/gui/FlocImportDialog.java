@@ -243,15 +243,6 @@ public class FlocImportDialog extends HeaderDialog implements FlocImportCallback
     }// flocImportException()
 
 
-    /**
-     * FlocImportCallback implementation
-     */
-    public boolean flocTextImportComplete(String text) {
-        // we don't do anything with the raw text.
-        // and don't close the dialog, either
-        return true;
-    }// flocImportComplete()
-
     /**
      * FlocImportCallback implementation
      */
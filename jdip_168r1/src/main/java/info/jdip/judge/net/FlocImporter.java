@@ -24,39 +24,103 @@ package info.jdip.judge.net;
 import info.jdip.judge.parser.JudgeImport;
 import info.jdip.misc.Utils;
 import info.jdip.order.OrderFactory;
+import info.jdip.world.Phase;
 import info.jdip.world.World;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import javax.swing.text.html.HTMLEditorKit;
-import javax.swing.text.html.parser.ParserDelegator;
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.StringReader;
+import java.io.InterruptedIOException;
+import java.io.PipedReader;
+import java.io.PipedWriter;
+import java.io.Reader;
 import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Mannkind aka Dustin Brewer, Zach DelProposto
  * <p>
  * FlocImporter: Imports games from floc.net.
- * Designed as a Runnable so it can be threaded.
+ * <p>
+ * Imports run asynchronously on an ExecutorService; many imports may run at
+ * once. The HTML history page is converted to text on a helper thread as it
+ * arrives from the network, and the text is piped, turn by turn, into a
+ * JudgeImport running on the import thread. The full page text is never held
+ * in memory.
+ * <p>
+ * Connect and read timeouts are configurable, and an import may be aborted at
+ * any time. The base URL may be changed (for example, to a local server for
+ * testing).
  */
-public class FlocImporter implements Runnable {
+public class FlocImporter implements Callable<World> {
+    /**
+     * Default base URL of the floc.net observer
+     */
+    public static final String DEFAULT_BASE_URL = "http://www.floc.net/observer.py";
+    /**
+     * Default connect timeout, in milliseconds
+     */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 30000;
+    /**
+     * Default read timeout, in milliseconds
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 60000;
+    /**
+     * Maximum number of concurrent imports on the default executor
+     */
+    public static final int DEFAULT_MAX_IMPORTS = 4;
+
     // i18n constants (for messages)
     private static final String READING_CONTACT = "FlocImporter.message.contact";
     private static final String READING_FROM_NET = "FlocImporter.message.netread";
     private static final String CREATING_WORLD = "FlocImporter.message.createworld";
+    private static final String IMPORTING_TURN = "FlocImporter.message.turn";
 
     // how to tell if game is registered or not.
     private static final String NOT_REGISTERED = "This game is not registered";
 
+    // size of the buffer between the HTML parser and the importer
+    private static final int PIPE_SIZE = 65536;
+
+    // size of the buffer for reading from the network
+    private static final int READ_SIZE = 8192;
+
+    private static final Logger logger = LoggerFactory.getLogger(FlocImporter.class);
+
+    // executor for imports started without an explicit executor
+    private static final ExecutorService DEFAULT_EXECUTOR = createExecutor(DEFAULT_MAX_IMPORTS);
+
+    // executor for the network / HTML parsing side of each import. There is
+    // exactly one reader per running import, so this is bounded by the import executor.
+    private static final ExecutorService READER_EXECUTOR =
+            Executors.newCachedThreadPool(new DaemonThreadFactory("FlocImporter-reader"));
+
     // instance fields
     private final String gameName;
     private final String judgeName;
     private final FlocImportCallback fic;
     private final OrderFactory orderFactory;
-    private Thread netThread = null;
+    private String baseURL = DEFAULT_BASE_URL;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
 
-    private boolean isInProgress = false;
+    private Future<World> future = null;
+    private volatile boolean isAborted = false;
+    private volatile InputStream netStream = null;
 
     /**
      * Create a floc.net importer. Null parameters are not accepted.
@@ -74,113 +138,312 @@ public class FlocImporter implements Runnable {
 
 
     /**
-     * Start a FlocImporter in a new Thread.
+     * Create an ExecutorService (of daemon threads) which runs at most
+     * <code>maxImports</code> imports at once; additional imports are queued.
+     */
+    public static ExecutorService createExecutor(int maxImports) {
+        if (maxImports < 1) {
+            throw new IllegalArgumentException("maxImports: " + maxImports);
+        }
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxImports, maxImports,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new DaemonThreadFactory("FlocImporter"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }// createExecutor()
+
+
+    /**
+     * Set the connect and read timeouts, in milliseconds. A timeout of
+     * zero waits forever. Must be set before the import is started.
+     */
+    public synchronized void setTimeouts(int connectMillis, int readMillis) {
+        if (connectMillis < 0 || readMillis < 0) {
+            throw new IllegalArgumentException();
+        }
+        checkNotStarted();
+        this.connectTimeout = connectMillis;
+        this.readTimeout = readMillis;
+    }// setTimeouts()
+
+
+    /**
+     * Set the base URL of the observer page (by default, {@link #DEFAULT_BASE_URL}).
+     * The judge, game, and history parameters are appended to this URL.
+     * Must be set before the import is started.
      */
-    public void start() {
-        if (netThread != null) {
-            throw new IllegalStateException("thread already started.");
+    public synchronized void setBaseURL(String baseURL) {
+        if (baseURL == null) {
+            throw new IllegalArgumentException();
         }
+        checkNotStarted();
+        this.baseURL = baseURL;
+    }// setBaseURL()
 
-        netThread = new Thread(this);
-        netThread.start();
+
+    /**
+     * Start a FlocImporter on the default (shared) executor.
+     */
+    public Future<World> start() {
+        return start(DEFAULT_EXECUTOR);
     }// start()
 
 
     /**
-     * Abort an in-progress FlocImporter that was started
+     * Start a FlocImporter on the given executor. The returned Future yields
+     * the imported World, or null if the import failed or was aborted;
+     * the callback is notified in either case (except when aborted).
+     */
+    public synchronized Future<World> start(ExecutorService executor) {
+        checkNotStarted();
+        future = executor.submit(this);
+        return future;
+    }// start()
+
+
+    /**
+     * Abort an in-progress FlocImporter that was started. No further callbacks
+     * will be made.
      */
     public void abort() {
-        isInProgress = false;
-        if (netThread != null) {
-            netThread = null;
+        isAborted = true;
+        closeNetStream();
+
+        synchronized (this) {
+            if (future != null) {
+                future.cancel(true);
+            }
         }
     }// abort()
 
+
     /**
-     * Do the work (import text)
+     * Do the work (import text). Returns the World, or null if
+     * the import failed or was aborted.
      */
-    public void run() {
-        isInProgress = true;
+    public World call() {
+        final PipedReader pipeIn = new PipedReader(PIPE_SIZE);
+        final TextReader textReader;
+        final Future<Void> readerFuture;
 
         try {
-            final String text = getGameInfo();
+            textReader = new TextReader(new PipedWriter(pipeIn));
+        } catch (IOException e) {
+            // cannot happen; the pipe is newly created
+            throw new IllegalStateException(e);
+        }
 
-            if (!isInProgress) {
-                return;
+        fic.flocImportMessage(Utils.getLocalString(READING_CONTACT));
+        readerFuture = READER_EXECUTOR.submit(textReader);
+
+        World world = null;
+        IOException importException = null;
+
+        try {
+            JudgeImport ji = new JudgeImport(orderFactory, pipeIn, null, new JudgeImport.TurnListener() {
+                private boolean isFirst = true;
+
+                public void turnRead(Phase phase) throws IOException {
+                    if (isAborted) {
+                        throw new InterruptedIOException();
+                    }
+
+                    if (isFirst) {
+                        fic.flocImportMessage(Utils.getLocalString(CREATING_WORLD));
+                        isFirst = false;
+                    }
+
+                    if (phase != null) {
+                        fic.flocImportMessage(Utils.getLocalString(IMPORTING_TURN, phase));
+                    }
+                }// turnRead()
+            });
+            world = ji.getWorld();
+        } catch (IOException e) {
+            importException = e;
+        } catch (RuntimeException e) {
+            // a malformed (or truncated) history can trip up the parser
+            importException = new IOException(e.getMessage(), e);
+        } finally {
+            // stop the reader, if it is still going
+            textReader.isPipeClosed = true;
+            try {
+                pipeIn.close();
+            } catch (IOException e) {
+                // ignore
             }
+            closeNetStream();
+        }
 
-            // see if game is registered
-            if (text.length() == 0 || text.contains(NOT_REGISTERED)) {
-                fic.flocImportUnregistered();
-                return;
+        IOException netException = null;
+        try {
+            readerFuture.get();
+        } catch (ExecutionException e) {
+            netException = (e.getCause() instanceof IOException)
+                    ? (IOException) e.getCause()
+                    : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            isAborted = true;
+        }
+
+        if (isAborted) {
+            return null;
+        }
+
+        // see if game is registered
+        if (textReader.isUnregistered || (netException == null && textReader.charsWritten == 0)) {
+            fic.flocImportUnregistered();
+            return null;
+        }
+
+        // network errors explain any parse errors they cause.
+        if (netException != null) {
+            fic.flocImportException(netException);
+            return null;
+        }
+
+        if (importException != null) {
+            logger.debug("Import of {} on {} failed.", gameName, judgeName, importException);
+            fic.flocImportException(importException);
+            return null;
+        }
+
+        fic.flocWorldImportComplete(world);
+        return world;
+    }// call()
+
+
+    /**
+     * Get the URL for the game history.
+     */
+    private URL getHistoryURL() throws IOException {
+        return new URL(baseURL
+                + "?judge="
+                + URLEncoder.encode(judgeName, StandardCharsets.UTF_8)
+                + "&game="
+                + URLEncoder.encode(gameName, StandardCharsets.UTF_8)
+                + "&page=history&history_from=0&history_to=999999");
+    }// getHistoryURL()
+
+
+    /**
+     * Closes the network stream, if open; this unblocks a stalled reader.
+     */
+    private void closeNetStream() {
+        final InputStream is = netStream;
+        if (is != null) {
+            try {
+                is.close();
+            } catch (IOException e) {
+                // ignore
             }
+        }
+    }// closeNetStream()
 
-            // game is registered
-            if (fic.flocTextImportComplete(text)) {
-                // now, process into a World object
-                fic.flocImportMessage(Utils.getLocalString(CREATING_WORLD));
+    private void checkNotStarted() {
+        if (future != null) {
+            throw new IllegalStateException("import already started.");
+        }
+    }// checkNotStarted()
 
-                JudgeImport ji = new JudgeImport(orderFactory, new StringReader(text), null);
 
-                if (!isInProgress) {
-                    return;
+    /**
+     * Reads the history page from the network, and writes the text (with
+     * the HTML removed) into the pipe as it is parsed.
+     */
+    private class TextReader implements Callable<Void> {
+        private final PipedWriter pipeOut;
+        private volatile boolean isPipeClosed = false;
+        private volatile boolean isUnregistered = false;
+        private volatile long charsWritten = 0;
+        private String recentText = "";
+
+        public TextReader(PipedWriter pipeOut) {
+            this.pipeOut = pipeOut;
+        }// TextReader()
+
+        public Void call() throws IOException {
+            try {
+                URLConnection conn = getHistoryURL().openConnection();
+                conn.setConnectTimeout(connectTimeout);
+                conn.setReadTimeout(readTimeout);
+                netStream = conn.getInputStream();
+
+                if (isAborted) {
+                    return null;
                 }
 
-                fic.flocWorldImportComplete(ji.getWorld());
+                try (Reader reader = new InputStreamReader(netStream, StandardCharsets.ISO_8859_1)) {
+                    // output is in HTML; the filter removes HTML cruft. Text is
+                    // written as it is read, so that turns may be imported
+                    // before the page is complete.
+                    final HTMLTextFilter filter = new HTMLTextFilter();
+                    final char[] buffer = new char[READ_SIZE];
+                    int nRead = reader.read(buffer);
+                    while (nRead >= 0 && !isAborted) {
+                        writeText(filter.append(buffer, 0, nRead));
+                        nRead = reader.read(buffer);
+                    }
+                    writeText(filter.finish());
+                }
+            } catch (IOException e) {
+                // closing the pipe (or aborting) makes any further errors irrelevant
+                if (isPipeClosed || isAborted) {
+                    return null;
+                }
+                throw e;
+            } finally {
+                pipeOut.close();
             }
-        } catch (IOException e) {
-            fic.flocImportException(e);
-        } catch (Exception e) {
-            // do nothing (catches any thread-abort errors)
-        }
-    }// run()
-
-    /**
-     * Get the game information.
-     * <p>
-     * Returns the imported text.
-     */
-    private String getGameInfo()
-            throws IOException {
-        final StringBuilder gameInformation = new StringBuilder(16384);
-
-        try (
-            BufferedReader reader = new BufferedReader(new InputStreamReader(new URL(
-                "http://www.floc.net/observer.py?judge="
-                    + judgeName
-                    + "&game="
-                    + gameName
-                    + "&page=history&history_from=0&history_to=999999").openStream()));
-        ){
-            fic.flocImportMessage(Utils.getLocalString(READING_CONTACT));
-
-            // output is in HTML, so using the HTML editor kit parser removes
-            // HTML cruft.
-            //
-            
-            if (!isInProgress) {
-                return "";
+
+            return null;
+        }// call()
+
+        /**
+         * Writes text into the pipe, checking if the game is registered.
+         */
+        private void writeText(String text) throws IOException {
+            if (text.isEmpty()) {
+                return;
             }
 
-            ParserDelegator parser = new ParserDelegator();
-            parser.parse(reader, new HTMLEditorKit.ParserCallback() {
-                @Override
-                public void handleText(char[] text, int pos) {
-                    if (!isInProgress) {
-                        gameInformation.setLength(0);    // abort!
-                        return;
-                    }
+            if (charsWritten == 0) {
+                fic.flocImportMessage(Utils.getLocalString(READING_FROM_NET));
+            }
+
+            // the message may span two reads
+            if (!isUnregistered) {
+                final String checked = recentText + text;
+                isUnregistered = checked.contains(NOT_REGISTERED);
+                recentText = checked.substring(Math.max(0, checked.length() - NOT_REGISTERED.length()));
+            }
+
+            pipeOut.write(text);
+            pipeOut.flush();
+            charsWritten += text.length();
+        }// writeText()
+    }// inner class TextReader
 
-                    fic.flocImportMessage(Utils.getLocalString(READING_FROM_NET));
-                    gameInformation.append(text);
-                    gameInformation.append("\n");
-                }// handleText()
-            },
-            false);
-        }
 
-        return gameInformation.toString();
-    }// getGameInfo()
+    /**
+     * Creates named daemon threads, so that imports never keep the VM alive.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        public DaemonThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }// DaemonThreadFactory()
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }// newThread()
+    }// inner class DaemonThreadFactory
 
 
     /**
@@ -200,14 +463,18 @@ public class FlocImporter implements Runnable {
          * to convert text into a World object; return <code>false</code> if
          * FlocImport is complete and automatic World object creation is
          * not required.
+         *
+         * @deprecated The history is now imported as it is read, so the text
+         * is never held in memory, and this method is no longer called.
+         * Imports may be stopped with {@link FlocImporter#abort()}.
          */
-        boolean flocTextImportComplete(String text);
+        @Deprecated
+        default boolean flocTextImportComplete(String text) {
+            return true;
+        }
 
         /**
          * Floc World import completed successfully. World should never be null.
-         * <p>
-         * Note: this method only excecutes if flocTextImportComplete() returns
-         * <code>true</code>
          */
         void flocWorldImportComplete(World world);
 
@@ -0,0 +1,306 @@
+//
+//  @(#)HTMLTextFilter.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.judge.net;
+
+/**
+ * Converts HTML into text, incrementally, as it is read.
+ * <p>
+ * The HTMLEditorKit parser reports a run of text only when the run ends,
+ * so a history within a single &lt;pre&gt; element would not be available
+ * until the entire page was read. This filter returns text as soon as it
+ * is given; otherwise, the text is that reported by the HTMLEditorKit
+ * parser, with each run of text followed by a newline. Tags and comments
+ * are removed, the contents of script elements are skipped, entities are
+ * decoded, and whitespace outside of pre elements is collapsed. Within pre
+ * elements, a newline just after the start tag or just before the end tag
+ * is removed.
+ * <p>
+ * This class is not thread-safe.
+ */
+class HTMLTextFilter {
+    // longest entity recognized (excluding '&' and ';')
+    private static final int MAX_ENTITY_LENGTH = 8;
+
+    private enum State {TEXT, TAG, COMMENT, ENTITY}
+
+    private final StringBuilder out = new StringBuilder();
+    private final StringBuilder markup = new StringBuilder();
+    private State state = State.TEXT;
+    private int preDepth = 0;
+    private String skipUntil = null;
+    private int runLength = 0;
+    private boolean isSpacePending = false;
+    private boolean isNewlinePending = false;
+    private boolean isPreStart = false;
+    private boolean isAfterCR = false;
+
+    /**
+     * Filters the given HTML, and returns the text that is complete;
+     * this may be empty.
+     */
+    public String append(char[] cbuf, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            append(cbuf[i]);
+        }
+
+        return flushOutput();
+    }// append()
+
+
+    /**
+     * Completes filtering, and returns the remaining text (if any).
+     */
+    public String finish() {
+        if (state == State.ENTITY) {
+            state = State.TEXT;
+            appendText('&');
+            appendText(markup);
+        }
+        endRun(false);
+        return flushOutput();
+    }// finish()
+
+
+    private void append(char c) {
+        switch (state) {
+            case TEXT:
+                if (c == '<') {
+                    state = State.TAG;
+                    markup.setLength(0);
+                } else if (c == '&') {
+                    state = State.ENTITY;
+                    markup.setLength(0);
+                } else {
+                    appendText(c);
+                }
+                break;
+
+            case TAG:
+                if (markup.length() == 0 && !(Character.isLetter(c) || c == '/' || c == '!' || c == '?')) {
+                    // not a tag (e.g., "a < b")
+                    state = State.TEXT;
+                    appendText('<');
+                    append(c);
+                } else if (c == '>') {
+                    state = State.TEXT;
+                    endTag();
+                } else {
+                    markup.append(c);
+                    if (markup.length() == 3 && "!--".contentEquals(markup)) {
+                        state = State.COMMENT;
+                    }
+                }
+                break;
+
+            case COMMENT:
+                markup.append(c);
+                if (c == '>' && markup.length() >= 5 && markup.charAt(markup.length() - 2) == '-'
+                        && markup.charAt(markup.length() - 3) == '-') {
+                    state = State.TEXT;
+                    endRun(false);
+                }
+                break;
+
+            case ENTITY:
+                if (c == ';') {
+                    state = State.TEXT;
+                    appendEntity();
+                } else if ((Character.isLetterOrDigit(c) || (c == '#' && markup.length() == 0))
+                        && markup.length() < MAX_ENTITY_LENGTH) {
+                    markup.append(c);
+                } else {
+                    // not an entity; treat as text
+                    state = State.TEXT;
+                    appendText('&');
+                    appendText(markup);
+                    append(c);
+                }
+                break;
+
+            default:
+                throw new IllegalStateException();
+        }
+    }// append()
+
+
+    /**
+     * A tag (held in markup) has ended.
+     */
+    private void endTag() {
+        final boolean isEnd = (markup.length() > 0 && markup.charAt(0) == '/');
+        int start = (isEnd) ? 1 : 0;
+        int end = start;
+        while (end < markup.length() && Character.isLetterOrDigit(markup.charAt(end))) {
+            end++;
+        }
+        final String name = markup.substring(start, end).toLowerCase();
+
+        endRun(isEnd && "pre".equals(name));
+        isPreStart = false;
+
+        if (skipUntil != null) {
+            if (isEnd && name.equals(skipUntil)) {
+                skipUntil = null;
+            }
+        } else if ("script".equals(name)) {
+            if (!isEnd && markup.charAt(markup.length() - 1) != '/') {
+                skipUntil = name;
+            }
+        } else if ("pre".equals(name)) {
+            preDepth = (isEnd) ? Math.max(0, preDepth - 1) : (preDepth + 1);
+            isPreStart = !isEnd;
+        }
+    }// endTag()
+
+
+    /**
+     * An entity (held in markup) has ended.
+     */
+    private void appendEntity() {
+        final String name = markup.toString();
+        int value = -1;
+
+        try {
+            if (name.startsWith("#x") || name.startsWith("#X")) {
+                value = Integer.parseInt(name.substring(2), 16);
+            } else if (name.startsWith("#")) {
+                value = Integer.parseInt(name.substring(1));
+            }
+        } catch (NumberFormatException e) {
+            value = -1;
+        }
+
+        switch (name) {
+            case "amp":
+                value = '&';
+                break;
+            case "lt":
+                value = '<';
+                break;
+            case "gt":
+                value = '>';
+                break;
+            case "quot":
+                value = '"';
+                break;
+            case "apos":
+                value = '\'';
+                break;
+            case "nbsp":
+                value = '\u00a0';
+                break;
+            default:
+                break;
+        }
+
+        if (value >= 0 && Character.isValidCodePoint(value)) {
+            for (char c : Character.toChars(value)) {
+                appendText(c);
+            }
+        } else {
+            appendText('&');
+            appendText(markup);
+            appendText(';');
+        }
+    }// appendEntity()
+
+
+    private void appendText(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            appendText(text.charAt(i));
+        }
+    }// appendText()
+
+
+    /**
+     * Appends a character of text to the current run.
+     */
+    private void appendText(char c) {
+        if (skipUntil != null) {
+            return;
+        }
+
+        // CR and CRLF become LF
+        final boolean isCR = (c == '\r');
+        if (c == '\n' && isAfterCR) {
+            isAfterCR = false;
+            return;
+        }
+        isAfterCR = isCR;
+        if (isCR) {
+            c = '\n';
+        }
+
+        if (preDepth > 0) {
+            // a newline is held until the next character, as it is removed
+            // if the element ends
+            if (c == '\n' && isPreStart) {
+                isPreStart = false;
+                return;
+            }
+            isPreStart = false;
+            if (isNewlinePending) {
+                out.append('\n');
+                runLength++;
+            }
+            isNewlinePending = (c == '\n');
+            if (!isNewlinePending) {
+                out.append(c);
+                runLength++;
+            }
+        } else if (c == ' ' || c == '\t' || c == '\n' || c == '\f') {
+            isSpacePending = (runLength > 0);
+        } else {
+            if (isSpacePending) {
+                out.append(' ');
+                runLength++;
+                isSpacePending = false;
+            }
+            out.append(c);
+            runLength++;
+        }
+    }// appendText()
+
+
+    /**
+     * Ends the current run of text (if any) with a newline. A pending
+     * newline (within a pre element) is removed if the element has ended.
+     */
+    private void endRun(boolean isPreEnd) {
+        if (isNewlinePending && !isPreEnd) {
+            out.append('\n');
+            runLength++;
+        }
+        isNewlinePending = false;
+
+        if (runLength > 0) {
+            out.append('\n');
+        }
+        runLength = 0;
+        isSpacePending = false;
+    }// endRun()
+
+
+    private String flushOutput() {
+        final String text = out.toString();
+        out.setLength(0);
+        return text;
+    }// flushOutput()
+
+}// class HTMLTextFilter
@@ -80,6 +80,7 @@ public class JudgeImport {
     private World currentWorld = null;
     private String importResult = JI_RESULT_NEWWORLD;
     private String gameInfo; // e.g. "Game: test  Judge: USCA  Variant: Standard S1901M"
+    private TurnListener turnListener = null;
 
     /**
      * Creates a JudgeImport object from a File
@@ -103,8 +104,22 @@ public class JudgeImport {
      */
     public JudgeImport(OrderFactory orderFactory, Reader reader, World currentWorld)
             throws IOException, PatternSyntaxException {
+        this(orderFactory, reader, currentWorld, null);
+    }// JudgeImport()
+
+
+    /**
+     * Creates a JudgeImport object from a generic Reader. The TurnListener,
+     * if not null, is notified as each turn of a history is read.
+     * <p>
+     * Histories are read from the Reader one turn at a time, as they are
+     * processed, and are not held in memory.
+     */
+    public JudgeImport(OrderFactory orderFactory, Reader reader, World currentWorld, TurnListener turnListener)
+            throws IOException, PatternSyntaxException {
         this.orderFactory = orderFactory;
         this.currentWorld = currentWorld;
+        this.turnListener = turnListener;
         jp = new JudgeParser(orderFactory, reader);
         procJudgeInput();
     }// JudgeImport()
@@ -199,14 +214,14 @@ public class JudgeImport {
         if (JudgeParser.JP_TYPE_LISTING.equals(jp.getType())) {
             procListing(position);
         } else if (JudgeParser.JP_TYPE_HISTORY.equals(jp.getType())) {
-            JudgeImportHistory jih = new JudgeImportHistory(orderFactory, world, jp, position);
+            JudgeImportHistory jih = new JudgeImportHistory(orderFactory, world, jp, position, turnListener);
             world = jih.getWorld();
         } else if (JudgeParser.JP_TYPE_RESULTS.equals(jp.getType())) {
             procResults(jp, variant.getName());
         } else if (JudgeParser.JP_TYPE_GAMESTART.equals(jp.getType())) {
             jp.prependText("Subject: " + jp.getJudgeName() + ":" + jp.getGameName() + " - " +
                     jp.getPhase().getBriefName() + " Game Starting\n");
-            JudgeImportHistory jih = new JudgeImportHistory(orderFactory, world, jp, position);
+            JudgeImportHistory jih = new JudgeImportHistory(orderFactory, world, jp, position, turnListener);
             world = jih.getWorld();
         } else {
             // unknown judge input
@@ -356,4 +371,15 @@ public class JudgeImport {
     }// procListing()
 
 
+    /**
+     * Notified as each turn of a history is read. An IOException may be
+     * thrown to abort the import.
+     */
+    public interface TurnListener {
+        /**
+         * A turn has been read; the Phase may be null if it could not be determined.
+         */
+        void turnRead(Phase phase) throws IOException;
+    }// interface TurnListener
+
 }// class JudgeImport
@@ -97,17 +97,29 @@ final class JudgeImportHistory {
     private Position oldPosition = null;
     private HSCInfo[] homeSCInfo = null;
     private boolean finalTurn = false;
+    private JudgeImport.TurnListener turnListener = null;
 
     /**
      * Create a JudgeImportHistory
      */
     protected JudgeImportHistory(OrderFactory orderFactory, World world, JudgeParser jp, Position oldPosition)
             throws IOException, PatternSyntaxException {
+        this(orderFactory, world, jp, oldPosition, null);
+    }// JudgeImportHistory()
+
+    /**
+     * Create a JudgeImportHistory, notifying the given listener (if not null)
+     * as each turn is read.
+     */
+    protected JudgeImportHistory(OrderFactory orderFactory, World world, JudgeParser jp, Position oldPosition,
+                                 JudgeImport.TurnListener turnListener)
+            throws IOException, PatternSyntaxException {
         this.orderFactory = orderFactory;
         this.world = world;
         this.jp = jp;
         this.oldPosition = oldPosition;
         this.map = world.getMap();
+        this.turnListener = turnListener;
 
         // create a very strict validation object, loose seems to have some weird problems when importing.
         valOpts = new ValidationOptions();
@@ -145,29 +157,52 @@ final class JudgeImportHistory {
     /**
      * Processes the Turn data, starting with the first Movement phase. An exception is
      * thrown if no Movement phase exists.
+     * <p>
+     * Turns are read one at a time; each is processed once the following turn has
+     * been read (since the final turn is processed differently). Only the last
+     * three turns are held in memory.
      */
     private void processTurns()
             throws IOException, PatternSyntaxException {
         // break data up into turns
-        Turn[] turns = new TurnParser(jp.getText()).getTurns();
-        //System.out.println("# of turns: "+turns.length);
+        final TurnParser turnParser = new TurnParser(jp.getTextReader());
 
-        // find first movement phase, if any
+        int index = 0;
         int firstMovePhase = -1;
-        for (int i = 0; i < turns.length; i++) {
-            if (turns[i].getPhase() != null) {
-                if (turns[i].getPhase().getPhaseType() == Phase.PhaseType.MOVEMENT) {
-                    firstMovePhase = i;
-                    break;
-                }
+        Turn thirdTurn = null;
+        Turn prevTurn = null;
+        Turn lastTurn = null;
+
+        Turn turn = turnParser.nextTurn();
+        while (turn != null) {
+            if (turnListener != null) {
+                turnListener.turnRead(turn.getPhase());
             }
+
+            // find first movement phase, if any
+            if (firstMovePhase < 0 && turn.getPhase() != null
+                    && turn.getPhase().getPhaseType() == Phase.PhaseType.MOVEMENT) {
+                firstMovePhase = index;
+                createHomeSCInfo();
+            }
+
+            // process the previous turn; it is not the final turn
+            if (lastTurn != null && firstMovePhase >= 0 && index - 1 >= firstMovePhase) {
+                procTurn(lastTurn, prevTurn, thirdTurn, false);
+            }
+
+            thirdTurn = prevTurn;
+            prevTurn = lastTurn;
+            lastTurn = turn;
+            index++;
+            turn = turnParser.nextTurn();
         }
 
         // If we couldn't find the first movement phase... perhaps the game is just starting
         if (firstMovePhase == -1) {
             // Try to use the text info to create the game at its starting positions
             try {
-                createStartingPositions();
+                createStartingPositions(String.join("\n", turnParser.getSubjectLines()));
                 // Don't do the rest of this method, it will all fail.
                 return;
             } catch (IOException e) {
@@ -175,67 +210,29 @@ final class JudgeImportHistory {
             }
         }
 
-        //System.out.println("First move phase: "+firstMovePhase);
-
-        // get home supply center information from the oldPosition object
-        // and store it in HSCInfo object array, so that it can be set during each successive
-        // turn.
-        ArrayList<HSCInfo> hscList = new ArrayList<>(50);
-        Province[] provinces = map.getProvinces();
-        for (Province province : provinces) {
-            Power power = oldPosition.getSupplyCenterHomePower(province);
-            if (power != null) {
-                hscList.add(new HSCInfo(province, power));
-            }
-        }
-        homeSCInfo = hscList.toArray(new HSCInfo[hscList.size()]);
-
-        // process all but the final phase
-        for (int i = firstMovePhase; i < turns.length - 1; i++) {
-            //System.out.println("processing turn: "+i+"; phase = "+turns[i].getPhase());
-            if (i == 0) {
-                procTurn(turns[i], null, null, false);
-            } else if (i == 1) {
-                procTurn(turns[i], turns[i - 1], null, false);
-            } else {
-                procTurn(turns[i], turns[i - 1], turns[i - 2], false);
-            }
-        }
         // process the last turn once more, but as the final turn, to allow proper positioning.
         finalTurn = true;
-        if (turns.length == 1) {
-            procTurn(turns[turns.length - 1], null, null, true);
-        } else if (turns.length == 2) {
-            procTurn(turns[turns.length - 1], turns[turns.length - 2], null, true);
-        } else if (turns.length >= 3) {
-            procTurn(turns[turns.length - 1], turns[turns.length - 2], turns[turns.length - 3], true);
-        }
+        procTurn(lastTurn, prevTurn, thirdTurn, true);
 
         Pattern endofgame = Pattern.compile(END_FOF_GAME);
 
-        Matcher e = endofgame.matcher(turns[turns.length - 1].getText());
+        Matcher e = endofgame.matcher(lastTurn.getText());
 
         if (!e.find()) {
 
             // create last (un-resolved) turnstate
-            makeLastTurnState(turns[turns.length - 1]);
+            makeLastTurnState(lastTurn);
 
             // reprocess the last turn, again, not as final, so it looks right for viewing.
             finalTurn = false;
-            if (turns.length == 1) {
-                procTurn(turns[turns.length - 1], null, null, false);
-            } else if (turns.length == 2) {
-                procTurn(turns[turns.length - 1], turns[turns.length - 2], null, false);
-            } else if (turns.length >= 3) {
-                procTurn(turns[turns.length - 1], turns[turns.length - 2], turns[turns.length - 3], false);
-            }
+            procTurn(lastTurn, prevTurn, thirdTurn, false);
         } else {
             // The imported game has ended
             // Reprocess the last turn, again, not as final, so it looks right for viewing.
             finalTurn = false;
-            procTurn(turns[turns.length - 1], turns[turns.length - 2], turns[turns.length - 3], false);
+            procTurn(lastTurn, prevTurn, thirdTurn, false);
             // Set the game as ended.
-            TurnState ts = world.getTurnState(turns[turns.length - 1].getPhase());
+            TurnState ts = world.getTurnState(lastTurn.getPhase());
             VictoryConditions vc = world.getVictoryConditions();
             RuleOptions ruleOpts = world.getRuleOptions();
             Adjustment.AdjustmentInfoMap adjMap = Adjustment.getAdjustmentInfo(ts, ruleOpts, world.getMap().getPowers());
@@ -252,13 +249,11 @@ final class JudgeImportHistory {
     }// processTurns()
 
     /**
-     * Processes a single turn.
+     * Get home supply center information from the oldPosition object
+     * and store it in HSCInfo object array, so that it can be set during each successive
+     * turn.
      */
-    private void processSingleTurn(Turn turn)
-            throws IOException, PatternSyntaxException {
-        // get home supply center information from the oldPosition object
-        // and store it in HSCInfo object array, so that it can be set during each successive
-        // turn.
+    private void createHomeSCInfo() {
         ArrayList<HSCInfo> hscList = new ArrayList<>(50);
         Province[] provinces = map.getProvinces();
         for (Province province : provinces) {
@@ -268,6 +263,14 @@ final class JudgeImportHistory {
             }
         }
         homeSCInfo = hscList.toArray(new HSCInfo[hscList.size()]);
+    }// createHomeSCInfo()
+
+    /**
+     * Processes a single turn.
+     */
+    private void processSingleTurn(Turn turn)
+            throws IOException, PatternSyntaxException {
+        createHomeSCInfo();
 
         // process the turn
         procTurn(turn, null, null, false);
@@ -1205,12 +1208,12 @@ final class JudgeImportHistory {
         }
     }// makeDislodgedResults()
 
-    private void createStartingPositions() throws IOException {
+    private void createStartingPositions(String subjectText) throws IOException {
         Phase phase = null;
 
-        // determine the next phase by reading through the turn text.
+        // determine the next phase by reading through the Subject: lines.
         Pattern pattern = Pattern.compile(START_POSITIONS);
-        Matcher m = pattern.matcher(jp.getText());
+        Matcher m = pattern.matcher(subjectText);
 
         if (m.find()) {
             StringBuilder sb = new StringBuilder(64);
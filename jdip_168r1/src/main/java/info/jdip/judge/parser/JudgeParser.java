@@ -29,6 +29,7 @@ import info.jdip.world.Phase;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.util.LinkedList;
 import java.util.StringTokenizer;
 import java.util.regex.Matcher;
@@ -66,6 +67,8 @@ public class JudgeParser {
     private String[] playerEmails;
     private String[] playerNames;
     private String text = null;
+    private String textPrefix = null;       // already-read text, if the rest of the text has not been read
+    private boolean isTextPending = false;
     private String initialText = null;
     private String type = JP_TYPE_UNDEFINED;
 
@@ -137,16 +140,40 @@ public class JudgeParser {
      * <p>
      * This the "rest" of the text after parsing judge/player info; <br>
      * if it is a history, it is every line INCLUDING and AFTER the first Date: line.
+     * <p>
+     * Returns null if the text has been read using getTextReader().
      */
-    public String getText() {
+    public String getText()
+            throws IOException {
+        if (isTextPending) {
+            isTextPending = false;
+            text = readRestOfText();
+        }
         return text;
     }
 
+    /**
+     * Returns a reader for the rest of the text (see getText()). Unless getText()
+     * has already been called, the text is read directly from the input, rather
+     * than into memory; thus this may only be called once.
+     */
+    BufferedReader getTextReader()
+            throws IOException {
+        if (isTextPending) {
+            isTextPending = false;
+            return new BufferedReader(new PrefixedReader(textPrefix, reader));
+        } else if (text == null) {
+            throw new IllegalStateException("text already read");
+        }
+        return new BufferedReader(new StringReader(text));
+    }
+
     /**
      * Prepend the given string in front of the stored text
      */
-    public String prependText(String s) {
-        text = s + text;
+    public String prependText(String s)
+            throws IOException {
+        text = s + getText();
         return text;
     }
 
@@ -386,17 +413,22 @@ public class JudgeParser {
 
 
     /**
-     * Given the current position in the reader, get the rest of the text to the end of the input
+     * Given the current position in the reader, the rest of the text is the text to
+     * prepend (if any) and the rest of the input. This is not read until required.
      */
-    private void makeRestOfText(String toPrepend)
+    private void makeRestOfText(String toPrepend) {
+        textPrefix = (toPrepend == null) ? "" : toPrepend + '\n';
+        isTextPending = true;
+    }// makeRestOfText()
+
+
+    /**
+     * Read the rest of the text to the end of the input
+     */
+    private String readRestOfText()
             throws IOException {
         StringBuilder sb = new StringBuilder(16384);
-
-        // prepend text first, if any
-        if (toPrepend != null) {
-            sb.append(toPrepend);
-            sb.append('\n');
-        }
+        sb.append(textPrefix);
 
         // read rest of text
         String line = reader.readLine();
@@ -406,7 +438,39 @@ public class JudgeParser {
             line = reader.readLine();
         }
 
-        text = sb.toString();
-    }// makeRestOfText()
+        return sb.toString();
+    }// readRestOfText()
+
+
+    /**
+     * Reads the given text, followed by the given Reader.
+     */
+    private static class PrefixedReader extends Reader {
+        private final Reader prefix;
+        private final Reader rest;
+        private boolean isPrefixDone = false;
+
+        PrefixedReader(String prefix, Reader rest) {
+            this.prefix = new StringReader(prefix);
+            this.rest = rest;
+        }// PrefixedReader()
+
+        public int read(char[] cbuf, int off, int len)
+                throws IOException {
+            if (!isPrefixDone) {
+                final int n = prefix.read(cbuf, off, len);
+                if (n > 0) {
+                    return n;
+                }
+                isPrefixDone = true;
+            }
+            return rest.read(cbuf, off, len);
+        }// read()
+
+        public void close()
+                throws IOException {
+            rest.close();
+        }// close()
+    }// nested class PrefixedReader
 
 }// class JudgeParser
@@ -28,7 +28,10 @@ import info.jdip.world.Phase;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -61,18 +64,45 @@ public class TurnParser {
     // instance variables
     private Turn[] turns = null;
 
+    // streaming state
+    private Pattern subjPhasePattern = null;
+    private Pattern subjPhasePatternOld = null;
+    private Pattern isResultsPattern = null;
+    private BufferedReader reader = null;
+    private Turn turn = null;                   // next turn (Date: line seen)
+    private Turn lastTurn = null;               // turn whose text is being read
+    private StringBuilder sb = null;
+    private List<String> subjectLines = null;   // Subject: lines that do not start a Turn
+
 
     /**
      * Create the TurnParser and perform parsing.
      */
     public TurnParser(String input)
             throws IOException, PatternSyntaxException {
-        parseTurns(input);
+        this(new BufferedReader(new StringReader(input)));
+        parseTurns();
+    }// TurnParser()
+
+
+    /**
+     * Create a TurnParser that reads Turns from the given reader, one at a time,
+     * using nextTurn(). Only the text of the Turn being read is held in memory.
+     */
+    public TurnParser(BufferedReader reader)
+            throws PatternSyntaxException {
+        this.reader = reader;
+        subjPhasePattern = Pattern.compile(SUBJ_PHASE_REGEX);
+        subjPhasePatternOld = Pattern.compile(SUBJ_PHASE_REGEX_OLD);
+        isResultsPattern = Pattern.compile(RESULT_SUBJ_REGEX);
+        subjectLines = new ArrayList<>();
+        turn = new Turn();
     }// TurnParser()
 
 
     /**
      * Returns the turns. If not parsed, or an error occured, it may return null.
+     * This is always null for a TurnParser created from a Reader.
      */
     public Turn[] getTurns() {
         return turns;
@@ -80,24 +110,37 @@ public class TurnParser {
 
 
     /**
-     * Creates Turn objects.
+     * Returns the Subject: lines read so far that did not begin a Turn
+     * (for example, game start messages).
      */
-    private void parseTurns(String input)
-            throws IOException, PatternSyntaxException {
-        // patterns
-        Pattern subjPhasePattern = Pattern.compile(SUBJ_PHASE_REGEX);
-        Pattern subjPhasePatternOld = Pattern.compile(SUBJ_PHASE_REGEX_OLD);
-        Pattern isResultsPattern = Pattern.compile(RESULT_SUBJ_REGEX);
+    public List<String> getSubjectLines() {
+        return Collections.unmodifiableList(subjectLines);
+    }// getSubjectLines()
 
 
+    /**
+     * Creates Turn objects.
+     */
+    private void parseTurns()
+            throws IOException {
         LinkedList<Turn> turnList = new LinkedList<>();
-        BufferedReader reader = new BufferedReader(new StringReader(input));
+        Turn next = nextTurn();
+        while (next != null) {
+            turnList.add(next);
+            next = nextTurn();
+        }
 
-        String line = reader.readLine();
-        StringBuilder sb = null;
-        Turn turn = new Turn();            // current turn
-        Turn lastTurn = null;            // previous turn
+        // convert to array
+        turns = turnList.toArray(new Turn[turnList.size()]);
+    }// parseTurns()
 
+
+    /**
+     * Read the next Turn. Returns null if there are no more turns.
+     */
+    public Turn nextTurn()
+            throws IOException {
+        String line = reader.readLine();
         while (line != null) {
             int pos = line.toLowerCase().indexOf("date:");
             if (pos >= 0 && pos < 10) {
@@ -105,7 +148,7 @@ public class TurnParser {
 
                 // set the subject line; if not present, throw an error (shouldn't occur)
                 String nextLine = reader.readLine();
-                if (!nextLine.toLowerCase().contains("subject:")) {
+                if (nextLine == null || !nextLine.toLowerCase().contains("subject:")) {
                     throw new IOException(Utils.getLocalString(TP_NO_SUBJECT));
                 } else if (isResultsPattern.matcher(nextLine).find()) {
                     turn.setSubjectLine(nextLine);
@@ -131,34 +174,48 @@ public class TurnParser {
                         throw new IOException(Utils.getLocalString(TP_BAD_SUBJECT, nextLine));
                     }
 
+                    Turn completed = null;
                     if (lastTurn != null) {
                         lastTurn.setText(sb.toString());
-                        turnList.add(lastTurn);
-                        lastTurn = null;
+                        completed = lastTurn;
                     }
 
                     lastTurn = turn;
                     turn = new Turn();
                     sb = new StringBuilder(512);
+
+                    if (completed != null) {
+                        return completed;
+                    }
+                } else {
+                    subjectLines.add(nextLine);
+                }
+            } else {
+                if (line.toLowerCase().contains("subject:")) {
+                    subjectLines.add(line);
                 }
-            } else if (sb != null) {
+
                 // accumulate text
-                sb.append(line);
-                sb.append('\n');
+                if (sb != null) {
+                    sb.append(line);
+                    sb.append('\n');
+                }
             }
 
             line = reader.readLine();
         }
 
-        // add last turn
+        // last turn
         if (lastTurn != null) {
             lastTurn.setText(sb.toString());
-            turnList.add(lastTurn);
+            final Turn completed = lastTurn;
+            lastTurn = null;
+            sb = null;
+            return completed;
         }
 
-        // convert to array
-        turns = turnList.toArray(new Turn[turnList.size()]);
-    }// parseTurns()
+        return null;
+    }// nextTurn()
 
 
     /**
@@ -368,7 +368,7 @@ public class AIDemo {
      * Make a Location for a Unit
      */
     private Location makeLocation(Position pos, Province prov) {
-        return new Location(prov, pos.getUnit(prov).getCoast());
+        return prov.getLocation(pos.getUnit(prov).getCoast());
     }// makeLocation()
 
 
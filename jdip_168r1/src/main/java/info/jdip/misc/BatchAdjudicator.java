@@ -0,0 +1,464 @@
+//
+//  @(#)BatchAdjudicator.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.misc;
+
+import info.jdip.judge.parser.JudgeImport;
+import info.jdip.order.OrderFactory;
+import info.jdip.order.result.OrderResult;
+import info.jdip.order.result.Result;
+import info.jdip.process.StdAdjudicator;
+import info.jdip.world.TurnState;
+import info.jdip.world.World;
+import info.jdip.world.variant.VariantManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Adjudicates games without a GUI, for use as a batch job.
+ * <p>
+ * Each game is either a saved game (.jdip) or a judge history (.txt), which
+ * is imported as by the GUI. If the current phase of a game has not been
+ * resolved, it is adjudicated with StdAdjudicator, exactly as by the GUI;
+ * units without orders are treated as having no orders (NMR). Games which
+ * have ended, or have no unresolved phase, are skipped.
+ * <p>
+ * For each game adjudicated, the results are written to a text file and,
+ * optionally, the adjudicated game is saved; output files are placed in the
+ * output directory, with the same relative path as the input file.
+ * <p>
+ * Games are processed on a pool of worker threads; timing is logged for each
+ * game (in the order the games were found), followed by aggregate throughput.
+ * From the command line:
+ * <pre>
+ *     BatchAdjudicator [-output dir] [-threads n] [-save true|false] (directory | file)...
+ * </pre>
+ * Directories are searched recursively. The "variants" directory must be in
+ * the current directory. The exit status is 0 if every game was processed,
+ * 1 if any game failed, and 2 if the arguments are invalid.
+ */
+public class BatchAdjudicator {
+    private static final Logger logger = LoggerFactory.getLogger(BatchAdjudicator.class);
+    /**
+     * Directory name where variants are stored
+     */
+    private static final String VARIANT_DIR = "variants";
+    private static final String DEFAULT_OUTPUT = "adjudicated";
+    private static final String GAME_EXTENSION = ".jdip";
+    private static final String HISTORY_EXTENSION = ".txt";
+    private static final String RESULTS_EXTENSION = ".results.txt";
+
+    private final OrderFactory orderFactory;
+    private final File outputDir;
+    private boolean isSaving = true;
+
+
+    /**
+     * Create a BatchAdjudicator, which writes its output to the given directory.
+     */
+    public BatchAdjudicator(OrderFactory orderFactory, File outputDir) {
+        if (orderFactory == null || outputDir == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.orderFactory = orderFactory;
+        this.outputDir = outputDir;
+    }// BatchAdjudicator()
+
+
+    /**
+     * Set if adjudicated games are saved (as .jdip files) in addition to
+     * their results. By default, true.
+     */
+    public void setSaving(boolean value) {
+        isSaving = value;
+    }// setSaving()
+
+
+    /**
+     * Process the given games, using the given number of threads. Names are
+     * the relative paths of the games (used for output files), and files the
+     * corresponding games; both lists must be the same size.
+     */
+    public Statistics run(final List<String> names, final List<File> files, final int threads)
+            throws InterruptedException {
+        if (names.size() != files.size() || threads < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        final Statistics total = new Statistics();
+        final long startTime = System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // at most a few games per thread are held in memory at once
+            final int window = threads * 4;
+            final ArrayDeque<Future<GameResult>> pending = new ArrayDeque<>(window);
+            final ArrayDeque<String> pendingNames = new ArrayDeque<>(window);
+
+            for (int i = 0; i < files.size(); i++) {
+                if (pending.size() >= window) {
+                    report(pending.remove(), pendingNames.remove(), total);
+                }
+
+                final String name = names.get(i);
+                final File file = files.get(i);
+                pending.add(executor.submit(() -> adjudicate(file, name)));
+                pendingNames.add(name);
+            }
+
+            while (!pending.isEmpty()) {
+                report(pending.remove(), pendingNames.remove(), total);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        total.elapsedNanos = System.nanoTime() - startTime;
+        return total;
+    }// run()
+
+
+    /**
+     * Load a game, adjudicate its current phase (if unresolved), and write
+     * the output. This may be called from any thread.
+     */
+    public GameResult adjudicate(File file, String name)
+            throws IOException {
+        final long startTime = System.nanoTime();
+        final World world = open(file);
+
+        final TurnState ts = world.getLastTurnState();
+        if (ts == null || ts.isResolved() || ts.isEnded()) {
+            return new GameResult(null, 0, false, System.nanoTime() - startTime);
+        }
+
+        final StdAdjudicator adjudicator = new StdAdjudicator(orderFactory, ts);
+        adjudicator.setStatReporting(true);        // report order statistics
+        adjudicator.setPowerOrderChecking(true);    // check for cheats & bugs
+        adjudicator.process();
+
+        // this may be null, if the game has been won
+        final TurnState nextTS = adjudicator.getNextTurnState();
+        if (nextTS != null) {
+            world.setTurnState(nextTS);
+        }
+
+        final boolean isEnded = ts.isEnded() || (nextTS != null && nextTS.isEnded());
+        writeResults(getOutputFile(name, RESULTS_EXTENSION), name, ts, isEnded);
+        if (isSaving) {
+            World.save(getOutputFile(name, GAME_EXTENSION), world);
+        }
+
+        return new GameResult(ts.getPhase().getBriefName(), adjudicator.getMetrics().getOrderCount(),
+                isEnded, System.nanoTime() - startTime);
+    }// adjudicate()
+
+
+    /**
+     * Reads a saved game or judge history. This is called concurrently,
+     * from multiple threads.
+     */
+    protected World open(File file)
+            throws IOException {
+        if (file.getName().toLowerCase().endsWith(GAME_EXTENSION)) {
+            return World.open(file);
+        }
+
+        return new JudgeImport(orderFactory, file, null).getWorld();
+    }// open()
+
+
+    /**
+     * Waits for a game, logs its timing, and adds it to the totals.
+     */
+    private void report(Future<GameResult> future, String name, Statistics total)
+            throws InterruptedException {
+        try {
+            final GameResult result = future.get();
+            if (result.getPhase() == null) {
+                total.skipped++;
+                logger.info("{}: nothing to adjudicate ({} ms).", name, result.getElapsedNanos() / 1000000L);
+            } else {
+                total.adjudicated++;
+                total.orders += result.getOrderCount();
+                logger.info("{}: {} adjudicated, {} orders{} ({} ms).", name, result.getPhase(),
+                        result.getOrderCount(), (result.isEnded() ? ", game ended" : ""),
+                        result.getElapsedNanos() / 1000000L);
+            }
+        } catch (ExecutionException e) {
+            total.failures++;
+            logger.error("{}: failed.", name, e.getCause());
+        }
+    }// report()
+
+
+    /**
+     * The output file for the named game, with the given extension in place
+     * of the original extension.
+     */
+    private File getOutputFile(String name, String extension)
+            throws IOException {
+        final int dot = name.lastIndexOf('.');
+        final String baseName = (dot > name.lastIndexOf('/')) ? name.substring(0, dot) : name;
+        final File file = new File(outputDir, baseName + extension);
+
+        final File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        return file;
+    }// getOutputFile()
+
+
+    /**
+     * Write the results of the adjudicated TurnState, sorted by Power.
+     */
+    private static void writeResults(File file, String name, TurnState ts, boolean isEnded)
+            throws IOException {
+        final List<Result> results = new ArrayList<>(ts.getResultList());
+        Collections.sort(results);
+
+        try (PrintWriter pw = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+            pw.println("Game: " + name);
+            pw.println("Phase: " + ts.getPhase());
+            if (isEnded) {
+                pw.println("Game ended.");
+            }
+            pw.println();
+
+            for (Result result : results) {
+                final String message = result.getMessage();
+                if (result instanceof OrderResult && ((OrderResult) result).getOrder() != null) {
+                    // the order includes the power name
+                    pw.print(((OrderResult) result).getOrder().toBriefString());
+                    if (message.length() > 0) {
+                        pw.print(": ");
+                        pw.print(message);
+                    }
+                    pw.println();
+                } else {
+                    pw.print((result.getPower() == null) ? "(general)" : result.getPower().getName());
+                    pw.print(": ");
+                    pw.println(message);
+                }
+            }
+
+            if (pw.checkError()) {
+                throw new IOException("Cannot write " + file);
+            }
+        }
+    }// writeResults()
+
+
+    /**
+     * Finds the games in the given directory (recursively), adding them to
+     * the lists in a consistent (sorted) order.
+     */
+    private static void findGames(File root, File dir, List<String> names, List<File> files) {
+        final File[] entries = dir.listFiles();
+        if (entries == null) {
+            return;
+        }
+
+        Arrays.sort(entries);
+        for (File entry : entries) {
+            final String fileName = entry.getName().toLowerCase();
+            if (entry.isDirectory()) {
+                findGames(root, entry, names, files);
+            } else if (fileName.endsWith(GAME_EXTENSION)
+                    || (fileName.endsWith(HISTORY_EXTENSION) && !fileName.endsWith(RESULTS_EXTENSION))) {
+                names.add(root.toPath().relativize(entry.toPath()).toString().replace(File.separatorChar, '/'));
+                files.add(entry);
+            }
+        }
+    }// findGames()
+
+
+    /**
+     * Command-line entry point
+     */
+    public static void main(String[] args)
+            throws Exception {
+        File output = new File(DEFAULT_OUTPUT);
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean isSaving = true;
+        final List<String> names = new ArrayList<>();
+        final List<File> files = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].startsWith("-")) {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("missing value for " + args[i]);
+                    }
+
+                    final String value = args[++i];
+                    switch (args[i - 1]) {
+                        case "-output":
+                            output = new File(value);
+                            break;
+                        case "-threads":
+                            threads = Integer.parseInt(value);
+                            break;
+                        case "-save":
+                            isSaving = Boolean.parseBoolean(value);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("unknown option: " + args[i - 1]);
+                    }
+                } else {
+                    final File file = new File(args[i]);
+                    if (file.isDirectory()) {
+                        findGames(file, file, names, files);
+                    } else if (file.isFile()) {
+                        names.add(file.getName());
+                        files.add(file);
+                    } else {
+                        throw new IllegalArgumentException("no such file or directory: " + file);
+                    }
+                }
+            }
+
+            if (files.isEmpty() || threads < 1) {
+                throw new IllegalArgumentException("no games to adjudicate");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("USAGE: BatchAdjudicator [-output dir] [-threads n] [-save true|false] (directory | file)...");
+            System.exit(2);
+        }
+
+        VariantManager.init(new File[]{new File(System.getProperty("user.dir", "."), VARIANT_DIR)}, false);
+
+        final BatchAdjudicator batch = new BatchAdjudicator(OrderFactory.getDefault(), output);
+        batch.setSaving(isSaving);
+
+        logger.info("Adjudicating {} games with {} threads, to {}.", files.size(), threads, output);
+        final Statistics stats = batch.run(names, files, threads);
+        logger.info("{}", stats);
+
+        System.exit((stats.getFailureCount() > 0) ? 1 : 0);
+    }// main()
+
+
+    /**
+     * The outcome of processing a single game
+     */
+    public static class GameResult {
+        private final String phase;
+        private final int orderCount;
+        private final boolean isEnded;
+        private final long elapsedNanos;
+
+        private GameResult(String phase, int orderCount, boolean isEnded, long elapsedNanos) {
+            this.phase = phase;
+            this.orderCount = orderCount;
+            this.isEnded = isEnded;
+            this.elapsedNanos = elapsedNanos;
+        }// GameResult()
+
+        /**
+         * The brief name of the adjudicated phase, or null if nothing was adjudicated
+         */
+        public String getPhase() {
+            return phase;
+        }
+
+        public int getOrderCount() {
+            return orderCount;
+        }
+
+        /**
+         * True if the game ended as a result of adjudication
+         */
+        public boolean isEnded() {
+            return isEnded;
+        }
+
+        /**
+         * Time to load, adjudicate, and write the game
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }// nested class GameResult
+
+
+    /**
+     * Aggregate results of a run
+     */
+    public static class Statistics {
+        private int adjudicated = 0;
+        private int skipped = 0;
+        private int failures = 0;
+        private long orders = 0;
+        private long elapsedNanos = 0;
+
+        /**
+         * Number of games with a phase adjudicated
+         */
+        public int getAdjudicatedCount() {
+            return adjudicated;
+        }
+
+        /**
+         * Number of games with nothing to adjudicate
+         */
+        public int getSkippedCount() {
+            return skipped;
+        }
+
+        /**
+         * Number of games which could not be read, adjudicated, or written
+         */
+        public int getFailureCount() {
+            return failures;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Games processed (including skipped and failed games) per second
+         */
+        public double getGamesPerSecond() {
+            return (elapsedNanos == 0) ? 0.0 : (adjudicated + skipped + failures) * 1.0e9 / elapsedNanos;
+        }
+
+        public String toString() {
+            return String.format("%d games adjudicated (%d orders), %d skipped, %d failed in %.1f s; %.1f games/s",
+                    adjudicated, orders, skipped, failures, elapsedNanos / 1.0e9, getGamesPerSecond());
+        }
+    }// nested class Statistics
+
+}// class BatchAdjudicator
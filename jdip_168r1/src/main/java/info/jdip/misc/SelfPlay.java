@@ -0,0 +1,910 @@
+//
+//  @(#)SelfPlay.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.misc;
+
+import info.jdip.order.LegalOrderGenerator;
+import info.jdip.order.Move;
+import info.jdip.order.OrderFactory;
+import info.jdip.order.Orderable;
+import info.jdip.order.result.DislodgedResult;
+import info.jdip.process.Adjustment;
+import info.jdip.process.StdAdjudicator;
+import info.jdip.world.Coast;
+import info.jdip.world.Location;
+import info.jdip.world.Phase;
+import info.jdip.world.Position;
+import info.jdip.world.Power;
+import info.jdip.world.Province;
+import info.jdip.world.RuleOptions;
+import info.jdip.world.TurnState;
+import info.jdip.world.Unit;
+import info.jdip.world.World;
+import info.jdip.world.WorldFactory;
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.Variant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays complete games, with computer-generated orders for every Power,
+ * using StdAdjudicator. This builds upon the approach shown in AIDemo.
+ * <p>
+ * Many games are played in parallel; each worker thread creates its games
+ * from a shared template World (see WorldFactory.createWorld(World)), and
+ * reuses its own order-generation buffers. Only the TurnStates needed to
+ * continue a game (the previous TurnState, and those in which supply center
+ * ownership changed, for VictoryConditions) are kept; all others are
+ * discarded as the game proceeds.
+ * <p>
+ * Orders are generated by a Strategy:
+ * <ul>
+ * <li>RANDOM: each unit (or dislodged unit) is given a random legal order,
+ * from LegalOrderGenerator; thus convoys, convoyed moves, and supports of
+ * other units' moves are all made. The kind of order is chosen first, so
+ * that a unit with many possible supports is as likely to move.</li>
+ * <li>HEURISTIC: units move towards supply centers they do not own, and
+ * idle units Support those moves. Retreats are chosen from the retreat
+ * locations given in the DislodgedResults of the previous phase. Orders are
+ * not guaranteed to be valid; invalid orders are handled by the adjudicator,
+ * just as for a human player.</li>
+ * </ul>
+ * In both cases, builds are made in owned, unoccupied home supply centers.
+ * <p>
+ * Each game is played with its own Random, seeded from the base seed and
+ * the game number; thus the result of a game does not depend upon the
+ * number of threads.
+ * <p>
+ * This is useful for testing the balance of a variant, and as a sustained
+ * test of the adjudicator. From the command line:
+ * <pre>
+ *     SelfPlay [-variant name] [-games n] [-seconds n] [-threads n]
+ *              [-strategy random|heuristic] [-seed n] [-maxyears n]
+ * </pre>
+ * The "variants" directory must be in the current directory.
+ */
+public class SelfPlay {
+    private static final Logger logger = LoggerFactory.getLogger(SelfPlay.class);
+    /**
+     * Directory name where variants are stored
+     */
+    private static final String VARIANT_DIR = "variants";
+    private static final String DEFAULT_VARIANT = "Standard";
+
+    /**
+     * Order generation strategies
+     */
+    public enum Strategy {
+        RANDOM, HEURISTIC
+    }
+
+    private final World template;
+    private final OrderFactory orderFactory;
+    private Strategy strategy = Strategy.HEURISTIC;
+    private long seed = 0L;
+    private int maxYears = 100;
+
+
+    /**
+     * Create a SelfPlay engine. All games are created from the given template
+     * World, which must contain only its initial TurnState, and is not modified.
+     */
+    public SelfPlay(World template, OrderFactory orderFactory) {
+        if (template == null || orderFactory == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.template = template;
+        this.orderFactory = orderFactory;
+    }// SelfPlay()
+
+
+    /**
+     * Set the order-generation Strategy. By default, HEURISTIC.
+     */
+    public void setStrategy(Strategy value) {
+        if (value == null) {
+            throw new IllegalArgumentException();
+        }
+        strategy = value;
+    }// setStrategy()
+
+
+    /**
+     * Set the base random seed. By default, 0.
+     */
+    public void setSeed(long value) {
+        seed = value;
+    }// setSeed()
+
+
+    /**
+     * Set the maximum number of game years; games that have not ended by then
+     * are stopped, and counted as truncated. By default, 100.
+     */
+    public void setMaxYears(int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException();
+        }
+        maxYears = value;
+    }// setMaxYears()
+
+
+    /**
+     * Play the given number of games, using the given number of threads.
+     */
+    public Statistics run(int games, int threads)
+            throws InterruptedException {
+        if (games < 0) {
+            throw new IllegalArgumentException();
+        }
+        return run(games, Long.MAX_VALUE, threads);
+    }// run()
+
+
+    /**
+     * Play games for (approximately) the given time, using the given number
+     * of threads. Games in progress when time expires are finished.
+     */
+    public Statistics runFor(long time, TimeUnit unit, int threads)
+            throws InterruptedException {
+        return run(Long.MAX_VALUE, System.nanoTime() + unit.toNanos(time), threads);
+    }// runFor()
+
+
+    /**
+     * Play a single game, with the given seed.
+     */
+    public GameResult playGame(long gameSeed) {
+        return new Player().play(gameSeed);
+    }// playGame()
+
+
+    /**
+     * Play games until maxGames have been played or the deadline has passed.
+     */
+    private Statistics run(final long maxGames, final long deadline, int threads)
+            throws InterruptedException {
+        if (threads < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        final Power[] powers = template.getMap().getPowers();
+        final AtomicLong nextGame = new AtomicLong();
+        final List<Statistics> workerStats = Collections.synchronizedList(new ArrayList<>(threads));
+        final long startTime = System.nanoTime();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    final Statistics stats = new Statistics(powers);
+                    final Player player = new Player();
+                    long game;
+                    while (System.nanoTime() < deadline && (game = nextGame.getAndIncrement()) < maxGames) {
+                        final long gameSeed = seed + game;
+                        try {
+                            stats.add(player.play(gameSeed));
+                        } catch (RuntimeException e) {
+                            stats.errors++;
+                            logger.warn("Game with seed {} failed.", gameSeed, e);
+                        }
+                    }
+                    workerStats.add(stats);
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+            // wait until all games are complete
+        }
+
+        final Statistics total = new Statistics(powers);
+        for (Statistics stats : workerStats) {
+            total.merge(stats);
+        }
+        total.elapsedNanos = System.nanoTime() - startTime;
+        return total;
+    }// run()
+
+
+    /**
+     * Command-line entry point
+     */
+    public static void main(String[] args)
+            throws Exception {
+        String variantName = DEFAULT_VARIANT;
+        int games = 1000;
+        int seconds = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Strategy strategy = Strategy.HEURISTIC;
+        long seed = 0L;
+        int maxYears = 100;
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("missing value for " + args[i]);
+            }
+
+            final String value = args[i + 1];
+            switch (args[i]) {
+                case "-variant":
+                    variantName = value;
+                    break;
+                case "-games":
+                    games = Integer.parseInt(value);
+                    break;
+                case "-seconds":
+                    seconds = Integer.parseInt(value);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "-strategy":
+                    strategy = Strategy.valueOf(value.toUpperCase());
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "-maxyears":
+                    maxYears = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option: " + args[i]);
+            }
+        }
+
+        final SelfPlay selfPlay = new SelfPlay(createWorld(variantName), OrderFactory.getDefault());
+        selfPlay.setStrategy(strategy);
+        selfPlay.setSeed(seed);
+        selfPlay.setMaxYears(maxYears);
+
+        logger.info("Playing {} with {} strategy, {} threads.", variantName, strategy, threads);
+        final Statistics stats = (seconds > 0)
+                ? selfPlay.runFor(seconds, TimeUnit.SECONDS, threads)
+                : selfPlay.run(games, threads);
+        logger.info("{}", stats);
+    }// main()
+
+
+    /**
+     * Create a template World for the named variant, from the variants
+     * directory in the current directory.
+     */
+    private static World createWorld(String variantName)
+            throws Exception {
+        final File variantDir = new File(System.getProperty("user.dir", "."), VARIANT_DIR);
+        VariantManager.init(new File[]{variantDir}, false);
+
+        final Variant variant = VariantManager.getVariant(variantName, VariantManager.VERSION_NEWEST);
+        if (variant == null) {
+            throw new IOException("Cannot find variant " + variantName);
+        }
+
+        final World world = WorldFactory.getInstance().createWorld(variant);
+        world.setRuleOptions(RuleOptions.createFromVariant(variant));
+        return world;
+    }// createWorld()
+
+
+    /**
+     * Plays games, one at a time. Order-generation buffers are reused
+     * between phases and games.
+     */
+    private final class Player {
+        private final Move[] targets;                        // friendly Move, by destination province index
+        private final List<Location> candidates = new ArrayList<>(16);
+        private final List<Province> provinces = new ArrayList<>(32);
+        private final List<Class<?>> kinds = new ArrayList<>(8);
+        private final List<Orderable> choices = new ArrayList<>(64);
+        private final LegalOrderGenerator generator;
+        private Random random = null;
+
+        Player() {
+            targets = new Move[template.getMap().getProvinces().length];
+            generator = LegalOrderGenerator.getInstance(template.getMap());
+        }// Player()
+
+        /**
+         * Play a game
+         */
+        GameResult play(long gameSeed) {
+            random = new Random(gameSeed);
+
+            final World world = WorldFactory.getInstance().createWorld(template);
+            final Power[] powers = world.getMap().getPowers();
+            final int lastYear = world.getInitialTurnState().getPhase().getYear() + maxYears - 1;
+
+            TurnState turnState = world.getLastTurnState();
+            int phases = 0;
+            int paradoxes = 0;
+            boolean isTruncated = false;
+
+            while (!turnState.isEnded()) {
+                if (turnState.getPhase().getYear() > lastYear) {
+                    isTruncated = true;
+                    break;
+                }
+
+                for (Power power : powers) {
+                    if (!turnState.getPosition().isEliminated(power)) {
+                        turnState.setOrders(power, createOrders(world, turnState, power));
+                    }
+                }
+
+                final StdAdjudicator adjudicator = new StdAdjudicator(orderFactory, turnState);
+                adjudicator.process();
+                phases++;
+                if (adjudicator.isUnresolvedParadox()) {
+                    paradoxes++;
+                }
+
+                final TurnState next = adjudicator.getNextTurnState();
+                if (next == null) {
+                    if (!turnState.isEnded()) {
+                        throw new IllegalStateException("no next TurnState after " + turnState.getPhase());
+                    }
+                    break;
+                }
+
+                world.setTurnState(next);
+                pruneHistory(world, turnState);
+                turnState = next;
+            }
+
+            return new GameResult(world.getMap(), turnState, phases, paradoxes, isTruncated);
+        }// play()
+
+        /**
+         * Remove all TurnStates before the given (previous) TurnState, unless
+         * supply center ownership changed in them.
+         */
+        private void pruneHistory(World world, TurnState previous) {
+            for (TurnState ts : world.getAllTurnStates()) {
+                if (ts.getPhase().compareTo(previous.getPhase()) < 0 && !ts.getSCOwnerChanged()) {
+                    world.removeTurnState(ts);
+                }
+            }
+        }// pruneHistory()
+
+        /**
+         * Create orders for a Power
+         */
+        private List<Orderable> createOrders(World world, TurnState turnState, Power power) {
+            final Phase.PhaseType phaseType = turnState.getPhase().getPhaseType();
+            if (strategy == Strategy.RANDOM && phaseType != Phase.PhaseType.ADJUSTMENT) {
+                return createRandomOrders(world, turnState, power);
+            } else if (phaseType == Phase.PhaseType.MOVEMENT) {
+                return createHeuristicMoves(turnState, power);
+            } else if (phaseType == Phase.PhaseType.RETREAT) {
+                return createRetreats(world, turnState, power);
+            } else {
+                return createAdjustments(world, turnState, power);
+            }
+        }// createOrders()
+
+        /**
+         * RANDOM strategy: a random legal order for each unit, or, in the
+         * retreat phase, for each dislodged unit.
+         */
+        private List<Orderable> createRandomOrders(World world, TurnState turnState, Power power) {
+            final Position position = turnState.getPosition();
+            final Province[] units = (turnState.getPhase().getPhaseType() == Phase.PhaseType.MOVEMENT)
+                    ? position.getUnitProvinces(power)
+                    : position.getDislodgedUnitProvinces(power);
+            final List<Orderable> orders = new ArrayList<>(units.length);
+
+            for (Province province : units) {
+                final List<Orderable> legal = generator.getLegalOrders(turnState,
+                        world.getRuleOptions(), orderFactory, province);
+                if (legal.isEmpty()) {
+                    // a Hold or Disband is always legal
+                    throw new IllegalStateException("no legal orders for " + province);
+                }
+
+                // choose the kind of order, then an order of that kind
+                kinds.clear();
+                for (Orderable order : legal) {
+                    if (!kinds.contains(order.getClass())) {
+                        kinds.add(order.getClass());
+                    }
+                }
+                final Class<?> kind = kinds.get(random.nextInt(kinds.size()));
+
+                choices.clear();
+                for (Orderable order : legal) {
+                    if (order.getClass() == kind) {
+                        choices.add(order);
+                    }
+                }
+                orders.add(choices.get(random.nextInt(choices.size())));
+            }
+
+            choices.clear();
+            return orders;
+        }// createRandomOrders()
+
+        /**
+         * HEURISTIC strategy. First, units move to adjacent supply centers not owned
+         * by their Power (or, in the Fall, stay on them), or wander; then, idle units
+         * support those moves, or support adjacent friendly units in place.
+         */
+        private List<Orderable> createHeuristicMoves(TurnState turnState, Power power) {
+            final Position position = turnState.getPosition();
+            final boolean isFall = turnState.getPhase().getSeasonType() == Phase.SeasonType.FALL;
+            final List<Orderable> orders = new ArrayList<>(16);
+
+            provinces.clear();
+            Collections.addAll(provinces, position.getUnitProvinces(power));
+            Collections.shuffle(provinces, random);
+
+            // pass 1: moves
+            final Orderable[] assigned = new Orderable[provinces.size()];
+            for (int i = 0; i < assigned.length; i++) {
+                final Province province = provinces.get(i);
+                final Unit unit = position.getUnit(province);
+
+                if (province.hasSupplyCenter() && position.getSupplyCenterOwner(province) != power
+                        && (isFall || random.nextBoolean())) {
+                    continue;    // stay, to take (or keep) the supply center
+                }
+
+                final Location[] adjacent = getMoveLocations(province, unit);
+                candidates.clear();
+                for (Location loc : adjacent) {
+                    final Province dest = loc.getProvince();
+                    if (dest.hasSupplyCenter()
+                            && position.getSupplyCenterOwner(dest) != power
+                            && isOpen(position, power, dest)) {
+                        candidates.add(loc);
+                    }
+                }
+
+                if (candidates.isEmpty() && random.nextInt(10) < 6) {
+                    for (Location loc : adjacent) {
+                        if (isOpen(position, power, loc.getProvince())) {
+                            candidates.add(loc);
+                        }
+                    }
+                }
+
+                if (!candidates.isEmpty()) {
+                    final Location dest = candidates.get(random.nextInt(candidates.size()));
+                    final Move move = orderFactory.createMove(power,
+                            province.getLocation(unit.getCoast()), unit.getType(), dest);
+                    targets[dest.getProvince().getIndex()] = move;
+                    assigned[i] = move;
+                }
+            }
+
+            // pass 2: supports and holds
+            for (int i = 0; i < assigned.length; i++) {
+                final Province province = provinces.get(i);
+                final Unit unit = position.getUnit(province);
+                final Location src = province.getLocation(unit.getCoast());
+
+                Orderable order = assigned[i];
+                if (order == null) {
+                    final Location[] adjacent = getMoveLocations(province, unit);
+                    for (Location loc : adjacent) {
+                        final Move move = targets[loc.getProvince().getIndex()];
+                        if (move != null) {
+                            order = orderFactory.createSupport(power, src, unit.getType(),
+                                    move.getSource(), power, move.getSourceUnitType(), move.getDest());
+                            break;
+                        }
+                    }
+
+                    if (order == null) {
+                        order = createHoldSupport(position, power, src, unit, adjacent);
+                    }
+                }
+
+                orders.add((order == null) ? orderFactory.createHold(power, src, unit.getType()) : order);
+            }
+
+            Arrays.fill(targets, null);
+            return orders;
+        }// createHeuristicMoves()
+
+        /**
+         * True if no friendly unit is in the Province, and no friendly unit
+         * has been ordered to move there.
+         */
+        private boolean isOpen(Position position, Power power, Province province) {
+            final Unit unit = position.getUnit(province);
+            return targets[province.getIndex()] == null
+                    && (unit == null || unit.getPower() != power);
+        }// isOpen()
+
+        /**
+         * Create a Support for a randomly-chosen adjacent friendly unit to hold.
+         * Returns null if there are no such units.
+         */
+        private Orderable createHoldSupport(Position position, Power power, Location src,
+                                            Unit unit, Location[] adjacent) {
+            candidates.clear();
+            for (Location loc : adjacent) {
+                final Unit other = position.getUnit(loc.getProvince());
+                if (other != null && other.getPower() == power) {
+                    candidates.add(loc.getProvince().getLocation(other.getCoast()));
+                }
+            }
+
+            if (candidates.isEmpty()) {
+                return null;
+            }
+
+            final Location supSrc = candidates.get(random.nextInt(candidates.size()));
+            final Unit supUnit = position.getUnit(supSrc.getProvince());
+            return orderFactory.createSupport(power, src, unit.getType(),
+                    supSrc, supUnit.getPower(), supUnit.getType());
+        }// createHoldSupport()
+
+        /**
+         * HEURISTIC strategy: retreat each dislodged unit to a random valid retreat
+         * location (preferring supply centers); Disband if there are none.
+         */
+        private List<Orderable> createRetreats(World world, TurnState turnState, Power power) {
+            final Position position = turnState.getPosition();
+            final TurnState previous = world.getPreviousTurnState(turnState);
+            final List<Orderable> orders = new ArrayList<>(4);
+            if (previous == null) {
+                return orders;
+            }
+
+            for (DislodgedResult dr : previous.getResultIndex().getResults(DislodgedResult.class)) {
+                if (dr.getPower() != power) {
+                    continue;
+                }
+
+                final Province province = dr.getOrder().getSource().getProvince();
+                final Unit unit = position.getDislodgedUnit(province);
+                if (unit == null) {
+                    continue;
+                }
+
+                final Location src = province.getLocation(unit.getCoast());
+                final Location[] retreats = dr.getRetreatLocations();
+
+                candidates.clear();
+                if (retreats != null) {
+                    for (Location loc : retreats) {
+                        if (targets[loc.getProvince().getIndex()] == null && loc.getProvince().hasSupplyCenter()) {
+                            candidates.add(loc);
+                        }
+                    }
+
+                    if (candidates.isEmpty()) {
+                        for (Location loc : retreats) {
+                            if (targets[loc.getProvince().getIndex()] == null) {
+                                candidates.add(loc);
+                            }
+                        }
+                    }
+                }
+
+                if (candidates.isEmpty()) {
+                    orders.add(orderFactory.createDisband(power, src, unit.getType()));
+                } else {
+                    final Location dest = candidates.get(random.nextInt(candidates.size()));
+                    final Move retreat = orderFactory.createRetreat(power, src, unit.getType(), dest);
+                    targets[dest.getProvince().getIndex()] = retreat;
+                    orders.add(retreat);
+                }
+            }
+
+            Arrays.fill(targets, null);
+            return orders;
+        }// createRetreats()
+
+        /**
+         * Build in random owned, unoccupied home supply centers, or remove random units.
+         */
+        private List<Orderable> createAdjustments(World world, TurnState turnState, Power power) {
+            final Position position = turnState.getPosition();
+            final int amount = Adjustment.getAdjustmentInfo(turnState,
+                    world.getRuleOptions(), power).getAdjustmentAmount();
+            final List<Orderable> orders = new ArrayList<>(Math.abs(amount));
+
+            provinces.clear();
+            if (amount > 0) {
+                for (Province province : position.getHomeSupplyCenters(power)) {
+                    if (position.getSupplyCenterOwner(province) == power && !position.hasUnit(province)) {
+                        provinces.add(province);
+                    }
+                }
+                Collections.shuffle(provinces, random);
+
+                final int fleetOdds = (strategy == Strategy.RANDOM) ? 2 : 3;
+                for (int i = 0; i < amount && i < provinces.size(); i++) {
+                    final Province province = provinces.get(i);
+                    if (province.isCoastal() && random.nextInt(fleetOdds) == 0) {
+                        final Coast[] coasts = province.getValidDirectionalCoasts();
+                        final Coast coast = (coasts.length > 0) ? coasts[random.nextInt(coasts.length)] : Coast.SEA;
+                        orders.add(orderFactory.createBuild(power, province.getLocation(coast), Unit.Type.FLEET));
+                    } else {
+                        orders.add(orderFactory.createBuild(power, province.getLocation(Coast.LAND), Unit.Type.ARMY));
+                    }
+                }
+            } else if (amount < 0) {
+                Collections.addAll(provinces, position.getUnitProvinces(power));
+                Collections.shuffle(provinces, random);
+
+                for (int i = 0; i < -amount && i < provinces.size(); i++) {
+                    final Province province = provinces.get(i);
+                    final Unit unit = position.getUnit(province);
+                    orders.add(orderFactory.createRemove(power,
+                            province.getLocation(unit.getCoast()), unit.getType()));
+                }
+            }
+
+            return orders;
+        }// createAdjustments()
+
+        /**
+         * Locations a unit could move to
+         */
+        private Location[] getMoveLocations(Province province, Unit unit) {
+            if (unit.getType() == Unit.Type.FLEET) {
+                return province.getAdjacentLocations(unit.getCoast());
+            } else if (unit.getType() == Unit.Type.WING) {
+                return province.getAdjacentLocations(Coast.WING);
+            }
+            return province.getAdjacentLocations(Coast.LAND);
+        }// getMoveLocations()
+    }// inner class Player
+
+
+    /**
+     * The outcome of a single game.
+     */
+    public static final class GameResult {
+        private final Phase finalPhase;
+        private final Power winner;
+        private final int[] supplyCenters;
+        private final int phases;
+        private final int paradoxes;
+        private final boolean isTruncated;
+
+        GameResult(info.jdip.world.Map map, TurnState last, int phases, int paradoxes, boolean isTruncated) {
+            final Power[] powers = map.getPowers();
+            final Position position = last.getPosition();
+            final int required = last.getWorld().getVictoryConditions().getSCsRequiredForVictory();
+
+            this.finalPhase = last.getPhase();
+            this.phases = phases;
+            this.paradoxes = paradoxes;
+            this.isTruncated = isTruncated;
+            this.supplyCenters = new int[powers.length];
+
+            Power leader = null;
+            for (int i = 0; i < powers.length; i++) {
+                supplyCenters[i] = position.getOwnedSupplyCenters(powers[i]).length;
+                if (required > 0 && supplyCenters[i] >= required) {
+                    leader = powers[i];
+                }
+            }
+            this.winner = leader;
+        }// GameResult()
+
+        /**
+         * The Phase in which the game ended (or was stopped)
+         */
+        public Phase getFinalPhase() {
+            return finalPhase;
+        }// getFinalPhase()
+
+        /**
+         * The winning Power, or null if the game was drawn or stopped
+         */
+        public Power getWinner() {
+            return winner;
+        }// getWinner()
+
+        /**
+         * Supply centers owned at the end of the game, in Map.getPowers() order
+         */
+        public int[] getSupplyCenters() {
+            return supplyCenters.clone();
+        }// getSupplyCenters()
+
+        /**
+         * Number of phases adjudicated
+         */
+        public int getPhaseCount() {
+            return phases;
+        }// getPhaseCount()
+
+        /**
+         * Number of phases with an unresolved paradox
+         */
+        public int getParadoxCount() {
+            return paradoxes;
+        }// getParadoxCount()
+
+        /**
+         * True if the game was stopped after the maximum number of years
+         */
+        public boolean isTruncated() {
+            return isTruncated;
+        }// isTruncated()
+    }// nested class GameResult
+
+
+    /**
+     * Totals for a number of games. Not threadsafe.
+     */
+    public static final class Statistics {
+        private final Power[] powers;
+        private final long[] wins;
+        private final long[] supplyCenters;
+        private long games = 0;
+        private long phases = 0;
+        private long draws = 0;
+        private long truncated = 0;
+        private long paradoxes = 0;
+        private long errors = 0;
+        private long elapsedNanos = 0;
+
+        Statistics(Power[] powers) {
+            this.powers = powers;
+            this.wins = new long[powers.length];
+            this.supplyCenters = new long[powers.length];
+        }// Statistics()
+
+        void add(GameResult result) {
+            games++;
+            phases += result.phases;
+            paradoxes += result.paradoxes;
+            if (result.isTruncated) {
+                truncated++;
+            } else if (result.winner == null) {
+                draws++;
+            }
+
+            for (int i = 0; i < powers.length; i++) {
+                if (powers[i] == result.winner) {
+                    wins[i]++;
+                }
+                supplyCenters[i] += result.supplyCenters[i];
+            }
+        }// add()
+
+        void merge(Statistics other) {
+            games += other.games;
+            phases += other.phases;
+            draws += other.draws;
+            truncated += other.truncated;
+            paradoxes += other.paradoxes;
+            errors += other.errors;
+            for (int i = 0; i < powers.length; i++) {
+                wins[i] += other.wins[i];
+                supplyCenters[i] += other.supplyCenters[i];
+            }
+        }// merge()
+
+        /**
+         * Number of completed games
+         */
+        public long getGameCount() {
+            return games;
+        }// getGameCount()
+
+        /**
+         * Number of adjudicated phases, in all completed games
+         */
+        public long getPhaseCount() {
+            return phases;
+        }// getPhaseCount()
+
+        /**
+         * Number of games won by the given Power
+         */
+        public long getWins(Power power) {
+            return wins[Arrays.asList(powers).indexOf(power)];
+        }// getWins()
+
+        /**
+         * Average number of supply centers owned by the given Power at the end of a game
+         */
+        public double getAverageSupplyCenters(Power power) {
+            return (games == 0) ? 0.0 : (double) supplyCenters[Arrays.asList(powers).indexOf(power)] / games;
+        }// getAverageSupplyCenters()
+
+        /**
+         * Number of games ending in a draw
+         */
+        public long getDrawCount() {
+            return draws;
+        }// getDrawCount()
+
+        /**
+         * Number of games stopped after the maximum number of years
+         */
+        public long getTruncatedCount() {
+            return truncated;
+        }// getTruncatedCount()
+
+        /**
+         * Number of phases with an unresolved paradox
+         */
+        public long getParadoxCount() {
+            return paradoxes;
+        }// getParadoxCount()
+
+        /**
+         * Number of games that failed with an exception
+         */
+        public long getErrorCount() {
+            return errors;
+        }// getErrorCount()
+
+        /**
+         * Elapsed (wall-clock) time
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }// getElapsedNanos()
+
+        /**
+         * Completed games per second
+         */
+        public double getGamesPerSecond() {
+            return (elapsedNanos == 0) ? 0.0 : games * 1.0e9 / elapsedNanos;
+        }// getGamesPerSecond()
+
+        /**
+         * Adjudicated phases per second
+         */
+        public double getPhasesPerSecond() {
+            return (elapsedNanos == 0) ? 0.0 : phases * 1.0e9 / elapsedNanos;
+        }// getPhasesPerSecond()
+
+        /**
+         * A summary, suitable for display
+         */
+        public String toString() {
+            final StringBuilder sb = new StringBuilder(512);
+            sb.append(String.format("%d games, %d phases in %.1f s: %.1f games/s, %.0f phases/s%n",
+                    games, phases, elapsedNanos / 1.0e9, getGamesPerSecond(), getPhasesPerSecond()));
+            sb.append(String.format("draws: %d, truncated: %d, paradoxes: %d, errors: %d%n",
+                    draws, truncated, paradoxes, errors));
+            for (int i = 0; i < powers.length; i++) {
+                sb.append(String.format("%-12s wins: %6d  average SCs: %5.2f%n",
+                        powers[i].getName(), wins[i], getAverageSupplyCenters(powers[i])));
+            }
+            return sb.toString();
+        }// toString()
+    }// nested class Statistics
+
+}// class SelfPlay
@@ -54,6 +54,7 @@ import java.util.Locale;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -109,6 +110,10 @@ public class Utils {
     private static ResourceBundle commonBundle = null;
     private static Toolkit toolkit = null;
     private static Locale chosenLocale = null;
+    // MessageFormat pool, per Locale; key: resource key. MessageFormat is not threadsafe,
+    // so each is synchronized upon while formatting.
+    private static final ConcurrentHashMap<Locale, ConcurrentHashMap<String, MessageFormat>> messageFormats =
+            new ConcurrentHashMap<>();
 
     // static code
     static {
@@ -599,7 +604,7 @@ public class Utils {
      *
      ********************************************************************/
     public static String getLocalString(String key, Object arg1) {
-        return MessageFormat.format(getLocalString(key), arg1);
+        return formatLocalString(key, new Object[]{arg1});
     }// getLocalString()
 
     /********************************************************************
@@ -612,7 +617,7 @@ public class Utils {
      *
      ********************************************************************/
     public static String getLocalString(String key, Object arg1, Object arg2) {
-        return MessageFormat.format(getLocalString(key), arg1, arg2);
+        return formatLocalString(key, new Object[]{arg1, arg2});
     }// getLocalString()
 
     /********************************************************************
@@ -625,7 +630,7 @@ public class Utils {
      *
      ********************************************************************/
     public static String getLocalString(String key, Object arg1, Object arg2, Object arg3) {
-        return MessageFormat.format(getLocalString(key), arg1, arg2, arg3);
+        return formatLocalString(key, new Object[]{arg1, arg2, arg3});
     }// getLocalString()
 
     /********************************************************************
@@ -638,9 +643,37 @@ public class Utils {
      *
      ********************************************************************/
     public static String getLocalString(String key, Object[] args) {
-        return MessageFormat.format(getLocalString(key), args);
+        return formatLocalString(key, args);
     }// getLocalString()
 
+    /**
+     * Formats a resource-bundle String with the given arguments, using a
+     * cached MessageFormat for the current Locale. This avoids re-parsing
+     * the pattern for each call. If the resource is missing, this behaves
+     * as getLocalString(key).
+     */
+    private static String formatLocalString(String key, Object[] args) {
+        final Locale locale = chosenLocale;
+        final ConcurrentHashMap<String, MessageFormat> pool =
+                messageFormats.computeIfAbsent(locale, k -> new ConcurrentHashMap<>());
+
+        MessageFormat mf = pool.get(key);
+        if (mf == null) {
+            final String pattern = getLocalStringNoEx(key);
+            if (pattern == null) {
+                return MessageFormat.format(getLocalString(key), args);
+            }
+
+            mf = new MessageFormat(pattern);
+            final MessageFormat existing = pool.putIfAbsent(key, mf);
+            mf = (existing == null) ? mf : existing;
+        }
+
+        synchronized (mf) {
+            return mf.format(args);
+        }
+    }// formatLocalString()
+
     /********************************************************************
      *
      * Gets a resource-bundle String; this is for internationalization.
@@ -0,0 +1,392 @@
+//
+//  @(#)VariantParserBenchmark.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.misc;
+
+import info.jdip.world.Power;
+import info.jdip.world.variant.data.BorderData;
+import info.jdip.world.variant.data.InitialState;
+import info.jdip.world.variant.data.Influence;
+import info.jdip.world.variant.data.MapGraphic;
+import info.jdip.world.variant.data.ProvinceData;
+import info.jdip.world.variant.data.SupplyCenter;
+import info.jdip.world.variant.data.Variant;
+import info.jdip.world.variant.parser.StreamingVariantParser;
+import info.jdip.world.variant.parser.XMLVariantParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the DOM (XMLVariantParser) and streaming (StreamingVariantParser)
+ * variant parsers, over a set of variant packages.
+ * <p>
+ * For each package, the variants.xml file and its adjacency data are parsed
+ * with both parsers; the resulting Variants must be identical. Each parser
+ * is then timed over all packages, for a number of passes (following
+ * warm-up passes); a new parser is created for each package, so that
+ * parser setup is included, as for a cold start. Time and memory allocated (where the JVM supports
+ * it) are logged for each parser. From the command line:
+ * <pre>
+ *     VariantParserBenchmark [-passes n] [-warmup n] (directory | file)...
+ * </pre>
+ * Directories are searched recursively for variant packages; if none are
+ * given, the "variants" directory (in the current directory) is used. The
+ * exit status is 0 if the parsers agree, 1 if they do not, and 2 if the
+ * arguments are invalid.
+ */
+public class VariantParserBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(VariantParserBenchmark.class);
+    private static final String VARIANT_DIR = "variants";
+    private static final String[] VARIANT_EXTENSIONS = {"variant.zip", "variants.zip", "variant.jar", "variants.jar"};
+    private static final String VARIANT_FILE_NAME = "variants.xml";
+
+    private final List<URL> packageURLs;
+    private final List<URL> variantXMLURLs;
+
+
+    /**
+     * Create a VariantParserBenchmark for the given packages; packages
+     * without a variants.xml file are ignored.
+     */
+    public VariantParserBenchmark(List<File> files)
+            throws Exception {
+        packageURLs = new ArrayList<>(files.size());
+        variantXMLURLs = new ArrayList<>(files.size());
+        for (File file : files) {
+            final URL packURL = file.toURI().toURL();
+            try (URLClassLoader urlCL = new URLClassLoader(new URL[]{packURL})) {
+                final URL variantXMLURL = urlCL.findResource(VARIANT_FILE_NAME);
+                if (variantXMLURL != null) {
+                    packageURLs.add(packURL);
+                    variantXMLURLs.add(variantXMLURL);
+                }
+            }
+        }
+    }// VariantParserBenchmark()
+
+
+    /**
+     * The number of packages with variants
+     */
+    public int getPackageCount() {
+        return packageURLs.size();
+    }// getPackageCount()
+
+
+    /**
+     * Parses each package with both parsers, and compares the Variants.
+     * Returns the number of packages for which they differ.
+     */
+    public int compare()
+            throws Exception {
+        int differences = 0;
+        for (int i = 0; i < packageURLs.size(); i++) {
+            final String dom = describe(parse(false, i));
+            final String streaming = describe(parse(true, i));
+            if (!dom.equals(streaming)) {
+                differences++;
+                logger.error("{}: parsers differ.\n DOM: {}\n streaming: {}", packageURLs.get(i), dom, streaming);
+            }
+        }
+        return differences;
+    }// compare()
+
+
+    /**
+     * Times one parser over all packages, for the given number of passes.
+     */
+    public Timing time(boolean isStreaming, int passes)
+            throws Exception {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        final boolean hasAllocation = (threadBean instanceof com.sun.management.ThreadMXBean)
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported();
+
+        final Timing timing = new Timing(isStreaming ? "streaming" : "DOM", passes);
+        final long startBytes = hasAllocation ? getAllocatedBytes(threadBean) : 0;
+        for (int pass = 0; pass < passes; pass++) {
+            final long startTime = System.nanoTime();
+            for (int i = 0; i < packageURLs.size(); i++) {
+                parse(isStreaming, i);
+            }
+            timing.add(System.nanoTime() - startTime);
+        }
+        timing.allocatedBytes = hasAllocation ? (getAllocatedBytes(threadBean) - startBytes) : -1;
+        return timing;
+    }// time()
+
+
+    /**
+     * Parse a package, with a new parser of the given type.
+     */
+    private Variant[] parse(boolean isStreaming, int idx)
+            throws Exception {
+        try (InputStream is = new BufferedInputStream(variantXMLURLs.get(idx).openStream())) {
+            if (isStreaming) {
+                final SAXParserFactory spf = SAXParserFactory.newInstance();
+                spf.setValidating(false);
+                spf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+
+                final StreamingVariantParser parser = new StreamingVariantParser(spf);
+                parser.parse(is, packageURLs.get(idx));
+                return parser.getVariants();
+            } else {
+                final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+                dbf.setAttribute("http://apache.org/xml/features/nonvalidating/load-external-dtd", Boolean.FALSE);
+                dbf.setValidating(false);
+                dbf.setCoalescing(false);
+                dbf.setIgnoringComments(true);
+
+                final XMLVariantParser parser = new XMLVariantParser(dbf);
+                parser.parse(is, packageURLs.get(idx));
+                return parser.getVariants();
+            }
+        }
+    }// parse()
+
+
+    private static long getAllocatedBytes(ThreadMXBean threadBean) {
+        return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }// getAllocatedBytes()
+
+
+    /**
+     * A complete description of the given Variants, for comparison.
+     */
+    private static String describe(Variant[] variants) {
+        final StringBuilder sb = new StringBuilder(16384);
+        for (Variant v : variants) {
+            sb.append("\nvariant=").append(v.getName()).append(',').append(v.getVersion())
+                    .append(',').append(v.isDefault()).append(',').append(Arrays.toString(v.getAliases()))
+                    .append(",desc=").append(v.getDescription())
+                    .append(",phase=").append(v.getStartingPhase()).append(',').append(v.getBCYearsAllowed())
+                    .append(",vc=").append(v.getNumSCForVictory()).append(',').append(v.getMaxYearsNoSCChange())
+                    .append(',').append(v.getMaxGameTimeYears());
+            for (Power p : v.getPowers()) {
+                sb.append("\n power=").append(Arrays.toString(p.getNames())).append(',').append(p.getAdjective())
+                        .append(',').append(p.isActive()).append(',').append(p.hasEmergency());
+            }
+            for (SupplyCenter sc : v.getSupplyCenters()) {
+                sb.append("\n sc=").append(sc.getProvinceName()).append(',').append(sc.getHomePowerName())
+                        .append(',').append(sc.getOwnerName());
+            }
+            for (InitialState is : v.getInitialStates()) {
+                sb.append("\n istate=").append(is.getProvinceName()).append(',').append(is.getPowerName())
+                        .append(',').append(is.getUnitType()).append(',').append(is.getCoast());
+            }
+            for (Influence inf : v.getInfluences()) {
+                sb.append("\n influence=").append(inf.getProvinceName()).append(',').append(inf.getPowerName());
+            }
+            for (MapGraphic mg : v.getMapGraphics()) {
+                sb.append("\n graphic=").append(mg.getURI()).append(',').append(mg.isDefault())
+                        .append(',').append(mg.getName()).append(',').append(mg.getDescription())
+                        .append(',').append(mg.getThumbnailURI()).append(',').append(mg.getPreferredSymbolPackName());
+            }
+            for (Variant.NameValuePair nvp : v.getRuleOptionNVPs()) {
+                sb.append("\n rule=").append(nvp.getName()).append(',').append(nvp.getValue());
+            }
+            for (ProvinceData pd : v.getProvinceData()) {
+                sb.append("\n province=").append(pd.getFullName()).append(',').append(Arrays.toString(pd.getShortNames()))
+                        .append(',').append(Arrays.toString(pd.getAdjacentProvinceTypes()))
+                        .append(',').append(Arrays.toString(pd.getAdjacentProvinceNames()))
+                        .append(',').append(pd.getConvoyableCoast()).append(',').append(pd.getImpassable())
+                        .append(',').append(Arrays.toString(pd.getBorders()));
+            }
+            for (BorderData bd : v.getBorderData()) {
+                sb.append("\n border=").append(bd.getID()).append(',').append(bd.getDescription())
+                        .append(',').append(bd.getUnitTypes()).append(',').append(bd.getFrom())
+                        .append(',').append(bd.getOrderTypes()).append(',').append(bd.getBaseMoveModifier())
+                        .append(',').append(bd.getYear()).append(',').append(bd.getSeason())
+                        .append(',').append(bd.getPhase());
+            }
+        }
+        return sb.toString();
+    }// describe()
+
+
+    /**
+     * Finds the variant packages in the given directory (recursively),
+     * adding them to the list in a consistent (sorted) order.
+     */
+    private static void findPackages(File dir, List<File> files) {
+        final File[] entries = dir.listFiles();
+        if (entries == null) {
+            return;
+        }
+
+        Arrays.sort(entries);
+        for (File entry : entries) {
+            if (entry.isDirectory()) {
+                findPackages(entry, files);
+            } else {
+                final String fileName = entry.getName().toLowerCase();
+                for (String extension : VARIANT_EXTENSIONS) {
+                    if (fileName.endsWith(extension)) {
+                        files.add(entry);
+                        break;
+                    }
+                }
+            }
+        }
+    }// findPackages()
+
+
+    /**
+     * Command-line entry point
+     */
+    public static void main(String[] args)
+            throws Exception {
+        int passes = 20;
+        int warmup = 5;
+        boolean hasPaths = false;
+        final List<File> files = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].startsWith("-")) {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("missing value for " + args[i]);
+                    }
+
+                    final String value = args[++i];
+                    switch (args[i - 1]) {
+                        case "-passes":
+                            passes = Integer.parseInt(value);
+                            break;
+                        case "-warmup":
+                            warmup = Integer.parseInt(value);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("unknown option: " + args[i - 1]);
+                    }
+                } else {
+                    hasPaths = true;
+                    final File file = new File(args[i]);
+                    if (file.isDirectory()) {
+                        findPackages(file, files);
+                    } else if (file.isFile()) {
+                        files.add(file);
+                    } else {
+                        throw new IllegalArgumentException("no such file or directory: " + file);
+                    }
+                }
+            }
+
+            if (!hasPaths) {
+                findPackages(new File(System.getProperty("user.dir", "."), VARIANT_DIR), files);
+            }
+
+            if (files.isEmpty() || passes < 1 || warmup < 0) {
+                throw new IllegalArgumentException("no variant packages");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("USAGE: VariantParserBenchmark [-passes n] [-warmup n] (directory | file)...");
+            System.exit(2);
+        }
+
+        final VariantParserBenchmark benchmark = new VariantParserBenchmark(files);
+        logger.info("Comparing parsers over {} variant packages.", benchmark.getPackageCount());
+        final int differences = benchmark.compare();
+        if (differences > 0) {
+            logger.error("Parsers differ for {} packages.", differences);
+            System.exit(1);
+        }
+
+        // warm up both, then time each
+        benchmark.time(false, warmup);
+        benchmark.time(true, warmup);
+        final Timing dom = benchmark.time(false, passes);
+        final Timing streaming = benchmark.time(true, passes);
+
+        logger.info("{}", dom);
+        logger.info("{}", streaming);
+        logger.info(String.format("streaming/DOM: time %.2f, allocation %.2f",
+                streaming.getMeanNanos() / dom.getMeanNanos(),
+                (dom.allocatedBytes > 0) ? ((double) streaming.allocatedBytes / dom.allocatedBytes) : Double.NaN));
+        System.exit(0);
+    }// main()
+
+
+    /**
+     * Timing of a parser, over all packages
+     */
+    public static class Timing {
+        private final String name;
+        private final long[] passNanos;
+        private int count = 0;
+        private long allocatedBytes = -1;
+
+        private Timing(String name, int passes) {
+            this.name = name;
+            this.passNanos = new long[passes];
+        }// Timing()
+
+        private void add(long nanos) {
+            passNanos[count++] = nanos;
+        }// add()
+
+        /**
+         * Mean time for a pass over all packages
+         */
+        public double getMeanNanos() {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += passNanos[i];
+            }
+            return (count == 0) ? 0.0 : (double) total / count;
+        }
+
+        /**
+         * Fastest pass over all packages
+         */
+        public long getMinNanos() {
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                min = Math.min(min, passNanos[i]);
+            }
+            return (count == 0) ? 0 : min;
+        }
+
+        /**
+         * Bytes allocated per pass; -1 if not supported by the JVM
+         */
+        public long getAllocatedBytesPerPass() {
+            return (allocatedBytes < 0 || count == 0) ? -1 : allocatedBytes / count;
+        }
+
+        public String toString() {
+            return String.format("%s: %d passes, mean %.1f ms, min %.1f ms, %.1f MB allocated per pass",
+                    name, count, getMeanNanos() / 1.0e6, getMinNanos() / 1.0e6,
+                    getAllocatedBytesPerPass() / (1024.0 * 1024.0));
+        }
+    }// nested class Timing
+
+}// class VariantParserBenchmark
@@ -0,0 +1,777 @@
+//
+//  @(#)VariantValidator.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.misc;
+
+import info.jdip.gui.map.MapMetadata;
+import info.jdip.world.Coast;
+import info.jdip.world.InvalidWorldException;
+import info.jdip.world.Location;
+import info.jdip.world.Map;
+import info.jdip.world.Province;
+import info.jdip.world.World;
+import info.jdip.world.WorldFactory;
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.BorderData;
+import info.jdip.world.variant.data.MapGraphic;
+import info.jdip.world.variant.data.ProvinceData;
+import info.jdip.world.variant.data.Variant;
+import info.jdip.world.variant.parser.FastEntityResolver;
+import info.jdip.world.variant.parser.XMLVariantParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Validates variant packages without a GUI, and without initializing the
+ * VariantManager.
+ * <p>
+ * Each variant package is parsed as by the VariantManager, and for each
+ * variant in the package:
+ * <ul>
+ * <li>the World is created (which checks province names, adjacency
+ * references, and border names and locations)</li>
+ * <li>adjacency is checked for symmetry: if a Location lists another as
+ * adjacent, that Location must list the first</li>
+ * <li>coasts are checked for consistency: every adjacent Location must
+ * refer to a coast defined by its Province, and a Province may not have both
+ * a single coast and directional coasts</li>
+ * <li>border definitions are checked for duplicate IDs, and for borders that
+ * no province refers to</li>
+ * <li>each map SVG is checked as by MapMetadata and the map renderer: every
+ * PROVINCE placement and mouse-layer ID must name a Province (and coast), and
+ * every Province must have a placement</li>
+ * </ul>
+ * Packages are validated concurrently, each with its own parsers. Results
+ * are written as JSON, one line per package (in the order the packages were
+ * found), followed by a summary line. All times are in milliseconds.
+ * From the command line:
+ * <pre>
+ *     VariantValidator [-threads n] [-output file] (directory | file)...
+ * </pre>
+ * Directories are searched recursively for variant packages. Output is
+ * written to stdout unless an output file is given. The exit status is 0 if
+ * every variant is valid, 1 if any are not (or any package could not be
+ * read), and 2 if the arguments are invalid.
+ */
+public class VariantValidator {
+    private static final Logger logger = LoggerFactory.getLogger(VariantValidator.class);
+    private static final String[] VARIANT_EXTENSIONS = {"variant.zip", "variants.zip", "variant.jar", "variants.jar"};
+    private static final String VARIANT_FILE_NAME = "variants.xml";
+    // the SVG group of mouse-targetable regions (as used by DefaultMapRenderer2)
+    private static final String LAYER_MOUSE = "MouseLayer";
+    private static final String SVG_ID_ATTRIBUTE = "id";
+
+
+    /**
+     * Create a VariantValidator
+     */
+    public VariantValidator() {
+    }// VariantValidator()
+
+
+    /**
+     * Validate the given variant packages, using the given number of threads;
+     * results are written to out (as JSON lines), in the given order.
+     */
+    public Statistics run(final List<File> files, final int threads, final PrintWriter out)
+            throws InterruptedException {
+        if (threads < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        final Statistics total = new Statistics();
+        final long startTime = System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // results are small; all packages may be queued at once
+            final List<Future<PackageResult>> pending = new ArrayList<>(files.size());
+            for (final File file : files) {
+                pending.add(executor.submit(() -> validate(file)));
+            }
+
+            for (int i = 0; i < files.size(); i++) {
+                PackageResult result;
+                try {
+                    result = pending.get(i).get();
+                } catch (ExecutionException e) {
+                    // unexpected; validate() records expected errors
+                    logger.error("{}: failed.", files.get(i), e.getCause());
+                    result = new PackageResult(files.get(i).getName());
+                    result.errors.add(String.valueOf(e.getCause()));
+                }
+
+                total.add(result);
+                out.println(result.toJSON());
+                out.flush();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        total.elapsedNanos = System.nanoTime() - startTime;
+        total.threads = threads;
+        out.println(total.toJSON());
+        out.flush();
+        return total;
+    }// run()
+
+
+    /**
+     * Validate all variants in the given package. Errors reading the package
+     * are recorded in the result. This may be called from any thread.
+     */
+    public PackageResult validate(File file) {
+        final PackageResult result = new PackageResult(file.getName());
+        final long startTime = System.nanoTime();
+
+        final Variant[] variants;
+        final URL packURL;
+        try {
+            packURL = file.toURI().toURL();
+            variants = parseVariants(packURL);
+        } catch (IOException | SAXException | ParserConfigurationException e) {
+            result.errors.add(e.toString());
+            result.parseNanos = System.nanoTime() - startTime;
+            return result;
+        }
+        result.parseNanos = System.nanoTime() - startTime;
+
+        if (variants == null) {
+            result.errors.add("no " + VARIANT_FILE_NAME + " in package");
+            return result;
+        }
+
+        for (Variant variant : variants) {
+            result.variants.add(validate(variant, packURL));
+        }
+        return result;
+    }// validate()
+
+
+    /**
+     * Validate a single Variant, from the given package.
+     */
+    public VariantResult validate(Variant variant, URL packURL) {
+        final VariantResult result = new VariantResult(variant.getName(), variant.getVersion());
+
+        long time = System.nanoTime();
+        World world = null;
+        try {
+            world = WorldFactory.getInstance().createWorld(variant);
+        } catch (InvalidWorldException | RuntimeException e) {
+            result.errors.add("world: " + e.getMessage());
+        }
+        result.worldNanos = System.nanoTime() - time;
+
+        time = System.nanoTime();
+        checkBorders(variant, result.errors);
+        result.borderNanos = System.nanoTime() - time;
+
+        // remaining checks require the Map
+        if (world == null) {
+            return result;
+        }
+
+        time = System.nanoTime();
+        checkAdjacency(world.getMap().getProvinces(), result.errors);
+        result.adjacencyNanos = System.nanoTime() - time;
+
+        time = System.nanoTime();
+        for (MapGraphic mg : variant.getMapGraphics()) {
+            checkSVG(world.getMap(), mg, packURL, result.errors);
+        }
+        result.svgNanos = System.nanoTime() - time;
+
+        return result;
+    }// validate()
+
+
+    /**
+     * Parses the variants.xml file of the given package, with a new parser;
+     * returns null if there is none.
+     */
+    private static Variant[] parseVariants(URL packURL)
+            throws IOException, SAXException, ParserConfigurationException {
+        try (URLClassLoader urlCL = new URLClassLoader(new URL[]{packURL})) {
+            final URL variantXMLURL = urlCL.findResource(VARIANT_FILE_NAME);
+            if (variantXMLURL == null) {
+                return null;
+            }
+
+            // as per VariantManager, but without validation (validation errors
+            // are reported by dialog).
+            final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+            try {
+                dbf.setAttribute("http://apache.org/xml/features/nonvalidating/load-external-dtd", Boolean.FALSE);
+            } catch (IllegalArgumentException e) {
+                logger.debug("Could not set XML feature.", e);
+            }
+            dbf.setValidating(false);
+            dbf.setCoalescing(false);
+            dbf.setIgnoringComments(true);
+
+            final XMLVariantParser variantParser = new XMLVariantParser(dbf);
+            try (InputStream is = new BufferedInputStream(variantXMLURL.openStream())) {
+                variantParser.parse(is, packURL);
+                return variantParser.getVariants();
+            } finally {
+                variantParser.close();
+            }
+        }
+    }// parseVariants()
+
+
+    /**
+     * Checks that adjacency is symmetric, and that adjacent Locations refer
+     * to valid coasts.
+     */
+    private static void checkAdjacency(Province[] provinces, List<String> errors) {
+        for (Province province : provinces) {
+            if (province.isCoastValid(Coast.SEA)) {
+                for (Coast coast : Coast.ANY_DIRECTIONAL) {
+                    if (province.isCoastValid(coast)) {
+                        errors.add("coast: " + province.getShortName() + " has both "
+                                + Coast.SEA.getAbbreviation() + " and " + coast.getAbbreviation() + " coasts");
+                    }
+                }
+            }
+
+            for (Coast coast : Coast.ALL_COASTS) {
+                final Location src = province.getLocation(coast);
+                for (Location dest : province.getAdjacentLocations(coast)) {
+                    final Province destProvince = dest.getProvince();
+                    if (!destProvince.isCoastValid(dest.getCoast())) {
+                        errors.add("coast: " + src + " is adjacent to " + dest
+                                + ", which is not a coast of " + destProvince.getShortName());
+                    } else if (!destProvince.isAdjacent(dest.getCoast(), src)) {
+                        errors.add("adjacency: " + src + " is adjacent to " + dest
+                                + ", but " + dest + " is not adjacent to " + src);
+                    }
+                }
+            }
+        }
+    }// checkAdjacency()
+
+
+    /**
+     * Checks for duplicate Border IDs, and Borders not used by any Province.
+     * (Undefined Border references are detected when the World is created.)
+     */
+    private static void checkBorders(Variant variant, List<String> errors) {
+        final HashSet<String> used = new HashSet<>();
+        for (ProvinceData pd : variant.getProvinceData()) {
+            used.addAll(Arrays.asList(pd.getBorders()));
+        }
+
+        final HashSet<String> ids = new HashSet<>();
+        for (BorderData bd : variant.getBorderData()) {
+            if (!ids.add(bd.getID())) {
+                errors.add("border: duplicate border id \"" + bd.getID() + "\"");
+            } else if (!used.contains(bd.getID())) {
+                errors.add("border: border \"" + bd.getID() + "\" is not used by any province");
+            }
+        }
+    }// checkBorders()
+
+
+    /**
+     * Checks the province placements and mouse regions of a map SVG.
+     */
+    private static void checkSVG(Map map, MapGraphic mg, URL packURL, List<String> errors) {
+        final String name = "svg " + mg.getName() + ": ";
+        final URL url = VariantManager.getResource(packURL, mg.getURI());
+        if (url == null) {
+            errors.add(name + "cannot resolve " + mg.getURI());
+            return;
+        }
+
+        final SVGHandler handler = new SVGHandler(map, name, errors);
+        try (InputStream is = new BufferedInputStream(url.openStream())) {
+            final SAXParserFactory spf = SAXParserFactory.newInstance();
+            spf.setNamespaceAware(true);
+            spf.setValidating(false);
+            try {
+                spf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            } catch (Exception e) {
+                logger.debug("Could not set XML feature.", e);
+            }
+
+            spf.newSAXParser().parse(is, handler);
+        } catch (IOException | SAXException | ParserConfigurationException e) {
+            errors.add(name + e.getMessage());
+            return;
+        }
+
+        handler.finish();
+    }// checkSVG()
+
+
+    /**
+     * SAX handler for map SVG checks; the same checks as MapMetadata
+     * (placements) and DefaultMapRenderer2 (mouse regions), without
+     * building the SVG DOM.
+     */
+    private static class SVGHandler extends DefaultHandler {
+        private final Map map;
+        private final String name;
+        private final List<String> errors;
+        private final FastEntityResolver resolver = new FastEntityResolver(false);
+        private final Set<Province> placed = new HashSet<>();
+        private int provinceDataCount = 0;
+        private int depth = 0;
+        private int mouseLayerDepth = -1;       // -1 if not in mouse layer
+        private boolean hasMouseLayer = false;
+
+        SVGHandler(Map map, String name, List<String> errors) {
+            this.map = map;
+            this.name = name;
+            this.errors = errors;
+        }// SVGHandler()
+
+        public InputSource resolveEntity(String publicID, String systemID) {
+            return resolver.resolveEntity(publicID, systemID);
+        }// resolveEntity()
+
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            depth++;
+
+            if (MapMetadata.JDIP_NAMESPACE.equals(uri)) {
+                if (MapMetadata.EL_PROVINCE_DATA.equals(localName)) {
+                    provinceDataCount++;
+                } else if (MapMetadata.EL_PROVINCE.equals(localName)) {
+                    checkPlacement(attributes.getValue(MapMetadata.ATT_NAME));
+                }
+                return;
+            }
+
+            final String id = attributes.getValue(SVG_ID_ATTRIBUTE);
+            if (id == null || id.isEmpty()) {
+                return;
+            }
+
+            if (mouseLayerDepth >= 0) {
+                if (map.getProvince(Coast.getProvinceName(id)) == null) {
+                    errors.add(name + "province \"" + Coast.getProvinceName(id) + "\" in " + LAYER_MOUSE + " is invalid");
+                }
+            } else if (LAYER_MOUSE.equals(id)) {
+                mouseLayerDepth = depth;
+                hasMouseLayer = true;
+            }
+        }// startElement()
+
+        public void endElement(String uri, String localName, String qName) {
+            if (depth == mouseLayerDepth) {
+                mouseLayerDepth = -1;
+            }
+            depth--;
+        }// endElement()
+
+        /**
+         * Checks a PROVINCE placement; coasted placements must follow
+         * the placement of the Province.
+         */
+        private void checkPlacement(String provinceName) {
+            final Province province = (provinceName == null) ? null
+                    : map.getProvince(Coast.getProvinceName(provinceName));
+            if (province == null) {
+                errors.add(name + "PROVINCE name \"" + provinceName + "\" not recognized");
+            } else if (!Coast.parse(provinceName).isDirectional()) {
+                placed.add(province);
+            } else if (!placed.contains(province)) {
+                errors.add(name + "PROVINCE " + provinceName + " must come after " + province.getShortName());
+            }
+        }// checkPlacement()
+
+        /**
+         * Checks performed once the SVG is parsed
+         */
+        void finish() {
+            if (provinceDataCount != 1) {
+                errors.add(name + "missing " + MapMetadata.EL_PROVINCE_DATA + " element");
+            }
+
+            if (!hasMouseLayer) {
+                errors.add(name + "missing " + LAYER_MOUSE);
+            }
+
+            for (Province province : map.getProvinces()) {
+                if (!placed.contains(province)) {
+                    errors.add(name + "missing PROVINCE placement for " + province.getShortName());
+                }
+            }
+        }// finish()
+    }// nested class SVGHandler
+
+
+    /**
+     * Finds the variant packages in the given directory (recursively),
+     * adding them to the list in a consistent (sorted) order.
+     */
+    private static void findPackages(File dir, List<File> files) {
+        final File[] entries = dir.listFiles();
+        if (entries == null) {
+            return;
+        }
+
+        Arrays.sort(entries);
+        for (File entry : entries) {
+            if (entry.isDirectory()) {
+                findPackages(entry, files);
+            } else {
+                final String fileName = entry.getName().toLowerCase();
+                for (String extension : VARIANT_EXTENSIONS) {
+                    if (fileName.endsWith(extension)) {
+                        files.add(entry);
+                        break;
+                    }
+                }
+            }
+        }
+    }// findPackages()
+
+
+    /**
+     * Command-line entry point
+     */
+    public static void main(String[] args)
+            throws Exception {
+        File output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        final List<File> files = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].startsWith("-")) {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("missing value for " + args[i]);
+                    }
+
+                    final String value = args[++i];
+                    switch (args[i - 1]) {
+                        case "-output":
+                            output = new File(value);
+                            break;
+                        case "-threads":
+                            threads = Integer.parseInt(value);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("unknown option: " + args[i - 1]);
+                    }
+                } else {
+                    final File file = new File(args[i]);
+                    if (file.isDirectory()) {
+                        findPackages(file, files);
+                    } else if (file.isFile()) {
+                        files.add(file);
+                    } else {
+                        throw new IllegalArgumentException("no such file or directory: " + file);
+                    }
+                }
+            }
+
+            if (files.isEmpty() || threads < 1) {
+                throw new IllegalArgumentException("no variant packages to validate");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("USAGE: VariantValidator [-threads n] [-output file] (directory | file)...");
+            System.exit(2);
+        }
+
+        logger.info("Validating {} variant packages with {} threads.", files.size(), threads);
+        final Statistics stats;
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter((output == null)
+                ? System.out : new FileOutputStream(output), StandardCharsets.UTF_8))) {
+            stats = new VariantValidator().run(files, threads, out);
+        }
+        logger.info("{}", stats);
+
+        System.exit(stats.getExitStatus());
+    }// main()
+
+
+    /**
+     * Appends a string as a quoted JSON string
+     */
+    private static void appendJSON(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }// appendJSON()
+
+    /**
+     * Appends a list of strings as a JSON array
+     */
+    private static void appendJSON(StringBuilder sb, List<String> values) {
+        sb.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendJSON(sb, values.get(i));
+        }
+        sb.append(']');
+    }// appendJSON()
+
+    /**
+     * Nanoseconds as milliseconds, for JSON
+     */
+    private static String millis(long nanos) {
+        return String.format(Locale.US, "%.3f", nanos / 1.0e6);
+    }// millis()
+
+
+    /**
+     * The outcome of validating a variant package
+     */
+    public static class PackageResult {
+        private final String name;
+        private final List<String> errors = new ArrayList<>();
+        private final List<VariantResult> variants = new ArrayList<>();
+        private long parseNanos = 0;
+
+        private PackageResult(String name) {
+            this.name = name;
+        }// PackageResult()
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Errors reading the package
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        public List<VariantResult> getVariants() {
+            return variants;
+        }
+
+        /**
+         * Time to parse the variant and adjacency data of the package
+         */
+        public long getParseNanos() {
+            return parseNanos;
+        }
+
+        /**
+         * This result, as a single line of JSON
+         */
+        public String toJSON() {
+            final StringBuilder sb = new StringBuilder(256);
+            sb.append("{\"package\":");
+            appendJSON(sb, name);
+            sb.append(",\"parseMs\":").append(millis(parseNanos));
+            sb.append(",\"errors\":");
+            appendJSON(sb, errors);
+            sb.append(",\"variants\":[");
+            for (int i = 0; i < variants.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                variants.get(i).appendJSON(sb);
+            }
+            sb.append("]}");
+            return sb.toString();
+        }// toJSON()
+    }// nested class PackageResult
+
+
+    /**
+     * The outcome of validating a single variant
+     */
+    public static class VariantResult {
+        private final String name;
+        private final float version;
+        private final List<String> errors = new ArrayList<>();
+        private long worldNanos = 0;
+        private long adjacencyNanos = 0;
+        private long borderNanos = 0;
+        private long svgNanos = 0;
+
+        private VariantResult(String name, float version) {
+            this.name = name;
+            this.version = version;
+        }// VariantResult()
+
+        public String getName() {
+            return name;
+        }
+
+        public float getVersion() {
+            return version;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        public boolean isValid() {
+            return errors.isEmpty();
+        }
+
+        private void appendJSON(StringBuilder sb) {
+            sb.append("{\"variant\":");
+            VariantValidator.appendJSON(sb, name);
+            sb.append(",\"version\":").append(version);
+            sb.append(",\"valid\":").append(isValid());
+            sb.append(",\"errors\":");
+            VariantValidator.appendJSON(sb, errors);
+            sb.append(",\"worldMs\":").append(millis(worldNanos));
+            sb.append(",\"adjacencyMs\":").append(millis(adjacencyNanos));
+            sb.append(",\"borderMs\":").append(millis(borderNanos));
+            sb.append(",\"svgMs\":").append(millis(svgNanos));
+            sb.append('}');
+        }// appendJSON()
+    }// nested class VariantResult
+
+
+    /**
+     * Aggregate results of a run
+     */
+    public static class Statistics {
+        private int packages = 0;
+        private int variants = 0;
+        private int invalid = 0;
+        private int failures = 0;
+        private int threads = 0;
+        private long elapsedNanos = 0;
+
+        private void add(PackageResult result) {
+            packages++;
+            if (!result.errors.isEmpty()) {
+                failures++;
+            }
+            for (VariantResult vr : result.variants) {
+                variants++;
+                if (!vr.isValid()) {
+                    invalid++;
+                }
+            }
+        }// add()
+
+        public int getPackageCount() {
+            return packages;
+        }
+
+        public int getVariantCount() {
+            return variants;
+        }
+
+        /**
+         * Number of variants with errors
+         */
+        public int getInvalidCount() {
+            return invalid;
+        }
+
+        /**
+         * Number of packages which could not be read
+         */
+        public int getFailureCount() {
+            return failures;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * The exit status: 0 if all variants are valid, 1 if any variant
+         * is invalid or any package could not be read.
+         */
+        public int getExitStatus() {
+            return (invalid > 0 || failures > 0) ? 1 : 0;
+        }
+
+        /**
+         * The summary, as a single line of JSON
+         */
+        public String toJSON() {
+            return "{\"summary\":{\"packages\":" + packages + ",\"variants\":" + variants
+                    + ",\"invalid\":" + invalid + ",\"failures\":" + failures
+                    + ",\"threads\":" + threads + ",\"elapsedMs\":" + millis(elapsedNanos) + "}}";
+        }// toJSON()
+
+        public String toString() {
+            return String.format("%d variants in %d packages validated, %d invalid, %d packages failed in %.1f s",
+                    variants, packages, invalid, failures, elapsedNanos / 1.0e9);
+        }
+    }// nested class Statistics
+
+}// class VariantValidator
@@ -0,0 +1,826 @@
+//
+//  @(#)LegalOrderGenerator.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.order;
+
+import info.jdip.process.Adjustment;
+import info.jdip.process.RetreatChecker;
+import info.jdip.world.Coast;
+import info.jdip.world.Location;
+import info.jdip.world.Map;
+import info.jdip.world.Phase;
+import info.jdip.world.Position;
+import info.jdip.world.Power;
+import info.jdip.world.Province;
+import info.jdip.world.RuleOptions;
+import info.jdip.world.TurnState;
+import info.jdip.world.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.WeakHashMap;
+
+/**
+ * Enumerates the legal orders for the units of a TurnState.
+ * <p>
+ * Rather than constructing candidate orders and calling validate() on each,
+ * the move sets for every Province, Coast and unit type (derived from
+ * Province.getAdjacentLocations(), less any locations a Move would reject)
+ * are computed once per Map, and cached.
+ * Orders for a turn are then generated from these and the Position; the
+ * only per-turn work is finding the fleets which could form convoy routes.
+ * <p>
+ * All generated orders pass strict validation, and are unique. The following
+ * orders, while they would pass validation, are not generated:
+ * <ul>
+ * <li>Moves and retreats to impassable provinces, which always fail.</li>
+ * <li>Supports of moves that the supported unit could not make, either
+ * by an adjacent move or by a theoretical convoy route.</li>
+ * <li>Convoys by a fleet that is not part of a theoretical convoy route
+ * from the army to the destination.</li>
+ * <li>Moves with explicit convoy routes are only generated if required by
+ * the RuleOptions; then, only one route is given per destination.</li>
+ * </ul>
+ * Instances are immutable and threadsafe. Use getInstance() to obtain the
+ * (cached) LegalOrderGenerator for a Map.
+ */
+public final class LegalOrderGenerator {
+    // coasts (by index) which have their own move sets; also the highest index
+    private static final Coast[] MOVE_COASTS = {Coast.LAND, Coast.SEA, Coast.NORTH,
+            Coast.SOUTH, Coast.WEST, Coast.EAST, Coast.WING};
+    private static final int NUM_COASTS = Coast.EAST.getIndex() + 1;
+
+    // cache, by Map
+    private static final java.util.Map<Map, LegalOrderGenerator> instances = new WeakHashMap<>();
+
+    private final Province[] provinces;
+    private final Location[] landLocations;     // Coast.LAND location, by province index
+    private final Location[][][] moves;         // [province][coast index]; null if none
+    private final int[][] convoyAdjacent;       // provinces adjacent by any coast, by province index
+    private final int[][] touching;             // touching provinces, by province index
+    private final boolean[] coastal;            // Province.isCoastal(), by province index
+
+
+    /**
+     * Get the LegalOrderGenerator for the given Map. Instances are cached.
+     */
+    public static LegalOrderGenerator getInstance(Map map) {
+        if (map == null) {
+            throw new IllegalArgumentException();
+        }
+
+        synchronized (instances) {
+            return instances.computeIfAbsent(map, LegalOrderGenerator::new);
+        }
+    }// getInstance()
+
+
+    /**
+     * Precompute move sets and adjacency for the given Map
+     */
+    private LegalOrderGenerator(Map map) {
+        provinces = map.getProvinces();
+        landLocations = new Location[provinces.length];
+        moves = new Location[provinces.length][][];
+        convoyAdjacent = new int[provinces.length][];
+        touching = new int[provinces.length][];
+        coastal = new boolean[provinces.length];
+
+        final boolean[] marks = new boolean[provinces.length];
+        final List<Location> list = new ArrayList<>(16);
+        for (Province province : provinces) {
+            final int idx = province.getIndex();
+            landLocations[idx] = province.getLocation(Coast.LAND);
+            coastal[idx] = province.isCoastal();
+            moves[idx] = new Location[NUM_COASTS][];
+
+            for (Coast coast : MOVE_COASTS) {
+                final Location src = province.getLocation(coast);
+                final Unit.Type unitType = getUnitType(coast);
+
+                list.clear();
+                for (Location loc : province.getAdjacentLocations(coast)) {
+                    if (loc.getProvince() != province && !loc.getProvince().isImpassable()) {
+                        final Location dest = getValidatedDest(loc, unitType, src);
+                        if (dest != null) {
+                            list.add(dest);
+                        }
+                    }
+                }
+
+                if (!list.isEmpty()) {
+                    moves[idx][coast.getIndex()] = list.toArray(new Location[list.size()]);
+                }
+            }
+
+            Arrays.fill(marks, false);
+            for (Coast coast : Coast.ALL_COASTS) {
+                for (Location loc : province.getAdjacentLocations(coast)) {
+                    marks[loc.getProvince().getIndex()] = true;
+                }
+            }
+            convoyAdjacent[idx] = toIndices(marks);
+
+            Arrays.fill(marks, false);
+            for (Location loc : province.getAdjacentLocations(Coast.TOUCHING)) {
+                marks[loc.getProvince().getIndex()] = true;
+            }
+            touching[idx] = toIndices(marks);
+        }
+    }// LegalOrderGenerator()
+
+
+    /**
+     * Returns the locations that a unit of the given type, in the given
+     * Location, could move to; Borders are not considered. A zero-length
+     * array is returned if there are none.
+     */
+    public Location[] getMoveLocations(Location src, Unit.Type unitType) {
+        final Location[] locs = getMoves(src.getProvince(), src.getCoast(), unitType);
+        return (locs == null) ? Location.EMPTY : locs.clone();
+    }// getMoveLocations()
+
+
+    /**
+     * Returns all legal orders for the given Power in the given TurnState.
+     * Orders are grouped by unit (or, for builds, by province).
+     */
+    public List<Orderable> getLegalOrders(TurnState turnState, RuleOptions ruleOpts,
+                                          OrderFactory orderFactory, Power power) {
+        final Turn turn = new Turn(turnState, ruleOpts, orderFactory);
+        final Position position = turnState.getPosition();
+        final List<Orderable> orders = new ArrayList<>(64);
+
+        final Phase.PhaseType phaseType = turnState.getPhase().getPhaseType();
+        if (phaseType == Phase.PhaseType.MOVEMENT) {
+            for (Province province : position.getUnitProvinceSet(power)) {
+                turn.addMovementOrders(province, orders);
+            }
+        } else if (phaseType == Phase.PhaseType.RETREAT) {
+            for (Province province : position.getDislodgedUnitProvinceSet(power)) {
+                turn.addRetreatOrders(province, orders);
+            }
+        } else if (phaseType == Phase.PhaseType.ADJUSTMENT) {
+            turn.addAdjustmentOrders(power, null, orders);
+        }
+
+        return orders;
+    }// getLegalOrders()
+
+
+    /**
+     * Returns all legal orders for the unit in the given Province (the dislodged
+     * unit, if in the retreat phase); in the adjustment phase, the builds for the
+     * Province, or the removal of the unit in the Province.
+     * <p>
+     * An empty list is returned if there are no such orders.
+     */
+    public List<Orderable> getLegalOrders(TurnState turnState, RuleOptions ruleOpts,
+                                          OrderFactory orderFactory, Province province) {
+        final Turn turn = new Turn(turnState, ruleOpts, orderFactory);
+        final Position position = turnState.getPosition();
+        final List<Orderable> orders = new ArrayList<>(16);
+
+        final Phase.PhaseType phaseType = turnState.getPhase().getPhaseType();
+        if (phaseType == Phase.PhaseType.MOVEMENT) {
+            if (position.hasUnit(province)) {
+                turn.addMovementOrders(province, orders);
+            }
+        } else if (phaseType == Phase.PhaseType.RETREAT) {
+            if (position.hasDislodgedUnit(province)) {
+                turn.addRetreatOrders(province, orders);
+            }
+        } else if (phaseType == Phase.PhaseType.ADJUSTMENT) {
+            final Unit unit = position.getUnit(province);
+            final Power power = (unit == null) ? position.getSupplyCenterOwner(province) : unit.getPower();
+            if (power != null) {
+                turn.addAdjustmentOrders(power, province, orders);
+            }
+        }
+
+        return orders;
+    }// getLegalOrders()
+
+
+    /**
+     * Cached move set for a unit; null if none.
+     */
+    private Location[] getMoves(Province province, Coast coast, Unit.Type unitType) {
+        final Coast moveCoast;
+        if (unitType == Unit.Type.ARMY) {
+            moveCoast = Coast.LAND;
+        } else if (unitType == Unit.Type.WING) {
+            moveCoast = Coast.WING;
+        } else {
+            moveCoast = coast;
+        }
+
+        return moves[province.getIndex()][moveCoast.getIndex()];
+    }// getMoves()
+
+
+    /**
+     * Validates an adjacent location as a Move destination, as Move.validate()
+     * would. Returns null if the destination is not legal; for example, if
+     * the adjacency data specifies a coast that the Province does not have.
+     */
+    private static Location getValidatedDest(Location loc, Unit.Type unitType, Location src) {
+        try {
+            return loc.getValidatedWithMove(unitType, src);
+        } catch (OrderException e) {
+            return null;
+        }
+    }// getValidatedDest()
+
+
+    /**
+     * The unit type which moves using the given Coast
+     */
+    private static Unit.Type getUnitType(Coast coast) {
+        if (coast == Coast.LAND) {
+            return Unit.Type.ARMY;
+        } else if (coast == Coast.WING) {
+            return Unit.Type.WING;
+        }
+        return Unit.Type.FLEET;
+    }// getUnitType()
+
+
+    /**
+     * Indices of all set marks
+     */
+    private static int[] toIndices(boolean[] marks) {
+        int count = 0;
+        for (boolean mark : marks) {
+            count += mark ? 1 : 0;
+        }
+
+        final int[] indices = new int[count];
+        count = 0;
+        for (int i = 0; i < marks.length; i++) {
+            if (marks[i]) {
+                indices[count++] = i;
+            }
+        }
+        return indices;
+    }// toIndices()
+
+
+    /**
+     * A move that a unit could make; used to find Support candidates.
+     */
+    private static final class Reach {
+        final Location src;
+        final Unit unit;
+        final Location dest;
+
+        Reach(Location src, Unit unit, Location dest) {
+            this.src = src;
+            this.unit = unit;
+            this.dest = dest;
+        }// Reach()
+    }// nested class Reach
+
+
+    /**
+     * Order generation for a single TurnState. Support and convoy information
+     * is computed only when first needed.
+     */
+    private final class Turn {
+        private final TurnState turnState;
+        private final Position position;
+        private final Phase phase;
+        private final RuleOptions ruleOpts;
+        private final OrderFactory orderFactory;
+        private final RuleOptions.OptionValue convoyRule;
+
+        // convoy network: connected groups of fleets that could convoy
+        private int[] group = null;                     // group, by province index; -1 if none
+        private int[][] groupDests = null;              // convoy destinations, by group
+        private int[][] armyGroups = null;              // groups, by army province index; null if none
+        private int[] stamps = null;                    // scratch, for duplicate elimination
+        private int stamp = 0;
+
+        // supportable moves, by destination province index
+        private List<List<Reach>> reaches = null;
+
+        Turn(TurnState turnState, RuleOptions ruleOpts, OrderFactory orderFactory) {
+            if (turnState == null || ruleOpts == null || orderFactory == null) {
+                throw new IllegalArgumentException();
+            }
+
+            this.turnState = turnState;
+            this.position = turnState.getPosition();
+            this.phase = turnState.getPhase();
+            this.ruleOpts = ruleOpts;
+            this.orderFactory = orderFactory;
+            this.convoyRule = ruleOpts.getOptionValue(RuleOptions.OPTION_CONVOYED_MOVES);
+        }// Turn()
+
+
+        /**
+         * Hold, Move, Support and Convoy orders for the unit in the given province
+         */
+        void addMovementOrders(Province province, List<Orderable> orders) {
+            final Unit unit = position.getUnit(province);
+            final Power power = unit.getPower();
+            final Unit.Type type = unit.getType();
+            final Location src = province.getLocation(unit.getCoast());
+
+            if (isPassable(province, src, type, Hold.class)) {
+                orders.add(orderFactory.createHold(power, src, type));
+            }
+
+            // Move, Support and Convoy orders all check Borders for the source.
+            final Location[] adjacent = getMoves(province, unit.getCoast(), type);
+            final boolean canMove = isPassable(province, src, type, Move.class);
+            final boolean canSupport = isPassable(province, src, type, Support.class);
+
+            if (adjacent != null) {
+                for (Location dest : adjacent) {
+                    if (canMove && isPassable(dest.getProvince(), src, type, Move.class)) {
+                        orders.add(orderFactory.createMove(power, src, type, dest));
+                    }
+                }
+            }
+
+            if (canMove && type == Unit.Type.ARMY) {
+                addConvoyedMoves(src, unit, orders);
+            }
+
+            if (canSupport && adjacent != null) {
+                addSupports(src, unit, adjacent, orders);
+            }
+
+            if (type == Unit.Type.FLEET
+                    && (province.isSea() || province.isConvoyableCoast())
+                    && isPassable(province, src, type, Convoy.class)) {
+                addConvoys(src, unit, orders);
+            }
+        }// addMovementOrders()
+
+
+        /**
+         * Convoyed Moves, as permitted by the RuleOptions
+         */
+        private void addConvoyedMoves(Location src, Unit unit, List<Orderable> orders) {
+            final Province province = src.getProvince();
+            final int[] dests = getConvoyDestinations(province);
+            if (dests == null) {
+                return;
+            }
+
+            final Power power = unit.getPower();
+            for (int destIdx : dests) {
+                final Location dest = landLocations[destIdx];
+                if (destIdx == province.getIndex()
+                        || !isPassable(dest.getProvince(), src, Unit.Type.ARMY, Move.class)) {
+                    continue;
+                }
+
+                if (convoyRule == RuleOptions.VALUE_PATHS_EXPLICIT) {
+                    orders.add(orderFactory.createMove(power, src, Unit.Type.ARMY, dest,
+                            findRoute(province.getIndex(), destIdx)));
+                } else if (convoyRule == RuleOptions.VALUE_PATHS_EITHER) {
+                    orders.add(orderFactory.createMove(power, src, Unit.Type.ARMY, dest, true));
+                } else if (!src.isAdjacent(dest.getProvince())) {
+                    // implicit paths: adjacent moves already given
+                    orders.add(orderFactory.createMove(power, src, Unit.Type.ARMY, dest));
+                }
+            }
+        }// addConvoyedMoves()
+
+
+        /**
+         * Supports of units staying in place, and of moves into adjacent provinces
+         */
+        private void addSupports(Location src, Unit unit, Location[] adjacent, List<Orderable> orders) {
+            final List<List<Reach>> supportable = getReaches();
+            final Power power = unit.getPower();
+            final Unit.Type type = unit.getType();
+
+            for (Location adj : adjacent) {
+                final Province dest = adj.getProvince();
+
+                // adjacency sets may list a province more than once (by coast)
+                if (isDuplicateProvince(adjacent, adj)) {
+                    continue;
+                }
+
+                final Unit supUnit = position.getUnit(dest);
+                if (supUnit != null) {
+                    final Location supSrc = dest.getLocation(supUnit.getCoast());
+                    if (isPassable(dest, supSrc, supUnit.getType(), Support.class)) {
+                        orders.add(orderFactory.createSupport(power, src, type,
+                                supSrc, supUnit.getPower(), supUnit.getType()));
+                    }
+                }
+
+                for (Reach reach : supportable.get(dest.getIndex())) {
+                    if (reach.src.isProvinceEqual(src)
+                            || !isPassable(reach.src.getProvince(), reach.src, reach.unit.getType(), Support.class)
+                            || !isPassable(dest, reach.dest, reach.unit.getType(), Support.class)) {
+                        continue;
+                    }
+
+                    orders.add(orderFactory.createSupport(power, src, type, reach.src,
+                            reach.unit.getPower(), reach.unit.getType(), reach.dest));
+                }
+            }
+        }// addSupports()
+
+
+        /**
+         * Convoys by a fleet, of each army that could be convoyed through
+         * the fleet's group, to each destination of that group.
+         */
+        private void addConvoys(Location src, Unit unit, List<Orderable> orders) {
+            buildConvoyNetwork();
+
+            final Province province = src.getProvince();
+            final int g = group[province.getIndex()];
+            if (g < 0) {
+                return;
+            }
+
+            for (Province armyProvince : position.getUnitProvinceSet()) {
+                final int[] groups = armyGroups[armyProvince.getIndex()];
+                if (groups == null || Arrays.binarySearch(groups, g) < 0) {
+                    continue;
+                }
+
+                final Unit army = position.getUnit(armyProvince);
+                final Location convoySrc = landLocations[armyProvince.getIndex()];
+                if (!isPassable(armyProvince, convoySrc, Unit.Type.ARMY, Convoy.class)) {
+                    continue;
+                }
+
+                for (int destIdx : groupDests[g]) {
+                    final Location convoyDest = landLocations[destIdx];
+                    if (destIdx == armyProvince.getIndex()
+                            || convoyDest.isProvinceEqual(src)
+                            || !isPassable(convoyDest.getProvince(), convoyDest, Unit.Type.ARMY, Convoy.class)) {
+                        continue;
+                    }
+
+                    orders.add(orderFactory.createConvoy(unit.getPower(), src, Unit.Type.FLEET,
+                            convoySrc, army.getPower(), Unit.Type.ARMY, convoyDest));
+                }
+            }
+        }// addConvoys()
+
+
+        /**
+         * Retreat and Disband orders for the dislodged unit in the given province
+         */
+        void addRetreatOrders(Province province, List<Orderable> orders) {
+            final Unit unit = position.getDislodgedUnit(province);
+            final Power power = unit.getPower();
+            final Unit.Type type = unit.getType();
+            final Location src = province.getLocation(unit.getCoast());
+
+            final Location[] adjacent = getMoves(province, unit.getCoast(), type);
+            if (adjacent != null && isPassable(province, src, type, Retreat.class)) {
+                for (Location dest : new RetreatChecker(turnState).getValidLocations(src)) {
+                    if (Arrays.asList(adjacent).contains(dest)
+                            && isPassable(dest.getProvince(), dest, type, Retreat.class)) {
+                        orders.add(orderFactory.createRetreat(power, src, type, dest));
+                    }
+                }
+            }
+
+            orders.add(orderFactory.createDisband(power, src, type));
+        }// addRetreatOrders()
+
+
+        /**
+         * Build and Waive orders, or Remove orders, for the given Power. If
+         * a province is given, only orders for that province are added.
+         */
+        void addAdjustmentOrders(Power power, Province only, List<Orderable> orders) {
+            final int amount = Adjustment.getAdjustmentInfo(turnState, ruleOpts, power).getAdjustmentAmount();
+
+            if (amount > 0) {
+                final boolean homeOnly = ruleOpts.getOptionValue(RuleOptions.OPTION_BUILDS) == RuleOptions.VALUE_BUILDS_HOME_ONLY;
+                final boolean wings = ruleOpts.getOptionValue(RuleOptions.OPTION_WINGS) == RuleOptions.VALUE_WINGS_ENABLED;
+
+                final Province[] candidates = (only == null) ? position.getOwnedSupplyCenters(power) : new Province[]{only};
+                for (Province province : candidates) {
+                    if (position.hasUnit(province)
+                            || position.getSupplyCenterOwner(province) != power
+                            || (homeOnly && position.getSupplyCenterHomePower(province) != power)) {
+                        continue;
+                    }
+
+                    if (!province.isSea()) {
+                        addBuild(power, landLocations[province.getIndex()], Unit.Type.ARMY, orders);
+                    }
+
+                    if (!province.isLandLocked()) {
+                        if (province.isMultiCoastal()) {
+                            for (Coast coast : province.getValidDirectionalCoasts()) {
+                                addBuild(power, province.getLocation(coast), Unit.Type.FLEET, orders);
+                            }
+                        } else {
+                            addBuild(power, province.getLocation(Coast.SEA), Unit.Type.FLEET, orders);
+                        }
+                    }
+
+                    if (wings) {
+                        addBuild(power, province.getLocation(Coast.WING), Unit.Type.WING, orders);
+                    }
+
+                    orders.add(orderFactory.createWaive(power, province.getLocation(Coast.UNDEFINED)));
+                }
+            } else if (amount < 0) {
+                final Province[] candidates = (only == null) ? position.getUnitProvinces(power) : new Province[]{only};
+                for (Province province : candidates) {
+                    final Unit unit = position.getUnit(province);
+                    if (unit != null && unit.getPower() == power) {
+                        orders.add(orderFactory.createRemove(power,
+                                province.getLocation(unit.getCoast()), unit.getType()));
+                    }
+                }
+            }
+        }// addAdjustmentOrders()
+
+
+        private void addBuild(Power power, Location src, Unit.Type type, List<Orderable> orders) {
+            if (isPassable(src.getProvince(), src, type, Build.class)) {
+                orders.add(orderFactory.createBuild(power, src, type));
+            }
+        }// addBuild()
+
+
+        /**
+         * True if no Border of the given Province prevents the order
+         */
+        private boolean isPassable(Province province, Location from, Unit.Type type, Class<?> orderClass) {
+            return province.getTransit(from, type, phase, orderClass) == null;
+        }// isPassable()
+
+
+        /**
+         * True if an earlier location in the array has the same Province.
+         */
+        private boolean isDuplicateProvince(Location[] locations, Location location) {
+            for (Location loc : locations) {
+                if (loc == location) {
+                    return false;
+                } else if (loc.isProvinceEqual(location)) {
+                    return true;
+                }
+            }
+            return false;
+        }// isDuplicateProvince()
+
+
+        /**
+         * All moves (adjacent and convoyed) that any unit could make, by
+         * destination province.
+         */
+        private List<List<Reach>> getReaches() {
+            if (reaches != null) {
+                return reaches;
+            }
+
+            reaches = new ArrayList<>(provinces.length);
+            for (int i = 0; i < provinces.length; i++) {
+                reaches.add(new ArrayList<>(4));
+            }
+
+            for (Province province : position.getUnitProvinceSet()) {
+                final Unit unit = position.getUnit(province);
+                final Location src = province.getLocation(unit.getCoast());
+                if (!isPassable(province, src, unit.getType(), Move.class)) {
+                    continue;
+                }
+
+                final Location[] adjacent = getMoves(province, unit.getCoast(), unit.getType());
+                if (adjacent != null) {
+                    for (Location dest : adjacent) {
+                        if (!isDuplicateProvince(adjacent, dest)
+                                && isPassable(dest.getProvince(), src, unit.getType(), Move.class)) {
+                            reaches.get(dest.getProvince().getIndex()).add(new Reach(src, unit, dest));
+                        }
+                    }
+                }
+
+                if (unit.getType() == Unit.Type.ARMY) {
+                    final int[] dests = getConvoyDestinations(province);
+                    if (dests != null) {
+                        for (int destIdx : dests) {
+                            final Location dest = landLocations[destIdx];
+                            if (destIdx != province.getIndex()
+                                    && !src.isAdjacent(dest.getProvince())
+                                    && isPassable(dest.getProvince(), src, Unit.Type.ARMY, Move.class)) {
+                                reaches.get(destIdx).add(new Reach(src, unit, dest));
+                            }
+                        }
+                    }
+                }
+            }
+
+            return reaches;
+        }// getReaches()
+
+
+        /**
+         * Provinces an army in the given Province could be convoyed to, by a
+         * theoretical convoy route; null if none. The army's own Province
+         * may be included.
+         */
+        private int[] getConvoyDestinations(Province province) {
+            if (!coastal[province.getIndex()]) {
+                return null;
+            }
+
+            buildConvoyNetwork();
+            final int[] groups = armyGroups[province.getIndex()];
+            if (groups == null) {
+                return null;
+            } else if (groups.length == 1) {
+                return groupDests[groups[0]];
+            }
+
+            // merge destinations of multiple groups
+            stamp++;
+            final List<Integer> merged = new ArrayList<>();
+            for (int g : groups) {
+                for (int destIdx : groupDests[g]) {
+                    if (stamps[destIdx] != stamp) {
+                        stamps[destIdx] = stamp;
+                        merged.add(destIdx);
+                    }
+                }
+            }
+
+            final int[] dests = new int[merged.size()];
+            for (int i = 0; i < dests.length; i++) {
+                dests[i] = merged.get(i);
+            }
+            return dests;
+        }// getConvoyDestinations()
+
+
+        /**
+         * Find the groups of connected fleets which could convoy, the coastal
+         * provinces each group touches (possible destinations), and the groups
+         * adjacent to each army. This mirrors Path.isPossibleConvoyRoute().
+         */
+        private void buildConvoyNetwork() {
+            if (group != null) {
+                return;
+            }
+
+            group = new int[provinces.length];
+            stamps = new int[provinces.length];
+            armyGroups = new int[provinces.length][];
+            Arrays.fill(group, -1);
+
+            // group fleets by breadth-first search
+            final List<int[]> dests = new ArrayList<>();
+            final int[] queue = new int[provinces.length];
+            for (Province province : position.getUnitProvinceSet()) {
+                final int start = province.getIndex();
+                if (group[start] >= 0 || !isConvoyingFleet(start)) {
+                    continue;
+                }
+
+                final int g = dests.size();
+                int head = 0;
+                int tail = 0;
+                group[start] = g;
+                queue[tail++] = start;
+                stamp++;
+
+                final List<Integer> groupDestList = new ArrayList<>();
+                while (head < tail) {
+                    final int current = queue[head++];
+                    for (int next : convoyAdjacent[current]) {
+                        if (group[next] < 0 && isConvoyingFleet(next)) {
+                            group[next] = g;
+                            queue[tail++] = next;
+                        }
+                    }
+
+                    for (int destIdx : touching[current]) {
+                        if (stamps[destIdx] != stamp && coastal[destIdx]) {
+                            stamps[destIdx] = stamp;
+                            groupDestList.add(destIdx);
+                        }
+                    }
+                }
+
+                final int[] groupDest = new int[groupDestList.size()];
+                for (int i = 0; i < groupDest.length; i++) {
+                    groupDest[i] = groupDestList.get(i);
+                }
+                dests.add(groupDest);
+            }
+            groupDests = dests.toArray(new int[dests.size()][]);
+
+            // groups adjacent to each army (in ascending order)
+            for (Province province : position.getUnitProvinceSet()) {
+                final Unit unit = position.getUnit(province);
+                if (unit.getType() != Unit.Type.ARMY || !coastal[province.getIndex()]) {
+                    continue;
+                }
+
+                int[] groups = null;
+                for (int adjIdx : convoyAdjacent[province.getIndex()]) {
+                    final int g = group[adjIdx];
+                    if (g >= 0 && (groups == null || Arrays.binarySearch(groups, g) < 0)) {
+                        groups = (groups == null) ? new int[]{g} : insertSorted(groups, g);
+                    }
+                }
+                armyGroups[province.getIndex()] = groups;
+            }
+        }// buildConvoyNetwork()
+
+
+        /**
+         * True if a fleet which could convoy is in the province
+         */
+        private boolean isConvoyingFleet(int idx) {
+            final Province province = provinces[idx];
+            final Unit unit = position.getUnit(province);
+            return unit != null && unit.getType() == Unit.Type.FLEET
+                    && (province.isSea() || province.isConvoyableCoast());
+        }// isConvoyingFleet()
+
+
+        /**
+         * Shortest explicit convoy route from an army to a destination,
+         * through the convoy network.
+         */
+        private Province[] findRoute(int srcIdx, int destIdx) {
+            final int[] parent = new int[provinces.length];
+            final int[] queue = new int[provinces.length];
+            Arrays.fill(parent, -2);
+
+            int head = 0;
+            int tail = 0;
+            for (int adjIdx : convoyAdjacent[srcIdx]) {
+                if (group[adjIdx] >= 0) {
+                    parent[adjIdx] = -1;
+                    queue[tail++] = adjIdx;
+                }
+            }
+
+            while (head < tail) {
+                final int current = queue[head++];
+                if (Arrays.binarySearch(touching[current], destIdx) >= 0) {
+                    final List<Province> route = new ArrayList<>();
+                    route.add(provinces[destIdx]);
+                    for (int idx = current; idx >= 0; idx = parent[idx]) {
+                        route.add(provinces[idx]);
+                    }
+                    route.add(provinces[srcIdx]);
+                    Collections.reverse(route);
+                    return route.toArray(new Province[route.size()]);
+                }
+
+                for (int next : convoyAdjacent[current]) {
+                    if (parent[next] == -2 && group[next] >= 0) {
+                        parent[next] = current;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+
+            // cannot occur, if destIdx is a destination of an adjacent group
+            throw new IllegalStateException();
+        }// findRoute()
+
+
+        private int[] insertSorted(int[] values, int value) {
+            final int[] result = Arrays.copyOf(values, values.length + 1);
+            int i = values.length;
+            while (i > 0 && result[i - 1] > value) {
+                result[i] = result[i - 1];
+                i--;
+            }
+            result[i] = value;
+            return result;
+        }// insertSorted()
+    }// inner class Turn
+
+}// class LegalOrderGenerator
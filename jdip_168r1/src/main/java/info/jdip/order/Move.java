@@ -337,8 +337,11 @@ public class Move extends Order {
     @Override
     public void validate(TurnState state, ValidationOptions valOpts, RuleOptions ruleOpts)
             throws OrderException {
-        // NOTE: the first time we validate(), _isViaConvoy == _isConvoyIntent.
-        // if we re-validate, that assertion may not be true.
+        // reset state derived by a previous validate() or verify(), so that
+        // an order may be re-validated (and re-adjudicated) with the same result.
+        isConvoyIntent = isViaConvoy;
+        isAdjWithPossibleConvoy = false;
+        hasLandRoute = false;
 
         // basic checks
         //
@@ -571,11 +574,11 @@ public class Move extends Order {
                     if (isViaConvoy() && hasLandRoute) {
                         // we don't fail, but mention that there is no convoy route. (text order result)
                         isConvoyIntent = false;
-                        adjudicator.addResult(thisOS, Utils.getLocalString(MOVE_VER_NO_ROUTE));
+                        adjudicator.addLocalizedResult(thisOS, ResultType.TEXT, MOVE_VER_NO_ROUTE);
                     } else {
                         // all paths failed.
                         thisOS.setEvalState(Tristate.FAILURE);
-                        adjudicator.addResult(thisOS, ResultType.FAILURE, Utils.getLocalString(MOVE_VER_NO_ROUTE));
+                        adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, MOVE_VER_NO_ROUTE);
                     }
                 }
             } else    // implicit path
@@ -588,10 +591,10 @@ public class Move extends Order {
                     //
                     if (isViaConvoy() && hasLandRoute) {
                         isConvoyIntent = false;
-                        adjudicator.addResult(thisOS, Utils.getLocalString(MOVE_VER_NO_ROUTE));
+                        adjudicator.addLocalizedResult(thisOS, ResultType.TEXT, MOVE_VER_NO_ROUTE);
                     } else {
                         thisOS.setEvalState(Tristate.FAILURE);
-                        adjudicator.addResult(thisOS, ResultType.FAILURE, Utils.getLocalString(MOVE_VER_NO_ROUTE));
+                        adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, MOVE_VER_NO_ROUTE);
                     }
                 }
             }
@@ -618,7 +621,7 @@ public class Move extends Order {
                 Province p = evalPath(adjudicator, path);
                 if (p != null) {
                     isConvoyIntent = true;
-                    adjudicator.addResult(thisOS, ResultType.TEXT, Utils.getLocalString(MOVE_VER_CONVOY_INTENT, p));
+                    adjudicator.addLocalizedResult(thisOS, ResultType.TEXT, MOVE_VER_CONVOY_INTENT, p);
                     break;
                 }
             }
@@ -947,7 +950,7 @@ public class Move extends Order {
         {
             thisOS.setEvalState(Tristate.FAILURE);
             logger.debug("Failed. (destination is impassable)");
-            adjudicator.addResult(thisOS, ResultType.FAILURE, Utils.getLocalString(MOVE_FAILED_IMPASSABLE));
+            adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, MOVE_FAILED_IMPASSABLE);
             return;
         }
 
@@ -974,7 +977,7 @@ public class Move extends Order {
             if (convoyPathResult == Tristate.FAILURE) {
                 // 2.a
                 thisOS.setEvalState(Tristate.FAILURE);
-                adjudicator.addResult(thisOS, ResultType.FAILURE, Utils.getLocalString(MOVE_EVAL_BAD_ROUTE));
+                adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, MOVE_EVAL_BAD_ROUTE);
                 return;
             } else if (convoyPathResult == Tristate.UNCERTAIN) {
                 return;    // 2.b (can't evaluate this move yet!)
@@ -1085,7 +1088,7 @@ public class Move extends Order {
         if (os.getEvalState() == Tristate.SUCCESS) {
             // 3.a.3.a: someone's already better than us.
             logger.debug( "they're better than us!");
-            adjudicator.addResult(thisOS, ResultType.FAILURE, Utils.getLocalString(MOVE_FAILED));
+            adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, MOVE_FAILED);
             return new Tristate[] {Tristate.FAILURE, Tristate.FALSE, Tristate.YES};
         }
         // other order is UNCERTAIN or FAILURE eval state
@@ -1176,7 +1179,7 @@ public class Move extends Order {
             OrderState hthOS = thisOS.getHeadToHead();
             if (thisOS.getAtkCertain() > (hthOS.getAtkMax() + hthOS.getAtkSelfSupportMax())) {
                 if (!isBwoss || isDestSamePower(hthOS)) {
-                    adjudicator.addResult(thisOS, ResultType.FAILURE, Utils.getLocalString(MOVE_FAILED_NO_SELF_DISLODGE));
+                    adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, MOVE_FAILED_NO_SELF_DISLODGE);
                     return Tristate.FAILURE; // we fail--no self dislodgement!
                 }
                 hthOS.setDislodgedState(Tristate.YES);    // they are dislodged
@@ -1228,7 +1231,7 @@ public class Move extends Order {
                 
                 if (destOS.getEvalState() == Tristate.FAILURE) {
                     logger.debug( "and failed, so we can't self-dislodged!.");
-                    adjudicator.addResult(thisOS, ResultType.FAILURE, Utils.getLocalString(MOVE_FAILED_NO_SELF_DISLODGE));
+                    adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, MOVE_FAILED_NO_SELF_DISLODGE);
                     return Tristate.FAILURE;
                 }
 
@@ -1257,7 +1260,7 @@ public class Move extends Order {
                 return Tristate.UNCERTAIN;
             }
             logger.debug( "Failed. (not better w/o self support)");
-            adjudicator.addResult(thisOS, ResultType.FAILURE, Utils.getLocalString(MOVE_FAILED));
+            adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, MOVE_FAILED);
             return Tristate.FAILURE;
         }
 
@@ -1265,7 +1268,7 @@ public class Move extends Order {
         // 3.a.3.b: case 4	[typical case of 3.a.3.b]
         if (thisOS.getAtkCertain() > destOS.getDefMax()) {
             if (!isBwoss || isDestSamePower(destOS)) {
-                adjudicator.addResult(thisOS, ResultType.FAILURE, Utils.getLocalString(MOVE_FAILED_NO_SELF_DISLODGE));
+                adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, MOVE_FAILED_NO_SELF_DISLODGE);
                 return Tristate.FAILURE;
             }
             destOS.setDislodgedState(Tristate.YES);
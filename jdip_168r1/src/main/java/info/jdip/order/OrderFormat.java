@@ -21,6 +21,7 @@
 //
 package info.jdip.order;
 
+import info.jdip.misc.Utils;
 import info.jdip.world.Coast;
 import info.jdip.world.Location;
 import info.jdip.world.Power;
@@ -29,15 +30,30 @@ import info.jdip.world.Unit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * OrderFormat formats orders according to the specified format string.
  * <p>
  * While OrderFormat is more flexible than using Order.toBriefString() or
- * Order.toFullString(), it is also considerably slower. This is should not
- * generally be a problem, unless one is doing multiple adjudications
- * (e.g., for an AI).
+ * Order.toFullString(), it is also slower. To reduce this cost, format
+ * Strings are compiled once into a cached template, and field and method
+ * accessors are cached per Order class. Callers that repeatedly format the
+ * same (resolved) orders may also use formatCached().
  * <p>
  * OrderFormat uses keywords that are delimited by braces "{}". Valid keywords
  * are described below. Any text (including whitespace) not in braces will be
@@ -139,6 +155,32 @@ public class OrderFormat {
     // misc. constants
     private static final String EMPTY = "";
     private static final String KEYWORD_ERROR = "!keyword_error!";
+    private static final int MAX_FORMATTED_CACHE_SIZE = 4096;
+    private static final int MAX_COMPILED_FORMATS = 256;
+
+    // accessors (method handles), per Orderable class; key: field or method() name
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandle NULL_ACCESSOR = MethodHandles.dropArguments(
+            MethodHandles.constant(Object.class, null), 0, Object.class);
+    private static final ClassValue<ConcurrentHashMap<String, MethodHandle>> ACCESSORS =
+            new ClassValue<ConcurrentHashMap<String, MethodHandle>>() {
+                protected ConcurrentHashMap<String, MethodHandle> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    // compiled format Strings; key: format String. Bounded; once full,
+    // other format Strings are compiled each time they are used.
+    private static final ConcurrentHashMap<String, Segment[]> COMPILED_FORMATS = new ConcurrentHashMap<>();
+
+    // formatted orders; bounded, least-recently-used entries are removed first
+    private static final Map<FormattedKey, String> FORMATTED_CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<FormattedKey, String>(256, 0.75f, true) {
+                protected boolean removeEldestEntry(Map.Entry<FormattedKey, String> eldest) {
+                    return size() > MAX_FORMATTED_CACHE_SIZE;
+                }
+            });
 
 
     /**
@@ -439,62 +481,10 @@ public class OrderFormat {
 
 
     /**
-     * Process text within braces.
-     * 1) check if non-modifying keyword
-     * 2) parse, check for method/variable, +/- boolean, +/- modifier
-     * 3) return resultant text
+     * Convert an Object (obtained from a field, method or modifier)
+     * into a (formatted) String.
      */
-    private static String procBraceText(final OrderFormatOptions ofo,
-                                        final Orderable order, final String text) {
-        if (text == null) {
-            throw new IllegalArgumentException();
-        }
-
-        Object out = null;
-
-        out = procStaticKeyword(ofo, order, text);
-        if (out == null) {
-            final String[] tokens = text.split(":", 3);
-
-            if (tokens.length == 0) {
-                logger.warn("Cannot parse: {}", text);
-                return EMPTY;
-            }
-
-            // proc first token
-            out = getViaReflection(order, tokens[0]);
-
-            // process modifier OR boolean
-            if (tokens.length > 1) {
-                // evaluate boolean expression
-                if (tokens[1].startsWith("?")) {
-                    boolean isTrue = false;
-                    if (out instanceof Boolean) {
-                        isTrue = (Boolean) out;
-                    } else {
-                        isTrue = (out != null);
-                    }
-
-                    if (isTrue) {
-                        assert (tokens[1].length() > 0);
-                        final String tok = tokens[1].substring(1);
-                        final Object obj = procStaticKeyword(ofo, order, tok);
-                        return (obj == null) ? tok : obj.toString();
-                    }
-                    if (tokens.length == 2) {
-                        // {xxx:?true:} [empty 'false' clause]
-                        return EMPTY;
-                    }
-                    assert (tokens.length == 3);
-                    final Object obj = procStaticKeyword(ofo, order, tokens[2]);
-                    return (obj == null) ? tokens[2] : obj.toString();
-                }
-                //process via modifier
-                out = procModKeyword(ofo, order, out, tokens[1]);
-            }
-        }
-
-        // process Object into a (formatted) String
+    private static String formatObject(final OrderFormatOptions ofo, final Object out) {
         if (out == null) {
             return EMPTY;
         } else if (out instanceof Power) {
@@ -511,36 +501,127 @@ public class OrderFormat {
             // convert object to a String
             return out.toString();
         }
-    }// procBraceText
+    }// formatObject()
 
 
     /**
-     * Get the method or field via reflection. Returns null if an
-     * error occured.
+     * Get the method or field value, using a cached accessor. Returns null
+     * if an error occured.
      */
-    private static Object getViaReflection(final Orderable order, final String name) {
+    private static Object getViaAccessor(final Orderable order, final String name) {
         assert (order != null);
         assert (name != null);
 
-        final Class<? extends Orderable> cls = order.getClass();
+        final MethodHandle mh = ACCESSORS.get(order.getClass())
+                .computeIfAbsent(name, key -> createAccessor(order.getClass(), key));
+
+        try {
+            return (Object) mh.invokeExact((Object) order);
+        } catch (Throwable t) {
+            logger.warn("Cannot access {}", name, t);
+        }
+
+        return null;
+    }// getViaAccessor()
+
+
+    /**
+     * Create an accessor (method or field) for the given class. The lookup
+     * rules are the same as reflection: methods must be public and may be
+     * inherited; fields may be non-public but must be declared by the class.
+     * If no accessor can be created, an accessor that always returns null
+     * is returned instead, so that the lookup is not repeated.
+     */
+    private static MethodHandle createAccessor(final Class<?> cls, final String name) {
         final boolean isMethod = (name.endsWith("()"));
 
-        if (isMethod) {
-            try {
-                return cls.getMethod(name.substring(0, name.length() - 2)).invoke(order);
-            } catch (Exception e) {
-                logger.warn("Cannot reflect method {}", name, e);
+        try {
+            MethodHandle mh = null;
+            boolean isStatic = false;
+
+            if (isMethod) {
+                final Method method = cls.getMethod(name.substring(0, name.length() - 2));
+                isStatic = Modifier.isStatic(method.getModifiers());
+                mh = LOOKUP.unreflect(method);
+            } else {
+                final Field field = cls.getDeclaredField(name);
+                isStatic = Modifier.isStatic(field.getModifiers());
+                mh = LOOKUP.unreflectGetter(field);
             }
-        } else {
-            try {
-                return cls.getDeclaredField(name).get(order);
-            } catch (Exception e) {
-                logger.warn("Cannot reflect field {}", name, e);;
+
+            if (isStatic) {
+                mh = MethodHandles.dropArguments(mh, 0, Object.class);
             }
+
+            return mh.asType(ACCESSOR_TYPE);
+        } catch (Exception e) {
+            logger.warn("Cannot reflect {} {}", (isMethod ? "method" : "field"), name, e);
         }
 
-        return null;
-    }// getViaReflection()
+        return NULL_ACCESSOR;
+    }// createAccessor()
+
+
+    /**
+     * Compile a format String into a sequence of Segments. Parsing is
+     * identical to the previous (uncompiled) behavior: unbalanced closing
+     * braces are literal text, an opening brace within a brace is part of
+     * the brace text, and an unterminated brace is ignored.
+     */
+    private static Segment[] compile(final String format) {
+        final List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(64);
+        StringBuilder accum = new StringBuilder(32);
+
+        boolean inBrace = false;
+        StringTokenizer st = new StringTokenizer(format, "{}", true);
+        while (st.hasMoreTokens()) {
+            String tok = st.nextToken();
+            if ("{".equals(tok) && !inBrace) {
+                inBrace = true;
+            } else if ("}".equals(tok) && inBrace) {
+                inBrace = false;
+                if (literal.length() > 0) {
+                    segments.add(new LiteralSegment(literal.toString()));
+                    literal = new StringBuilder(64);
+                }
+                segments.add(compileBraceText(accum.toString()));
+                accum = new StringBuilder();
+            } else {
+                if (inBrace) {
+                    accum.append(tok);
+                } else {
+                    literal.append(tok);
+                }
+            }
+        }
+
+        if (literal.length() > 0) {
+            segments.add(new LiteralSegment(literal.toString()));
+        }
+
+        return segments.toArray(new Segment[segments.size()]);
+    }// compile()
+
+
+    /**
+     * Compile text within braces.
+     * 1) check if non-modifying keyword
+     * 2) parse, check for method/variable, +/- boolean, +/- modifier
+     */
+    private static Segment compileBraceText(final String text) {
+        if (ARROW.equals(text) || ORDERNAME.equals(text)) {
+            return new KeywordSegment(text);
+        }
+
+        final String[] tokens = text.split(":", 3);
+        if (tokens.length > 1 && tokens[1].startsWith("?")) {
+            return new BooleanSegment(tokens[0], tokens[1].substring(1),
+                    (tokens.length == 3) ? tokens[2] : null);
+        }
+
+        return new ValueSegment(tokens[0], (tokens.length > 1) ? tokens[1] : null);
+    }// compileBraceText()
 
 
     /**
@@ -641,7 +722,9 @@ public class OrderFormat {
 
     /**
      * Formats an Order according to the specified order format options,
-     * and the specified order format String
+     * and the specified order format String. The format String is compiled
+     * on first use, and the compiled form is reused thereafter (for up to
+     * 256 distinct format Strings).
      */
     public static String format(final OrderFormatOptions ofo,
                                 final String format, final Orderable order) {
@@ -653,27 +736,17 @@ public class OrderFormat {
             return EMPTY;
         }
 
+        Segment[] segments = COMPILED_FORMATS.get(format);
+        if (segments == null) {
+            segments = compile(format);
+            if (COMPILED_FORMATS.size() < MAX_COMPILED_FORMATS) {
+                COMPILED_FORMATS.putIfAbsent(format, segments);
+            }
+        }
 
         StringBuilder output = new StringBuilder(256);
-        StringBuilder accum = new StringBuilder(32);
-
-        boolean inBrace = false;
-        StringTokenizer st = new StringTokenizer(format, "{}", true);
-        while (st.hasMoreTokens()) {
-            String tok = st.nextToken();
-            if ("{".equals(tok) && !inBrace) {
-                inBrace = true;
-            } else if ("}".equals(tok) && inBrace) {
-                inBrace = false;
-                output.append(procBraceText(ofo, order, accum.toString()));
-                accum = new StringBuilder();
-            } else {
-                if (inBrace) {
-                    accum.append(tok);
-                } else {
-                    output.append(tok);
-                }
-            }
+        for (Segment segment : segments) {
+            output.append(segment.render(ofo, order));
         }
 
         if (ofo.getEndWithDot()) {
@@ -691,6 +764,56 @@ public class OrderFormat {
     }// format()
 
 
+    /**
+     * Formats an Order using its default format, caching the result.
+     * <p>
+     * Subsequent calls with the same Order (by reference) and equivalent
+     * OrderFormatOptions, while the same Locale is loaded (see
+     * Utils.loadLocale()), return the cached String. The cache is bounded;
+     * least-recently-used entries are discarded.
+     * <p>
+     * <b>Note:</b> orders may be modified during validation, so this should
+     * only be used for orders that will not be validated again (e.g., orders
+     * from a resolved TurnState, as used by reports and exporters).
+     */
+    public static String formatCached(final OrderFormatOptions ofo, final Orderable order) {
+        if (ofo == null) {
+            throw new IllegalArgumentException();
+        }
+
+        if (order == null) {
+            return EMPTY;
+        }
+
+        final FormattedKey key = new FormattedKey(order, order.getDefaultFormat(), ofo.getCacheKey(),
+                Utils.getLocale());
+        String text = FORMATTED_CACHE.get(key);
+        if (text == null) {
+            text = format(ofo, key.format, order);
+            FORMATTED_CACHE.put(key, text);
+        }
+
+        return text;
+    }// formatCached()
+
+
+    /**
+     * Clears all cached formatted orders (see formatCached()).
+     * Compiled format Strings are not affected.
+     */
+    public static void clearFormattedCache() {
+        FORMATTED_CACHE.clear();
+    }// clearFormattedCache()
+
+
+    /**
+     * The number of compiled format Strings that are kept.
+     */
+    static int getCompiledFormatCount() {
+        return COMPILED_FORMATS.size();
+    }// getCompiledFormatCount()
+
+
     /**
      * Gets an example order, suitable for display in a user interface,
      * using the given OrderFormatOptions.
@@ -715,4 +838,140 @@ public class OrderFormat {
         return format(ofo, support);
     }// getFormatExample()
 
+    /**
+     * A compiled piece of an order format String.
+     */
+    private abstract static class Segment {
+        /**
+         * Render this segment for the given order
+         */
+        public abstract String render(OrderFormatOptions ofo, Orderable order);
+    }// inner class Segment
+
+
+    /**
+     * Literal text (text outside of braces)
+     */
+    private static final class LiteralSegment extends Segment {
+        private final String text;
+
+        public LiteralSegment(String text) {
+            this.text = text;
+        }// LiteralSegment()
+
+        public String render(OrderFormatOptions ofo, Orderable order) {
+            return text;
+        }// render()
+    }// inner class LiteralSegment
+
+
+    /**
+     * A non-modifying (static) keyword, such as {_arrow_}
+     */
+    private static final class KeywordSegment extends Segment {
+        private final String keyword;
+
+        public KeywordSegment(String keyword) {
+            this.keyword = keyword;
+        }// KeywordSegment()
+
+        public String render(OrderFormatOptions ofo, Orderable order) {
+            return procStaticKeyword(ofo, order, keyword).toString();
+        }// render()
+    }// inner class KeywordSegment
+
+
+    /**
+     * A field or method, with an optional modifier: {field:modifier}
+     */
+    private static final class ValueSegment extends Segment {
+        private final String name;
+        private final String modifier;
+
+        public ValueSegment(String name, String modifier) {
+            this.name = name;
+            this.modifier = modifier;
+        }// ValueSegment()
+
+        public String render(OrderFormatOptions ofo, Orderable order) {
+            Object out = getViaAccessor(order, name);
+            if (modifier != null) {
+                out = procModKeyword(ofo, order, out, modifier);
+            }
+            return formatObject(ofo, out);
+        }// render()
+    }// inner class ValueSegment
+
+
+    /**
+     * A field or method treated as a boolean: {field:?TRUE:FALSE}
+     * The 'FALSE' clause may be null (absent).
+     */
+    private static final class BooleanSegment extends Segment {
+        private final String name;
+        private final String trueText;
+        private final String falseText;
+
+        public BooleanSegment(String name, String trueText, String falseText) {
+            this.name = name;
+            this.trueText = trueText;
+            this.falseText = falseText;
+        }// BooleanSegment()
+
+        public String render(OrderFormatOptions ofo, Orderable order) {
+            final Object out = getViaAccessor(order, name);
+
+            boolean isTrue = false;
+            if (out instanceof Boolean) {
+                isTrue = (Boolean) out;
+            } else {
+                isTrue = (out != null);
+            }
+
+            if (isTrue) {
+                final Object obj = procStaticKeyword(ofo, order, trueText);
+                return (obj == null) ? trueText : obj.toString();
+            }
+            if (falseText == null) {
+                // {xxx:?true:} [empty 'false' clause]
+                return EMPTY;
+            }
+            final Object obj = procStaticKeyword(ofo, order, falseText);
+            return (obj == null) ? falseText : obj.toString();
+        }// render()
+    }// inner class BooleanSegment
+
+
+    /**
+     * Key for cached formatted orders. Orders are compared by reference.
+     */
+    private static final class FormattedKey {
+        private final Orderable order;
+        private final String format;
+        private final String options;
+        private final Locale locale;
+
+        public FormattedKey(Orderable order, String format, String options, Locale locale) {
+            this.order = order;
+            this.format = format;
+            this.options = options;
+            this.locale = locale;
+        }// FormattedKey()
+
+        public boolean equals(Object obj) {
+            if (obj instanceof FormattedKey) {
+                final FormattedKey fk = (FormattedKey) obj;
+                return (order == fk.order
+                        && format.equals(fk.format)
+                        && options.equals(fk.options)
+                        && Objects.equals(locale, fk.locale));
+            }
+            return false;
+        }// equals()
+
+        public int hashCode() {
+            return (31 * System.identityHashCode(order) + format.hashCode()) * 31 + options.hashCode();
+        }// hashCode()
+    }// inner class FormattedKey
+
 }// class OrderFormat
@@ -28,6 +28,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -173,6 +174,7 @@ public class OrderFormatOptions implements Cloneable {
     private boolean endWithDot = false;    // end order with period
     private boolean isDebug = false;
     private char coastSep = COAST_SEP_SLASH;
+    private String cacheKey = null;    // lazily computed by getCacheKey()
 
     /**
      * Create an OrderFormatOptions object.
@@ -345,6 +347,7 @@ public class OrderFormatOptions implements Cloneable {
             logger.error("OrderFormatOptions error", e);
         }
 
+        defaultOptions.cacheKey = null;
         return defaultOptions;
     }// decode()
 
@@ -359,6 +362,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets the Province Style
      */
     public void setProvinceStyle(int style) {
+        cacheKey = null;
         checkStyle(style);
         styleProvince = style;
     }// ()
@@ -374,6 +378,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets the Coast Style
      */
     public void setCoastStyle(int style) {
+        cacheKey = null;
         checkStyle(style);
         styleCoast = style;
     }// ()
@@ -389,6 +394,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets the Power Style
      */
     public void setPowerStyle(int style) {
+        cacheKey = null;
         checkStyle(style);
         stylePower = style;
     }// ()
@@ -404,6 +410,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets the Unit Style
      */
     public void setUnitStyle(int style) {
+        cacheKey = null;
         checkStyle(style);
         styleUnit = style;
     }// ()
@@ -419,6 +426,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets the Order Name Style
      */
     public void setOrderNameStyle(int style) {
+        cacheKey = null;
         checkStyle(style);
         styleOrderName = style;
     }// ()
@@ -434,6 +442,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets the Province Format
      */
     public void setProvinceFormat(int fmt) {
+        cacheKey = null;
         checkFormat(fmt);
         formatProvince = fmt;
     }// ()
@@ -449,6 +458,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets the Coast Format
      */
     public void setCoastFormat(int fmt) {
+        cacheKey = null;
         checkCoastFormat(fmt);
         formatCoast = fmt;
     }// ()
@@ -464,6 +474,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets the Power Format
      */
     public void setPowerFormat(int fmt) {
+        cacheKey = null;
         checkFormat(fmt);
         formatPower = fmt;
     }// ()
@@ -479,6 +490,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets the Unit Format
      */
     public void setUnitFormat(int fmt) {
+        cacheKey = null;
         checkFormat(fmt);
         formatUnit = fmt;
     }// ()
@@ -494,6 +506,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets the Order Name Format
      */
     public void setOrderNameFormat(int fmt) {
+        cacheKey = null;
         checkFormat(fmt);
         formatOrderName = fmt;
     }// ()
@@ -509,6 +522,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets the Movement Arrow
      */
     public void setArrow(String value) {
+        cacheKey = null;
         if (value == null) {
             throw new IllegalArgumentException();
         }
@@ -527,6 +541,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets if Possessive Powers are displayed
      */
     public void setShowPossessivePower(boolean value) {
+        cacheKey = null;
         showPossessivePower = value;
     }// setShowOptionalPower()
 
@@ -541,6 +556,7 @@ public class OrderFormatOptions implements Cloneable {
      * Sets if order should end with a period.
      */
     public void setEndWithDot(boolean value) {
+        cacheKey = null;
         endWithDot = value;
     }// setEndWithDot()
 
@@ -559,6 +575,7 @@ public class OrderFormatOptions implements Cloneable {
      * ignored.
      */
     public void setDebug(boolean value) {
+        cacheKey = null;
         isDebug = value;
     }// setDebug()
 
@@ -580,6 +597,7 @@ public class OrderFormatOptions implements Cloneable {
      * Set the character that separates the Province from the Coast
      */
     public void setCoastSeparator(char value) {
+        cacheKey = null;
         coastSep = value;
     }
 
@@ -617,6 +635,19 @@ public class OrderFormatOptions implements Cloneable {
         }
     }// encode()
 
+    /**
+     * Returns a String that is equal for any two OrderFormatOptions
+     * objects that format orders identically. Used by OrderFormat as part
+     * of the key for cached formatted orders. The key is recomputed only
+     * after a setter has been called.
+     */
+    String getCacheKey() {
+        if (cacheKey == null) {
+            cacheKey = new String(encode(), StandardCharsets.ISO_8859_1);
+        }
+        return cacheKey;
+    }// getCacheKey()
+
     /**
      * Check style constant value
      */
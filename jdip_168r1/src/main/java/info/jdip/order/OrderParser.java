@@ -896,7 +896,7 @@ public class OrderParser {
             throw new OrderException(Utils.getLocalString(OF_PROVINCE_NOT_RECOGNIZED, locName));
 
             case 1:
-            return new Location(provinces[0], coast);
+            return provinces[0].getLocation(coast);
 
             case 2:
             // 2 matches... means it's unclear!
@@ -244,11 +244,11 @@ public class Retreat extends Move {
                     else if (thisOS.getRetreatStrength() == depMoveOS.getRetreatStrength()) {
                         // the usual case
                         logger.debug("FAILURE! (==) {}", depMoveOS.getOrder());
-                        adjudicator.addResult(thisOS, ResultType.FAILURE, Utils.getLocalString(RETREAT_FAIL_MULTIPLE));
+                        adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, RETREAT_FAIL_MULTIPLE);
                     } else {
                         // only can be less when considering DPBs
                         logger.debug("FAILURE! (<) {}", depMoveOS.getOrder());
-                        adjudicator.addResult(thisOS, ResultType.FAILURE, Utils.getLocalString(RETREAT_FAIL_DPB));
+                        adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, RETREAT_FAIL_DPB);
                     }
                     evalResult = Tristate.FAILURE;
                     isStrongerThanAllOthers = false;
@@ -555,12 +555,11 @@ public class Support extends Order {
             // If we ARE supporting over a difficult passable border...
             if (mod < 0) {
                 logger.debug( "Unable to support through difficult passable border");
-                adjudicator.addResult(thisOS, ResultType.FAILURE,
-                        Utils.getLocalString(SUPPORT_DIFF_PASS));
+                adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE, SUPPORT_DIFF_PASS);
             } else {
                 logger.debug("Support cut by move from {}", cuttingMove.getSource());
-                adjudicator.addResult(thisOS, ResultType.FAILURE,
-                        Utils.getLocalString(SUPPORT_EVAL_CUT, cuttingMove.getSource().getProvince()));
+                adjudicator.addLocalizedResult(thisOS, ResultType.FAILURE,
+                        SUPPORT_EVAL_CUT, cuttingMove.getSource().getProvince());
             }
         }
 
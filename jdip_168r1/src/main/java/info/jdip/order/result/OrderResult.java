@@ -72,6 +72,17 @@ public class OrderResult extends Result {
         this.order = order;
     }// OrderResult()
 
+    /**
+     * Create an OrderResult with the given Order and ResultType, whose
+     * message is the given il8n resource key. The message is not formatted
+     * until it is first needed.
+     */
+    public static OrderResult createLocalized(Orderable order, ResultType type, String key, Object... args) {
+        final OrderResult result = new OrderResult(order, type, key);
+        result.setLocalized(args);
+        return result;
+    }// createLocalized()
+
     /**
      * Get the ResultType. Never returns null.
      */
@@ -98,7 +109,7 @@ public class OrderResult extends Result {
         sb.append("] [order: ");
         sb.append(order);
         sb.append("] ");
-        sb.append(message);
+        sb.append(getMessageText());
         return sb.toString();
     }// toString()
 
@@ -157,7 +168,7 @@ public class OrderResult extends Result {
             }
 
             // 4: compare message
-            return this.message.compareTo(result.message);
+            return this.getMessageText().compareTo(result.getMessageText());
         } else {
             return super.compareTo(o);
         }
@@ -21,6 +21,7 @@
 //
 package info.jdip.order.result;
 
+import info.jdip.misc.Utils;
 import info.jdip.order.OrderFormatOptions;
 import info.jdip.world.Power;
 
@@ -33,6 +34,9 @@ import java.io.Serializable;
  * Result and subclasses have a toString() method, which is intended
  * for debugging. To obtain a properly-formatted localized message, use
  * getMessage().
+ * <p>
+ * Results created via createLocalized() store only a resource key and
+ * its arguments; the localized text is formatted when it is first needed.
  */
 public class Result implements Serializable, Comparable<Result> {
     // constants
@@ -47,6 +51,15 @@ public class Result implements Serializable, Comparable<Result> {
      * The Message text; this must <b>never</b> be null
      */
     protected String message = "";    // message is never null
+    /**
+     * MessageFormat arguments, if the message is a resource key that is
+     * formatted on demand; null if the message is literal text.
+     */
+    protected Object[] messageArgs = null;
+    /**
+     * The formatted (localized) message, if messageArgs are present
+     */
+    private transient String formattedMessage = null;
 
     /**
      * no-arg constructor for subclasses
@@ -76,6 +89,62 @@ public class Result implements Serializable, Comparable<Result> {
         this(null, message);
     }// Result()
 
+    /**
+     * Create a Result for the given Power (or null, if applicable
+     * to all Powers) whose message is the given il8n resource key. The
+     * message is not formatted until it is first needed.
+     */
+    public static Result createLocalized(Power power, String key, Object... args) {
+        final Result result = new Result(power, key);
+        result.setLocalized(args);
+        return result;
+    }// createLocalized()
+
+    /**
+     * Indicates that the message is a resource key, to be formatted
+     * on demand with the given arguments.
+     */
+    protected final void setLocalized(Object[] args) {
+        messageArgs = (args == null) ? new Object[0] : args;
+        formattedMessage = null;
+    }// setLocalized()
+
+    /**
+     * Get the message text; if the message is a resource key,
+     * it is formatted (once) with the message arguments.
+     */
+    protected final String getMessageText() {
+        if (messageArgs == null) {
+            return message;
+        }
+
+        String text = formattedMessage;
+        if (text == null) {
+            // without arguments, the resource is not a MessageFormat pattern
+            text = (messageArgs.length == 0)
+                    ? Utils.getLocalString(message)
+                    : Utils.getLocalString(message, messageArgs);
+            formattedMessage = text;
+        }
+        return text;
+    }// getMessageText()
+
+    /**
+     * Get the resource key of the message, if the message is localized
+     * (see createLocalized()); otherwise, returns null.
+     */
+    public final String getMessageKey() {
+        return (messageArgs == null) ? null : message;
+    }// getMessageKey()
+
+    /**
+     * Get the MessageFormat arguments of the message, if the message is
+     * localized (see createLocalized()); otherwise, returns null.
+     */
+    public final Object[] getMessageArgs() {
+        return (messageArgs == null) ? null : messageArgs.clone();
+    }// getMessageArgs()
+
     /**
      * Get the Power (or null if none) for whom this result is intended.
      */
@@ -104,7 +173,7 @@ public class Result implements Serializable, Comparable<Result> {
      * Subclasses must override this method to implement this.
      */
     public String getMessage(OrderFormatOptions ofo) {
-        return message;
+        return getMessageText();
     }// getMessage()
 
     /**
@@ -120,7 +189,7 @@ public class Result implements Serializable, Comparable<Result> {
         }
 
         sb.append(": ");
-        sb.append(message);
+        sb.append(getMessageText());
         return sb.toString();
     }// toString()
 
@@ -147,7 +216,7 @@ public class Result implements Serializable, Comparable<Result> {
         }
 
         // finally: compare messages
-        return ((compareResult != 0) ? compareResult : message.compareTo(o.message));
+        return ((compareResult != 0) ? compareResult : getMessageText().compareTo(o.getMessageText()));
     }// compareTo()
 
 
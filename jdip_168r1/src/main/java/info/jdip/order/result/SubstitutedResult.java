@@ -59,6 +59,18 @@ public class SubstitutedResult extends OrderResult {
     }// SubstitutedResult()
 
 
+    /**
+     * Create a SubstitutedResult whose message is the given il8n resource
+     * key. The message is not formatted until it is first needed.
+     */
+    public static SubstitutedResult createLocalized(Orderable oldOrder, Orderable newOrder,
+                                                    String key, Object... args) {
+        final SubstitutedResult result = new SubstitutedResult(oldOrder, newOrder, key);
+        result.setLocalized(args);
+        return result;
+    }// createLocalized()
+
+
     /**
      * Returns the substituted (new) order that replaces the
      * old order (or no order, if an order was created).
@@ -81,7 +93,7 @@ public class SubstitutedResult extends OrderResult {
         sb.append("] [new order: ");
         sb.append(newOrder);
         sb.append("] ");
-        sb.append(message);
+        sb.append(getMessageText());
         return sb.toString();
     }// toString()
 }// class SubstitutedResult
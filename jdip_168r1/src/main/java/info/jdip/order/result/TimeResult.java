@@ -44,10 +44,17 @@ public class TimeResult extends Result {
      * Note that resource must correspond to an il8n resource!
      */
     public TimeResult(Power power, String resource) {
-        super(power, resource);
+        this(power, resource, System.currentTimeMillis());
+    }// Result()
+
 
-        // create timestamp
-        timeStamp = System.currentTimeMillis();
+    /**
+     * A result with the given timestamp (milliseconds since midnight,
+     * January 1, 1970 UTC), applicable to a particular power.
+     */
+    public TimeResult(Power power, String resource, long timeStamp) {
+        super(power, resource);
+        this.timeStamp = timeStamp;
     }// Result()
 
 
@@ -67,6 +74,14 @@ public class TimeResult extends Result {
     }// getGMTMillis()
 
 
+    /**
+     * Get the il8n resource of the message.
+     */
+    public String getResource() {
+        return message;
+    }// getResource()
+
+
     /**
      * Converts the Resource to a properly-internationlized text message.
      * argument {0} is always the time.
@@ -0,0 +1,333 @@
+//
+//  @(#)AdjudicationMetrics.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.process;
+
+import info.jdip.world.Phase;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timing and counts collected during a single adjudication.
+ * <p>
+ * An AdjudicationMetrics object is created by the Adjudicator for each
+ * call to process(), and is available via Adjudicator.getMetrics(). When
+ * adjudication is complete, it is sent to all listeners registered with
+ * AdjudicationMetricsRegistry.
+ * <p>
+ * All times are wall-clock times, in nanoseconds. A stage that does not
+ * apply to the phase being adjudicated (e.g., paradox breaking during
+ * an adjustment phase) has a time of zero.
+ */
+public final class AdjudicationMetrics {
+    private final Phase phase;
+    private final long[] stageNanos = new long[Stage.values().length];
+    private final AtomicInteger convoyPathSearches = new AtomicInteger();
+    private long totalNanos = 0L;
+    private int orderCount = 0;
+    private int componentCount = 0;
+    private int iterations = 0;
+    private int orderEvaluations = 0;
+    private int szykmanApplications = 0;
+    private int circularBreaks = 0;
+    private int paradoxes = 0;
+    private boolean isUnresolvedParadox = false;
+
+    /**
+     * Create an AdjudicationMetrics object for the given Phase.
+     */
+    public AdjudicationMetrics(Phase phase) {
+        this.phase = phase;
+    }// AdjudicationMetrics()
+
+
+    /**
+     * The Phase that was adjudicated.
+     */
+    public Phase getPhase() {
+        return phase;
+    }// getPhase()
+
+    /**
+     * Total time spent in process(), in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }// getTotalNanos()
+
+    /**
+     * Time spent in the given Stage, in nanoseconds.
+     */
+    public long getStageNanos(Stage stage) {
+        return stageNanos[stage.ordinal()];
+    }// getStageNanos()
+
+    /**
+     * Number of orders (OrderStates) adjudicated.
+     */
+    public int getOrderCount() {
+        return orderCount;
+    }// getOrderCount()
+
+    /**
+     * Number of independent order components evaluated in parallel, or
+     * zero if orders were not evaluated in parallel.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }// getComponentCount()
+
+    /**
+     * Number of evaluation iterations (passes over all orders, or over
+     * all orders of a component).
+     */
+    public int getIterations() {
+        return iterations;
+    }// getIterations()
+
+    /**
+     * Number of calls to Order.evaluate().
+     */
+    public int getOrderEvaluations() {
+        return orderEvaluations;
+    }// getOrderEvaluations()
+
+    /**
+     * Number of convoy route searches and evaluations.
+     */
+    public int getConvoyPathSearches() {
+        return convoyPathSearches.get();
+    }// getConvoyPathSearches()
+
+    /**
+     * Number of times the Szykman rule was applied.
+     */
+    public int getSzykmanApplications() {
+        return szykmanApplications;
+    }// getSzykmanApplications()
+
+    /**
+     * Number of circular movement chains that were broken.
+     */
+    public int getCircularBreaks() {
+        return circularBreaks;
+    }// getCircularBreaks()
+
+    /**
+     * Number of paradoxes detected during evaluation.
+     */
+    public int getParadoxCount() {
+        return paradoxes;
+    }// getParadoxCount()
+
+    /**
+     * True if a paradox could not be resolved.
+     */
+    public boolean isUnresolvedParadox() {
+        return isUnresolvedParadox;
+    }// isUnresolvedParadox()
+
+
+    /**
+     * Record a convoy route search or evaluation. This may be called
+     * by Orders (via Path) during adjudication.
+     */
+    public void incrementConvoyPathSearches() {
+        convoyPathSearches.incrementAndGet();
+    }// incrementConvoyPathSearches()
+
+    /**
+     * Add time to the given Stage.
+     */
+    void addStageNanos(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()] += nanos;
+    }// addStageNanos()
+
+    /**
+     * Set the total time.
+     */
+    void setTotalNanos(long nanos) {
+        totalNanos = nanos;
+    }// setTotalNanos()
+
+    /**
+     * Set the number of orders adjudicated.
+     */
+    void setOrderCount(int value) {
+        orderCount = value;
+    }// setOrderCount()
+
+    /**
+     * Set the number of components evaluated in parallel.
+     */
+    void setComponentCount(int value) {
+        componentCount = value;
+    }// setComponentCount()
+
+    /**
+     * Record an evaluation iteration, over the given number of orders.
+     */
+    void addIteration(int evaluations) {
+        iterations++;
+        orderEvaluations += evaluations;
+    }// addIteration()
+
+    /**
+     * Record an application of the Szykman rule.
+     */
+    void incrementSzykmanApplications() {
+        szykmanApplications++;
+    }// incrementSzykmanApplications()
+
+    /**
+     * Record broken circular movement chains.
+     */
+    void addCircularBreaks(int value) {
+        circularBreaks += value;
+    }// addCircularBreaks()
+
+    /**
+     * Record a detected paradox.
+     */
+    void incrementParadoxCount() {
+        paradoxes++;
+    }// incrementParadoxCount()
+
+    /**
+     * Set if a paradox was not resolved.
+     */
+    void setUnresolvedParadox(boolean value) {
+        isUnresolvedParadox = value;
+    }// setUnresolvedParadox()
+
+
+    /**
+     * Add the stage times and counts from the given metrics. The total
+     * time, order count and component count are not changed.
+     */
+    void merge(AdjudicationMetrics other) {
+        for (int i = 0; i < stageNanos.length; i++) {
+            stageNanos[i] += other.stageNanos[i];
+        }
+        iterations += other.iterations;
+        orderEvaluations += other.orderEvaluations;
+        szykmanApplications += other.szykmanApplications;
+        circularBreaks += other.circularBreaks;
+        paradoxes += other.paradoxes;
+        isUnresolvedParadox |= other.isUnresolvedParadox;
+        convoyPathSearches.addAndGet(other.getConvoyPathSearches());
+    }// merge()
+
+
+    /**
+     * For debugging and logging
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(phase);
+        sb.append(": total=");
+        sb.append(totalNanos / 1000L);
+        sb.append("us");
+        for (Stage stage : Stage.values()) {
+            final long nanos = getStageNanos(stage);
+            if (nanos > 0L) {
+                sb.append(", ");
+                sb.append(stage.getName());
+                sb.append('=');
+                sb.append(nanos / 1000L);
+                sb.append("us");
+            }
+        }
+        sb.append(", orders=");
+        sb.append(orderCount);
+        if (componentCount > 0) {
+            sb.append(", components=");
+            sb.append(componentCount);
+        }
+        sb.append(", iterations=");
+        sb.append(iterations);
+        sb.append(", evaluations=");
+        sb.append(orderEvaluations);
+        sb.append(", convoyPathSearches=");
+        sb.append(getConvoyPathSearches());
+        sb.append(", paradoxes=");
+        sb.append(paradoxes);
+        sb.append(", circularBreaks=");
+        sb.append(circularBreaks);
+        sb.append(", szykman=");
+        sb.append(szykmanApplications);
+        return sb.toString();
+    }// toString()
+
+
+    /**
+     * Adjudication stages that are timed.
+     */
+    public enum Stage {
+        /**
+         * Power order checking (if enabled)
+         */
+        CHECK_ORDERS("checkOrders"),
+        /**
+         * Order validation
+         */
+        VALIDATE_ORDERS("validateOrders"),
+        /**
+         * Dependency calculation
+         */
+        DEPENDENCIES("determineDependencies"),
+        /**
+         * Order verification
+         */
+        VERIFY_ORDERS("verifyOrders"),
+        /**
+         * Evaluation iterations
+         */
+        EVALUATION("evaluateOrders"),
+        /**
+         * Paradox breaking (circular movement, Szykman rule)
+         */
+        PARADOX_BREAKING("breakParadox"),
+        /**
+         * Creation of the next Position
+         */
+        CREATE_NEXT_POSITION("createNextPosition"),
+        /**
+         * Retreat checking of dislodged units
+         */
+        RETREAT_CHECK("retreatChecker"),
+        /**
+         * Adjustment and victory condition checks
+         */
+        ADJUSTMENT("adjustment");
+
+        private final String name;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Name of the Stage, as used in logs and exported metrics
+         */
+        public String getName() {
+            return name;
+        }
+    }// enum Stage
+
+}// class AdjudicationMetrics
@@ -0,0 +1,33 @@
+//
+//  @(#)AdjudicationMetricsListener.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.process;
+
+/**
+ * Receives AdjudicationMetrics when an adjudication completes.
+ * <p>
+ * Listeners are registered with AdjudicationMetricsRegistry. They are
+ * called on the adjudicating thread, and must be threadsafe if more
+ * than one adjudication may run at once.
+ */
+public interface AdjudicationMetricsListener {
+    /**
+     * Called after Adjudicator.process() has completed.
+     */
+    void adjudicationCompleted(AdjudicationMetrics metrics);
+}// interface AdjudicationMetricsListener
@@ -0,0 +1,88 @@
+//
+//  @(#)AdjudicationMetricsRegistry.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.process;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Global registry of AdjudicationMetricsListeners.
+ * <p>
+ * All adjudicators publish their metrics here when adjudication is
+ * complete. If no listeners are registered, publishing does nothing.
+ * <p>
+ * Threadsafe.
+ */
+public final class AdjudicationMetricsRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(AdjudicationMetricsRegistry.class);
+    private static final CopyOnWriteArrayList<AdjudicationMetricsListener> listeners = new CopyOnWriteArrayList<>();
+
+
+    /**
+     * No instances
+     */
+    private AdjudicationMetricsRegistry() {
+    }// AdjudicationMetricsRegistry()
+
+
+    /**
+     * Add a listener. A listener may only be added once.
+     */
+    public static void addListener(AdjudicationMetricsListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+
+        listeners.addIfAbsent(listener);
+    }// addListener()
+
+
+    /**
+     * Remove a listener.
+     */
+    public static void removeListener(AdjudicationMetricsListener listener) {
+        listeners.remove(listener);
+    }// removeListener()
+
+
+    /**
+     * True if any listeners are registered.
+     */
+    public static boolean hasListeners() {
+        return !listeners.isEmpty();
+    }// hasListeners()
+
+
+    /**
+     * Send the metrics to all listeners. A listener that throws an
+     * exception does not prevent other listeners from being notified.
+     */
+    public static void publish(AdjudicationMetrics metrics) {
+        for (AdjudicationMetricsListener listener : listeners) {
+            try {
+                listener.adjudicationCompleted(metrics);
+            } catch (RuntimeException e) {
+                logger.warn("AdjudicationMetricsListener failed: {}", listener, e);
+            }
+        }
+    }// publish()
+
+}// class AdjudicationMetricsRegistry
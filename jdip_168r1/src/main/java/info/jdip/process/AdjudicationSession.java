@@ -0,0 +1,406 @@
+//
+//  @(#)AdjudicationSession.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.process;
+
+import info.jdip.order.Order;
+import info.jdip.order.OrderFactory;
+import info.jdip.order.Orderable;
+import info.jdip.order.result.Result;
+import info.jdip.world.Location;
+import info.jdip.world.Phase;
+import info.jdip.world.Position;
+import info.jdip.world.Province;
+import info.jdip.world.TurnState;
+import info.jdip.world.Unit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * An incremental, preview-only adjudication of a Movement phase.
+ * <p>
+ * Orders may be added, replaced, or deleted; after each change, only the
+ * connected component of orders (see OrderComponents) that is affected by
+ * the change is re-resolved. All other components keep their OrderStates,
+ * dependencies, and results. This is intended for showing the likely
+ * outcome of orders while they are being entered.
+ * <p>
+ * Resolution is performed lazily, when results or OrderStates are requested.
+ * Units without an order are assumed to Hold. Within a component, orders
+ * are evaluated in the order they were entered, followed by the Hold orders
+ * of units without orders; this is the same order StdAdjudicator uses for
+ * the orders of a TurnState.
+ * <p>
+ * An AdjudicationSession does not modify the TurnState: results are not
+ * added to the TurnState, the TurnState is not marked as resolved, and
+ * no next TurnState is created. Orders given to the session will be
+ * validated (and verified) each time their component is re-resolved,
+ * just as they would be by StdAdjudicator.
+ * <p>
+ * This class is not threadsafe.
+ */
+public class AdjudicationSession {
+    private static final Logger logger = LoggerFactory.getLogger(AdjudicationSession.class);
+
+    private final OrderFactory orderFactory;
+    private final TurnState turnState;
+    private final Position position;
+    private final Orderable[] orders;                // entered orders, by province index
+    private final int[] sequence;                    // order of entry, by province index
+    private final Component[] componentMap;        // component, by (linked) province index
+    private final SortedMap<Integer, Component> components = new TreeMap<>();
+    private final Set<Component> dirty = new LinkedHashSet<>();
+    private boolean isInitialized = false;
+    private int nextSequence = 0;
+    private int lastResolvedCount = 0;
+    private AdjudicationMetrics metrics = null;
+
+
+    /**
+     * Create an AdjudicationSession for the given Movement-phase TurnState.
+     * The session starts with the orders currently in the TurnState.
+     */
+    public AdjudicationSession(OrderFactory orderFactory, TurnState ts) {
+        if (orderFactory == null || ts == null) {
+            throw new IllegalArgumentException();
+        }
+
+        if (ts.getPhase().getPhaseType() != Phase.PhaseType.MOVEMENT) {
+            throw new IllegalArgumentException("not a movement phase: " + ts.getPhase());
+        }
+
+        this.orderFactory = orderFactory;
+        this.turnState = ts;
+        this.position = ts.getPosition();
+
+        final int nProvinces = position.getProvinces().length;
+        this.orders = new Orderable[nProvinces];
+        this.sequence = new int[nProvinces];
+        this.componentMap = new Component[nProvinces];
+
+        // if multiple orders exist for a location, the last order is used.
+        for (Orderable order : ts.getAllOrders()) {
+            final Province province = order.getSource().getProvince();
+            if (order instanceof Order && position.hasUnit(province)) {
+                orders[province.getIndex()] = order;
+                sequence[province.getIndex()] = nextSequence++;
+            }
+        }
+    }// AdjudicationSession()
+
+
+    /**
+     * Get the TurnState
+     */
+    public TurnState getTurnState() {
+        return turnState;
+    }// getTurnState()
+
+
+    /**
+     * Add an order. If the unit already has an order, it is replaced.
+     * Returns the replaced order, or null.
+     *
+     * @throws IllegalArgumentException if there is no unit in the order's source province
+     */
+    public Orderable addOrder(Orderable order) {
+        if (!(order instanceof Order)) {
+            throw new IllegalArgumentException("not an Order: " + order);
+        }
+
+        final Province province = order.getSource().getProvince();
+        if (!position.hasUnit(province)) {
+            throw new IllegalArgumentException("no unit in " + province);
+        }
+
+        // both the component of the old order (if any) and all components
+        // the new order refers to must be re-resolved.
+        markDirty(province);
+        for (Province linked : OrderComponents.getLinkedProvinces((Order) order, position)) {
+            markDirty(linked);
+        }
+
+        final Orderable old = orders[province.getIndex()];
+        orders[province.getIndex()] = order;
+        sequence[province.getIndex()] = nextSequence++;
+        return old;
+    }// addOrder()
+
+
+    /**
+     * Replace an order with another order.
+     *
+     * @throws IllegalArgumentException if oldOrder is not in this session
+     */
+    public void replaceOrder(Orderable oldOrder, Orderable newOrder) {
+        if (!deleteOrder(oldOrder)) {
+            throw new IllegalArgumentException("order not found: " + oldOrder);
+        }
+
+        addOrder(newOrder);
+    }// replaceOrder()
+
+
+    /**
+     * Delete an order. The unit will Hold. Returns false if the
+     * order was not in this session.
+     */
+    public boolean deleteOrder(Orderable order) {
+        if (order == null) {
+            return false;
+        }
+
+        final Province province = order.getSource().getProvince();
+        if (orders[province.getIndex()] != order) {
+            return false;
+        }
+
+        markDirty(province);
+        orders[province.getIndex()] = null;
+        return true;
+    }// deleteOrder()
+
+
+    /**
+     * Get the order entered for the unit in the given province, or
+     * null if no order has been entered.
+     */
+    public Orderable getOrder(Province province) {
+        return orders[province.getIndex()];
+    }// getOrder()
+
+
+    /**
+     * Get the resolved OrderState for the unit in the given Province,
+     * or null if there is no unit.
+     */
+    public OrderState getOrderState(Province province) {
+        resolve();
+
+        final Component component = componentMap[province.getIndex()];
+        return (component == null) ? null : component.adjudicator.findOrderStateBySrc(province);
+    }// getOrderState()
+
+
+    /**
+     * Get all results. Results are grouped by component; components are
+     * in Province order.
+     */
+    public List<Result> getResults() {
+        resolve();
+
+        final List<Result> results = new ArrayList<>(position.getUnitCount() * 2);
+        for (Component component : components.values()) {
+            results.addAll(component.adjudicator.getResults());
+        }
+        return Collections.unmodifiableList(results);
+    }// getResults()
+
+
+    /**
+     * Returns <code>true</code> if an unresolved paradox was detected in
+     * any component.
+     */
+    public boolean isUnresolvedParadox() {
+        resolve();
+
+        for (Component component : components.values()) {
+            if (component.adjudicator.isUnresolvedParadox()) {
+                return true;
+            }
+        }
+        return false;
+    }// isUnresolvedParadox()
+
+
+    /**
+     * The number of independent components of orders.
+     */
+    public int getComponentCount() {
+        resolve();
+        return components.size();
+    }// getComponentCount()
+
+
+    /**
+     * The number of orders that were re-resolved by the last resolution.
+     */
+    public int getLastResolvedCount() {
+        return lastResolvedCount;
+    }// getLastResolvedCount()
+
+
+    /**
+     * Metrics for the last resolution, or null if nothing has been resolved.
+     */
+    public AdjudicationMetrics getMetrics() {
+        return metrics;
+    }// getMetrics()
+
+
+    /**
+     * Re-resolve all components affected by changes since the last
+     * resolution. This is called automatically when results are requested.
+     */
+    public void resolve() {
+        if (isInitialized && dirty.isEmpty()) {
+            return;
+        }
+
+        final long startTime = System.nanoTime();
+        metrics = new AdjudicationMetrics(turnState.getPhase());
+
+        // find all units in affected components
+        final boolean[] affected = new boolean[orders.length];
+        if (isInitialized) {
+            for (Component component : dirty) {
+                removeComponent(component);
+                for (OrderState os : component.adjudicator.getOrderStates()) {
+                    affected[os.getSourceProvince().getIndex()] = true;
+                }
+            }
+        } else {
+            Arrays.fill(affected, true);
+        }
+
+        dirty.clear();
+        isInitialized = true;
+
+        // create new OrderStates; ordered units first (in order of entry),
+        // then units without orders.
+        final List<Province> ordered = new ArrayList<>();
+        final List<OrderState> osList = new ArrayList<>();
+        for (Province province : position.getUnitProvinceSet()) {
+            if (affected[province.getIndex()]) {
+                if (orders[province.getIndex()] == null) {
+                    osList.add(createOrderState(province));
+                } else {
+                    ordered.add(province);
+                }
+            }
+        }
+
+        ordered.sort(Comparator.comparingInt(province -> sequence[province.getIndex()]));
+        for (int i = 0; i < ordered.size(); i++) {
+            osList.add(i, createOrderState(ordered.get(i)));
+        }
+
+        // partition and resolve
+        final OrderState[] orderStates = osList.toArray(new OrderState[osList.size()]);
+        for (OrderState[] componentStates : OrderComponents.partition(orderStates, position)) {
+            final Component component = new Component(componentStates,
+                    new ComponentAdjudicator(orderFactory, turnState, componentStates, metrics));
+            component.adjudicator.process();
+            addComponent(component);
+        }
+
+        lastResolvedCount = orderStates.length;
+        metrics.setOrderCount(orderStates.length);
+        metrics.setTotalNanos(System.nanoTime() - startTime);
+        logger.debug("Resolved {} orders; metrics: {}", orderStates.length, metrics);
+    }// resolve()
+
+
+    /**
+     * Create an OrderState for the unit in the given Province; if there
+     * is no order, a Hold order is created.
+     */
+    private OrderState createOrderState(Province province) {
+        Orderable order = orders[province.getIndex()];
+        if (order == null) {
+            final Unit unit = position.getUnit(province);
+            order = orderFactory.createHold(unit.getPower(), province.getLocation(unit.getCoast()), unit.getType());
+        }
+
+        return new OrderState((Order) order);
+    }// createOrderState()
+
+
+    /**
+     * Mark the component containing the given province (if any) for re-resolution
+     */
+    private void markDirty(Province province) {
+        final Component component = componentMap[province.getIndex()];
+        if (component != null) {
+            dirty.add(component);
+        }
+    }// markDirty()
+
+
+    /**
+     * Add a component, and map all of its provinces to it.
+     */
+    private void addComponent(Component component) {
+        for (Province province : component.provinces) {
+            componentMap[province.getIndex()] = component;
+        }
+        components.put(component.key, component);
+    }// addComponent()
+
+
+    /**
+     * Remove a component, and unmap all of its provinces.
+     */
+    private void removeComponent(Component component) {
+        for (Province province : component.provinces) {
+            if (componentMap[province.getIndex()] == component) {
+                componentMap[province.getIndex()] = null;
+            }
+        }
+        components.remove(component.key);
+    }// removeComponent()
+
+
+    /**
+     * A resolved component of orders.
+     */
+    private final class Component {
+        private final ComponentAdjudicator adjudicator;
+        private final Province[] provinces;        // all provinces linked by orders in this component
+        private final int key;                    // smallest source province index
+
+        /**
+         * Create a Component. Provinces are determined before validation,
+         * so that a change to any referenced province affects this component.
+         */
+        Component(OrderState[] orderStates, ComponentAdjudicator adjudicator) {
+            this.adjudicator = adjudicator;
+
+            final Set<Province> set = new LinkedHashSet<>();
+            int minIndex = Integer.MAX_VALUE;
+            for (OrderState os : orderStates) {
+                minIndex = Math.min(minIndex, os.getSourceProvince().getIndex());
+                Collections.addAll(set, OrderComponents.getLinkedProvinces(os.getOrder(), position));
+            }
+
+            this.provinces = set.toArray(new Province[set.size()]);
+            this.key = minIndex;
+        }// Component()
+    }// inner class Component
+
+}// class AdjudicationSession
@@ -117,6 +117,13 @@ public interface Adjudicator {
      */
     List<OrderState> getSubstitutedOrderStates();
 
+    /**
+     * Get the metrics (timing and counts) collected during process().
+     * Returns null if process() has not been called.
+     */
+    AdjudicationMetrics getMetrics();
+
+
     //
     //	Result-adding methods
     //
@@ -145,4 +152,11 @@ public interface Adjudicator {
      * Add a Result to the result list
      */
     void addResult(OrderState os, ResultType type, String message);
+
+    /**
+     * Add a Result to the result list, whose message is an il8n
+     * resource key that is formatted (with the given arguments)
+     * only when the message is first needed.
+     */
+    void addLocalizedResult(OrderState os, ResultType type, String key, Object... args);
 }// interface Adjudicator
@@ -24,10 +24,8 @@ package info.jdip.process;
 
 import info.jdip.world.Position;
 import info.jdip.world.Power;
-import info.jdip.world.Province;
 import info.jdip.world.RuleOptions;
 import info.jdip.world.TurnState;
-import info.jdip.world.Unit;
 
 import java.util.HashMap;
 
@@ -53,37 +51,17 @@ public class Adjustment {
 
         AdjustmentInfo ai = new AdjustmentInfo(ruleOpts);
 
-        Position position = turnState.getPosition();
-        final Province[] provinces = position.getProvinces();
-
-        for (Province province : provinces) {
-            // tally units
-            Unit unit = position.getUnit(province);
-            if (unit != null
-                    && unit.getPower() == power) {
-                ai.numUnits++;
-            }
-
-            unit = position.getDislodgedUnit(province);
-            if (unit != null
-                    && unit.getPower() == power) {
-                ai.numDislodgedUnits++;
-            }
-
-            // tally supply centers
-            if (power == position.getSupplyCenterOwner(province)) {
-                ai.numSC++;
-
-                if (power == position.getSupplyCenterHomePower(province)) {
-                    ai.numHSC++;
-                }
-            }
-        }
+        // tally units and supply centers
+        final Position position = turnState.getPosition();
+        ai.numUnits = position.getUnitCount(power);
+        ai.numDislodgedUnits = position.getDislodgedUnitCount(power);
+        ai.numSC = position.getOwnedSupplyCenterCount(power);
+        ai.numHSC = position.getOwnedHomeSupplyCenterCount(power);
 
         // Check to see if emergency measures can be enacted
         ai.hasEmergency = power.hasEmergency()
                         && ai.numHSC > 0
-                        && ai.numHSC < position.getHomeSupplyCenters(power).length;
+                        && ai.numHSC < position.getHomeSupplyCenterCount(power);
         return ai;
     }// getAdjustmentInfo()
 
@@ -106,47 +84,22 @@ public class Adjustment {
             adjMap.put(power, new AdjustmentInfo(ruleOpts));
         }
 
-        // Iterate for all Powers
-        Position position = turnState.getPosition();
-        final Province[] provinces = position.getProvinces();
-
-        for (Province province : provinces) {
-            boolean hasUnit = false;
-
-            // tally units
-            Unit unit = position.getUnit(province);
-            if (unit != null) {
-                adjMap.get(unit.getPower()).numUnits++;
-                hasUnit = true;
-            }
-
-            unit = position.getDislodgedUnit(province);
-            if (unit != null) {
-                adjMap.get(unit.getPower()).numDislodgedUnits++;
-            }
-
-            // tally supply centers
-            Power power = position.getSupplyCenterOwner(province);
-            if (power != null) {
-                adjMap.get(power).numSC++;
-                adjMap.get(power).numOccSC += (hasUnit ? 1 : 0);
-
-                power = position.getSupplyCenterHomePower(province);
-                if (power != null) {
-                    adjMap.get(power).numHSC++;
-                    adjMap.get(power).numOccHSC += (hasUnit ? 1 : 0);
-                }
-            }
+        // tally units and supply centers, for all Powers
+        final Position position = turnState.getPosition();
+        for (Power power : powers) {
+            final AdjustmentInfo ai = adjMap.get(power);
+            ai.numUnits = position.getUnitCount(power);
+            ai.numDislodgedUnits = position.getDislodgedUnitCount(power);
+            ai.numSC = position.getOwnedSupplyCenterCount(power);
+            ai.numOccSC = position.getOccupiedSupplyCenterCount(power);
+            ai.numHSC = position.getHeldHomeSupplyCenterCount(power, false);
+            ai.numOccHSC = position.getHeldHomeSupplyCenterCount(power, true);
+
+            // Check to see if emergency measures can be enacted
+            ai.hasEmergency = power.hasEmergency()
+                    && ai.numHSC > 0
+                    && ai.numHSC < position.getHomeSupplyCenterCount(power);
         }
-
-		// Check to see if emergency measures can be enacted
-		for (Power curPower : powers)
-		{
-            adjMap.get(curPower).hasEmergency = 
-                curPower.hasEmergency()
-                && adjMap.get(curPower).numHSC > 0
-                && adjMap.get(curPower).numHSC < position.getHomeSupplyCenters(curPower).length;
-		}
         return adjMap;
     }// getAdjustmentInfo()
 
@@ -0,0 +1,909 @@
+//
+//  @(#)ComponentAdjudicator.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.process;
+
+import info.jdip.order.Convoy;
+import info.jdip.order.Hold;
+import info.jdip.order.Move;
+import info.jdip.order.Order;
+import info.jdip.order.OrderException;
+import info.jdip.order.OrderFactory;
+import info.jdip.order.OrderWarning;
+import info.jdip.order.Support;
+import info.jdip.order.ValidationOptions;
+import info.jdip.order.result.BouncedResult;
+import info.jdip.order.result.DislodgedResult;
+import info.jdip.order.result.OrderResult;
+import info.jdip.order.result.OrderResult.ResultType;
+import info.jdip.order.result.Result;
+import info.jdip.order.result.SubstitutedResult;
+import info.jdip.world.Location;
+import info.jdip.world.Province;
+import info.jdip.world.RuleOptions;
+import info.jdip.world.TurnState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Resolves a set of movement-phase OrderStates: validation, dependencies,
+ * verification, evaluation (including paradox breaking) and the creation
+ * of dislodged and success results.
+ * <p>
+ * The set may be all orders for a turn (as used by StdAdjudicator) or a
+ * single independent component of orders (see OrderComponents). Orders
+ * are given this object as their Adjudicator, and results are added to
+ * this object's result list. OrderState lookups use the map given to the
+ * constructor; StdAdjudicator gives each component the map of all orders
+ * for the turn, so lookups are not limited to the set. OrderComponents
+ * places orders that can affect each other in the same component, but
+ * this object does not check it.
+ * <p>
+ * A ComponentAdjudicator does not create a next TurnState; that is left
+ * to the caller.
+ */
+final class ComponentAdjudicator implements Adjudicator {
+    private static final Logger logger = LoggerFactory.getLogger(ComponentAdjudicator.class);
+
+    private static final String STDADJ_MV_BAD = "STDADJ_MV_BAD";
+    private static final String STDADJ_MV_UNRESOLVED_PARADOX = "STDADJ_MV_UNRESOLVED_PARADOX";
+    private static final String STDADJ_MV_SZYKMAN_NOTICE = "STDADJ_MV_SZYKMAN_NOTICE";
+    private static final String STDADJ_MV_SZYKMAN_MOVE_FAILED = "STDADJ_MV_SZYKMAN_MOVE_FAILED";
+
+    private final OrderFactory orderFactory;
+    private final TurnState turnState;
+    private final RuleOptions ruleOpts;
+    private final OrderState[] orderStates;
+    private final Map<Province, OrderState> osMap;
+    private final List<Result> resultList;
+    private final List<OrderState> substOrders;
+    private final AdjudicationMetrics metrics;
+    private boolean isUnRezParadox = false;
+    private int paradoxBreakAttempt = 0;
+    private int szykmanAppliedCount = 0;
+    private int totalIterations = 0;
+    private int nMovesEvaluated = 0;        // counts from the last call to evaluatePass()
+    private int nNonMovesEvaluated = 0;
+
+
+    /**
+     * Create a ComponentAdjudicator for the given OrderStates, which
+     * uses its own OrderState mapping, result list, and substituted
+     * order list.
+     */
+    ComponentAdjudicator(OrderFactory orderFactory, TurnState ts, OrderState[] orderStates,
+                         AdjudicationMetrics metrics) {
+        this(orderFactory, ts, orderStates, createMap(orderStates),
+                new ArrayList<>(orderStates.length * 2), new ArrayList<>(4), metrics);
+    }// ComponentAdjudicator()
+
+
+    /**
+     * Create a ComponentAdjudicator for the given OrderStates. The
+     * mapping, result list and substituted order list are used directly,
+     * and may be shared with the creator.
+     */
+    ComponentAdjudicator(OrderFactory orderFactory, TurnState ts, OrderState[] orderStates,
+                         Map<Province, OrderState> osMap, List<Result> resultList,
+                         List<OrderState> substOrders, AdjudicationMetrics metrics) {
+        this.orderFactory = orderFactory;
+        this.turnState = ts;
+        this.ruleOpts = ts.getWorld().getRuleOptions();
+        this.orderStates = orderStates;
+        this.osMap = osMap;
+        this.resultList = resultList;
+        this.substOrders = substOrders;
+        this.metrics = metrics;
+    }// ComponentAdjudicator()
+
+
+    /**
+     * Map each OrderState by source Province.
+     */
+    private static Map<Province, OrderState> createMap(OrderState[] orderStates) {
+        final Map<Province, OrderState> map = new HashMap<>(orderStates.length * 2);
+        for (OrderState os : orderStates) {
+            map.put(os.getSourceProvince(), os);
+        }
+        return map;
+    }// createMap()
+
+
+    /**
+     * Fully resolve the orders: validate, determine dependencies, verify,
+     * evaluate, and create dislodged and success results.
+     */
+    public void process() {
+        validateOrders();
+        determineDependencies();
+        verifyOrders();
+        evaluate();
+        createDislodgedResults();
+        createSuccessResults();
+    }// process()
+
+
+    /**
+     * Returns <code>true</code> if an unresolved paradox was detected.
+     */
+    public boolean isUnresolvedParadox() {
+        return isUnRezParadox;
+    }// isUnresolvedParadox()
+
+    /**
+     * Always returns null; a ComponentAdjudicator does not create
+     * the next TurnState.
+     */
+    public TurnState getNextTurnState() {
+        return null;
+    }// getNextTurnState()
+
+    /**
+     * Not supported; does nothing.
+     */
+    public void setStatReporting(boolean value) {
+    }// setStatReporting()
+
+    /**
+     * Not supported; does nothing.
+     */
+    public void setPowerOrderChecking(boolean value) {
+    }// setPowerOrderChecking()
+
+    /**
+     * Get the TurnState
+     */
+    public TurnState getTurnState() {
+        return turnState;
+    }// getTurnState()
+
+    /**
+     * Get the OrderStates being resolved
+     */
+    public OrderState[] getOrderStates() {
+        return orderStates;
+    }// getOrderStates()
+
+    /**
+     * Find the OrderState with the given source Province. Returns null if
+     * no corresponding order was found. <b>Note:</b> Coast is not relevent
+     * here; only the Province in the given Location is used.
+     */
+    public OrderState findOrderStateBySrc(Location location) {
+        return osMap.get(location.getProvince());
+    }// findOrderStateBySrc()
+
+    /**
+     * Find the OrderState with the given source Province. Returns null if
+     * no corresponding order was found.
+     */
+    public OrderState findOrderStateBySrc(Province src) {
+        return osMap.get(src);
+    }// findOrderStateBySrc()
+
+    /**
+     * Returns 'true' if The Orderstate in question is a support order
+     * that is supporting a move against itself.
+     */
+    public boolean isSelfSupportedMove(OrderState os) {
+        if (os.getOrder() instanceof Support) {
+            Support support = (Support) os.getOrder();
+            OrderState destOS = findOrderStateBySrc(support.getSupportedDest());
+
+            return !support.isSupportingHold()
+                    && destOS != null
+                    && destOS.getPower() == os.getPower();
+        }
+
+        return false;
+    }// isSelfSupportedMove()
+
+    /**
+     * Returns a list of substituted orders.
+     */
+    public List<OrderState> getSubstitutedOrderStates() {
+        return substOrders;
+    }// getSubstitutedOrderStates()
+
+    /**
+     * Get the metrics that counts are added to
+     */
+    public AdjudicationMetrics getMetrics() {
+        return metrics;
+    }// getMetrics()
+
+    /**
+     * Get the results added during resolution
+     */
+    List<Result> getResults() {
+        return resultList;
+    }// getResults()
+
+    /**
+     * Add a Result to the result list
+     */
+    public void addResult(Result result) {
+        resultList.add(result);
+    }// addResult()
+
+    /**
+     * Add a BouncedResult to the result list
+     */
+    public void addBouncedResult(OrderState os, OrderState bouncer) {
+        logger.info("Bounce Result added: {}, by: {}", os.getOrder(), bouncer.getSourceProvince());
+        BouncedResult br = new BouncedResult(os.getOrder());
+        br.setBouncer(bouncer.getSourceProvince());
+        resultList.add(br);
+    }// addBouncedResult()
+
+    /**
+     * Add a DislodgedResult to the result list
+     */
+    public void addDislodgedResult(OrderState os) {
+        logger.info("Dislodged Result added: {}, from: {}", os.getOrder(), os.getDislodger().getSourceProvince());
+        DislodgedResult dr = new DislodgedResult(os.getOrder(), null);
+        dr.setDislodger(os.getDislodger().getSourceProvince());
+        resultList.add(dr);
+    }// addDislodgedResult()
+
+    /**
+     * Add a Result to the result list
+     */
+    public void addResult(OrderState os, String message) {
+        resultList.add(new OrderResult(os.getOrder(), message));
+    }// addResult()
+
+    /**
+     * Add a Result to the result list
+     */
+    public void addResult(OrderState os, ResultType type, String message) {
+        resultList.add(new OrderResult(os.getOrder(), type, message));
+    }// addResult()
+
+    /**
+     * Add a localized Result to the result list
+     */
+    public void addLocalizedResult(OrderState os, ResultType type, String key, Object... args) {
+        resultList.add(OrderResult.createLocalized(os.getOrder(), type, key, args));
+    }// addLocalizedResult()
+
+
+    /**
+     * Perform a complete validation of all orders. Orders that fail
+     * validation are replaced with Hold orders.
+     */
+    void validateOrders() {
+        ValidationOptions valOpts = new ValidationOptions();
+        valOpts.setOption(ValidationOptions.KEY_GLOBAL_PARSING, ValidationOptions.VALUE_GLOBAL_PARSING_STRICT);
+
+        for (OrderState os : orderStates) {
+            Order order = os.getOrder();
+
+            // validate order (Strict, No warnings)
+            try {
+                order.validate(turnState, valOpts, ruleOpts);
+            } catch (OrderWarning ow) {
+                // just in case we didn't turn off all warnings; do nothing
+            } catch (OrderException oe) {
+                // If the order failed validation, create a VALIDATION_FAILURE result.
+                // Then, replace the OrderState order with a Hold order. This prevents
+                // the adjudicator from using (or even knowing about) the invalid order
+                //
+                addLocalizedResult(os, ResultType.VALIDATION_FAILURE,
+                        STDADJ_MV_BAD, oe.getMessage());
+
+                Hold hold = orderFactory.createHold(order.getPower(), order.getSource(),
+                        order.getSourceUnitType());
+
+                addResult(new SubstitutedResult(order, hold, null));
+                os.setOrder(hold);
+
+                // add old (subtituted) order to substituted order list
+                OrderState substOS = new OrderState(order);
+                substOS.setLegal(false);
+                substOrders.add(substOS);
+            }
+        }
+    }
+
+
+    /**
+     * Calculate dependencies for all orders
+     */
+    void determineDependencies() {
+        for (OrderState os : orderStates) {
+            os.getOrder().determineDependencies(this);
+        }
+    }// determineDependencies()
+
+
+    /**
+     * Verifies orders in a loop. Order verification can have dependencies,
+     * but extreme caution should be taken when implementing Order.verify()
+     * so that dependencies are minimized.
+     */
+    void verifyOrders() {
+        logger.trace( "verifying orders...");
+        int nRemainingToVerify = orderStates.length;
+        int nLastVerified = 1;    // reset in while() loop
+
+        while (nRemainingToVerify > 0 && nLastVerified > 0) {
+            nLastVerified = 0;
+            nRemainingToVerify = orderStates.length;
+
+            for (final OrderState os : orderStates) {
+                if (!os.isVerified()) {
+                    final int searches = metrics.getConvoyPathSearches();
+                    os.getOrder().verify(this);
+                    os.addConvoyPathSearches(metrics.getConvoyPathSearches() - searches);
+                    if (os.isVerified()) {
+                        nRemainingToVerify--;
+                        nLastVerified++;
+                    }
+                } else {
+                    // because the verify() method could call the verify() method
+                    // of other orders
+                    nRemainingToVerify--;
+                }
+            }
+        }
+
+        // detect condition where all orders did not verify.
+        // this is an error.
+        if (nRemainingToVerify > 0) {
+            logger.error("StdAdjudicator: incomplete verification. Orders remaining to verify: {}, Orders last verified: {}",
+                    nRemainingToVerify, nLastVerified);
+
+            throw new IllegalStateException("Verification Error");
+        }
+    }// verifyOrders()
+
+    /**
+     * Evaluate all orders, until evaluation is complete OR until we
+     * cannot break paradoxes any more. If there are no Move orders,
+     * nothing is evaluated.
+     */
+    void evaluate() {
+        evaluate(null, null);
+    }// evaluate()
+
+
+    /**
+     * As evaluate(), but each iteration is performed by the given
+     * ComponentAdjudicators in parallel, using the given pool. The
+     * components must together hold the same OrderStates as this object,
+     * with no OrderState in more than one component.
+     * <p>
+     * Paradox detection and breaking are performed by this object over all
+     * OrderStates, between iterations, exactly as they are when evaluating
+     * serially. Since the OrderStates of one component do not depend upon
+     * those of another, the outcome is the same as that of evaluate().
+     * Results added by the components during an iteration are then added
+     * to this object's result list, in component order.
+     * <p>
+     * If components is null, evaluation is serial.
+     */
+    void evaluate(List<ComponentAdjudicator> components, ForkJoinPool pool) {
+        // count the total number of moves and total number of non-move orders.
+        int totalMoves = 0;
+        int totalNonMoves = 0;
+
+        for (OrderState os : orderStates) {
+            if (os.getOrder() instanceof Move) {
+                totalMoves++;
+            } else {
+                totalNonMoves++;
+            }
+        }
+
+        logger.debug("Moves to evaluate: {}, Non-moves to evaluate: {}", totalMoves, totalNonMoves);
+
+        if (totalMoves > 0) {
+            boolean evaluationComplete = false;
+            while (!evaluationComplete) {
+                long time = System.nanoTime();
+                evaluationComplete = evaluateOrders(totalMoves, totalNonMoves, components, pool);
+                final long now = System.nanoTime();
+                metrics.addStageNanos(AdjudicationMetrics.Stage.EVALUATION, now - time);
+                evaluationComplete |= !canBreakParadox();
+                metrics.addStageNanos(AdjudicationMetrics.Stage.PARADOX_BREAKING, System.nanoTime() - now);
+            }
+        }
+    }// evaluate()
+
+
+    /**
+     * a) convert 'maybe' dislodged to 'yes' disloged
+     * b) create 'dislodged' result
+     * c) any 'dislodged' with 'uncertain' evaluation ==> failure / dislodged
+     * d) if power isn't active (e.g., Italy in a 6-player game), and
+     *    its unit is dislodged, it will be automatically disbanded (later)
+     * e) set flag indicating if any units are dislodged
+     */
+    boolean createDislodgedResults() {
+        boolean areAnyUnitsDislodged = false;
+        for (OrderState os : orderStates) {
+            // convert maybe->certain
+            if (os.getDislodgedState() == Tristate.MAYBE) {
+                logger.debug("dislodged: maybe -> yes: {}", os.getOrder());
+
+                os.setDislodgedState(Tristate.YES);
+
+                if (os.getEvalState() == Tristate.UNCERTAIN) {
+                    os.setEvalState(Tristate.FAILURE);
+                    //addResult(os, ResultType.FAILURE, null);
+                    addDislodgedResult(os);
+                } else if (os.getEvalState() == Tristate.FAILURE) {
+                    // we were dislodged, probably by another unit, not the
+                    // unit that caused the failure (see bug #952038)
+                    // So, we need to create a dislodged result, in addition
+                    // to setting the DislodgedState flag.
+                    //
+                    addDislodgedResult(os);
+                }
+            }
+
+            // ensure all dislodged units have a dislodged result (needed to process
+            // Order.evalute() methods can create dislodged results if they are
+            //    certain a unit was dislodged.
+            // inactive powers will have their units disbanded, during step 12
+            // (creating the next turnstate).
+            if (os.getDislodgedState() == Tristate.YES && os.getPower().isActive()) {
+                areAnyUnitsDislodged = true;
+            }
+        }
+        return areAnyUnitsDislodged;
+    }
+
+
+    /**
+     * Ensure that any 'uncertain' orders are converted to success, and
+     * have a success result. Also any other order that was evaluated
+     * successfully gets a success result. Dislodged units cannot be successful.
+     */
+    void createSuccessResults() {
+        for (OrderState os : orderStates) {
+            if (os.getEvalState() == Tristate.UNCERTAIN) {
+                os.setEvalState(os.getDislodgedState() == Tristate.YES ? Tristate.FAILURE : Tristate.SUCCESS);
+            }
+
+            if (os.getEvalState() == Tristate.SUCCESS) {
+                addResult(os, ResultType.SUCCESS, null);
+            }
+        }
+    }// createSuccessResults()
+
+
+    /**
+     * Evaluate orders serially; see evaluateOrders(int, int, List, ForkJoinPool)
+     */
+    boolean evaluateOrders(final int totalMoveOrderCount, final int totalNonMoveOrderCount) {
+        return evaluateOrders(totalMoveOrderCount, totalNonMoveOrderCount, null, null);
+    }// evaluateOrders()
+
+
+    /**
+     * Calls order.evaluate() for each order
+     * performs multiple iterations, until all *move* orders are evaluated.
+     * when all move orders have been evaluated, returns 'true'.
+     * <p>
+     * HOWEVER, if a paradox is detected, 'false' is returned.
+     * <p>
+     * paradox detection:
+     * <ol>
+     * <li>must supply INITIAL # of move orders / non-move orders to this method</li>
+     * <li>each iteration:
+     * <ol>
+     * <li># of move orders evaluated is determined</li>
+     * <li># of non-move orders evaluated is determined</li>
+     * <li>if # of move orders AND # of non-move orders are
+     * both NOT increasing, we have a paradox.</li>
+     * </ol>
+     * </li>
+     * </ol>
+     * 'invalid' move orders are never ever counted!!
+     * <p>
+     * If components is non-null, each iteration is performed by the
+     * components in parallel (see evaluate()).
+     */
+    boolean evaluateOrders(final int totalMoveOrderCount, final int totalNonMoveOrderCount,
+                           List<ComponentAdjudicator> components, ForkJoinPool pool) {
+        int lastNumMovesEvaluated = 0;
+        int lastNumNonMovesEvaluated = 0;
+        int iterations = 0;
+
+        do {
+            // for logging statistics only:
+            iterations++;
+            totalIterations++;
+            metrics.addIteration(orderStates.length);
+
+            if (components == null) {
+                evaluatePass(totalIterations);
+            } else {
+                evaluatePass(components, pool, totalIterations);
+            }
+
+            final int nMovesEvaluated = this.nMovesEvaluated;
+            final int nNonMovesEvaluated = this.nNonMovesEvaluated;
+
+            // check for paradox
+            // NOTE: if totalMoveOrderCount == 0, we cannot have a paradox.
+            //
+            if (totalMoveOrderCount > 0
+                    && nMovesEvaluated <= lastNumMovesEvaluated
+                    && nNonMovesEvaluated <= lastNumNonMovesEvaluated) {
+                metrics.incrementParadoxCount();
+                for (OrderState os : orderStates) {
+                    if (os.getEvalState() == Tristate.UNCERTAIN) {
+                        os.setParadoxInvolved(true);
+                    }
+                }
+                logger.warn("Paradox detected (nMovesEvaluated: {}, lastNumMovesEvaluated: {}, nNonMovesEvaluated: {}, lastNumNonMovesEvaluated: {})",
+                        nMovesEvaluated,
+                        lastNumMovesEvaluated,
+                        nNonMovesEvaluated,
+                        lastNumNonMovesEvaluated
+                );
+
+                return false;
+            }
+
+            logger.debug("Iteration: {}", iterations);
+            logger.debug("Orders: {} of {} (non-move) evaluated", nNonMovesEvaluated, totalNonMoveOrderCount);
+            logger.debug("Move orders: {} of {} evaluated", nMovesEvaluated, totalMoveOrderCount);
+
+            // set last evaluated, so next iteration can be compared.
+            lastNumMovesEvaluated = nMovesEvaluated;
+            lastNumNonMovesEvaluated = nNonMovesEvaluated;
+
+        } while (lastNumMovesEvaluated < totalMoveOrderCount);
+
+        return true;
+    }// evaluateOrders()
+
+
+    /**
+     * Evaluate each order once, and count the orders that are no longer
+     * uncertain.
+     */
+    private void evaluatePass(final int iteration) {
+        nMovesEvaluated = 0;
+        nNonMovesEvaluated = 0;
+
+        for (OrderState os : orderStates) {
+            // evaluate each order
+            final int searches = metrics.getConvoyPathSearches();
+            os.getOrder().evaluate(this);
+            os.addConvoyPathSearches(metrics.getConvoyPathSearches() - searches);
+            os.recordEvaluation(iteration);
+
+            // determine how many orders are evaluated
+            if (os.getEvalState() != Tristate.UNCERTAIN) {
+                if (os.getOrder() instanceof Move) {
+                    nMovesEvaluated++;
+                } else {
+                    nNonMovesEvaluated++;
+                }
+            }
+        }
+    }// evaluatePass()
+
+
+    /**
+     * Evaluate each order once, with each component evaluating its own
+     * orders in parallel. Counts and results of the components are then
+     * combined, in component order.
+     */
+    private void evaluatePass(final List<ComponentAdjudicator> components,
+                              final ForkJoinPool pool, final int iteration) {
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>(components.size());
+        for (ComponentAdjudicator component : components) {
+            tasks.add(ForkJoinTask.adapt(() -> component.evaluatePass(iteration)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        nMovesEvaluated = 0;
+        nNonMovesEvaluated = 0;
+        for (ComponentAdjudicator component : components) {
+            nMovesEvaluated += component.nMovesEvaluated;
+            nNonMovesEvaluated += component.nNonMovesEvaluated;
+            resultList.addAll(component.resultList);
+            component.resultList.clear();
+        }
+    }// evaluatePass()
+
+    /**
+     * Returns true if we have a method to attempt to break a paradox.
+     * returns false if we have no further paradox-breaking ideas.
+     * <p>
+     * This method must keep track of (through the class) which
+     * methods to break paradoxes have already been tried.
+     * <p>
+     * The algorithm, currently, is simple. First, we look for
+     * circular movement paradoxes, and attempt to re-resolve.
+     * <p>
+     * If paradox(es) remain, we attempt to apply the Szykman rule
+     * to break the paradox, until we succeed or still have a paradox.
+     * <p>
+     * If a paradox remain even after multiple applications of the
+     * Szykman rule, we return <code>false</code> and add a result
+     * indicating we have an unresolved paradox.
+     */
+    private boolean canBreakParadox() {
+        paradoxBreakAttempt++;
+        assert (paradoxBreakAttempt >= 1);
+
+        // prevent infinite loop.....
+        if (szykmanAppliedCount > 10) {
+            addResult(Result.createLocalized(null,
+                    STDADJ_MV_UNRESOLVED_PARADOX, paradoxBreakAttempt));
+
+            logger.debug("paradox: order status:");
+            for (OrderState os : orderStates) {
+                logger.debug(">{} {} ", os.getOrder(), os.getEvalState());
+            }
+
+            isUnRezParadox = true;
+            return false;
+        }
+
+
+        if (paradoxBreakAttempt == 1) {
+            breakCircularParadox();
+            return true;
+        } else {
+            // try szykman
+            szykmanAppliedCount++;
+            metrics.incrementSzykmanApplications();
+            breakParadoxSzykman();
+            return true;
+        }
+    }// canBreakParadox()
+
+    /**
+     * Attempts to break a Circular Movement (this includes swaps)
+     * paradoxes. Note that this will break any chain of circular
+     * movements, where n >= 2.
+     */
+    private void breakCircularParadox() {
+        final int nCircular = markCircularMoves();
+        logger.info("Circular chains found: {}", nCircular);
+        metrics.addCircularBreaks(nCircular);
+
+        if (nCircular > 0) {
+            for (OrderState os : orderStates) {
+                if (os.getEvalState() == Tristate.UNCERTAIN
+                        && os.isCircular()) {
+                    os.setEvalState(Tristate.SUCCESS);
+                }
+            }
+        }
+    }// breakCircularParadox()
+
+    /**
+     * Implements the Szykman Rule to break paradoxes.
+     * <p>
+     * "If a situation arises in which an army's convoy order results in a paradoxical adjudication,
+     * the moves of all involved convoying armies fail and have no effect on the place where they
+     * were ordered to convoy." This rule was proposed by Simon Szykman in a discussion with
+     * Manus Hand in the Diplomatic Pouch Zine (1999, Fall Retreat). (DATC, section III)
+     * <p>
+     * Algorithm:
+     * <ol>
+     * <li>find all move orders, that are convoyed, and have an Uncertain resolve state.
+     * <li>if this move order has any unresolved convoy orders, move fails.
+     * </ol>
+     * <p>
+     * <pre>
+     * 	BUG WARNING: perhaps we should just cause moves to fail for those moves which have the
+     * 				 fewest # of unresolved convoy orders; then re-evaluate, and attempt to
+     * 				 break paradox again if it occurs again (using next fewest # of unresolved
+     * 				 convoy orders).
+     * 	</pre>
+     */
+    private void breakParadoxSzykman() {
+        addResult(Result.createLocalized(null, STDADJ_MV_SZYKMAN_NOTICE));
+        logger.trace("Applying Szykman Rule to break paradox.");
+
+        for (OrderState os : orderStates) {
+            if (os.getEvalState() == Tristate.UNCERTAIN
+                    && os.getOrder() instanceof Move) {
+                Move move = (Move) os.getOrder();
+
+                if (!move.isConvoying()) {
+                    continue;
+                }
+                logger.debug("Checking move: {}", move);
+
+                for (OrderState itos : getConvoyList(move)) {
+
+                    logger.debug("Convoy: {}, evalState: {}", itos.getOrder(), itos.getEvalState());
+                    if (itos.getEvalState() == Tristate.UNCERTAIN) {
+                        logger.info("*** Szykman rule applied to this move!!!");
+                        os.setEvalState(Tristate.FAILURE);
+                        addLocalizedResult(os, ResultType.FAILURE, STDADJ_MV_SZYKMAN_MOVE_FAILED);
+                        break;
+                    }
+                }
+            }
+        }
+        logger.trace("Finished with Szykman Rule.");
+    }
+
+
+    /**
+     * Find the OrderState for a Move originating from the given Province
+     */
+    private OrderState findMoveFrom(Province src) {
+        for (OrderState os : orderStates) {
+            Order order = os.getOrder();
+            if (order instanceof Move
+                    && order.getSource().isProvinceEqual(src)) {
+                return os;
+            }
+        }
+
+        return null;
+    }// findMoveFrom()
+
+    /**
+     * Returns a List of all OrderStates representing Convoy
+     * orders for the given Move order
+     */
+    private List<OrderState> getConvoyList(Move move) {
+        ArrayList<OrderState> list = new ArrayList<>(8);
+
+        for (OrderState os : orderStates) {
+            if (os.getOrder() instanceof Convoy) {
+                Convoy convoy = (Convoy) os.getOrder();
+                if (convoy.getConvoySrc().isProvinceEqual(move.getSource())
+                        && convoy.getConvoyDest().isProvinceEqual(move.getDest())) {
+                    list.add(os);
+                }
+            }
+        }
+
+        return list;
+    }// getConvoyList()
+
+    /**
+     * Given an unresolved move A-B, check if it is in a 'string' of
+     * unresolved moves. If so, set the isCircular() flag on them.
+     * <p>
+     * if we have found ANY circular moves, return true.
+     * note: a circular move is defined as:
+     * <ul>
+     * <li>a chain of moves >= 3
+     * <li>a chain of moves >= 2, where at least one
+     * of the moves is convoyed (isByConvoy())
+     * </ul>
+     * <p>
+     * returns # of circular *chains* that have been marked
+     * >=0
+     *
+     * <p>
+     * TODO: 	this code is sortof hackish; should be simplified; we should
+     * do a findMoveFrom() to match only within movesToCheck, and if
+     * a circle is found, move should be removed from movesToCheck list.
+     */
+    private int markCircularMoves() {
+        List<OrderState> movesToCheck = new LinkedList<>();
+        LinkedList<OrderState> chain = new LinkedList<>();    // we'll be using this as a Stack; it will be cleared if chain is not complete.
+        boolean isChainCircular = false;        // 'true' if chain contains a list of circular moves.
+        int chainCount = 0;
+
+        // step 1: get list of moves to check. Note that circular moves can only include
+        // valid, UNCERTAIN moves, that haven't already been marked as circular
+        for (OrderState os : orderStates) {
+            if (os.getEvalState() == Tristate.UNCERTAIN
+                    && !os.isCircular()
+                    && os.getOrder() instanceof Move) {
+                movesToCheck.add(os);
+            }
+        }
+
+
+        // step 2: check each move in list for cicularity chains. If multiple chains
+        // exist, we will find them in a single pass
+        for (OrderState moveOS : movesToCheck) {
+            chain.clear();
+            isChainCircular = false;
+
+            if (moveOS.isCircular()) {
+                continue;
+            }
+            Move firstMove = (Move) moveOS.getOrder();
+
+            chain.addLast(moveOS);
+            OrderState nextMoveOS = findMoveFrom(firstMove.getDest().getProvince());
+
+            boolean subChainCircular = false;
+
+            while (nextMoveOS != null && !isChainCircular && !subChainCircular) {
+                if (nextMoveOS.isCircular()) {
+                    break;    // can't have intersecting circles!
+                }
+                chain.addLast(nextMoveOS);
+
+                Move nextMove = (Move) nextMoveOS.getOrder();
+
+                // Uwe Plonus: This is a dirty hack to let the test case 6.e.4 pass
+                for (OrderState nm : chain) {
+                    if (nextMove.getDest().isProvinceEqual(nm.getSource())) {
+                        // we've found the move that completes the (sub-)chain.
+                        subChainCircular = true;
+                    }
+                }
+
+                if (nextMove.getDest().isProvinceEqual(firstMove.getSource())) {
+                    // we've found the move that completes the chain.
+                    isChainCircular = true;
+                }
+
+                nextMoveOS = findMoveFrom(nextMove.getDest().getProvince());
+            }
+
+
+            if (isChainCircular) {
+                if (chain.size() > 2) {
+                    // double-check: only chains of >= 3 moves; prevents head-to-head moves from being
+                    // flagged as circular, in the event of some sort of ajudicator error.
+                    chainCount++;
+
+                    // all moves in chain are part of a circle (last move -> first move)
+                    // set 'isCircular()' flags
+                    for (OrderState os : chain) {
+                        os.setCircular(true);
+                    }
+                } else if (chain.size() == 2) {
+                    // head-to-head moves (swaps) where one or both units are convoyed
+                    // are legitimate, however.
+                    boolean isSwap = false;
+
+                    for (OrderState os : chain) {
+                        Move move = (Move) os.getOrder();
+                        if (move.isConvoying()) {
+                            isSwap = true;
+                        }
+                    }
+
+                    if (isSwap) {
+                        chainCount++;
+
+                        for (OrderState os : chain) {
+                            os.setCircular(true);
+                        }
+                    }
+                }
+            }
+
+        }// while(iter)
+
+        return chainCount;
+    }// markCircularMoves()
+
+}// class ComponentAdjudicator
@@ -0,0 +1,159 @@
+//
+//  @(#)JFRMetricsListener.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.process;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Exports AdjudicationMetrics as Java Flight Recorder events.
+ * <p>
+ * One "info.jdip.Adjudication" event is committed per adjudication. Events
+ * are only recorded while a flight recording is in progress; otherwise
+ * this listener does very little work. To use:
+ * <pre>
+ *     AdjudicationMetricsRegistry.addListener(new JFRMetricsListener());
+ * </pre>
+ */
+public class JFRMetricsListener implements AdjudicationMetricsListener {
+
+    /**
+     * Create a JFRMetricsListener
+     */
+    public JFRMetricsListener() {
+    }// JFRMetricsListener()
+
+
+    /**
+     * Commit an AdjudicationEvent for the given metrics.
+     */
+    public void adjudicationCompleted(AdjudicationMetrics metrics) {
+        final AdjudicationEvent event = new AdjudicationEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        event.phase = String.valueOf(metrics.getPhase());
+        event.totalTime = metrics.getTotalNanos();
+        event.checkOrdersTime = metrics.getStageNanos(AdjudicationMetrics.Stage.CHECK_ORDERS);
+        event.validateOrdersTime = metrics.getStageNanos(AdjudicationMetrics.Stage.VALIDATE_ORDERS);
+        event.dependenciesTime = metrics.getStageNanos(AdjudicationMetrics.Stage.DEPENDENCIES);
+        event.verifyOrdersTime = metrics.getStageNanos(AdjudicationMetrics.Stage.VERIFY_ORDERS);
+        event.evaluationTime = metrics.getStageNanos(AdjudicationMetrics.Stage.EVALUATION);
+        event.paradoxBreakingTime = metrics.getStageNanos(AdjudicationMetrics.Stage.PARADOX_BREAKING);
+        event.createNextPositionTime = metrics.getStageNanos(AdjudicationMetrics.Stage.CREATE_NEXT_POSITION);
+        event.retreatCheckTime = metrics.getStageNanos(AdjudicationMetrics.Stage.RETREAT_CHECK);
+        event.adjustmentTime = metrics.getStageNanos(AdjudicationMetrics.Stage.ADJUSTMENT);
+        event.orderCount = metrics.getOrderCount();
+        event.components = metrics.getComponentCount();
+        event.iterations = metrics.getIterations();
+        event.orderEvaluations = metrics.getOrderEvaluations();
+        event.convoyPathSearches = metrics.getConvoyPathSearches();
+        event.paradoxes = metrics.getParadoxCount();
+        event.circularBreaks = metrics.getCircularBreaks();
+        event.szykmanApplications = metrics.getSzykmanApplications();
+        event.unresolvedParadox = metrics.isUnresolvedParadox();
+        event.commit();
+    }// adjudicationCompleted()
+
+
+    /**
+     * JFR event for a single adjudication.
+     */
+    @Name("info.jdip.Adjudication")
+    @Label("Adjudication")
+    @Category("jDip")
+    @Description("Timing and counts for a single adjudication")
+    static class AdjudicationEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Total Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long totalTime;
+
+        @Label("Check Orders")
+        @Timespan(Timespan.NANOSECONDS)
+        long checkOrdersTime;
+
+        @Label("Validate Orders")
+        @Timespan(Timespan.NANOSECONDS)
+        long validateOrdersTime;
+
+        @Label("Dependencies")
+        @Timespan(Timespan.NANOSECONDS)
+        long dependenciesTime;
+
+        @Label("Verify Orders")
+        @Timespan(Timespan.NANOSECONDS)
+        long verifyOrdersTime;
+
+        @Label("Evaluation")
+        @Timespan(Timespan.NANOSECONDS)
+        long evaluationTime;
+
+        @Label("Paradox Breaking")
+        @Timespan(Timespan.NANOSECONDS)
+        long paradoxBreakingTime;
+
+        @Label("Create Next Position")
+        @Timespan(Timespan.NANOSECONDS)
+        long createNextPositionTime;
+
+        @Label("Retreat Check")
+        @Timespan(Timespan.NANOSECONDS)
+        long retreatCheckTime;
+
+        @Label("Adjustment")
+        @Timespan(Timespan.NANOSECONDS)
+        long adjustmentTime;
+
+        @Label("Orders")
+        int orderCount;
+
+        @Label("Components")
+        int components;
+
+        @Label("Iterations")
+        int iterations;
+
+        @Label("Order Evaluations")
+        int orderEvaluations;
+
+        @Label("Convoy Path Searches")
+        int convoyPathSearches;
+
+        @Label("Paradoxes")
+        int paradoxes;
+
+        @Label("Circular Breaks")
+        int circularBreaks;
+
+        @Label("Szykman Applications")
+        int szykmanApplications;
+
+        @Label("Unresolved Paradox")
+        boolean unresolvedParadox;
+    }// inner class AdjudicationEvent
+
+}// class JFRMetricsListener
@@ -0,0 +1,232 @@
+//
+//  @(#)OrderComponents.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.process;
+
+import info.jdip.order.Convoy;
+import info.jdip.order.Move;
+import info.jdip.order.Order;
+import info.jdip.order.Support;
+import info.jdip.world.Coast;
+import info.jdip.world.Location;
+import info.jdip.world.Position;
+import info.jdip.world.Province;
+import info.jdip.world.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Partitions movement-phase orders into independent connected components.
+ * <p>
+ * Two orders are in the same component if they can affect each other's
+ * resolution. Every order links its source Province with the Provinces
+ * it refers to:
+ * <ul>
+ * <li>Move: the destination</li>
+ * <li>Support: the supported source and destination</li>
+ * <li>Convoy: the convoyed source and destination</li>
+ * <li>Army Move: every Fleet (in a Sea or convoyable coastal Province)
+ * reachable from the source via other such Fleets, since these may
+ * form a convoy route</li>
+ * </ul>
+ * If dependencies have been determined, the OrderState dependency arrays
+ * and head-to-head links are also used. Since every unit in a Province has
+ * exactly one OrderState, orders that are not linked (directly or
+ * indirectly) can be resolved independently of each other.
+ * <p>
+ * Components are returned in a deterministic order: sorted by the position
+ * of their first OrderState in the given array. OrderStates within a
+ * component retain their relative order.
+ */
+public final class OrderComponents {
+
+    /**
+     * No instances
+     */
+    private OrderComponents() {
+    }// OrderComponents()
+
+
+    /**
+     * Partition the given OrderStates into components. The OrderStates
+     * must all refer to units in the given Position.
+     */
+    public static OrderState[][] partition(OrderState[] orderStates, Position position) {
+        final int[] parent = createSets(position);
+
+        for (OrderState os : orderStates) {
+            link(parent, os, position);
+        }
+
+        return collect(parent, orderStates);
+    }// partition()
+
+
+    /**
+     * Returns the Provinces that the given Order is directly linked with,
+     * including its source Province. Dependencies are not considered.
+     */
+    public static Province[] getLinkedProvinces(Order order, Position position) {
+        final List<Province> list = new ArrayList<>(8);
+        list.add(order.getSource().getProvince());
+
+        if (order instanceof Move) {
+            final Move move = (Move) order;
+            list.add(move.getDest().getProvince());
+
+            if (move.getSourceUnitType() == Unit.Type.ARMY) {
+                addReachableFleets(list, order.getSource().getProvince(), position);
+            }
+        } else if (order instanceof Support) {
+            final Support support = (Support) order;
+            list.add(support.getSupportedSrc().getProvince());
+            if (support.getSupportedDest() != null) {
+                list.add(support.getSupportedDest().getProvince());
+            }
+        } else if (order instanceof Convoy) {
+            final Convoy convoy = (Convoy) order;
+            list.add(convoy.getConvoySrc().getProvince());
+            list.add(convoy.getConvoyDest().getProvince());
+        }
+
+        return list.toArray(new Province[list.size()]);
+    }// getLinkedProvinces()
+
+
+    /**
+     * Create the disjoint-set forest; one set per Province.
+     */
+    private static int[] createSets(Position position) {
+        final int[] parent = new int[position.getProvinces().length];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        return parent;
+    }// createSets()
+
+
+    /**
+     * Link an OrderState's source province with all related provinces.
+     */
+    private static void link(int[] parent, OrderState os, Position position) {
+        final int src = os.getSourceProvince().getIndex();
+
+        for (Province province : getLinkedProvinces(os.getOrder(), position)) {
+            union(parent, src, province.getIndex());
+        }
+
+        linkAll(parent, src, os.getDependentSupports());
+        linkAll(parent, src, os.getDependentSelfSupports());
+        linkAll(parent, src, os.getDependentMovesToSource());
+        linkAll(parent, src, os.getDependentMovesToDestination());
+
+        if (os.getHeadToHead() != null) {
+            union(parent, src, os.getHeadToHead().getSourceProvince().getIndex());
+        }
+    }// link()
+
+
+    /**
+     * Link the source province with the source of all given OrderStates.
+     */
+    private static void linkAll(int[] parent, int src, OrderState[] dependents) {
+        for (OrderState dependent : dependents) {
+            union(parent, src, dependent.getSourceProvince().getIndex());
+        }
+    }// linkAll()
+
+
+    /**
+     * Add all Provinces containing a Fleet, which are reachable from the
+     * given Province via a chain of convoyable Provinces containing Fleets.
+     */
+    private static void addReachableFleets(List<Province> list, Province src, Position position) {
+        final boolean[] visited = new boolean[position.getProvinces().length];
+        final List<Province> queue = new ArrayList<>(8);
+        queue.add(src);
+        visited[src.getIndex()] = true;
+
+        for (int i = 0; i < queue.size(); i++) {
+            for (Location loc : queue.get(i).getAdjacentLocations(Coast.TOUCHING)) {
+                final Province p = loc.getProvince();
+                if (!visited[p.getIndex()]
+                        && p.isConvoyable()
+                        && position.hasUnit(p, Unit.Type.FLEET)) {
+                    visited[p.getIndex()] = true;
+                    queue.add(p);
+                    list.add(p);
+                }
+            }
+        }
+    }// addReachableFleets()
+
+
+    /**
+     * Group OrderStates by the root of their source province's set.
+     */
+    private static OrderState[][] collect(int[] parent, OrderState[] orderStates) {
+        final int[] componentIndex = new int[parent.length];
+        Arrays.fill(componentIndex, -1);
+
+        final List<List<OrderState>> components = new ArrayList<>();
+        for (OrderState os : orderStates) {
+            final int root = find(parent, os.getSourceProvince().getIndex());
+            if (componentIndex[root] < 0) {
+                componentIndex[root] = components.size();
+                components.add(new ArrayList<>(4));
+            }
+            components.get(componentIndex[root]).add(os);
+        }
+
+        final OrderState[][] result = new OrderState[components.size()][];
+        for (int i = 0; i < result.length; i++) {
+            final List<OrderState> list = components.get(i);
+            result[i] = list.toArray(new OrderState[list.size()]);
+        }
+        return result;
+    }// collect()
+
+
+    /**
+     * Find the root of a set, with path halving.
+     */
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }// find()
+
+
+    /**
+     * Merge two sets. The smaller root becomes the parent.
+     */
+    private static void union(int[] parent, int a, int b) {
+        final int rootA = find(parent, a);
+        final int rootB = find(parent, b);
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        } else if (rootB < rootA) {
+            parent[rootA] = rootB;
+        }
+    }// union()
+
+}// class OrderComponents
@@ -112,6 +112,12 @@ public final class OrderState {
     private boolean foundConvoyPath = false;    // if move found a convoy path
     private boolean isVerified = false;            // has this order been verified() yet?
 
+    // adjudication trace; for diagnostics only
+    private int evaluations = 0;                // number of calls to evaluate()
+    private int decidedIteration = 0;            // iteration in which the order was decided; 0 if not
+    private int convoyPathSearches = 0;        // convoy path searches during verify() or evaluate()
+    private boolean isParadoxInvolved = false;    // undecided when a paradox was detected
+
 
     /**
      * Create an OrderState. This is protected, because only subclasses of
@@ -376,6 +382,62 @@ public final class OrderState {
         isVerified = value;
     }// setVerified()
 
+    /**
+     * Number of times the Order was evaluated during adjudication.
+     */
+    public int getEvaluationCount() {
+        return evaluations;
+    }// getEvaluationCount()
+
+    /**
+     * The evaluation iteration (starting at 1) in which the Order was decided
+     * (succeeded or failed); 0 if the Order was not decided by evaluation, e.g.,
+     * because evaluation was not required, or a paradox was broken.
+     */
+    public int getDecidedIteration() {
+        return decidedIteration;
+    }// getDecidedIteration()
+
+    /**
+     * Number of convoy path searches made while verifying or evaluating the Order.
+     * This includes searches made on behalf of other Orders that this Order depends upon.
+     */
+    public int getConvoyPathSearches() {
+        return convoyPathSearches;
+    }// getConvoyPathSearches()
+
+    /**
+     * True if the Order was undecided when a paradox was detected, and thus
+     * was subject to paradox resolution.
+     */
+    public boolean isParadoxInvolved() {
+        return isParadoxInvolved;
+    }// isParadoxInvolved()
+
+    /**
+     * Record an evaluation, in the given iteration.
+     */
+    void recordEvaluation(int iteration) {
+        evaluations++;
+        if (decidedIteration == 0 && evalState != Tristate.UNCERTAIN) {
+            decidedIteration = iteration;
+        }
+    }// recordEvaluation()
+
+    /**
+     * Record convoy path searches.
+     */
+    void addConvoyPathSearches(int value) {
+        convoyPathSearches += value;
+    }// addConvoyPathSearches()
+
+    /**
+     * Set if the Order was undecided when a paradox was detected.
+     */
+    void setParadoxInvolved(boolean value) {
+        isParadoxInvolved = value;
+    }// setParadoxInvolved()
+
     /**
      * Gets the dependent Support orders for this order
      */
@@ -33,7 +33,7 @@ import info.jdip.world.TurnState;
 import info.jdip.world.World;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -52,12 +52,24 @@ import java.util.List;
  * unsuccesful Moves)
  * </ul>
  * <p>
+ * The move results are indexed by Province: for each destination, the source
+ * of the (non-convoyed) dislodging move, and the number of moves that failed
+ * there (a standoff, if 2 or more). Checking a retreat is thus proportional to
+ * the number of adjacent locations. The index of a TurnState's results is kept
+ * by the TurnState (see TurnState.getRetreatTable()), and shared by all
+ * RetreatCheckers for the following phase.
+ * <p>
  * Should be threadsafe.
  */
 public class RetreatChecker {
+    // Move result flags
+    private static final int FLAG_SUCCESS = 1;
+    private static final int FLAG_CONVOYED = 2;
+    private static final int FLAG_INVALID = 4;
+
     // instance variables
     private final Position position;
-    private final ArrayList<RCMoveResult> filteredMoveResults;
+    private final RetreatTable table;
 
     /**
      * Create a RetreatChecker.
@@ -67,24 +79,21 @@ public class RetreatChecker {
      * first TurnState (this can happen if the game is edited), it is allowed.
      */
     public RetreatChecker(TurnState current) {
-        List<Result> results = null;
-
         TurnState last = current.getWorld().getPreviousTurnState(current);
         if (last == null) {
             // if we are the very first TurnState, last==null is permissable,
             // but we must take special action to make it work
             World w = current.getWorld();
             if (w.getInitialTurnState() == current) {
-                results = new ArrayList<>();
+                this.table = new RetreatTable(new ArrayList<>());
             } else {
                 throw new IllegalStateException("No Previous Turn State!!");
             }
         } else {
-            results = last.getResultList();
+            this.table = last.getRetreatTable();
         }
 
         this.position = current.getPosition();
-        this.filteredMoveResults = makeFMRList(results);
     }// RetreatChecker()
 
 
@@ -100,7 +109,7 @@ public class RetreatChecker {
         }
 
         this.position = current.getPosition();
-        this.filteredMoveResults = makeFMRList(previousTurnStateResults);
+        this.table = new RetreatTable(previousTurnStateResults);
     }// RetreatChecker()
 
 
@@ -109,10 +118,10 @@ public class RetreatChecker {
      * the Location <code>to</code>
      */
     public boolean isValid(Location from, Location to) {
-        Location[] validLocs = getValidLocations(from);
-        for (Location validLoc : validLocs) {
-            if (validLoc.equals(to)) {
-                return true;
+        Location[] adjacent = from.getProvince().getAdjacentLocations(from.getCoast());
+        for (Location location : adjacent) {
+            if (location.equals(to)) {
+                return isRetreatable(from, location);
             }
         }
 
@@ -131,10 +140,7 @@ public class RetreatChecker {
         Location[] adjacent = from.getProvince().getAdjacentLocations(from.getCoast());
 
         for (Location location : adjacent) {
-            if (!position.hasUnit(location.getProvince())
-                    && !isDislodgersSpace(from, location)
-                    && !isContestedSpace(location)
-                    && !location.getProvince().isImpassable()) {
+            if (isRetreatable(from, location)) {
                 retreatLocations.add(location);
             }
         }
@@ -150,10 +156,7 @@ public class RetreatChecker {
         Location[] adjacent = from.getProvince().getAdjacentLocations(from.getCoast());
 
         for (Location location : adjacent) {
-            if (!position.hasUnit(location.getProvince())
-                    && !isDislodgersSpace(from, location)
-                    && !isContestedSpace(location)
-                    && !location.getProvince().isImpassable()) {
+            if (isRetreatable(from, location)) {
                 return true;
             }
         }
@@ -163,178 +166,123 @@ public class RetreatChecker {
 
 
     /**
-     * Returns <code>true</code> if the space is unoccupied,
-     * and their exists a <b>successful</b> move order from
-     * that space which dislodged the unit.
-     * <b>
-     *
-     * @param dislodgedLoc The location with the dislodged unit
-     * @param loc          The unoccupied location which we are checking
-     * @return <code>true</code> if Move from <code>loc</code>
-     * dislodged <code>dislodgedLoc</code>
+     * Returns true if the dislodged unit in <code>from</code> may retreat to
+     * the adjacent Location <code>location</code>.
      */
-    private boolean isDislodgersSpace(Location dislodgedLoc, Location loc) {
-        for (RCMoveResult filteredMoveResult : filteredMoveResults) {
-            // note: dislodgedLoc is the potential move destination
-            if (filteredMoveResult.isDislodger(loc, dislodgedLoc)) {
-                return true;
-            }
-        }
-
-        return false;
-    }// isDislodgersSpace()
-
-
-    /**
-     * Returns true if a standoff has occured;
-     * A standoff exists if:
-     * <ol>
-     * <li>no unit in space (essential!)</li>
-     * <li>2 or more <b>legal ("valid")</b> failed move orders exist
-     * with dest of space</li>
-     * </ol>
-     */
-    private boolean isContestedSpace(Location loc) {
-        if (position.hasUnit(loc.getProvince())) {
-            return false;
-        }
-
-        int moveCount = 0;
-
-        for (RCMoveResult rcmr : filteredMoveResults) {
-
-            if (rcmr.isPossibleStandoff(loc)) {
-                moveCount++;
-            }
-        }
-
-        return (moveCount >= 2);
-    }// isContestedSpace()
+    private boolean isRetreatable(Location from, Location location) {
+        final Province province = location.getProvince();
+        return !position.hasUnit(province)
+                && !table.isDislodgersSpace(from.getProvince(), province)
+                && !table.isContestedSpace(province)
+                && !province.isImpassable();
+    }// isRetreatable()
 
 
     /**
-     * Generate a List of (only) Move orders; when checking multiple
-     * retreats this is a performance gain.
+     * RetreatTable indexes the Move results of a turn by Province. It is
+     * created from all OrderResults involving Move orders; each Move may have
+     * several results (e.g., CONVOY_PATH_TAKEN and SUCCESS).
      * <p>
-     * The filtered Move results consist of going through all OrderResults
-     * looking for those involving Move orders. For each Move order, we
-     * generate one RCMoveResult object, which holds the pertinent information
-     * about that Move order.
-     */
-    private ArrayList<RCMoveResult> makeFMRList(List<Result> turnStateResults) {
-        ArrayList<RCMoveResult> mrList = new ArrayList<>(64);
-        HashMap<Province, RCMoveResult> map = new HashMap<>(119);    // key: move source province; value: RCMoveResult
-
-        for (Result obj : turnStateResults) {
-            if (obj instanceof OrderResult) {
-                OrderResult or = (OrderResult) obj;
-                Orderable order = or.getOrder();
-                if (order instanceof Move) {
-                    // see if we have an entry for this Move; if so,
-                    // set options; if not, create an entry.
-                    // This avoids duplicate entries per Move.
-                    //
-                    RCMoveResult rcmr = map.get(order.getSource().getProvince());
-                    if (rcmr == null) {
-                        rcmr = new RCMoveResult(or);
-                        map.put(order.getSource().getProvince(), rcmr);
-                        mrList.add(rcmr);
-                    } else {
-                        rcmr.setOptions(or);
-                    }
-                }
-            }
-        }
-
-        map.clear();    // no longer needed
-
-        return mrList;
-    }// makeFMRList()
-
-
-    /**
-     * RCMoveResult holds information about a Move order, as generated
-     * from an OrderResult.
+     * A RetreatTable is immutable once created. It is obtained from
+     * TurnState.getRetreatTable(); its contents are only used by RetreatChecker.
      */
-    private class RCMoveResult {
-        private final Move move;
-        private boolean isSuccess = false;
-        private boolean isByConvoy = false;
-        private boolean isValid = true;
+    public static final class RetreatTable {
+        private final List<Result> results;
+        private final int resultCount;
+        // by destination province index: the source of a successful, non-convoyed Move
+        private final Province[] dislodgerSources;
+        // by destination province index: the number of valid, unsuccessful Moves
+        private final int[] standoffCounts;
 
         /**
-         * Create an RCMoveResult. Assumes that the passed
-         * OrderResult refers to a Move order. Sets any options
-         * for the OrderResult.
+         * Create a RetreatTable from the given results.
          */
-        public RCMoveResult(OrderResult or) {
-            move = (Move) or.getOrder();
-            setOptions(or);
-        }// RCMoveResult()
-
-        /**
-         * Given an OrderResult, checks to see if the success
-         * or convoy flags can be set. If the passed OrderResult
-         * does NOT refer to the same Move (via referential
-         * equality), an exception is thrown.
-         */
-        public final void setOptions(OrderResult or) {
-            if (or.getOrder() != move) {
-                throw new IllegalArgumentException();
+        public RetreatTable(List<Result> results) {
+            this.results = results;
+            this.resultCount = results.size();
+
+            // first, combine the results for each Move. Moves are indexed by
+            // source province; there must be only one Move per source.
+            Move[] moves = new Move[16];
+            int[] flags = new int[16];
+            int maxIndex = -1;
+
+            for (Result obj : results) {
+                if (obj instanceof OrderResult) {
+                    OrderResult or = (OrderResult) obj;
+                    Orderable order = or.getOrder();
+                    if (order instanceof Move) {
+                        final Move move = (Move) order;
+                        final int idx = move.getSource().getProvince().getIndex();
+                        if (idx >= moves.length) {
+                            final int length = Math.max(idx + 1, moves.length * 2);
+                            moves = Arrays.copyOf(moves, length);
+                            flags = Arrays.copyOf(flags, length);
+                        }
+
+                        if (moves[idx] == null) {
+                            moves[idx] = move;
+                            maxIndex = Math.max(maxIndex, Math.max(idx, move.getDest().getProvince().getIndex()));
+                        } else if (moves[idx] != move) {
+                            throw new IllegalArgumentException();
+                        }
+
+                        if (or.getResultType() == OrderResult.ResultType.CONVOY_PATH_TAKEN) {
+                            flags[idx] |= FLAG_CONVOYED;
+                        } else if (or.getResultType() == OrderResult.ResultType.SUCCESS) {
+                            flags[idx] |= FLAG_SUCCESS;
+                        } else if (or.getResultType() == OrderResult.ResultType.VALIDATION_FAILURE) {
+                            flags[idx] |= FLAG_INVALID;
+                        }
+                    }
+                }
             }
 
-            if (or.getResultType() == OrderResult.ResultType.CONVOY_PATH_TAKEN) {
-                isByConvoy = true;
-            } else if (or.getResultType() == OrderResult.ResultType.SUCCESS) {
-                isSuccess = true;
-            } else if (or.getResultType() == OrderResult.ResultType.VALIDATION_FAILURE) {
-                isValid = false;
+            // then, index by destination
+            dislodgerSources = new Province[maxIndex + 1];
+            standoffCounts = new int[maxIndex + 1];
+            for (int i = 0; i < moves.length; i++) {
+                final Move move = moves[i];
+                if (move != null) {
+                    final int destIdx = move.getDest().getProvince().getIndex();
+                    if ((flags[i] & FLAG_SUCCESS) != 0) {
+                        // a convoyed dislodger does not prevent retreat to its source (DATC 16-dec-03 4.A.5)
+                        if ((flags[i] & FLAG_CONVOYED) == 0) {
+                            dislodgerSources[destIdx] = move.getSource().getProvince();
+                        }
+                    } else if ((flags[i] & FLAG_INVALID) == 0) {
+                        standoffCounts[destIdx]++;
+                    }
+                }
             }
-        }// setOptions()
+        }// RetreatTable()
 
         /**
-         * Successful?
+         * True if this table was created from the given List, and it has not changed size.
          */
-        public boolean isSuccess() {
-            return isSuccess;
-        }
+        public boolean isFor(List<Result> list) {
+            return (list == results && list.size() == resultCount);
+        }// isFor()
 
         /**
-         * Is this move a potentially vying for a potential standoff?
-         * <p>
-         * This will return true iff:
-         * (1) Destination *province* of Move matchest given location
-         * (2) Move is NOT successful
-         * (3) Move is NOT invalid (i.e., no VALIDATION_FAILURE result)
+         * Returns <code>true</code> if there exists a <b>successful</b>, non-convoyed
+         * Move order from <code>province</code> which dislodged the unit in
+         * <code>dislodgedProvince</code>.
          */
-        public boolean isPossibleStandoff(Location loc) {
-            return
-                    (
-                            isValid
-                                    && !isSuccess
-                                    && move.getDest().isProvinceEqual(loc)
-                    );
-        }// isPossibleStandoff()
-
+        boolean isDislodgersSpace(Province dislodgedProvince, Province province) {
+            final int idx = dislodgedProvince.getIndex();
+            return (idx < dislodgerSources.length && dislodgerSources[idx] == province);
+        }// isDislodgersSpace()
 
         /**
-         * Is this move a potentially dislodging move?
-         * This will return true iff:
-         * (1) src and dest match;
-         * (2) successful
-         * (3) NOT convoyed (DATC 16-dec-03 4.A.5)
+         * Returns true if a standoff has occured; that is, 2 or more
+         * <b>legal ("valid")</b> failed move orders exist with the given
+         * destination. The caller must check that the province is unoccupied.
          */
-        public boolean isDislodger(Location src, Location dest) {
-            return
-                    (
-                            isSuccess
-                                    && !isByConvoy
-                                    && move.getSource().isProvinceEqual(src)
-                                    && move.getDest().isProvinceEqual(dest)
-                    );
-        }// isDislodger()
-
-    }// inner class RCMoveResult
-
+        boolean isContestedSpace(Province province) {
+            final int idx = province.getIndex();
+            return (idx < standoffCounts.length && standoffCounts[idx] >= 2);
+        }// isContestedSpace()
+    }// nested class RetreatTable
 
 }// class RetreatChecker
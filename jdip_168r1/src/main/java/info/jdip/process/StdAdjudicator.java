@@ -22,9 +22,7 @@
 //
 package info.jdip.process;
 
-import info.jdip.misc.Utils;
 import info.jdip.order.Build;
-import info.jdip.order.Convoy;
 import info.jdip.order.Disband;
 import info.jdip.order.Hold;
 import info.jdip.order.Move;
@@ -51,6 +49,7 @@ import info.jdip.world.Phase;
 import info.jdip.world.Position;
 import info.jdip.world.Power;
 import info.jdip.world.Province;
+import info.jdip.world.ProvinceSet;
 import info.jdip.world.RuleOptions;
 import info.jdip.world.TurnState;
 import info.jdip.world.Unit;
@@ -59,7 +58,6 @@ import info.jdip.world.World;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -68,6 +66,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * StdAjudicator is adjudicates all phases of a typical game, using
@@ -83,10 +82,6 @@ public class StdAdjudicator implements Adjudicator {
     private static final String STDADJ_DUP_ORDER = "STDADJ_DUP_ORDER";
     private static final String STDADJ_MV_NO_UNIT = "STDADJ_MV_NO_UNIT";
     private static final String STDADJ_MV_NO_ORDER = "STDADJ_MV_NO_ORDER";
-    private static final String STDADJ_MV_BAD = "STDADJ_MV_BAD";
-    private static final String STDADJ_MV_UNRESOLVED_PARADOX = "STDADJ_MV_UNRESOLVED_PARADOX";
-    private static final String STDADJ_MV_SZYKMAN_NOTICE = "STDADJ_MV_SZYKMAN_NOTICE";
-    private static final String STDADJ_MV_SZYKMAN_MOVE_FAILED = "STDADJ_MV_SZYKMAN_MOVE_FAILED";
     private static final String STDADJ_MV_UNIT_DESTROYED = "STDADJ_MV_UNIT_DESTROYED";
     private static final String STDADJ_MV_PHASE_ADV_ALL_DESTROYED = "STDADJ_MV_PHASE_ADV_ALL_DESTROYED";
     private static final String STDADJ_RET_BAD_UNIT = "STDADJ_RET_BAD_UNIT";
@@ -117,8 +112,6 @@ public class StdAdjudicator implements Adjudicator {
     // messageformat statics [for performance enhancement]
     // these are complex Choice formats
     // ?? will this be threadsafe ??
-    private static final MessageFormat MFRemove = new MessageFormat(Utils.getLocalString(STDADJ_PREADJ_TOREMOVE));
-    private static final MessageFormat MFBuild = new MessageFormat(Utils.getLocalString(STDADJ_PREADJ_TOBUILD));
     private static final OrderFormatOptions DEFAULT_OFO = OrderFormatOptions.createDefault();
 
     // instance variables
@@ -132,12 +125,13 @@ public class StdAdjudicator implements Adjudicator {
     private final ArrayList<OrderState> substOrders;
     private OrderFormatOptions orderFormat = DEFAULT_OFO;
     private OrderState[] orderStates = null;
+    private ComponentAdjudicator resolver = null;
+    private ForkJoinPool forkJoinPool = null;
     private boolean isUnRezParadox = false;
-    private int paradoxBreakAttempt = 0;
-    private int szykmanAppliedCount = 0;
     private boolean statReporting = false;
     private boolean isPOCEnabled = false;
     private TurnState nextTurnState = null;
+    private AdjudicationMetrics metrics = null;
 
     /**
      * Create a Adjudicator for the Standard rules, that will evaluate all Orders
@@ -161,9 +155,13 @@ public class StdAdjudicator implements Adjudicator {
      */
     public void process() {
         Phase.PhaseType pt = turnState.getPhase().getPhaseType();
+        metrics = new AdjudicationMetrics(turnState.getPhase());
+        final long startTime = System.nanoTime();
 
         if (isPOCEnabled) {
+            long time = System.nanoTime();
             checkOrders();
+            metrics.addStageNanos(AdjudicationMetrics.Stage.CHECK_ORDERS, System.nanoTime() - time);
         }
 
         if (pt == Phase.PhaseType.MOVEMENT) {
@@ -171,14 +169,34 @@ public class StdAdjudicator implements Adjudicator {
         } else if (pt == Phase.PhaseType.RETREAT) {
             adjudicateRetreats();
         } else if (pt == Phase.PhaseType.ADJUSTMENT) {
+            long time = System.nanoTime();
             adjudicateAdjustment();
+            recordStage(AdjudicationMetrics.Stage.ADJUSTMENT, time);
         } else {
             // we could use an assertion here...
             throw new IllegalStateException("cannot adjudicate phase: " + pt);
         }
+
+        // index the results, for the reports and order display that follow
+        turnState.getResultIndex();
+
+        metrics.setTotalNanos(System.nanoTime() - startTime);
+        metrics.setOrderCount((orderStates == null) ? 0 : orderStates.length);
+        metrics.setUnresolvedParadox(isUnresolvedParadox());
+        logger.debug("Adjudication metrics: {}", metrics);
+        AdjudicationMetricsRegistry.publish(metrics);
     }// process()
 
 
+    /**
+     * Get the metrics (timing and counts) for the current or last call to
+     * process(). Returns null if process() has not been called.
+     */
+    public AdjudicationMetrics getMetrics() {
+        return metrics;
+    }// getMetrics()
+
+
     /**
      * Sets the order formatting options
      */
@@ -208,6 +226,18 @@ public class StdAdjudicator implements Adjudicator {
         isPOCEnabled = value;
     }// setPowerOrderChecking()
 
+    /**
+     * If a pool is set, independent components of movement-phase orders
+     * (see OrderComponents) are evaluated in parallel using the given pool.
+     * If null (the default), all orders are evaluated together.
+     * <p>
+     * Order outcomes and results are the same either way, but when evaluated
+     * in parallel, the results of each iteration are grouped by component.
+     */
+    public void setParallelResolution(ForkJoinPool pool) {
+        forkJoinPool = pool;
+    }// setParallelResolution()
+
     /**
      * Get all OrderStates
      */
@@ -317,6 +347,14 @@ public class StdAdjudicator implements Adjudicator {
     }// addResult()
 
 
+    /**
+     * Add a localized Result to the result list
+     */
+    public final void addLocalizedResult(OrderState os, ResultType type, String key, Object... args) {
+        resultList.add(OrderResult.createLocalized(os.getOrder(), type, key, args));
+    }// addLocalizedResult()
+
+
     /**
      * Checks that each Power's List of orders contains
      * orders from that Power. If it does not, the
@@ -340,8 +378,7 @@ public class StdAdjudicator implements Adjudicator {
                     // create an informative result
                     // {0} power, {1} order (formatted)
                     String orderText = order.toFormattedString(orderFormat);
-                    addResult(new Result(Utils.getLocalString(
-                            STDADJ_POWER_ORDER_LIST_CORRUPT, power, orderText)));
+                    addResult(Result.createLocalized(null, STDADJ_POWER_ORDER_LIST_CORRUPT, power, orderText));
                 }
             }
         }
@@ -372,15 +409,15 @@ public class StdAdjudicator implements Adjudicator {
             if (position.hasUnit(province)) {
                 OrderState oldOS = osMap.get(province);
                 if (oldOS != null) {
-                    addResult(new OrderResult(oldOS.getOrder(),
-                            Utils.getLocalString(STDADJ_DUP_ORDER, os.getOrder())));
+                    addResult(OrderResult.createLocalized(oldOS.getOrder(), ResultType.TEXT,
+                            STDADJ_DUP_ORDER, os.getOrder()));
                     osList.remove(oldOS);    // we don't want duplicates in osList
                 }
 
                 osMap.put(province, os);
                 osList.add(os);
             } else {
-                addResult(new OrderResult(order, Utils.getLocalString(STDADJ_MV_NO_UNIT)));
+                addResult(OrderResult.createLocalized(order, ResultType.TEXT, STDADJ_MV_NO_UNIT));
             }
         }
 
@@ -388,22 +425,21 @@ public class StdAdjudicator implements Adjudicator {
         // step 2:
         // ensure that each unit has a corresponding OrderState. If a unit has no corresponding
         // OrderState, an OrderState with a Hold order is used.
-        Province[] unitList = position.getUnitProvinces();
-        for (Province province : unitList) {
+        for (Province province : position.getUnitProvinceSet()) {
             if (osMap.containsKey(province)) {
                 continue;
             }
             Unit unit = position.getUnit(province);
-            Hold hold = orderFactory.createHold(unit.getPower(), new Location(province, unit.getCoast()), unit.getType());
+            Hold hold = orderFactory.createHold(unit.getPower(), province.getLocation(unit.getCoast()), unit.getType());
             OrderState os = new OrderState(hold);
             osList.add(os);
             osMap.put(os.getSourceProvince(), os);
 
             // create a result detailing our creation of a new order.
-            addResult(new SubstitutedResult(
+            addResult(SubstitutedResult.createLocalized(
                     null,
                     hold,
-                    Utils.getLocalString(STDADJ_MV_NO_ORDER, province)));
+                    STDADJ_MV_NO_ORDER, province));
         }
 
         // set OrderStates from our temporary list
@@ -413,13 +449,15 @@ public class StdAdjudicator implements Adjudicator {
         assert (orderStates.length == osMap.size());
 
         // step 3: perform a complete validation of all orders
-        validateOrders();
+        resolver = new ComponentAdjudicator(orderFactory, turnState, orderStates,
+                osMap, resultList, substOrders, metrics);
+        long time = System.nanoTime();
+        resolver.validateOrders();
+        time = recordStage(AdjudicationMetrics.Stage.VALIDATE_ORDERS, time);
 
         // step 4: calculate dependencies
-        for (OrderState os : orderStates) {
-            Order order = os.getOrder();
-            order.determineDependencies(this);
-        }
+        resolver.determineDependencies();
+        time = recordStage(AdjudicationMetrics.Stage.DEPENDENCIES, time);
 
 
         // step 5: Order verification / automatic failures
@@ -452,40 +490,34 @@ public class StdAdjudicator implements Adjudicator {
 			
 		*/
         verifyOrders();
+        recordStage(AdjudicationMetrics.Stage.VERIFY_ORDERS, time);
 
 
         // step 6:
-        // count the total number of moves and total number of non-move orders.
-        // NEVER count invalid moves.
-        int totalMoves = 0;
-        int totalNonMoves = 0;
-
+        // determine if we have any move orders. If we have no move orders,
+        // we have nothing to evaluate and we cannot have any dislodged units.
+        boolean hasMoves = false;
         for (OrderState os : orderStates) {
             if (os.getOrder() instanceof Move) {
-                totalMoves++;
-            } else {
-                totalNonMoves++;
+                hasMoves = true;
+                break;
             }
         }
 
-        logger.debug("Moves to evaluate: {}, Non-moves to evaluate: {}", totalMoves, totalNonMoves);
-
-
-        // if we have no move orders, we have nothing to evaluate
-        // and we cannot have any dislodged units.
         boolean areAnyUnitsDislodged = false;
-        if (totalMoves > 0) {
+        if (hasMoves) {
             // Step 7:
             // evaluate all orders, until evaluation is complete OR
             // until we cannot break paradoxes any more (!)
-            boolean evaluationComplete = false;
-            while (!evaluationComplete) {
-                evaluationComplete = evaluateOrders(totalMoves, totalNonMoves);
-                evaluationComplete |= !canBreakParadox();
+            if (forkJoinPool == null) {
+                resolver.evaluate();
+                isUnRezParadox = resolver.isUnresolvedParadox();
+            } else {
+                evaluateComponents();
             }
 
             // Step 8:
-            areAnyUnitsDislodged = createDislodgedResults();
+            areAnyUnitsDislodged = resolver.createDislodgedResults();
         }
 
         // Step 9:
@@ -494,15 +526,7 @@ public class StdAdjudicator implements Adjudicator {
         // successfully gets a success result.
         //
         // CHANGE [5/03]: dislodged units cannot be successful
-        for (OrderState os : orderStates) {
-            if (os.getEvalState() == Tristate.UNCERTAIN) {
-                os.setEvalState(os.getDislodgedState() == Tristate.YES ? Tristate.FAILURE : Tristate.SUCCESS);
-            }
-
-            if (os.getEvalState() == Tristate.SUCCESS) {
-                addResult(os, ResultType.SUCCESS, null);
-            }
-        }
+        resolver.createSuccessResults();
 
         // report statistics, if enabled
         if (statReporting) {
@@ -515,7 +539,7 @@ public class StdAdjudicator implements Adjudicator {
         Phase oldPhase = turnState.getPhase();
         Phase nextPhase = oldPhase.getNext();
         if (!areAnyUnitsDislodged && nextPhase.getPhaseType() == Phase.PhaseType.RETREAT) {
-            addResult(new Result(Utils.getLocalString(STDADJ_SKIP_RETREAT)));
+            addResult(Result.createLocalized(null, STDADJ_SKIP_RETREAT));
             nextPhase = nextPhase.getNext();
         }
 
@@ -532,7 +556,9 @@ public class StdAdjudicator implements Adjudicator {
         nextTurnState.setPosition(nextPosition);
         nextTurnState.setWorld(turnState.getWorld());
 
+        time = System.nanoTime();
         nextPosition = createNextPosition(nextPosition);
+        time = recordStage(AdjudicationMetrics.Stage.CREATE_NEXT_POSITION, time);
 
         // Step 12a:
         // Set supply center ownership, if we are approaching an ADJUSTMENT.
@@ -558,6 +584,7 @@ public class StdAdjudicator implements Adjudicator {
             nextTurnState.setEnded(true);
             nextTurnState.setResolved(true);
 
+            recordStage(AdjudicationMetrics.Stage.ADJUSTMENT, time);
             return;
         }
 
@@ -565,6 +592,7 @@ public class StdAdjudicator implements Adjudicator {
         // If the next phase is an adjustment phase, and there are no adjustments to make,
         // then skip it.
         checkAdjustmentPhase();
+        time = recordStage(AdjudicationMetrics.Stage.ADJUSTMENT, time);
 
         // Step 13:
         // in cases where there are dislodged units, but the dislodged units have
@@ -575,6 +603,7 @@ public class StdAdjudicator implements Adjudicator {
         //
         if (areAnyUnitsDislodged) {
             checkDislodgedUnits(nextTurnState, nextPosition);
+            recordStage(AdjudicationMetrics.Stage.RETREAT_CHECK, time);
         }
 
         // Timestamp: Adjudication completed.
@@ -583,86 +612,49 @@ public class StdAdjudicator implements Adjudicator {
     }// adjudicateMoves()
 
     /**
-     * step 3: perform a complete validation of all orders
+     * Partition the orders into independent components, and evaluate the
+     * components in parallel. Each iteration is performed by all components
+     * at once; paradoxes are then detected and broken over all orders, as
+     * they are when evaluating serially, so the outcome is the same.
+     * <p>
+     * As when evaluating serially, the resolver records evaluation and
+     * paradox breaking times; the time taken to partition the orders and
+     * set up the components is added to EVALUATION time.
      */
-    private void validateOrders() {
-        ValidationOptions valOpts = new ValidationOptions();
-        valOpts.setOption(ValidationOptions.KEY_GLOBAL_PARSING, ValidationOptions.VALUE_GLOBAL_PARSING_STRICT);
-
-        for (OrderState os : orderStates) {
-            Order order = os.getOrder();
-
-            // validate order (Strict, No warnings)
-            try {
-                order.validate(turnState, valOpts, ruleOpts);
-            } catch (OrderWarning ow) {
-                // just in case we didn't turn off all warnings; do nothing
-            } catch (OrderException oe) {
-                // If the order failed validation, create a VALIDATION_FAILURE result.
-                // Then, replace the OrderState order with a Hold order. This prevents
-                // the adjudicator from using (or even knowing about) the invalid order
-                //
-                addResult(os, ResultType.VALIDATION_FAILURE,
-                        Utils.getLocalString(STDADJ_MV_BAD,
-                                oe.getMessage()));
-
-                Hold hold = orderFactory.createHold(order.getPower(), order.getSource(),
-                        order.getSourceUnitType());
+    private void evaluateComponents() {
+        final long time = System.nanoTime();
+        final OrderState[][] components = OrderComponents.partition(orderStates, position);
+        metrics.setComponentCount(components.length);
+        logger.debug("Evaluating {} components in parallel", components.length);
+
+        final List<ComponentAdjudicator> adjudicators = new ArrayList<>(components.length);
+        for (OrderState[] component : components) {
+            adjudicators.add(new ComponentAdjudicator(orderFactory, turnState,
+                    component, osMap, new ArrayList<>(component.length * 2), substOrders,
+                    new AdjudicationMetrics(turnState.getPhase())));
+        }
+        recordStage(AdjudicationMetrics.Stage.EVALUATION, time);
 
-                addResult(new SubstitutedResult(order, hold, null));
-                os.setOrder(hold);
+        resolver.evaluate(adjudicators, forkJoinPool);
+        isUnRezParadox = resolver.isUnresolvedParadox();
 
-                // add old (subtituted) order to substituted order list
-                OrderState substOS = new OrderState(order);
-                substOS.setLegal(false);
-                substOrders.add(substOS);
-            }
+        // merge counts made during component evaluation
+        for (ComponentAdjudicator adjudicator : adjudicators) {
+            metrics.merge(adjudicator.getMetrics());
         }
-    }
+    }// evaluateComponents()
+
 
     /**
-     * Step 8:
-     * a) convert 'maybe' dislodged to 'yes' disloged
-     * b) create 'dislodged' result
-     * c) any 'dislodged' with 'uncertain' evaluation ==> failure / dislodged
-     * d) if power isn't active (e.g., Italy in a 6-player game), and
-     *    its unit is dislodged, it will be automatically disbanded (later)
-     * e) set flag indicating if any units are dislodged
+     * Add the time elapsed since startTime to the given Stage;
+     * returns the current time.
      */
-    private boolean createDislodgedResults() {
-        boolean areAnyUnitsDislodged = false;
-        for (OrderState os : orderStates) {
-            // convert maybe->certain
-            if (os.getDislodgedState() == Tristate.MAYBE) {
-                logger.debug("dislodged: maybe -> yes: {}", os.getOrder());
-
-                os.setDislodgedState(Tristate.YES);
-
-                if (os.getEvalState() == Tristate.UNCERTAIN) {
-                    os.setEvalState(Tristate.FAILURE);
-                    //addResult(os, ResultType.FAILURE, null);
-                    addDislodgedResult(os);
-                } else if (os.getEvalState() == Tristate.FAILURE) {
-                    // we were dislodged, probably by another unit, not the
-                    // unit that caused the failure (see bug #952038)
-                    // So, we need to create a dislodged result, in addition
-                    // to setting the DislodgedState flag.
-                    //
-                    addDislodgedResult(os);
-                }
-            }
+    private long recordStage(AdjudicationMetrics.Stage stage, long startTime) {
+        final long now = System.nanoTime();
+        metrics.addStageNanos(stage, now - startTime);
+        return now;
+    }// recordStage()
 
-            // ensure all dislodged units have a dislodged result (needed to process
-            // Order.evalute() methods can create dislodged results if they are
-            //    certain a unit was dislodged.
-            // inactive powers will have their units disbanded, during step 12
-            // (creating the next turnstate).
-            if (os.getDislodgedState() == Tristate.YES && os.getPower().isActive()) {
-                areAnyUnitsDislodged = true;
-            }
-        }
-        return areAnyUnitsDislodged;
-    }
 
     /**
      * All units that have moved, are moved. All units that have been dislodged, are dislodged.
@@ -688,8 +680,8 @@ public class StdAdjudicator implements Adjudicator {
                 } else {
                     // notify the power of what happened.
                     //
-                    addResult(new OrderResult(os.getOrder(),
-                            Utils.getLocalString(STDADJ_INACTIVE_POWER_DISLODGED)));
+                    addResult(OrderResult.createLocalized(os.getOrder(), ResultType.TEXT,
+                            STDADJ_INACTIVE_POWER_DISLODGED));
                 }
             } else if (order instanceof Move
                     && os.getEvalState() == Tristate.SUCCESS) {
@@ -723,15 +715,15 @@ public class StdAdjudicator implements Adjudicator {
         for (Province prov : provinces) {
             Unit unit = nextPosition.getDislodgedUnit(prov);
             if (unit != null) {
-                if (rc.hasRetreats(new Location(prov, unit.getCoast()))) {
+                if (rc.hasRetreats(prov.getLocation(unit.getCoast()))) {
                     areAllDestroyed = false;
                 } else {
                     // destroy the unit
                     nextPosition.setDislodgedUnit(prov, null);
 
                     // create unit destroyed message
-                    addResult(new Result(unit.getPower(),
-                            Utils.getLocalString(STDADJ_MV_UNIT_DESTROYED, unit.getType().getFullName(), prov)));
+                    addResult(Result.createLocalized(unit.getPower(),
+                            STDADJ_MV_UNIT_DESTROYED, unit.getType().getFullName(), prov));
                 }
             }
         }
@@ -740,7 +732,7 @@ public class StdAdjudicator implements Adjudicator {
             // advance phase by 1. Inform players why.
             Phase p = nextTurnState.getPhase().getNext();
             nextTurnState.setPhase(p);
-            addResult(new Result(null, Utils.getLocalString(STDADJ_MV_PHASE_ADV_ALL_DESTROYED)));
+            addResult(Result.createLocalized(null, STDADJ_MV_PHASE_ADV_ALL_DESTROYED));
 
             // If it's an ADJUSTMENT incoming, we need to set SC owners
             if (nextTurnState.getPhase().getPhaseType() == Phase.PhaseType.ADJUSTMENT)
@@ -790,81 +782,6 @@ public class StdAdjudicator implements Adjudicator {
     }// getNextTurnState()
 
 
-    /**
-     * Calls order.evaluate() for each order
-     * performs multiple iterations, until all *move* orders are evaluated.
-     * when all move orders have been evaluated, returns 'true'.
-     * <p>
-     * HOWEVER, if a paradox is detected, 'false' is returned.
-     * <p>
-     * paradox detection:
-     * <ol>
-     * <li>must supply INITIAL # of move orders / non-move orders to this method</li>
-     * <li>each iteration:
-     * <ol>
-     * <li># of move orders evaluated is determined</li>
-     * <li># of non-move orders evaluated is determined</li>
-     * <li>if # of move orders AND # of non-move orders are
-     * both NOT increasing, we have a paradox.</li>
-     * </ol>
-     * </li>
-     * </ol>
-     * 'invalid' move orders are never ever counted!!
-     */
-    private boolean evaluateOrders(final int totalMoveOrderCount, final int totalNonMoveOrderCount) {
-        int lastNumMovesEvaluated = 0;
-        int lastNumNonMovesEvaluated = 0;
-        int iterations = 0;
-
-        do {
-            int nMovesEvaluated = 0;
-            int nNonMovesEvaluated = 0;
-
-            // for logging statistics only:
-            iterations++;
-
-            for (OrderState os : orderStates) {
-                // evaluate each order
-                os.getOrder().evaluate(this);
-
-                // determine how many orders are evaluated
-                if (os.getEvalState() != Tristate.UNCERTAIN) {
-                    if (os.getOrder() instanceof Move) {
-                        nMovesEvaluated++;
-                    } else {
-                        nNonMovesEvaluated++;
-                    }
-                }
-            }
-
-            // check for paradox
-            // NOTE: if totalMoveOrderCount == 0, we cannot have a paradox.
-            //
-            if (totalMoveOrderCount > 0
-                    && nMovesEvaluated <= lastNumMovesEvaluated
-                    && nNonMovesEvaluated <= lastNumNonMovesEvaluated) {
-                logger.warn("Paradox detected (nMovesEvaluated: {}, lastNumMovesEvaluated: {}, nNonMovesEvaluated: {}, lastNumNonMovesEvaluated: {})",
-                        nMovesEvaluated,
-                        lastNumMovesEvaluated,
-                        nNonMovesEvaluated,
-                        lastNumNonMovesEvaluated
-                );
-
-                return false;
-            }
-
-            logger.debug("Iteration: {}", iterations);
-            logger.debug("Orders: {} of {} (non-move) evaluated", nNonMovesEvaluated, totalNonMoveOrderCount);
-            logger.debug("Move orders: {} of {} evaluated", nMovesEvaluated, totalMoveOrderCount);
-
-            // set last evaluated, so next iteration can be compared.
-            lastNumMovesEvaluated = nMovesEvaluated;
-            lastNumNonMovesEvaluated = nNonMovesEvaluated;
-
-        } while (lastNumMovesEvaluated < totalMoveOrderCount);
-
-        return true;
-    }// evaluateOrders()
 
 
     /**
@@ -876,123 +793,9 @@ public class StdAdjudicator implements Adjudicator {
     }// isUnresolvedParadox()
 
 
-    /**
-     * Returns true if we have a method to attempt to break a paradox.
-     * returns false if we have no further paradox-breaking ideas.
-     * <p>
-     * This method must keep track of (through the class) which
-     * methods to break paradoxes have already been tried.
-     * <p>
-     * The algorithm, currently, is simple. First, we look for
-     * circular movement paradoxes, and attempt to re-resolve.
-     * <p>
-     * If paradox(es) remain, we attempt to apply the Szykman rule
-     * to break the paradox, until we succeed or still have a paradox.
-     * <p>
-     * If a paradox remain even after multiple applications of the
-     * Szykman rule, we return <code>false</code> and add a result
-     * indicating we have an unresolved paradox.
-     */
-    private boolean canBreakParadox() {
-        paradoxBreakAttempt++;
-        assert (paradoxBreakAttempt >= 1);
-
-        // prevent infinite loop.....
-        if (szykmanAppliedCount > 10) {
-            addResult(new Result(null,
-                    Utils.getLocalString(STDADJ_MV_UNRESOLVED_PARADOX, paradoxBreakAttempt)));
-
-            logger.debug("paradox: order status:");
-            for (OrderState os : orderStates) {
-                logger.debug(">{} {} ", os.getOrder(), os.getEvalState());
-            }
-
-            isUnRezParadox = true;
-            return false;
-        }
-
-
-        if (paradoxBreakAttempt == 1) {
-            breakCircularParadox();
-            return true;
-        } else {
-            // try szykman
-            szykmanAppliedCount++;
-            breakParadoxSzykman();
-            return true;
-        }
-    }// canBreakParadox()
-
-
-    /**
-     * Attempts to break a Circular Movement (this includes swaps)
-     * paradoxes. Note that this will break any chain of circular
-     * movements, where n >= 2.
-     */
-    private void breakCircularParadox() {
-        final int nCircular = markCircularMoves();
-        logger.info("Circular chains found: {}", nCircular);
-
-        if (nCircular > 0) {
-            for (OrderState os : orderStates) {
-                if (os.getEvalState() == Tristate.UNCERTAIN
-                        && os.isCircular()) {
-                    os.setEvalState(Tristate.SUCCESS);
-                }
-            }
-        }
-    }// breakCircularParadox()
-
-
-    /**
-     * Implements the Szykman Rule to break paradoxes.
-     * <p>
-     * "If a situation arises in which an army's convoy order results in a paradoxical adjudication,
-     * the moves of all involved convoying armies fail and have no effect on the place where they
-     * were ordered to convoy." This rule was proposed by Simon Szykman in a discussion with
-     * Manus Hand in the Diplomatic Pouch Zine (1999, Fall Retreat). (DATC, section III)
-     * <p>
-     * Algorithm:
-     * <ol>
-     * <li>find all move orders, that are convoyed, and have an Uncertain resolve state.
-     * <li>if this move order has any unresolved convoy orders, move fails.
-     * </ol>
-     * <p>
-     * <pre>
-     * 	BUG WARNING: perhaps we should just cause moves to fail for those moves which have the
-     * 				 fewest # of unresolved convoy orders; then re-evaluate, and attempt to
-     * 				 break paradox again if it occurs again (using next fewest # of unresolved
-     * 				 convoy orders).
-     * 	</pre>
-     */
-    private void breakParadoxSzykman() {
-        addResult(new Result(null, Utils.getLocalString(STDADJ_MV_SZYKMAN_NOTICE)));
-        logger.trace("Applying Szykman Rule to break paradox.");
-
-        for (OrderState os : orderStates) {
-            if (os.getEvalState() == Tristate.UNCERTAIN
-                    && os.getOrder() instanceof Move) {
-                Move move = (Move) os.getOrder();
 
-                if (!move.isConvoying()) {
-                    continue;
-                }
-                logger.debug("Checking move: {}", move);
 
-                for (OrderState itos : getConvoyList(move)) {
 
-                    logger.debug("Convoy: {}, evalState: {}", itos.getOrder(), itos.getEvalState());
-                    if (itos.getEvalState() == Tristate.UNCERTAIN) {
-                        logger.info("*** Szykman rule applied to this move!!!");
-                        os.setEvalState(Tristate.FAILURE);
-                        addResult(os, ResultType.FAILURE, Utils.getLocalString(STDADJ_MV_SZYKMAN_MOVE_FAILED));
-                        break;
-                    }
-                }
-            }
-        }
-        logger.trace("Finished with Szykman Rule.");
-    }
 
 
     /**
@@ -1001,37 +804,7 @@ public class StdAdjudicator implements Adjudicator {
      * so that dependencies are minimized.
      */
     protected void verifyOrders() {
-        logger.trace( "verifying orders...");
-        int nRemainingToVerify = orderStates.length;
-        int nLastVerified = 1;    // reset in while() loop
-
-        while (nRemainingToVerify > 0 && nLastVerified > 0) {
-            nLastVerified = 0;
-            nRemainingToVerify = orderStates.length;
-
-            for (final OrderState os : orderStates) {
-                if (!os.isVerified()) {
-                    os.getOrder().verify(this);
-                    if (os.isVerified()) {
-                        nRemainingToVerify--;
-                        nLastVerified++;
-                    }
-                } else {
-                    // because the verify() method could call the verify() method
-                    // of other orders
-                    nRemainingToVerify--;
-                }
-            }
-        }
-
-        // detect condition where all orders did not verify.
-        // this is an error.
-        if (nRemainingToVerify > 0) {
-            logger.error("StdAdjudicator: incomplete verification. Orders remaining to verify: {}, Orders last verified: {}",
-                    nRemainingToVerify, nLastVerified);
-
-            throw new IllegalStateException("Verification Error");
-        }
+        resolver.verifyOrders();
     }// verifyOrders()
 
 
@@ -1056,15 +829,15 @@ public class StdAdjudicator implements Adjudicator {
             if (position.hasDislodgedUnit(province)) {
                 OrderState oldOS = osMap.get(province);
                 if (oldOS != null) {
-                    addResult(new OrderResult(oldOS.getOrder(),
-                            Utils.getLocalString(STDADJ_DUP_ORDER, os.getOrder())));
+                    addResult(OrderResult.createLocalized(oldOS.getOrder(), ResultType.TEXT,
+                            STDADJ_DUP_ORDER, os.getOrder()));
                     osList.remove(oldOS);    // we don't want duplicates in osList
                 }
 
                 osMap.put(province, os);
                 osList.add(os);
             } else {
-                addResult(new OrderResult(order, Utils.getLocalString(STDADJ_RET_BAD_UNIT)));
+                addResult(OrderResult.createLocalized(order, ResultType.TEXT, STDADJ_RET_BAD_UNIT));
             }
         }
 
@@ -1072,14 +845,13 @@ public class StdAdjudicator implements Adjudicator {
         // step 2:
         // ensure that each unit now has a corresponding OrderState. If a unit has no corresponding
         // OrderState, an OrderState with a Disband order is used.
-        Province[] dislodgedUnitProvs = position.getDislodgedUnitProvinces();
-        for (Province province : dislodgedUnitProvs) {
+        for (Province province : position.getDislodgedUnitProvinceSet()) {
             if (!osMap.containsKey(province)) {
                 Unit unit = position.getDislodgedUnit(province);
-                Disband disband = orderFactory.createDisband(unit.getPower(), new Location(province, unit.getCoast()), unit.getType());
+                Disband disband = orderFactory.createDisband(unit.getPower(), province.getLocation(unit.getCoast()), unit.getType());
                 OrderState os = new OrderState(disband);
-                addResult(new Result(unit.getPower(),
-                        Utils.getLocalString(STDADJ_RET_NO_ORDER, province)));
+                addResult(Result.createLocalized(unit.getPower(),
+                        STDADJ_RET_NO_ORDER, province));
 
                 osList.add(os);
                 osMap.put(os.getSourceProvince(), os);
@@ -1088,12 +860,15 @@ public class StdAdjudicator implements Adjudicator {
 
         // set OrderStates from our temporary list
         orderStates = osList.toArray(new OrderState[osList.size()]);
+        resolver = new ComponentAdjudicator(orderFactory, turnState, orderStates,
+                osMap, resultList, substOrders, metrics);
 
         // integrity check: osList && osMap should have the same number of entries.
         assert (orderStates.length == osMap.size());
 
         // step 3: perform a complete validation of all orders
         // use the most strict validation options
+        long time = System.nanoTime();
         ValidationOptions valOpts = new ValidationOptions();
         valOpts.setOption(ValidationOptions.KEY_GLOBAL_PARSING, ValidationOptions.VALUE_GLOBAL_PARSING_STRICT);
 
@@ -1106,11 +881,12 @@ public class StdAdjudicator implements Adjudicator {
                 // just in case we didn't turn off all warnings; do nothing
             } catch (OrderException oe) {
                 // all illegal orders are changed to Disband orders
-                addResult(os, ResultType.VALIDATION_FAILURE,
-                        Utils.getLocalString(STDADJ_RET_VAL_FAIL, oe.getMessage()));
+                addLocalizedResult(os, ResultType.VALIDATION_FAILURE,
+                        STDADJ_RET_VAL_FAIL, oe.getMessage());
                 os.setOrder(orderFactory.createDisband(order.getPower(), order.getSource(), order.getSourceUnitType()));
             }
         }
+        time = recordStage(AdjudicationMetrics.Stage.VALIDATE_ORDERS, time);
 
 
         // step 4: calculate dependencies
@@ -1118,10 +894,12 @@ public class StdAdjudicator implements Adjudicator {
             Order order = os.getOrder();
             order.determineDependencies(this);
         }
+        time = recordStage(AdjudicationMetrics.Stage.DEPENDENCIES, time);
 
 
         // step 5: Order verification / automatic failures
         verifyOrders();
+        recordStage(AdjudicationMetrics.Stage.VERIFY_ORDERS, time);
 
         // step 6:
         // count the total number of moves (retreats) and total number of non-move orders.
@@ -1141,9 +919,11 @@ public class StdAdjudicator implements Adjudicator {
 
         // evaluate the orders in a loop. There should NOT be a paradox here.
         //
-        if (!evaluateOrders(totalMoves, totalNonMoves)) {
+        time = System.nanoTime();
+        if (!resolver.evaluateOrders(totalMoves, totalNonMoves)) {
             throw new IllegalStateException("ERROR: retreat paradox detected");
         }
+        recordStage(AdjudicationMetrics.Stage.EVALUATION, time);
 
 
         // Step 7:
@@ -1163,6 +943,7 @@ public class StdAdjudicator implements Adjudicator {
         // All dislodged units that retreat successfully, are moved, and the supply-center
         // 		ownership changes if appropriate.
         //
+        time = System.nanoTime();
         Position nextPosition = null;
         nextPosition = position.cloneExceptDislodged();
         nextTurnState = new TurnState(turnState.getPhase().getNext());
@@ -1188,6 +969,7 @@ public class StdAdjudicator implements Adjudicator {
                 logger.info("Moved: unit from {} to {}.", os.getSourceProvince(), destProvince);
             }
         }
+        recordStage(AdjudicationMetrics.Stage.CREATE_NEXT_POSITION, time);
 
         // Step 10:
         // Set supply center ownership, if we are in the FALL season.
@@ -1291,16 +1073,16 @@ public class StdAdjudicator implements Adjudicator {
                 boolean validOrder = true;
 
                 if (order instanceof Remove && adjAmount > 0) {
-                    addResult(new OrderResult(order, Utils.getLocalString(STDADJ_ADJ_IGNORED_MUST_BUILD)));
+                    addResult(OrderResult.createLocalized(order, ResultType.TEXT, STDADJ_ADJ_IGNORED_MUST_BUILD));
                     validOrder = false;
                 } else if (order instanceof Build && adjAmount < 0) {
-                    addResult(new OrderResult(order, Utils.getLocalString(STDADJ_ADJ_IGNORED_MUST_REMOVE)));
+                    addResult(OrderResult.createLocalized(order, ResultType.TEXT, STDADJ_ADJ_IGNORED_MUST_REMOVE));
                     validOrder = false;
                 } else if (adjAmount == 0) {
-                    addResult(new OrderResult(order, Utils.getLocalString(STDADJ_ADJ_IGNORED_NO_CHANGE)));
+                    addResult(OrderResult.createLocalized(order, ResultType.TEXT, STDADJ_ADJ_IGNORED_NO_CHANGE));
                     validOrder = false;
                 } else if (orderCount >= Math.abs(adjAmount)) {
-                    addResult(new OrderResult(order, Utils.getLocalString(STDADJ_ADJ_IGNORED_TOO_MANY)));
+                    addResult(OrderResult.createLocalized(order, ResultType.TEXT, STDADJ_ADJ_IGNORED_TOO_MANY));
                     validOrder = false;
                 }
                 if (!validOrder) {
@@ -1319,23 +1101,22 @@ public class StdAdjudicator implements Adjudicator {
                     } else {
                         // duplicate or duplicate for space; we already have
                         // a valid order.
-                        addResult(new OrderResult(order, ResultType.FAILURE,
-                                Utils.getLocalString(STDADJ_ADJ_IGNORED_DUPLICATE,
-                                        order.getSource().getProvince())));
+                        addResult(OrderResult.createLocalized(order, ResultType.FAILURE,
+                                STDADJ_ADJ_IGNORED_DUPLICATE, order.getSource().getProvince()));
                     }
                 } catch (OrderWarning ow) {
                     // just in case we didn't turn off all warnings; do nothing
                 } catch (OrderException oe) {
-                    addResult(new OrderResult(order, ResultType.VALIDATION_FAILURE,
-                            Utils.getLocalString(STDADJ_ADJ_IGNORED_INVALID, oe.getMessage())));
+                    addResult(OrderResult.createLocalized(order, ResultType.VALIDATION_FAILURE,
+                            STDADJ_ADJ_IGNORED_INVALID, oe.getMessage()));
                 }
             }// while(orders-for-power)
 
             // it is legal for a power to not use all the build orders, but if that occurs,
             // a result indicating that some builds were unused is created
             if (ai.getAdjustmentAmount() > 0 && orderCount < ai.getAdjustmentAmount()) {
-                addResult(new Result(power,
-                        Utils.getLocalString(STDADJ_ADJ_BUILDS_UNUSED, adjAmount - orderCount)));
+                addResult(Result.createLocalized(power,
+                        STDADJ_ADJ_BUILDS_UNUSED, adjAmount - orderCount));
             }
 
             // While builds are optional (they may be waived), removes are not.
@@ -1346,7 +1127,7 @@ public class StdAdjudicator implements Adjudicator {
             // clear the list when done
             int ordersToMake = adjAmount + orderCount;
             if (ordersToMake < 0) {
-                addResult(new Result(power, Utils.getLocalString(STDADJ_ADJ_TOO_FEW_DISBANDS)));
+                addResult(Result.createLocalized(power, STDADJ_ADJ_TOO_FEW_DISBANDS));
                 createRemoveOrders(osList, power, Math.abs(ordersToMake));
             }
         }// for(power)
@@ -1460,7 +1241,7 @@ public class StdAdjudicator implements Adjudicator {
             // check for player elimination
             if (ai.getSupplyCenterCount() == 0) {
                 nextPosition.setEliminated(power, true);
-                addResult(new Result(power, Utils.getLocalString(STDADJ_ADJ_ELIMINATED, power.getName())));
+                addResult(Result.createLocalized(power, STDADJ_ADJ_ELIMINATED, power.getName()));
             }
         }
 
@@ -1502,12 +1283,12 @@ public class StdAdjudicator implements Adjudicator {
         // find home supply centers for power
         // this depends upon the rule settings: if it's not VALUE_BUILDS_HOME_ONLY (typical)
         // then *all* owned supply centers are considered.
-        Province[] homeSupplyCenters = null;
+        ProvinceSet homeSupplyCenters = null;
         RuleOptions.OptionValue buildOpt = ruleOpts.getOptionValue(RuleOptions.OPTION_BUILDS);
         if (buildOpt == RuleOptions.VALUE_BUILDS_HOME_ONLY) {
-            homeSupplyCenters = position.getHomeSupplyCenters(power);
+            homeSupplyCenters = position.getHomeSupplyCenterSet(power);
         } else {
-            homeSupplyCenters = position.getOwnedSupplyCenters(power);
+            homeSupplyCenters = position.getOwnedSupplyCenterSet(power);
         }
 
         assert (homeSupplyCenters != null);
@@ -1525,10 +1306,15 @@ public class StdAdjudicator implements Adjudicator {
 
                 OrderState os = findOrderStateBySrc(province);
                 if (os == null && unit.getPower().equals(power)) {
+                    // distance to the nearest home supply center; -1 if any
+                    // home supply center cannot be reached from the unit.
                     int hsDist = 9999;
                     for (Province homeSupplyCenter : homeSupplyCenters) {
                         final int d = path.getMinDistance(province, homeSupplyCenter);
                         hsDist = (d < hsDist) ? d : hsDist;
+                        if (hsDist < 0) {
+                            break;
+                        }
                     }
 
                     if (hsDist > maxDist) {
@@ -1542,7 +1328,7 @@ public class StdAdjudicator implements Adjudicator {
             }
 
             if (ties.isEmpty()) {
-                addResult(new Result(power, Utils.getLocalString(STDADJ_ADJ_NO_MORE_DISBANDS)));
+                addResult(Result.createLocalized(power, STDADJ_ADJ_NO_MORE_DISBANDS));
                 return;    // exit if no more units!!
             }
             // complex case, DPTG compliant.
@@ -1578,12 +1364,12 @@ public class StdAdjudicator implements Adjudicator {
      */
     private void createDisbandOrder(List<OrderState> osList, Province province) {
         Unit unit = position.getUnit(province);
-        Remove remove = orderFactory.createRemove(unit.getPower(), new Location(province, unit.getCoast()), unit.getType());
+        Remove remove = orderFactory.createRemove(unit.getPower(), province.getLocation(unit.getCoast()), unit.getType());
         OrderState os = new OrderState(remove);
         osMap.put(province, os);
         osList.add(os);
-        addResult(new Result(unit.getPower(),
-                Utils.getLocalString(STDADJ_ADJ_DISBAND_ORDER, unit.getType().getFullName(), province)));
+        addResult(Result.createLocalized(unit.getPower(),
+                STDADJ_ADJ_DISBAND_ORDER, unit.getType().getFullName(), province));
     }// createDisbandOrder()
 
 
@@ -1635,7 +1421,6 @@ public class StdAdjudicator implements Adjudicator {
     private void checkAdjustmentPhase() {
         if (nextTurnState.getPhase().getPhaseType() == Phase.PhaseType.ADJUSTMENT) {
             boolean canSkipAdjustment = true;
-            Object[] args = new Object[1];
 
             Power[] powers = world.getMap().getPowers();
             for (Power power : powers) {
@@ -1647,25 +1432,26 @@ public class StdAdjudicator implements Adjudicator {
 
                     // write adjustment results
                     // NOTE: it's difficult to believe, but 1/3 of the time (more, before
-                    // the patterns we cached as statics) of checkAdjustmentPhase() was spent
-                    // in MessageFormat. (MFRemove/MFBuild).
+                    // the patterns were cached) of checkAdjustmentPhase() was spent
+                    // in MessageFormat. Messages are now only formatted when needed,
+                    // using the cached patterns in Utils.
                     //
                     // using String.valueOf() instead of new Integer() results in a MASSIVE
                     // speed improvment.
                     if (adjAmount < 0) {
-                        args[0] = String.valueOf(-adjAmount);    // 'abs'
-                        addResult(new Result(power, MFRemove.format(args)));
+                        addResult(Result.createLocalized(power, STDADJ_PREADJ_TOREMOVE,
+                                String.valueOf(-adjAmount)));    // 'abs'
                     } else if (adjAmount > 0) {
-                        args[0] = String.valueOf(adjAmount);
-                        addResult(new Result(power, MFBuild.format(args)));
+                        addResult(Result.createLocalized(power, STDADJ_PREADJ_TOBUILD,
+                                String.valueOf(adjAmount)));
                     } else {
-                        addResult(new Result(power, Utils.getLocalString(STDADJ_PREADJ_TONEITHER)));
+                        addResult(Result.createLocalized(power, STDADJ_PREADJ_TONEITHER));
                     }
                 }
             }
 
             if (canSkipAdjustment) {
-                addResult(new Result(Utils.getLocalString(STDADJ_SKIP_ADJUSTMENT)));
+                addResult(Result.createLocalized(null, STDADJ_SKIP_ADJUSTMENT));
 
                 // we RE-set the phase in nextTurnState.
                 Phase p = nextTurnState.getPhase().getNext();
@@ -1711,20 +1497,6 @@ public class StdAdjudicator implements Adjudicator {
         return null;
     }// findMove()
 
-    /**
-     * Find the OrderState for a Move originating from the given Province
-     */
-    private OrderState findMoveFrom(Province src) {
-        for (OrderState os : orderStates) {
-            Order order = os.getOrder();
-            if (order instanceof Move
-                    && order.getSource().isProvinceEqual(src)) {
-                return os;
-            }
-        }
-
-        return null;
-    }// findMoveFrom()
 
     /**
      * Returns a list of all orderStates for this power.
@@ -1742,141 +1514,7 @@ public class StdAdjudicator implements Adjudicator {
     }// findOrderStatesForPower()
 
 
-    /**
-     * Returns a List of all OrderStates representing Convoy
-     * orders for the given Move order
-     */
-    private List<OrderState> getConvoyList(Move move) {
-        ArrayList<OrderState> list = new ArrayList<>(8);
-
-        for (OrderState os : orderStates) {
-            if (os.getOrder() instanceof Convoy) {
-                Convoy convoy = (Convoy) os.getOrder();
-                if (convoy.getConvoySrc().isProvinceEqual(move.getSource())
-                        && convoy.getConvoyDest().isProvinceEqual(move.getDest())) {
-                    list.add(os);
-                }
-            }
-        }
-
-        return list;
-    }// getConvoyList()
-
-    /**
-     * Given an unresolved move A-B, check if it is in a 'string' of
-     * unresolved moves. If so, set the isCircular() flag on them.
-     * <p>
-     * if we have found ANY circular moves, return true.
-     * note: a circular move is defined as:
-     * <ul>
-     * <li>a chain of moves >= 3
-     * <li>a chain of moves >= 2, where at least one
-     * of the moves is convoyed (isByConvoy())
-     * </ul>
-     * <p>
-     * returns # of circular *chains* that have been marked
-     * >=0
-     *
-     * <p>
-     * TODO: 	this code is sortof hackish; should be simplified; we should
-     * do a findMoveFrom() to match only within movesToCheck, and if
-     * a circle is found, move should be removed from movesToCheck list.
-     */
-    private int markCircularMoves() {
-        List<OrderState> movesToCheck = new LinkedList<>();
-        LinkedList<OrderState> chain = new LinkedList<>();    // we'll be using this as a Stack; it will be cleared if chain is not complete.
-        boolean isChainCircular = false;        // 'true' if chain contains a list of circular moves.
-        int chainCount = 0;
-
-        // step 1: get list of moves to check. Note that circular moves can only include
-        // valid, UNCERTAIN moves, that haven't already been marked as circular
-        for (OrderState os : orderStates) {
-            if (os.getEvalState() == Tristate.UNCERTAIN
-                    && !os.isCircular()
-                    && os.getOrder() instanceof Move) {
-                movesToCheck.add(os);
-            }
-        }
-
-
-        // step 2: check each move in list for cicularity chains. If multiple chains
-        // exist, we will find them in a single pass
-        for (OrderState moveOS : movesToCheck) {
-            chain.clear();
-            isChainCircular = false;
-
-            if (moveOS.isCircular()) {
-                continue;
-            }
-            Move firstMove = (Move) moveOS.getOrder();
-
-            chain.addLast(moveOS);
-            OrderState nextMoveOS = findMoveFrom(firstMove.getDest().getProvince());
-
-            boolean subChainCircular = false;
-
-            while (nextMoveOS != null && !isChainCircular && !subChainCircular) {
-                if (nextMoveOS.isCircular()) {
-                    break;    // can't have intersecting circles!
-                }
-                chain.addLast(nextMoveOS);
-
-                Move nextMove = (Move) nextMoveOS.getOrder();
-
-                // Uwe Plonus: This is a dirty hack to let the test case 6.e.4 pass
-                for (OrderState nm : chain) {
-                    if (nextMove.getDest().isProvinceEqual(nm.getSource())) {
-                        // we've found the move that completes the (sub-)chain.
-                        subChainCircular = true;
-                    }
-                }
-
-                if (nextMove.getDest().isProvinceEqual(firstMove.getSource())) {
-                    // we've found the move that completes the chain.
-                    isChainCircular = true;
-                }
-
-                nextMoveOS = findMoveFrom(nextMove.getDest().getProvince());
-            }
-
-
-            if (isChainCircular) {
-                if (chain.size() > 2) {
-                    // double-check: only chains of >= 3 moves; prevents head-to-head moves from being
-                    // flagged as circular, in the event of some sort of ajudicator error.
-                    chainCount++;
-
-                    // all moves in chain are part of a circle (last move -> first move)
-                    // set 'isCircular()' flags
-                    for (OrderState os : chain) {
-                        os.setCircular(true);
-                    }
-                } else if (chain.size() == 2) {
-                    // head-to-head moves (swaps) where one or both units are convoyed
-                    // are legitimate, however.
-                    boolean isSwap = false;
-
-                    for (OrderState os : chain) {
-                        Move move = (Move) os.getOrder();
-                        if (move.isConvoying()) {
-                            isSwap = true;
-                        }
-                    }
-
-                    if (isSwap) {
-                        chainCount++;
-
-                        for (OrderState os : chain) {
-                            os.setCircular(true);
-                        }
-                    }
-                }
-            }
-
-        }// while(iter)
 
-        return chainCount;
-    }// markCircularMoves()
 
 
 }// class StandardAdjudicator
@@ -0,0 +1,202 @@
+//
+//  @(#)AdjacencyTable.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.world;
+
+/**
+ * The adjacency data of all Provinces of a Map, compiled into arrays.
+ * <p>
+ * Rows are indexed by (Province index, Coast index). For each row, the
+ * adjacent Locations are kept in compressed-sparse-row form (the Province
+ * and Coast indices of each adjacent Location, in the order given by the
+ * variant), and as a ProvinceSet of the adjacent Provinces. Province-level
+ * adjacency is thus a single bit test. ProvinceSets are also kept for each
+ * Unit.Type: armies use land adjacency, fleets the union of all sea coasts,
+ * and wings 'touching' adjacency.
+ * <p>
+ * An AdjacencyTable is created by the Map, once Province adjacency data is
+ * complete, and is immutable.
+ */
+public final class AdjacencyTable {
+    // the number of Coast indices (see Coast.getCoast(int))
+    private static final int NUM_COASTS = 8;
+
+    private final Province[] provinces;
+    private final Location[][] locations;       // by row
+    private final int[] offsets;                // by row; CSR row start (length: rows+1)
+    private final int[] adjProvinces;           // CSR: adjacent Province index
+    private final int[] adjCoasts;              // CSR: adjacent Coast index
+    private final ProvinceSet[] adjacent;       // by row
+    private final ProvinceSet[] armyAdjacent;   // by Province
+    private final ProvinceSet[] fleetAdjacent;  // by Province
+
+
+    /**
+     * Compile the adjacency data of the given Provinces, which must be all the
+     * Provinces of a Map, in index order.
+     */
+    AdjacencyTable(Province[] provinces) {
+        this.provinces = provinces;
+
+        final int rows = provinces.length * NUM_COASTS;
+        locations = new Location[rows][];
+        offsets = new int[rows + 1];
+
+        int total = 0;
+        for (Province province : provinces) {
+            final Province.Adjacency adjacency = province.getAdjacency();
+            for (int c = 0; c < NUM_COASTS; c++) {
+                final int row = row(province.getIndex(), c);
+                locations[row] = getShared(adjacency.getLocations(Coast.getCoast(c)));
+                offsets[row] = total;
+                total += locations[row].length;
+            }
+        }
+        offsets[rows] = total;
+
+        adjProvinces = new int[total];
+        adjCoasts = new int[total];
+        adjacent = new ProvinceSet[rows];
+        for (int row = 0; row < rows; row++) {
+            final ProvinceSet set = new ProvinceSet(provinces, true);
+            int n = offsets[row];
+            for (Location location : locations[row]) {
+                adjProvinces[n] = location.getProvince().getIndex();
+                adjCoasts[n] = location.getCoast().getIndex();
+                set.set(adjProvinces[n]);
+                n++;
+            }
+            adjacent[row] = set;
+        }
+
+        armyAdjacent = new ProvinceSet[provinces.length];
+        fleetAdjacent = new ProvinceSet[provinces.length];
+        for (int i = 0; i < provinces.length; i++) {
+            armyAdjacent[i] = adjacent[row(i, Coast.LAND.getIndex())];
+
+            final ProvinceSet set = new ProvinceSet(provinces, true);
+            for (Coast coast : Coast.ANY_SEA) {
+                final ProvinceSet sea = adjacent[row(i, coast.getIndex())];
+                for (int idx = sea.nextIndex(0); idx >= 0; idx = sea.nextIndex(idx + 1)) {
+                    set.set(idx);
+                }
+            }
+            fleetAdjacent[i] = set;
+        }
+    }// AdjacencyTable()
+
+
+    /**
+     * The Locations adjacent to the given Province and Coast; a
+     * zero-length array if there are none. Locations are the shared
+     * instances (see Map.getLocation()).
+     */
+    public Location[] getAdjacentLocations(Province src, Coast coast) {
+        return locations[row(src.getIndex(), coast.getIndex())];
+    }// getAdjacentLocations()
+
+    /**
+     * The Provinces adjacent to the given Province and Coast. The set is read-only.
+     */
+    public ProvinceSet getAdjacentProvinces(Province src, Coast coast) {
+        return adjacent[row(src.getIndex(), coast.getIndex())];
+    }// getAdjacentProvinces()
+
+    /**
+     * The Provinces to which a unit of the given type in the given Province
+     * is adjacent. Wings and undefined unit types use 'touching' adjacency.
+     * The set is read-only.
+     */
+    public ProvinceSet getAdjacentProvinces(Province src, Unit.Type unitType) {
+        if (unitType == Unit.Type.ARMY) {
+            return armyAdjacent[src.getIndex()];
+        } else if (unitType == Unit.Type.FLEET) {
+            return fleetAdjacent[src.getIndex()];
+        }
+
+        return adjacent[row(src.getIndex(), Coast.TOUCHING.getIndex())];
+    }// getAdjacentProvinces()
+
+    /**
+     * True if dest is adjacent to the given Province and Coast.
+     */
+    public boolean isAdjacent(Province src, Coast coast, Province dest) {
+        return contains(adjacent[row(src.getIndex(), coast.getIndex())], dest);
+    }// isAdjacent()
+
+    /**
+     * True if the Location dest (Province and Coast) is adjacent to the
+     * given Province and Coast.
+     */
+    public boolean isAdjacent(Province src, Coast coast, Location dest) {
+        final int row = row(src.getIndex(), coast.getIndex());
+        if (contains(adjacent[row], dest.getProvince())) {
+            final int provIdx = dest.getProvince().getIndex();
+            final int coastIdx = dest.getCoast().getIndex();
+            for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+                if (adjProvinces[i] == provIdx && adjCoasts[i] == coastIdx) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }// isAdjacent()
+
+    /**
+     * True if the Provinces are adjacent by any coast.
+     */
+    public boolean isTouching(Province src, Province dest) {
+        return contains(adjacent[row(src.getIndex(), Coast.TOUCHING.getIndex())], dest);
+    }// isTouching()
+
+
+    /**
+     * A copy of the given Locations, using the shared Location instances of
+     * Provinces in this Map. Empty arrays are returned as-is: Province coast
+     * queries distinguish Location.EMPTY (no adjacency data) from an empty
+     * array given by the variant.
+     */
+    private Location[] getShared(Location[] locs) {
+        if (locs.length == 0) {
+            return locs;
+        }
+
+        final Location[] shared = new Location[locs.length];
+        for (int i = 0; i < locs.length; i++) {
+            final Province province = locs[i].getProvince();
+            final int idx = province.getIndex();
+            shared[i] = (idx < provinces.length && provinces[idx] == province)
+                    ? province.getLocation(locs[i].getCoast()) : locs[i];
+        }
+        return shared;
+    }// getShared()
+
+    /**
+     * Bit test; the Province must also be equal to the one of this Map
+     * with the same index.
+     */
+    private boolean contains(ProvinceSet set, Province province) {
+        return set.contains(province) && provinces[province.getIndex()].equals(province);
+    }// contains()
+
+    private static int row(int provinceIndex, int coastIndex) {
+        return (provinceIndex * NUM_COASTS) + coastIndex;
+    }// row()
+
+}// class AdjacencyTable
@@ -421,83 +421,121 @@ public class Border implements Serializable {
      * Null arguments are not permitted.
      */
     public boolean canTransit(Location fromLoc, Unit.Type unit, Phase phase, Class<?> orderClass) {
-        // check from
         // we only apply criteria if 'from' was not specified, or
         // from was specified, and it matches.
+        // only return 'false' if EVERYTHING has failed, or,
+        // nothing was tested
+        return !(isFrom(fromLoc)
+                && appliesTo(unit)
+                && appliesTo(orderClass)
+                && appliesTo(phase.getPhaseType())
+                && appliesToTime(phase)
+                && hasCriteria());
+    }// canTransit()
+
+
+    /**
+     * True if 'from' was not specified, or a 'from' Location matches (loosely).
+     */
+    boolean isFrom(Location fromLoc) {
         if (from != null) {
-            boolean fromMatched = false;
             for (Location location : from) {
                 if (location.equalsLoosely(fromLoc)) {
-                    fromMatched = true;
-                    break;
+                    return true;
                 }
             }
-
-            if (!fromMatched) {
-                return true;
-            }
+            return false;
         }
+        return true;
+    }// isFrom()
 
-        // check unit type
-        if (unitTypes != null && !Arrays.asList(unitTypes).contains(unit)) {
-            return true;
-        }
+    /**
+     * True if 'from' was not specified; i.e., this Border applies from any Location.
+     */
+    boolean isFromAny() {
+        return (from == null);
+    }// isFromAny()
 
-        // check order
-        if (orderClasses != null && !Arrays.asList(orderClasses).contains(orderClass)) {
-            return true;
-        }
+    /**
+     * True if unit types were not specified, or the unit type matches.
+     */
+    boolean appliesTo(Unit.Type unit) {
+        return (unitTypes == null || Arrays.asList(unitTypes).contains(unit));
+    }// appliesTo()
 
-        // check phase (season, phase, and year)
-        if (seasons != null && !Arrays.asList(seasons).contains(phase.getSeasonType()))  {
-            return true;
-        }
+    /**
+     * True if order types were not specified, or the order class matches.
+     */
+    boolean appliesTo(Class<?> orderClass) {
+        return (orderClasses == null || Arrays.asList(orderClasses).contains(orderClass));
+    }// appliesTo()
 
-        if (phases != null && !Arrays.asList(phases).contains(phase.getPhaseType())) {
-            return true;
+    /**
+     * True if phases were not specified, or the phase type matches.
+     */
+    boolean appliesTo(Phase.PhaseType phaseType) {
+        return (phases == null || Arrays.asList(phases).contains(phaseType));
+    }// appliesTo()
+
+    /**
+     * True if the season and year of the Phase match (or were not specified).
+     */
+    boolean appliesToTime(Phase phase) {
+        if (seasons != null && !Arrays.asList(seasons).contains(phase.getSeasonType())) {
+            return false;
         }
 
         // we always check the year
         if (yearModifier != YEAR_NOT_SPECIFIED) {
             final int theYear = phase.getYear();
             if (yearModifier == YEAR_ODD && (theYear & 1) == 0) {
-                return true;
+                return false;
             }
             if (yearModifier == YEAR_EVEN && (theYear & 1) == 1) {
-                return true;
+                return false;
             }
-            if((yearMin > theYear) || (theYear > yearMax)) {
-                return true;
+            if ((yearMin > theYear) || (theYear > yearMax)) {
+                return false;
             }
         }
-		
-        // only return 'false' if EVERYTHING has failed, or,
-        // nothing was tested
-        return unitTypes == null &&
-               orderClasses == null &&
-               seasons == null &&
-               phases == null &&
-               yearModifier == YEAR_NOT_SPECIFIED;
-    }// canTransit()
+
+        return true;
+    }// appliesToTime()
+
+    /**
+     * True if any criteria (other than 'from') were specified; otherwise,
+     * this Border never prohibits transit.
+     */
+    boolean hasCriteria() {
+        return !(unitTypes == null &&
+                orderClasses == null &&
+                seasons == null &&
+                phases == null &&
+                yearModifier == YEAR_NOT_SPECIFIED);
+    }// hasCriteria()
+
+    /**
+     * The base move modifier, regardless of 'from'.
+     */
+    int getBaseMoveModifier() {
+        return baseMoveModifier;
+    }// getBaseMoveModifier()
+
+    /**
+     * The order classes to which this Border applies; null if all.
+     */
+    Class<?>[] getOrderClasses() {
+        return orderClasses;
+    }// getOrderClasses()
 
 
     /**
      * Gets the base move modifier. Requires a non-null from location.
      */
     public int getBaseMoveModifier(Location moveFrom) {
-        if (from == null) {
-            // if no locations defined, modifier is good for all locations.
-            return baseMoveModifier;
-        } else {
-            for (Location location : from) {
-                if (location.equalsLoosely(moveFrom)) {
-                    return baseMoveModifier;
-                }
-            }
-        }
-
+        // if no locations defined, modifier is good for all locations.
         // if not from the given location, no change in support.
-        return 0;
+        return (isFrom(moveFrom)) ? baseMoveModifier : 0;
     }// getBaseMoveModifier()
 
 
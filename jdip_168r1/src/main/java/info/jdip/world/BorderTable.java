@@ -0,0 +1,237 @@
+//
+//  @(#)BorderTable.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The Border rules of all Provinces of a Map, precomputed so that transit
+ * checks need not evaluate every Border.
+ * <p>
+ * For each Province with Borders, every 'from' Location (Province and Coast)
+ * is mapped to the set of Borders whose 'from' criterion it meets. For each
+ * such set, and each unit type, phase type, and order class (those named by
+ * the Borders, and 'any other'), the Borders which may prohibit transit are
+ * kept, in Province order. Only season and year, which vary by Phase, remain
+ * to be checked; for most Borders, there are none to check. The base move
+ * modifier is likewise precomputed for each set.
+ * <p>
+ * Results are the same as those of the Border methods. A BorderTable is
+ * created by the Map, once Province Border data is complete, and is immutable.
+ */
+public final class BorderTable {
+    // the number of Coast indices (see Coast.getCoast(int))
+    private static final int NUM_COASTS = 8;
+    private static final Unit.Type[] UNIT_TYPES = {
+            Unit.Type.ARMY, Unit.Type.FLEET, Unit.Type.WING, Unit.Type.UNDEFINED
+    };
+    private static final Border[] NONE = new Border[0];
+
+    private final Province[] provinces;
+    private final Rules[] rules;        // by Province index; null if no Borders
+
+
+    /**
+     * Precompute the Border rules of the given Provinces, which must be all
+     * the Provinces of a Map, in index order.
+     */
+    BorderTable(Province[] provinces) {
+        this.provinces = provinces;
+        this.rules = new Rules[provinces.length];
+        for (Province province : provinces) {
+            final Border[] borders = province.getBorders();
+            if (borders != null && borders.length > 0) {
+                rules[province.getIndex()] = new Rules(borders);
+            }
+        }
+    }// BorderTable()
+
+
+    /**
+     * As Province.getTransit(): returns the first Border that prohibits a unit
+     * from transiting from a Location into the given Province; null if
+     * transit is permitted.
+     */
+    public Border getTransit(Province to, Location fromLoc, Unit.Type unit, Phase phase, Class<?> orderClass) {
+        final Rules r = rules[to.getIndex()];
+        if (r == null) {
+            return null;
+        }
+
+        final Border[] candidates = r.candidates[r.key(getSignature(r, fromLoc), unit, phase.getPhaseType(), orderClass)];
+        for (Border border : candidates) {
+            if (border.appliesToTime(phase)) {
+                return border;
+            }
+        }
+        return null;
+    }// getTransit()
+
+    /**
+     * As Province.getBaseMoveModifier(): the first non-zero base move
+     * modifier of the Borders of the given Province, for a move from the
+     * given Location.
+     */
+    public int getBaseMoveModifier(Province to, Location fromLoc) {
+        final Rules r = rules[to.getIndex()];
+        return (r == null) ? 0 : r.modifiers[getSignature(r, fromLoc)];
+    }// getBaseMoveModifier()
+
+
+    /**
+     * The signature index of the given 'from' Location
+     */
+    private int getSignature(Rules r, Location fromLoc) {
+        // 'from' matching is by Province identity
+        final Province province = fromLoc.getProvince();
+        final int idx = province.getIndex();
+        if (idx < provinces.length && provinces[idx] == province) {
+            return r.signatures[(idx * NUM_COASTS) + fromLoc.getCoast().getIndex()];
+        }
+        return r.noMatchSignature;
+    }// getSignature()
+
+
+    /**
+     * Precomputed rules for the Borders of a single Province.
+     */
+    private final class Rules {
+        private final Class<?>[] orderClasses;      // named by any Border
+        private final int[] signatures;             // by (Province, Coast) row
+        private final int noMatchSignature;         // for Locations matching no 'from'
+        private final int[] modifiers;              // by signature
+        private final Border[][] candidates;        // by key()
+
+        Rules(Border[] borders) {
+            // distinct order classes named by the Borders
+            final List<Class<?>> classList = new ArrayList<>();
+            for (Border border : borders) {
+                if (border.getOrderClasses() != null) {
+                    for (Class<?> cls : border.getOrderClasses()) {
+                        if (!classList.contains(cls)) {
+                            classList.add(cls);
+                        }
+                    }
+                }
+            }
+            orderClasses = classList.toArray(new Class<?>[classList.size()]);
+
+            // determine which Borders each 'from' Location satisfies; identical
+            // sets share a signature.
+            final HashMap<String, Integer> sigMap = new HashMap<>();
+            final List<boolean[]> sigList = new ArrayList<>();
+            signatures = new int[provinces.length * NUM_COASTS];
+            for (Province province : provinces) {
+                for (int c = 0; c < NUM_COASTS; c++) {
+                    final Location loc = new Location(province, Coast.getCoast(c));
+                    final boolean[] matches = new boolean[borders.length];
+                    for (int b = 0; b < borders.length; b++) {
+                        matches[b] = borders[b].isFrom(loc);
+                    }
+                    signatures[(province.getIndex() * NUM_COASTS) + c] = getSignature(sigMap, sigList, matches);
+                }
+            }
+
+            // a Location not of this Map only matches Borders without 'from'
+            final boolean[] noMatches = new boolean[borders.length];
+            for (int b = 0; b < borders.length; b++) {
+                noMatches[b] = borders[b].isFromAny();
+            }
+            noMatchSignature = getSignature(sigMap, sigList, noMatches);
+
+            // base move modifiers, and Borders which may prohibit transit, for each key
+            modifiers = new int[sigList.size()];
+            candidates = new Border[sigList.size() * (UNIT_TYPES.length + 1)
+                    * (Phase.PhaseType.ALL.length + 1) * (orderClasses.length + 1)][];
+            final List<Border> list = new ArrayList<>(borders.length);
+            for (int sig = 0; sig < sigList.size(); sig++) {
+                final boolean[] matches = sigList.get(sig);
+                for (int b = 0; b < borders.length; b++) {
+                    if (matches[b] && borders[b].getBaseMoveModifier() != 0) {
+                        modifiers[sig] = borders[b].getBaseMoveModifier();
+                        break;
+                    }
+                }
+
+                for (int u = 0; u <= UNIT_TYPES.length; u++) {
+                    for (int p = 0; p <= Phase.PhaseType.ALL.length; p++) {
+                        for (int o = 0; o <= orderClasses.length; o++) {
+                            list.clear();
+                            for (int b = 0; b < borders.length; b++) {
+                                final Border border = borders[b];
+                                if (matches[b] && border.hasCriteria()
+                                        && ((u < UNIT_TYPES.length) ? border.appliesTo(UNIT_TYPES[u]) : border.appliesTo((Unit.Type) null))
+                                        && ((p < Phase.PhaseType.ALL.length) ? border.appliesTo(Phase.PhaseType.ALL[p]) : border.appliesTo((Phase.PhaseType) null))
+                                        && ((o < orderClasses.length) ? border.appliesTo(orderClasses[o]) : border.appliesTo((Class<?>) null))) {
+                                    list.add(border);
+                                }
+                            }
+
+                            candidates[index(sig, u, p, o)] = (list.isEmpty()) ? NONE : list.toArray(new Border[list.size()]);
+                        }
+                    }
+                }
+            }
+        }// Rules()
+
+        /**
+         * The candidates index for the given arguments. Types not named by
+         * any Border share the last index of their dimension.
+         */
+        int key(int sig, Unit.Type unit, Phase.PhaseType phaseType, Class<?> orderClass) {
+            return index(sig, indexOf(UNIT_TYPES, unit), indexOf(Phase.PhaseType.ALL, phaseType), indexOf(orderClasses, orderClass));
+        }// key()
+
+        private int index(int sig, int u, int p, int o) {
+            return ((((sig * (UNIT_TYPES.length + 1)) + u) * (Phase.PhaseType.ALL.length + 1) + p)
+                    * (orderClasses.length + 1)) + o;
+        }// index()
+    }// inner class Rules
+
+
+    /**
+     * The signature index for the given 'from' matches, adding it if new.
+     */
+    private static int getSignature(HashMap<String, Integer> sigMap, List<boolean[]> sigList, boolean[] matches) {
+        final String key = Arrays.toString(matches);
+        Integer sig = sigMap.get(key);
+        if (sig == null) {
+            sig = sigList.size();
+            sigMap.put(key, sig);
+            sigList.add(matches);
+        }
+        return sig;
+    }// getSignature()
+
+    /**
+     * Index of obj in the array (by equals()); the array length if not present.
+     */
+    private static int indexOf(Object[] array, Object obj) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i].equals(obj)) {
+                return i;
+            }
+        }
+        return array.length;
+    }// indexOf()
+
+}// class BorderTable
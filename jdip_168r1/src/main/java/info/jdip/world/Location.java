@@ -32,6 +32,10 @@ import info.jdip.order.OrderException;
  * Locations are immutable.
  * Convenience methods are provided for obtaining adjacency
  * information.
+ * <p>
+ * Each Map has a shared Location for every Province and Coast; these
+ * are obtained via Province.getLocation() or Map.getLocation(), and
+ * should be preferred to creating new Locations.
  */
 public class Location {
     /**
@@ -297,7 +301,7 @@ public class Location {
             }
         }
 
-        return ((newCoast == newLoc.getCoast()) ? newLoc : new Location(newLoc.getProvince(), newCoast));
+        return ((newCoast == newLoc.getCoast()) ? newLoc : newLoc.getProvince().getLocation(newCoast));
     }// getValidatedWithMove()
 
 
@@ -386,7 +390,7 @@ public class Location {
 
         // Postcondition: Coast should NOT be undefined at this point.
         assert (newCoast != Coast.UNDEFINED);
-        return ((newCoast == newLoc.getCoast()) ? newLoc : new Location(newLoc.getProvince(), newCoast));
+        return ((newCoast == newLoc.getCoast()) ? newLoc : newLoc.getProvince().getLocation(newCoast));
     }// getValidAndDerived()
 
 
@@ -498,7 +502,7 @@ public class Location {
         }
 
         // return *this if no change
-        return ((newCoast == getCoast()) ? this : new Location(getProvince(), newCoast));
+        return ((newCoast == getCoast()) ? this : getProvince().getLocation(newCoast));
     }// getValidated()
 
 
@@ -27,10 +27,8 @@ import info.jdip.order.OrderException;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -45,6 +43,7 @@ public class Map implements Serializable {
     // constants
     private static final int MAP_SIZE = 211;    // should be prime
     private static final int POWER_SIZE = 17;    // should be prime
+    private static final int NUM_COASTS = 8;     // the number of Coast indices (see Coast.getCoast(int))
 
     // internal constant arrays
     // all this data is serialized.
@@ -57,11 +56,15 @@ public class Map implements Serializable {
     // Province-related
     private transient HashMap<String, Province> nameMap = null;    // map of all (short & full) names to a province; names in lower case
     private transient String[] names = null;    // list of all province names [short & full]; names in lower case
+    private transient Location[] locations = null;             // created by createMappings()
+    private transient AdjacencyTable adjacencyTable = null;    // created by createMappings()
+    private transient BorderTable borderTable = null;          // created by createMappings()
 
     // Power-related
     private transient HashMap<String, Power> powerNameMap = null;        // created by createMappings()
 
-    // fields created on first-use (by a method)
+    // name lists for order parsing; created by createMappings(), and never modified
+    // thereafter, as a Map may be shared by Worlds in different threads.
     private transient String[] lcPowerNames = null;        // lower case power names & adjectives
     private transient String[] wsNames = null;            // list of all province names that contain whitespace, "-", or " "
 
@@ -93,7 +96,7 @@ public class Map implements Serializable {
 
 
     /**
-     * Creates the name->power and name->province mappings.
+     * Creates the name->power and name->province mappings, and the AdjacencyTable.
      * <p>
      * After de-serialization, this method MUST be called, since
      * the mappings aren't saved by default.
@@ -136,6 +139,33 @@ public class Map implements Serializable {
 
         // create names array from ArrayList
         names = namesAL.toArray(new String[namesAL.size()]);
+
+        // create whitespace name list
+        createWSNameList();
+
+        // shared Locations, indexed by (province, coast); each province
+        // is given its own row, for Province.getLocation().
+        locations = new Location[provinces.length * NUM_COASTS];
+        for (Province province : provinces) {
+            final Location[] row = new Location[NUM_COASTS];
+            for (int c = 0; c < NUM_COASTS; c++) {
+                row[c] = new Location(province, Coast.getCoast(c));
+                locations[(province.getIndex() * NUM_COASTS) + c] = row[c];
+            }
+            province.setLocations(row);
+        }
+
+        // compile adjacency data; provinces then use it for adjacency checks
+        adjacencyTable = new AdjacencyTable(provinces);
+        for (Province province : provinces) {
+            province.setAdjacencyTable(adjacencyTable);
+        }
+
+        // precompute Border rules; likewise used by provinces for transit checks
+        borderTable = new BorderTable(provinces);
+        for (Province province : provinces) {
+            province.setBorderTable(borderTable);
+        }
     }// createMappings()
 
 
@@ -279,6 +309,34 @@ public class Map implements Serializable {
     }// getPowerMatching()
 
 
+    /**
+     * Returns the shared Location for the given Province and Coast.
+     * Locations obtained this way may be compared by reference. If the
+     * Province is not part of this Map, a new Location is returned.
+     */
+    public Location getLocation(Province province, Coast coast) {
+        final int idx = province.getIndex();
+        if (coast != null && idx < provinces.length && provinces[idx] == province) {
+            return locations[(idx * NUM_COASTS) + coast.getIndex()];
+        }
+        return new Location(province, coast);
+    }// getLocation()
+
+    /**
+     * Returns the compiled adjacency data for all Provinces.
+     */
+    public final AdjacencyTable getAdjacencyTable() {
+        return adjacencyTable;
+    }// getAdjacencyTable()
+
+    /**
+     * Returns the precomputed Border rules for all Provinces.
+     */
+    public final BorderTable getBorderTable() {
+        return borderTable;
+    }// getBorderTable()
+
+
     /**
      * Returns an Array of all Provinces.
      */
@@ -463,7 +521,7 @@ public class Map implements Serializable {
 
         Province province = getProvinceMatching(Coast.getProvinceName(input));
         if (province != null) {
-            return new Location(province, coast);
+            return getLocation(province, coast);
         }
 
         return null;
@@ -479,31 +537,6 @@ public class Map implements Serializable {
      * This is a special-purpose method for Order parsing.
      */
     public void replaceProvinceNames(StringBuilder sb) {
-        // create the whitespace list, if it doesn't exist.
-        if (wsNames == null) {
-            List<String> list = new ArrayList<>(50);
-            for (String name : names) {
-                if (name.indexOf(' ') != -1 || name.indexOf('-') != -1) {
-                    list.add(name.toLowerCase());
-                }
-            }
-            wsNames = list.toArray(new String[list.size()]);
-
-            // sort array from longest entries to shortest. This
-            // eliminates errors in partial replacements.
-            Arrays.sort(wsNames, new Comparator<String>() {
-                // longer strings are more negative, thus rise to top
-                public int compare(String o1, String o2) {
-                    return (o2.length() - o1.length());
-                }// compare()
-
-                public boolean equals(Object obj) {
-                    return false;
-                }
-            });
-
-        }
-
         // search & replace.
         for (String currentName : wsNames) {
             int idx = 0;
@@ -712,6 +745,28 @@ public class Map implements Serializable {
 
         lcPowerNames = tmpNames.toArray(new String[tmpNames.size()]);
     }// createLCPowerNameList()
+
+
+    /**
+     * Creates the list of province names that contain whitespace or hyphens,
+     * required by replaceProvinceNames(). The list is sorted from the longest
+     * to the shortest name.
+     */
+    private void createWSNameList() {
+        List<String> list = new ArrayList<>(50);
+        for (String name : names) {
+            if (name.indexOf(' ') != -1 || name.indexOf('-') != -1) {
+                list.add(name.toLowerCase());
+            }
+        }
+
+        // sort list from longest entries to shortest. This
+        // eliminates errors in partial replacements.
+        // (longer strings are more negative, thus rise to top)
+        list.sort((o1, o2) -> o2.length() - o1.length());
+
+        wsNames = list.toArray(new String[list.size()]);
+    }// createWSNameList()
 	
 	
 	
@@ -31,7 +31,6 @@ import info.jdip.process.Tristate;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -113,7 +112,7 @@ public class Path {
 
             // for the second provice, check only if we can reach the source province (not location!),
             // as we do not know the source coast!
-            if (((i != 1) && (!p.isAdjacent(unit.getCoast(), new Location(route[i - 1], lastCoast)))) ||
+            if (((i != 1) && (!p.isAdjacent(unit.getCoast(), route[i - 1].getLocation(lastCoast)))) ||
                     ((i == 1) && (!p.isAdjacent(unit.getCoast(), route[i - 1])))) {
                 return false;
             }
@@ -136,6 +135,7 @@ public class Path {
      * </ol>
      */
     public static boolean isRouteLegal(final Adjudicator adj, final Province[] route) {
+        recordConvoyPathSearch(adj);
         final Province src = route[0];
         final Province dest = route[route.length - 1];
 
@@ -167,6 +167,7 @@ public class Path {
      * See getConvoyRouteEvaluation() for return values.
      */
     public static Tristate evaluateRoutes(final Adjudicator adj, List<Province[]> routes, final Location invalid) {
+        recordConvoyPathSearch(adj);
         final Province invalidProvince = (invalid == null) ? null : invalid.getProvince();
 
         Tristate overallResult = Tristate.FAILURE;
@@ -340,6 +341,7 @@ public class Path {
         // explicit path(s). Evaluate them all. Return the successful path
         // if one is successful.
         //
+        recordConvoyPathSearch(adjudicator);
         final Province invalidProvince = (invalidLoc == null) ? null : invalidLoc.getProvince();
         final Location src = move.getSource();
         final Location dest = move.getDest();
@@ -416,6 +418,7 @@ public class Path {
      */
     public boolean isPossibleConvoyRoute(Location src, Location dest) {
         if (src.getProvince().isCoastal() && dest.getProvince().isCoastal()) {
+            recordConvoyPathSearch(adjudicator);
             List<Location> path = new ArrayList<>(12);
             PathEvaluator pe = new AnyConvoyPathEvaluator();
 
@@ -434,6 +437,7 @@ public class Path {
      * have convoy orders to do so.
      */
     public List<Location> getConvoyRoute(Location src, Location dest) {
+        recordConvoyPathSearch(adjudicator);
         List<Location> path = new ArrayList<>();
 
         PathEvaluator pe = new AnyConvoyPathEvaluator();
@@ -451,6 +455,7 @@ public class Path {
      * </ol>
      */
     public boolean isLegalConvoyRoute(Location src, Location dest) {
+        recordConvoyPathSearch(adjudicator);
         List<Location> path = new ArrayList<>(12);
         PathEvaluator pe = new LegalConvoyPathEvaluator(src, dest);
         return findPathBreadthFirst(src, dest, src, path, pe);
@@ -465,6 +470,7 @@ public class Path {
      * </ol>
      */
     public List<Location> getLegalConvoyRoute(Location src, Location dest) {
+        recordConvoyPathSearch(adjudicator);
         List<Location> path = new ArrayList<>(12);
         PathEvaluator pe = new LegalConvoyPathEvaluator(src, dest);
         findPathBreadthFirst(src, dest, src, path, pe);
@@ -522,6 +528,7 @@ public class Path {
      * fail (no path), or if we are uncertain.
      */
     public Tristate getConvoyRouteEvaluation(Location src, Location dest, Location invalid, List<Province> validPath) {
+        recordConvoyPathSearch(adjudicator);
         List<Location> path = new ArrayList<>(12);
         SuperConvoyPathEvaluator spe = null;
         boolean isPathFound = false;
@@ -558,6 +565,16 @@ public class Path {
         return Tristate.FAILURE;
     }// getConvoyRouteEvaluation()
 
+    /**
+     * Count a convoy route search in the adjudicator metrics, if
+     * we are adjudicating.
+     */
+    private static void recordConvoyPathSearch(Adjudicator adj) {
+        if (adj != null && adj.getMetrics() != null) {
+            adj.getMetrics().incrementConvoyPathSearches();
+        }
+    }// recordConvoyPathSearch()
+
     /**
      * Generalized recursive Path-Finder, Breadth-First search.
      * <p>
@@ -640,10 +657,29 @@ public class Path {
             return 0;
         }
 
+        final ProvinceSet dests = new ProvinceSet(position.getProvinces());
+        dests.add(dest);
+        return getMinDistance(src, dests);
+    }// getMinDistance()
+
+
+    /**
+     * Find shortest distance between src and the nearest Province
+     * in dests, as getMinDistance(Province, Province) would. This
+     * is a single search, regardless of the number of destinations.
+     * <p>
+     * This will return -1 in the event that src is not connected
+     * to any Province in dests.
+     */
+    public int getMinDistance(Province src, ProvinceSet dests) {
+        if (dests.contains(src)) {
+            return 0;
+        }
+
         int dist = 0;
 
-        HashMap<Province, Boolean> visited = new HashMap<>(119);
-        visited.put(src, Boolean.TRUE);
+        final ProvinceSet visited = new ProvinceSet(position.getProvinces());
+        visited.add(src);
 
         ArrayList<Province> toCheck = new ArrayList<>(32);
         ArrayList<Province> nextToCheck = new ArrayList<>(32);
@@ -656,21 +692,17 @@ public class Path {
 
             // iterate toCheck, create nextToCheck list
             for (Province p : toCheck) {
-                if (p == dest) {
+                if (dests.contains(p)) {
                     return dist;
                 }
 
-                // NEW CODE: using Coast.TOUCHING
                 Location[] locs = p.getAdjacentLocations(Coast.TOUCHING);
                 for (Location loc : locs) {
                     Province ckp = loc.getProvince();
-
-                    if (visited.get(ckp) == null) {
+                    if (visited.add(ckp)) {
                         nextToCheck.add(ckp);
-                        visited.put(ckp, Boolean.TRUE);
                     }
                 }
-                // END NEW CODE
             }
 
             // swap lists
@@ -28,6 +28,7 @@ import java.io.Serializable;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A Phase object represents when a turn takes place, and contains the
@@ -50,9 +51,15 @@ public class Phase implements java.io.Serializable, Comparable<Phase> {
     private static final PhaseType[] ORDER_PHASE = {PhaseType.MOVEMENT, PhaseType.RETREAT,
             PhaseType.MOVEMENT, PhaseType.RETREAT, PhaseType.ADJUSTMENT};
 
+    // the number of phases in a year (see getOrderIndex())
+    static final int PHASES_PER_YEAR = ORDER_SEASON.length;
+
     // formatter to always 4-digit format a year
     private static final DecimalFormat YEAR_FORMAT = new DecimalFormat("0000");
 
+    // shared Phase instances, by year; each array is indexed by order index
+    private static final ConcurrentHashMap<Integer, Phase[]> phaseCache = new ConcurrentHashMap<>(64);
+
 
     // instance variables
     protected final SeasonType seasonType;
@@ -62,7 +69,45 @@ public class Phase implements java.io.Serializable, Comparable<Phase> {
 
 
     /**
-     * Create a new Phase.
+     * Returns the shared Phase instance for the given season, year, and phase
+     * type. Phases are immutable; using shared instances avoids allocation,
+     * and allows equal Phases to be compared by reference.
+     * <p>
+     * An IllegalArgumentException is thrown if the arguments are null, the
+     * year is 0, or the season/phase type combination is not valid.
+     */
+    public static Phase getPhase(SeasonType seasonType, int year, PhaseType phaseType) {
+        final Phase[] phases = phaseCache.get(year);
+        if (phases != null && seasonType != null && phaseType != null) {
+            final Phase phase = findPhase(phases, seasonType, phaseType);
+            if (phase != null) {
+                return phase;
+            }
+        }
+
+        return getPhase(seasonType, new YearType(year), phaseType);
+    }// getPhase()
+
+    /**
+     * Returns the shared Phase instance for the given season, year, and phase
+     * type. See getPhase(SeasonType, int, PhaseType).
+     */
+    public static Phase getPhase(SeasonType seasonType, YearType yearType, PhaseType phaseType) {
+        if (seasonType == null || yearType == null || phaseType == null) {
+            throw new IllegalArgumentException("invalid args");
+        }
+
+        final Phase phase = findPhase(getPhases(yearType), seasonType, phaseType);
+        if (phase == null) {
+            throw new IllegalArgumentException("invalid seasontype/phasetype combination");
+        }
+
+        return phase;
+    }// getPhase()
+
+
+    /**
+     * Create a new Phase. Generally, getPhase() should be used instead.
      */
     public Phase(SeasonType seasonType, int year, PhaseType phaseType) {
         this(seasonType, new YearType(year), phaseType);
@@ -70,7 +115,7 @@ public class Phase implements java.io.Serializable, Comparable<Phase> {
 
 
     /**
-     * Create a new Phase.
+     * Create a new Phase. Generally, getPhase() should be used instead.
      */
     public Phase(SeasonType seasonType, YearType yearType, PhaseType phaseType) {
         if (seasonType == null || yearType == null || phaseType == null) {
@@ -126,6 +171,14 @@ public class Phase implements java.io.Serializable, Comparable<Phase> {
         return seasonType;
     }
 
+    /**
+     * Returns the position of this Phase within its year, from 0 (spring
+     * movement) to PHASES_PER_YEAR - 1 (fall adjustment).
+     */
+    int getOrderIndex() {
+        return orderIdx;
+    }// getOrderIndex()
+
     /**
      * Displays as a short String (e.g., F1902R)
      */
@@ -155,12 +208,23 @@ public class Phase implements java.io.Serializable, Comparable<Phase> {
      * Returns true if the two phases are equivalent.
      */
     public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
         Phase phase = (Phase) obj;
         return yearType.equals(phase.yearType)
                 && seasonType.equals(phase.seasonType)
                 && phaseType.equals(phase.phaseType);
     }// equals()
 
+    /**
+     * Returns the hashcode
+     */
+    public int hashCode() {
+        return (yearType.hashCode() * ORDER_SEASON.length) + orderIdx;
+    }// hashCode()
+
     /**
      * Compares the Phase to the given Phase object. Returns a negative, zero, or
      * positive integer depending if the given Phase is less than, equal, or
@@ -196,7 +260,7 @@ public class Phase implements java.io.Serializable, Comparable<Phase> {
         idx = (idx > ORDER_SEASON.length - 1) ? 0 : idx;
         YearType yt = (idx == 0) ? yearType.getNext() : yearType;
 
-        return new Phase(yt, idx);
+        return getPhases(yt)[idx];
     }// getNext()
 
 
@@ -208,7 +272,7 @@ public class Phase implements java.io.Serializable, Comparable<Phase> {
         YearType yt = (idx < 0) ? yearType.getPrevious() : yearType;
         idx = (idx < 0) ? (ORDER_SEASON.length - 1) : idx;
 
-        return new Phase(yt, idx);
+        return getPhases(yt)[idx];
     }// getPrevious()
 
 
@@ -274,7 +338,7 @@ public class Phase implements java.io.Serializable, Comparable<Phase> {
             if (seasonType == null || yearType == null || phaseType == null) {
                 return null;
             }
-            return new Phase(seasonType, yearType, phaseType);
+            return getPhase(seasonType, yearType, phaseType);
         }
 
         // case conversion
@@ -322,7 +386,7 @@ public class Phase implements java.io.Serializable, Comparable<Phase> {
             return null;
         }
 
-        return new Phase(seasonType, yearType, phaseType);
+        return getPhase(seasonType, yearType, phaseType);
     }// parse()
 
 
@@ -346,10 +410,47 @@ public class Phase implements java.io.Serializable, Comparable<Phase> {
 
 
     /**
-     * Reconstitute a Phase object
+     * The shared Phases of the given year, in order
+     */
+    private static Phase[] getPhases(YearType yearType) {
+        Phase[] phases = phaseCache.get(yearType.getYear());
+        if (phases == null) {
+            phases = new Phase[ORDER_SEASON.length];
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new Phase(yearType, i);
+            }
+
+            final Phase[] existing = phaseCache.putIfAbsent(yearType.getYear(), phases);
+            phases = (existing == null) ? phases : existing;
+        }
+
+        return phases;
+    }// getPhases()
+
+    /**
+     * The Phase with the given season and phase type; null if not a valid combination.
+     */
+    private static Phase findPhase(Phase[] phases, SeasonType st, PhaseType pt) {
+        for (int i = 0; i < ORDER_SEASON.length; i++) {
+            if (ORDER_SEASON[i] == st
+                    && ORDER_PHASE[i] == pt) {
+                return phases[i];
+            }
+        }
+
+        return null;
+    }// findPhase()
+
+
+    /**
+     * Reconstitute a Phase object. The shared instance is returned, if valid.
      */
     protected Object readResolve() {
         this.orderIdx = deriveOrderIdx(this.seasonType, this.phaseType);
+        if (orderIdx >= 0 && getClass() == Phase.class) {
+            return getPhases(yearType)[orderIdx];
+        }
+
         return this;
     }// readResolve()
 
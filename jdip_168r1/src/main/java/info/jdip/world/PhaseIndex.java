@@ -0,0 +1,224 @@
+//
+//  @(#)PhaseIndex.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.world;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An index of the TurnStates of a World, in Phase order. It is obtained
+ * from World.getPhaseIndex(), and is rebuilt whenever TurnStates are added
+ * or removed, or a supply-center-change flag is altered.
+ * <p>
+ * TurnStates are kept in an array, with a table mapping each (year, phase)
+ * to its position; thus finding a TurnState, and its previous or next
+ * TurnState, does not require a search. For each year, a flag indicates
+ * if supply center ownership changed during that year (that is, if the
+ * fall retreat or fall adjustment TurnState is so marked), and a running
+ * count of such years allows a range of years to be checked at once.
+ * <p>
+ * If the years are very sparse (which does not occur in normal games),
+ * binary searches are used instead of tables. A PhaseIndex is immutable.
+ */
+public final class PhaseIndex {
+    private final TurnState[] turnStates;   // in Phase order
+    private final Phase[] phases;           // by position
+    private final int[] scChangeYears;      // years with SC changes, ascending
+    private final int firstYear;
+    private final int[] positions;          // by (year, phase); -1 if none. null if sparse
+    private final int[] scChangeCounts;     // by year; # of SC change years before. null if sparse
+
+
+    /**
+     * Create a PhaseIndex for the given TurnStates, which must be in Phase order.
+     */
+    PhaseIndex(Collection<TurnState> values) {
+        turnStates = values.toArray(new TurnState[values.size()]);
+        phases = new Phase[turnStates.length];
+
+        int[] changes = new int[8];
+        int nChanges = 0;
+        for (int i = 0; i < turnStates.length; i++) {
+            final Phase phase = turnStates[i].getPhase();
+            phases[i] = phase;
+
+            // a change is recorded in the phase *after* the change occured; the
+            // fall retreat or adjustment phase (as per VictoryConditions).
+            if (turnStates[i].getSCOwnerChanged()
+                    && phase.getSeasonType() == Phase.SeasonType.FALL
+                    && (phase.getPhaseType() == Phase.PhaseType.RETREAT
+                    || phase.getPhaseType() == Phase.PhaseType.ADJUSTMENT)
+                    && (nChanges == 0 || changes[nChanges - 1] != phase.getYear())) {
+                if (nChanges == changes.length) {
+                    changes = Arrays.copyOf(changes, nChanges * 2);
+                }
+                changes[nChanges++] = phase.getYear();
+            }
+        }
+        scChangeYears = Arrays.copyOf(changes, nChanges);
+
+        // create tables, unless years are sparse.
+        final long span = (phases.length == 0) ? 0
+                : ((long) phases[phases.length - 1].getYear() - phases[0].getYear() + 1);
+        if (phases.length > 0 && span <= (2L * phases.length) + 64) {
+            firstYear = phases[0].getYear();
+
+            positions = new int[(int) span * Phase.PHASES_PER_YEAR];
+            Arrays.fill(positions, -1);
+            for (int i = 0; i < phases.length; i++) {
+                positions[slot(phases[i].getYear(), phases[i].getOrderIndex())] = i;
+            }
+
+            scChangeCounts = new int[(int) span + 1];
+            int n = 0;
+            for (int y = 0; y < span; y++) {
+                scChangeCounts[y] = n;
+                if (n < scChangeYears.length && scChangeYears[n] == firstYear + y) {
+                    n++;
+                }
+            }
+            scChangeCounts[(int) span] = n;
+        } else {
+            firstYear = 0;
+            positions = null;
+            scChangeCounts = null;
+        }
+    }// PhaseIndex()
+
+
+    /**
+     * True if this index was created from a collection of the given size.
+     */
+    boolean isFor(int size) {
+        return (turnStates.length == size);
+    }// isFor()
+
+
+    /**
+     * The number of TurnStates.
+     */
+    public int size() {
+        return turnStates.length;
+    }// size()
+
+    /**
+     * The TurnState at the given position (0 is the initial TurnState).
+     */
+    public TurnState get(int position) {
+        return turnStates[position];
+    }// get()
+
+    /**
+     * The position of the TurnState with the given Phase; -1 if there is none.
+     */
+    public int indexOf(Phase phase) {
+        if (positions == null) {
+            final int idx = Arrays.binarySearch(phases, phase);
+            return (idx < 0) ? -1 : idx;
+        }
+
+        final int year = phase.getYear();
+        if (year < firstYear || year >= firstYear + (positions.length / Phase.PHASES_PER_YEAR)) {
+            return -1;
+        }
+        return positions[slot(year, phase.getOrderIndex())];
+    }// indexOf()
+
+    /**
+     * The TurnState with the given Phase; null if there is none.
+     */
+    public TurnState getTurnState(Phase phase) {
+        final int idx = indexOf(phase);
+        return (idx < 0) ? null : turnStates[idx];
+    }// getTurnState()
+
+    /**
+     * The TurnState after the one with the given Phase. Returns null if
+     * the Phase is the last, or if there is no TurnState with the Phase.
+     */
+    public TurnState getNext(Phase phase) {
+        final int idx = indexOf(phase);
+        return (idx < 0 || idx == turnStates.length - 1) ? null : turnStates[idx + 1];
+    }// getNext()
+
+    /**
+     * The TurnState before the one with the given Phase. Returns null if
+     * the Phase is the first. If there is no TurnState with the given Phase,
+     * the last TurnState is returned (as per World.getPreviousTurnState()).
+     */
+    public TurnState getPrevious(Phase phase) {
+        final int idx = indexOf(phase);
+        if (idx < 0) {
+            return (turnStates.length == 0) ? null : turnStates[turnStates.length - 1];
+        }
+        return (idx == 0) ? null : turnStates[idx - 1];
+    }// getPrevious()
+
+
+    /**
+     * True if supply center ownership changed during the given year; that is,
+     * if the Fall Retreat or Fall Adjustment TurnState has its
+     * SC-owner-changed flag set.
+     */
+    public boolean getSCOwnerChanged(int year) {
+        return (getSCChangeYearCount(year, year) > 0);
+    }// getSCOwnerChanged()
+
+    /**
+     * The number of years, from firstYear to lastYear (inclusive), during which
+     * supply center ownership changed.
+     */
+    public int getSCChangeYearCount(int firstYear, int lastYear) {
+        if (lastYear < firstYear) {
+            return 0;
+        }
+
+        if (scChangeCounts == null) {
+            return countBefore((long) lastYear + 1) - countBefore(firstYear);
+        }
+
+        final int last = scChangeCounts.length - 1;
+        final long from = Math.max(0L, Math.min(last, (long) firstYear - this.firstYear));
+        final long to = Math.max(0L, Math.min(last, (long) lastYear - this.firstYear + 1));
+        return scChangeCounts[(int) to] - scChangeCounts[(int) from];
+    }// getSCChangeYearCount()
+
+
+    /**
+     * The number of SC change years before the given year
+     */
+    private int countBefore(long year) {
+        int lo = 0;
+        int hi = scChangeYears.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (scChangeYears[mid] < year) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }// countBefore()
+
+    private int slot(int year, int orderIdx) {
+        return ((year - firstYear) * Phase.PHASES_PER_YEAR) + orderIdx;
+    }// slot()
+
+}// class PhaseIndex
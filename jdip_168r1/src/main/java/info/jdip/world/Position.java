@@ -22,6 +22,7 @@
 //
 package info.jdip.world;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -42,6 +43,11 @@ import java.util.Map;
  * The clone() methods are not strictly implemented; they call a constructor
  * to assist in cloning rather than call super.clone(). This is done for
  * performance reasons.
+ * <p>
+ * Per-Power aggregates (units, dislodged units, owned and home supply centers)
+ * are kept as ProvinceSets, which are updated whenever the Position changes.
+ * Thus per-Power counts are independent of the number of Provinces, and do
+ * not allocate.
  */
 public class Position implements java.io.Serializable {
     // size constants; these should be prime
@@ -51,7 +57,8 @@ public class Position implements java.io.Serializable {
     protected final Map<Power, PowerData> powerMap = new HashMap<>(POWER_SIZE);
     protected final ProvinceData[] provArray;
     protected final info.jdip.world.Map map;
-    private transient Province[] tmpProvArray = null;
+    // created on first use (and after deserialization); then kept current
+    private transient Aggregates aggregates = null;
 
 
     public Position(info.jdip.world.Map map) {
@@ -98,48 +105,13 @@ public class Position implements java.io.Serializable {
 
 
     /**
-     * Scans the Position; sets/unsets elimination depending upon if a given
-     * Power has any units (including dislodged units) or supply centers on the map
+     * Sets/unsets elimination depending upon if a given Power has any
+     * units (including dislodged units) or supply centers on the map
      */
     public void setEliminationStatus(final Power[] powers) {
-        HashMap<Power, Object> pmap = new HashMap<>(19);
+        final Aggregates agg = getAggregates();
         for (Power power : powers) {
-            pmap.put(power, null);
-        }
-
-        for (ProvinceData pd : provArray) {
-            Power power = null;
-            if (pd == null) {
-                continue;
-            }
-
-            Unit unit = pd.getUnit();
-            if (unit != null)        // first check non-dislodged units
-            {
-                power = unit.getPower();
-                if (pmap.get(power) == null) {
-                    pmap.put(power, new Object());
-                }
-            }
-
-            // then see if there's a dislodged unit
-            unit = pd.getDislodgedUnit();
-            if (unit != null) {
-                power = unit.getPower();
-                if (pmap.get(power) == null) {
-                    pmap.put(power, new Object());
-                }
-            }
-
-            // finally, see if we own a supply center
-            power = pd.getScOwner();
-            if (power != null && pmap.get(power) == null) {
-                pmap.put(power, new Object());
-            }
-        }
-
-        for (Power power : powers) {
-            setEliminated(power, pmap.get(power) == null);
+            setEliminated(power, !agg.hasAny(power));
         }
     }// setEliminationStatus()
 
@@ -149,6 +121,9 @@ public class Position implements java.io.Serializable {
      */
     public void setSupplyCenterOwner(Province province, Power power) {
         ProvinceData pd = getProvinceData(province);
+        if (aggregates != null) {
+            aggregates.setScOwner(province.getIndex(), pd.getScOwner(), power);
+        }
         pd.setScOwner(power);
     }// setSupplyCenterOwner()
 
@@ -158,6 +133,9 @@ public class Position implements java.io.Serializable {
      */
     public void setSupplyCenterHomePower(Province province, Power power) {
         ProvinceData pd = getProvinceData(province);
+        if (aggregates != null) {
+            aggregates.setScHomePower(province.getIndex(), pd.getScHomePower(), power);
+        }
         pd.setScHomePower(power);
     }// setSupplyCenterHomePower()
 
@@ -217,6 +195,9 @@ public class Position implements java.io.Serializable {
      */
     public void setUnit(Province province, Unit unit) {
         ProvinceData pd = getProvinceData(province);
+        if (aggregates != null) {
+            aggregates.setUnit(province.getIndex(), pd.getUnit(), unit);
+        }
         pd.setUnit(unit);
     }// setUnit()
 
@@ -273,6 +254,9 @@ public class Position implements java.io.Serializable {
      */
     public void setDislodgedUnit(Province province, Unit unit) {
         ProvinceData pd = getProvinceData(province);
+        if (aggregates != null) {
+            aggregates.setDislodgedUnit(province.getIndex(), pd.getDislodgedUnit(), unit);
+        }
         pd.setDislodgedUnit(unit);
     }// setDislodgedUnit()
 
@@ -332,20 +316,7 @@ public class Position implements java.io.Serializable {
      * Returns an array of provinces with non-dislodged units
      */
     public Province[] getUnitProvinces() {
-        makeTmpProvArray();
-
-        int arrSize = 0;
-        for (int i = 0; i < provArray.length; i++) {
-            ProvinceData pd = provArray[i];
-            if (pd != null && pd.hasUnit()) {
-                tmpProvArray[arrSize] = map.reverseIndex(i);
-                arrSize++;
-            }
-        }
-
-        Province[] p = new Province[arrSize];
-        System.arraycopy(tmpProvArray, 0, p, 0, arrSize);
-        return p;
+        return getAggregates().occupied.toArray();
     }// getUnitProvinces()
 
 
@@ -353,20 +324,7 @@ public class Position implements java.io.Serializable {
      * Returns an array of provinces with dislodged units
      */
     public Province[] getDislodgedUnitProvinces() {
-        makeTmpProvArray();
-
-        int arrSize = 0;
-        for (int i = 0; i < provArray.length; i++) {
-            ProvinceData pd = provArray[i];
-            if (pd != null && pd.hasDislodgedUnit()) {
-                tmpProvArray[arrSize] = map.reverseIndex(i);
-                arrSize++;
-            }
-        }
-
-        Province[] p = new Province[arrSize];
-        System.arraycopy(tmpProvArray, 0, p, 0, arrSize);
-        return p;
+        return getAggregates().dislodgedAny.toArray();
     }// getDislodgedUnitProvinces()
 
 
@@ -374,14 +332,7 @@ public class Position implements java.io.Serializable {
      * Returns the number of provinces with non-dislodged units
      */
     public int getUnitCount() {
-        int count = 0;
-        for (ProvinceData pd : provArray) {
-            if (pd != null && pd.hasUnit()) {
-                count++;
-            }
-        }
-
-        return count;
+        return getAggregates().occupied.size();
     }// getUnitCount()
 
 
@@ -389,14 +340,7 @@ public class Position implements java.io.Serializable {
      * Returns the number of provinces with dislodged units
      */
     public int getDislodgedUnitCount() {
-        int count = 0;
-        for (ProvinceData pd : provArray) {
-            if (pd != null && pd.hasDislodgedUnit()) {
-                count++;
-            }
-        }
-
-        return count;
+        return getAggregates().dislodgedAny.size();
     }// getDislodgedUnitCount()
 
 
@@ -404,20 +348,7 @@ public class Position implements java.io.Serializable {
      * Returns an array of provinces with home supply centers
      */
     public Province[] getHomeSupplyCenters() {
-        makeTmpProvArray();
-
-        int arrSize = 0;
-        for (int i = 0; i < provArray.length; i++) {
-            ProvinceData pd = provArray[i];
-            if (pd != null && pd.isSCAHome()) {
-                tmpProvArray[arrSize] = map.reverseIndex(i);
-                arrSize++;
-            }
-        }
-
-        Province[] p = new Province[arrSize];
-        System.arraycopy(tmpProvArray, 0, p, 0, arrSize);
-        return p;
+        return getAggregates().homeAny.toArray();
     }// getHomeSupplyCenters()
 
 
@@ -425,20 +356,7 @@ public class Position implements java.io.Serializable {
      * Returns an Array of the Home Supply Centers for a given power (whether or not they are owned by that power)
      */
     public Province[] getHomeSupplyCenters(Power power) {
-        makeTmpProvArray();
-
-        int arrSize = 0;
-        for (int i = 0; i < provArray.length; i++) {
-            ProvinceData pd = provArray[i];
-            if (pd != null && pd.getScHomePower() == power) {
-                tmpProvArray[arrSize] = map.reverseIndex(i);
-                arrSize++;
-            }
-        }
-
-        Province[] p = new Province[arrSize];
-        System.arraycopy(tmpProvArray, 0, p, 0, arrSize);
-        return p;
+        return getAggregates().getHome(power).toArray();
     }// getHomeSupplyCenters()
 
 
@@ -448,34 +366,79 @@ public class Position implements java.io.Serializable {
      * An owned home supply center need not have a unit present.
      */
     public boolean hasAnOwnedHomeSC(Power power) {
-        for (ProvinceData pd : provArray) {
-            if (pd != null && pd.getScHomePower() == power && pd.getScOwner() == power) {
-                return true;
-            }
-        }
-
-        return false;
+        return (getOwnedHomeSupplyCenterCount(power) > 0);
     }// hasAnOwnedHomeSC()
 
 
     /**
-     * Returns an Array of the owned Supply Centers for a given Power (whether or not they are home supply centers)
+     * Returns the number of provinces with non-dislodged units for a given Power
      */
-    public Province[] getOwnedSupplyCenters(Power power) {
-        makeTmpProvArray();
+    public int getUnitCount(Power power) {
+        return getAggregates().getUnits(power).size();
+    }// getUnitCount()
+
+
+    /**
+     * Returns the number of provinces with dislodged units for a given Power
+     */
+    public int getDislodgedUnitCount(Power power) {
+        return getAggregates().getDislodged(power).size();
+    }// getDislodgedUnitCount()
+
+
+    /**
+     * Returns the number of Supply Centers owned by a given Power (whether or not they are home supply centers)
+     */
+    public int getOwnedSupplyCenterCount(Power power) {
+        return getAggregates().getOwned(power).size();
+    }// getOwnedSupplyCenterCount()
+
+
+    /**
+     * Returns the number of Supply Centers owned by a given Power which contain
+     * a non-dislodged unit (of any Power)
+     */
+    public int getOccupiedSupplyCenterCount(Power power) {
+        final Aggregates agg = getAggregates();
+        return agg.getOwned(power).intersectionSize(agg.occupied);
+    }// getOccupiedSupplyCenterCount()
+
+
+    /**
+     * Returns the number of Home Supply Centers for a given Power (whether or not they are owned by that power)
+     */
+    public int getHomeSupplyCenterCount(Power power) {
+        return getAggregates().getHome(power).size();
+    }// getHomeSupplyCenterCount()
+
+
+    /**
+     * Returns the number of Home Supply Centers for a given Power which are owned by that Power
+     */
+    public int getOwnedHomeSupplyCenterCount(Power power) {
+        final Aggregates agg = getAggregates();
+        return agg.getHome(power).intersectionSize(agg.getOwned(power));
+    }// getOwnedHomeSupplyCenterCount()
 
-        int arrSize = 0;
-        for (int i = 0; i < provArray.length; i++) {
-            ProvinceData pd = provArray[i];
-            if (pd != null && pd.getScOwner() == power) {
-                tmpProvArray[arrSize] = map.reverseIndex(i);
-                arrSize++;
-            }
-        }
 
-        Province[] p = new Province[arrSize];
-        System.arraycopy(tmpProvArray, 0, p, 0, arrSize);
-        return p;
+    /**
+     * Returns the number of Home Supply Centers for a given Power which are owned
+     * by any Power. If <code>occupied</code> is true, only those which also contain
+     * a non-dislodged unit (of any Power) are counted.
+     */
+    public int getHeldHomeSupplyCenterCount(Power power, boolean occupied) {
+        final Aggregates agg = getAggregates();
+        return (occupied)
+                ? ProvinceSet.intersectionSize(agg.getHome(power), agg.ownedAny, agg.occupied)
+                : agg.getHome(power).intersectionSize(agg.ownedAny);
+    }// getHeldHomeSupplyCenterCount()
+
+
+    /**
+     * Returns an Array of the owned Supply Centers for a given Power (whether or not they are home supply centers)
+     */
+    public Province[] getOwnedSupplyCenters(Power power) {
+        return getAggregates().getOwned(power).toArray();
     }// getOwnedSupplyCenters()
 
 
@@ -483,21 +446,81 @@ public class Position implements java.io.Serializable {
      * Returns an array of provinces with owned supply centers
      */
     public Province[] getOwnedSupplyCenters() {
-        makeTmpProvArray();
+        return getAggregates().ownedAny.toArray();
+    }// getOwnedSupplyCenters()
 
-        int arrSize = 0;
-        for (int i = 0; i < provArray.length; i++) {
-            ProvinceData pd = provArray[i];
-            if (pd != null && pd.isSCOwned()) {
-                tmpProvArray[arrSize] = map.reverseIndex(i);
-                arrSize++;
-            }
-        }
 
-        Province[] p = new Province[arrSize];
-        System.arraycopy(tmpProvArray, 0, p, 0, arrSize);
-        return p;
-    }// getOwnedSupplyCenters()
+    /**
+     * Returns the set of provinces with non-dislodged units. The set is read-only,
+     * and reflects subsequent changes to this Position.
+     */
+    public ProvinceSet getUnitProvinceSet() {
+        return getAggregates().occupied;
+    }// getUnitProvinceSet()
+
+
+    /**
+     * Returns the set of provinces with non-dislodged units for a given Power.
+     * The set is read-only, and reflects subsequent changes to this Position.
+     */
+    public ProvinceSet getUnitProvinceSet(Power power) {
+        return getAggregates().getUnits(power);
+    }// getUnitProvinceSet()
+
+
+    /**
+     * Returns the set of provinces with dislodged units. The set is read-only,
+     * and reflects subsequent changes to this Position.
+     */
+    public ProvinceSet getDislodgedUnitProvinceSet() {
+        return getAggregates().dislodgedAny;
+    }// getDislodgedUnitProvinceSet()
+
+
+    /**
+     * Returns the set of provinces with dislodged units for a given Power.
+     * The set is read-only, and reflects subsequent changes to this Position.
+     */
+    public ProvinceSet getDislodgedUnitProvinceSet(Power power) {
+        return getAggregates().getDislodged(power);
+    }// getDislodgedUnitProvinceSet()
+
+
+    /**
+     * Returns the set of owned supply centers. The set is read-only,
+     * and reflects subsequent changes to this Position.
+     */
+    public ProvinceSet getOwnedSupplyCenterSet() {
+        return getAggregates().ownedAny;
+    }// getOwnedSupplyCenterSet()
+
+
+    /**
+     * Returns the set of supply centers owned by a given Power. The set is
+     * read-only, and reflects subsequent changes to this Position.
+     */
+    public ProvinceSet getOwnedSupplyCenterSet(Power power) {
+        return getAggregates().getOwned(power);
+    }// getOwnedSupplyCenterSet()
+
+
+    /**
+     * Returns the set of home supply centers. The set is read-only,
+     * and reflects subsequent changes to this Position.
+     */
+    public ProvinceSet getHomeSupplyCenterSet() {
+        return getAggregates().homeAny;
+    }// getHomeSupplyCenterSet()
+
+
+    /**
+     * Returns the set of home supply centers for a given Power (whether or not
+     * they are owned by that power). The set is read-only, and reflects
+     * subsequent changes to this Position.
+     */
+    public ProvinceSet getHomeSupplyCenterSet(Power power) {
+        return getAggregates().getHome(power);
+    }// getHomeSupplyCenterSet()
 
 
     /**
@@ -518,6 +541,10 @@ public class Position implements java.io.Serializable {
             pos.powerMap.put(curPower.getKey(), curPower.getValue().normClone());
         }
 
+        if (aggregates != null) {
+            pos.aggregates = new Aggregates(aggregates, true, true);
+        }
+
         return pos;
     }// clone()
 
@@ -540,6 +567,10 @@ public class Position implements java.io.Serializable {
             pos.powerMap.put(curPower.getKey(), curPower.getValue().normClone());
         }
 
+        if (aggregates != null) {
+            pos.aggregates = new Aggregates(aggregates, false, false);
+        }
+
         return pos;
     }// cloneExceptUnits()
 
@@ -561,6 +592,10 @@ public class Position implements java.io.Serializable {
             pos.powerMap.put(curPower.getKey(), curPower.getValue().normClone());
         }
 
+        if (aggregates != null) {
+            pos.aggregates = new Aggregates(aggregates, true, false);
+        }
+
         return pos;
     }// cloneExceptDislodged()
 
@@ -570,23 +605,7 @@ public class Position implements java.io.Serializable {
      * Units for a particular power.
      */
     public Province[] getUnitProvinces(Power power) {
-        makeTmpProvArray();
-
-        int arrSize = 0;
-        for (int i = 0; i < provArray.length; i++) {
-            ProvinceData pd = provArray[i];
-            if (pd != null) {
-                Unit unit = pd.getUnit();
-                if (unit != null && unit.getPower() == power) {
-                    tmpProvArray[arrSize] = map.reverseIndex(i);
-                    arrSize++;
-                }
-            }
-        }
-
-        Province[] p = new Province[arrSize];
-        System.arraycopy(tmpProvArray, 0, p, 0, arrSize);
-        return p;
+        return getAggregates().getUnits(power).toArray();
     }// getUnitProvinces()
 
 
@@ -595,23 +614,7 @@ public class Position implements java.io.Serializable {
      * Units for a particular power.
      */
     public Province[] getDislodgedUnitProvinces(Power power) {
-        makeTmpProvArray();
-
-        int arrSize = 0;
-        for (int i = 0; i < provArray.length; i++) {
-            ProvinceData pd = provArray[i];
-            if (pd != null) {
-                Unit unit = pd.getDislodgedUnit();
-                if (unit != null && unit.getPower() == power) {
-                    tmpProvArray[arrSize] = map.reverseIndex(i);
-                    arrSize++;
-                }
-            }
-        }
-
-        Province[] p = new Province[arrSize];
-        System.arraycopy(tmpProvArray, 0, p, 0, arrSize);
-        return p;
+        return getAggregates().getDislodged(power).toArray();
     }// getDislodgedUnitProvinces()
 
 
@@ -643,19 +646,205 @@ public class Position implements java.io.Serializable {
     }// getPowerData()
 
     /**
-     * Copying references into a large temporary array, then creating an array
-     * and copying the temp array into the correctly-sized array via
-     * System.arraycopy() is about twice as fast as using an ArrayList, and
-     * almost twice as fast as double-iterating (one to gauge the array size,
-     * and one to copy data).
-     * <p>
-     * This method creates a sufficiently large array to hold temporary data.
+     * Gets the Aggregates, creating them from the ProvinceData if required.
+     */
+    private Aggregates getAggregates() {
+        if (aggregates == null) {
+            final Aggregates agg = new Aggregates(map.getPowers(), map.getProvinces());
+            for (int i = 0; i < provArray.length; i++) {
+                final ProvinceData pd = provArray[i];
+                if (pd != null) {
+                    agg.setUnit(i, null, pd.getUnit());
+                    agg.setDislodgedUnit(i, null, pd.getDislodgedUnit());
+                    agg.setScOwner(i, null, pd.getScOwner());
+                    agg.setScHomePower(i, null, pd.getScHomePower());
+                }
+            }
+            aggregates = agg;
+        }
+
+        return aggregates;
+    }// getAggregates()
+
+
+    /**
+     * ProvinceSets for each Power, and for all Powers. Powers are indexed
+     * by their position in the Map power array; Powers not in the Map are
+     * appended as they are encountered. The sets are read-only to all but
+     * this class.
      */
-    private void makeTmpProvArray() {
-        if (tmpProvArray == null) {
-            tmpProvArray = new Province[provArray.length];
+    private static final class Aggregates {
+        private final Province[] provinces;
+        private final ProvinceSet empty;
+        private Power[] powers;
+        private ProvinceSet[] units;
+        private ProvinceSet[] dislodged;
+        private ProvinceSet[] owned;
+        private ProvinceSet[] home;
+        private final ProvinceSet occupied;
+        private final ProvinceSet dislodgedAny;
+        private final ProvinceSet ownedAny;
+        private final ProvinceSet homeAny;
+
+
+        /**
+         * Create empty Aggregates
+         */
+        Aggregates(Power[] mapPowers, Province[] provinces) {
+            this.provinces = provinces;
+            empty = new ProvinceSet(provinces, true);
+            powers = mapPowers.clone();
+            units = create(powers.length);
+            dislodged = create(powers.length);
+            owned = create(powers.length);
+            home = create(powers.length);
+            occupied = new ProvinceSet(provinces, true);
+            dislodgedAny = new ProvinceSet(provinces, true);
+            ownedAny = new ProvinceSet(provinces, true);
+            homeAny = new ProvinceSet(provinces, true);
+        }// Aggregates()
+
+        /**
+         * Copy Aggregates; unit and/or dislodged unit information may be omitted.
+         */
+        Aggregates(Aggregates src, boolean withUnits, boolean withDislodged) {
+            provinces = src.provinces;
+            empty = src.empty;
+            powers = src.powers.clone();
+            units = (withUnits) ? copy(src.units) : create(powers.length);
+            dislodged = (withDislodged) ? copy(src.dislodged) : create(powers.length);
+            owned = copy(src.owned);
+            home = copy(src.home);
+            occupied = (withUnits) ? new ProvinceSet(src.occupied, true) : new ProvinceSet(provinces, true);
+            dislodgedAny = (withDislodged) ? new ProvinceSet(src.dislodgedAny, true) : new ProvinceSet(provinces, true);
+            ownedAny = new ProvinceSet(src.ownedAny, true);
+            homeAny = new ProvinceSet(src.homeAny, true);
+        }// Aggregates()
+
+
+        void setUnit(int idx, Unit oldUnit, Unit newUnit) {
+            if (oldUnit != null) {
+                units[indexOf(oldUnit.getPower())].clear(idx);
+                occupied.clear(idx);
+            }
+            if (newUnit != null) {
+                units[indexOf(newUnit.getPower())].set(idx);
+                occupied.set(idx);
+            }
+        }// setUnit()
+
+        void setDislodgedUnit(int idx, Unit oldUnit, Unit newUnit) {
+            if (oldUnit != null) {
+                dislodged[indexOf(oldUnit.getPower())].clear(idx);
+                dislodgedAny.clear(idx);
+            }
+            if (newUnit != null) {
+                dislodged[indexOf(newUnit.getPower())].set(idx);
+                dislodgedAny.set(idx);
+            }
+        }// setDislodgedUnit()
+
+        void setScOwner(int idx, Power oldPower, Power newPower) {
+            if (oldPower != null) {
+                owned[indexOf(oldPower)].clear(idx);
+                ownedAny.clear(idx);
+            }
+            if (newPower != null) {
+                owned[indexOf(newPower)].set(idx);
+                ownedAny.set(idx);
+            }
+        }// setScOwner()
+
+        void setScHomePower(int idx, Power oldPower, Power newPower) {
+            if (oldPower != null) {
+                home[indexOf(oldPower)].clear(idx);
+                homeAny.clear(idx);
+            }
+            if (newPower != null) {
+                home[indexOf(newPower)].set(idx);
+                homeAny.set(idx);
+            }
+        }// setScHomePower()
+
+
+        ProvinceSet getUnits(Power power) {
+            return get(units, power);
+        }
+
+        ProvinceSet getDislodged(Power power) {
+            return get(dislodged, power);
         }
-    }// makeTmpProvArray()
+
+        ProvinceSet getOwned(Power power) {
+            return get(owned, power);
+        }
+
+        ProvinceSet getHome(Power power) {
+            return get(home, power);
+        }
+
+        /**
+         * True if the Power has any units, dislodged units, or supply centers.
+         */
+        boolean hasAny(Power power) {
+            return !(getUnits(power).isEmpty() && getDislodged(power).isEmpty() && getOwned(power).isEmpty());
+        }// hasAny()
+
+
+        /**
+         * Returns the set for the given Power; an empty set if the Power is unknown.
+         */
+        private ProvinceSet get(ProvinceSet[] sets, Power power) {
+            for (int i = 0; i < powers.length; i++) {
+                if (powers[i] == power) {
+                    return sets[i];
+                }
+            }
+            return empty;
+        }// get()
+
+        /**
+         * Index of the given Power; it is added if it is not yet known.
+         */
+        private int indexOf(Power power) {
+            for (int i = 0; i < powers.length; i++) {
+                if (powers[i] == power) {
+                    return i;
+                }
+            }
+
+            final int n = powers.length;
+            powers = Arrays.copyOf(powers, n + 1);
+            powers[n] = power;
+            units = grow(units);
+            dislodged = grow(dislodged);
+            owned = grow(owned);
+            home = grow(home);
+            return n;
+        }// indexOf()
+
+        private ProvinceSet[] create(int n) {
+            final ProvinceSet[] sets = new ProvinceSet[n];
+            for (int i = 0; i < n; i++) {
+                sets[i] = new ProvinceSet(provinces, true);
+            }
+            return sets;
+        }// create()
+
+        private ProvinceSet[] grow(ProvinceSet[] sets) {
+            final ProvinceSet[] tmp = Arrays.copyOf(sets, sets.length + 1);
+            tmp[sets.length] = new ProvinceSet(provinces, true);
+            return tmp;
+        }// grow()
+
+        private static ProvinceSet[] copy(ProvinceSet[] sets) {
+            final ProvinceSet[] tmp = new ProvinceSet[sets.length];
+            for (int i = 0; i < sets.length; i++) {
+                tmp[i] = new ProvinceSet(sets[i], true);
+            }
+            return tmp;
+        }// copy()
+    }// nested class Aggregates
 
     /**
      * All mutable Province data is kept here
@@ -84,6 +84,9 @@ public class Province implements java.io.Serializable, Comparable<Province> {
 
     //  transient fields
     private transient int hashCode = 0;
+    private transient AdjacencyTable adjacencyTable = null;   // set by the Map
+    private transient BorderTable borderTable = null;         // set by the Map
+    private transient Location[] locations = null;            // set by the Map; by Coast index
 
 
     /**
@@ -138,6 +141,47 @@ public class Province implements java.io.Serializable, Comparable<Province> {
         return index;
     }// getIndex()
 
+    /**
+     * Sets the compiled adjacency data of the Map containing this Province.
+     */
+    void setAdjacencyTable(AdjacencyTable table) {
+        adjacencyTable = table;
+    }// setAdjacencyTable()
+
+    /**
+     * Sets the shared Locations of this Province, indexed by Coast index.
+     */
+    void setLocations(Location[] value) {
+        locations = value;
+    }// setLocations()
+
+    /**
+     * Returns the Location for this Province and the given Coast.
+     * <p>
+     * Once this Province is part of a Map, the Map's shared instance
+     * is returned, and no allocation occurs.
+     */
+    public Location getLocation(Coast coast) {
+        if (locations != null && coast != null) {
+            return locations[coast.getIndex()];
+        }
+        return new Location(this, coast);
+    }// getLocation()
+
+    /**
+     * Sets the precomputed Border rules of the Map containing this Province.
+     */
+    void setBorderTable(BorderTable table) {
+        borderTable = table;
+    }// setBorderTable()
+
+    /**
+     * The Borders of this Province; null if there are none.
+     */
+    Border[] getBorders() {
+        return borders;
+    }// getBorders()
+
     /**
      * Gets the Adjacency data for this Province
      */
@@ -159,7 +203,7 @@ public class Province implements java.io.Serializable, Comparable<Province> {
         HashSet<Location> locSet = new HashSet<>(13);
         ArrayList<Location> locList = new ArrayList<>(13);
         for (int i = 0; i < Coast.ALL_COASTS.length; i++) {
-            Location[] locs = adjacency.getLocations(Coast.ALL_COASTS[i]);
+            Location[] locs = getLocations(Coast.ALL_COASTS[i]);
             for (Location aLoc : locs) {
                 if (locSet.add(aLoc)) {
                     locList.add(aLoc);
@@ -175,7 +219,7 @@ public class Province implements java.io.Serializable, Comparable<Province> {
      * specified coast.
      */
     public Location[] getAdjacentLocations(Coast coast) {
-        return adjacency.getLocations(coast);
+        return getLocations(coast);
     }// getAdjacency()
 
     /**
@@ -232,6 +276,10 @@ public class Province implements java.io.Serializable, Comparable<Province> {
 			}
 		}
 		*/
+        if (adjacencyTable != null) {
+            return adjacencyTable.isTouching(this, province);
+        }
+
         Location[] locations = adjacency.getLocations(Coast.TOUCHING);
         for (Location location : locations) {
             if (location.isProvinceEqual(province)) {
@@ -249,6 +297,10 @@ public class Province implements java.io.Serializable, Comparable<Province> {
      * coast is connected to the destination Province.
      */
     public boolean isAdjacent(Coast sourceCoast, Province dest) {
+        if (adjacencyTable != null) {
+            return adjacencyTable.isAdjacent(this, sourceCoast, dest);
+        }
+
         Location[] locations = adjacency.getLocations(sourceCoast);
         for (Location location : locations) {
             if (location.getProvince().equals(dest)) {
@@ -268,6 +320,10 @@ public class Province implements java.io.Serializable, Comparable<Province> {
      * This is a stricter version of isAdjacent(Coast, Province)
      */
     public boolean isAdjacent(Coast sourceCoast, Location dest) {
+        if (adjacencyTable != null) {
+            return adjacencyTable.isAdjacent(this, sourceCoast, dest);
+        }
+
         Location[] locations = adjacency.getLocations(sourceCoast);
         for (Location location : locations) {
             if (location.equals(dest)) {
@@ -283,7 +339,7 @@ public class Province implements java.io.Serializable, Comparable<Province> {
      */
     public boolean isLandLocked() {
         for (int i = 0; i < Coast.ANY_SEA.length; i++) {
-            if (adjacency.getLocations(Coast.ANY_SEA[i]) != Location.EMPTY) {
+            if (getLocations(Coast.ANY_SEA[i]) != Location.EMPTY) {
                 return false;
             }
         }
@@ -295,9 +351,9 @@ public class Province implements java.io.Serializable, Comparable<Province> {
      * Determines if this Province is coastal (including multi-coastal).
      */
     public boolean isCoastal() {
-        if (adjacency.getLocations(Coast.LAND) != Location.EMPTY) {
+        if (getLocations(Coast.LAND) != Location.EMPTY) {
             for (int i = 0; i < Coast.ANY_SEA.length; i++) {
-                Location[] locations = adjacency.getLocations(Coast.ANY_SEA[i]);
+                Location[] locations = getLocations(Coast.ANY_SEA[i]);
                 if (locations.length > 0) {
                     return true;
                 }
@@ -313,20 +369,20 @@ public class Province implements java.io.Serializable, Comparable<Province> {
      * Determines if this Province is a Land province (landlocked OR coastal)
      */
     public boolean isLand() {
-        return (adjacency.getLocations(Coast.LAND) != Location.EMPTY);
+        return (getLocations(Coast.LAND) != Location.EMPTY);
     }// isLand()
 
     /**
      * Determines if this Province is a Sea province (no land, not coastal).
      */
     public boolean isSea() {
-        if (adjacency.getLocations(Coast.LAND) != Location.EMPTY) {
+        if (getLocations(Coast.LAND) != Location.EMPTY) {
             return false;
         }
 
 
         for (int i = 0; i < Coast.ANY_DIRECTIONAL.length; i++) {
-            if (adjacency.getLocations(Coast.ANY_DIRECTIONAL[i]) != Location.EMPTY) {
+            if (getLocations(Coast.ANY_DIRECTIONAL[i]) != Location.EMPTY) {
                 return false;
             }
         }
@@ -338,9 +394,9 @@ public class Province implements java.io.Serializable, Comparable<Province> {
      * Determines if this Province has multiple coasts (e.g., Spain).
      */
     public boolean isMultiCoastal() {
-        if (adjacency.getLocations(Coast.SEA) == Location.EMPTY) {
+        if (getLocations(Coast.SEA) == Location.EMPTY) {
             for (int i = 0; i < Coast.ANY_DIRECTIONAL.length; i++) {
-                if (adjacency.getLocations(Coast.ANY_DIRECTIONAL[i]) != Location.EMPTY) {
+                if (getLocations(Coast.ANY_DIRECTIONAL[i]) != Location.EMPTY) {
                     return true;
                 }
             }
@@ -354,11 +410,11 @@ public class Province implements java.io.Serializable, Comparable<Province> {
      * If not multicoastal, returns an empty Coast array.
      */
     public Coast[] getValidDirectionalCoasts() {
-        if (adjacency.getLocations(Coast.SEA) == Location.EMPTY) {
+        if (getLocations(Coast.SEA) == Location.EMPTY) {
             ArrayList<Coast> dir = new ArrayList<>(4);
 
             for (int i = 0; i < Coast.ANY_DIRECTIONAL.length; i++) {
-                if (adjacency.getLocations(Coast.ANY_DIRECTIONAL[i]) != Location.EMPTY) {
+                if (getLocations(Coast.ANY_DIRECTIONAL[i]) != Location.EMPTY) {
                     dir.add(Coast.ANY_DIRECTIONAL[i]);
                 }
             }
@@ -373,7 +429,7 @@ public class Province implements java.io.Serializable, Comparable<Province> {
      * Determines if specified coast is allowed for this Province
      */
     public boolean isCoastValid(Coast coast) {
-        return adjacency.getLocations(coast) != Location.EMPTY;
+        return getLocations(coast) != Location.EMPTY;
     }// isCoastValid()
 
     /**
@@ -405,6 +461,10 @@ public class Province implements java.io.Serializable, Comparable<Province> {
      * failing Border order; returns null if Transit is successfull.
      */
     public Border getTransit(Location fromLoc, Unit.Type unit, Phase phase, Class<?> orderClass) {
+        if (borderTable != null) {
+            return borderTable.getTransit(this, fromLoc, unit, phase, orderClass);
+        }
+
         if (borders != null) {
             for (Border border : borders) {
                 if (!border.canTransit(fromLoc, unit, phase, orderClass)) {
@@ -428,6 +488,10 @@ public class Province implements java.io.Serializable, Comparable<Province> {
      * if there are more than one, which is not recommended.
      */
     public int getBaseMoveModifier(Location fromLoc) {
+        if (borderTable != null) {
+            return borderTable.getBaseMoveModifier(this, fromLoc);
+        }
+
         if (borders != null) {
             for (Border border : borders) {
                 final int baseMoveMod = border.getBaseMoveModifier(fromLoc);
@@ -495,6 +559,17 @@ public class Province implements java.io.Serializable, Comparable<Province> {
         return fullName.compareToIgnoreCase(obj.fullName);
     }// compareTo()
 
+    /**
+     * Gets the Locations adjacent to the coast; from the compiled
+     * adjacency data, once this Province is part of a Map.
+     */
+    private Location[] getLocations(Coast coast) {
+        if (adjacencyTable != null) {
+            return adjacencyTable.getAdjacentLocations(this, coast);
+        }
+        return adjacency.getLocations(coast);
+    }// getLocations()
+
     /**
      * Adjacency maintains the connectivity graph between provinces.
      */
@@ -0,0 +1,343 @@
+//
+//  @(#)ProvinceSet.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.world;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of the Provinces of a Map, stored as a bitset over Province indices.
+ * <p>
+ * Membership tests, insertion and removal are constant-time, and union,
+ * intersection and difference are proportional to the number of Provinces
+ * in the Map divided by 64. Iteration is in Province index order.
+ * <p>
+ * Sets obtained from a Position are read-only, and reflect subsequent changes
+ * to that Position; attempts to modify them throw UnsupportedOperationException.
+ * Use the copy constructor to obtain a modifiable snapshot.
+ * <p>
+ * Sets may only be combined with sets for the same Map. This class is not
+ * threadsafe.
+ */
+public final class ProvinceSet implements Iterable<Province> {
+    private final Province[] provinces;
+    private final long[] words;
+    private final boolean readOnly;
+
+
+    /**
+     * Create an empty ProvinceSet for the given Provinces, which must be all
+     * the Provinces of a Map, in index order (as returned by Map.getProvinces()
+     * or Position.getProvinces()).
+     */
+    public ProvinceSet(Province[] provinces) {
+        this(provinces, false);
+    }// ProvinceSet()
+
+    /**
+     * Create a modifiable copy of the given ProvinceSet.
+     */
+    public ProvinceSet(ProvinceSet set) {
+        this(set, false);
+    }// ProvinceSet()
+
+    /**
+     * Create an empty ProvinceSet, which may be read-only
+     */
+    ProvinceSet(Province[] provinces, boolean readOnly) {
+        if (provinces == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.provinces = provinces;
+        this.words = new long[(provinces.length + 63) >>> 6];
+        this.readOnly = readOnly;
+    }// ProvinceSet()
+
+    /**
+     * Create a copy of the given ProvinceSet, which may be read-only
+     */
+    ProvinceSet(ProvinceSet set, boolean readOnly) {
+        this.provinces = set.provinces;
+        this.words = set.words.clone();
+        this.readOnly = readOnly;
+    }// ProvinceSet()
+
+
+    /**
+     * True if the Province is in this set.
+     */
+    public boolean contains(Province province) {
+        final int idx = province.getIndex();
+        return (idx < provinces.length && (words[idx >>> 6] & (1L << idx)) != 0);
+    }// contains()
+
+    /**
+     * Adds a Province; returns true if it was not already present.
+     */
+    public boolean add(Province province) {
+        checkWritable();
+        final int idx = province.getIndex();
+        final long old = words[idx >>> 6];
+        words[idx >>> 6] = old | (1L << idx);
+        return (old != words[idx >>> 6]);
+    }// add()
+
+    /**
+     * Removes a Province; returns true if it was present.
+     */
+    public boolean remove(Province province) {
+        checkWritable();
+        if (contains(province)) {
+            clear(province.getIndex());
+            return true;
+        }
+        return false;
+    }// remove()
+
+    /**
+     * Adds all Provinces in the given set to this set (union).
+     */
+    public void addAll(ProvinceSet set) {
+        checkWritable();
+        checkCompatible(set);
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= set.words[i];
+        }
+    }// addAll()
+
+    /**
+     * Removes all Provinces from this set that are not in the given set (intersection).
+     */
+    public void retainAll(ProvinceSet set) {
+        checkWritable();
+        checkCompatible(set);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= set.words[i];
+        }
+    }// retainAll()
+
+    /**
+     * Removes all Provinces in the given set from this set (difference).
+     */
+    public void removeAll(ProvinceSet set) {
+        checkWritable();
+        checkCompatible(set);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~set.words[i];
+        }
+    }// removeAll()
+
+    /**
+     * Removes all Provinces from this set.
+     */
+    public void clear() {
+        checkWritable();
+        Arrays.fill(words, 0L);
+    }// clear()
+
+
+    /**
+     * True if this set and the given set have any Provinces in common.
+     */
+    public boolean intersects(ProvinceSet set) {
+        checkCompatible(set);
+        for (int i = 0; i < words.length; i++) {
+            if ((words[i] & set.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }// intersects()
+
+    /**
+     * The number of Provinces in both this set and the given set.
+     */
+    public int intersectionSize(ProvinceSet set) {
+        checkCompatible(set);
+        int n = 0;
+        for (int i = 0; i < words.length; i++) {
+            n += Long.bitCount(words[i] & set.words[i]);
+        }
+        return n;
+    }// intersectionSize()
+
+    /**
+     * The number of Provinces in this set.
+     */
+    public int size() {
+        int n = 0;
+        for (long word : words) {
+            n += Long.bitCount(word);
+        }
+        return n;
+    }// size()
+
+    /**
+     * True if there are no Provinces in this set.
+     */
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }// isEmpty()
+
+
+    /**
+     * Returns the index of the first Province in this set with an index greater
+     * than or equal to <code>fromIndex</code>, or -1 if there is none. This allows
+     * iteration without allocation:
+     * <pre>
+     *     for (int i = set.nextIndex(0); i >= 0; i = set.nextIndex(i + 1)) { ... }
+     * </pre>
+     */
+    public int nextIndex(int fromIndex) {
+        int w = fromIndex >>> 6;
+        if (w >= words.length) {
+            return -1;
+        }
+
+        long word = words[w] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }// nextIndex()
+
+    /**
+     * Returns the Provinces in this set, in index order.
+     */
+    public Province[] toArray() {
+        final Province[] array = new Province[size()];
+        int n = 0;
+        for (int i = nextIndex(0); i >= 0; i = nextIndex(i + 1)) {
+            array[n++] = provinces[i];
+        }
+        return array;
+    }// toArray()
+
+    /**
+     * Iterates the Provinces in this set, in index order.
+     */
+    public Iterator<Province> iterator() {
+        return new Iterator<Province>() {
+            private int next = nextIndex(0);
+
+            public boolean hasNext() {
+                return (next >= 0);
+            }
+
+            public Province next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+
+                final Province province = provinces[next];
+                next = nextIndex(next + 1);
+                return province;
+            }
+        };
+    }// iterator()
+
+
+    /**
+     * Two ProvinceSets are equal if they contain the same Provinces.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        } else if (obj instanceof ProvinceSet) {
+            final ProvinceSet set = (ProvinceSet) obj;
+            return (provinces == set.provinces && Arrays.equals(words, set.words));
+        }
+        return false;
+    }// equals()
+
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }// hashCode()
+
+    /**
+     * For debugging: the short names of the Provinces in this set
+     */
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(128);
+        sb.append('[');
+        for (int i = nextIndex(0); i >= 0; i = nextIndex(i + 1)) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(provinces[i].getShortName());
+        }
+        sb.append(']');
+        return sb.toString();
+    }// toString()
+
+
+    /**
+     * Set a Province index, even if this set is read-only
+     */
+    void set(int idx) {
+        words[idx >>> 6] |= (1L << idx);
+    }// set()
+
+    /**
+     * Clear a Province index, even if this set is read-only
+     */
+    void clear(int idx) {
+        words[idx >>> 6] &= ~(1L << idx);
+    }// clear()
+
+    /**
+     * The number of Provinces in all three sets.
+     */
+    static int intersectionSize(ProvinceSet a, ProvinceSet b, ProvinceSet c) {
+        a.checkCompatible(b);
+        a.checkCompatible(c);
+        int n = 0;
+        for (int i = 0; i < a.words.length; i++) {
+            n += Long.bitCount(a.words[i] & b.words[i] & c.words[i]);
+        }
+        return n;
+    }// intersectionSize()
+
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("read-only ProvinceSet");
+        }
+    }// checkWritable()
+
+    private void checkCompatible(ProvinceSet set) {
+        if (set.words.length != words.length) {
+            throw new IllegalArgumentException("ProvinceSets are for different Maps");
+        }
+    }// checkCompatible()
+
+}// class ProvinceSet
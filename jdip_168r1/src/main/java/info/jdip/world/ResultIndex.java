@@ -0,0 +1,177 @@
+//
+//  @(#)ResultIndex.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.world;
+
+import info.jdip.order.Orderable;
+import info.jdip.order.result.OrderResult;
+import info.jdip.order.result.Result;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of the Results of a TurnState, grouped by order, source Province,
+ * Power, Result class, and OrderResult type. It is obtained from
+ * TurnState.getResultIndex(), and is rebuilt when the result list is replaced,
+ * or when results are added or removed. Only the list instance and size are
+ * checked; see TurnState.getResultIndex() for changes that are not detected.
+ * <p>
+ * All Lists returned are unmodifiable, never null, and in the order of the
+ * result list. A ResultIndex is immutable and thus threadsafe.
+ */
+public final class ResultIndex {
+    private final List<Result> results;
+    private final int resultCount;
+    private final Map<Orderable, List<Result>> byOrder;
+    private final Map<Province, List<Result>> byProvince;
+    private final Map<Power, List<Result>> byPower;
+    private final Map<Class<?>, List<Result>> byClass;
+    private final Map<OrderResult.ResultType, List<Result>> byType;
+    private final Set<Orderable> successfulOrders;
+
+
+    /**
+     * Create a ResultIndex for the given result list.
+     */
+    ResultIndex(List<Result> results) {
+        this.results = results;
+        this.resultCount = results.size();
+
+        final Map<Orderable, List<Result>> orderMap = new HashMap<>(results.size());
+        final Map<Province, List<Result>> provinceMap = new HashMap<>(results.size());
+        final Map<Power, List<Result>> powerMap = new HashMap<>(17);
+        final Map<Class<?>, List<Result>> classMap = new HashMap<>(17);
+        final Map<OrderResult.ResultType, List<Result>> typeMap = new HashMap<>(17);
+        final Set<Orderable> successSet = new HashSet<>(results.size());
+
+        for (Result result : results) {
+            add(powerMap, result.getPower(), result);
+
+            // a result is indexed by its class, and by each superclass
+            for (Class<?> c = result.getClass(); Result.class.isAssignableFrom(c); c = c.getSuperclass()) {
+                add(classMap, c, result);
+            }
+
+            if (result instanceof OrderResult) {
+                final OrderResult or = (OrderResult) result;
+                add(typeMap, or.getResultType(), result);
+
+                final Orderable order = or.getOrder();
+                if (order != null) {
+                    add(orderMap, order, result);
+                    add(provinceMap, order.getSource().getProvince(), result);
+
+                    if (or.getResultType() == OrderResult.ResultType.SUCCESS) {
+                        successSet.add(order);
+                    }
+                }
+            }
+        }
+
+        byOrder = freeze(orderMap);
+        byProvince = freeze(provinceMap);
+        byPower = freeze(powerMap);
+        byClass = freeze(classMap);
+        byType = freeze(typeMap);
+        successfulOrders = successSet;
+    }// ResultIndex()
+
+
+    /**
+     * True if this index was created from the given List, and it has not changed size.
+     * Results replaced in place, without a change of size, are not detected.
+     */
+    boolean isFor(List<Result> list) {
+        return (list == results && list.size() == resultCount);
+    }// isFor()
+
+
+    /**
+     * OrderResults for the given order.
+     */
+    public List<Result> getResults(Orderable order) {
+        return get(byOrder, order);
+    }// getResults()
+
+    /**
+     * OrderResults for orders with the given source Province.
+     */
+    public List<Result> getResults(Province province) {
+        return get(byProvince, province);
+    }// getResults()
+
+    /**
+     * Results for the given Power. If power is null, general results
+     * (those without a Power) are returned.
+     */
+    public List<Result> getResults(Power power) {
+        return get(byPower, power);
+    }// getResults()
+
+    /**
+     * OrderResults of the given type.
+     */
+    public List<Result> getResults(OrderResult.ResultType type) {
+        return get(byType, type);
+    }// getResults()
+
+    /**
+     * Results of the given class, including subclasses; e.g., DislodgedResult.class,
+     * or OrderResult.class for all OrderResults.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Result> List<T> getResults(Class<T> resultClass) {
+        return (List<T>) get(byClass, resultClass);
+    }// getResults()
+
+    /**
+     * True if there is a SUCCESS result for the given order.
+     */
+    public boolean isSuccessful(Orderable order) {
+        return successfulOrders.contains(order);
+    }// isSuccessful()
+
+
+    private static <K> void add(Map<K, List<Result>> map, K key, Result result) {
+        List<Result> list = map.get(key);
+        if (list == null) {
+            list = new ArrayList<>(4);
+            map.put(key, list);
+        }
+        list.add(result);
+    }// add()
+
+    private static <K> Map<K, List<Result>> freeze(Map<K, List<Result>> map) {
+        for (Map.Entry<K, List<Result>> entry : map.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return map;
+    }// freeze()
+
+    private static <K> List<Result> get(Map<K, List<Result>> map, K key) {
+        final List<Result> list = map.get(key);
+        return (list == null) ? Collections.<Result>emptyList() : list;
+    }// get()
+
+}// class ResultIndex
@@ -23,8 +23,8 @@
 package info.jdip.world;
 
 import info.jdip.order.Orderable;
-import info.jdip.order.result.OrderResult;
 import info.jdip.order.result.Result;
+import info.jdip.process.RetreatChecker;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -63,7 +63,8 @@ public class TurnState implements Serializable {
     private transient World world = null;                // makes it easier when we just pass a turnstate
     private boolean isEnded = false;                // true if game over (won, draw, etc.)
     private boolean isResolved = false;                // true if phase has been adjudicated
-    private transient HashMap<Orderable, Boolean> resultMap = null;        // transient result map
+    private transient ResultIndex resultIndex = null;        // transient result index
+    private transient RetreatChecker.RetreatTable retreatTable = null;        // transient retreat index
 
 
     /**
@@ -146,6 +147,10 @@ public class TurnState implements Serializable {
 
     /**
      * Returns the result list
+     * <p>
+     * If results in the returned list are replaced in place (rather than
+     * added or removed), <code>setResultList()</code> must then be called,
+     * so that the result index and retreat table are recreated.
      */
     public List<Result> getResultList() {
         return resultList;
@@ -154,6 +159,8 @@ public class TurnState implements Serializable {
 
     /**
      * Sets the Result list, erasing any previously existing result list.
+     * The result index and retreat table are always recreated, even if
+     * the given list is the current result list.
      */
     public void setResultList(List<Result> list) {
         if (list == null) {
@@ -161,6 +168,8 @@ public class TurnState implements Serializable {
         }
 
         resultList = list;
+        resultIndex = null;
+        retreatTable = null;
     }// setResultList()
 
 
@@ -178,7 +187,12 @@ public class TurnState implements Serializable {
      * have changed ownership.
      */
     public void setSCOwnerChanged(boolean value) {
-        isSCOwnerChanged = value;
+        if (value != isSCOwnerChanged) {
+            isSCOwnerChanged = value;
+            if (world != null) {
+                world.invalidatePhaseIndex();
+            }
+        }
     }// setSCOwnerChanged()
 
 
@@ -279,22 +293,43 @@ public class TurnState implements Serializable {
             return true;
         }
 
-        if (resultMap == null) {
-            resultMap = new HashMap<>(53);
-            for (Result obj : getResultList()) {
-                if (obj instanceof OrderResult) {
-                    OrderResult ordRes = (OrderResult) obj;
-
-                    // we only map SUCCESSFULL orders.
-                    if (ordRes.getResultType() == OrderResult.ResultType.SUCCESS) {
-                        resultMap.put(ordRes.getOrder(), Boolean.TRUE);
-                    }
-                }
-            }
+        return getResultIndex().isSuccessful(o);
+    }// isFailedOrder()
+
+
+    /**
+     * Returns an index of the result list, by order, province, power, and
+     * result type. The index is created when first needed (typically, at
+     * the end of adjudication), and is recreated if the result list is
+     * replaced, or if results are added or removed. Changes that keep the
+     * same number of results (such as <code>List.set()</code>, or a removal
+     * followed by an addition) are not detected; call
+     * <code>setResultList()</code> after such changes.
+     */
+    public ResultIndex getResultIndex() {
+        ResultIndex ri = resultIndex;
+        if (ri == null || !ri.isFor(resultList)) {
+            ri = new ResultIndex(resultList);
+            resultIndex = ri;
         }
+        return ri;
+    }// getResultIndex()
 
-        return resultMap.get(o) == Boolean.TRUE;
 
-    }// isFailedOrder()
+    /**
+     * Returns the Move results of this TurnState indexed by Province, for
+     * checking the retreats of the following phase (see RetreatChecker).
+     * Like the result index, it is created when first needed, and is recreated
+     * if the result list is replaced, or if results are added or removed (see
+     * getResultIndex() for changes that are not detected).
+     */
+    public RetreatChecker.RetreatTable getRetreatTable() {
+        RetreatChecker.RetreatTable rt = retreatTable;
+        if (rt == null || !rt.isFor(resultList)) {
+            rt = new RetreatChecker.RetreatTable(resultList);
+            retreatTable = rt;
+        }
+        return rt;
+    }// getRetreatTable()
 
 }// class TurnState
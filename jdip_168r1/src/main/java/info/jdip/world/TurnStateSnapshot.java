@@ -0,0 +1,1030 @@
+//
+//  @(#)TurnStateSnapshot.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.world;
+
+import info.jdip.order.Build;
+import info.jdip.order.Convoy;
+import info.jdip.order.DefineState;
+import info.jdip.order.Disband;
+import info.jdip.order.Hold;
+import info.jdip.order.Move;
+import info.jdip.order.OrderException;
+import info.jdip.order.OrderFactory;
+import info.jdip.order.Orderable;
+import info.jdip.order.Remove;
+import info.jdip.order.Retreat;
+import info.jdip.order.Support;
+import info.jdip.order.Waive;
+import info.jdip.order.result.BouncedResult;
+import info.jdip.order.result.ConvoyPathResult;
+import info.jdip.order.result.DependentMoveFailedResult;
+import info.jdip.order.result.DislodgedResult;
+import info.jdip.order.result.OrderResult;
+import info.jdip.order.result.Result;
+import info.jdip.order.result.SubstitutedResult;
+import info.jdip.order.result.TimeResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * A compact, versioned binary snapshot of the current state of a World.
+ * <p>
+ * A snapshot contains the last TurnState of a World: its Phase, Position,
+ * Orders, and Results. The previous TurnState (if any) is also included,
+ * since it holds the Results of the last adjudication; these are reported
+ * to players, and are required to adjudicate retreats. Earlier TurnStates
+ * in which supply center ownership changed are included only as markers
+ * (Phase and flags, with an empty Position), since VictoryConditions
+ * needs them; no other game history or metadata is included.
+ * <p>
+ * Provinces, Powers, Coasts, and unit types are written as indices, so
+ * a snapshot can only be read into a World created from the same variant
+ * (and variant version) that it was written from. The variant name and
+ * version are stored in the snapshot header and checked when reading.
+ * <p>
+ * Results are written with their type and any order-specific data (bounce
+ * and dislodgement details, convoy paths, substituted orders). Localized
+ * messages are written as their resource key and arguments, so that they
+ * are formatted in the reader's locale; Provinces, Powers, Locations and
+ * Orders among the arguments are written as references, numbers as
+ * numbers, and any other argument as its text. Literal messages are
+ * written as text.
+ * <p>
+ * Snapshots are intended for quickly moving a game between processes;
+ * World.save() should be used for archival.
+ */
+public final class TurnStateSnapshot {
+    /**
+     * Snapshot magic number ("JDSN")
+     */
+    public static final int MAGIC = 0x4A44534E;
+    /**
+     * Current snapshot schema version
+     */
+    public static final int VERSION = 1;
+
+    // result kinds
+    private static final int RESULT = 0;
+    private static final int ORDER_RESULT = 1;
+    private static final int BOUNCED = 2;
+    private static final int DISLODGED = 3;
+    private static final int CONVOY_PATH = 4;
+    private static final int DEPENDENT_MOVE_FAILED = 5;
+    private static final int SUBSTITUTED = 6;
+    private static final int TIME = 7;
+
+    // message argument kinds
+    private static final int ARG_NULL = 0;
+    private static final int ARG_STRING = 1;
+    private static final int ARG_INT = 2;
+    private static final int ARG_LONG = 3;
+    private static final int ARG_DOUBLE = 4;
+    private static final int ARG_PROVINCE = 5;
+    private static final int ARG_POWER = 6;
+    private static final int ARG_LOCATION = 7;
+    private static final int ARG_ORDER = 8;
+
+    // message arg count of a literal (not localized) message
+    private static final int LITERAL_MESSAGE = -1;
+
+    // order kinds
+    private static final int HOLD = 0;
+    private static final int MOVE = 1;
+    private static final int SUPPORT = 2;
+    private static final int CONVOY = 3;
+    private static final int RETREAT = 4;
+    private static final int DISBAND = 5;
+    private static final int BUILD = 6;
+    private static final int REMOVE = 7;
+    private static final int WAIVE = 8;
+    private static final int DEFINE_STATE = 9;
+
+    // move flags
+    private static final int MOVE_VIA_CONVOY = 0x01;
+    private static final int MOVE_ROUTES = 0x02;
+
+    // province data flags
+    private static final int PD_UNIT = 0x01;
+    private static final int PD_DISLODGED = 0x02;
+    private static final int PD_SC_OWNER = 0x04;
+    private static final int PD_SC_HOME = 0x08;
+    private static final int PD_LAST_OCCUPIER = 0x10;
+
+    // turnstate flags
+    private static final int TS_RESOLVED = 0x01;
+    private static final int TS_ENDED = 0x02;
+    private static final int TS_SC_OWNER_CHANGED = 0x04;
+
+    private static final Unit.Type[] UNIT_TYPES = {
+            Unit.Type.ARMY, Unit.Type.FLEET, Unit.Type.WING, Unit.Type.UNDEFINED
+    };
+
+    private static final OrderResult.ResultType[] RESULT_TYPES = {
+            OrderResult.ResultType.VALIDATION_FAILURE,
+            OrderResult.ResultType.SUCCESS,
+            OrderResult.ResultType.FAILURE,
+            OrderResult.ResultType.DISLODGED,
+            OrderResult.ResultType.CONVOY_PATH_TAKEN,
+            OrderResult.ResultType.TEXT,
+            OrderResult.ResultType.SUBSTITUTED
+    };
+
+
+    /**
+     * No instances
+     */
+    private TurnStateSnapshot() {
+    }// TurnStateSnapshot()
+
+
+    /**
+     * Create a snapshot of the given World.
+     */
+    public static byte[] toByteArray(World world) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(2048);
+        try {
+            write(world, baos);
+        } catch (IOException e) {
+            // cannot occur with a ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return baos.toByteArray();
+    }// toByteArray()
+
+
+    /**
+     * Replace all TurnStates in the given World with those in the snapshot.
+     * The World must have been created from the same variant as the snapshot.
+     *
+     * @throws IOException if the snapshot is malformed, or does not match the World
+     */
+    public static void fromByteArray(World world, OrderFactory orderFactory, byte[] snapshot)
+            throws IOException {
+        read(world, orderFactory, new ByteArrayInputStream(snapshot));
+    }// fromByteArray()
+
+
+    /**
+     * Get the name of the variant a snapshot was written from, so that
+     * a World for that variant can be created before reading it.
+     *
+     * @throws IOException if the snapshot is malformed
+     */
+    public static String getVariantName(byte[] snapshot)
+            throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot));
+        try {
+            readHeader(in);
+            return in.readUTF();
+        } catch (EOFException e) {
+            throw new IOException("truncated snapshot", e);
+        }
+    }// getVariantName()
+
+
+    /**
+     * Write a snapshot of the given World to an OutputStream.
+     * The stream is not closed.
+     */
+    public static void write(World world, OutputStream os)
+            throws IOException {
+        final TurnState last = world.getLastTurnState();
+        if (last == null) {
+            throw new IllegalArgumentException("no TurnStates");
+        }
+
+        final List<TurnState> turnStates = new ArrayList<>(2);
+        final TurnState previous = world.getPreviousTurnState(last);
+        if (previous != null) {
+            turnStates.add(previous);
+        }
+        turnStates.add(last);
+
+        final List<TurnState> markers = new ArrayList<>();
+        for (TurnState ts : world.getAllTurnStates()) {
+            if (ts.getPhase().compareTo(turnStates.get(0).getPhase()) < 0 && ts.getSCOwnerChanged()) {
+                markers.add(ts);
+            }
+        }
+
+        final World.VariantInfo vi = world.getVariantInfo();
+        final Writer writer = new Writer(world.getMap(), new DataOutputStream(os));
+        writer.out.writeInt(MAGIC);
+        writer.out.writeShort(VERSION);
+        writer.out.writeUTF(String.valueOf(vi.getVariantName()));
+        writer.out.writeFloat(vi.getVariantVersion());
+        writer.out.writeShort(writer.provinces.length);
+        writer.out.writeByte(writer.powers.length);
+        writer.out.writeShort(markers.size());
+        for (TurnState ts : markers) {
+            writer.writePhase(ts);
+        }
+        writer.out.writeByte(turnStates.size());
+        for (TurnState ts : turnStates) {
+            writer.writePhase(ts);
+            writer.writeTurnState(ts);
+        }
+        writer.out.flush();
+    }// write()
+
+
+    /**
+     * Read a snapshot from an InputStream, replacing all TurnStates in
+     * the given World. The stream is not closed. If the snapshot cannot
+     * be read, the World is not modified.
+     *
+     * @throws IOException if the snapshot is malformed, or does not match the World
+     */
+    public static void read(World world, OrderFactory orderFactory, InputStream is)
+            throws IOException {
+        try {
+            readSnapshot(world, orderFactory, is);
+        } catch (EOFException e) {
+            throw new IOException("truncated snapshot", e);
+        }
+    }// read()
+
+
+    /**
+     * Read a snapshot; see read()
+     */
+    private static void readSnapshot(World world, OrderFactory orderFactory, InputStream is)
+            throws IOException {
+        final Reader reader = new Reader(world, orderFactory, new DataInputStream(is));
+        readHeader(reader.in);
+
+        final World.VariantInfo vi = world.getVariantInfo();
+        final String variantName = reader.in.readUTF();
+        final float variantVersion = reader.in.readFloat();
+        if (!variantName.equalsIgnoreCase(String.valueOf(vi.getVariantName()))
+                || variantVersion != vi.getVariantVersion()) {
+            throw new IOException("snapshot is for variant " + variantName + " " + variantVersion
+                    + ", not " + vi.getVariantName() + " " + vi.getVariantVersion());
+        }
+
+        if (reader.in.readUnsignedShort() != reader.provinces.length
+                || reader.in.readUnsignedByte() != reader.powers.length) {
+            throw new IOException("snapshot does not match the map");
+        }
+
+        final List<TurnState> turnStates = new ArrayList<>();
+        final int nMarkers = reader.in.readUnsignedShort();
+        for (int i = 0; i < nMarkers; i++) {
+            final TurnState ts = reader.readPhase();
+            ts.setPosition(new Position(reader.map));
+            turnStates.add(ts);
+        }
+
+        final int count = reader.in.readUnsignedByte();
+        for (int i = 0; i < count; i++) {
+            final TurnState ts = reader.readPhase();
+            reader.readTurnState(ts);
+            turnStates.add(ts);
+        }
+
+        world.removeAllTurnStates();
+        for (TurnState ts : turnStates) {
+            ts.setWorld(world);
+            world.setTurnState(ts);
+        }
+    }// readSnapshot()
+
+
+    /**
+     * Read and check the magic number and schema version
+     */
+    private static void readHeader(DataInputStream in)
+            throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a TurnState snapshot");
+        }
+
+        final int version = in.readUnsignedShort();
+        if (version != VERSION) {
+            throw new IOException("unsupported snapshot version: " + version);
+        }
+    }// readHeader()
+
+
+    /**
+     * Writes TurnStates.
+     */
+    private static final class Writer {
+        private final DataOutputStream out;
+        private final Province[] provinces;
+        private final Power[] powers;
+        private final HashMap<Power, Integer> powerIndices;
+        private final IdentityHashMap<Orderable, Integer> orderIndices = new IdentityHashMap<>();
+        private final List<Orderable> orderTable = new ArrayList<>();
+
+        Writer(Map map, DataOutputStream out) {
+            this.out = out;
+            this.provinces = map.getProvinces();
+            this.powers = map.getPowers();
+            this.powerIndices = new HashMap<>(powers.length * 2);
+            for (int i = 0; i < powers.length; i++) {
+                powerIndices.put(powers[i], i);
+            }
+        }// Writer()
+
+        /**
+         * Write the Phase and flags of a TurnState
+         */
+        void writePhase(TurnState ts) throws IOException {
+            final Phase phase = ts.getPhase();
+            out.writeByte(indexOf(Phase.SeasonType.ALL, phase.getSeasonType()));
+            out.writeShort(phase.getYear());
+            out.writeByte(indexOf(Phase.PhaseType.ALL, phase.getPhaseType()));
+
+            int flags = 0;
+            flags |= ts.isResolved() ? TS_RESOLVED : 0;
+            flags |= ts.isEnded() ? TS_ENDED : 0;
+            flags |= ts.getSCOwnerChanged() ? TS_SC_OWNER_CHANGED : 0;
+            out.writeByte(flags);
+        }// writePhase()
+
+        /**
+         * Write the Position, Orders, and Results of a TurnState
+         */
+        void writeTurnState(TurnState ts) throws IOException {
+            writePosition(ts.getPosition());
+
+            // the order table contains every order in the TurnState, followed
+            // by any other orders referred to by results.
+            orderIndices.clear();
+            orderTable.clear();
+            final List<List<Orderable>> ordersByPower = new ArrayList<>(powers.length);
+            for (Power power : powers) {
+                final List<Orderable> orders = ts.getOrders(power);
+                ordersByPower.add(orders);
+                for (Orderable order : orders) {
+                    addOrder(order);
+                }
+            }
+
+            final List<Result> results = ts.getResultList();
+            for (Result result : results) {
+                if (result instanceof OrderResult) {
+                    addOrder(((OrderResult) result).getOrder());
+                    if (result instanceof DependentMoveFailedResult) {
+                        addOrder(((DependentMoveFailedResult) result).getDependentOrder());
+                    } else if (result instanceof SubstitutedResult) {
+                        addOrder(((SubstitutedResult) result).getSubstitutedOrder());
+                    }
+                }
+
+                final Object[] args = result.getMessageArgs();
+                if (args != null) {
+                    for (Object arg : args) {
+                        if (arg instanceof Orderable) {
+                            addOrder((Orderable) arg);
+                        }
+                    }
+                }
+            }
+
+            out.writeShort(orderTable.size());
+            for (Orderable order : orderTable) {
+                writeOrder(order);
+            }
+
+            for (List<Orderable> orders : ordersByPower) {
+                out.writeShort(orders.size());
+                for (Orderable order : orders) {
+                    out.writeShort(orderIndices.get(order));
+                }
+            }
+
+            out.writeShort(results.size());
+            for (Result result : results) {
+                writeResult(result);
+            }
+        }// writeTurnState()
+
+        /**
+         * Write all Province and Power data of a Position
+         */
+        private void writePosition(Position position) throws IOException {
+            for (Province province : provinces) {
+                final Unit unit = position.getUnit(province);
+                final Unit dislodged = position.getDislodgedUnit(province);
+                final Power scOwner = position.getSupplyCenterOwner(province);
+                final Power scHome = position.getSupplyCenterHomePower(province);
+                final Power lastOccupier = position.getLastOccupier(province);
+
+                int flags = 0;
+                flags |= (unit != null) ? PD_UNIT : 0;
+                flags |= (dislodged != null) ? PD_DISLODGED : 0;
+                flags |= (scOwner != null) ? PD_SC_OWNER : 0;
+                flags |= (scHome != null) ? PD_SC_HOME : 0;
+                flags |= (lastOccupier != null) ? PD_LAST_OCCUPIER : 0;
+                out.writeByte(flags);
+
+                if (unit != null) {
+                    writeUnit(unit);
+                }
+                if (dislodged != null) {
+                    writeUnit(dislodged);
+                }
+                if (scOwner != null) {
+                    writePower(scOwner);
+                }
+                if (scHome != null) {
+                    writePower(scHome);
+                }
+                if (lastOccupier != null) {
+                    writePower(lastOccupier);
+                }
+            }
+
+            for (Power power : powers) {
+                out.writeBoolean(position.isEliminated(power));
+            }
+        }// writePosition()
+
+        private void writeUnit(Unit unit) throws IOException {
+            writePower(unit.getPower());
+            writeUnitType(unit.getType());
+            out.writeByte(unit.getCoast().getIndex());
+        }// writeUnit()
+
+        private void addOrder(Orderable order) {
+            if (order != null && !orderIndices.containsKey(order)) {
+                orderIndices.put(order, orderTable.size());
+                orderTable.add(order);
+            }
+        }// addOrder()
+
+        /**
+         * Write an order. Retreat must be checked before Move, since
+         * Retreat is a subclass of Move.
+         */
+        private void writeOrder(Orderable order) throws IOException {
+            final int kind;
+            if (order instanceof Retreat) {
+                kind = RETREAT;
+            } else if (order instanceof Move) {
+                kind = MOVE;
+            } else if (order instanceof Hold) {
+                kind = HOLD;
+            } else if (order instanceof Support) {
+                kind = SUPPORT;
+            } else if (order instanceof Convoy) {
+                kind = CONVOY;
+            } else if (order instanceof Disband) {
+                kind = DISBAND;
+            } else if (order instanceof Build) {
+                kind = BUILD;
+            } else if (order instanceof Remove) {
+                kind = REMOVE;
+            } else if (order instanceof Waive) {
+                kind = WAIVE;
+            } else if (order instanceof DefineState) {
+                kind = DEFINE_STATE;
+            } else {
+                throw new IllegalArgumentException("cannot write order: " + order);
+            }
+
+            out.writeByte(kind);
+            writePower(order.getPower());
+            writeLocation(order.getSource());
+            writeUnitType(order.getSourceUnitType());
+
+            switch (kind) {
+                case MOVE:
+                    final Move move = (Move) order;
+                    final List<Province[]> routes = move.getConvoyRoutes();
+                    writeLocation(move.getDest());
+                    out.writeByte((move.isViaConvoy() ? MOVE_VIA_CONVOY : 0)
+                            | ((routes != null) ? MOVE_ROUTES : 0));
+                    if (routes != null) {
+                        out.writeByte(routes.size());
+                        for (Province[] route : routes) {
+                            writeProvinces(route);
+                        }
+                    }
+                    break;
+                case RETREAT:
+                    writeLocation(((Retreat) order).getDest());
+                    break;
+                case SUPPORT:
+                    final Support support = (Support) order;
+                    writeLocation(support.getSupportedSrc());
+                    writePower(support.getSupportedPower());
+                    writeUnitType(support.getSupportedUnitType());
+                    // getSupportedDest() returns the source of a hold support
+                    writeLocation(support.isSupportingHold() ? null : support.getSupportedDest());
+                    break;
+                case CONVOY:
+                    final Convoy convoy = (Convoy) order;
+                    writeLocation(convoy.getConvoySrc());
+                    writePower(convoy.getConvoyedPower());
+                    writeUnitType(convoy.getConvoyUnitType());
+                    writeLocation(convoy.getConvoyDest());
+                    break;
+                default:
+                    break;
+            }
+        }// writeOrder()
+
+        /**
+         * Write a Result. Results of unknown classes are written as a
+         * plain Result or OrderResult.
+         */
+        private void writeResult(Result result) throws IOException {
+            final Class<?> cls = result.getClass();
+            if (cls == BouncedResult.class) {
+                final BouncedResult br = (BouncedResult) result;
+                out.writeByte(BOUNCED);
+                writeOrderRef(br.getOrder());
+                writeProvince(br.getBouncer());
+                out.writeShort(br.getAttackStrength());
+                out.writeShort(br.getDefenseStrength());
+            } else if (cls == DislodgedResult.class) {
+                final DislodgedResult dr = (DislodgedResult) result;
+                final Location[] retreats = dr.getRetreatLocations();
+                out.writeByte(DISLODGED);
+                writeOrderRef(dr.getOrder());
+                out.writeShort((retreats == null) ? -1 : retreats.length);
+                if (retreats != null) {
+                    for (Location location : retreats) {
+                        writeLocation(location);
+                    }
+                }
+                writeProvince(dr.getDislodger());
+                out.writeShort(dr.getAttackStrength());
+                out.writeShort(dr.getDefenseStrength());
+            } else if (cls == ConvoyPathResult.class) {
+                final ConvoyPathResult cpr = (ConvoyPathResult) result;
+                out.writeByte(CONVOY_PATH);
+                writeOrderRef(cpr.getOrder());
+                writeProvinces(cpr.getConvoyPath());
+            } else if (cls == DependentMoveFailedResult.class) {
+                final DependentMoveFailedResult dmfr = (DependentMoveFailedResult) result;
+                out.writeByte(DEPENDENT_MOVE_FAILED);
+                writeOrderRef(dmfr.getOrder());
+                writeOrderRef(dmfr.getDependentOrder());
+            } else if (cls == SubstitutedResult.class) {
+                final SubstitutedResult sr = (SubstitutedResult) result;
+                out.writeByte(SUBSTITUTED);
+                writeOrderRef(sr.getOrder());
+                writeOrderRef(sr.getSubstitutedOrder());
+                writeMessage(sr);
+            } else if (cls == TimeResult.class) {
+                final TimeResult tr = (TimeResult) result;
+                out.writeByte(TIME);
+                writePower(tr.getPower());
+                out.writeUTF(tr.getResource());
+                out.writeLong(tr.getGMTMillis());
+            } else if (result instanceof OrderResult) {
+                final OrderResult or = (OrderResult) result;
+                out.writeByte(ORDER_RESULT);
+                writeOrderRef(or.getOrder());
+                out.writeByte(indexOf(RESULT_TYPES, or.getResultType()));
+                writeMessage(or);
+            } else {
+                out.writeByte(RESULT);
+                writePower(result.getPower());
+                writeMessage(result);
+            }
+        }// writeResult()
+
+        /**
+         * Write the message of a Result: the resource key and arguments
+         * if it is localized, otherwise the (formatted) text.
+         */
+        private void writeMessage(Result result) throws IOException {
+            final String key = result.getMessageKey();
+            if (key == null) {
+                out.writeByte(LITERAL_MESSAGE);
+                out.writeUTF(result.getMessage());
+            } else {
+                final Object[] args = result.getMessageArgs();
+                if (args.length > Byte.MAX_VALUE) {
+                    throw new IllegalArgumentException("too many message arguments: " + key);
+                }
+                out.writeByte(args.length);
+                out.writeUTF(key);
+                for (Object arg : args) {
+                    writeArg(arg);
+                }
+            }
+        }// writeMessage()
+
+        /**
+         * Write a message argument. Arguments of other types are written
+         * as text, which MessageFormat formats identically.
+         */
+        private void writeArg(Object arg) throws IOException {
+            if (arg == null) {
+                out.writeByte(ARG_NULL);
+            } else if (arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+                out.writeByte(ARG_INT);
+                out.writeInt(((Number) arg).intValue());
+            } else if (arg instanceof Long) {
+                out.writeByte(ARG_LONG);
+                out.writeLong((Long) arg);
+            } else if (arg instanceof Double || arg instanceof Float) {
+                out.writeByte(ARG_DOUBLE);
+                out.writeDouble(((Number) arg).doubleValue());
+            } else if (arg instanceof Province) {
+                out.writeByte(ARG_PROVINCE);
+                writeProvince((Province) arg);
+            } else if (arg instanceof Power) {
+                out.writeByte(ARG_POWER);
+                writePower((Power) arg);
+            } else if (arg instanceof Location) {
+                out.writeByte(ARG_LOCATION);
+                writeLocation((Location) arg);
+            } else if (arg instanceof Orderable) {
+                out.writeByte(ARG_ORDER);
+                writeOrderRef((Orderable) arg);
+            } else {
+                out.writeByte(ARG_STRING);
+                out.writeUTF(String.valueOf(arg));
+            }
+        }// writeArg()
+
+        private void writeOrderRef(Orderable order) throws IOException {
+            out.writeShort((order == null) ? -1 : orderIndices.get(order));
+        }// writeOrderRef()
+
+        private void writeLocation(Location location) throws IOException {
+            if (location == null) {
+                out.writeShort(-1);
+            } else {
+                out.writeShort(location.getProvince().getIndex());
+                out.writeByte(location.getCoast().getIndex());
+            }
+        }// writeLocation()
+
+        private void writeProvince(Province province) throws IOException {
+            out.writeShort((province == null) ? -1 : province.getIndex());
+        }// writeProvince()
+
+        private void writeProvinces(Province[] array) throws IOException {
+            out.writeShort(array.length);
+            for (Province province : array) {
+                writeProvince(province);
+            }
+        }// writeProvinces()
+
+        private void writePower(Power power) throws IOException {
+            if (power == null) {
+                out.writeByte(-1);
+            } else {
+                final Integer idx = powerIndices.get(power);
+                if (idx == null) {
+                    throw new IllegalArgumentException("power not in map: " + power);
+                }
+                out.writeByte(idx);
+            }
+        }// writePower()
+
+        private void writeUnitType(Unit.Type type) throws IOException {
+            out.writeByte((type == null) ? -1 : indexOf(UNIT_TYPES, type));
+        }// writeUnitType()
+    }// inner class Writer
+
+
+    /**
+     * Reads TurnStates.
+     */
+    private static final class Reader {
+        private final DataInputStream in;
+        private final Map map;
+        private final OrderFactory orderFactory;
+        private final Province[] provinces;
+        private final Power[] powers;
+        private Orderable[] orderTable = null;
+
+        Reader(World world, OrderFactory orderFactory, DataInputStream in) {
+            this.in = in;
+            this.map = world.getMap();
+            this.orderFactory = orderFactory;
+            this.provinces = map.getProvinces();
+            this.powers = map.getPowers();
+        }// Reader()
+
+        /**
+         * Read the Phase and flags of a TurnState, and create the TurnState
+         */
+        TurnState readPhase() throws IOException {
+            final Phase.SeasonType seasonType = element(Phase.SeasonType.ALL, in.readByte());
+            final int year = in.readShort();
+            final Phase.PhaseType phaseType = element(Phase.PhaseType.ALL, in.readByte());
+            final TurnState ts = new TurnState(Phase.getPhase(seasonType, year, phaseType));
+
+            final int flags = in.readUnsignedByte();
+            ts.setResolved((flags & TS_RESOLVED) != 0);
+            ts.setEnded((flags & TS_ENDED) != 0);
+            ts.setSCOwnerChanged((flags & TS_SC_OWNER_CHANGED) != 0);
+            return ts;
+        }// readPhase()
+
+        /**
+         * Read the Position, Orders, and Results of a TurnState
+         */
+        void readTurnState(TurnState ts) throws IOException {
+            ts.setPosition(readPosition());
+
+            orderTable = new Orderable[in.readUnsignedShort()];
+            for (int i = 0; i < orderTable.length; i++) {
+                orderTable[i] = readOrder();
+            }
+
+            for (Power power : powers) {
+                final int count = in.readUnsignedShort();
+                if (count > 0) {
+                    final List<Orderable> orders = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        orders.add(readOrderRef());
+                    }
+                    ts.setOrders(power, orders);
+                }
+            }
+
+            final int count = in.readUnsignedShort();
+            final List<Result> results = new ArrayList<>(Math.max(count, 16));
+            for (int i = 0; i < count; i++) {
+                results.add(readResult());
+            }
+            ts.setResultList(results);
+        }// readTurnState()
+
+        private Position readPosition() throws IOException {
+            final Position position = new Position(map);
+            for (Province province : provinces) {
+                final int flags = in.readUnsignedByte();
+                if ((flags & PD_UNIT) != 0) {
+                    position.setUnit(province, readUnit());
+                }
+                if ((flags & PD_DISLODGED) != 0) {
+                    position.setDislodgedUnit(province, readUnit());
+                }
+                if ((flags & PD_SC_OWNER) != 0) {
+                    position.setSupplyCenterOwner(province, readPower());
+                }
+                if ((flags & PD_SC_HOME) != 0) {
+                    position.setSupplyCenterHomePower(province, readPower());
+                }
+                if ((flags & PD_LAST_OCCUPIER) != 0) {
+                    position.setLastOccupier(province, readPower());
+                }
+            }
+
+            for (Power power : powers) {
+                position.setEliminated(power, in.readBoolean());
+            }
+            return position;
+        }// readPosition()
+
+        private Unit readUnit() throws IOException {
+            final Unit unit = new Unit(readPower(), readUnitType());
+            unit.setCoast(readCoast());
+            return unit;
+        }// readUnit()
+
+        private Orderable readOrder() throws IOException {
+            final int kind = in.readUnsignedByte();
+            final Power power = readPower();
+            final Location src = readLocation();
+            final Unit.Type srcType = readUnitType();
+
+            switch (kind) {
+                case HOLD:
+                    return orderFactory.createHold(power, src, srcType);
+                case MOVE:
+                    final Location dest = readLocation();
+                    final int moveFlags = in.readUnsignedByte();
+                    if ((moveFlags & MOVE_ROUTES) != 0) {
+                        final int nRoutes = in.readUnsignedByte();
+                        final List<Province[]> routes = new ArrayList<>(nRoutes);
+                        for (int i = 0; i < nRoutes; i++) {
+                            routes.add(readProvinces());
+                        }
+                        return orderFactory.createMove(power, src, srcType, dest, routes);
+                    }
+                    return orderFactory.createMove(power, src, srcType, dest,
+                            (moveFlags & MOVE_VIA_CONVOY) != 0);
+                case RETREAT:
+                    return orderFactory.createRetreat(power, src, srcType, readLocation());
+                case SUPPORT:
+                    return orderFactory.createSupport(power, src, srcType,
+                            readLocation(), readPower(), readUnitType(), readLocation());
+                case CONVOY:
+                    return orderFactory.createConvoy(power, src, srcType,
+                            readLocation(), readPower(), readUnitType(), readLocation());
+                case DISBAND:
+                    return orderFactory.createDisband(power, src, srcType);
+                case BUILD:
+                    return orderFactory.createBuild(power, src, srcType);
+                case REMOVE:
+                    return orderFactory.createRemove(power, src, srcType);
+                case WAIVE:
+                    return orderFactory.createWaive(power, src);
+                case DEFINE_STATE:
+                    try {
+                        return orderFactory.createDefineState(power, src, srcType);
+                    } catch (OrderException e) {
+                        throw new IOException("invalid DefineState order", e);
+                    }
+                default:
+                    throw new IOException("unknown order kind: " + kind);
+            }
+        }// readOrder()
+
+        private Result readResult() throws IOException {
+            final int kind = in.readUnsignedByte();
+            switch (kind) {
+                case BOUNCED:
+                    final BouncedResult br = new BouncedResult(readOrderRef());
+                    br.setBouncer(readProvince());
+                    br.setAttackStrength(in.readShort());
+                    br.setDefenseStrength(in.readShort());
+                    return br;
+                case DISLODGED:
+                    final Orderable dislodgedOrder = readOrderRef();
+                    final int nRetreats = in.readShort();
+                    Location[] retreats = null;
+                    if (nRetreats >= 0) {
+                        retreats = new Location[nRetreats];
+                        for (int i = 0; i < nRetreats; i++) {
+                            retreats[i] = readLocation();
+                        }
+                    }
+                    final DislodgedResult dr = new DislodgedResult(dislodgedOrder, retreats);
+                    dr.setDislodger(readProvince());
+                    dr.setAttackStrength(in.readShort());
+                    dr.setDefenseStrength(in.readShort());
+                    return dr;
+                case CONVOY_PATH:
+                    return new ConvoyPathResult(readOrderRef(), readProvinces());
+                case DEPENDENT_MOVE_FAILED:
+                    return new DependentMoveFailedResult(readOrderRef(), readOrderRef());
+                case SUBSTITUTED:
+                    final Orderable oldOrder = readOrderRef();
+                    final Orderable newOrder = readOrderRef();
+                    final int nSubstArgs = in.readByte();
+                    return (nSubstArgs == LITERAL_MESSAGE)
+                            ? new SubstitutedResult(oldOrder, newOrder, in.readUTF())
+                            : SubstitutedResult.createLocalized(oldOrder, newOrder, in.readUTF(), readArgs(nSubstArgs));
+                case ORDER_RESULT:
+                    final Orderable order = readOrderRef();
+                    final OrderResult.ResultType type = element(RESULT_TYPES, in.readByte());
+                    final int nOrderArgs = in.readByte();
+                    return (nOrderArgs == LITERAL_MESSAGE)
+                            ? new OrderResult(order, type, in.readUTF())
+                            : OrderResult.createLocalized(order, type, in.readUTF(), readArgs(nOrderArgs));
+                case TIME:
+                    return new TimeResult(readPower(), in.readUTF(), in.readLong());
+                case RESULT:
+                    final Power power = readPower();
+                    final int nArgs = in.readByte();
+                    return (nArgs == LITERAL_MESSAGE)
+                            ? new Result(power, in.readUTF())
+                            : Result.createLocalized(power, in.readUTF(), readArgs(nArgs));
+                default:
+                    throw new IOException("unknown result kind: " + kind);
+            }
+        }// readResult()
+
+        /**
+         * Read the arguments of a localized message; the key must be read first.
+         */
+        private Object[] readArgs(int count) throws IOException {
+            if (count < 0) {
+                throw new IOException("invalid message argument count: " + count);
+            }
+
+            final Object[] args = new Object[count];
+            for (int i = 0; i < count; i++) {
+                final int kind = in.readUnsignedByte();
+                switch (kind) {
+                    case ARG_NULL:
+                        break;
+                    case ARG_STRING:
+                        args[i] = in.readUTF();
+                        break;
+                    case ARG_INT:
+                        args[i] = in.readInt();
+                        break;
+                    case ARG_LONG:
+                        args[i] = in.readLong();
+                        break;
+                    case ARG_DOUBLE:
+                        args[i] = in.readDouble();
+                        break;
+                    case ARG_PROVINCE:
+                        args[i] = readProvince();
+                        break;
+                    case ARG_POWER:
+                        args[i] = readPower();
+                        break;
+                    case ARG_LOCATION:
+                        args[i] = readLocation();
+                        break;
+                    case ARG_ORDER:
+                        args[i] = readOrderRef();
+                        break;
+                    default:
+                        throw new IOException("unknown message argument kind: " + kind);
+                }
+            }
+            return args;
+        }// readArgs()
+
+        private Orderable readOrderRef() throws IOException {
+            final int idx = in.readShort();
+            return (idx < 0) ? null : element(orderTable, idx);
+        }// readOrderRef()
+
+        private Location readLocation() throws IOException {
+            final int idx = in.readShort();
+            return (idx < 0) ? null : element(provinces, idx).getLocation(readCoast());
+        }// readLocation()
+
+        private Coast readCoast() throws IOException {
+            final int idx = in.readUnsignedByte();
+            if (idx > Coast.EAST.getIndex()) {
+                throw new IOException("invalid coast: " + idx);
+            }
+            return Coast.getCoast(idx);
+        }// readCoast()
+
+        private Province readProvince() throws IOException {
+            final int idx = in.readShort();
+            return (idx < 0) ? null : element(provinces, idx);
+        }// readProvince()
+
+        private Province[] readProvinces() throws IOException {
+            final Province[] array = new Province[in.readUnsignedShort()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = readProvince();
+            }
+            return array;
+        }// readProvinces()
+
+        private Power readPower() throws IOException {
+            final int idx = in.readByte();
+            return (idx < 0) ? null : element(powers, idx);
+        }// readPower()
+
+        private Unit.Type readUnitType() throws IOException {
+            final int idx = in.readByte();
+            return (idx < 0) ? null : element(UNIT_TYPES, idx);
+        }// readUnitType()
+    }// inner class Reader
+
+
+    /**
+     * Index of an element in an array (by identity)
+     */
+    private static int indexOf(Object[] array, Object obj) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == obj) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("unknown value: " + obj);
+    }// indexOf()
+
+
+    /**
+     * Array element, or an IOException if the index is out of range
+     */
+    private static <T> T element(T[] array, int idx) throws IOException {
+        if (idx < 0 || idx >= array.length) {
+            throw new IOException("snapshot index out of range: " + idx);
+        }
+        return array[idx];
+    }// element()
+
+}// class TurnStateSnapshot
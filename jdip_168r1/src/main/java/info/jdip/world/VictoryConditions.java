@@ -26,8 +26,6 @@ import info.jdip.misc.Utils;
 import info.jdip.order.result.Result;
 import info.jdip.process.Adjudicator;
 import info.jdip.process.Adjustment;
-import info.jdip.world.Phase.PhaseType;
-import info.jdip.world.Phase.SeasonType;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -184,10 +182,10 @@ public class VictoryConditions implements java.io.Serializable {
             // or retreat phase as well.
             boolean overallSCChange = turnState.getSCOwnerChanged();
 
+            // then the prior (maxYearsNoSCChange - 1) years
             World world = turnState.getWorld();
-            for (int year = (currentYear - 1); year > (currentYear - maxYearsNoSCChange); year--) {
-                overallSCChange |= getIfSCChangeOccured(world, year);
-            }
+            overallSCChange |= (world.getPhaseIndex().getSCChangeYearCount(
+                    currentYear - maxYearsNoSCChange + 1, currentYear - 1) > 0);
 
             if (!overallSCChange) {
                 evalResults.add(new Result(null,
@@ -201,33 +199,6 @@ public class VictoryConditions implements java.io.Serializable {
     }// evaluate()
 
 
-    /**
-     * Given a year, finds the phase in which supply-center-changes could occur.
-     * <p>
-     * the adjudicator marks the NEXT phase, indicating that supply center changes
-     * have occured. Thus, the next phase will be either RETREAT (if a change occured
-     * during movement) or ADJUSTMENT (if a change occured during retreat)
-     * <p>
-     * where supply-center-changes could occur. We actually will check both;
-     */
-    private boolean getIfSCChangeOccured(World world, int year) {
-        boolean value = false;
-
-        TurnState tsRetreat = world.getTurnState(new Phase(SeasonType.FALL, year, PhaseType.RETREAT));
-        TurnState tsAdjustment = world.getTurnState(new Phase(SeasonType.FALL, year, PhaseType.ADJUSTMENT));
-
-        if (tsRetreat != null) {
-            value |= tsRetreat.getSCOwnerChanged();
-        }
-
-        if (tsAdjustment != null) {
-            value |= tsAdjustment.getSCOwnerChanged();
-        }
-
-        return value;
-    }// getLastSCChangePhase()
-
-
     // creates a comma-seperated list of power names, if they are still in play
     private String getRemainingPowers(TurnState turnState, Power[] powers, Adjustment.AdjustmentInfo[] adjInfo) {
         StringBuilder sb = new StringBuilder(128);
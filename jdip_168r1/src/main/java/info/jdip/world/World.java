@@ -36,7 +36,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -69,6 +68,7 @@ public class World implements Serializable {
     // instance variables
     private SortedMap<Phase, TurnState> turnStates = null;            // turn data
     private Map<Object, Object> nonTurnData = null;            // non-turn data (misc data & per-player data)
+    private transient PhaseIndex phaseIndex = null;            // created when needed
 
 
     /**
@@ -220,25 +220,10 @@ public class World implements Serializable {
             return null;
         }
 
-        Phase next = null;
-        Iterator<Phase> iter = turnStates.keySet().iterator();
-        while (iter.hasNext()) {
-            Phase phase = iter.next();
-            if (current.compareTo(phase) == 0) {
-                if (iter.hasNext()) {
-                    next = iter.next();
-                }
-
-                break;
-            }
-        }
-
-        if (next == null) {
-            return null;
+        TurnState ts = getPhaseIndex().getNext(current);
+        if (ts != null) {
+            ts.setWorld(this);
         }
-
-        TurnState ts = turnStates.get(next);
-        ts.setWorld(this);
         return ts;
     }// getNextTurnState()
 
@@ -271,22 +256,10 @@ public class World implements Serializable {
             return null;
         }
 
-
-        Phase previous = null;
-        for (Phase phase : turnStates.keySet()) {
-            if (phase.compareTo(current) != 0) {
-                previous = phase;
-            } else {
-                break;
-            }
-        }
-
-        if (previous == null) {
-            return null;
+        TurnState ts = getPhaseIndex().getPrevious(current);
+        if (ts != null) {
+            ts.setWorld(this);
         }
-
-        TurnState ts = turnStates.get(previous);
-        ts.setWorld(this);
         return ts;
     }// getPreviousTurnState()
 
@@ -295,7 +268,11 @@ public class World implements Serializable {
      * If a TurnState with the given phase already exists, it is replaced.
      */
     public void setTurnState(TurnState turnState) {
-        turnStates.put(turnState.getPhase(), turnState);
+        synchronized (turnStates) {
+            turnStates.put(turnState.getPhase(), turnState);
+            turnState.setWorld(this);
+            phaseIndex = null;
+        }
     }// setTurnState()
 
 
@@ -304,7 +281,10 @@ public class World implements Serializable {
      * be used with caution!
      */
     public void removeTurnState(TurnState turnState) {
-        turnStates.remove(turnState.getPhase());
+        synchronized (turnStates) {
+            turnStates.remove(turnState.getPhase());
+            phaseIndex = null;
+        }
     }// removeTurnState()
 
 
@@ -312,10 +292,41 @@ public class World implements Serializable {
      * Removes <b>all</b> TurnStates from the World.
      */
     public void removeAllTurnStates() {
-        turnStates.clear();
+        synchronized (turnStates) {
+            turnStates.clear();
+            phaseIndex = null;
+        }
     }// removeAllTurnStates()
 
 
+    /**
+     * Returns an index of all TurnStates, in Phase order. The index is
+     * created when first needed, and is recreated if TurnStates are added
+     * or removed, or if the supply-center-change flag of a TurnState in
+     * this World is altered.
+     */
+    public PhaseIndex getPhaseIndex() {
+        synchronized (turnStates) {
+            if (phaseIndex == null || !phaseIndex.isFor(turnStates.size())) {
+                for (TurnState ts : turnStates.values()) {
+                    ts.setWorld(this);
+                }
+                phaseIndex = new PhaseIndex(turnStates.values());
+            }
+            return phaseIndex;
+        }
+    }// getPhaseIndex()
+
+    /**
+     * Discards the phase index; called when a TurnState in this World changes.
+     */
+    void invalidatePhaseIndex() {
+        synchronized (turnStates) {
+            phaseIndex = null;
+        }
+    }// invalidatePhaseIndex()
+
+
     /**
      * returns sorted (ascending) set of all Phases
      */
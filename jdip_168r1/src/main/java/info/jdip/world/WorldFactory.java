@@ -300,7 +300,7 @@ public class WorldFactory {
             Coast coast = initState.getCoast();
 
             Unit unit = new Unit(power, unitType);
-            Location location = new Location(province, coast);
+            Location location = province.getLocation(coast);
             try {
                 location = location.getValidatedSetup(unitType);
                 unit.setCoast(location.getCoast());
@@ -360,6 +360,68 @@ public class WorldFactory {
     }// makeWorld()
 
 
+    /**
+     * Generates a new World from the initial TurnState of the given World.
+     * <p>
+     * This is much faster than creating a World from a Variant, and is
+     * intended for servers that create many games of the same variant. The
+     * Map is shared with the template, since it is not modified once created.
+     * The initial Position, VictoryConditions, RuleOptions and VariantInfo
+     * are copied; orders and results of the initial TurnState are not.
+     * <p>
+     * The template is not modified, and may be copied from more than one
+     * thread at once, provided that no thread modifies it.
+     */
+    public World createWorld(World template) {
+        if (template == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final TurnState initialTS = template.getInitialTurnState();
+        if (initialTS == null) {
+            throw new IllegalArgumentException("template has no TurnStates");
+        }
+
+        World world = new World(template.getMap());
+
+        // VictoryConditions hold the results of the last evaluation, so
+        // cannot be shared.
+        VictoryConditions vc = template.getVictoryConditions();
+        if (vc != null) {
+            world.setVictoryConditions(new VictoryConditions(vc.getSCsRequiredForVictory(),
+                    vc.getYearsWithoutSCChange(), vc.getMaxGameDurationYears(), initialTS.getPhase()));
+        }
+
+        // VariantInfo versions are only set if known (they must be > 0)
+        World.VariantInfo vi = template.getVariantInfo();
+        World.VariantInfo viCopy = new World.VariantInfo();
+        viCopy.setVariantName(vi.getVariantName());
+        viCopy.setMapName(vi.getMapName());
+        viCopy.setSymbolPackName(vi.getSymbolPackName());
+        if (vi.getVariantVersion() > 0.0f) {
+            viCopy.setVariantVersion(vi.getVariantVersion());
+        }
+        if (vi.getSymbolPackVersion() > 0.0f) {
+            viCopy.setSymbolPackVersion(vi.getSymbolPackVersion());
+        }
+
+        RuleOptions ruleOpts = vi.getRuleOptions();
+        RuleOptions ruleOptsCopy = new RuleOptions();
+        for (RuleOptions.Option option : ruleOpts.getAllOptions()) {
+            ruleOptsCopy.setOption(option, ruleOpts.getOptionValue(option));
+        }
+        viCopy.setRuleOptions(ruleOptsCopy);
+        world.setVariantInfo(viCopy);
+
+        TurnState turnState = new TurnState(initialTS.getPhase());
+        turnState.setPosition(initialTS.getPosition().copy());
+        turnState.setWorld(world);
+        world.setTurnState(turnState);
+
+        return world;
+    }// createWorld()
+
+
     /**
      * Parses the Adjacency data and converts it into the Location objects
      * e.g.:
@@ -411,7 +473,7 @@ public class WorldFactory {
         }
 
         // create Location
-        return new Location(province, coast);
+        return province.getLocation(coast);
     }// makeLocation()
 
 
@@ -440,7 +502,7 @@ public class WorldFactory {
                 throw new InvalidWorldException(Utils.getLocalString(WF_BAD_BORDER_LOCATION, tok));
             }
 
-            al.add(new Location(province, coast));
+            al.add(province.getLocation(coast));
         }
 
         if (al.isEmpty()) {
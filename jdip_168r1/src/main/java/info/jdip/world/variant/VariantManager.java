@@ -27,13 +27,14 @@ import info.jdip.misc.Utils;
 import info.jdip.world.variant.data.MapGraphic;
 import info.jdip.world.variant.data.SymbolPack;
 import info.jdip.world.variant.data.Variant;
+import info.jdip.world.variant.parser.StreamingVariantParser;
 import info.jdip.world.variant.parser.XMLSymbolParser;
-import info.jdip.world.variant.parser.XMLVariantParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.SAXParserFactory;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
@@ -138,8 +139,7 @@ public class VariantManager {
             // perform cleanup
             vm.variantMap.clear();
             vm.variants = new Variant[0];
-            vm.currentUCL = null;
-            vm.currentPackageURL = null;
+            closeClassLoader();
 
             vm.symbolPacks = new SymbolPack[0];
             vm.symbolMap.clear();
@@ -166,8 +166,17 @@ public class VariantManager {
         dbf.setCoalescing(false);
         dbf.setIgnoringComments(true);
 
-        // setup variant parser
-        XMLVariantParser variantParser = new XMLVariantParser(dbf);
+        // setup variant parser; variant and adjacency data are parsed without a DOM
+        SAXParserFactory spf = SAXParserFactory.newInstance();
+
+        try {
+            spf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        } catch (Exception e) {
+            logger.warn("VM: Could not set XML feature.", e);
+        }
+
+        spf.setValidating(isValidating);
+        StreamingVariantParser variantParser = new StreamingVariantParser(spf);
 
         // for each plugin, attempt to find the "variants.xml" file inside.
         // if it does not exist, we will not load the file. If it does, we will parse it,
@@ -535,10 +544,31 @@ public class VariantManager {
      * <p>
      * Typically, getResource(Variant, URI) or getResource(SymbolPack, URI) is
      * preferred to this method.
+     * <p>
+     * This may also be used before the VariantManager has been initialized
+     * (e.g., when variant packages are parsed directly, for validation); the
+     * resource is then resolved against the package alone.
      */
     public static synchronized URL getResource(URL packURL, URI uri) {
-        // ensure we have been initialized...
-        checkVM();
+        if (vm == null) {
+            if (uri.getScheme() != null) {
+                try {
+                    return uri.toURL();
+                } catch (MalformedURLException e) {
+                    return null;
+                }
+            }
+
+            // the loader is closed, so that no package file is left open; the
+            // resource URL remains valid.
+            URL url = null;
+            try (URLClassLoader urlCL = new URLClassLoader(new URL[]{packURL})) {
+                url = urlCL.findResource(uri.toString());
+            } catch (IOException e) {
+                logger.debug("Could not close the class loader for {}", packURL, e);
+            }
+            return url;
+        }
 
         // if we are in webstart, assume that this is a webstart jar.
         if (vm.isInWebstart) {
@@ -689,11 +719,29 @@ public class VariantManager {
             return vm.currentUCL;
         }
 
+        closeClassLoader();
         vm.currentUCL = new URLClassLoader(new URL[]{packageURL});
         vm.currentPackageURL = packageURL;
         return vm.currentUCL;
     }// getClassLoader()
 
+    /**
+     * Closes the current URLClassLoader (if any), so that its package file
+     * is not left open. URLs already found remain valid.
+     */
+    private static void closeClassLoader() {
+        if (vm.currentUCL != null) {
+            try {
+                vm.currentUCL.close();
+            } catch (IOException e) {
+                logger.debug("Could not close the class loader for {}", vm.currentPackageURL, e);
+            }
+        }
+
+        vm.currentUCL = null;
+        vm.currentPackageURL = null;
+    }// closeClassLoader()
+
     /**
      * Returns the "file" part of the URL; e.g.: x/y/z.jar, returns z.jar
      */
@@ -0,0 +1,223 @@
+//
+//  @(#)StreamingProvinceParser.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.world.variant.parser;
+
+import info.jdip.world.variant.data.BorderData;
+import info.jdip.world.variant.data.ProvinceData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+
+/**
+ * Parses an XML ProvinceData description in a single pass, without creating
+ * a DOM tree. The ProvinceData and BorderData produced are the same as those
+ * of XMLProvinceParser, which uses the same element and attribute names.
+ */
+public class StreamingProvinceParser implements ProvinceParser {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingProvinceParser.class);
+
+    // instance variables
+    private final SAXParser saxParser;
+    private final Handler handler;
+    private final List<ProvinceData> provinceList;
+    private final List<BorderData> borderList;
+
+
+    /**
+     * Create a StreamingProvinceParser
+     */
+    public StreamingProvinceParser(final SAXParserFactory spf)
+            throws ParserConfigurationException {
+        try {
+            saxParser = spf.newSAXParser();
+        } catch (SAXException e) {
+            throw new ParserConfigurationException(e.getMessage());
+        }
+        handler = new Handler(spf.isValidating());
+
+        provinceList = new ArrayList<>(100);
+        borderList = new ArrayList<>(10);
+    }// StreamingProvinceParser()
+
+
+    /**
+     * Parse the given input stream; parsed data available via <code>getProvinceData()</code>
+     */
+    public void parse(InputStream is)
+            throws IOException, SAXException {
+        logger.trace("Province parsing started.");
+        provinceList.clear();
+        borderList.clear();
+
+        saxParser.parse(is, handler);
+        logger.trace("Province parsing finished.");
+    }// parse()
+
+
+    /**
+     * Cleanup, clearing any references/resources
+     */
+    public void close() {
+        provinceList.clear();
+        borderList.clear();
+    }// close()
+
+
+    /**
+     * Returns the ProvinceData objects, or an empty list.
+     */
+    public ProvinceData[] getProvinceData() {
+        return provinceList.toArray(new ProvinceData[provinceList.size()]);
+    }// getProvinceData()
+
+    /**
+     * Returns the BorderData objects, or an empty list.
+     */
+    public BorderData[] getBorderData() {
+        return borderList.toArray(new BorderData[borderList.size()]);
+    }// getBorderData()
+
+
+    /**
+     * Returns the attribute value, or an empty String if the attribute is
+     * not present (as per Element.getAttribute()).
+     */
+    static String getAttribute(Attributes attributes, String name) {
+        final String value = attributes.getValue(name);
+        return (value == null) ? "" : value;
+    }// getAttribute()
+
+
+    /**
+     * Receives SAX events. PROVINCE data is collected until the end of the
+     * PROVINCE element; ADJACENCY and UNIQUENAME elements within it are
+     * added in document order.
+     */
+    private class Handler extends DefaultHandler {
+        private final FastEntityResolver resolver;
+        private final XMLErrorHandler errorHandler = new XMLErrorHandler();
+
+        // the current PROVINCE (if any)
+        private ProvinceData provinceData = null;
+        private final List<String> nameList = new ArrayList<>(4);
+        private final List<String> adjTypeList = new ArrayList<>(4);
+        private final List<String> adjNameList = new ArrayList<>(4);
+
+        Handler(boolean isValidating) {
+            resolver = new FastEntityResolver(isValidating);
+        }// Handler()
+
+        public InputSource resolveEntity(String publicID, String systemID) {
+            return resolver.resolveEntity(publicID, systemID);
+        }// resolveEntity()
+
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (XMLProvinceParser.EL_BORDER.equals(qName)) {
+                BorderData bd = new BorderData();
+                bd.setID(getAttribute(attributes, XMLProvinceParser.ATT_ID));
+                bd.setDescription(getAttribute(attributes, XMLProvinceParser.ATT_DESCRIPTION));
+                bd.setUnitTypes(getAttribute(attributes, XMLProvinceParser.ATT_UNIT_TYPES));
+                bd.setFrom(getAttribute(attributes, XMLProvinceParser.ATT_FROM));
+                bd.setOrderTypes(getAttribute(attributes, XMLProvinceParser.ATT_ORDER_TYPES));
+                bd.setBaseMoveModifier(getAttribute(attributes, XMLProvinceParser.ATT_BASE_MOVE_MODIFIER));
+                bd.setYear(getAttribute(attributes, XMLProvinceParser.ATT_YEAR));
+                bd.setSeason(getAttribute(attributes, XMLProvinceParser.ATT_SEASON));
+                bd.setPhase(getAttribute(attributes, XMLProvinceParser.ATT_PHASE));
+
+                borderList.add(bd);
+            } else if (XMLProvinceParser.EL_PROVINCE.equals(qName)) {
+                startProvince(attributes);
+            } else if (provinceData != null) {
+                if (XMLProvinceParser.EL_ADJACENCY.equals(qName)) {
+                    adjTypeList.add(getAttribute(attributes, XMLProvinceParser.ATT_TYPE));
+                    adjNameList.add(getAttribute(attributes, XMLProvinceParser.ATT_REFS));
+                } else if (XMLProvinceParser.EL_UNIQUENAME.equals(qName)) {
+                    nameList.add(getAttribute(attributes, XMLProvinceParser.ATT_NAME));
+                }
+            }
+        }// startElement()
+
+        public void endElement(String uri, String localName, String qName) {
+            if (provinceData != null && XMLProvinceParser.EL_PROVINCE.equals(qName)) {
+                provinceData.setAdjacentProvinceTypes(adjTypeList.toArray(new String[adjTypeList.size()]));
+                provinceData.setAdjacentProvinceNames(adjNameList.toArray(new String[adjNameList.size()]));
+
+                // set all short & unique names
+                provinceData.setShortNames(nameList);
+
+                provinceList.add(provinceData);
+                provinceData = null;
+            }
+        }// endElement()
+
+        /**
+         * PROVINCE attributes
+         */
+        private void startProvince(Attributes attributes) {
+            provinceData = new ProvinceData();
+            nameList.clear();
+            adjTypeList.clear();
+            adjNameList.clear();
+
+            // region attributes
+            provinceData.setFullName(getAttribute(attributes, XMLProvinceParser.ATT_FULLNAME));
+            nameList.add(getAttribute(attributes, XMLProvinceParser.ATT_SHORTNAME));
+
+            // convoyable coast, impassable
+            provinceData.setConvoyableCoast(Boolean.valueOf(getAttribute(attributes, XMLProvinceParser.ATT_CONVOYABLE_COAST)));
+            provinceData.setImpassable(Boolean.valueOf(getAttribute(attributes, XMLProvinceParser.ATT_IMPASSABLE)));
+
+            // borders data (optional); a list of references, seperated by commas/spaces
+            List<String> borders = new ArrayList<>();
+            StringTokenizer st = new StringTokenizer(getAttribute(attributes, XMLProvinceParser.ATT_BORDERS).trim(), ", ");
+            while (st.hasMoreTokens()) {
+                borders.add(st.nextToken());
+            }
+            provinceData.setBorders(borders);
+        }// startProvince()
+
+        public void warning(SAXParseException e) {
+            errorHandler.warning(e);
+        }// warning()
+
+        public void error(SAXParseException e) {
+            errorHandler.error(e);
+        }// error()
+
+        public void fatalError(SAXParseException e)
+                throws SAXException {
+            errorHandler.fatalError(e);
+            throw e;
+        }// fatalError()
+    }// inner class Handler
+
+}// class StreamingProvinceParser
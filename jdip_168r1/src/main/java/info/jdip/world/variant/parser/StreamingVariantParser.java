@@ -0,0 +1,616 @@
+//
+//  @(#)StreamingVariantParser.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.world.variant.parser;
+
+import info.jdip.misc.LRUCache;
+import info.jdip.misc.Utils;
+import info.jdip.world.Coast;
+import info.jdip.world.Phase;
+import info.jdip.world.Power;
+import info.jdip.world.Unit;
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.BorderData;
+import info.jdip.world.variant.data.InitialState;
+import info.jdip.world.variant.data.Influence;
+import info.jdip.world.variant.data.MapGraphic;
+import info.jdip.world.variant.data.ProvinceData;
+import info.jdip.world.variant.data.SupplyCenter;
+import info.jdip.world.variant.data.Variant;
+import info.jdip.world.variant.parser.XMLVariantParser.MapDef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.ext.DefaultHandler2;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Parses an XML Variant description in a single pass, without creating a
+ * DOM tree. Adjacency data is parsed with a StreamingProvinceParser.
+ * <p>
+ * The Variants produced are the same as those of XMLVariantParser, which uses
+ * the same element and attribute names. As with XMLVariantParser, a single
+ * element (e.g., STARTINGTIME) is the first of that name within its VARIANT,
+ * and the description of a VARIANT or MAP_DEFINITION is the first text (or
+ * CDATA section) of its DESCRIPTION.
+ * <p>
+ * MAP_GRAPHIC references are resolved once the document is parsed, so that
+ * MAP_DEFINITION elements may appear anywhere.
+ */
+public class StreamingVariantParser implements VariantParser {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingVariantParser.class);
+    private static final String LEXICAL_HANDLER = "http://xml.org/sax/properties/lexical-handler";
+
+    // instance variables
+    private final SAXParser saxParser;
+    private final StreamingProvinceParser provinceParser;
+    private final boolean isValidating;
+    private final List<Variant> variantList = new LinkedList<>();
+    private final LRUCache<URI, AdjCache> adjCache = new LRUCache<>(6);    // URI -> AdjCache objects
+    private URL variantPackageURL = null;
+
+
+    /**
+     * Create a StreamingVariantParser
+     */
+    public StreamingVariantParser(final SAXParserFactory spf)
+            throws ParserConfigurationException {
+        try {
+            saxParser = spf.newSAXParser();
+        } catch (SAXException e) {
+            throw new ParserConfigurationException(e.getMessage());
+        }
+        provinceParser = new StreamingProvinceParser(spf);
+        isValidating = spf.isValidating();
+    }// StreamingVariantParser()
+
+
+    /**
+     * Parse the given input stream; parsed data available via <code>getVariants()</code>
+     * <p>
+     * Note that when this method is called, any previous Variants (if any exist) are
+     * cleared.
+     */
+    public void parse(InputStream is, URL variantPackageURL)
+            throws IOException, SAXException {
+        logger.debug("Parsing: {}", variantPackageURL);
+
+        // cleanup cache (very important to remove references!)
+        adjCache.clear();
+        variantList.clear();
+
+        if (variantPackageURL == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.variantPackageURL = variantPackageURL;
+
+        final Handler handler = new Handler();
+        saxParser.setProperty(LEXICAL_HANDLER, handler);
+        try {
+            saxParser.parse(is, handler);
+        } catch (SAXException e) {
+            // IOExceptions (as thrown by XMLVariantParser) are wrapped by the Handler
+            if (e.getException() instanceof IOException) {
+                throw (IOException) e.getException();
+            }
+            throw e;
+        } finally {
+            saxParser.reset();
+        }
+
+        logger.trace("Parsing finished.");
+    }// parse()
+
+
+    /**
+     * Cleanup, clearing any references/resources
+     */
+    public void close() {
+        adjCache.clear();
+        variantList.clear();
+    }// close()
+
+
+    /**
+     * Returns an array of Variant objects.
+     * <p>
+     * Will never return null. Note that parse() must be called before
+     * this will return any information.
+     */
+    public Variant[] getVariants() {
+        return variantList.toArray(new Variant[variantList.size()]);
+    }// getVariants()
+
+
+    /**
+     * Gets the cached adjacency data for the given URI, or parses it from
+     * the URI (relative to the variant package), as appropriate.
+     */
+    private AdjCache getAdjCache(URI adjacencyURI)
+            throws IOException, SAXException {
+        // see if we already have the URI data cached.
+        AdjCache ac = adjCache.get(adjacencyURI);
+        if (ac != null) {
+            return ac;
+        }
+
+        // it's not cached. resolve URI.
+        URL url = VariantManager.getResource(variantPackageURL, adjacencyURI);
+        if (url == null) {
+            throw new IOException("Could not convert URI: " + adjacencyURI + " from variant package: " + variantPackageURL);
+        }
+
+        // parse resolved URI
+        try (InputStream is = new BufferedInputStream(url.openStream())) {
+            provinceParser.parse(is);
+        }
+
+        // cache and return parsed data.
+        ac = new AdjCache(provinceParser.getProvinceData(), provinceParser.getBorderData());
+        adjCache.put(adjacencyURI, ac);
+        return ac;
+    }// getAdjCache()
+
+
+    /**
+     * Returns the attribute value, or an empty String if the attribute is
+     * not present (as per Element.getAttribute()).
+     */
+    private static String getAttribute(Attributes attributes, String name) {
+        return StreamingProvinceParser.getAttribute(attributes, name);
+    }// getAttribute()
+
+
+    /**
+     * Cached XML adjacency data (ProvinceData and BorderData)
+     */
+    private static class AdjCache {
+        private final ProvinceData[] provinceData;
+        private final BorderData[] borderData;
+
+        public AdjCache(ProvinceData[] provinceData, BorderData[] borderData) {
+            this.provinceData = provinceData;
+            this.borderData = borderData;
+        }// AdjCache()
+    }// inner class AdjCache
+
+
+    /**
+     * MAP_GRAPHIC attributes, resolved when the document has been parsed.
+     */
+    private static class GraphicRef {
+        private final String refID;
+        private final boolean isDefault;
+        private final String preferredUnitStyle;
+
+        GraphicRef(Attributes attributes) {
+            refID = getAttribute(attributes, XMLVariantParser.ATT_REF);
+            isDefault = Boolean.parseBoolean(getAttribute(attributes, XMLVariantParser.ATT_DEFAULT));
+            preferredUnitStyle = getAttribute(attributes, XMLVariantParser.ATT_PREFERRED_UNIT_STYLE);
+        }// GraphicRef()
+    }// nested class GraphicRef
+
+
+    /**
+     * Data of a VARIANT element, collected until the end of the element.
+     */
+    private static class VariantState {
+        private final String name;
+        private final String isDefault;
+        private final String version;
+        private final String aliases;
+        private boolean hasDescription = false;
+        private String description = null;
+        private Attributes startingTime = null;
+        private boolean hasVictoryConditions = false;
+        private String winningSupplyCenters = null;
+        private String yearsWithoutSCCapture = null;
+        private String gameLength = null;
+        private final List<Power> powerList = new ArrayList<>(8);
+        private final List<SupplyCenter> supplyCenterList = new ArrayList<>(40);
+        private final List<InitialState> stateList = new ArrayList<>(30);
+        private final List<Influence> influenceList = new ArrayList<>();
+        private String adjacencyURI = null;     // null if no MAP
+        private final List<GraphicRef> graphicList = new ArrayList<>(4);
+        private List<Variant.NameValuePair> ruleNVPList = null;
+
+        VariantState(Attributes attributes) {
+            name = getAttribute(attributes, XMLVariantParser.ATT_NAME);
+            isDefault = getAttribute(attributes, XMLVariantParser.ATT_DEFAULT);
+            version = getAttribute(attributes, XMLVariantParser.ATT_VERSION);
+            aliases = getAttribute(attributes, XMLVariantParser.ATT_ALIASES);
+        }// VariantState()
+    }// nested class VariantState
+
+
+    /**
+     * Receives SAX (and lexical) events.
+     */
+    private class Handler extends DefaultHandler2 {
+        private final FastEntityResolver resolver = new FastEntityResolver(isValidating);
+        private final XMLErrorHandler errorHandler = new XMLErrorHandler();
+        private final HashMap<String, MapDef> mapDefTable = new HashMap<>(7);    // maps String ID -> MapDef
+        private final List<Variant> variants = new ArrayList<>();
+        private final List<List<GraphicRef>> variantGraphics = new ArrayList<>();
+
+        // current element state
+        private Attributes mapDefinition = null;        // current MAP_DEFINITION (copy)
+        private boolean hasMapDefDescription = false;
+        private String mapDefDescription = null;
+        private VariantState variant = null;            // current VARIANT
+        private String inSection = null;                // first VICTORYCONDITIONS, MAP, or RULEOPTIONS
+
+        // DESCRIPTION text: the first child node (a text node or CDATA section)
+        private boolean inDescription = false;
+        private boolean hasFirstChild = false;
+        private boolean isFirstChildText = false;
+        private boolean isFirstChildDone = false;
+        private final StringBuilder text = new StringBuilder(256);
+
+
+        public InputSource resolveEntity(String name, String publicID, String baseURI, String systemID) {
+            return resolver.resolveEntity(publicID, systemID);
+        }// resolveEntity()
+
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (inDescription) {
+                // an element ends (or is) the first child
+                hasFirstChild = true;
+                isFirstChildDone = true;
+            }
+
+            if (XMLVariantParser.EL_MAP_DEFINITION.equals(qName)) {
+                mapDefinition = new AttributesImpl(attributes);
+                hasMapDefDescription = false;
+                mapDefDescription = null;
+            } else if (mapDefinition != null) {
+                if (XMLVariantParser.EL_DESCRIPTION.equals(qName) && !hasMapDefDescription) {
+                    hasMapDefDescription = true;
+                    startDescription();
+                }
+            } else if (variant != null) {
+                startVariantElement(qName, attributes);
+            } else if (XMLVariantParser.EL_VARIANT.equals(qName)) {
+                variant = new VariantState(attributes);
+            }
+        }// startElement()
+
+        public void endElement(String uri, String localName, String qName)
+                throws SAXException {
+            if (inDescription && XMLVariantParser.EL_DESCRIPTION.equals(qName)) {
+                inDescription = false;
+                final String value = (hasFirstChild && isFirstChildText) ? text.toString() : null;
+                if (mapDefinition != null) {
+                    mapDefDescription = value;
+                } else {
+                    variant.description = value;
+                }
+            } else if (mapDefinition != null) {
+                if (XMLVariantParser.EL_MAP_DEFINITION.equals(qName)) {
+                    endMapDefinition();
+                }
+            } else if (variant != null) {
+                if (qName.equals(inSection)) {
+                    inSection = null;
+                } else if (XMLVariantParser.EL_VARIANT.equals(qName)) {
+                    try {
+                        endVariant();
+                    } catch (IOException e) {
+                        throw new SAXException(e);
+                    }
+                    variant = null;
+                    inSection = null;
+                }
+            }
+        }// endElement()
+
+        /**
+         * Creates the MapDef for the current MAP_DEFINITION
+         */
+        private void endMapDefinition()
+                throws SAXException {
+            // create MapDef
+            MapDef md = new MapDef(
+                    getAttribute(mapDefinition, XMLVariantParser.ATT_ID),
+                    getAttribute(mapDefinition, XMLVariantParser.ATT_TITLE),
+                    getAttribute(mapDefinition, XMLVariantParser.ATT_URI),
+                    getAttribute(mapDefinition, XMLVariantParser.ATT_THUMBURI),
+                    getAttribute(mapDefinition, XMLVariantParser.ATT_PREFERRED_UNIT_STYLE),
+                    mapDefDescription);
+            mapDefinition = null;
+
+            // if no title, error!
+            if ("".equals(md.getTitle())) {
+                throw new SAXException(new IOException("map id=" + md.getID() + " missing a title (name)"));
+            }
+
+            // map it.
+            mapDefTable.put(md.getID(), md);
+        }// endMapDefinition()
+
+
+        public void endDocument()
+                throws SAXException {
+            // MAP_GRAPHIC element (multiple)
+            for (int i = 0; i < variants.size(); i++) {
+                List<MapGraphic> graphicList = new ArrayList<>(variantGraphics.get(i).size());
+                for (GraphicRef ref : variantGraphics.get(i)) {
+                    // lookup; if we didn't find it, throw an exception
+                    MapDef md = mapDefTable.get(ref.refID);
+                    if (md == null) {
+                        throw new SAXException(new IOException("MAP_GRAPHIC refers to unknown ID: \"" + ref.refID + "\""));
+                    }
+
+                    // create the MapGraphic object
+                    graphicList.add(new MapGraphic(
+                            md.getMapURI(),
+                            ref.isDefault,
+                            md.getTitle(),
+                            md.getDescription(),
+                            md.getThumbURI(),
+                            ("".equals(ref.preferredUnitStyle)) ? md.getPrefUnitStyle() : ref.preferredUnitStyle));
+                }
+                variants.get(i).setMapGraphics(graphicList);
+            }
+
+            variantList.addAll(variants);
+        }// endDocument()
+
+
+        public void characters(char[] ch, int start, int length) {
+            if (inDescription && !isFirstChildDone) {
+                if (!hasFirstChild) {
+                    hasFirstChild = true;
+                    isFirstChildText = true;
+                }
+                text.append(ch, start, length);
+            }
+        }// characters()
+
+        public void startCDATA() {
+            if (inDescription) {
+                if (hasFirstChild) {
+                    // text preceding the CDATA section is the first child
+                    isFirstChildDone = true;
+                } else {
+                    hasFirstChild = true;
+                    isFirstChildText = true;
+                }
+            }
+        }// startCDATA()
+
+        public void endCDATA() {
+            if (inDescription && hasFirstChild) {
+                isFirstChildDone = true;
+            }
+        }// endCDATA()
+
+
+        /**
+         * Elements within a VARIANT
+         */
+        private void startVariantElement(String qName, Attributes attributes) {
+            final VariantState vs = variant;
+
+            if (XMLVariantParser.EL_VICTORYCONDITIONS.equals(inSection)) {
+                // within the first VICTORYCONDITIONS; the first of each is used
+                final String value = getAttribute(attributes, XMLVariantParser.ATT_VALUE);
+                if (XMLVariantParser.EL_WINNING_SUPPLY_CENTERS.equals(qName) && vs.winningSupplyCenters == null) {
+                    vs.winningSupplyCenters = value;
+                } else if (XMLVariantParser.EL_YEARS_WITHOUT_SC_CAPTURE.equals(qName) && vs.yearsWithoutSCCapture == null) {
+                    vs.yearsWithoutSCCapture = value;
+                } else if (XMLVariantParser.EL_GAME_LENGTH.equals(qName) && vs.gameLength == null) {
+                    vs.gameLength = value;
+                }
+            } else if (XMLVariantParser.EL_MAP_GRAPHIC.equals(qName) && XMLVariantParser.EL_MAP.equals(inSection)) {
+                vs.graphicList.add(new GraphicRef(attributes));
+            } else if (XMLVariantParser.EL_RULEOPTION.equals(qName) && XMLVariantParser.EL_RULEOPTIONS.equals(inSection)) {
+                vs.ruleNVPList.add(new Variant.NameValuePair(
+                        getAttribute(attributes, XMLVariantParser.ATT_NAME),
+                        getAttribute(attributes, XMLVariantParser.ATT_VALUE)));
+            }
+
+            switch (qName) {
+                case XMLVariantParser.EL_DESCRIPTION:
+                    if (!vs.hasDescription) {
+                        vs.hasDescription = true;
+                        startDescription();
+                    }
+                    break;
+                case XMLVariantParser.EL_STARTINGTIME:
+                    if (vs.startingTime == null) {
+                        vs.startingTime = new AttributesImpl(attributes);
+                    }
+                    break;
+                case XMLVariantParser.EL_VICTORYCONDITIONS:
+                    if (!vs.hasVictoryConditions) {
+                        vs.hasVictoryConditions = true;
+                        inSection = qName;
+                    }
+                    break;
+                case XMLVariantParser.EL_MAP:
+                    if (vs.adjacencyURI == null) {
+                        vs.adjacencyURI = getAttribute(attributes, XMLVariantParser.ATT_ADJACENCYURI);
+                        inSection = qName;
+                    }
+                    break;
+                case XMLVariantParser.EL_RULEOPTIONS:
+                    if (vs.ruleNVPList == null) {
+                        vs.ruleNVPList = new ArrayList<>();
+                        inSection = qName;
+                    }
+                    break;
+                case XMLVariantParser.EL_POWER: {
+                    String name = getAttribute(attributes, XMLVariantParser.ATT_NAME);
+                    final boolean isActive = Boolean.parseBoolean(getAttribute(attributes, XMLVariantParser.ATT_ACTIVE));
+                    final boolean hasEmergency = Boolean.parseBoolean(getAttribute(attributes, XMLVariantParser.ATT_EMERGENCY));
+                    String adjective = getAttribute(attributes, XMLVariantParser.ATT_ADJECTIVE);
+                    String[] altNames = Utils.parseCSVXE(getAttribute(attributes, XMLVariantParser.ATT_ALTNAMES));
+
+                    String[] names = new String[altNames.length + 1];
+                    names[0] = name;
+                    System.arraycopy(altNames, 0, names, 1, altNames.length);
+
+                    vs.powerList.add(new Power(names, adjective, isActive, hasEmergency));
+                    break;
+                }
+                case XMLVariantParser.EL_SUPPLYCENTER: {
+                    SupplyCenter supplyCenter = new SupplyCenter();
+                    supplyCenter.setProvinceName(getAttribute(attributes, XMLVariantParser.ATT_PROVINCE));
+                    supplyCenter.setHomePowerName(getAttribute(attributes, XMLVariantParser.ATT_HOMEPOWER));
+                    supplyCenter.setOwnerName(getAttribute(attributes, XMLVariantParser.ATT_OWNER));
+                    vs.supplyCenterList.add(supplyCenter);
+                    break;
+                }
+                case XMLVariantParser.EL_INITIALSTATE: {
+                    InitialState initialState = new InitialState();
+                    initialState.setProvinceName(getAttribute(attributes, XMLVariantParser.ATT_PROVINCE));
+                    initialState.setPowerName(getAttribute(attributes, XMLVariantParser.ATT_POWER));
+                    initialState.setUnitType(Unit.Type.parse(getAttribute(attributes, XMLVariantParser.ATT_UNIT)));
+                    initialState.setCoast(Coast.parse(getAttribute(attributes, XMLVariantParser.ATT_UNITCOAST)));
+                    vs.stateList.add(initialState);
+                    break;
+                }
+                case XMLVariantParser.EL_INFLUENCE: {
+                    Influence influence = new Influence();
+                    influence.setProvinceName(getAttribute(attributes, XMLVariantParser.ATT_PROVINCE));
+                    influence.setPowerName(getAttribute(attributes, XMLVariantParser.ATT_POWER));
+                    vs.influenceList.add(influence);
+                    break;
+                }
+                default:
+                    break;
+            }
+        }// startVariantElement()
+
+        /**
+         * Create the Variant, in the same order (and with the same checks)
+         * as XMLVariantParser; MAP_GRAPHICs are resolved at the end of the document.
+         */
+        private void endVariant()
+                throws IOException, SAXException {
+            final VariantState vs = variant;
+            Variant v = new Variant();
+
+            // VARIANT attributes
+            v.setName(vs.name);
+            v.setDefault(Boolean.valueOf(vs.isDefault));
+            v.setVersion(XMLVariantParser.parseFloat(vs.version));
+            v.setAliases(Utils.parseCSV(vs.aliases));
+
+            // description
+            checkElement(vs.hasDescription, XMLVariantParser.EL_DESCRIPTION);
+            v.setDescription(vs.description);
+
+            // starting time
+            checkElement(vs.startingTime != null, XMLVariantParser.EL_STARTINGTIME);
+            v.setStartingPhase(Phase.parse(getAttribute(vs.startingTime, XMLVariantParser.ATT_TURN)));
+            v.setBCYearsAllowed(Boolean.valueOf(getAttribute(vs.startingTime, XMLVariantParser.ATT_ALLOW_BC_YEARS)));
+
+            // if start is BC, and BC years are not allowed, then BC years ARE allowed.
+            if (v.getStartingPhase().getYear() < 0) {
+                v.setBCYearsAllowed(true);
+            }
+
+            // victory conditions (single, with single subitems)
+            checkElement(vs.hasVictoryConditions, XMLVariantParser.EL_VICTORYCONDITIONS);
+            if (vs.winningSupplyCenters != null) {
+                v.setNumSCForVictory(XMLVariantParser.parseInt(vs.winningSupplyCenters));
+            }
+            if (vs.yearsWithoutSCCapture != null) {
+                v.setMaxYearsNoSCChange(XMLVariantParser.parseInt(vs.yearsWithoutSCCapture));
+            }
+            if (vs.gameLength != null) {
+                v.setMaxGameTimeYears(XMLVariantParser.parseInt(vs.gameLength));
+            }
+
+            v.setPowers(vs.powerList);
+            v.setSupplyCenters(vs.supplyCenterList);
+            v.setInitialStates(vs.stateList);
+            v.setInfluences(vs.influenceList);
+
+            // MAP adjacency URI; process it using ProvinceData parser
+            checkElement(vs.adjacencyURI != null, XMLVariantParser.EL_MAP);
+            try {
+                AdjCache ac = getAdjCache(new URI(vs.adjacencyURI));
+                v.setProvinceData(ac.provinceData);
+                v.setBorderData(ac.borderData);
+            } catch (URISyntaxException e) {
+                throw new IOException(e.getMessage());
+            }
+
+            // rule options (if any have been set); this element is optional.
+            v.setRuleOptionNVPs((vs.ruleNVPList == null) ? new ArrayList<>(0) : vs.ruleNVPList);
+
+            variants.add(v);
+            variantGraphics.add(vs.graphicList);
+        }// endVariant()
+
+        private void startDescription() {
+            inDescription = true;
+            hasFirstChild = false;
+            isFirstChildText = false;
+            isFirstChildDone = false;
+            text.setLength(0);
+        }// startDescription()
+
+        /**
+         * Checks that an element is present
+         */
+        private void checkElement(boolean isPresent, String name)
+                throws SAXException {
+            if (!isPresent) {
+                throw new SAXException(Utils.getLocalString(XMLVariantParser.ERR_NO_ELEMENT, name));
+            }
+        }// checkElement()
+
+
+        public void warning(SAXParseException e) {
+            errorHandler.warning(e);
+        }// warning()
+
+        public void error(SAXParseException e) {
+            errorHandler.error(e);
+        }// error()
+
+        public void fatalError(SAXParseException e)
+                throws SAXException {
+            errorHandler.fatalError(e);
+            throw e;
+        }// fatalError()
+    }// inner class Handler
+
+}// class StreamingVariantParser
@@ -113,13 +113,15 @@ public class XMLVariantParser implements VariantParser {
 
 
     // il8n error message constants
-    private static final String ERR_NO_ELEMENT = "XMLVariantParser.noelement";
+    static final String ERR_NO_ELEMENT = "XMLVariantParser.noelement";
 
     // instance variables
     private Document doc = null;
     private DocumentBuilder docBuilder = null;
     private List<Variant> variantList = null;
     private XMLProvinceParser provinceParser = null;
+    private URL variantPackageURL = null;
+    private final LRUCache<URI, AdjCache> adjCache = new LRUCache<>(6);    // URI -> AdjCache objects
 
 
     /** Create an XMLVariantParser */
@@ -153,7 +155,6 @@ public class XMLVariantParser implements VariantParser {
         provinceParser = new XMLProvinceParser(dbf);
 
         variantList = new LinkedList<>();
-        AdjCache.init(provinceParser);
     }// XMLVariantParser()
 
 
@@ -168,14 +169,14 @@ public class XMLVariantParser implements VariantParser {
         logger.debug("Parsing: {}", variantPackageURL);
 
         // cleanup cache (very important to remove references!)
-        AdjCache.clear();
+        adjCache.clear();
         variantList.clear();
 
         if (variantPackageURL == null) {
             throw new IllegalArgumentException();
         }
 
-        AdjCache.setVariantPackageURL(variantPackageURL);
+        this.variantPackageURL = variantPackageURL;
         doc = docBuilder.parse(is);
         procVariants();
         logger.trace("Parsing finished.");
@@ -186,7 +187,7 @@ public class XMLVariantParser implements VariantParser {
      * Cleanup, clearing any references/resources
      */
     public void close() {
-        AdjCache.clear();
+        adjCache.clear();
         variantList.clear();
     }// close()
 
@@ -361,8 +362,9 @@ public class XMLVariantParser implements VariantParser {
             // MAP adjacency URI; process it using ProvinceData parser
             try {
                 URI adjacencyURI = new URI(element.getAttribute(ATT_ADJACENCYURI));
-                variant.setProvinceData(AdjCache.getProvinceData(adjacencyURI));
-                variant.setBorderData(AdjCache.getBorderData(adjacencyURI));
+                AdjCache ac = getAdjCache(adjacencyURI);
+                variant.setProvinceData(ac.provinceData);
+                variant.setBorderData(ac.borderData);
             } catch (URISyntaxException e) {
                 throw new IOException(e.getMessage());
             }
@@ -443,7 +445,7 @@ public class XMLVariantParser implements VariantParser {
     /**
      * Integer parser; throws an exception if number cannot be parsed.
      */
-    private int parseInt(String value)
+    static int parseInt(String value)
             throws IOException {
         String message = "";
 
@@ -460,7 +462,7 @@ public class XMLVariantParser implements VariantParser {
     /**
      * Float parser; throws an exception if number cannot be parsed. Value must be >= 0.0
      */
-    private float parseFloat(String value)
+    static float parseFloat(String value)
             throws IOException {
         String message = "";
 
@@ -480,102 +482,51 @@ public class XMLVariantParser implements VariantParser {
 
 
     /**
-     * Inner class which caches XML adjacency data (ProvinceData and BorderData),
-     * which may be shared between different variants (if the variants use the
-     * same adjacency data).
-     * <p>
-     * NOTE: this depends on the XMLVariantParser variable "adjCache", since inner classes
-     * cannot have statics (unless they inner class is static, which just creates more problems;
-     * this is a simpler solution)
+     * Gets the cached adjacency data for the given URI, or parses it from
+     * the URI (relative to the variant package), as appropriate.
      */
-    private static class AdjCache {
-        private static URL vpURL = null;
-        private static XMLProvinceParser pp = null;
-        private static LRUCache<URI, AdjCache> adjCache = null;    // URI -> AdjCache objects
-
-        // instance variables
-        private ProvinceData[] provinceData;
-        private BorderData[] borderData;
-
-
-        public AdjCache() {
-        }// AdjCache()
+    private AdjCache getAdjCache(URI adjacencyURI)
+            throws IOException, SAXException {
+        // see if we already have the URI data cached.
+        AdjCache ac = adjCache.get(adjacencyURI);
+        if (ac != null) {
+            return ac;
+        }
 
-        /**
-         * initialization
-         */
-        public static void init(XMLProvinceParser provinceParser) {
-            pp = provinceParser;
-            adjCache = new LRUCache<>(6);
-        }// AdjCache()
+        // it's not cached. resolve URI.
+        URL url = VariantManager.getResource(variantPackageURL, adjacencyURI);
+        if (url == null) {
+            throw new IOException("Could not convert URI: " + adjacencyURI + " from variant package: " + variantPackageURL);
+        }
 
-        /**
-         * Sets the variant package URL
-         */
-        public static void setVariantPackageURL(URL variantPackageURL) {
-            vpURL = variantPackageURL;
-        }// setVariantPackageURL()
-
-
-        /**
-         * Clears the cache.
-         */
-        public static void clear() {
-            adjCache.clear();
-        }// clear()
-
-
-        /**
-         * Gets the ProvinceData for a given adjacency URI
-         */
-        public static ProvinceData[] getProvinceData(URI adjacencyURI)
-                throws IOException, SAXException {
-            AdjCache ac = get(adjacencyURI);
-            return ac.provinceData;
-        }// getProvinceData()
-
-
-        /**
-         * Gets the BorderData for a given adjacency URI
-         */
-        public static BorderData[] getBorderData(URI adjacencyURI)
-                throws IOException, SAXException {
-            AdjCache ac = get(adjacencyURI);
-            return ac.borderData;
-        }// getBorderData()
-
-
-        /**
-         * Gets the AdjCache object from the cache, or parses from the URI, as appropriate
-         */
-        private static AdjCache get(URI adjacencyURI)
-                throws IOException, SAXException {
-            // see if we already have the URI data cached.
-            if (adjCache.get(adjacencyURI) != null) {
-                //Log.println("  AdjCache: using cached adjacency data: ", adjacencyURI);
-                return adjCache.get(adjacencyURI);
-            }
+        // parse resolved URI
+        try (InputStream is = new BufferedInputStream(url.openStream())) {
+            provinceParser.parse(is);
+        }
 
-            // it's not cached. resolve URI.
-            URL url = VariantManager.getResource(vpURL, adjacencyURI);
-            if (url == null) {
-                throw new IOException("Could not convert URI: " + adjacencyURI + " from variant package: " + vpURL);
-            }
+        // cache and return parsed data.
+        ac = new AdjCache(provinceParser.getProvinceData(), provinceParser.getBorderData());
+        adjCache.put(adjacencyURI, ac);
+        return ac;
+    }// getAdjCache()
 
-            // parse resolved URI
-            //Log.println("  AdjCache: not in cache: ", adjacencyURI);
-            try (InputStream is = new BufferedInputStream(url.openStream())) {
-                pp.parse(is);
-            }
 
-            // cache and return parsed data.
-            AdjCache ac = new AdjCache();
-            ac.provinceData = pp.getProvinceData();
-            ac.borderData = pp.getBorderData();
-            adjCache.put(adjacencyURI, ac);
-            return ac;
-        }// get()
+    /**
+     * Cached XML adjacency data (ProvinceData and BorderData), which may be
+     * shared between different variants (if the variants use the same
+     * adjacency data).
+     * <p>
+     * The cache is held by each XMLVariantParser, rather than statically, so
+     * that separate parsers may be used concurrently.
+     */
+    private static class AdjCache {
+        private final ProvinceData[] provinceData;
+        private final BorderData[] borderData;
 
+        public AdjCache(ProvinceData[] provinceData, BorderData[] borderData) {
+            this.provinceData = provinceData;
+            this.borderData = borderData;
+        }// AdjCache()
     }// inner class AdjCache
 
 
@@ -583,7 +534,7 @@ public class XMLVariantParser implements VariantParser {
      * Class that holds MAP_DEFINITION data, which is
      * inserted into a hashtable for later recall.
      */
-    private class MapDef {
+    static class MapDef {
         private final String id;
         private final String title;
         private final String mapURI;
@@ -624,7 +575,7 @@ public class XMLVariantParser implements VariantParser {
         public String getDescription() {
             return description;
         }
-    }// inner class MapDef
+    }// nested class MapDef
 
 }// class XMLVariantParser
 
@@ -0,0 +1,58 @@
+package info.jdip.datc;
+
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.process.StdAdjudicator;
+import info.jdip.world.TurnState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Adjudicates every case both serially and with parallel resolution, and
+ * checks that the outcome is the same. Results are compared regardless of
+ * order, since parallel resolution groups them by component.
+ */
+public class ParallelResolutionTest {
+
+    @Test
+    @DisplayName("Parallel resolution matches serial resolution")
+    public void parallelMatchesSerial() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (String caseFile : TestCaseRunner.CASE_FILES) {
+                List<Case> serialCases = TestCaseRunner.loadCases(caseFile);
+                List<Case> parallelCases = TestCaseRunner.loadCases(caseFile);
+                assertEquals(serialCases.size(), parallelCases.size());
+
+                for (int i = 0; i < serialCases.size(); i++) {
+                    final String name = caseFile + " " + serialCases.get(i).getName();
+                    StdAdjudicator serial = TestCaseRunner.adjudicate(serialCases.get(i), null);
+                    StdAdjudicator parallel = TestCaseRunner.adjudicate(parallelCases.get(i), pool);
+
+                    assertEquals(serial.isUnresolvedParadox(), parallel.isUnresolvedParadox(), name);
+                    assertEquals(describe(serial.getNextTurnState()), describe(parallel.getNextTurnState()), name);
+                    assertEquals(getSortedResultText(serial), getSortedResultText(parallel), name);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String describe(TurnState turnState) {
+        return (turnState == null) ? "" : turnState.getPhase() + " " + TestCaseRunner.describePosition(turnState.getPosition());
+    }
+
+    private static List<String> getSortedResultText(StdAdjudicator stdJudge) {
+        List<String> lines = new ArrayList<>(TestCaseRunner.getResultText(stdJudge.getTurnState()));
+        Collections.sort(lines);
+        return lines;
+    }
+}
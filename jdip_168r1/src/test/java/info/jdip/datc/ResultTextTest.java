@@ -0,0 +1,65 @@
+package info.jdip.datc;
+
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.process.StdAdjudicator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the results (not just the positions) of each case against those
+ * in etc/test_data/datc_results.txt. This includes paradox notices, such as
+ * those given when the Szykman rule is applied.
+ */
+public class ResultTextTest {
+    private static final String EXPECTED_RESULTS = "etc/test_data/datc_results.txt";
+
+    @Test
+    @DisplayName("Results of all cases match expected results")
+    public void resultsMatchExpected() throws IOException {
+        Iterator<List<String>> expected = readExpectedResults().iterator();
+
+        for (String caseFile : TestCaseRunner.CASE_FILES) {
+            for (Case testCase : TestCaseRunner.loadCases(caseFile)) {
+                StdAdjudicator stdJudge = TestCaseRunner.adjudicate(testCase, null);
+
+                List<String> actual = new ArrayList<>();
+                actual.add("CASE " + caseFile + " " + testCase.getName().trim());
+                actual.addAll(TestCaseRunner.getResultText(stdJudge.getTurnState()));
+
+                assertTrue(expected.hasNext(), "no expected results for " + actual.get(0));
+                assertEquals(String.join("\n", expected.next()), String.join("\n", actual));
+            }
+        }
+
+        assertFalse(expected.hasNext(), "expected results for cases that were not run");
+    }
+
+    /**
+     * Expected results; one list per case, starting with the CASE line.
+     */
+    private static List<List<String>> readExpectedResults() throws IOException {
+        List<List<String>> cases = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(EXPECTED_RESULTS), StandardCharsets.UTF_8)) {
+            if (line.startsWith("CASE ")) {
+                cases.add(new ArrayList<>());
+            } else if (line.startsWith("#") || cases.isEmpty()) {
+                continue;
+            }
+            cases.get(cases.size() - 1).add(line);
+        }
+        return cases;
+    }
+}
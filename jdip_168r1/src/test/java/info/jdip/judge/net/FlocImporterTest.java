@@ -0,0 +1,358 @@
+package info.jdip.judge.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import info.jdip.judge.parser.JudgeImport;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.order.OrderFactory;
+import info.jdip.order.Orderable;
+import info.jdip.world.Phase;
+import info.jdip.world.Position;
+import info.jdip.world.Province;
+import info.jdip.world.TurnState;
+import info.jdip.world.World;
+import info.jdip.world.variant.VariantManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.text.html.HTMLEditorKit;
+import javax.swing.text.html.parser.ParserDelegator;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports games from a local stand-in for the floc.net observer, and
+ * compares the imported Worlds with those created by JudgeImport from the
+ * text of the same page, as imports were done before they were streamed.
+ */
+public class FlocImporterTest {
+    private static final String HISTORY_FILE = "etc/test_data/judge_history.txt";
+    private static final String GAME_START = ":: Judge: USEF  Game: jdiptest  Variant: Standard\n\n"
+            + "Date:     Mon Jan 06 2003 10:00:00 -0500\n"
+            + "Subject: USEF:jdiptest - S1901M Game Starting\n\n"
+            + "Starting position for Spring of 1901.\n";
+    private static final String NOT_REGISTERED_PAGE = "<html><body><p>This game is not registered "
+            + "with the observer.</p></body></html>";
+
+    private static HttpServer server;
+    private static String historyPage;
+    private static ExecutorService serverExecutor;
+    private static final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+        historyPage = toPage(new String(Files.readAllBytes(new File(HISTORY_FILE).toPath()), StandardCharsets.ISO_8859_1));
+
+        // the game parameter selects the response
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/observer.py", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            String game = query.replaceAll(".*game=([^&]*).*", "$1");
+            try {
+                switch (game) {
+                    case "history":
+                        send(exchange, historyPage);
+                        break;
+                    case "start":
+                        send(exchange, toPage(GAME_START));
+                        break;
+                    case "unregistered":
+                        send(exchange, NOT_REGISTERED_PAGE);
+                        break;
+                    case "empty":
+                        send(exchange, "");
+                        break;
+                    case "garbage":
+                        send(exchange, "<html><body>Service unavailable</body></html>");
+                        break;
+                    default:
+                        // send part of the history, then stall
+                        exchange.sendResponseHeaders(200, 0);
+                        OutputStream os = exchange.getResponseBody();
+                        os.write(historyPage.substring(0, historyPage.indexOf("F1901R"))
+                                .getBytes(StandardCharsets.ISO_8859_1));
+                        os.flush();
+                        release.await(30, TimeUnit.SECONDS);
+                        break;
+                }
+            } catch (IOException | InterruptedException e) {
+                // client went away
+            } finally {
+                exchange.close();
+            }
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        release.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A history imports as JudgeImport imports the page text")
+    public void history() throws Exception {
+        Recorder recorder = new Recorder();
+        World world = importGame("history", recorder, 10000);
+        assertNotNull(world, String.valueOf(recorder.exceptions));
+        assertSame(world, recorder.world);
+        assertTrue(recorder.exceptions.isEmpty());
+        assertEquals(0, recorder.unregistered);
+        assertEquals(5, world.getPhaseSet().size());
+
+        // contact, read, create, and a message for each of the 4 turns
+        assertEquals(7, recorder.messages.size(), String.valueOf(recorder.messages));
+
+        checkWorld(importText(historyPage), world);
+    }
+
+    @Test
+    @DisplayName("A game start is found from the Subject: line")
+    public void gameStart() throws Exception {
+        Recorder recorder = new Recorder();
+        World world = importGame("start", recorder, 10000);
+        assertNotNull(world, String.valueOf(recorder.exceptions));
+        assertEquals(1, world.getPhaseSet().size());
+        assertEquals(Phase.getPhase(Phase.SeasonType.SPRING, 1901, Phase.PhaseType.MOVEMENT),
+                world.getLastTurnState().getPhase());
+        checkWorld(importText(toPage(GAME_START)), world);
+    }
+
+    @Test
+    @DisplayName("Unregistered games, and empty pages, are reported")
+    public void unregistered() throws Exception {
+        for (String game : new String[]{"unregistered", "empty"}) {
+            Recorder recorder = new Recorder();
+            assertNull(importGame(game, recorder, 10000), game);
+            assertEquals(1, recorder.unregistered, game);
+            assertTrue(recorder.exceptions.isEmpty(), game);
+            assertNull(recorder.world, game);
+        }
+    }
+
+    @Test
+    @DisplayName("Pages that are not histories are reported as exceptions")
+    public void notHistory() throws Exception {
+        Recorder recorder = new Recorder();
+        assertNull(importGame("garbage", recorder, 10000));
+        assertEquals(1, recorder.exceptions.size());
+        assertEquals(0, recorder.unregistered);
+        assertNull(recorder.world);
+    }
+
+    @Test
+    @DisplayName("A stalled server times out")
+    public void timeout() throws Exception {
+        Recorder recorder = new Recorder();
+        assertNull(importGame("timeout", recorder, 500));
+        assertEquals(1, recorder.exceptions.size(), String.valueOf(recorder.exceptions));
+        assertTrue(recorder.exceptions.get(0) instanceof SocketTimeoutException, String.valueOf(recorder.exceptions));
+        assertEquals(0, recorder.unregistered);
+        assertNull(recorder.world);
+    }
+
+    @Test
+    @DisplayName("An aborted import stops, and makes no further callbacks")
+    public void abort() throws Exception {
+        Recorder recorder = new Recorder();
+        ExecutorService executor = FlocImporter.createExecutor(1);
+        try {
+            FlocImporter importer = createImporter("abort", recorder, 0);
+            Future<World> future = importer.start(executor);
+
+            // wait until the first turn has been read; the server then stalls
+            for (int i = 0; i < 1000 && recorder.messages.size() < 4; i++) {
+                Thread.sleep(10);
+            }
+            importer.abort();
+            assertThrows(CancellationException.class, future::get);
+            assertThrows(IllegalStateException.class, () -> importer.start(executor));
+
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "import did not stop");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(4, recorder.messages.size(), String.valueOf(recorder.messages));
+        assertTrue(recorder.exceptions.isEmpty(), String.valueOf(recorder.exceptions));
+        assertEquals(0, recorder.unregistered);
+        assertNull(recorder.world);
+    }
+
+    @Test
+    @DisplayName("Text is that found by the HTML parser, however the page is read")
+    public void htmlText() throws Exception {
+        for (String page : new String[]{historyPage, toPage(GAME_START), NOT_REGISTERED_PAGE,
+                "<html><head><script>a < b</script></head><body><p>a  &amp;\n b<br>&#67;</p>"
+                        + "<!-- comment --><pre>\r\n  one\r\n\r\ntwo\n</pre>\n</body></html>"}) {
+            String expected = parseText(page);
+            assertEquals(expected, filterText(page, page.length()));
+            assertEquals(expected, filterText(page, 1));
+            assertEquals(expected, filterText(page, 7));
+        }
+    }
+
+    /**
+     * Compares Phases, positions, supply center owners, orders and results.
+     */
+    private static void checkWorld(World expected, World actual) {
+        assertEquals(expected.getGameMetadata().getJudgeName(), actual.getGameMetadata().getJudgeName());
+        assertEquals(expected.getGameMetadata().getGameName(), actual.getGameMetadata().getGameName());
+        assertEquals(new ArrayList<>(expected.getPhaseSet()), new ArrayList<>(actual.getPhaseSet()));
+        for (Phase phase : expected.getPhaseSet()) {
+            TurnState ets = expected.getTurnState(phase);
+            TurnState ats = actual.getTurnState(phase);
+            String name = phase.toString();
+            assertEquals(ets.isResolved(), ats.isResolved(), name);
+            assertEquals(ets.isEnded(), ats.isEnded(), name);
+            assertEquals(TestCaseRunner.describePosition(ets.getPosition()),
+                    TestCaseRunner.describePosition(ats.getPosition()), name);
+            assertEquals(describeOwners(ets.getPosition()), describeOwners(ats.getPosition()), name);
+            assertEquals(describeOrders(ets), describeOrders(ats), name);
+            assertEquals(TestCaseRunner.getResultText(ets), TestCaseRunner.getResultText(ats), name);
+        }
+    }
+
+    private static List<String> describeOwners(Position position) {
+        List<String> owners = new ArrayList<>();
+        for (Province province : position.getProvinces()) {
+            if (province.hasSupplyCenter()) {
+                owners.add(province.getShortName() + ":" + position.getSupplyCenterOwner(province)
+                        + ":" + position.getSupplyCenterHomePower(province));
+            }
+        }
+        return owners;
+    }
+
+    private static List<String> describeOrders(TurnState turnState) {
+        List<String> orders = new ArrayList<>();
+        for (Orderable order : turnState.getAllOrders()) {
+            orders.add(order.toString());
+        }
+        return orders;
+    }
+
+    /**
+     * Imports the text of the page, with the HTML removed, without streaming.
+     */
+    private static World importText(String page) throws Exception {
+        return new JudgeImport(OrderFactory.getDefault(), new StringReader(parseText(page)), null).getWorld();
+    }
+
+    /**
+     * The text of the page, as found by the HTML parser.
+     */
+    private static String parseText(String page) throws IOException {
+        StringBuilder text = new StringBuilder();
+        new ParserDelegator().parse(new StringReader(page), new HTMLEditorKit.ParserCallback() {
+            @Override
+            public void handleText(char[] data, int pos) {
+                text.append(data);
+                text.append('\n');
+            }
+        }, false);
+        return text.toString();
+    }
+
+    /**
+     * The text of the page, filtered in pieces of the given length.
+     */
+    private static String filterText(String page, int length) {
+        HTMLTextFilter filter = new HTMLTextFilter();
+        StringBuilder text = new StringBuilder();
+        char[] chars = page.toCharArray();
+        for (int i = 0; i < chars.length; i += length) {
+            text.append(filter.append(chars, i, Math.min(length, chars.length - i)));
+        }
+        text.append(filter.finish());
+        return text.toString();
+    }
+
+    private static World importGame(String game, Recorder recorder, int readTimeout) throws Exception {
+        ExecutorService executor = FlocImporter.createExecutor(1);
+        try {
+            return createImporter(game, recorder, readTimeout).start(executor).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static FlocImporter createImporter(String game, Recorder recorder, int readTimeout) {
+        FlocImporter importer = new FlocImporter(game, "USEF", OrderFactory.getDefault(), recorder);
+        importer.setBaseURL("http://localhost:" + server.getAddress().getPort() + "/observer.py");
+        importer.setTimeouts(5000, readTimeout);
+        return importer;
+    }
+
+    private static String toPage(String text) {
+        return "<html><head><title>floc.net</title></head><body><pre>"
+                + text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                + "</pre></body></html>";
+    }
+
+    private static void send(HttpExchange exchange, String page) throws IOException {
+        byte[] bytes = page.getBytes(StandardCharsets.ISO_8859_1);
+        exchange.sendResponseHeaders(200, (bytes.length == 0) ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Records callbacks
+     */
+    private static class Recorder implements FlocImporter.FlocImportCallback {
+        private final List<IOException> exceptions = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        private volatile World world = null;
+        private volatile int unregistered = 0;
+
+        public void flocImportException(IOException e) {
+            exceptions.add(e);
+        }
+
+        public void flocWorldImportComplete(World world) {
+            this.world = world;
+        }
+
+        public void flocImportMessage(String message) {
+            messages.add(message);
+        }
+
+        public void flocImportUnregistered() {
+            unregistered++;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package info.jdip.misc;
+
+import info.jdip.order.OrderFactory;
+import info.jdip.world.Power;
+import info.jdip.world.RuleOptions;
+import info.jdip.world.World;
+import info.jdip.world.WorldFactory;
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.Variant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that self-play games are determined by their seed, whatever the
+ * number of threads, and are played without errors.
+ */
+public class SelfPlayTest {
+    private static final int GAMES = 6;
+    private static World template;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+        Variant variant = VariantManager.getVariant("Standard", VariantManager.VERSION_NEWEST);
+        template = WorldFactory.getInstance().createWorld(variant);
+        template.setRuleOptions(RuleOptions.createFromVariant(variant));
+    }
+
+    @Test
+    @DisplayName("RANDOM games do not depend on the number of threads")
+    public void random() throws Exception {
+        check(SelfPlay.Strategy.RANDOM);
+    }
+
+    @Test
+    @DisplayName("HEURISTIC games do not depend on the number of threads")
+    public void heuristic() throws Exception {
+        check(SelfPlay.Strategy.HEURISTIC);
+    }
+
+    private static void check(SelfPlay.Strategy strategy) throws Exception {
+        SelfPlay.Statistics serial = createSelfPlay(strategy).run(GAMES, 1);
+        SelfPlay.Statistics parallel = createSelfPlay(strategy).run(GAMES, 2);
+        String name = strategy + "\n" + serial + parallel;
+
+        assertEquals(0L, serial.getErrorCount(), name);
+        assertEquals(0L, parallel.getErrorCount(), name);
+        assertEquals((long) GAMES, serial.getGameCount(), name);
+        assertTrue(serial.getPhaseCount() > GAMES, name);
+
+        assertEquals(serial.getGameCount(), parallel.getGameCount(), name);
+        assertEquals(serial.getPhaseCount(), parallel.getPhaseCount(), name);
+        assertEquals(serial.getDrawCount(), parallel.getDrawCount(), name);
+        assertEquals(serial.getTruncatedCount(), parallel.getTruncatedCount(), name);
+        assertEquals(serial.getParadoxCount(), parallel.getParadoxCount(), name);
+        for (Power power : template.getMap().getPowers()) {
+            assertEquals(serial.getWins(power), parallel.getWins(power), name);
+            assertEquals(serial.getAverageSupplyCenters(power), parallel.getAverageSupplyCenters(power), name);
+        }
+    }
+
+    private static SelfPlay createSelfPlay(SelfPlay.Strategy strategy) {
+        SelfPlay selfPlay = new SelfPlay(template, OrderFactory.getDefault());
+        selfPlay.setStrategy(strategy);
+        selfPlay.setSeed(34L);
+        selfPlay.setMaxYears(6);
+        return selfPlay;
+    }
+}
@@ -2,35 +2,111 @@ package info.jdip.misc;
 
 import info.jdip.order.Order;
 import info.jdip.order.OrderFactory;
+import info.jdip.order.result.Result;
+import info.jdip.order.result.TimeResult;
 import info.jdip.process.StdAdjudicator;
 import info.jdip.world.Position;
 import info.jdip.world.Province;
 import info.jdip.world.TurnState;
+import info.jdip.world.Unit;
 import info.jdip.world.World;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestCaseRunner {
     private static final Logger logger = LoggerFactory.getLogger(TestCaseRunner.class);
+
+    /**
+     * The case files (in etc/test_data) that are run by the DATC tests.
+     */
+    public static final String[] CASE_FILES = {"borders.txt", "datc_v2.4_06.txt", "datc_v2.4_08.txt",
+            "datc_v2.4_09.txt", "datc_v2.4_10.txt", "datc_v2.4_10D.txt", "datc_v2.4_10F-10G-10L.txt",
+            "datc_v2.4_11.txt", "datc_v2.4_12.txt", "dipai.txt", "explicitConvoys.txt", "real.txt", "wing.txt"};
+
     public static void runCase(Case testCase){
+        StdAdjudicator stdJudge = adjudicate(testCase, null);
+
+        if (stdJudge.isUnresolvedParadox()) {
+            throw new RuntimeException("Unresolved paradox...");
+        }
+
+        assertTrue(compareState(testCase, stdJudge.getNextTurnState()));
+    }
+    /**
+     * Parse the cases of the given case file (in etc/test_data). Each call
+     * creates new Cases, which may each be adjudicated once.
+     */
+    public static List<Case> loadCases(String caseFileName) {
+        TestSuite testSuite = new TestSuite(new File("build/tmp/variants"));
+        testSuite.parseCases(new File("etc/test_data/" + caseFileName));
+        return testSuite.getAllCases();
+    }
+
+    /**
+     * Adjudicate the case; if a pool is given, with parallel resolution.
+     */
+    public static StdAdjudicator adjudicate(Case testCase, ForkJoinPool pool) {
         World world = testCase.getWorld();
         world.setTurnState(testCase.getCurrentTurnState());
         world.setTurnState(testCase.getPreviousTurnState());
         StdAdjudicator stdJudge = new StdAdjudicator(OrderFactory.getDefault(), testCase.getCurrentTurnState());
+        stdJudge.setParallelResolution(pool);
         stdJudge.process();
+        return stdJudge;
+    }
 
-        if (stdJudge.isUnresolvedParadox()) {
-            throw new RuntimeException("Unresolved paradox...");
+    /**
+     * The results of the TurnState, one per line, as "power: message".
+     * Time stamps are omitted, and line breaks within messages are escaped.
+     */
+    public static List<String> getResultText(TurnState turnState) {
+        return getResultText(turnState.getResultList());
+    }
+
+    /**
+     * The given results, one per line, as per getResultText(TurnState).
+     */
+    public static List<String> getResultText(List<Result> results) {
+        List<String> lines = new ArrayList<>();
+        for (Result result : results) {
+            if (!(result instanceof TimeResult)) {
+                String power = (result.getPower() == null) ? "(none)" : result.getPower().toString();
+                lines.add(power + ": " + result.getMessage().replace("\n", "\\n"));
+            }
         }
+        return lines;
+    }
 
-        assertTrue(compareState(testCase, stdJudge.getNextTurnState()));
+    /**
+     * Describes the units (and dislodged units) of a Position, in Province order.
+     */
+    public static String describePosition(Position pos) {
+        StringBuilder sb = new StringBuilder(256);
+        for (Province province : pos.getProvinces()) {
+            Unit unit = pos.getUnit(province);
+            if (unit != null) {
+                sb.append(province.getShortName()).append(':').append(unit.getPower())
+                        .append(' ').append(unit.getType()).append(' ').append(unit.getCoast()).append("; ");
+            }
+            unit = pos.getDislodgedUnit(province);
+            if (unit != null) {
+                sb.append(province.getShortName()).append(":dislodged:").append(unit.getPower())
+                        .append(' ').append(unit.getType()).append(' ').append(unit.getCoast()).append("; ");
+            }
+        }
+        return sb.toString();
     }
+
     /**
      * compareState: checks to see if resolved state matches,
      * unit for unit, the Case POSTSTATEs. Units that match
@@ -331,6 +331,11 @@ public final class TestSuite {
             // set the RuleOptions in the World (this is normally done
             // by the GUI)
             world.setRuleOptions(RuleOptions.createFromVariant(variant));
+
+            // and the variant name and version (also normally done by the GUI)
+            World.VariantInfo variantInfo = world.getVariantInfo();
+            variantInfo.setVariantName(variant.getName());
+            variantInfo.setVariantVersion(variant.getVersion());
         } catch (Exception e) {
             logger.error("Init error: ", e);
             throw new RuntimeException(e);
@@ -0,0 +1,158 @@
+package info.jdip.misc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validates the bundled Standard variants, and copies of them which are
+ * broken, and checks the reported errors and the JSON lines output.
+ */
+public class VariantValidatorTest {
+    private static final File STANDARD = new File("build/tmp/variants/stdVariantsVariants.zip");
+    private static final String ADJACENCY_FILE = "std_adjacency.xml";
+    private static final String VIENNA = "<ADJACENCY type=\"mv\" refs=\"tyr boh gal bud tri\" />";
+    private static final String ONE_WAY_VIENNA = "<ADJACENCY type=\"mv\" refs=\"boh gal bud tri\" />";
+
+    @Test
+    @DisplayName("Bundled variants are valid")
+    public void bundled() {
+        VariantValidator.PackageResult result = new VariantValidator().validate(STANDARD);
+        assertEquals(STANDARD.getName(), result.getName());
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+        assertTrue(result.getVariants().size() > 1);
+        for (VariantValidator.VariantResult vr : result.getVariants()) {
+            assertTrue(vr.isValid(), vr.getName() + ": " + vr.getErrors());
+        }
+        assertTrue(names(result).contains("Standard"));
+    }
+
+    @Test
+    @DisplayName("A one-way adjacency is reported")
+    public void oneWayAdjacency() throws IOException {
+        File broken = copy(STANDARD, ADJACENCY_FILE, VIENNA, ONE_WAY_VIENNA);
+        VariantValidator.PackageResult result = new VariantValidator().validate(broken);
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+
+        VariantValidator.VariantResult standard = result.getVariants().get(names(result).indexOf("Standard"));
+        assertFalse(standard.isValid());
+        assertEquals(Collections.singletonList("adjacency: tyr is adjacent to vie, but vie is not adjacent to tyr"),
+                standard.getErrors());
+    }
+
+    @Test
+    @DisplayName("A package without variants.xml fails")
+    public void noVariants() throws IOException {
+        File empty = File.createTempFile("emptyVariants", ".zip");
+        empty.deleteOnExit();
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(empty))) {
+            zos.putNextEntry(new ZipEntry("readme.txt"));
+            zos.write("no variants here".getBytes(StandardCharsets.UTF_8));
+        }
+
+        VariantValidator.PackageResult result = new VariantValidator().validate(empty);
+        assertEquals(Collections.singletonList("no variants.xml in package"), result.getErrors());
+        assertTrue(result.getVariants().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Results are written as JSON lines, in order, with a summary")
+    public void run() throws Exception {
+        File broken = copy(STANDARD, ADJACENCY_FILE, VIENNA, ONE_WAY_VIENNA);
+        File missing = new File(broken.getPath() + ".missing");
+        List<File> files = Arrays.asList(STANDARD, broken, missing, STANDARD);
+
+        String expected = null;
+        for (int threads : new int[]{1, 4}) {
+            StringWriter sw = new StringWriter();
+            VariantValidator.Statistics stats = new VariantValidator().run(files, threads, new PrintWriter(sw));
+            assertEquals(4, stats.getPackageCount());
+            assertEquals(1, stats.getFailureCount());
+            assertTrue(stats.getInvalidCount() > 0);
+            assertEquals(1, stats.getExitStatus());
+
+            String[] lines = sw.toString().split("\n");
+            assertEquals(files.size() + 1, lines.length);
+            for (int i = 0; i < files.size(); i++) {
+                assertTrue(lines[i].startsWith("{\"package\":\"" + files.get(i).getName() + "\""), lines[i]);
+            }
+            assertTrue(lines[0].contains("\"errors\":[]"));
+            assertFalse(lines[0].contains("\"valid\":false"));
+            assertTrue(lines[1].contains("\"valid\":false,\"errors\":"
+                    + "[\"adjacency: tyr is adjacent to vie, but vie is not adjacent to tyr\"]"), lines[1]);
+            assertFalse(lines[2].contains("\"errors\":[]"), lines[2]);
+            assertTrue(lines[4].startsWith("{\"summary\":{\"packages\":4,\"variants\":"
+                    + stats.getVariantCount() + ",\"invalid\":" + stats.getInvalidCount()
+                    + ",\"failures\":1,\"threads\":" + threads + ","), lines[4]);
+
+            // results do not depend on the number of threads (timings aside)
+            String results = String.join("\n", Arrays.copyOf(lines, files.size()))
+                    .replaceAll("\"\\w+Ms\":[0-9.]+", "");
+            if (expected != null) {
+                assertEquals(expected, results);
+            }
+            expected = results;
+        }
+
+        VariantValidator.Statistics stats = new VariantValidator().run(Collections.singletonList(STANDARD),
+                1, new PrintWriter(new StringWriter()));
+        assertEquals(0, stats.getInvalidCount());
+        assertEquals(0, stats.getFailureCount());
+        assertEquals(0, stats.getExitStatus());
+        assertNotEquals(0, stats.getVariantCount());
+    }
+
+    private static List<String> names(VariantValidator.PackageResult result) {
+        List<String> names = new ArrayList<>();
+        for (VariantValidator.VariantResult vr : result.getVariants()) {
+            names.add(vr.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Copies a package to a temporary file, replacing text in one of its entries.
+     */
+    private static File copy(File pack, String entryName, String text, String replacement) throws IOException {
+        File copy = File.createTempFile("brokenVariants", ".zip");
+        copy.deleteOnExit();
+        try (ZipFile zip = new ZipFile(pack);
+             ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(copy))) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                zos.putNextEntry(new ZipEntry(entry.getName()));
+                try (InputStream is = zip.getInputStream(entry)) {
+                    if (entry.getName().equals(entryName)) {
+                        String content = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+                        assertTrue(content.contains(text), entryName + " has no " + text);
+                        zos.write(content.replace(text, replacement).getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        is.transferTo(zos);
+                    }
+                }
+            }
+        }
+        return copy;
+    }
+}
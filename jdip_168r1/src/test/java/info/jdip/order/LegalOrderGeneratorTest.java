@@ -0,0 +1,236 @@
+package info.jdip.order;
+
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.process.StdAdjudicator;
+import info.jdip.world.Coast;
+import info.jdip.world.Location;
+import info.jdip.world.Phase;
+import info.jdip.world.Position;
+import info.jdip.world.Power;
+import info.jdip.world.Province;
+import info.jdip.world.RuleOptions;
+import info.jdip.world.TurnState;
+import info.jdip.world.Unit;
+import info.jdip.world.World;
+import info.jdip.world.WorldFactory;
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.Variant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Checks the orders generated by LegalOrderGenerator for the positions of
+ * the DATC cases (before and after adjudication) and the Standard starting
+ * position: all validate, none are duplicated, and the moves and retreats
+ * of each unit are those found by validating every possible destination.
+ */
+public class LegalOrderGeneratorTest {
+    private static final Coast[] DEST_COASTS = {Coast.UNDEFINED, Coast.LAND, Coast.SEA, Coast.NORTH,
+            Coast.SOUTH, Coast.WEST, Coast.EAST, Coast.WING};
+
+    private static final List<TurnState> turnStates = new ArrayList<>();
+    private static Variant variant;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+        variant = VariantManager.getVariant("Standard", VariantManager.VERSION_NEWEST);
+        turnStates.add(createWorld().getLastTurnState());
+
+        for (String caseFile : TestCaseRunner.CASE_FILES) {
+            for (Case testCase : TestCaseRunner.loadCases(caseFile)) {
+                StdAdjudicator stdJudge = TestCaseRunner.adjudicate(testCase, null);
+                turnStates.add(stdJudge.getTurnState());
+                if (stdJudge.getNextTurnState() != null) {
+                    turnStates.add(stdJudge.getNextTurnState());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Generated orders validate, and are unique")
+    public void validAndUnique() throws Exception {
+        int nOrders = 0;
+        for (TurnState turnState : turnStates) {
+            nOrders += checkValid(turnState, turnState.getWorld().getRuleOptions());
+        }
+        assertTrue(nOrders > 10000, "too few orders: " + nOrders);
+    }
+
+    @Test
+    @DisplayName("Generated orders validate when convoy routes must be explicit, or implicit")
+    public void convoyRules() throws Exception {
+        for (RuleOptions.OptionValue value : new RuleOptions.OptionValue[]{
+                RuleOptions.VALUE_PATHS_EXPLICIT, RuleOptions.VALUE_PATHS_IMPLICIT}) {
+            for (TurnState turnState : turnStates) {
+                if (turnState.getPhase().getPhaseType() == Phase.PhaseType.MOVEMENT) {
+                    RuleOptions ruleOpts = RuleOptions.createFromVariant(variant);
+                    ruleOpts.setOption(RuleOptions.OPTION_CONVOYED_MOVES, value);
+                    checkValid(turnState, ruleOpts);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Moves and retreats match validation of every destination")
+    public void movesMatchValidation() throws Exception {
+        int nMovement = 0;
+        int nRetreat = 0;
+        for (TurnState turnState : turnStates) {
+            RuleOptions ruleOpts = turnState.getWorld().getRuleOptions();
+            LegalOrderGenerator generator = LegalOrderGenerator.getInstance(turnState.getWorld().getMap());
+            Position position = turnState.getPosition();
+            Phase.PhaseType phaseType = turnState.getPhase().getPhaseType();
+
+            if (phaseType == Phase.PhaseType.MOVEMENT) {
+                for (Province province : position.getUnitProvinces()) {
+                    Unit unit = position.getUnit(province);
+                    Location src = new Location(province, unit.getCoast());
+                    Set<Location> generated = new LinkedHashSet<>();
+                    for (Orderable order : generator.getLegalOrders(turnState, ruleOpts,
+                            OrderFactory.getDefault(), province)) {
+                        if (order instanceof Move) {
+                            generated.add(((Move) order).getDest());
+                        }
+                    }
+                    assertEquals(findDests(turnState, ruleOpts, src, unit, false), generated,
+                            turnState.getPhase() + " " + src);
+                    nMovement++;
+                }
+            } else if (phaseType == Phase.PhaseType.RETREAT) {
+                for (Province province : position.getDislodgedUnitProvinces()) {
+                    Unit unit = position.getDislodgedUnit(province);
+                    Location src = new Location(province, unit.getCoast());
+                    Set<Location> generated = new LinkedHashSet<>();
+                    for (Orderable order : generator.getLegalOrders(turnState, ruleOpts,
+                            OrderFactory.getDefault(), province)) {
+                        if (order instanceof Retreat) {
+                            generated.add(((Retreat) order).getDest());
+                        }
+                    }
+                    assertEquals(findDests(turnState, ruleOpts, src, unit, true), generated,
+                            turnState.getPhase() + " " + src);
+                    nRetreat++;
+                }
+            }
+        }
+        assertTrue(nMovement > 1000, "too few units: " + nMovement);
+        assertTrue(nRetreat > 20, "too few dislodged units: " + nRetreat);
+    }
+
+    @Test
+    @DisplayName("Instances are cached per Map, and released with the Map")
+    public void cache() throws Exception {
+        World world = createWorld();
+        LegalOrderGenerator generator = LegalOrderGenerator.getInstance(world.getMap());
+        assertSame(generator, LegalOrderGenerator.getInstance(world.getMap()));
+
+        // a World created from a template shares the template's Map
+        World copy = WorldFactory.getInstance().createWorld(world);
+        assertSame(generator, LegalOrderGenerator.getInstance(copy.getMap()));
+
+        World other = createWorld();
+        assertNotSame(world.getMap(), other.getMap());
+        LegalOrderGenerator otherGenerator = LegalOrderGenerator.getInstance(other.getMap());
+        assertNotSame(generator, otherGenerator);
+        assertThrows(IllegalArgumentException.class, () -> LegalOrderGenerator.getInstance(null));
+
+        // both generate the same orders, for their own Map
+        assertEquals(generator.getLegalOrders(world.getLastTurnState(), world.getRuleOptions(),
+                        OrderFactory.getDefault(), world.getMap().getPowers()[0]).size(),
+                otherGenerator.getLegalOrders(other.getLastTurnState(), other.getRuleOptions(),
+                        OrderFactory.getDefault(), other.getMap().getPowers()[0]).size());
+
+        WeakReference<LegalOrderGenerator> ref = new WeakReference<>(generator);
+        generator = null;
+        world = null;
+        copy = null;
+        for (int i = 0; i < 100 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+            // stale entries are removed when the cache is next used
+            assertSame(otherGenerator, LegalOrderGenerator.getInstance(other.getMap()));
+        }
+        assertNull(ref.get(), "the generator was not released with its Map");
+    }
+
+    /**
+     * Validates the orders generated for each Power, and checks for
+     * duplicates. Returns the number of orders.
+     */
+    private static int checkValid(TurnState turnState, RuleOptions ruleOpts) {
+        LegalOrderGenerator generator = LegalOrderGenerator.getInstance(turnState.getWorld().getMap());
+        ValidationOptions valOpts = new ValidationOptions();
+        int count = 0;
+        for (Power power : turnState.getWorld().getMap().getPowers()) {
+            List<Orderable> orders = generator.getLegalOrders(turnState, ruleOpts, OrderFactory.getDefault(), power);
+            for (int i = 0; i < orders.size(); i++) {
+                Orderable order = orders.get(i);
+                String name = turnState.getPhase() + " " + order;
+                try {
+                    order.validate(turnState, valOpts, ruleOpts);
+                } catch (OrderException e) {
+                    fail(name + ": " + e.getMessage());
+                }
+                assertSame(power, order.getPower(), name);
+                for (int j = 0; j < i; j++) {
+                    assertTrue(!order.equals(orders.get(j)), name + ": duplicate");
+                }
+            }
+            count += orders.size();
+        }
+        return count;
+    }
+
+    /**
+     * The validated destinations of every Move (or Retreat) from src that
+     * passes strict validation.
+     */
+    private static Set<Location> findDests(TurnState turnState, RuleOptions ruleOpts,
+                                           Location src, Unit unit, boolean isRetreat) {
+        OrderFactory factory = OrderFactory.getDefault();
+        ValidationOptions valOpts = new ValidationOptions();
+        Set<Location> dests = new LinkedHashSet<>();
+        for (Province province : turnState.getWorld().getMap().getProvinces()) {
+            if (province.isImpassable()) {
+                // never generated; moves to impassable provinces always fail
+                continue;
+            }
+            for (Coast coast : DEST_COASTS) {
+                Move move = (isRetreat)
+                        ? factory.createRetreat(unit.getPower(), src, unit.getType(), new Location(province, coast))
+                        : factory.createMove(unit.getPower(), src, unit.getType(), new Location(province, coast));
+                try {
+                    move.validate(turnState, valOpts, ruleOpts);
+                    dests.add(move.getDest());
+                } catch (OrderException e) {
+                    // not a legal destination
+                }
+            }
+        }
+        return dests;
+    }
+
+    private static World createWorld() throws Exception {
+        return WorldFactory.getInstance().createWorld(variant);
+    }
+}
@@ -0,0 +1,143 @@
+package info.jdip.order;
+
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.misc.Utils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that cached formatting (OrderFormat.formatCached()) gives the same
+ * text as uncached formatting, for the orders of the DATC cases.
+ */
+public class OrderFormatTest {
+    private static final List<Orderable> orders = new ArrayList<>();
+
+    @BeforeAll
+    public static void setup() {
+        for (String caseFile : TestCaseRunner.CASE_FILES) {
+            for (Case testCase : TestCaseRunner.loadCases(caseFile)) {
+                orders.addAll(TestCaseRunner.adjudicate(testCase, null).getTurnState().getAllOrders());
+            }
+        }
+        assertTrue(orders.size() > 100, "no orders");
+    }
+
+    @Test
+    @DisplayName("Cached formatting matches formatting, for several options")
+    public void formatCached() {
+        OrderFormat.clearFormattedCache();
+        for (OrderFormatOptions ofo : createOptions()) {
+            check(ofo);
+            // cached
+            check(ofo);
+        }
+    }
+
+    @Test
+    @DisplayName("Changing options changes the cached text")
+    public void optionsChanged() {
+        OrderFormat.clearFormattedCache();
+        OrderFormatOptions ofo = OrderFormatOptions.createDefault();
+        check(ofo);
+
+        ofo.setProvinceFormat(OrderFormatOptions.FORMAT_FULL);
+        check(ofo);
+        ofo.setOrderNameStyle(OrderFormatOptions.STYLE_UPPER);
+        check(ofo);
+        ofo.setArrow(OrderFormatOptions.ARROW_UNICODE);
+        check(ofo);
+        ofo.setEndWithDot(true);
+        check(ofo);
+        ofo.setCoastSeparator(OrderFormatOptions.COAST_SEP_HYPEN);
+        check(ofo);
+
+        // back to the defaults, so the first cached entries are used again
+        OrderFormatOptions defaults = OrderFormatOptions.createDefault();
+        ofo.setProvinceFormat(defaults.getProvinceFormat());
+        ofo.setOrderNameStyle(defaults.getOrderNameStyle());
+        ofo.setArrow(defaults.getArrow());
+        ofo.setEndWithDot(defaults.getEndWithDot());
+        ofo.setCoastSeparator(defaults.getCoastSeparator());
+        check(ofo);
+        assertSame(OrderFormat.formatCached(defaults, orders.get(0)), OrderFormat.formatCached(ofo, orders.get(0)));
+    }
+
+    @Test
+    @DisplayName("Cached text is not shared between Locales")
+    public void localeChanged() {
+        Locale locale = Utils.getLocale();
+        OrderFormatOptions ofo = OrderFormatOptions.createDefault();
+        String text = OrderFormat.formatCached(ofo, orders.get(0));
+        assertSame(text, OrderFormat.formatCached(ofo, orders.get(0)));
+        try {
+            Utils.loadLocale(Locale.GERMAN);
+            String other = OrderFormat.formatCached(ofo, orders.get(0));
+            assertEquals(text, other);
+            assertTrue(text != other, "text cached for another Locale was used");
+            check(ofo);
+        } finally {
+            Utils.loadLocale(locale);
+        }
+    }
+
+    @Test
+    @DisplayName("The number of compiled format Strings is bounded")
+    public void compiledFormats() {
+        Orderable order = orders.get(0);
+        OrderFormatOptions ofo = OrderFormatOptions.createDefault();
+        for (int i = 0; i < 1000; i++) {
+            String format = i + ": " + order.getDefaultFormat();
+            assertEquals(i + ": " + OrderFormat.format(ofo, order), OrderFormat.format(ofo, format, order));
+        }
+        assertTrue(OrderFormat.getCompiledFormatCount() <= 256, "too many compiled formats");
+    }
+
+    private static void check(OrderFormatOptions ofo) {
+        for (Orderable order : orders) {
+            assertEquals(OrderFormat.format(ofo, order), OrderFormat.formatCached(ofo, order), order.toString());
+        }
+    }
+
+    private static List<OrderFormatOptions> createOptions() {
+        List<OrderFormatOptions> options = new ArrayList<>();
+        options.add(OrderFormatOptions.createDefault());
+
+        OrderFormatOptions full = OrderFormatOptions.createDefault();
+        full.setProvinceFormat(OrderFormatOptions.FORMAT_FULL);
+        full.setCoastFormat(OrderFormatOptions.FORMAT_COAST_PAREN_FULL);
+        full.setPowerFormat(OrderFormatOptions.FORMAT_FULL);
+        full.setUnitFormat(OrderFormatOptions.FORMAT_FULL);
+        full.setOrderNameFormat(OrderFormatOptions.FORMAT_FULL);
+        full.setShowPossessivePower(true);
+        options.add(full);
+
+        OrderFormatOptions styled = OrderFormatOptions.createDefault();
+        styled.setProvinceStyle(OrderFormatOptions.STYLE_UPPER);
+        styled.setCoastStyle(OrderFormatOptions.STYLE_LOWER);
+        styled.setPowerStyle(OrderFormatOptions.STYLE_TITLE);
+        styled.setUnitStyle(OrderFormatOptions.STYLE_TITLE_ALL);
+        styled.setOrderNameStyle(OrderFormatOptions.STYLE_PLURAL_UPPER);
+        styled.setArrow(OrderFormatOptions.ARROW_HYPHEN);
+        styled.setEndWithDot(true);
+        styled.setCoastSeparator(OrderFormatOptions.COAST_SEP_NONE);
+        options.add(styled);
+
+        OrderFormatOptions brief = OrderFormatOptions.createDefault();
+        brief.setPowerFormat(OrderFormatOptions.FORMAT_BRIEF);
+        brief.setOrderNameFormat(OrderFormatOptions.FORMAT_BRIEF);
+        brief.setCoastFormat(OrderFormatOptions.FORMAT_COAST_PAREN_BRIEF);
+        brief.setDebug(true);
+        options.add(brief);
+        return options;
+    }
+}
@@ -0,0 +1,165 @@
+package info.jdip.process;
+
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.world.Phase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the metrics recorded while adjudicating DATC cases, serially and
+ * in parallel, their publication to registered listeners, and merging.
+ */
+public class AdjudicationMetricsTest {
+    private static final String CASE_FILE = "datc_v2.4_06.txt";
+
+    @Test
+    @DisplayName("Counts and stage times are consistent")
+    public void adjudicatedCases() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        int nEvaluated = 0;
+        try {
+            List<Case> serialCases = TestCaseRunner.loadCases(CASE_FILE);
+            List<Case> parallelCases = TestCaseRunner.loadCases(CASE_FILE);
+            for (int i = 0; i < serialCases.size(); i++) {
+                String name = serialCases.get(i).getName();
+                StdAdjudicator serial = TestCaseRunner.adjudicate(serialCases.get(i), null);
+                StdAdjudicator parallel = TestCaseRunner.adjudicate(parallelCases.get(i), pool);
+                AdjudicationMetrics sm = serial.getMetrics();
+                AdjudicationMetrics pm = parallel.getMetrics();
+                checkConsistent(serial, name);
+                checkConsistent(parallel, name);
+
+                // parallel evaluation makes the same passes over the same orders
+                assertEquals(sm.getOrderCount(), pm.getOrderCount(), name);
+                assertEquals(sm.getIterations(), pm.getIterations(), name);
+                assertEquals(sm.getOrderEvaluations(), pm.getOrderEvaluations(), name);
+                assertEquals(sm.getParadoxCount(), pm.getParadoxCount(), name);
+                assertEquals(sm.getCircularBreaks(), pm.getCircularBreaks(), name);
+                assertEquals(sm.getSzykmanApplications(), pm.getSzykmanApplications(), name);
+                assertEquals(0, sm.getComponentCount(), name);
+                if (sm.getPhase().getPhaseType() == Phase.PhaseType.MOVEMENT && sm.getIterations() > 0) {
+                    // only movement phases are evaluated in parallel
+                    assertTrue(pm.getComponentCount() > 0, name);
+                    nEvaluated++;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(nEvaluated > 0, "no cases were evaluated");
+    }
+
+    @Test
+    @DisplayName("Listeners are sent the metrics of each adjudication")
+    public void listeners() {
+        List<AdjudicationMetrics> received = new ArrayList<>();
+        List<AdjudicationMetrics> receivedAfterFailure = new ArrayList<>();
+        AdjudicationMetricsListener listener = received::add;
+        AdjudicationMetricsListener failing = metrics -> {
+            throw new IllegalStateException("listener failure");
+        };
+        AdjudicationMetricsListener other = receivedAfterFailure::add;
+
+        List<Case> cases = TestCaseRunner.loadCases(CASE_FILE);
+        AdjudicationMetricsRegistry.addListener(listener);
+        AdjudicationMetricsRegistry.addListener(listener);
+        AdjudicationMetricsRegistry.addListener(failing);
+        AdjudicationMetricsRegistry.addListener(other);
+        try {
+            assertTrue(AdjudicationMetricsRegistry.hasListeners());
+            for (int i = 0; i < 3; i++) {
+                StdAdjudicator stdJudge = TestCaseRunner.adjudicate(cases.get(i), null);
+                assertEquals(i + 1, received.size());
+                assertSame(stdJudge.getMetrics(), received.get(i));
+                assertSame(stdJudge.getMetrics(), receivedAfterFailure.get(i));
+            }
+        } finally {
+            AdjudicationMetricsRegistry.removeListener(listener);
+            AdjudicationMetricsRegistry.removeListener(failing);
+            AdjudicationMetricsRegistry.removeListener(other);
+        }
+
+        TestCaseRunner.adjudicate(cases.get(3), null);
+        assertEquals(3, received.size());
+        assertEquals(3, receivedAfterFailure.size());
+    }
+
+    @Test
+    @DisplayName("Merging adds stage times and counts")
+    public void merge() {
+        Phase phase = Phase.getPhase(Phase.SeasonType.SPRING, 1901, Phase.PhaseType.MOVEMENT);
+        AdjudicationMetrics metrics = new AdjudicationMetrics(phase);
+        metrics.addStageNanos(AdjudicationMetrics.Stage.EVALUATION, 100L);
+        metrics.addIteration(5);
+        metrics.setTotalNanos(1000L);
+        metrics.setOrderCount(5);
+
+        AdjudicationMetrics other = new AdjudicationMetrics(phase);
+        other.addStageNanos(AdjudicationMetrics.Stage.EVALUATION, 20L);
+        other.addStageNanos(AdjudicationMetrics.Stage.PARADOX_BREAKING, 7L);
+        other.addIteration(3);
+        other.addIteration(2);
+        other.incrementSzykmanApplications();
+        other.addCircularBreaks(2);
+        other.incrementParadoxCount();
+        other.incrementConvoyPathSearches();
+        other.setUnresolvedParadox(true);
+        other.setTotalNanos(50L);
+        other.setOrderCount(3);
+
+        metrics.merge(other);
+        assertEquals(120L, metrics.getStageNanos(AdjudicationMetrics.Stage.EVALUATION));
+        assertEquals(7L, metrics.getStageNanos(AdjudicationMetrics.Stage.PARADOX_BREAKING));
+        assertEquals(0L, metrics.getStageNanos(AdjudicationMetrics.Stage.VALIDATE_ORDERS));
+        assertEquals(3, metrics.getIterations());
+        assertEquals(10, metrics.getOrderEvaluations());
+        assertEquals(1, metrics.getSzykmanApplications());
+        assertEquals(2, metrics.getCircularBreaks());
+        assertEquals(1, metrics.getParadoxCount());
+        assertEquals(1, metrics.getConvoyPathSearches());
+        assertTrue(metrics.isUnresolvedParadox());
+        assertEquals(1000L, metrics.getTotalNanos());
+        assertEquals(5, metrics.getOrderCount());
+    }
+
+    /**
+     * Stage times are within the total time, and are recorded for the
+     * stages of the adjudicated phase.
+     */
+    private static void checkConsistent(StdAdjudicator stdJudge, String name) {
+        AdjudicationMetrics metrics = stdJudge.getMetrics();
+        assertSame(stdJudge.getTurnState().getPhase(), metrics.getPhase(), name);
+        assertEquals(stdJudge.isUnresolvedParadox(), metrics.isUnresolvedParadox(), name);
+        assertTrue(metrics.getTotalNanos() > 0L, name);
+
+        long stageTotal = 0L;
+        for (AdjudicationMetrics.Stage stage : AdjudicationMetrics.Stage.values()) {
+            assertTrue(metrics.getStageNanos(stage) >= 0L, name + " " + stage);
+            stageTotal += metrics.getStageNanos(stage);
+        }
+        assertTrue(stageTotal <= metrics.getTotalNanos(), name + ": stage times exceed the total: " + metrics);
+
+        if (metrics.getPhase().getPhaseType() == Phase.PhaseType.MOVEMENT && metrics.getOrderCount() > 0) {
+            assertTrue(metrics.getStageNanos(AdjudicationMetrics.Stage.VALIDATE_ORDERS) > 0L, name);
+            assertTrue(metrics.getStageNanos(AdjudicationMetrics.Stage.CREATE_NEXT_POSITION) > 0L, name);
+        }
+        // each iteration evaluates every order
+        assertEquals(metrics.getIterations() * metrics.getOrderCount(), metrics.getOrderEvaluations(), name);
+        if (metrics.getIterations() > 0) {
+            assertTrue(metrics.getStageNanos(AdjudicationMetrics.Stage.EVALUATION) > 0L, name);
+        } else {
+            assertEquals(0, metrics.getOrderEvaluations(), name);
+            assertEquals(0, metrics.getParadoxCount(), name);
+        }
+        assertTrue(metrics.getParadoxCount() >= (metrics.isUnresolvedParadox() ? 1 : 0), name);
+    }
+}
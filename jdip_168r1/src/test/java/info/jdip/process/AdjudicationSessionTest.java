@@ -0,0 +1,140 @@
+package info.jdip.process;
+
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.order.OrderFactory;
+import info.jdip.order.Orderable;
+import info.jdip.world.Phase;
+import info.jdip.world.Province;
+import info.jdip.world.TurnState;
+import info.jdip.world.Unit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deletes, re-adds and replaces each order of every movement-phase case,
+ * resolving after each change, and checks that the incrementally resolved
+ * session matches a new session with the same orders.
+ */
+public class AdjudicationSessionTest {
+
+    @Test
+    @DisplayName("Incremental resolution matches a new session")
+    public void incrementalMatchesNewSession() {
+        int nChecked = 0;
+        boolean isPartiallyResolved = false;
+
+        for (String caseFile : TestCaseRunner.CASE_FILES) {
+            for (Case testCase : TestCaseRunner.loadCases(caseFile)) {
+                TurnState turnState = testCase.getCurrentTurnState();
+                if (turnState.getPhase().getPhaseType() != Phase.PhaseType.MOVEMENT) {
+                    continue;
+                }
+
+                testCase.getWorld().setTurnState(turnState);
+                testCase.getWorld().setTurnState(testCase.getPreviousTurnState());
+
+                // enter the orders again, so they are entered in a known sequence
+                AdjudicationSession session = new AdjudicationSession(OrderFactory.getDefault(), turnState);
+                List<Orderable> entered = getOrders(session);
+                for (Orderable order : entered) {
+                    session.deleteOrder(order);
+                    session.addOrder(order);
+                }
+                session.resolve();
+
+                final String name = caseFile + " " + testCase.getName();
+                for (Orderable order : new ArrayList<>(entered)) {
+                    final Province province = order.getSource().getProvince();
+
+                    // delete; the unit will hold
+                    assertTrue(session.deleteOrder(order), name);
+                    assertNull(session.getOrder(province), name);
+                    entered.removeIf(o -> o == order);
+                    assertEquals(describe(createSession(turnState, entered)), describe(session),
+                            name + ": delete " + order);
+                    isPartiallyResolved |= (session.getLastResolvedCount() < turnState.getPosition().getUnitCount());
+
+                    // re-add; it is now the last order entered
+                    assertNull(session.addOrder(order), name);
+                    entered.add(order);
+                    assertEquals(describe(createSession(turnState, entered)), describe(session),
+                            name + ": add " + order);
+
+                    // replace with an explicit hold, and back again
+                    Unit unit = turnState.getPosition().getUnit(province);
+                    Orderable hold = OrderFactory.getDefault().createHold(unit.getPower(),
+                            province.getLocation(unit.getCoast()), unit.getType());
+                    session.replaceOrder(order, hold);
+                    assertSame(hold, session.getOrder(province), name);
+                    entered.removeIf(o -> o == order);
+                    entered.add(hold);
+                    assertEquals(describe(createSession(turnState, entered)), describe(session),
+                            name + ": replace " + order);
+
+                    session.replaceOrder(hold, order);
+                    entered.removeIf(o -> o == hold);
+                    entered.add(order);
+                    assertEquals(describe(createSession(turnState, entered)), describe(session),
+                            name + ": restore " + order);
+                    nChecked += 4;
+                }
+            }
+        }
+
+        assertTrue(nChecked > 1000, "too few changes checked: " + nChecked);
+        assertTrue(isPartiallyResolved, "changes always resolved all orders");
+    }
+
+    /**
+     * The orders of the session, in province order
+     */
+    private static List<Orderable> getOrders(AdjudicationSession session) {
+        List<Orderable> orders = new ArrayList<>();
+        for (Province province : session.getTurnState().getPosition().getUnitProvinces()) {
+            if (session.getOrder(province) != null) {
+                orders.add(session.getOrder(province));
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * A new session, with the given orders entered in the given sequence.
+     */
+    private static AdjudicationSession createSession(TurnState turnState, List<Orderable> entered) {
+        AdjudicationSession session = new AdjudicationSession(OrderFactory.getDefault(), turnState);
+        for (Orderable order : getOrders(session)) {
+            session.deleteOrder(order);
+        }
+        for (Orderable order : entered) {
+            session.addOrder(order);
+        }
+        return session;
+    }
+    /**
+     * The outcome of each unit's order, and all results.
+     */
+    private static String describe(AdjudicationSession session) {
+        StringBuilder sb = new StringBuilder(1024);
+        for (Province province : session.getTurnState().getPosition().getUnitProvinces()) {
+            OrderState os = session.getOrderState(province);
+            sb.append(os.getOrder()).append(": ").append(os.getEvalState())
+                    .append(", dislodged: ").append(os.getDislodgedState()).append('\n');
+        }
+        sb.append("paradox: ").append(session.isUnresolvedParadox()).append('\n');
+        sb.append("components: ").append(session.getComponentCount()).append('\n');
+        for (String line : TestCaseRunner.getResultText(session.getResults())) {
+            sb.append(line).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package info.jdip.process;
+
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.misc.Utils;
+import info.jdip.order.OrderParser;
+import info.jdip.world.Path;
+import info.jdip.world.Position;
+import info.jdip.world.Power;
+import info.jdip.world.Province;
+import info.jdip.world.RuleOptions;
+import info.jdip.world.TurnState;
+import info.jdip.world.World;
+import info.jdip.world.WorldFactory;
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.Variant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Civil disorder disbands: when a power does not order enough disbands, the
+ * units farthest from its home supply centers are disbanded.
+ * <p>
+ * In DATC_Standard, Switzerland is not adjacent to any other province, so a
+ * home supply center there cannot be reached from any unit.
+ */
+public class CivilDisorderTest {
+    private static final List<String> FRENCH_UNITS = Arrays.asList(
+            "France: A par", "France: F mao", "France: A mun", "France: A bur");
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+    }
+
+    @Test
+    @DisplayName("The unit farthest from a home supply center is disbanded")
+    public void disbandFarthest() throws Exception {
+        Case testCase = createCase();
+        TurnState next = TestCaseRunner.adjudicate(testCase, null).getNextTurnState();
+
+        Position position = next.getPosition();
+        assertFalse(position.hasUnit(province(testCase, "mun")));
+        assertTrue(position.hasUnit(province(testCase, "par")));
+        assertTrue(position.hasUnit(province(testCase, "mao")));
+        assertTrue(position.hasUnit(province(testCase, "bur")));
+    }
+
+    @Test
+    @DisplayName("An unreachable home supply center prevents civil disorder disbands")
+    public void unreachableHomeSupplyCenter() throws Exception {
+        Case testCase = createCase();
+        Province swi = province(testCase, "swi");
+        Power france = testCase.getWorld().getMap().getPower("France");
+        assertEquals(-1, new Path(testCase.getCurrentTurnState().getPosition())
+                .getMinDistance(province(testCase, "par"), swi));
+        testCase.getCurrentTurnState().getPosition().setSupplyCenterHomePower(swi, france);
+
+        StdAdjudicator adjudicator = TestCaseRunner.adjudicate(testCase, null);
+
+        // every unit is at distance -1, so none is chosen
+        Position position = adjudicator.getNextTurnState().getPosition();
+        for (String name : new String[]{"par", "mao", "mun", "bur"}) {
+            assertTrue(position.hasUnit(province(testCase, name)), name);
+        }
+        assertTrue(TestCaseRunner.getResultText(adjudicator.getTurnState())
+                .contains("France: " + Utils.getLocalString("STDADJ_ADJ_NO_MORE_DISBANDS")));
+    }
+
+    /**
+     * France owns its 3 home supply centers, has 4 units and orders nothing.
+     */
+    private static Case createCase() throws Exception {
+        Variant variant = VariantManager.getVariant("DATC_Standard", VariantManager.VERSION_NEWEST);
+        World world = WorldFactory.getInstance().createWorld(variant);
+        TurnState templateTurnState = world.getLastTurnState();
+        world.removeTurnState(templateTurnState);
+        world.setRuleOptions(RuleOptions.createFromVariant(variant));
+
+        List<String> owners = Arrays.asList("France: A bre", "France: A mar", "France: A par");
+        return new Case("civil disorder", "Fall 1901, Adjustment", new ArrayList<>(FRENCH_UNITS),
+                new ArrayList<>(), new ArrayList<>(FRENCH_UNITS), owners, Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList(), templateTurnState, world,
+                OrderParser.getInstance());
+    }
+
+    private static Province province(Case testCase, String name) {
+        return testCase.getWorld().getMap().getProvince(name);
+    }
+}
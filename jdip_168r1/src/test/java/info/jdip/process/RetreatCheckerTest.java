@@ -0,0 +1,76 @@
+package info.jdip.process;
+
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.order.result.Result;
+import info.jdip.world.Location;
+import info.jdip.world.Phase;
+import info.jdip.world.Position;
+import info.jdip.world.Province;
+import info.jdip.world.TurnState;
+import info.jdip.world.Unit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that retreat tables are kept per TurnState, and that checkers using
+ * a TurnState's table agree with checkers created from a copy of its results.
+ */
+public class RetreatCheckerTest {
+
+    @Test
+    @DisplayName("Retreat tables are cached per TurnState")
+    public void tablePerTurnState() {
+        int nDislodged = 0;
+        TurnState other = null;
+        for (String caseFile : TestCaseRunner.CASE_FILES) {
+            for (Case testCase : TestCaseRunner.loadCases(caseFile)) {
+                StdAdjudicator adjudicator = TestCaseRunner.adjudicate(testCase, null);
+                TurnState ts = adjudicator.getTurnState();
+                TurnState next = adjudicator.getNextTurnState();
+                if (next == null || next.getPhase().getPhaseType() != Phase.PhaseType.RETREAT) {
+                    continue;
+                }
+                next.getWorld().setTurnState(next);
+                assertSame(ts, next.getWorld().getPreviousTurnState(next), testCase.getName());
+
+                RetreatChecker.RetreatTable table = ts.getRetreatTable();
+                assertSame(table, ts.getRetreatTable(), testCase.getName());
+                if (other != null) {
+                    assertNotSame(table, other.getRetreatTable(), testCase.getName());
+                    assertSame(other.getRetreatTable(), other.getRetreatTable(), testCase.getName());
+                }
+                other = ts;
+
+                RetreatChecker cached = new RetreatChecker(next);
+                RetreatChecker fresh = new RetreatChecker(next, new ArrayList<>(ts.getResultList()));
+                Position position = next.getPosition();
+                for (Province province : position.getDislodgedUnitProvinces()) {
+                    Unit unit = position.getDislodgedUnit(province);
+                    Location from = new Location(province, unit.getCoast());
+                    assertEquals(Arrays.asList(fresh.getValidLocations(from)),
+                            Arrays.asList(cached.getValidLocations(from)), testCase.getName());
+                    assertEquals(fresh.hasRetreats(from), cached.hasRetreats(from), testCase.getName());
+                    nDislodged++;
+                }
+
+                // changing the result list replaces the table
+                ts.getResultList().add(new Result("test"));
+                assertNotSame(table, ts.getRetreatTable(), testCase.getName());
+                ts.setResultList(new ArrayList<>(ts.getResultList()));
+                RetreatChecker.RetreatTable replaced = ts.getRetreatTable();
+                assertTrue(replaced.isFor(ts.getResultList()), testCase.getName());
+                assertSame(replaced, ts.getRetreatTable(), testCase.getName());
+            }
+        }
+        assertTrue(nDislodged > 20, "dislodged units checked: " + nDislodged);
+    }
+}
@@ -0,0 +1,178 @@
+package info.jdip.world;
+
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.Variant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the AdjacencyTable of each bundled variant, and the Province
+ * adjacency methods which use it, against the Province.Adjacency data
+ * from which it is compiled.
+ */
+public class AdjacencyTableTest {
+    private static final Unit.Type[] UNIT_TYPES = {Unit.Type.ARMY, Unit.Type.FLEET, Unit.Type.WING,
+            Unit.Type.UNDEFINED};
+
+    private static List<Map> maps;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+        maps = new ArrayList<>();
+        for (Variant variant : VariantManager.getVariants()) {
+            maps.add(WorldFactory.getInstance().createWorld(variant).getMap());
+        }
+        assertTrue(maps.size() > 1);
+    }
+
+    @Test
+    @DisplayName("Adjacent locations and provinces match the adjacency data")
+    public void adjacency() {
+        for (Map map : maps) {
+            AdjacencyTable table = map.getAdjacencyTable();
+            Province[] provinces = map.getProvinces();
+            for (Province src : provinces) {
+                for (int c = 0; ; c++) {
+                    Coast coast = Coast.getCoast(c);
+                    if (coast == null) {
+                        break;
+                    }
+                    String name = src.getShortName() + " " + coast;
+                    Location[] expected = src.getAdjacency().getLocations(coast);
+                    Location[] actual = table.getAdjacentLocations(src, coast);
+                    assertArrayEquals(expected, actual, name);
+                    assertArrayEquals(expected, src.getAdjacentLocations(coast), name);
+                    for (Location location : actual) {
+                        assertSame(location.getProvince().getLocation(location.getCoast()), location, name);
+                    }
+
+                    List<Province> adjacent = new ArrayList<>();
+                    for (Province dest : provinces) {
+                        boolean isAdjacent = false;
+                        for (Location location : expected) {
+                            isAdjacent |= location.getProvince().equals(dest);
+                        }
+                        assertEquals(isAdjacent, table.isAdjacent(src, coast, dest), name + " " + dest);
+                        assertEquals(isAdjacent, src.isAdjacent(coast, dest), name + " " + dest);
+                        if (isAdjacent) {
+                            adjacent.add(dest);
+                        }
+
+                        for (int dc = 0; Coast.getCoast(dc) != null; dc++) {
+                            Location dest2 = new Location(dest, Coast.getCoast(dc));
+                            boolean isLocAdjacent = Arrays.asList(expected).contains(dest2);
+                            assertEquals(isLocAdjacent, table.isAdjacent(src, coast, dest2), name + " " + dest2);
+                            assertEquals(isLocAdjacent, src.isAdjacent(coast, dest2), name + " " + dest2);
+                        }
+                    }
+                    assertArrayEquals(adjacent.toArray(), table.getAdjacentProvinces(src, coast).toArray(), name);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Touching and per unit type adjacency match the adjacency data")
+    public void unitTypes() {
+        for (Map map : maps) {
+            AdjacencyTable table = map.getAdjacencyTable();
+            Province[] provinces = map.getProvinces();
+            for (Province src : provinces) {
+                for (Province dest : provinces) {
+                    boolean touching = false;
+                    for (Location location : src.getAdjacency().getLocations(Coast.TOUCHING)) {
+                        touching |= location.isProvinceEqual(dest);
+                    }
+                    assertEquals(touching, table.isTouching(src, dest), src + " " + dest);
+                    assertEquals(touching, src.isTouching(dest), src + " " + dest);
+                }
+
+                for (Unit.Type unitType : UNIT_TYPES) {
+                    List<Province> expected = new ArrayList<>();
+                    for (Province dest : provinces) {
+                        if (isAdjacent(src, unitType, dest)) {
+                            expected.add(dest);
+                        }
+                    }
+                    assertArrayEquals(expected.toArray(), table.getAdjacentProvinces(src, unitType).toArray(),
+                            src + " " + unitType);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Coast queries match the adjacency data")
+    public void coastQueries() {
+        for (Map map : maps) {
+            for (Province province : map.getProvinces()) {
+                Province.Adjacency adjacency = province.getAdjacency();
+                String name = province.getShortName();
+
+                boolean hasLand = hasLocations(adjacency, Coast.LAND);
+                boolean hasSea = false;
+                for (Coast coast : Coast.ANY_SEA) {
+                    hasSea |= hasLocations(adjacency, coast);
+                }
+                List<Coast> directional = new ArrayList<>();
+                for (Coast coast : Coast.ANY_DIRECTIONAL) {
+                    if (hasLocations(adjacency, coast)) {
+                        directional.add(coast);
+                    }
+                }
+                boolean multiCoastal = !hasLocations(adjacency, Coast.SEA) && !directional.isEmpty();
+
+                assertEquals(hasLand, province.isLand(), name);
+                assertEquals(!hasSea, province.isLandLocked(), name);
+                assertEquals(hasLand && hasSea, province.isCoastal(), name);
+                assertEquals(!hasLand && directional.isEmpty(), province.isSea(), name);
+                assertEquals(multiCoastal, province.isMultiCoastal(), name);
+                assertArrayEquals(multiCoastal ? directional.toArray() : new Coast[0],
+                        province.getValidDirectionalCoasts(), name);
+                for (Coast coast : Coast.ALL_COASTS) {
+                    assertEquals(hasLocations(adjacency, coast), province.isCoastValid(coast), name + " " + coast);
+                }
+            }
+        }
+    }
+
+    private static boolean hasLocations(Province.Adjacency adjacency, Coast coast) {
+        return adjacency.getLocations(coast) != Location.EMPTY;
+    }
+
+    /**
+     * Adjacency by unit type: armies by land, fleets by any sea coast,
+     * and other unit types by touching.
+     */
+    private static boolean isAdjacent(Province src, Unit.Type unitType, Province dest) {
+        Coast[] coasts;
+        if (unitType == Unit.Type.ARMY) {
+            coasts = new Coast[]{Coast.LAND};
+        } else if (unitType == Unit.Type.FLEET) {
+            coasts = Coast.ANY_SEA;
+        } else {
+            coasts = new Coast[]{Coast.TOUCHING};
+        }
+
+        for (Coast coast : coasts) {
+            for (Location location : src.getAdjacency().getLocations(coast)) {
+                if (location.getProvince().equals(dest)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,172 @@
+package info.jdip.world;
+
+import info.jdip.order.Build;
+import info.jdip.order.Convoy;
+import info.jdip.order.Disband;
+import info.jdip.order.Hold;
+import info.jdip.order.Move;
+import info.jdip.order.Remove;
+import info.jdip.order.Retreat;
+import info.jdip.order.Support;
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.Variant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the BorderTable of each bundled variant with Borders against the
+ * per-Border checks it replaces, for every 'from' Location, unit type,
+ * phase, and order class.
+ */
+public class BorderTableTest {
+    private static final Unit.Type[] UNIT_TYPES = {Unit.Type.ARMY, Unit.Type.FLEET, Unit.Type.WING,
+            Unit.Type.UNDEFINED};
+    private static final int[] YEARS = {1900, 1901, 1902, 1903, 1910, 1950, 2000};
+    private static final Class<?>[] ORDER_CLASSES = {Move.class, Support.class, Convoy.class, Hold.class,
+            Retreat.class, Build.class, Remove.class, Disband.class, Object.class};
+
+    private static List<Map> maps;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+        maps = new ArrayList<>();
+        for (Variant variant : VariantManager.getVariants()) {
+            Map map = WorldFactory.getInstance().createWorld(variant).getMap();
+            for (Province province : map.getProvinces()) {
+                if (province.getBorders() != null && province.getBorders().length > 0) {
+                    maps.add(map);
+                    break;
+                }
+            }
+        }
+        assertTrue(!maps.isEmpty(), "no variants with borders");
+    }
+
+    @Test
+    @DisplayName("Transit checks match the per-Border checks")
+    public void transit() {
+        List<Phase> phases = new ArrayList<>();
+        for (int year : YEARS) {
+            for (Phase.SeasonType season : Phase.SeasonType.ALL) {
+                for (Phase.PhaseType phaseType : Phase.PhaseType.ALL) {
+                    if (Phase.isValid(season, phaseType)) {
+                        phases.add(Phase.getPhase(season, year, phaseType));
+                    }
+                }
+            }
+        }
+
+        int nProhibited = 0;
+        for (Map map : maps) {
+            BorderTable table = map.getBorderTable();
+            List<Location> fromLocations = getFromLocations(map);
+            Class<?>[] orderClasses = getOrderClasses(map);
+            for (Province to : map.getProvinces()) {
+                Border[] borders = to.getBorders();
+                if (borders == null) {
+                    continue;
+                }
+
+                for (Location from : fromLocations) {
+                    for (Unit.Type unitType : UNIT_TYPES) {
+                        for (Phase phase : phases) {
+                            for (Class<?> orderClass : orderClasses) {
+                                Border expected = null;
+                                for (Border border : borders) {
+                                    if (!border.canTransit(from, unitType, phase, orderClass)) {
+                                        expected = border;
+                                        break;
+                                    }
+                                }
+
+                                String name = to + " from " + from + " " + unitType + " " + phase + " " + orderClass;
+                                assertSame(expected, table.getTransit(to, from, unitType, phase, orderClass), name);
+                                assertSame(expected, to.getTransit(from, unitType, phase, orderClass), name);
+                                assertEquals(expected == null, to.canTransit(from, unitType, phase, orderClass), name);
+                                nProhibited += (expected == null) ? 0 : 1;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(nProhibited > 0, "no transit was prohibited");
+    }
+
+    @Test
+    @DisplayName("Base move modifiers match the per-Border modifiers")
+    public void baseMoveModifier() {
+        for (Map map : maps) {
+            BorderTable table = map.getBorderTable();
+            List<Location> fromLocations = getFromLocations(map);
+            for (Province to : map.getProvinces()) {
+                Border[] borders = to.getBorders();
+                for (Location from : fromLocations) {
+                    int expected = 0;
+                    if (borders != null) {
+                        for (Border border : borders) {
+                            expected = border.getBaseMoveModifier(from);
+                            if (expected != 0) {
+                                break;
+                            }
+                        }
+                    }
+                    assertEquals(expected, table.getBaseMoveModifier(to, from), to + " from " + from);
+                    assertEquals(expected, to.getBaseMoveModifier(from), to + " from " + from);
+                }
+            }
+        }
+    }
+
+    /**
+     * Every Location of the Map, with every Coast, and Locations of
+     * Provinces of another Map.
+     */
+    private static List<Location> getFromLocations(Map map) {
+        List<Location> locations = new ArrayList<>();
+        for (Province province : map.getProvinces()) {
+            for (int c = 0; Coast.getCoast(c) != null; c++) {
+                locations.add(new Location(province, Coast.getCoast(c)));
+            }
+        }
+
+        Map other = maps.get((maps.indexOf(map) + 1) % maps.size());
+        if (other != map) {
+            for (Province province : Arrays.copyOf(other.getProvinces(), 5)) {
+                locations.add(new Location(province, Coast.LAND));
+                locations.add(new Location(province, Coast.SEA));
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * The standard order classes, and any others named by Borders of the Map.
+     */
+    private static Class<?>[] getOrderClasses(Map map) {
+        Set<Class<?>> classes = new LinkedHashSet<>(Arrays.asList(ORDER_CLASSES));
+        for (Province province : map.getProvinces()) {
+            if (province.getBorders() != null) {
+                for (Border border : province.getBorders()) {
+                    if (border.getOrderClasses() != null) {
+                        classes.addAll(Arrays.asList(border.getOrderClasses()));
+                    }
+                }
+            }
+        }
+        return classes.toArray(new Class<?>[0]);
+    }
+}
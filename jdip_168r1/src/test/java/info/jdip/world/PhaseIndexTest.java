@@ -0,0 +1,245 @@
+package info.jdip.world;
+
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.Variant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks World navigation and the PhaseIndex against scans of the
+ * World's Phases (as they were done before the index), including after
+ * TurnStates are added, replaced, or removed, or have their
+ * supply-center-change flags altered.
+ */
+public class PhaseIndexTest {
+    private static Variant variant;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+        variant = VariantManager.getVariant("Standard", VariantManager.VERSION_NEWEST);
+    }
+
+    @Test
+    @DisplayName("Navigation matches scans, for dense and sparse years")
+    public void navigation() throws Exception {
+        Random random = new Random(48);
+        int[][] yearSets = {
+                {1901, 1902, 1903, 1904, 1905, 1906, 1907, 1908, 1909, 1910},
+                {-3, -2, -1, 1, 2, 3},
+                {1901, 1950, 2500, 100000},
+                {1901},
+        };
+
+        for (int[] years : yearSets) {
+            for (int n = 0; n < 20; n++) {
+                World world = createWorld();
+                for (int year : years) {
+                    for (Phase phase : getPhases(year)) {
+                        if (random.nextInt(3) > 0) {
+                            TurnState ts = new TurnState(phase);
+                            ts.setSCOwnerChanged(random.nextInt(3) == 0);
+                            world.setTurnState(ts);
+                        }
+                    }
+                }
+                check(world, years);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The index is replaced when TurnStates change")
+    public void invalidation() throws Exception {
+        Random random = new Random(49);
+        int[] years = {1901, 1902, 1903, 1904, 1905, 1906};
+        List<Phase> phases = new ArrayList<>();
+        for (int year : years) {
+            phases.addAll(getPhases(year));
+        }
+
+        World world = createWorld();
+        for (int i = 0; i < 500; i++) {
+            PhaseIndex index = world.getPhaseIndex();
+            assertSame(index, world.getPhaseIndex());
+
+            Phase phase = phases.get(random.nextInt(phases.size()));
+            TurnState existing = world.getTurnState(phase);
+            switch (random.nextInt(5)) {
+                case 0:
+                    // add or replace
+                    TurnState ts = new TurnState(phase);
+                    ts.setSCOwnerChanged(random.nextBoolean());
+                    world.setTurnState(ts);
+                    assertNotSame(index, world.getPhaseIndex());
+                    assertSame(ts, world.getPhaseIndex().getTurnState(phase));
+                    break;
+                case 1:
+                    if (existing != null) {
+                        world.removeTurnState(existing);
+                        assertNotSame(index, world.getPhaseIndex());
+                        assertNull(world.getPhaseIndex().getTurnState(phase));
+                    }
+                    break;
+                case 2:
+                case 3:
+                    if (existing != null) {
+                        boolean changed = existing.getSCOwnerChanged();
+                        existing.setSCOwnerChanged(!changed);
+                        PhaseIndex toggled = world.getPhaseIndex();
+                        assertNotSame(index, toggled);
+
+                        // setting the same value keeps the index
+                        existing.setSCOwnerChanged(!changed);
+                        assertSame(toggled, world.getPhaseIndex());
+                        if (random.nextBoolean()) {
+                            existing.setSCOwnerChanged(changed);
+                            assertNotSame(toggled, world.getPhaseIndex());
+                        }
+                    }
+                    break;
+                default:
+                    if (random.nextInt(20) == 0) {
+                        world.removeAllTurnStates();
+                        assertNotSame(index, world.getPhaseIndex());
+                        assertEquals(0, world.getPhaseIndex().size());
+                    }
+                    break;
+            }
+            check(world, years);
+        }
+    }
+
+    /**
+     * Compares navigation and SC change counts with scans of the World.
+     */
+    private static void check(World world, int[] years) {
+        PhaseIndex index = world.getPhaseIndex();
+        List<Phase> present = new ArrayList<>(world.getPhaseSet());
+        assertEquals(present.size(), index.size());
+        for (int i = 0; i < present.size(); i++) {
+            assertSame(world.getTurnState(present.get(i)), index.get(i));
+            assertEquals(i, index.indexOf(present.get(i)));
+        }
+
+        // queried Phases include those before, between and after the World's Phases
+        List<Phase> queries = new ArrayList<>();
+        for (int year : years) {
+            queries.addAll(getPhases(year));
+        }
+        queries.addAll(getPhases(years[0] - 1));
+        queries.addAll(getPhases(years[years.length - 1] + 1));
+        queries.addAll(getPhases(years[years.length - 1] + 1000));
+
+        for (Phase phase : queries) {
+            TurnState query = new TurnState(phase);
+            String name = phase.toString();
+            assertSame(world.getTurnState(phase), index.getTurnState(phase), name);
+            assertEquals(present.indexOf(phase), index.indexOf(phase), name);
+            assertSame(scanNext(world, phase), world.getNextTurnState(query), name);
+            assertSame(scanNext(world, phase), index.getNext(phase), name);
+            assertSame(scanPrevious(world, phase), world.getPreviousTurnState(query), name);
+            assertSame(scanPrevious(world, phase), index.getPrevious(phase), name);
+        }
+
+        // year ranges start and end at, and next to, the World's years
+        List<Integer> bounds = new ArrayList<>();
+        for (int year : years) {
+            for (int y = year - 2; y <= year + 2; y++) {
+                if (!bounds.contains(y)) {
+                    bounds.add(y);
+                }
+            }
+        }
+        for (int from : bounds) {
+            assertEquals(scanSCChanged(world, from), index.getSCOwnerChanged(from), String.valueOf(from));
+            for (int to : bounds) {
+                if (to >= from - 1) {
+                    assertEquals(scanSCChangeYearCount(world, years, from, to),
+                            index.getSCChangeYearCount(from, to), from + "-" + to);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the years from first to last (inclusive) with SC changes; only
+     * the given years can have TurnStates.
+     */
+    private static int scanSCChangeYearCount(World world, int[] years, int first, int last) {
+        int count = 0;
+        for (int year : years) {
+            if (year >= first && year <= last && scanSCChanged(world, year)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static TurnState scanNext(World world, Phase current) {
+        Iterator<Phase> iter = world.getPhaseSet().iterator();
+        while (iter.hasNext()) {
+            if (current.compareTo(iter.next()) == 0) {
+                return (iter.hasNext()) ? world.getTurnState(iter.next()) : null;
+            }
+        }
+        return null;
+    }
+
+    private static TurnState scanPrevious(World world, Phase current) {
+        Phase previous = null;
+        for (Phase phase : world.getPhaseSet()) {
+            if (phase.compareTo(current) != 0) {
+                previous = phase;
+            } else {
+                break;
+            }
+        }
+        return (previous == null) ? null : world.getTurnState(previous);
+    }
+
+    /**
+     * As VictoryConditions checked a year: by the fall retreat and adjustment TurnStates.
+     */
+    private static boolean scanSCChanged(World world, int year) {
+        if (year == 0) {
+            return false;
+        }
+        TurnState retreat = world.getTurnState(Phase.getPhase(Phase.SeasonType.FALL, year, Phase.PhaseType.RETREAT));
+        TurnState adjustment = world.getTurnState(Phase.getPhase(Phase.SeasonType.FALL, year, Phase.PhaseType.ADJUSTMENT));
+        return (retreat != null && retreat.getSCOwnerChanged())
+                || (adjustment != null && adjustment.getSCOwnerChanged());
+    }
+
+    private static List<Phase> getPhases(int year) {
+        List<Phase> phases = new ArrayList<>();
+        if (year != 0) {
+            Phase phase = Phase.getPhase(Phase.SeasonType.SPRING, year, Phase.PhaseType.MOVEMENT);
+            while (phase.getYear() == year) {
+                phases.add(phase);
+                phase = phase.getNext();
+            }
+        }
+        return phases;
+    }
+
+    private static World createWorld() throws Exception {
+        World world = WorldFactory.getInstance().createWorld(variant);
+        world.removeAllTurnStates();
+        assertTrue(world.getPhaseSet().isEmpty());
+        return world;
+    }
+}
@@ -0,0 +1,312 @@
+package info.jdip.world;
+
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.process.Adjustment;
+import info.jdip.process.StdAdjudicator;
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.Variant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the per-Power aggregates of Position, and the Adjustment counts
+ * derived from them, against scans of every Province (as they were
+ * computed before the aggregates were kept).
+ */
+public class PositionAggregatesTest {
+    private static final RuleOptions.OptionValue[] BUILD_OPTIONS = {RuleOptions.VALUE_BUILDS_HOME_ONLY,
+            RuleOptions.VALUE_BUILDS_ANY_OWNED, RuleOptions.VALUE_BUILDS_ANY_IF_HOME_OWNED};
+
+    private static World world;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+        Variant variant = VariantManager.getVariant("Standard", VariantManager.VERSION_NEWEST);
+        world = WorldFactory.getInstance().createWorld(variant);
+    }
+
+    @Test
+    @DisplayName("Aggregates match scans of adjudicated positions")
+    public void adjudicatedPositions() {
+        int nChecked = 0;
+        for (String caseFile : TestCaseRunner.CASE_FILES) {
+            for (Case testCase : TestCaseRunner.loadCases(caseFile)) {
+                StdAdjudicator adjudicator = TestCaseRunner.adjudicate(testCase, null);
+                checkTurnState(testCase.getName(), adjudicator.getTurnState());
+                if (adjudicator.getNextTurnState() != null) {
+                    checkTurnState(testCase.getName(), adjudicator.getNextTurnState());
+                }
+                nChecked++;
+            }
+        }
+        assertTrue(nChecked > 0);
+    }
+
+    @Test
+    @DisplayName("Aggregates follow random changes and clones")
+    public void randomChanges() {
+        Random random = new Random(43);
+        Map map = world.getMap();
+        Power[] powers = map.getPowers();
+        Province[] provinces = map.getProvinces();
+
+        // changes made before the aggregates are first used (as after deserialization)
+        Position pos = world.getInitialTurnState().getPosition().copy();
+        for (int i = 0; i < 50; i++) {
+            change(random, pos, provinces, powers);
+        }
+        check("before first use", pos, powers);
+
+        // and after
+        for (int i = 0; i < 2000; i++) {
+            change(random, pos, provinces, powers);
+            switch (random.nextInt(40)) {
+                case 0:
+                    pos = pos.copy();
+                    break;
+                case 1:
+                    Position withoutUnits = pos.cloneExceptUnits();
+                    assertEquals(0, withoutUnits.getUnitCount());
+                    assertEquals(0, withoutUnits.getDislodgedUnitCount());
+                    pos = withoutUnits;
+                    break;
+                case 2:
+                    Position withoutDislodged = pos.cloneExceptDislodged();
+                    assertEquals(pos.getUnitCount(), withoutDislodged.getUnitCount());
+                    assertEquals(0, withoutDislodged.getDislodgedUnitCount());
+                    pos = withoutDislodged;
+                    break;
+                default:
+                    break;
+            }
+            check("change " + i, pos, powers);
+        }
+    }
+
+    @Test
+    @DisplayName("Adjustment counts match scans for each build option")
+    public void adjustmentInfo() {
+        Random random = new Random(45);
+        Power[] powers = world.getMap().getPowers();
+        Province[] provinces = world.getMap().getProvinces();
+        TurnState ts = new TurnState(world.getInitialTurnState().getPhase());
+        ts.setWorld(world);
+        ts.setPosition(world.getInitialTurnState().getPosition().copy());
+
+        for (int i = 0; i < 500; i++) {
+            change(random, ts.getPosition(), provinces, powers);
+            for (RuleOptions.OptionValue buildOption : BUILD_OPTIONS) {
+                RuleOptions ruleOpts = new RuleOptions();
+                ruleOpts.setOption(RuleOptions.OPTION_BUILDS, buildOption);
+                checkAdjustments("change " + i + " " + buildOption, ts, ruleOpts, powers);
+            }
+        }
+    }
+
+    private static void checkTurnState(String name, TurnState ts) {
+        Power[] powers = ts.getWorld().getMap().getPowers();
+        check(name, ts.getPosition(), powers);
+        RuleOptions ruleOpts = ts.getWorld().getRuleOptions();
+        checkAdjustments(name, ts, (ruleOpts == null) ? new RuleOptions() : ruleOpts, powers);
+    }
+
+    /**
+     * Makes a random change to the units or supply centers of the Position.
+     */
+    private static void change(Random random, Position pos, Province[] provinces, Power[] powers) {
+        Province province = provinces[random.nextInt(provinces.length)];
+        Power power = (random.nextInt(4) == 0) ? null : powers[random.nextInt(powers.length)];
+        switch (random.nextInt(4)) {
+            case 0:
+                pos.setUnit(province, (power == null) ? null : newUnit(random, power));
+                break;
+            case 1:
+                pos.setDislodgedUnit(province, (power == null) ? null : newUnit(random, power));
+                break;
+            case 2:
+                pos.setSupplyCenterOwner(province, power);
+                break;
+            default:
+                pos.setSupplyCenterHomePower(province, power);
+                break;
+        }
+    }
+
+    private static Unit newUnit(Random random, Power power) {
+        return new Unit(power, random.nextBoolean() ? Unit.Type.ARMY : Unit.Type.FLEET);
+    }
+
+    /**
+     * Compares every aggregate query of the Position with a scan.
+     */
+    private static void check(String name, Position pos, Power[] powers) {
+        Province[] provinces = pos.getProvinces();
+        List<Province> units = new ArrayList<>();
+        List<Province> dislodged = new ArrayList<>();
+        List<Province> owned = new ArrayList<>();
+        List<Province> homes = new ArrayList<>();
+        for (Province province : provinces) {
+            if (pos.getUnit(province) != null) {
+                units.add(province);
+            }
+            if (pos.getDislodgedUnit(province) != null) {
+                dislodged.add(province);
+            }
+            if (pos.getSupplyCenterOwner(province) != null) {
+                owned.add(province);
+            }
+            if (pos.getSupplyCenterHomePower(province) != null) {
+                homes.add(province);
+            }
+        }
+        assertArrayEquals(units.toArray(), pos.getUnitProvinces(), name);
+        assertArrayEquals(dislodged.toArray(), pos.getDislodgedUnitProvinces(), name);
+        assertArrayEquals(owned.toArray(), pos.getOwnedSupplyCenters(), name);
+        assertArrayEquals(homes.toArray(), pos.getHomeSupplyCenters(), name);
+        assertEquals(units.size(), pos.getUnitCount(), name);
+        assertEquals(dislodged.size(), pos.getDislodgedUnitCount(), name);
+        assertArrayEquals(units.toArray(), pos.getUnitProvinceSet().toArray(), name);
+        assertArrayEquals(owned.toArray(), pos.getOwnedSupplyCenterSet().toArray(), name);
+
+        Position eliminated = pos.copy();
+        eliminated.setEliminationStatus(powers);
+        for (Power power : powers) {
+            String powerName = name + ", " + power;
+            List<Province> powerUnits = new ArrayList<>();
+            List<Province> powerDislodged = new ArrayList<>();
+            List<Province> powerOwned = new ArrayList<>();
+            List<Province> powerHomes = new ArrayList<>();
+            int occupiedOwned = 0;
+            int ownedHomes = 0;
+            int heldHomes = 0;
+            int occupiedHeldHomes = 0;
+            for (Province province : provinces) {
+                Unit unit = pos.getUnit(province);
+                if (unit != null && unit.getPower() == power) {
+                    powerUnits.add(province);
+                }
+                unit = pos.getDislodgedUnit(province);
+                if (unit != null && unit.getPower() == power) {
+                    powerDislodged.add(province);
+                }
+                Power owner = pos.getSupplyCenterOwner(province);
+                if (owner == power) {
+                    powerOwned.add(province);
+                    occupiedOwned += pos.hasUnit(province) ? 1 : 0;
+                }
+                if (pos.getSupplyCenterHomePower(province) == power) {
+                    powerHomes.add(province);
+                    ownedHomes += (owner == power) ? 1 : 0;
+                    if (owner != null) {
+                        heldHomes++;
+                        occupiedHeldHomes += pos.hasUnit(province) ? 1 : 0;
+                    }
+                }
+            }
+
+            assertArrayEquals(powerUnits.toArray(), pos.getUnitProvinces(power), powerName);
+            assertArrayEquals(powerDislodged.toArray(), pos.getDislodgedUnitProvinces(power), powerName);
+            assertArrayEquals(powerOwned.toArray(), pos.getOwnedSupplyCenters(power), powerName);
+            assertArrayEquals(powerHomes.toArray(), pos.getHomeSupplyCenters(power), powerName);
+            assertArrayEquals(powerHomes.toArray(), pos.getHomeSupplyCenterSet(power).toArray(), powerName);
+            assertEquals(powerUnits.size(), pos.getUnitCount(power), powerName);
+            assertEquals(powerDislodged.size(), pos.getDislodgedUnitCount(power), powerName);
+            assertEquals(powerOwned.size(), pos.getOwnedSupplyCenterCount(power), powerName);
+            assertEquals(powerHomes.size(), pos.getHomeSupplyCenterCount(power), powerName);
+            assertEquals(occupiedOwned, pos.getOccupiedSupplyCenterCount(power), powerName);
+            assertEquals(ownedHomes, pos.getOwnedHomeSupplyCenterCount(power), powerName);
+            assertEquals(ownedHomes > 0, pos.hasAnOwnedHomeSC(power), powerName);
+            assertEquals(heldHomes, pos.getHeldHomeSupplyCenterCount(power, false), powerName);
+            assertEquals(occupiedHeldHomes, pos.getHeldHomeSupplyCenterCount(power, true), powerName);
+            assertEquals(powerUnits.isEmpty() && powerDislodged.isEmpty() && powerOwned.isEmpty(),
+                    eliminated.isEliminated(power), powerName);
+        }
+    }
+
+    /**
+     * Compares both forms of Adjustment.getAdjustmentInfo() with scans.
+     */
+    private static void checkAdjustments(String name, TurnState ts, RuleOptions ruleOpts, Power[] powers) {
+        Position pos = ts.getPosition();
+        Adjustment.AdjustmentInfoMap adjMap = Adjustment.getAdjustmentInfo(ts, ruleOpts, powers);
+        for (Power power : powers) {
+            String powerName = name + ", " + power;
+
+            // the single-Power form counts home supply centers owned by the Power;
+            // the all-Powers form counts those owned by any Power
+            int units = 0;
+            int dislodged = 0;
+            int owned = 0;
+            int occupiedOwned = 0;
+            int homes = 0;
+            int ownedHomes = 0;
+            int heldHomes = 0;
+            int occupiedHeldHomes = 0;
+            for (Province province : pos.getProvinces()) {
+                Unit unit = pos.getUnit(province);
+                units += (unit != null && unit.getPower() == power) ? 1 : 0;
+                unit = pos.getDislodgedUnit(province);
+                dislodged += (unit != null && unit.getPower() == power) ? 1 : 0;
+
+                Power owner = pos.getSupplyCenterOwner(province);
+                if (owner == power) {
+                    owned++;
+                    occupiedOwned += pos.hasUnit(province) ? 1 : 0;
+                }
+                if (pos.getSupplyCenterHomePower(province) == power) {
+                    homes++;
+                    ownedHomes += (owner == power) ? 1 : 0;
+                    if (owner != null) {
+                        heldHomes++;
+                        occupiedHeldHomes += pos.hasUnit(province) ? 1 : 0;
+                    }
+                }
+            }
+
+            Adjustment.AdjustmentInfo single = Adjustment.getAdjustmentInfo(ts, ruleOpts, power);
+            assertEquals(units, single.getUnitCount(), powerName);
+            assertEquals(dislodged, single.getDislodgedUnitCount(), powerName);
+            assertEquals(owned, single.getSupplyCenterCount(), powerName);
+            boolean singleEmergency = power.hasEmergency() && ownedHomes > 0 && ownedHomes < homes;
+            assertEquals(expectedAdjustment(ruleOpts, units, owned, 0, ownedHomes, 0, singleEmergency),
+                    single.getAdjustmentAmount(), powerName);
+
+            Adjustment.AdjustmentInfo all = adjMap.get(power);
+            assertEquals(units, all.getUnitCount(), powerName);
+            assertEquals(dislodged, all.getDislodgedUnitCount(), powerName);
+            assertEquals(owned, all.getSupplyCenterCount(), powerName);
+            boolean allEmergency = power.hasEmergency() && heldHomes > 0 && heldHomes < homes;
+            assertEquals(expectedAdjustment(ruleOpts, units, owned, occupiedOwned, heldHomes, occupiedHeldHomes,
+                    allEmergency), all.getAdjustmentAmount(), powerName);
+        }
+    }
+
+    /**
+     * The adjustment amount, as computed by AdjustmentInfo from the counts.
+     */
+    private static int expectedAdjustment(RuleOptions ruleOpts, int units, int owned, int occupiedOwned,
+                                          int homes, int occupiedHomes, boolean hasEmergency) {
+        RuleOptions.OptionValue buildOpt = ruleOpts.getOptionValue(RuleOptions.OPTION_BUILDS);
+        int adj = owned - units + (hasEmergency ? 1 : 0);
+        if (buildOpt == RuleOptions.VALUE_BUILDS_HOME_ONLY) {
+            return Math.min(adj, homes - occupiedHomes);
+        } else if (buildOpt == RuleOptions.VALUE_BUILDS_ANY_OWNED) {
+            return Math.min(adj, owned - occupiedOwned);
+        } else {
+            adj = (adj > 0 && homes < 1) ? 0 : adj;
+            return Math.min(adj, owned - occupiedOwned);
+        }
+    }
+}
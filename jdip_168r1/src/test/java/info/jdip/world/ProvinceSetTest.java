@@ -0,0 +1,217 @@
+package info.jdip.world;
+
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.Variant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks ProvinceSet against java.util.BitSet over the same indices, and the
+ * read-only views of Position against the Province[] getters.
+ */
+public class ProvinceSetTest {
+    private static World world;
+    private static Province[] provinces;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+        Variant variant = VariantManager.getVariant("Standard", VariantManager.VERSION_NEWEST);
+        world = WorldFactory.getInstance().createWorld(variant);
+        provinces = world.getMap().getProvinces();
+        assertTrue(provinces.length > 64);
+    }
+
+    @Test
+    @DisplayName("Add, remove and contains")
+    public void addRemove() {
+        ProvinceSet set = new ProvinceSet(provinces);
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(provinces[0]));
+        assertFalse(set.add(provinces[0]));
+        assertTrue(set.add(provinces[63]));
+        assertTrue(set.add(provinces[64]));
+        assertTrue(set.add(provinces[provinces.length - 1]));
+        assertEquals(4, set.size());
+        assertTrue(set.contains(provinces[63]));
+        assertFalse(set.contains(provinces[62]));
+
+        assertTrue(set.remove(provinces[63]));
+        assertFalse(set.remove(provinces[63]));
+        assertFalse(set.contains(provinces[63]));
+        assertEquals(3, set.size());
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.size());
+        assertEquals(-1, set.nextIndex(0));
+    }
+
+    @Test
+    @DisplayName("Set operations match BitSet")
+    public void setOperations() {
+        Random random = new Random(44);
+        for (int n = 0; n < 200; n++) {
+            BitSet bitsA = randomBits(random);
+            BitSet bitsB = randomBits(random);
+            ProvinceSet a = toSet(bitsA);
+            ProvinceSet b = toSet(bitsB);
+            assertEquals(bitsA.cardinality(), a.size());
+            assertEquals(bitsA.isEmpty(), a.isEmpty());
+            assertEquals(bitsA.intersects(bitsB), a.intersects(b));
+
+            BitSet and = (BitSet) bitsA.clone();
+            and.and(bitsB);
+            assertEquals(and.cardinality(), a.intersectionSize(b));
+
+            ProvinceSet union = new ProvinceSet(a);
+            union.addAll(b);
+            BitSet or = (BitSet) bitsA.clone();
+            or.or(bitsB);
+            assertEquals(toSet(or), union);
+
+            ProvinceSet intersection = new ProvinceSet(a);
+            intersection.retainAll(b);
+            assertEquals(toSet(and), intersection);
+
+            ProvinceSet difference = new ProvinceSet(a);
+            difference.removeAll(b);
+            BitSet andNot = (BitSet) bitsA.clone();
+            andNot.andNot(bitsB);
+            assertEquals(toSet(andNot), difference);
+
+            // operands are unchanged; copies are independent
+            assertEquals(toSet(bitsA), a);
+            assertEquals(toSet(bitsB), b);
+            assertEquals(toSet(bitsA).hashCode(), a.hashCode());
+        }
+    }
+
+    @Test
+    @DisplayName("nextIndex, toArray and the iterator visit provinces in index order")
+    public void iteration() {
+        Random random = new Random(45);
+        for (int n = 0; n < 200; n++) {
+            BitSet bits = randomBits(random);
+            ProvinceSet set = toSet(bits);
+
+            List<Province> expected = new ArrayList<>();
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                expected.add(provinces[i]);
+            }
+            for (int from = 0; from <= provinces.length + 64; from++) {
+                final int i = bits.nextSetBit(from);
+                assertEquals((i < 0 || i >= provinces.length) ? -1 : i, set.nextIndex(from), "from " + from);
+            }
+
+            List<Province> iterated = new ArrayList<>();
+            for (Province province : set) {
+                iterated.add(province);
+            }
+            assertEquals(expected, iterated);
+            assertEquals(expected, Arrays.asList(set.toArray()));
+        }
+
+        Iterator<Province> iterator = new ProvinceSet(provinces).iterator();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    @DisplayName("Equality requires the same provinces of the same map")
+    public void equality() {
+        ProvinceSet a = new ProvinceSet(provinces);
+        ProvinceSet b = new ProvinceSet(provinces);
+        assertEquals(a, b);
+        a.add(provinces[3]);
+        assertNotEquals(a, b);
+        b.add(provinces[3]);
+        assertEquals(a, b);
+        assertEquals("[" + provinces[3].getShortName() + "]", a.toString());
+    }
+
+    @Test
+    @DisplayName("Position sets are read-only live views")
+    public void positionViews() {
+        Position position = world.getLastTurnState().getPosition();
+        Power[] powers = world.getMap().getPowers();
+
+        assertArrayEquals(position.getUnitProvinces(), position.getUnitProvinceSet().toArray());
+        assertArrayEquals(position.getDislodgedUnitProvinces(), position.getDislodgedUnitProvinceSet().toArray());
+        assertArrayEquals(position.getOwnedSupplyCenters(), position.getOwnedSupplyCenterSet().toArray());
+        assertArrayEquals(position.getHomeSupplyCenters(), position.getHomeSupplyCenterSet().toArray());
+        for (Power power : powers) {
+            assertArrayEquals(position.getUnitProvinces(power), position.getUnitProvinceSet(power).toArray());
+            assertArrayEquals(position.getDislodgedUnitProvinces(power), position.getDislodgedUnitProvinceSet(power).toArray());
+            assertArrayEquals(position.getOwnedSupplyCenters(power), position.getOwnedSupplyCenterSet(power).toArray());
+            assertArrayEquals(position.getHomeSupplyCenters(power), position.getHomeSupplyCenterSet(power).toArray());
+        }
+
+        final Power power = powers[0];
+        final ProvinceSet units = position.getUnitProvinceSet(power);
+        final ProvinceSet allUnits = position.getUnitProvinceSet();
+        final ProvinceSet owned = position.getOwnedSupplyCenterSet(power);
+        final ProvinceSet snapshot = new ProvinceSet(units);
+        final Province province = position.getUnitProvinces(power)[0];
+
+        assertThrows(UnsupportedOperationException.class, () -> units.add(province));
+        assertThrows(UnsupportedOperationException.class, () -> units.remove(province));
+        assertThrows(UnsupportedOperationException.class, () -> units.addAll(snapshot));
+        assertThrows(UnsupportedOperationException.class, () -> units.retainAll(snapshot));
+        assertThrows(UnsupportedOperationException.class, () -> units.removeAll(snapshot));
+        assertThrows(UnsupportedOperationException.class, units::clear);
+
+        // views follow the position; copies do not
+        Position changed = position.cloneExceptUnits();
+        Unit unit = position.getUnit(province);
+        changed.setUnit(province, unit);
+        ProvinceSet changedUnits = changed.getUnitProvinceSet(power);
+        assertEquals(1, changedUnits.size());
+        changed.setUnit(province, null);
+        assertTrue(changedUnits.isEmpty());
+        assertTrue(changed.getUnitProvinceSet().isEmpty());
+
+        Province sc = owned.toArray()[0];
+        changed.setSupplyCenterOwner(sc, null);
+        assertFalse(changed.getOwnedSupplyCenterSet(power).contains(sc));
+        assertTrue(owned.contains(sc));
+        assertEquals(snapshot, units);
+        assertTrue(allUnits.contains(province));
+    }
+
+    private static BitSet randomBits(Random random) {
+        BitSet bits = new BitSet(provinces.length);
+        final double density = random.nextDouble();
+        for (int i = 0; i < provinces.length; i++) {
+            if (random.nextDouble() < density) {
+                bits.set(i);
+            }
+        }
+        return bits;
+    }
+
+    private static ProvinceSet toSet(BitSet bits) {
+        ProvinceSet set = new ProvinceSet(provinces);
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            set.add(provinces[i]);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,168 @@
+package info.jdip.world;
+
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.order.Orderable;
+import info.jdip.order.result.OrderResult;
+import info.jdip.order.result.Result;
+import info.jdip.process.StdAdjudicator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the ResultIndex of each adjudicated DATC case against linear
+ * scans of the result list, and when the index is recreated.
+ */
+public class ResultIndexTest {
+    private static final OrderResult.ResultType[] RESULT_TYPES = {OrderResult.ResultType.VALIDATION_FAILURE,
+            OrderResult.ResultType.SUCCESS, OrderResult.ResultType.FAILURE, OrderResult.ResultType.DISLODGED,
+            OrderResult.ResultType.CONVOY_PATH_TAKEN, OrderResult.ResultType.TEXT,
+            OrderResult.ResultType.SUBSTITUTED};
+
+    @Test
+    @DisplayName("Groupings match scans of the result list")
+    public void groupings() {
+        int nResults = 0;
+        for (String caseFile : TestCaseRunner.CASE_FILES) {
+            for (Case testCase : TestCaseRunner.loadCases(caseFile)) {
+                StdAdjudicator stdJudge = TestCaseRunner.adjudicate(testCase, null);
+                TurnState turnState = stdJudge.getTurnState();
+                check(turnState, caseFile + " " + testCase.getName());
+                nResults += turnState.getResultList().size();
+            }
+        }
+        assertTrue(nResults > 0, "no results");
+    }
+
+    @Test
+    @DisplayName("The index is recreated when the result list changes")
+    public void recreated() {
+        Case testCase = TestCaseRunner.loadCases("datc_v2.4_06.txt").get(0);
+        TurnState turnState = TestCaseRunner.adjudicate(testCase, null).getTurnState();
+        List<Result> results = turnState.getResultList();
+        assertTrue(results.size() > 1);
+
+        ResultIndex index = turnState.getResultIndex();
+        assertSame(index, turnState.getResultIndex());
+
+        // adding or removing a result
+        Result removed = results.remove(results.size() - 1);
+        assertNotSame(index, turnState.getResultIndex());
+        check(turnState, "removed");
+        index = turnState.getResultIndex();
+        results.add(removed);
+        assertNotSame(index, turnState.getResultIndex());
+        check(turnState, "added");
+
+        // replacing a result in place is only seen after setResultList()
+        index = turnState.getResultIndex();
+        results.set(0, results.get(results.size() - 1));
+        assertSame(index, turnState.getResultIndex());
+        turnState.setResultList(results);
+        assertNotSame(index, turnState.getResultIndex());
+        check(turnState, "set");
+
+        // replacing the list
+        index = turnState.getResultIndex();
+        turnState.setResultList(new ArrayList<>(results.subList(0, 1)));
+        assertNotSame(index, turnState.getResultIndex());
+        check(turnState, "replaced");
+    }
+
+    /**
+     * Compares each grouping of the index with a scan of the result list.
+     */
+    private static void check(TurnState turnState, String name) {
+        ResultIndex index = turnState.getResultIndex();
+        List<Result> results = turnState.getResultList();
+
+        Set<Orderable> orders = new LinkedHashSet<>(turnState.getAllOrders());
+        Set<Province> provinces = new LinkedHashSet<>();
+        Set<Power> powers = new LinkedHashSet<>();
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        powers.add(null);
+        for (Result result : results) {
+            powers.add(result.getPower());
+            for (Class<?> c = result.getClass(); c != Object.class; c = c.getSuperclass()) {
+                classes.add(c);
+            }
+            if (result instanceof OrderResult && ((OrderResult) result).getOrder() != null) {
+                orders.add(((OrderResult) result).getOrder());
+            }
+        }
+        for (Orderable order : orders) {
+            provinces.add(order.getSource().getProvince());
+        }
+
+        for (Orderable order : orders) {
+            List<Result> expected = new ArrayList<>();
+            boolean isSuccessful = false;
+            for (Result result : results) {
+                if (result instanceof OrderResult && ((OrderResult) result).getOrder() == order) {
+                    expected.add(result);
+                    isSuccessful |= ((OrderResult) result).getResultType() == OrderResult.ResultType.SUCCESS;
+                }
+            }
+            assertEquals(expected, index.getResults(order), name + " " + order);
+            assertEquals(isSuccessful, index.isSuccessful(order), name + " " + order);
+        }
+
+        for (Province province : provinces) {
+            List<Result> expected = new ArrayList<>();
+            for (Result result : results) {
+                if (result instanceof OrderResult && ((OrderResult) result).getOrder() != null
+                        && ((OrderResult) result).getOrder().getSource().getProvince() == province) {
+                    expected.add(result);
+                }
+            }
+            assertEquals(expected, index.getResults(province), name + " " + province);
+        }
+
+        for (Power power : powers) {
+            List<Result> expected = new ArrayList<>();
+            for (Result result : results) {
+                if (result.getPower() == power) {
+                    expected.add(result);
+                }
+            }
+            assertEquals(expected, index.getResults(power), name + " " + power);
+        }
+
+        classes.add(Result.class);
+        classes.add(OrderResult.class);
+        for (Class<?> c : classes) {
+            List<Result> expected = new ArrayList<>();
+            for (Result result : results) {
+                if (c.isInstance(result)) {
+                    expected.add(result);
+                }
+            }
+            @SuppressWarnings("unchecked")
+            List<Result> actual = index.getResults((Class<Result>) c);
+            assertEquals(expected, actual, name + " " + c.getSimpleName());
+        }
+
+        for (OrderResult.ResultType type : RESULT_TYPES) {
+            List<Result> expected = new ArrayList<>();
+            for (Result result : results) {
+                if (result instanceof OrderResult && ((OrderResult) result).getResultType() == type) {
+                    expected.add(result);
+                }
+            }
+            assertEquals(expected, index.getResults(type), name + " " + type);
+        }
+
+        assertThrows(UnsupportedOperationException.class, () -> index.getResults((Power) null).add(null));
+    }
+}
@@ -0,0 +1,228 @@
+package info.jdip.world;
+
+import info.jdip.world.variant.VariantManager;
+import info.jdip.world.variant.data.Variant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the shared Location and Phase instances are equal to newly
+ * constructed ones (as were used before), and that equal Phases have equal
+ * hash codes.
+ */
+public class SharedInstancesTest {
+    private static final int[] YEARS = {-3, -2, -1, 1, 2, 1900, 1901, 2000};
+
+    private static World world;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+        Variant variant = VariantManager.getVariant("Standard", VariantManager.VERSION_NEWEST);
+        world = WorldFactory.getInstance().createWorld(variant);
+    }
+
+    @Test
+    @DisplayName("Shared Phases are equal to new Phases, with equal hash codes")
+    public void sharedPhases() {
+        Set<Phase> constructed = new HashSet<>();
+        int count = 0;
+        for (int year : YEARS) {
+            for (Phase.SeasonType season : Phase.SeasonType.ALL) {
+                for (Phase.PhaseType phaseType : Phase.PhaseType.ALL) {
+                    if (!Phase.isValid(season, phaseType)) {
+                        assertThrows(IllegalArgumentException.class, () -> Phase.getPhase(season, year, phaseType));
+                        assertThrows(IllegalArgumentException.class, () -> new Phase(season, year, phaseType));
+                        continue;
+                    }
+
+                    Phase phase = new Phase(season, year, phaseType);
+                    Phase shared = Phase.getPhase(season, year, phaseType);
+                    assertNotSame(phase, shared);
+                    assertSame(shared, Phase.getPhase(season, year, phaseType));
+                    assertSame(shared, Phase.getPhase(season, new Phase.YearType(year), phaseType));
+                    assertEquals(phase, shared);
+                    assertEquals(shared, phase);
+                    assertEquals(0, phase.compareTo(shared));
+                    assertEquals(phase.hashCode(), shared.hashCode());
+                    assertSame(shared, Phase.parse(phase.toString()));
+                    if (year > 0) {
+                        // brief names of BC years are not parsed
+                        assertSame(shared, Phase.parse(phase.getBriefName()));
+                    }
+
+                    constructed.add(phase);
+                    count++;
+                    assertTrue(constructed.contains(shared));
+                }
+            }
+        }
+        assertEquals(count, constructed.size());
+
+        // distinct Phases are not equal
+        List<Phase> all = new ArrayList<>(constructed);
+        for (Phase p1 : all) {
+            for (Phase p2 : all) {
+                assertEquals(p1 == p2, p1.equals(p2));
+                assertEquals(p1 == p2, p1.compareTo(p2) == 0);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Next and previous Phases follow the Phase order")
+    public void nextAndPrevious() {
+        Phase.SeasonType[] seasons = {Phase.SeasonType.SPRING, Phase.SeasonType.SPRING,
+                Phase.SeasonType.FALL, Phase.SeasonType.FALL, Phase.SeasonType.FALL};
+        Phase.PhaseType[] phaseTypes = {Phase.PhaseType.MOVEMENT, Phase.PhaseType.RETREAT,
+                Phase.PhaseType.MOVEMENT, Phase.PhaseType.RETREAT, Phase.PhaseType.ADJUSTMENT};
+
+        List<Phase> expected = new ArrayList<>();
+        for (int year = -3; year <= 3; year++) {
+            if (year != 0) {
+                for (int i = 0; i < seasons.length; i++) {
+                    expected.add(new Phase(seasons[i], year, phaseTypes[i]));
+                }
+            }
+        }
+
+        Phase phase = new Phase(seasons[0], -3, phaseTypes[0]);
+        for (int i = 1; i < expected.size(); i++) {
+            Phase next = phase.getNext();
+            assertEquals(expected.get(i), next);
+            assertSame(Phase.getPhase(next.getSeasonType(), next.getYear(), next.getPhaseType()), next);
+            assertSame(phase.getPrevious(), next.getPrevious().getPrevious());
+            assertEquals(phase, next.getPrevious());
+            assertTrue(phase.compareTo(next) < 0);
+            phase = next;
+        }
+    }
+
+    @Test
+    @DisplayName("Deserialized Phases are the shared instances")
+    public void readResolve() throws Exception {
+        Phase phase = new Phase(Phase.SeasonType.FALL, 1903, Phase.PhaseType.RETREAT);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(phase);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            Phase read = (Phase) ois.readObject();
+            assertSame(Phase.getPhase(Phase.SeasonType.FALL, 1903, Phase.PhaseType.RETREAT), read);
+            assertEquals(phase.hashCode(), read.hashCode());
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent lookups of a new year get the same Phase")
+    public void concurrentLookups() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int year = 3000; year < 3050; year++) {
+                final int y = year;
+                List<Callable<Phase>> tasks = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    tasks.add(() -> Phase.getPhase(Phase.SeasonType.SPRING, y, Phase.PhaseType.MOVEMENT));
+                }
+
+                Phase first = null;
+                for (Future<Phase> future : executor.invokeAll(tasks)) {
+                    first = (first == null) ? future.get() : first;
+                    assertSame(first, future.get());
+                }
+                assertSame(first, Phase.getPhase(Phase.SeasonType.SPRING, y, Phase.PhaseType.MOVEMENT));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Shared Locations are equal to new Locations")
+    public void sharedLocations() {
+        Map map = world.getMap();
+        java.util.Map<Location, Location> byValue = new HashMap<>();
+        for (Province province : map.getProvinces()) {
+            for (int c = 0; Coast.getCoast(c) != null; c++) {
+                Coast coast = Coast.getCoast(c);
+                Location location = new Location(province, coast);
+                Location shared = province.getLocation(coast);
+                assertNotSame(location, shared);
+                assertSame(shared, province.getLocation(coast));
+                assertSame(shared, map.getLocation(province, coast));
+                assertSame(province, shared.getProvince());
+                assertSame(coast, shared.getCoast());
+                assertEquals(location, shared);
+                assertEquals(location.hashCode(), shared.hashCode());
+                byValue.put(location, shared);
+            }
+        }
+
+        // all distinct
+        assertEquals(map.getProvinces().length * 8, byValue.size());
+        assertEquals(byValue.size(), new HashSet<>(byValue.values()).size());
+    }
+
+    @Test
+    @DisplayName("Parsed and validated Locations are the shared instances")
+    public void parsedAndValidated() throws Exception {
+        Map map = world.getMap();
+        Province spa = map.getProvince("spa");
+        Province par = map.getProvince("par");
+        Province nth = map.getProvince("nth");
+
+        Location parsed = map.parseLocation("spa/sc");
+        assertEquals(new Location(spa, Coast.SOUTH), parsed);
+        assertSame(spa.getLocation(Coast.SOUTH), parsed);
+        assertSame(par.getLocation(Coast.UNDEFINED), map.parseLocation("par"));
+
+        Location army = new Location(par, Coast.UNDEFINED).getValidated(Unit.Type.ARMY);
+        assertEquals(new Location(par, Coast.LAND), army);
+        assertSame(par.getLocation(Coast.LAND), army);
+
+        Location fleet = new Location(nth, Coast.UNDEFINED).getValidated(Unit.Type.FLEET);
+        assertEquals(new Location(nth, Coast.SEA), fleet);
+        assertSame(nth.getLocation(Coast.SEA), fleet);
+
+        // a Location which needs no change is returned as is
+        Location unchanged = new Location(nth, Coast.SEA);
+        assertSame(unchanged, unchanged.getValidated(Unit.Type.FLEET));
+    }
+
+    @Test
+    @DisplayName("Provinces of another Map get new Locations")
+    public void otherMap() throws Exception {
+        Variant variant = VariantManager.getVariant("Standard", VariantManager.VERSION_NEWEST);
+        Map other = WorldFactory.getInstance().createWorld(variant).getMap();
+        Map map = world.getMap();
+        Province province = other.getProvince("spa");
+        assertNotSame(map.getProvince("spa"), province);
+
+        Location location = map.getLocation(province, Coast.NORTH);
+        assertNotSame(location, map.getLocation(province, Coast.NORTH));
+        assertSame(province, location.getProvince());
+        assertEquals(province.getLocation(Coast.NORTH), location);
+    }
+}
@@ -0,0 +1,137 @@
+package info.jdip.world;
+
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.order.OrderFactory;
+import info.jdip.order.Orderable;
+import info.jdip.order.result.Result;
+import info.jdip.order.result.TimeResult;
+import info.jdip.process.StdAdjudicator;
+import info.jdip.world.variant.VariantManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Snapshots each adjudicated DATC case, reads the snapshot into a new World,
+ * and checks that the positions, orders, and results read back are those
+ * that were written.
+ */
+public class TurnStateSnapshotTest {
+
+    @Test
+    @DisplayName("Adjudicated turns survive a snapshot round trip")
+    public void roundTrip() throws Exception {
+        int nLocalized = 0;
+        for (String caseFile : TestCaseRunner.CASE_FILES) {
+            for (Case testCase : TestCaseRunner.loadCases(caseFile)) {
+                StdAdjudicator adjudicator = TestCaseRunner.adjudicate(testCase, null);
+                World world = testCase.getWorld();
+                if (adjudicator.getNextTurnState() != null) {
+                    world.setTurnState(adjudicator.getNextTurnState());
+                }
+
+                byte[] snapshot = TurnStateSnapshot.toByteArray(world);
+                World loaded = createWorld(world);
+                TurnStateSnapshot.fromByteArray(loaded, OrderFactory.getDefault(), snapshot);
+
+                TurnState last = world.getLastTurnState();
+                TurnState loadedLast = loaded.getLastTurnState();
+                nLocalized += compare(testCase.getName(), last, loadedLast);
+                nLocalized += compare(testCase.getName(), world.getPreviousTurnState(last),
+                        loaded.getPreviousTurnState(loadedLast));
+            }
+        }
+        assertTrue(nLocalized > 0, "no localized results were compared");
+    }
+
+    private static World createWorld(World world) throws Exception {
+        World.VariantInfo vi = world.getVariantInfo();
+        World created = WorldFactory.getInstance().createWorld(
+                VariantManager.getVariant(vi.getVariantName(), vi.getVariantVersion()));
+        created.getVariantInfo().setVariantName(vi.getVariantName());
+        created.getVariantInfo().setVariantVersion(vi.getVariantVersion());
+        return created;
+    }
+
+    /**
+     * Compares a TurnState with the one read from its snapshot, returning
+     * the number of localized results compared.
+     */
+    private static int compare(String name, TurnState expected, TurnState actual) {
+        assertNotNull(actual, name);
+        assertEquals(expected.getPhase(), actual.getPhase(), name);
+
+        Position expectedPos = expected.getPosition();
+        Position actualPos = actual.getPosition();
+        assertEquals(TestCaseRunner.describePosition(expectedPos), TestCaseRunner.describePosition(actualPos), name);
+        assertEquals(describeSupplyCenters(expectedPos), describeSupplyCenters(actualPos), name);
+
+        Power[] expectedPowers = expected.getWorld().getMap().getPowers();
+        Power[] actualPowers = actual.getWorld().getMap().getPowers();
+        for (int i = 0; i < expectedPowers.length; i++) {
+            assertEquals(expectedPos.isEliminated(expectedPowers[i]), actualPos.isEliminated(actualPowers[i]), name);
+            assertEquals(describeOrders(expected.getOrders(expectedPowers[i])),
+                    describeOrders(actual.getOrders(actualPowers[i])), name);
+        }
+
+        assertEquals(TestCaseRunner.getResultText(expected), TestCaseRunner.getResultText(actual), name);
+
+        List<Result> expectedResults = expected.getResultList();
+        List<Result> actualResults = actual.getResultList();
+        assertEquals(expectedResults.size(), actualResults.size(), name);
+        int nLocalized = 0;
+        for (int i = 0; i < expectedResults.size(); i++) {
+            Result expectedResult = expectedResults.get(i);
+            Result actualResult = actualResults.get(i);
+            assertEquals(expectedResult.getClass(), actualResult.getClass(), name);
+            assertEquals(expectedResult.getMessageKey(), actualResult.getMessageKey(), name);
+            assertEquals(describeArgs(expectedResult.getMessageArgs()),
+                    describeArgs(actualResult.getMessageArgs()), name);
+            if (expectedResult instanceof TimeResult) {
+                assertEquals(((TimeResult) expectedResult).getResource(), ((TimeResult) actualResult).getResource(), name);
+                assertEquals(((TimeResult) expectedResult).getGMTMillis(), ((TimeResult) actualResult).getGMTMillis(), name);
+            }
+            if (expectedResult.getMessageKey() != null) {
+                nLocalized++;
+            }
+        }
+        return nLocalized;
+    }
+
+    private static String describeSupplyCenters(Position pos) {
+        StringBuilder sb = new StringBuilder(256);
+        for (Province province : pos.getProvinces()) {
+            if (province.hasSupplyCenter()) {
+                sb.append(province.getShortName()).append(':').append(pos.getSupplyCenterOwner(province))
+                        .append('/').append(pos.getSupplyCenterHomePower(province)).append("; ");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static List<String> describeOrders(List<Orderable> orders) {
+        List<String> text = new ArrayList<>();
+        for (Orderable order : orders) {
+            text.add(order.toString());
+        }
+        return text;
+    }
+
+    private static String describeArgs(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        List<String> text = new ArrayList<>();
+        for (Object arg : args) {
+            text.add((arg == null) ? null : arg.getClass().getSimpleName() + ":" + arg);
+        }
+        return text.toString();
+    }
+}
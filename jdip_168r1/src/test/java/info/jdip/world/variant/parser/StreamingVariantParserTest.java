@@ -0,0 +1,272 @@
+package info.jdip.world.variant.parser;
+
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.world.Coast;
+import info.jdip.world.Map;
+import info.jdip.world.Position;
+import info.jdip.world.Power;
+import info.jdip.world.Province;
+import info.jdip.world.World;
+import info.jdip.world.WorldFactory;
+import info.jdip.world.variant.data.BorderData;
+import info.jdip.world.variant.data.InitialState;
+import info.jdip.world.variant.data.Influence;
+import info.jdip.world.variant.data.MapGraphic;
+import info.jdip.world.variant.data.ProvinceData;
+import info.jdip.world.variant.data.SupplyCenter;
+import info.jdip.world.variant.data.Variant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that StreamingVariantParser builds the same Variants, adjacency
+ * data, and Maps as XMLVariantParser, for every bundled variant package.
+ * As in VariantManager, one parser of each type is used for all packages.
+ */
+public class StreamingVariantParserTest {
+    private static final List<Variant[]> domVariants = new ArrayList<>();
+    private static final List<Variant[]> streamingVariants = new ArrayList<>();
+    private static final List<String> packageNames = new ArrayList<>();
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        File[] files = new File("build/tmp/variants").listFiles((dir, name) -> name.endsWith("Variants.zip"));
+        assertNotNull(files);
+        Arrays.sort(files);
+
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setAttribute("http://apache.org/xml/features/nonvalidating/load-external-dtd", Boolean.FALSE);
+        dbf.setValidating(false);
+        dbf.setCoalescing(false);
+        dbf.setIgnoringComments(true);
+        XMLVariantParser domParser = new XMLVariantParser(dbf);
+
+        SAXParserFactory spf = SAXParserFactory.newInstance();
+        spf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        spf.setValidating(false);
+        StreamingVariantParser streamingParser = new StreamingVariantParser(spf);
+
+        for (File file : files) {
+            URL packURL = file.toURI().toURL();
+            URL variantXMLURL = new URLClassLoader(new URL[]{packURL}).findResource("variants.xml");
+            if (variantXMLURL == null) {
+                continue;
+            }
+
+            try (InputStream is = new BufferedInputStream(variantXMLURL.openStream())) {
+                domParser.parse(is, packURL);
+            }
+            try (InputStream is = new BufferedInputStream(variantXMLURL.openStream())) {
+                streamingParser.parse(is, packURL);
+            }
+            packageNames.add(file.getName());
+            domVariants.add(domParser.getVariants());
+            streamingVariants.add(streamingParser.getVariants());
+        }
+        assertTrue(packageNames.size() > 10, "bundled variant packages not found");
+    }
+
+    @Test
+    @DisplayName("Variant data matches the DOM parser")
+    public void variants() {
+        for (int i = 0; i < packageNames.size(); i++) {
+            Variant[] expected = domVariants.get(i);
+            Variant[] actual = streamingVariants.get(i);
+            assertEquals(expected.length, actual.length, packageNames.get(i));
+            assertTrue(expected.length > 0, packageNames.get(i));
+            for (int v = 0; v < expected.length; v++) {
+                compareVariants(expected[v], actual[v], packageNames.get(i) + " " + expected[v].getName());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Adjacency and border data match the DOM parser")
+    public void adjacency() {
+        int nBorders = 0;
+        for (int i = 0; i < packageNames.size(); i++) {
+            Variant[] expected = domVariants.get(i);
+            Variant[] actual = streamingVariants.get(i);
+            for (int v = 0; v < expected.length; v++) {
+                String name = packageNames.get(i) + " " + expected[v].getName();
+                ProvinceData[] expectedPD = expected[v].getProvinceData();
+                ProvinceData[] actualPD = actual[v].getProvinceData();
+                assertEquals(expectedPD.length, actualPD.length, name);
+                assertTrue(expectedPD.length > 0, name);
+                for (int p = 0; p < expectedPD.length; p++) {
+                    String pName = name + " " + expectedPD[p].getFullName();
+                    assertEquals(expectedPD[p].getFullName(), actualPD[p].getFullName(), pName);
+                    assertArrayEquals(expectedPD[p].getShortNames(), actualPD[p].getShortNames(), pName);
+                    assertArrayEquals(expectedPD[p].getAdjacentProvinceTypes(),
+                            actualPD[p].getAdjacentProvinceTypes(), pName);
+                    assertArrayEquals(expectedPD[p].getAdjacentProvinceNames(),
+                            actualPD[p].getAdjacentProvinceNames(), pName);
+                    assertEquals(expectedPD[p].getConvoyableCoast(), actualPD[p].getConvoyableCoast(), pName);
+                    assertEquals(expectedPD[p].getImpassable(), actualPD[p].getImpassable(), pName);
+                    assertArrayEquals(expectedPD[p].getBorders(), actualPD[p].getBorders(), pName);
+                }
+
+                BorderData[] expectedBD = expected[v].getBorderData();
+                BorderData[] actualBD = actual[v].getBorderData();
+                assertEquals(expectedBD.length, actualBD.length, name);
+                for (int b = 0; b < expectedBD.length; b++) {
+                    String bName = name + " " + expectedBD[b].getID();
+                    assertEquals(expectedBD[b].getID(), actualBD[b].getID(), bName);
+                    assertEquals(expectedBD[b].getDescription(), actualBD[b].getDescription(), bName);
+                    assertEquals(expectedBD[b].getUnitTypes(), actualBD[b].getUnitTypes(), bName);
+                    assertEquals(expectedBD[b].getFrom(), actualBD[b].getFrom(), bName);
+                    assertEquals(expectedBD[b].getOrderTypes(), actualBD[b].getOrderTypes(), bName);
+                    assertEquals(expectedBD[b].getBaseMoveModifier(), actualBD[b].getBaseMoveModifier(), bName);
+                    assertEquals(expectedBD[b].getYear(), actualBD[b].getYear(), bName);
+                    assertEquals(expectedBD[b].getSeason(), actualBD[b].getSeason(), bName);
+                    assertEquals(expectedBD[b].getPhase(), actualBD[b].getPhase(), bName);
+                    nBorders++;
+                }
+            }
+        }
+        assertTrue(nBorders > 0, "no borders");
+    }
+
+    @Test
+    @DisplayName("Worlds created from either parser's Variants are the same")
+    public void worlds() throws Exception {
+        for (int i = 0; i < packageNames.size(); i++) {
+            Variant[] expected = domVariants.get(i);
+            Variant[] actual = streamingVariants.get(i);
+            for (int v = 0; v < expected.length; v++) {
+                String name = packageNames.get(i) + " " + expected[v].getName();
+                World expectedWorld = WorldFactory.getInstance().createWorld(expected[v]);
+                World actualWorld = WorldFactory.getInstance().createWorld(actual[v]);
+                compareMaps(expectedWorld.getMap(), actualWorld.getMap(), name);
+
+                Position expectedPos = expectedWorld.getLastTurnState().getPosition();
+                Position actualPos = actualWorld.getLastTurnState().getPosition();
+                assertEquals(expectedWorld.getLastTurnState().getPhase(),
+                        actualWorld.getLastTurnState().getPhase(), name);
+                assertEquals(TestCaseRunner.describePosition(expectedPos),
+                        TestCaseRunner.describePosition(actualPos), name);
+                assertEquals(describeSupplyCenters(expectedPos), describeSupplyCenters(actualPos), name);
+            }
+        }
+    }
+
+    private static void compareVariants(Variant expected, Variant actual, String name) {
+        assertEquals(expected.getName(), actual.getName(), name);
+        assertEquals(expected.getVersion(), actual.getVersion(), name);
+        assertEquals(expected.isDefault(), actual.isDefault(), name);
+        assertArrayEquals(expected.getAliases(), actual.getAliases(), name);
+        assertEquals(expected.getDescription(), actual.getDescription(), name);
+        assertEquals(expected.getStartingPhase(), actual.getStartingPhase(), name);
+        assertEquals(expected.getBCYearsAllowed(), actual.getBCYearsAllowed(), name);
+        assertEquals(expected.getNumSCForVictory(), actual.getNumSCForVictory(), name);
+        assertEquals(expected.getMaxYearsNoSCChange(), actual.getMaxYearsNoSCChange(), name);
+        assertEquals(expected.getMaxGameTimeYears(), actual.getMaxGameTimeYears(), name);
+
+        assertEquals(expected.getPowers().length, actual.getPowers().length, name);
+        for (int i = 0; i < expected.getPowers().length; i++) {
+            Power p1 = expected.getPowers()[i];
+            Power p2 = actual.getPowers()[i];
+            assertArrayEquals(p1.getNames(), p2.getNames(), name);
+            assertEquals(p1.getAdjective(), p2.getAdjective(), name);
+            assertEquals(p1.isActive(), p2.isActive(), name);
+            assertEquals(p1.hasEmergency(), p2.hasEmergency(), name);
+        }
+
+        assertEquals(expected.getSupplyCenters().length, actual.getSupplyCenters().length, name);
+        for (int i = 0; i < expected.getSupplyCenters().length; i++) {
+            SupplyCenter sc1 = expected.getSupplyCenters()[i];
+            SupplyCenter sc2 = actual.getSupplyCenters()[i];
+            assertEquals(sc1.getProvinceName(), sc2.getProvinceName(), name);
+            assertEquals(sc1.getHomePowerName(), sc2.getHomePowerName(), name);
+            assertEquals(sc1.getOwnerName(), sc2.getOwnerName(), name);
+        }
+
+        assertEquals(expected.getInitialStates().length, actual.getInitialStates().length, name);
+        for (int i = 0; i < expected.getInitialStates().length; i++) {
+            InitialState is1 = expected.getInitialStates()[i];
+            InitialState is2 = actual.getInitialStates()[i];
+            assertEquals(is1.getProvinceName(), is2.getProvinceName(), name);
+            assertEquals(is1.getPowerName(), is2.getPowerName(), name);
+            assertEquals(is1.getUnitType(), is2.getUnitType(), name);
+            assertEquals(is1.getCoast(), is2.getCoast(), name);
+        }
+
+        assertEquals(expected.getInfluences().length, actual.getInfluences().length, name);
+        for (int i = 0; i < expected.getInfluences().length; i++) {
+            Influence inf1 = expected.getInfluences()[i];
+            Influence inf2 = actual.getInfluences()[i];
+            assertEquals(inf1.getProvinceName(), inf2.getProvinceName(), name);
+            assertEquals(inf1.getPowerName(), inf2.getPowerName(), name);
+        }
+
+        assertEquals(expected.getMapGraphics().length, actual.getMapGraphics().length, name);
+        for (int i = 0; i < expected.getMapGraphics().length; i++) {
+            MapGraphic mg1 = expected.getMapGraphics()[i];
+            MapGraphic mg2 = actual.getMapGraphics()[i];
+            assertEquals(mg1.getURI(), mg2.getURI(), name);
+            assertEquals(mg1.isDefault(), mg2.isDefault(), name);
+            assertEquals(mg1.getName(), mg2.getName(), name);
+            assertEquals(mg1.getDescription(), mg2.getDescription(), name);
+            assertEquals(mg1.getThumbnailURI(), mg2.getThumbnailURI(), name);
+            assertEquals(mg1.getPreferredSymbolPackName(), mg2.getPreferredSymbolPackName(), name);
+        }
+
+        assertEquals(expected.getRuleOptionNVPs().length, actual.getRuleOptionNVPs().length, name);
+        for (int i = 0; i < expected.getRuleOptionNVPs().length; i++) {
+            assertEquals(expected.getRuleOptionNVPs()[i].getName(), actual.getRuleOptionNVPs()[i].getName(), name);
+            assertEquals(expected.getRuleOptionNVPs()[i].getValue(), actual.getRuleOptionNVPs()[i].getValue(), name);
+        }
+    }
+
+    private static void compareMaps(Map expected, Map actual, String name) {
+        assertEquals(Arrays.toString(expected.getPowers()), Arrays.toString(actual.getPowers()), name);
+
+        Province[] expectedProvinces = expected.getProvinces();
+        Province[] actualProvinces = actual.getProvinces();
+        assertEquals(expectedProvinces.length, actualProvinces.length, name);
+        for (int i = 0; i < expectedProvinces.length; i++) {
+            Province p1 = expectedProvinces[i];
+            Province p2 = actualProvinces[i];
+            String pName = name + " " + p1.getShortName();
+            assertEquals(p1.getFullName(), p2.getFullName(), pName);
+            assertArrayEquals(p1.getShortNames(), p2.getShortNames(), pName);
+            assertEquals(p1.getIndex(), p2.getIndex(), pName);
+            assertEquals(p1.hasSupplyCenter(), p2.hasSupplyCenter(), pName);
+            assertEquals(p1.isConvoyableCoast(), p2.isConvoyableCoast(), pName);
+            assertEquals(p1.isImpassable(), p2.isImpassable(), pName);
+            for (int c = 0; Coast.getCoast(c) != null; c++) {
+                Coast coast = Coast.getCoast(c);
+                assertEquals(Arrays.toString(p1.getAdjacentLocations(coast)),
+                        Arrays.toString(p2.getAdjacentLocations(coast)), pName + " " + coast);
+            }
+        }
+    }
+
+    private static String describeSupplyCenters(Position pos) {
+        StringBuilder sb = new StringBuilder(256);
+        for (Province province : pos.getProvinces()) {
+            if (province.hasSupplyCenter()) {
+                sb.append(province.getShortName()).append(':').append(pos.getSupplyCenterOwner(province))
+                        .append(',').append(pos.getSupplyCenterHomePower(province)).append("; ");
+            }
+        }
+        return sb.toString();
+    }
+}
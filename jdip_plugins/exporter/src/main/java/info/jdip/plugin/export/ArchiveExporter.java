@@ -0,0 +1,230 @@
+//
+//  @(#)ArchiveExporter.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.plugin.export;
+
+import info.jdip.plugin.export.ColumnarArchive.TableBuffer;
+import info.jdip.world.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+/**
+ * Converts saved games (.jdip files) into a columnar archive
+ * (see {@link ColumnarArchive}), so that game histories may be analyzed
+ * without deserializing World objects.
+ * <p>
+ * Games are read and converted on all available processors; rows are
+ * written in the order the games were found, so the archive does not
+ * depend upon the number of threads. Games which cannot be read are
+ * reported, and skipped. From the command line:
+ * <pre>
+ *     ArchiveExporter [-output file] [-threads n] (directory | file)...
+ * </pre>
+ * Directories are searched recursively for .jdip files. If the output file
+ * exists, games are appended to it (after removing any incomplete block
+ * left by an interrupted export). Game names are the path of each file,
+ * relative to the directory given on the command line.
+ */
+public class ArchiveExporter {
+    private static final String GAME_EXTENSION = ".jdip";
+    private static final String DEFAULT_OUTPUT = "games.jdca";
+
+    private final ColumnarArchiveWriter writer;
+    private final int threads;
+    private int gameCount = 0;
+    private int failureCount = 0;
+
+    /**
+     * Create an ArchiveExporter, which writes to the given archive writer.
+     */
+    public ArchiveExporter(ColumnarArchiveWriter writer, int threads) {
+        if (writer == null || threads < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        this.writer = writer;
+        this.threads = threads;
+    }// ArchiveExporter()
+
+
+    /**
+     * Number of games exported
+     */
+    public int getGameCount() {
+        return gameCount;
+    }// getGameCount()
+
+    /**
+     * Number of games which could not be read
+     */
+    public int getFailureCount() {
+        return failureCount;
+    }// getFailureCount()
+
+
+    /**
+     * Export the given games. Names are the game names, and files the
+     * corresponding saved games; both lists must be the same size.
+     */
+    public void export(final List<String> names, final List<File> files)
+            throws IOException, InterruptedException {
+        if (names.size() != files.size()) {
+            throw new IllegalArgumentException();
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // at most a few games per thread are held in memory at once
+            final int window = threads * 4;
+            final ArrayDeque<Future<TableBuffer[]>> pending = new ArrayDeque<>(window);
+            final ArrayDeque<File> pendingFiles = new ArrayDeque<>(window);
+
+            for (int i = 0; i < files.size(); i++) {
+                if (pending.size() >= window) {
+                    writeNext(pending, pendingFiles);
+                }
+
+                final String name = names.get(i);
+                final File file = files.get(i);
+                pending.add(executor.submit(() -> ColumnarArchiveWriter.createRows(open(file), name)));
+                pendingFiles.add(file);
+            }
+
+            while (!pending.isEmpty()) {
+                writeNext(pending, pendingFiles);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }// export()
+
+
+    /**
+     * Reads a saved game. This is called concurrently, from multiple threads.
+     */
+    protected World open(File file)
+            throws IOException {
+        return World.open(file);
+    }// open()
+
+
+    /**
+     * Waits for the oldest pending game, and writes it.
+     */
+    private void writeNext(ArrayDeque<Future<TableBuffer[]>> pending, ArrayDeque<File> pendingFiles)
+            throws IOException, InterruptedException {
+        final File file = pendingFiles.remove();
+        try {
+            writer.add(pending.remove().get());
+            gameCount++;
+        } catch (ExecutionException e) {
+            failureCount++;
+            System.err.println("Cannot read " + file + ": " + e.getCause());
+        }
+    }// writeNext()
+
+
+    /**
+     * Finds the saved games in the given directory (recursively), adding
+     * them to the lists in a consistent (sorted) order.
+     */
+    private static void findGames(File root, File dir, List<String> names, List<File> files) {
+        final File[] entries = dir.listFiles();
+        if (entries == null) {
+            return;
+        }
+
+        Arrays.sort(entries);
+        for (File entry : entries) {
+            if (entry.isDirectory()) {
+                findGames(root, entry, names, files);
+            } else if (entry.getName().toLowerCase().endsWith(GAME_EXTENSION)) {
+                names.add(root.toPath().relativize(entry.toPath()).toString().replace(File.separatorChar, '/'));
+                files.add(entry);
+            }
+        }
+    }// findGames()
+
+
+    /**
+     * Command-line entry point
+     */
+    public static void main(String[] args)
+            throws Exception {
+        File output = new File(DEFAULT_OUTPUT);
+        int threads = Runtime.getRuntime().availableProcessors();
+        final List<String> names = new ArrayList<>();
+        final List<File> files = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if ("-output".equals(args[i]) || "-threads".equals(args[i])) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("missing value for " + args[i]);
+                }
+
+                if ("-output".equals(args[i])) {
+                    output = new File(args[++i]);
+                } else {
+                    threads = Integer.parseInt(args[++i]);
+                }
+            } else if (args[i].startsWith("-")) {
+                throw new IllegalArgumentException("unknown option: " + args[i]);
+            } else {
+                final File file = new File(args[i]);
+                if (file.isDirectory()) {
+                    findGames(file, file, names, files);
+                } else {
+                    names.add(file.getName());
+                    files.add(file);
+                }
+            }
+        }
+
+        if (files.isEmpty()) {
+            System.err.println("USAGE: ArchiveExporter [-output file] [-threads n] (directory | file)...");
+            System.exit(1);
+        }
+
+        final long start = System.currentTimeMillis();
+        final ArchiveExporter exporter;
+        try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(output)) {
+            if (writer.getTruncatedLength() > 0) {
+                System.err.println("Removed an incomplete block (" + writer.getTruncatedLength()
+                        + " bytes) from the end of " + output);
+            }
+
+            exporter = new ArchiveExporter(writer, threads);
+            exporter.export(names, files);
+        }
+
+        System.out.println("Exported " + exporter.getGameCount() + " games to " + output
+                + " in " + (System.currentTimeMillis() - start) + " ms; "
+                + exporter.getFailureCount() + " could not be read.");
+    }// main()
+
+}// class ArchiveExporter
@@ -0,0 +1,274 @@
+//
+//  @(#)ColumnarArchive.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.plugin.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+
+
+/**
+ * Table definitions and encoding shared by {@link ColumnarArchiveWriter} and
+ * {@link ColumnarArchiveReader}.
+ * <p>
+ * A columnar archive is a header followed by any number of blocks; new
+ * blocks may be appended to an existing archive at any time. Each block
+ * holds some rows of a single table, stored column by column:
+ * <pre>
+ * archive: MAGIC (4 bytes) VERSION (int) block*
+ * block:   table (byte) rows (varint) columns (varint) column*
+ * column:  type (byte) length (varint) deflated-data[length]
+ * </pre>
+ * INT column data is a zig-zag varint per row. STRING column data is
+ * dictionary encoded: the dictionary size (varint), each entry (varint
+ * length, then UTF-8 bytes), then a varint code per row, where 0 is null
+ * and n is dictionary entry n-1.
+ * <p>
+ * Every table begins with the game and phase (brief name) columns.
+ */
+public final class ColumnarArchive {
+    /**
+     * File header
+     */
+    static final byte[] MAGIC = {'J', 'D', 'C', 'A'};
+    /**
+     * Format version
+     */
+    static final int VERSION = 1;
+
+    // column types
+    static final byte TYPE_INT = 1;
+    static final byte TYPE_STRING = 2;
+
+    /**
+     * The archive tables
+     */
+    public enum Table {
+        UNITS(new String[]{"game", "phase", "power", "type", "province", "coast", "dislodged"},
+                new byte[]{TYPE_STRING, TYPE_STRING, TYPE_STRING, TYPE_STRING, TYPE_STRING, TYPE_STRING, TYPE_INT}),
+        ORDERS(new String[]{"game", "phase", "order", "power", "source", "type", "text"},
+                new byte[]{TYPE_STRING, TYPE_STRING, TYPE_INT, TYPE_STRING, TYPE_STRING, TYPE_STRING, TYPE_STRING}),
+        RESULTS(new String[]{"game", "phase", "power", "order", "type", "message"},
+                new byte[]{TYPE_STRING, TYPE_STRING, TYPE_STRING, TYPE_INT, TYPE_STRING, TYPE_STRING}),
+        SUPPLY_CENTERS(new String[]{"game", "phase", "province", "owner", "home"},
+                new byte[]{TYPE_STRING, TYPE_STRING, TYPE_STRING, TYPE_STRING, TYPE_STRING});
+
+        private final String[] columnNames;
+        private final byte[] columnTypes;
+
+        Table(String[] columnNames, byte[] columnTypes) {
+            this.columnNames = columnNames;
+            this.columnTypes = columnTypes;
+        }
+
+        /**
+         * Column names, in order
+         */
+        public String[] getColumnNames() {
+            return columnNames.clone();
+        }
+
+        /**
+         * Index of the named column, or -1
+         */
+        public int getColumnIndex(String name) {
+            return Arrays.asList(columnNames).indexOf(name);
+        }
+
+        /**
+         * True if the column at the given index holds ints; otherwise it holds Strings.
+         */
+        public boolean isIntColumn(int index) {
+            return columnTypes[index] == TYPE_INT;
+        }
+
+        int getColumnCount() {
+            return columnNames.length;
+        }
+
+        byte getColumnType(int index) {
+            return columnTypes[index];
+        }
+    }// enum Table
+
+
+    private ColumnarArchive() {
+    }// ColumnarArchive()
+
+
+    /**
+     * Rows of a table, held by column until written.
+     */
+    static final class TableBuffer {
+        private final Table table;
+        private final Object[] columns;    // int[] or String[], by column type
+        private int rows = 0;
+
+        TableBuffer(Table table) {
+            this.table = table;
+            columns = new Object[table.getColumnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = (table.isIntColumn(i)) ? new int[64] : new String[64];
+            }
+        }// TableBuffer()
+
+        Table getTable() {
+            return table;
+        }
+
+        int size() {
+            return rows;
+        }
+
+        /**
+         * Add a row. Values must be Integers for int columns, and Strings
+         * (or null) otherwise.
+         */
+        void add(Object... values) {
+            ensureCapacity(rows + 1);
+            for (int i = 0; i < values.length; i++) {
+                if (table.isIntColumn(i)) {
+                    ((int[]) columns[i])[rows] = (Integer) values[i];
+                } else {
+                    ((String[]) columns[i])[rows] = (String) values[i];
+                }
+            }
+            rows++;
+        }// add()
+
+        /**
+         * Append all rows of the given buffer, which must be for the same table.
+         */
+        void addAll(TableBuffer tb) {
+            if (tb.table != table) {
+                throw new IllegalArgumentException();
+            }
+
+            ensureCapacity(rows + tb.rows);
+            for (int i = 0; i < columns.length; i++) {
+                System.arraycopy(tb.columns[i], 0, columns[i], rows, tb.rows);
+            }
+            rows += tb.rows;
+        }// addAll()
+
+        void clear() {
+            for (Object column : columns) {
+                if (column instanceof String[]) {
+                    Arrays.fill((String[]) column, 0, rows, null);
+                }
+            }
+            rows = 0;
+        }// clear()
+
+        private void ensureCapacity(int capacity) {
+            final int length = (table.isIntColumn(0)) ? ((int[]) columns[0]).length : ((String[]) columns[0]).length;
+            if (capacity > length) {
+                final int newLength = Math.max(capacity, length * 2);
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = (table.isIntColumn(i))
+                            ? Arrays.copyOf((int[]) columns[i], newLength)
+                            : Arrays.copyOf((String[]) columns[i], newLength);
+                }
+            }
+        }// ensureCapacity()
+
+        /**
+         * Encode (uncompressed) the given column
+         */
+        byte[] encodeColumn(int index) {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream(rows * 2 + 64);
+            if (table.isIntColumn(index)) {
+                final int[] values = (int[]) columns[index];
+                for (int i = 0; i < rows; i++) {
+                    writeVarInt(baos, (values[i] << 1) ^ (values[i] >> 31));
+                }
+            } else {
+                final String[] values = (String[]) columns[index];
+                final HashMap<String, Integer> dictionary = new HashMap<>(256);
+                final ByteArrayOutputStream dictBytes = new ByteArrayOutputStream(1024);
+                final int[] codes = new int[rows];
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] != null) {
+                        Integer code = dictionary.get(values[i]);
+                        if (code == null) {
+                            code = dictionary.size() + 1;
+                            dictionary.put(values[i], code);
+                            final byte[] utf = values[i].getBytes(StandardCharsets.UTF_8);
+                            writeVarInt(dictBytes, utf.length);
+                            dictBytes.write(utf, 0, utf.length);
+                        }
+                        codes[i] = code;
+                    }
+                }
+
+                writeVarInt(baos, dictionary.size());
+                baos.write(dictBytes.toByteArray(), 0, dictBytes.size());
+                for (int code : codes) {
+                    writeVarInt(baos, code);
+                }
+            }
+            return baos.toByteArray();
+        }// encodeColumn()
+    }// nested class TableBuffer
+
+
+    /**
+     * Write an unsigned varint
+     */
+    static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }// writeVarInt()
+
+    /**
+     * Write an unsigned varint
+     */
+    static void writeVarInt(DataOutput out, int value)
+            throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }// writeVarInt()
+
+    /**
+     * Read an unsigned varint
+     */
+    static int readVarInt(DataInput in)
+            throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }// readVarInt()
+
+}// class ColumnarArchive
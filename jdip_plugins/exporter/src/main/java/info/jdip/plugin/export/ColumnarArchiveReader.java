@@ -0,0 +1,211 @@
+//
+//  @(#)ColumnarArchiveReader.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.plugin.export;
+
+import info.jdip.plugin.export.ColumnarArchive.Table;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.InflaterInputStream;
+
+import static info.jdip.plugin.export.ColumnarArchive.readVarInt;
+
+
+/**
+ * Reads a columnar archive (see {@link ColumnarArchive}), one block at a time.
+ * <p>
+ * Columns are only decompressed when requested, so reading a few columns
+ * of a large archive is inexpensive.
+ */
+public class ColumnarArchiveReader implements Closeable {
+    private final DataInputStream in;
+
+    /**
+     * Create a ColumnarArchiveReader. The header is read immediately.
+     */
+    public ColumnarArchiveReader(InputStream is)
+            throws IOException {
+        in = new DataInputStream(new BufferedInputStream(is, 65536));
+
+        final byte[] magic = new byte[ColumnarArchive.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, ColumnarArchive.MAGIC)) {
+            throw new IOException("not a columnar archive");
+        }
+
+        final int version = in.readInt();
+        if (version != ColumnarArchive.VERSION) {
+            throw new IOException("unsupported archive version: " + version);
+        }
+    }// ColumnarArchiveReader()
+
+
+    /**
+     * Read the next block; returns null at the end of the archive.
+     */
+    public Block next()
+            throws IOException {
+        final int tableIndex = in.read();
+        if (tableIndex < 0) {
+            return null;
+        }
+
+        final Table[] tables = Table.values();
+        if (tableIndex >= tables.length) {
+            throw new IOException("unknown table: " + tableIndex);
+        }
+
+        final Table table = tables[tableIndex];
+        final int rows = readVarInt(in);
+        final int columns = readVarInt(in);
+        if (columns != table.getColumnCount()) {
+            throw new IOException("expected " + table.getColumnCount() + " columns for " + table + ", found " + columns);
+        }
+
+        final byte[][] data = new byte[columns][];
+        for (int i = 0; i < columns; i++) {
+            if (in.readByte() != table.getColumnType(i)) {
+                throw new IOException("bad column type: " + table + "." + table.getColumnNames()[i]);
+            }
+            data[i] = new byte[readVarInt(in)];
+            in.readFully(data[i]);
+        }
+
+        return new Block(table, rows, data);
+    }// next()
+
+
+    /**
+     * Closes the reader, and the underlying stream.
+     */
+    public void close()
+            throws IOException {
+        in.close();
+    }// close()
+
+
+    /**
+     * Rows of a single table
+     */
+    public static class Block {
+        private final Table table;
+        private final int rows;
+        private final byte[][] data;
+
+        private Block(Table table, int rows, byte[][] data) {
+            this.table = table;
+            this.rows = rows;
+            this.data = data;
+        }// Block()
+
+        public Table getTable() {
+            return table;
+        }
+
+        /**
+         * The number of rows
+         */
+        public int size() {
+            return rows;
+        }
+
+        /**
+         * Values of the named int column
+         */
+        public int[] getInts(String column)
+                throws IOException {
+            return getInts(getIndex(column));
+        }// getInts()
+
+        /**
+         * Values of the int column at the given index
+         */
+        public int[] getInts(int column)
+                throws IOException {
+            if (!table.isIntColumn(column)) {
+                throw new IllegalArgumentException("not an int column: " + table.getColumnNames()[column]);
+            }
+
+            final DataInputStream dis = inflate(column);
+            final int[] values = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                final int v = readVarInt(dis);
+                values[i] = (v >>> 1) ^ -(v & 1);
+            }
+            return values;
+        }// getInts()
+
+        /**
+         * Values of the named String column; values may be null.
+         */
+        public String[] getStrings(String column)
+                throws IOException {
+            return getStrings(getIndex(column));
+        }// getStrings()
+
+        /**
+         * Values of the String column at the given index; values may be null.
+         * Equal values in a block are the same String instance.
+         */
+        public String[] getStrings(int column)
+                throws IOException {
+            if (table.isIntColumn(column)) {
+                throw new IllegalArgumentException("not a String column: " + table.getColumnNames()[column]);
+            }
+
+            final DataInputStream dis = inflate(column);
+            final String[] dictionary = new String[readVarInt(dis) + 1];
+            for (int i = 1; i < dictionary.length; i++) {
+                final byte[] utf = new byte[readVarInt(dis)];
+                dis.readFully(utf);
+                dictionary[i] = new String(utf, StandardCharsets.UTF_8);
+            }
+
+            final String[] values = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                final int code = readVarInt(dis);
+                if (code >= dictionary.length) {
+                    throw new IOException("bad dictionary code: " + code);
+                }
+                values[i] = dictionary[code];
+            }
+            return values;
+        }// getStrings()
+
+        private int getIndex(String column) {
+            final int index = table.getColumnIndex(column);
+            if (index < 0) {
+                throw new IllegalArgumentException("no column " + column + " in " + table);
+            }
+            return index;
+        }// getIndex()
+
+        private DataInputStream inflate(int column) {
+            return new DataInputStream(new BufferedInputStream(
+                    new InflaterInputStream(new ByteArrayInputStream(data[column])), 8192));
+        }// inflate()
+    }// nested class Block
+
+}// class ColumnarArchiveReader
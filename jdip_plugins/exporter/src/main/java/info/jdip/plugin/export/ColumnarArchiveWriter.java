@@ -0,0 +1,340 @@
+//
+//  @(#)ColumnarArchiveWriter.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.plugin.export;
+
+import info.jdip.order.Orderable;
+import info.jdip.order.result.OrderResult;
+import info.jdip.order.result.Result;
+import info.jdip.plugin.export.ColumnarArchive.Table;
+import info.jdip.plugin.export.ColumnarArchive.TableBuffer;
+import info.jdip.world.Phase;
+import info.jdip.world.Position;
+import info.jdip.world.Power;
+import info.jdip.world.Province;
+import info.jdip.world.TurnState;
+import info.jdip.world.Unit;
+import info.jdip.world.World;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static info.jdip.plugin.export.ColumnarArchive.readVarInt;
+import static info.jdip.plugin.export.ColumnarArchive.writeVarInt;
+
+
+/**
+ * Writes game histories to a columnar archive (see {@link ColumnarArchive}).
+ * <p>
+ * Rows are buffered by table, and written as a block before a table would
+ * have more than {@link #ROWS_PER_BLOCK} rows (or when the writer is closed). If the
+ * archive file already exists, blocks are appended to it. The existing
+ * blocks are checked first; an incomplete last block (as left by an
+ * interrupted export) is removed, and other damage is an error.
+ * <p>
+ * Rows for a game may be created (by {@link #createRows(World, String)}) on
+ * any thread; adding them to the writer must be done on one thread at a time.
+ */
+public class ColumnarArchiveWriter implements Closeable {
+    /**
+     * Maximum number of rows in a block, unless a single game has more
+     * rows in a table
+     */
+    public static final int ROWS_PER_BLOCK = 65536;
+
+    private static final int VALUE_TRUE = 1;
+    private static final int VALUE_FALSE = 0;
+
+    private final DataOutputStream out;
+    private final TableBuffer[] buffers;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final long truncatedLength;
+    private byte[] deflateBuffer = new byte[65536];
+
+    /**
+     * Create (or append to) the archive file.
+     */
+    public ColumnarArchiveWriter(File file)
+            throws IOException {
+        final boolean isNew = !file.exists() || file.length() == 0;
+        if (isNew) {
+            truncatedLength = 0;
+        } else {
+            // remove an incomplete last block, if any
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                final long length = checkArchive(raf, file);
+                truncatedLength = raf.length() - length;
+                raf.setLength(length);
+            }
+        }
+
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true), 65536));
+        if (isNew) {
+            out.write(ColumnarArchive.MAGIC);
+            out.writeInt(ColumnarArchive.VERSION);
+        }
+
+        final Table[] tables = Table.values();
+        buffers = new TableBuffer[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            buffers[i] = new TableBuffer(tables[i]);
+        }
+    }// ColumnarArchiveWriter()
+
+
+    /**
+     * Number of bytes (of an incomplete last block) removed from the end of
+     * an existing archive; 0 if none.
+     */
+    public long getTruncatedLength() {
+        return truncatedLength;
+    }// getTruncatedLength()
+
+
+    /**
+     * Add the entire history of a game.
+     */
+    public void add(World world, String gameName)
+            throws IOException {
+        add(createRows(world, gameName));
+    }// add()
+
+
+    /**
+     * Add rows created by createRows().
+     */
+    void add(TableBuffer[] rows)
+            throws IOException {
+        for (TableBuffer tb : rows) {
+            final TableBuffer buffer = buffers[tb.getTable().ordinal()];
+            if (buffer.size() > 0 && buffer.size() + tb.size() > ROWS_PER_BLOCK) {
+                writeBlock(buffer);
+            }
+
+            buffer.addAll(tb);
+            if (buffer.size() >= ROWS_PER_BLOCK) {
+                writeBlock(buffer);
+            }
+        }
+    }// add()
+
+
+    /**
+     * Write all buffered rows, and close the archive.
+     */
+    public void close()
+            throws IOException {
+        try {
+            for (TableBuffer buffer : buffers) {
+                if (buffer.size() > 0) {
+                    writeBlock(buffer);
+                }
+            }
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }// close()
+
+
+    /**
+     * Create the rows, for each table, for the entire history of a game.
+     * Tables are indexed by Table ordinal. This may be called from any thread.
+     */
+    static TableBuffer[] createRows(World world, String gameName) {
+        final Table[] tables = Table.values();
+        final TableBuffer[] rows = new TableBuffer[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            rows[i] = new TableBuffer(tables[i]);
+        }
+
+        final TableBuffer units = rows[Table.UNITS.ordinal()];
+        final TableBuffer orders = rows[Table.ORDERS.ordinal()];
+        final TableBuffer results = rows[Table.RESULTS.ordinal()];
+        final TableBuffer supplyCenters = rows[Table.SUPPLY_CENTERS.ordinal()];
+
+        for (Phase phase : world.getPhaseSet()) {
+            final TurnState ts = world.getTurnState(phase);
+            final String phaseName = phase.getBriefName();
+            final Position pos = ts.getPosition();
+
+            for (Province province : pos.getProvinces()) {
+                if (pos.hasUnit(province)) {
+                    addUnit(units, gameName, phaseName, province, pos.getUnit(province), VALUE_FALSE);
+                }
+
+                if (pos.hasDislodgedUnit(province)) {
+                    addUnit(units, gameName, phaseName, province, pos.getDislodgedUnit(province), VALUE_TRUE);
+                }
+
+                if (province.hasSupplyCenter()) {
+                    supplyCenters.add(gameName, phaseName, province.getShortName(),
+                            getName(pos.getSupplyCenterOwner(province)),
+                            getName(pos.getSupplyCenterHomePower(province)));
+                }
+            }
+
+            // orders are numbered within the phase, so results can refer to them
+            final List<Orderable> orderList = ts.getAllOrders();
+            final IdentityHashMap<Orderable, Integer> orderIDs = new IdentityHashMap<>(orderList.size() * 2);
+            for (Orderable order : orderList) {
+                final Integer id = orderIDs.size();
+                orderIDs.put(order, id);
+                orders.add(gameName, phaseName, id, getName(order.getPower()),
+                        order.getSource().getProvince().getShortName(),
+                        order.getFullName(), order.toBriefString());
+            }
+
+            for (Result result : ts.getResultList()) {
+                Integer id = null;
+                String type = null;
+                if (result instanceof OrderResult) {
+                    final OrderResult or = (OrderResult) result;
+                    id = orderIDs.get(or.getOrder());
+                    type = or.getResultType().toString();
+                }
+
+                results.add(gameName, phaseName, getName(result.getPower()),
+                        (id == null) ? -1 : id, type, result.getMessage());
+            }
+        }
+
+        return rows;
+    }// createRows()
+
+
+    private static void addUnit(TableBuffer units, String gameName, String phaseName,
+                                Province province, Unit unit, int dislodged) {
+        units.add(gameName, phaseName, getName(unit.getPower()), unit.getType().getShortName(),
+                province.getShortName(), unit.getCoast().getAbbreviation(), dislodged);
+    }// addUnit()
+
+    private static String getName(Power power) {
+        return (power == null) ? null : power.getName();
+    }// getName()
+
+
+    /**
+     * Write the buffered rows of a table as a block, and clear the buffer.
+     */
+    private void writeBlock(TableBuffer buffer)
+            throws IOException {
+        final Table table = buffer.getTable();
+        out.writeByte(table.ordinal());
+        writeVarInt(out, buffer.size());
+        writeVarInt(out, table.getColumnCount());
+
+        for (int i = 0; i < table.getColumnCount(); i++) {
+            final byte[] data = buffer.encodeColumn(i);
+
+            deflater.reset();
+            deflater.setInput(data);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == deflateBuffer.length) {
+                    deflateBuffer = Arrays.copyOf(deflateBuffer, deflateBuffer.length * 2);
+                }
+                length += deflater.deflate(deflateBuffer, length, deflateBuffer.length - length);
+            }
+
+            out.writeByte(table.getColumnType(i));
+            writeVarInt(out, length);
+            out.write(deflateBuffer, 0, length);
+        }
+
+        buffer.clear();
+    }// writeBlock()
+
+
+    /**
+     * Ensure an existing file is an archive of a version we can append to,
+     * and that its blocks are intact. Returns the length of the archive up
+     * to the end of the last complete block.
+     */
+    private static long checkArchive(RandomAccessFile raf, File file)
+            throws IOException {
+        final long length = raf.length();
+        final byte[] magic = new byte[ColumnarArchive.MAGIC.length];
+        try {
+            raf.readFully(magic);
+        } catch (EOFException e) {
+            throw new IOException("not a columnar archive: " + file, e);
+        }
+        if (!Arrays.equals(magic, ColumnarArchive.MAGIC)) {
+            throw new IOException("not a columnar archive: " + file);
+        }
+
+        final int version = raf.readInt();
+        if (version != ColumnarArchive.VERSION) {
+            throw new IOException("cannot append to archive version " + version + ": " + file);
+        }
+
+        // only block and column headers are read; column data is skipped
+        final Table[] tables = Table.values();
+        long end = raf.getFilePointer();
+        try {
+            while (end < length) {
+                final int tableIndex = raf.readUnsignedByte();
+                if (tableIndex >= tables.length) {
+                    throw new IOException("damaged archive (unknown table at " + end + "): " + file);
+                }
+
+                final Table table = tables[tableIndex];
+                readVarInt(raf);
+                if (readVarInt(raf) != table.getColumnCount()) {
+                    throw new IOException("damaged archive (bad column count at " + end + "): " + file);
+                }
+
+                for (int i = 0; i < table.getColumnCount(); i++) {
+                    if (raf.readByte() != table.getColumnType(i)) {
+                        throw new IOException("damaged archive (bad column type at " + end + "): " + file);
+                    }
+
+                    final int dataLength = readVarInt(raf);
+                    if (dataLength < 0) {
+                        throw new IOException("damaged archive (bad column length at " + end + "): " + file);
+                    }
+
+                    final long dataEnd = raf.getFilePointer() + dataLength;
+                    if (dataEnd > length) {
+                        throw new EOFException();
+                    }
+                    raf.seek(dataEnd);
+                }
+
+                end = raf.getFilePointer();
+            }
+        } catch (EOFException e) {
+            // the last block is incomplete
+        }
+
+        return end;
+    }// checkArchive()
+
+}// class ColumnarArchiveWriter
@@ -28,18 +28,21 @@ import info.jdip.gui.swing.XJFileChooser;
 import info.jdip.tool.Tool;
 import info.jdip.tool.ToolProxy;
 import info.jdip.world.TurnState;
+import info.jdip.world.World;
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
-import java.util.List;
 
 
 public class Exporter implements Tool {
@@ -129,9 +132,7 @@ public class Exporter implements Tool {
                 File file = xjfc.displaySaveAs(clientFrame);
                 XJFileChooser.dispose();
                 if (file != null) {
-                    List<TurnState> tsList = clientFrame.getWorld().getAllTurnStates();
-                    TurnState[] ts = tsList.toArray(new TurnState[0]);
-                    exportToFile(file, ts);
+                    exportHistoryToFile(file, clientFrame.getWorld());
                 }
             }
         });
@@ -191,4 +192,16 @@ public class Exporter implements Tool {
     }// exportToFile()
 
 
+    /**
+     * Export the entire game history as a file
+     */
+    private void exportHistoryToFile(File file, World world) {
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(file))) {
+            XMLHistoryWriter.write(world, world.getGameMetadata().getGameName(), os);
+        } catch (IOException e) {
+            ErrorDialog.displayFileIO(clientFrame, e, file.toString());
+        }
+    }// exportHistoryToFile()
+
+
 }// interface Tool
@@ -0,0 +1,435 @@
+//
+//  @(#)XMLHistoryReader.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.plugin.export;
+
+import info.jdip.world.Phase;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static info.jdip.plugin.export.XMLHistoryWriter.*;
+
+
+/**
+ * Reads a game history written by {@link XMLHistoryWriter}, one phase at
+ * a time.
+ * <p>
+ * Only the phase currently being read is held in memory, so arbitrarily
+ * large histories may be processed. Records contain names (as written),
+ * not live World objects, so no Variant need be loaded to read a history.
+ * <p>
+ * Usage:
+ * <pre>
+ * try (XMLHistoryReader reader = new XMLHistoryReader(in)) {
+ *     XMLHistoryReader.PhaseRecord phase = reader.next();
+ *     while (phase != null) {
+ *         ...
+ *         phase = reader.next();
+ *     }
+ * }
+ * </pre>
+ */
+public class XMLHistoryReader implements Closeable {
+    private final XMLStreamReader xsr;
+    private final String gameName;
+    private final String variantName;
+    private final String version;
+
+    /**
+     * Create an XMLHistoryReader. The history header is read immediately.
+     */
+    public XMLHistoryReader(InputStream in)
+            throws IOException {
+        try {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+            xsr = factory.createXMLStreamReader(in);
+
+            xsr.nextTag();
+            xsr.require(XMLStreamConstants.START_ELEMENT, null, EL_HISTORY);
+            gameName = xsr.getAttributeValue(null, ATT_GAME);
+            variantName = xsr.getAttributeValue(null, ATT_VARIANT);
+            version = xsr.getAttributeValue(null, ATT_VERSION);
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }// XMLHistoryReader()
+
+
+    /**
+     * The game name, or null if none was written
+     */
+    public String getGameName() {
+        return gameName;
+    }// getGameName()
+
+    /**
+     * The variant name, or null if none was written
+     */
+    public String getVariantName() {
+        return variantName;
+    }// getVariantName()
+
+    /**
+     * The format version
+     */
+    public String getVersion() {
+        return version;
+    }// getVersion()
+
+
+    /**
+     * Reads the next phase; returns null when no phases remain.
+     */
+    public PhaseRecord next()
+            throws IOException {
+        try {
+            if (xsr.nextTag() == XMLStreamConstants.END_ELEMENT) {
+                xsr.require(XMLStreamConstants.END_ELEMENT, null, EL_HISTORY);
+                return null;
+            }
+
+            xsr.require(XMLStreamConstants.START_ELEMENT, null, EL_PHASE);
+            final PhaseRecord pr = new PhaseRecord(
+                    xsr.getAttributeValue(null, ATT_NAME),
+                    Boolean.parseBoolean(xsr.getAttributeValue(null, ATT_RESOLVED)),
+                    Boolean.parseBoolean(xsr.getAttributeValue(null, ATT_ENDED)));
+
+            while (xsr.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                final String section = xsr.getLocalName();
+                while (xsr.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    readElement(section, pr);
+                }
+            }
+
+            xsr.require(XMLStreamConstants.END_ELEMENT, null, EL_PHASE);
+            return pr;
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }// next()
+
+
+    /**
+     * Read an element within a phase section; the reader is left on its end tag.
+     */
+    private void readElement(String section, PhaseRecord pr)
+            throws XMLStreamException {
+        final String name = xsr.getLocalName();
+
+        if (EL_UNITS.equals(section) && EL_UNIT.equals(name)) {
+            pr.units.add(new UnitRecord(
+                    xsr.getAttributeValue(null, ATT_POWER),
+                    xsr.getAttributeValue(null, ATT_TYPE),
+                    xsr.getAttributeValue(null, ATT_PROVINCE),
+                    xsr.getAttributeValue(null, ATT_COAST),
+                    Boolean.parseBoolean(xsr.getAttributeValue(null, ATT_DISLODGED))));
+            // any content is from a later version
+            skipElement();
+        } else if (EL_SUPPLY_CENTERS.equals(section) && EL_SC.equals(name)) {
+            pr.supplyCenters.add(new SupplyCenterRecord(
+                    xsr.getAttributeValue(null, ATT_PROVINCE),
+                    xsr.getAttributeValue(null, ATT_OWNER),
+                    xsr.getAttributeValue(null, ATT_HOME)));
+            skipElement();
+        } else if (EL_ORDERS.equals(section) && EL_ORDER.equals(name)) {
+            final int id = Integer.parseInt(xsr.getAttributeValue(null, ATT_ID));
+            final String power = xsr.getAttributeValue(null, ATT_POWER);
+            final String source = xsr.getAttributeValue(null, ATT_SOURCE);
+            pr.orders.add(new OrderRecord(id, power, source, xsr.getElementText()));
+        } else if (EL_RESULTS.equals(section) && EL_RESULT.equals(name)) {
+            final String power = xsr.getAttributeValue(null, ATT_POWER);
+            final String type = xsr.getAttributeValue(null, ATT_TYPE);
+            final String order = xsr.getAttributeValue(null, ATT_ORDER);
+            pr.results.add(new ResultRecord(power, type,
+                    (order == null) ? -1 : Integer.parseInt(order),
+                    xsr.getElementText()));
+        } else {
+            // unknown element (from a later version); skip it
+            skipElement();
+        }
+    }// readElement()
+
+
+    /**
+     * Skip the current element, and any content; the reader is left on its end tag.
+     */
+    private void skipElement()
+            throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = xsr.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }// skipElement()
+
+
+    /**
+     * Closes the reader. The underlying stream is not closed.
+     */
+    public void close()
+            throws IOException {
+        try {
+            xsr.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }// close()
+
+
+    /**
+     * A single phase of the history
+     */
+    public static class PhaseRecord {
+        private final String name;
+        private final boolean isResolved;
+        private final boolean isEnded;
+        private final List<UnitRecord> units = new ArrayList<>(64);
+        private final List<SupplyCenterRecord> supplyCenters = new ArrayList<>(64);
+        private final List<OrderRecord> orders = new ArrayList<>(64);
+        private final List<ResultRecord> results = new ArrayList<>(128);
+
+        private PhaseRecord(String name, boolean isResolved, boolean isEnded) {
+            this.name = name;
+            this.isResolved = isResolved;
+            this.isEnded = isEnded;
+        }// PhaseRecord()
+
+        /**
+         * The brief phase name (e.g., "S1901M")
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * The Phase, or null if the name cannot be parsed
+         */
+        public Phase getPhase() {
+            return Phase.parse(name);
+        }
+
+        public boolean isResolved() {
+            return isResolved;
+        }
+
+        public boolean isEnded() {
+            return isEnded;
+        }
+
+        /**
+         * Units, including dislodged units
+         */
+        public List<UnitRecord> getUnits() {
+            return Collections.unmodifiableList(units);
+        }
+
+        public List<SupplyCenterRecord> getSupplyCenters() {
+            return Collections.unmodifiableList(supplyCenters);
+        }
+
+        public List<OrderRecord> getOrders() {
+            return Collections.unmodifiableList(orders);
+        }
+
+        public List<ResultRecord> getResults() {
+            return Collections.unmodifiableList(results);
+        }
+    }// nested class PhaseRecord
+
+
+    /**
+     * A unit (or dislodged unit)
+     */
+    public static class UnitRecord {
+        private final String power;
+        private final String type;
+        private final String province;
+        private final String coast;
+        private final boolean isDislodged;
+
+        private UnitRecord(String power, String type, String province, String coast, boolean isDislodged) {
+            this.power = power;
+            this.type = type;
+            this.province = province;
+            this.coast = coast;
+            this.isDislodged = isDislodged;
+        }// UnitRecord()
+
+        public String getPower() {
+            return power;
+        }
+
+        /**
+         * The short unit type name (e.g., "A")
+         */
+        public String getType() {
+            return type;
+        }
+
+        public String getProvince() {
+            return province;
+        }
+
+        /**
+         * The coast abbreviation (e.g., "mv")
+         */
+        public String getCoast() {
+            return coast;
+        }
+
+        public boolean isDislodged() {
+            return isDislodged;
+        }
+    }// nested class UnitRecord
+
+
+    /**
+     * A supply center
+     */
+    public static class SupplyCenterRecord {
+        private final String province;
+        private final String owner;
+        private final String home;
+
+        private SupplyCenterRecord(String province, String owner, String home) {
+            this.province = province;
+            this.owner = owner;
+            this.home = home;
+        }// SupplyCenterRecord()
+
+        public String getProvince() {
+            return province;
+        }
+
+        /**
+         * The owning power, or null if unowned
+         */
+        public String getOwner() {
+            return owner;
+        }
+
+        /**
+         * The power for which this is a home supply center, or null
+         */
+        public String getHome() {
+            return home;
+        }
+    }// nested class SupplyCenterRecord
+
+
+    /**
+     * An order
+     */
+    public static class OrderRecord {
+        private final int id;
+        private final String power;
+        private final String source;
+        private final String text;
+
+        private OrderRecord(int id, String power, String source, String text) {
+            this.id = id;
+            this.power = power;
+            this.source = source;
+            this.text = text;
+        }// OrderRecord()
+
+        /**
+         * The order id; unique within a phase
+         */
+        public int getID() {
+            return id;
+        }
+
+        public String getPower() {
+            return power;
+        }
+
+        /**
+         * The source province
+         */
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * The order, in brief format (e.g., "A vie-bud")
+         */
+        public String getText() {
+            return text;
+        }
+    }// nested class OrderRecord
+
+
+    /**
+     * A result
+     */
+    public static class ResultRecord {
+        private final String power;
+        private final String type;
+        private final int orderID;
+        private final String message;
+
+        private ResultRecord(String power, String type, int orderID, String message) {
+            this.power = power;
+            this.type = type;
+            this.orderID = orderID;
+            this.message = message;
+        }// ResultRecord()
+
+        /**
+         * The power, or null for general results
+         */
+        public String getPower() {
+            return power;
+        }
+
+        /**
+         * The order result type (e.g., "SUCCESS"), or null if not an order result
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * The id of the order this result refers to, or -1 if none
+         */
+        public int getOrderID() {
+            return orderID;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }// nested class ResultRecord
+
+}// class XMLHistoryReader
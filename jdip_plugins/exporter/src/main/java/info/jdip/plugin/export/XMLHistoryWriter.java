@@ -0,0 +1,278 @@
+//
+//  @(#)XMLHistoryWriter.java
+//
+//  This program is free software; you can redistribute it and/or modify
+//  it under the terms of the GNU General Public License as published by
+//  the Free Software Foundation; either version 2 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU General Public License for more details.
+//
+//  You should have received a copy of the GNU General Public License
+//  along with this program; if not, write to the Free Software
+//  Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+//  Or from http://www.gnu.org/
+//
+package info.jdip.plugin.export;
+
+import info.jdip.order.Orderable;
+import info.jdip.order.result.OrderResult;
+import info.jdip.order.result.Result;
+import info.jdip.world.Phase;
+import info.jdip.world.Position;
+import info.jdip.world.Power;
+import info.jdip.world.Province;
+import info.jdip.world.TurnState;
+import info.jdip.world.Unit;
+import info.jdip.world.World;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+
+/**
+ * Writes the entire history of a World (every phase: positions, orders,
+ * and results) as XML.
+ * <p>
+ * The XML is written directly to the stream, one phase at a time; the
+ * document is never built in memory. The format is:
+ * <pre>
+ * &lt;history game="..." variant="..." version="1"&gt;
+ *   &lt;phase name="S1901M" resolved="true" ended="false"&gt;
+ *     &lt;units&gt;
+ *       &lt;unit power="Austria" type="A" province="vie" coast="mv"/&gt;
+ *       &lt;unit ... dislodged="true"/&gt;
+ *     &lt;/units&gt;
+ *     &lt;supplyCenters&gt;
+ *       &lt;sc province="vie" owner="Austria" home="Austria"/&gt;
+ *     &lt;/supplyCenters&gt;
+ *     &lt;orders&gt;
+ *       &lt;order id="0" power="Austria" source="vie"&gt;A vie-bud&lt;/order&gt;
+ *     &lt;/orders&gt;
+ *     &lt;results&gt;
+ *       &lt;result power="Austria" type="SUCCESS" order="0"&gt;message&lt;/result&gt;
+ *     &lt;/results&gt;
+ *   &lt;/phase&gt;
+ * &lt;/history&gt;
+ * </pre>
+ * Attributes which do not apply (an unowned supply center, a result without
+ * a power or order) are omitted. {@link XMLHistoryReader} reads this format.
+ */
+public class XMLHistoryWriter {
+    /**
+     * Format version
+     */
+    public static final String VERSION = "1";
+
+    // element and attribute names; shared with XMLHistoryReader
+    static final String EL_HISTORY = "history";
+    static final String EL_PHASE = "phase";
+    static final String EL_UNITS = "units";
+    static final String EL_UNIT = "unit";
+    static final String EL_SUPPLY_CENTERS = "supplyCenters";
+    static final String EL_SC = "sc";
+    static final String EL_ORDERS = "orders";
+    static final String EL_ORDER = "order";
+    static final String EL_RESULTS = "results";
+    static final String EL_RESULT = "result";
+
+    static final String ATT_GAME = "game";
+    static final String ATT_VARIANT = "variant";
+    static final String ATT_VERSION = "version";
+    static final String ATT_NAME = "name";
+    static final String ATT_RESOLVED = "resolved";
+    static final String ATT_ENDED = "ended";
+    static final String ATT_POWER = "power";
+    static final String ATT_TYPE = "type";
+    static final String ATT_PROVINCE = "province";
+    static final String ATT_COAST = "coast";
+    static final String ATT_DISLODGED = "dislodged";
+    static final String ATT_OWNER = "owner";
+    static final String ATT_HOME = "home";
+    static final String ATT_ID = "id";
+    static final String ATT_SOURCE = "source";
+    static final String ATT_ORDER = "order";
+
+    private static final String ENCODING = "UTF-8";
+
+    private final XMLStreamWriter xsw;
+
+    private XMLHistoryWriter(XMLStreamWriter xsw) {
+        this.xsw = xsw;
+    }// XMLHistoryWriter()
+
+
+    /**
+     * Write the entire history of the given World to the OutputStream,
+     * as UTF-8 encoded XML. The stream is flushed, but not closed.
+     */
+    public static void write(World world, String gameName, OutputStream out)
+            throws IOException {
+        try {
+            XMLStreamWriter xsw = XMLOutputFactory.newInstance().createXMLStreamWriter(out, ENCODING);
+            new XMLHistoryWriter(xsw).writeHistory(world, gameName);
+            xsw.flush();
+            xsw.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+
+        out.flush();
+    }// write()
+
+
+    private void writeHistory(World world, String gameName)
+            throws XMLStreamException {
+        xsw.writeStartDocument(ENCODING, "1.0");
+        xsw.writeCharacters("\n");
+        xsw.writeStartElement(EL_HISTORY);
+        writeAttribute(ATT_GAME, gameName);
+        writeAttribute(ATT_VARIANT, world.getVariantInfo().getVariantName());
+        xsw.writeAttribute(ATT_VERSION, VERSION);
+        xsw.writeCharacters("\n");
+
+        for (Phase phase : world.getPhaseSet()) {
+            writePhase(world.getTurnState(phase));
+        }
+
+        xsw.writeEndElement();
+        xsw.writeCharacters("\n");
+        xsw.writeEndDocument();
+    }// writeHistory()
+
+
+    private void writePhase(TurnState ts)
+            throws XMLStreamException {
+        xsw.writeStartElement(EL_PHASE);
+        xsw.writeAttribute(ATT_NAME, ts.getPhase().getBriefName());
+        xsw.writeAttribute(ATT_RESOLVED, String.valueOf(ts.isResolved()));
+        xsw.writeAttribute(ATT_ENDED, String.valueOf(ts.isEnded()));
+        xsw.writeCharacters("\n");
+
+        final Position pos = ts.getPosition();
+        final Province[] provinces = pos.getProvinces();
+
+        // units
+        xsw.writeStartElement(EL_UNITS);
+        xsw.writeCharacters("\n");
+        for (Province province : provinces) {
+            if (pos.hasUnit(province)) {
+                writeUnit(province, pos.getUnit(province), false);
+            }
+
+            if (pos.hasDislodgedUnit(province)) {
+                writeUnit(province, pos.getDislodgedUnit(province), true);
+            }
+        }
+        xsw.writeEndElement();
+        xsw.writeCharacters("\n");
+
+        // supply centers
+        xsw.writeStartElement(EL_SUPPLY_CENTERS);
+        xsw.writeCharacters("\n");
+        for (Province province : provinces) {
+            if (province.hasSupplyCenter()) {
+                xsw.writeEmptyElement(EL_SC);
+                xsw.writeAttribute(ATT_PROVINCE, province.getShortName());
+                writePowerAttribute(ATT_OWNER, pos.getSupplyCenterOwner(province));
+                writePowerAttribute(ATT_HOME, pos.getSupplyCenterHomePower(province));
+                xsw.writeCharacters("\n");
+            }
+        }
+        xsw.writeEndElement();
+        xsw.writeCharacters("\n");
+
+        // orders; ids are assigned in order, so that results may refer to them
+        final List<Orderable> orders = ts.getAllOrders();
+        final IdentityHashMap<Orderable, Integer> orderIDs = new IdentityHashMap<>(orders.size() * 2);
+
+        xsw.writeStartElement(EL_ORDERS);
+        xsw.writeCharacters("\n");
+        for (Orderable order : orders) {
+            final Integer id = orderIDs.size();
+            orderIDs.put(order, id);
+
+            xsw.writeStartElement(EL_ORDER);
+            xsw.writeAttribute(ATT_ID, id.toString());
+            writePowerAttribute(ATT_POWER, order.getPower());
+            xsw.writeAttribute(ATT_SOURCE, order.getSource().getProvince().getShortName());
+            xsw.writeCharacters(order.toBriefString());
+            xsw.writeEndElement();
+            xsw.writeCharacters("\n");
+        }
+        xsw.writeEndElement();
+        xsw.writeCharacters("\n");
+
+        // results
+        xsw.writeStartElement(EL_RESULTS);
+        xsw.writeCharacters("\n");
+        for (Result result : ts.getResultList()) {
+            xsw.writeStartElement(EL_RESULT);
+            writePowerAttribute(ATT_POWER, result.getPower());
+
+            if (result instanceof OrderResult) {
+                final OrderResult or = (OrderResult) result;
+                xsw.writeAttribute(ATT_TYPE, or.getResultType().toString());
+
+                final Integer id = orderIDs.get(or.getOrder());
+                if (id != null) {
+                    xsw.writeAttribute(ATT_ORDER, id.toString());
+                }
+            }
+
+            xsw.writeCharacters(result.getMessage());
+            xsw.writeEndElement();
+            xsw.writeCharacters("\n");
+        }
+        xsw.writeEndElement();
+        xsw.writeCharacters("\n");
+
+        xsw.writeEndElement();
+        xsw.writeCharacters("\n");
+    }// writePhase()
+
+
+    private void writeUnit(Province province, Unit unit, boolean isDislodged)
+            throws XMLStreamException {
+        xsw.writeEmptyElement(EL_UNIT);
+        writePowerAttribute(ATT_POWER, unit.getPower());
+        xsw.writeAttribute(ATT_TYPE, unit.getType().getShortName());
+        xsw.writeAttribute(ATT_PROVINCE, province.getShortName());
+        xsw.writeAttribute(ATT_COAST, unit.getCoast().getAbbreviation());
+        if (isDislodged) {
+            xsw.writeAttribute(ATT_DISLODGED, "true");
+        }
+        xsw.writeCharacters("\n");
+    }// writeUnit()
+
+
+    /**
+     * Writes the power name; nothing is written if the power is null.
+     */
+    private void writePowerAttribute(String name, Power power)
+            throws XMLStreamException {
+        if (power != null) {
+            xsw.writeAttribute(name, power.getName());
+        }
+    }// writePowerAttribute()
+
+
+    /**
+     * Writes the attribute; nothing is written if the value is null.
+     */
+    private void writeAttribute(String name, String value)
+            throws XMLStreamException {
+        if (value != null) {
+            xsw.writeAttribute(name, value);
+        }
+    }// writeAttribute()
+
+}// class XMLHistoryWriter
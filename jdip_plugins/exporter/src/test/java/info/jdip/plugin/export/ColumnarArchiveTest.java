@@ -0,0 +1,418 @@
+package info.jdip.plugin.export;
+
+import info.jdip.judge.parser.JudgeImport;
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.order.OrderFactory;
+import info.jdip.order.Orderable;
+import info.jdip.order.result.OrderResult;
+import info.jdip.order.result.Result;
+import info.jdip.plugin.export.ColumnarArchive.Table;
+import info.jdip.process.StdAdjudicator;
+import info.jdip.world.Phase;
+import info.jdip.world.Position;
+import info.jdip.world.Power;
+import info.jdip.world.Province;
+import info.jdip.world.TurnState;
+import info.jdip.world.Unit;
+import info.jdip.world.World;
+import info.jdip.world.variant.VariantManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes the histories of the DATC case Worlds, and of a game imported from
+ * a judge history, to columnar archives, and checks the rows read back.
+ */
+public class ColumnarArchiveTest {
+    private static final String HISTORY_FILE = "etc/test_data/judge_history.txt";
+    private static final List<World> worlds = new ArrayList<>();
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+
+        for (String caseFile : TestCaseRunner.CASE_FILES) {
+            for (Case testCase : TestCaseRunner.loadCases(caseFile)) {
+                StdAdjudicator stdJudge = TestCaseRunner.adjudicate(testCase, null);
+                if (stdJudge.getNextTurnState() != null) {
+                    testCase.getWorld().setTurnState(stdJudge.getNextTurnState());
+                }
+                worlds.add(testCase.getWorld());
+            }
+        }
+
+        try (Reader reader = new FileReader(HISTORY_FILE)) {
+            worlds.add(new JudgeImport(OrderFactory.getDefault(), reader, null).getWorld());
+        }
+    }
+
+    @Test
+    @DisplayName("Every table reads back as written")
+    public void roundTrip() throws Exception {
+        File file = createTempFile();
+        Map<Table, List<String>> expected = createTables();
+
+        // enough supply center rows for several blocks
+        try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file)) {
+            for (int pass = 0; pass < 3; pass++) {
+                for (int i = 0; i < worlds.size(); i++) {
+                    String gameName = "game " + pass + "/" + i;
+                    writer.add(worlds.get(i), gameName);
+                    addRows(expected, worlds.get(i), gameName);
+                }
+            }
+        }
+        assertTrue(expected.get(Table.SUPPLY_CENTERS).size() > ColumnarArchiveWriter.ROWS_PER_BLOCK,
+                "too few supply center rows: " + expected.get(Table.SUPPLY_CENTERS).size());
+
+        int nBlocks = 0;
+        try (ColumnarArchiveReader reader = new ColumnarArchiveReader(new FileInputStream(file))) {
+            for (ColumnarArchiveReader.Block block = reader.next(); block != null; block = reader.next()) {
+                assertTrue(block.size() <= ColumnarArchiveWriter.ROWS_PER_BLOCK, "block too large: " + block.size());
+                nBlocks++;
+            }
+        }
+        assertTrue(nBlocks > Table.values().length, "too few blocks: " + nBlocks);
+
+        for (Table table : Table.values()) {
+            assertTrue(expected.get(table).size() > 1000, table + ": too few rows: " + expected.get(table).size());
+        }
+        assertEquals(expected, readTables(file));
+    }
+
+    @Test
+    @DisplayName("Games are appended to an existing archive")
+    public void append() throws Exception {
+        File file = createTempFile();
+        Map<Table, List<String>> expected = createTables();
+        int half = worlds.size() / 2;
+
+        write(file, expected, 0, half);
+        long length = file.length();
+        try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file)) {
+            assertEquals(0L, writer.getTruncatedLength());
+            assertEquals(length, file.length());
+        }
+        write(file, expected, half, worlds.size());
+
+        assertEquals(expected, readTables(file));
+    }
+
+    @Test
+    @DisplayName("An incomplete last block is removed before appending")
+    public void appendAfterTruncation() throws Exception {
+        File file = createTempFile();
+        write(file, createTables(), 0, 10);
+        long length = file.length();
+        write(file, createTables(), 10, 20);
+        byte[] bytes = readBytes(file);
+        List<Long> blockEnds = getBlockEnds(bytes);
+        assertEquals(Long.valueOf(bytes.length), blockEnds.get(blockEnds.size() - 1));
+
+        List<Long> cuts = new ArrayList<>();
+        for (long cut : new long[]{length + 1, length + 2, length + 5, (length + bytes.length) / 2}) {
+            cuts.add(cut);
+        }
+        for (long blockEnd : blockEnds) {
+            if (blockEnd > length) {
+                cuts.add(blockEnd - 1);
+            }
+        }
+
+        for (long cut : cuts) {
+            // the archive as it was after the last complete block
+            long complete = 0;
+            for (long blockEnd : blockEnds) {
+                complete = (blockEnd <= cut) ? blockEnd : complete;
+            }
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(bytes, 0, (int) complete);
+            }
+            Map<Table, List<String>> expected = readTables(file);
+
+            // an export interrupted while writing a block
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(bytes, 0, (int) cut);
+            }
+
+            try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file)) {
+                assertEquals(cut - complete, writer.getTruncatedLength(), "cut at " + cut);
+                assertEquals(complete, file.length(), "cut at " + cut);
+                writer.add(worlds.get(20), "game 20");
+                addRows(expected, worlds.get(20), "game 20");
+            }
+            assertEquals(expected, readTables(file), "cut at " + cut);
+        }
+    }
+
+    @Test
+    @DisplayName("Selected columns are read")
+    public void selectedColumns() throws Exception {
+        File file = createTempFile();
+        Map<Table, List<String>> expected = createTables();
+        write(file, expected, 0, worlds.size());
+
+        List<String> phases = new ArrayList<>();
+        List<String> orderIDs = new ArrayList<>();
+        List<String> messages = new ArrayList<>();
+        try (ColumnarArchiveReader reader = new ColumnarArchiveReader(new FileInputStream(file))) {
+            ColumnarArchiveReader.Block next = reader.next();
+            while (next != null) {
+                final ColumnarArchiveReader.Block block = next;
+                if (block.getTable() == Table.ORDERS) {
+                    for (String phase : block.getStrings("phase")) {
+                        phases.add(phase);
+                    }
+                    for (int id : block.getInts(Table.ORDERS.getColumnIndex("order"))) {
+                        orderIDs.add(String.valueOf(id));
+                    }
+                    assertThrows(IllegalArgumentException.class, () -> block.getInts("text"));
+                    assertThrows(IllegalArgumentException.class, () -> block.getStrings("order"));
+                    assertThrows(IllegalArgumentException.class, () -> block.getStrings("message"));
+                } else if (block.getTable() == Table.RESULTS) {
+                    for (String message : block.getStrings("message")) {
+                        messages.add(message);
+                    }
+                }
+                next = reader.next();
+            }
+        }
+
+        assertEquals(getColumn(expected, Table.ORDERS, "phase"), phases);
+        assertEquals(getColumn(expected, Table.ORDERS, "order"), orderIDs);
+        assertEquals(getColumn(expected, Table.RESULTS, "message"), messages);
+    }
+
+    @Test
+    @DisplayName("Other files, and other versions, are neither read nor appended to")
+    public void wrongHeader() throws Exception {
+        File file = createTempFile();
+        for (int version : new int[]{ColumnarArchive.VERSION + 1, 0}) {
+            writeHeader(file, ColumnarArchive.MAGIC, version);
+            checkRejected(file);
+        }
+
+        writeHeader(file, new byte[]{'J', 'D', 'C', 'X'}, ColumnarArchive.VERSION);
+        checkRejected(file);
+
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(ColumnarArchive.MAGIC, 0, 2);
+        }
+        checkRejected(file);
+
+        // a damaged block
+        assertTrue(file.delete());
+        write(file, createTables(), 0, 1);
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(Table.values().length);
+            out.write(new byte[16]);
+        }
+        long length = file.length();
+        assertThrows(IOException.class, () -> new ColumnarArchiveWriter(file));
+        assertEquals(length, file.length());
+    }
+
+    /**
+     * Neither the reader nor the writer accept the file, and it is unchanged.
+     */
+    private static void checkRejected(File file) throws IOException {
+        byte[] bytes = readBytes(file);
+        assertThrows(IOException.class, () -> new ColumnarArchiveReader(new FileInputStream(file)).close());
+        assertThrows(IOException.class, () -> new ColumnarArchiveWriter(file).close());
+        assertArrayEquals(bytes, readBytes(file));
+    }
+
+    /**
+     * Write the Worlds from start (inclusive) to end (exclusive), and add
+     * their rows to the expected tables.
+     */
+    private static void write(File file, Map<Table, List<String>> expected, int start, int end)
+            throws IOException {
+        try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file)) {
+            for (int i = start; i < end; i++) {
+                writer.add(worlds.get(i), "game " + i);
+                addRows(expected, worlds.get(i), "game " + i);
+            }
+        }
+    }
+
+    /**
+     * The offsets of the end of the header, and of each block.
+     */
+    private static List<Long> getBlockEnds(byte[] bytes) throws IOException {
+        List<Long> ends = new ArrayList<>();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        in.skipBytes(ColumnarArchive.MAGIC.length + 4);
+        ends.add((long) (bytes.length - in.available()));
+        while (in.available() > 0) {
+            Table table = Table.values()[in.readUnsignedByte()];
+            ColumnarArchive.readVarInt(in);
+            assertEquals(table.getColumnCount(), ColumnarArchive.readVarInt(in));
+            for (int i = 0; i < table.getColumnCount(); i++) {
+                in.readByte();
+                in.skipBytes(ColumnarArchive.readVarInt(in));
+            }
+            ends.add((long) (bytes.length - in.available()));
+        }
+        return ends;
+    }
+
+    /**
+     * Read all rows of all tables; values are separated by '|'.
+     */
+    private static Map<Table, List<String>> readTables(File file) throws IOException {
+        Map<Table, List<String>> tables = createTables();
+        try (ColumnarArchiveReader reader = new ColumnarArchiveReader(new FileInputStream(file))) {
+            for (ColumnarArchiveReader.Block block = reader.next(); block != null; block = reader.next()) {
+                Table table = block.getTable();
+                Object[] columns = new Object[table.getColumnNames().length];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = (table.isIntColumn(i)) ? block.getInts(i) : block.getStrings(i);
+                }
+
+                for (int row = 0; row < block.size(); row++) {
+                    Object[] values = new Object[columns.length];
+                    for (int i = 0; i < columns.length; i++) {
+                        values[i] = (table.isIntColumn(i)) ? ((int[]) columns[i])[row] : ((String[]) columns[i])[row];
+                    }
+                    tables.get(table).add(toRow(values));
+                }
+            }
+            assertNull(reader.next());
+        }
+        return tables;
+    }
+
+    /**
+     * Add the rows for the entire history of a World to the tables.
+     */
+    private static void addRows(Map<Table, List<String>> tables, World world, String game) {
+        for (Phase phase : world.getPhaseSet()) {
+            TurnState turnState = world.getTurnState(phase);
+            String name = phase.getBriefName();
+            Position position = turnState.getPosition();
+
+            for (Province province : position.getProvinces()) {
+                Unit unit = position.getUnit(province);
+                if (unit != null) {
+                    tables.get(Table.UNITS).add(toRow(game, name, getName(unit.getPower()),
+                            unit.getType().getShortName(), province.getShortName(),
+                            unit.getCoast().getAbbreviation(), 0));
+                }
+                unit = position.getDislodgedUnit(province);
+                if (unit != null) {
+                    tables.get(Table.UNITS).add(toRow(game, name, getName(unit.getPower()),
+                            unit.getType().getShortName(), province.getShortName(),
+                            unit.getCoast().getAbbreviation(), 1));
+                }
+                if (province.hasSupplyCenter()) {
+                    tables.get(Table.SUPPLY_CENTERS).add(toRow(game, name, province.getShortName(),
+                            getName(position.getSupplyCenterOwner(province)),
+                            getName(position.getSupplyCenterHomePower(province))));
+                }
+            }
+
+            List<Orderable> orders = turnState.getAllOrders();
+            for (int i = 0; i < orders.size(); i++) {
+                Orderable order = orders.get(i);
+                tables.get(Table.ORDERS).add(toRow(game, name, i, getName(order.getPower()),
+                        order.getSource().getProvince().getShortName(), order.getFullName(),
+                        order.toBriefString()));
+            }
+
+            for (Result result : turnState.getResultList()) {
+                int id = -1;
+                String type = null;
+                if (result instanceof OrderResult) {
+                    for (int i = 0; i < orders.size(); i++) {
+                        if (orders.get(i) == ((OrderResult) result).getOrder()) {
+                            id = i;
+                        }
+                    }
+                    type = ((OrderResult) result).getResultType().toString();
+                }
+                tables.get(Table.RESULTS).add(toRow(game, name, getName(result.getPower()), id, type,
+                        result.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * The values of the named column, from rows of the table
+     */
+    private static List<String> getColumn(Map<Table, List<String>> tables, Table table, String column) {
+        int index = table.getColumnIndex(column);
+        List<String> values = new ArrayList<>();
+        for (String row : tables.get(table)) {
+            values.add(row.split("\\|", table.getColumnNames().length)[index]);
+        }
+        return values;
+    }
+
+    private static Map<Table, List<String>> createTables() {
+        Map<Table, List<String>> tables = new EnumMap<>(Table.class);
+        for (Table table : Table.values()) {
+            tables.put(table, new ArrayList<>());
+        }
+        return tables;
+    }
+
+    private static String toRow(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (Object value : values) {
+            if (sb.length() > 0) {
+                sb.append('|');
+            }
+            sb.append(value);
+        }
+        return sb.toString();
+    }
+
+    private static String getName(Power power) {
+        return (power == null) ? null : power.getName();
+    }
+
+    private static void writeHeader(File file, byte[] magic, int version) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.write(magic);
+            out.writeInt(version);
+        }
+    }
+
+    private static byte[] readBytes(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            byte[] bytes = new byte[(int) raf.length()];
+            raf.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    private static File createTempFile() throws IOException {
+        File file = File.createTempFile("archive", ".jdca");
+        file.deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,250 @@
+package info.jdip.plugin.export;
+
+import info.jdip.judge.parser.JudgeImport;
+import info.jdip.misc.Case;
+import info.jdip.misc.TestCaseRunner;
+import info.jdip.order.OrderFactory;
+import info.jdip.order.Orderable;
+import info.jdip.order.result.OrderResult;
+import info.jdip.order.result.Result;
+import info.jdip.process.StdAdjudicator;
+import info.jdip.world.Phase;
+import info.jdip.world.Position;
+import info.jdip.world.Province;
+import info.jdip.world.TurnState;
+import info.jdip.world.Unit;
+import info.jdip.world.World;
+import info.jdip.world.variant.VariantManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes the history of Worlds with XMLHistoryWriter, reads it back with
+ * XMLHistoryReader, and compares phases, units, supply centers, orders,
+ * and results (and the orders to which results refer) with the World.
+ * <p>
+ * The Worlds are those of the DATC cases (with the adjudicated phase and the
+ * phase which follows it), and a game imported from a judge history.
+ */
+public class XMLHistoryTest {
+    private static final String HISTORY_FILE = "etc/test_data/judge_history.txt";
+    private static final List<World> worlds = new ArrayList<>();
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        VariantManager.init(new File[]{new File("build/tmp/variants")}, false);
+
+        for (String caseFile : TestCaseRunner.CASE_FILES) {
+            for (Case testCase : TestCaseRunner.loadCases(caseFile)) {
+                StdAdjudicator stdJudge = TestCaseRunner.adjudicate(testCase, null);
+                if (stdJudge.getNextTurnState() != null) {
+                    testCase.getWorld().setTurnState(stdJudge.getNextTurnState());
+                }
+                worlds.add(testCase.getWorld());
+            }
+        }
+
+        try (Reader reader = new FileReader(HISTORY_FILE)) {
+            worlds.add(new JudgeImport(OrderFactory.getDefault(), reader, null).getWorld());
+        }
+    }
+
+    @Test
+    @DisplayName("A history reads back as written")
+    public void roundTrip() throws Exception {
+        int nPhases = 0;
+        int nLinked = 0;
+        for (World world : worlds) {
+            assertTrue(world.getPhaseSet().size() > 1);
+            nPhases += world.getPhaseSet().size();
+            nLinked += check(world, "game <&> \"" + nPhases + "\"");
+        }
+        assertTrue(nPhases > 500, "too few phases: " + nPhases);
+        assertTrue(nLinked > 1000, "too few results of orders: " + nLinked);
+    }
+
+    @Test
+    @DisplayName("Missing game names are read back as null")
+    public void noGameName() throws Exception {
+        World world = worlds.get(worlds.size() - 1);
+        check(world, null);
+    }
+
+    @Test
+    @DisplayName("Other documents are not read")
+    public void notHistory() throws Exception {
+        assertThrows(IOException.class, () -> new XMLHistoryReader(stream("<game/>")));
+        assertThrows(IOException.class, () -> new XMLHistoryReader(stream("not xml")));
+
+        // a truncated history
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XMLHistoryWriter.write(worlds.get(0), "truncated", out);
+        byte[] bytes = out.toByteArray();
+        try (XMLHistoryReader reader = new XMLHistoryReader(new ByteArrayInputStream(bytes, 0, bytes.length / 2))) {
+            assertThrows(IOException.class, () -> {
+                while (reader.next() != null) {
+                    // read until the end of the data
+                }
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown elements are skipped")
+    public void unknownElements() throws Exception {
+        String xml = "<history game=\"g\" variant=\"Standard\" version=\"2\">"
+                + "<phase name=\"S1901M\" resolved=\"true\" ended=\"false\">"
+                + "<units><unit power=\"Austria\" type=\"A\" province=\"vie\" coast=\"mv\"><x/></unit>"
+                + "<bonus><y>text</y></bonus></units>"
+                + "<comments><c>a comment</c></comments>"
+                + "</phase></history>";
+        try (XMLHistoryReader reader = new XMLHistoryReader(stream(xml))) {
+            assertEquals("2", reader.getVersion());
+            XMLHistoryReader.PhaseRecord record = reader.next();
+            assertEquals("S1901M", record.getName());
+            assertEquals(1, record.getUnits().size());
+            assertEquals("vie", record.getUnits().get(0).getProvince());
+            assertTrue(record.getOrders().isEmpty());
+            assertNull(reader.next());
+        }
+    }
+
+    /**
+     * Writes and reads the history of the World, and compares it with the
+     * World. Returns the number of results that refer to an order.
+     */
+    private static int check(World world, String gameName) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XMLHistoryWriter.write(world, gameName, out);
+
+        int nLinked = 0;
+        try (XMLHistoryReader reader = new XMLHistoryReader(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(gameName, reader.getGameName());
+            assertEquals(world.getVariantInfo().getVariantName(), reader.getVariantName());
+            assertEquals(XMLHistoryWriter.VERSION, reader.getVersion());
+
+            for (Phase phase : world.getPhaseSet()) {
+                XMLHistoryReader.PhaseRecord record = reader.next();
+                assertEquals(phase.getBriefName(), record.getName());
+                assertEquals(phase, record.getPhase());
+                nLinked += check(world.getTurnState(phase), record);
+            }
+            assertNull(reader.next());
+        }
+        return nLinked;
+    }
+
+    private static int check(TurnState turnState, XMLHistoryReader.PhaseRecord record) {
+        String name = turnState.getPhase().toString();
+        assertEquals(turnState.isResolved(), record.isResolved(), name);
+        assertEquals(turnState.isEnded(), record.isEnded(), name);
+
+        // units and supply centers
+        Position position = turnState.getPosition();
+        List<String> units = new ArrayList<>();
+        List<String> supplyCenters = new ArrayList<>();
+        for (Province province : position.getProvinces()) {
+            if (position.hasUnit(province)) {
+                units.add(describe(province, position.getUnit(province), false));
+            }
+            if (position.hasDislodgedUnit(province)) {
+                units.add(describe(province, position.getDislodgedUnit(province), true));
+            }
+            if (province.hasSupplyCenter()) {
+                supplyCenters.add(province.getShortName() + " " + position.getSupplyCenterOwner(province)
+                        + " " + position.getSupplyCenterHomePower(province));
+            }
+        }
+
+        List<String> readUnits = new ArrayList<>();
+        for (XMLHistoryReader.UnitRecord unit : record.getUnits()) {
+            readUnits.add(unit.getProvince() + " " + unit.getPower() + " " + unit.getType()
+                    + " " + unit.getCoast() + " " + unit.isDislodged());
+        }
+        assertEquals(units, readUnits, name);
+
+        List<String> readSupplyCenters = new ArrayList<>();
+        for (XMLHistoryReader.SupplyCenterRecord sc : record.getSupplyCenters()) {
+            readSupplyCenters.add(sc.getProvince() + " " + sc.getOwner() + " " + sc.getHome());
+        }
+        assertEquals(supplyCenters, readSupplyCenters, name);
+
+        // orders
+        List<Orderable> orders = turnState.getAllOrders();
+        assertEquals(orders.size(), record.getOrders().size(), name);
+        for (int i = 0; i < orders.size(); i++) {
+            Orderable order = orders.get(i);
+            XMLHistoryReader.OrderRecord orderRecord = record.getOrders().get(i);
+            assertEquals(i, orderRecord.getID(), name);
+            assertEquals(order.getPower().getName(), orderRecord.getPower(), name);
+            assertEquals(order.getSource().getProvince().getShortName(), orderRecord.getSource(), name);
+            assertEquals(order.toBriefString(), orderRecord.getText(), name);
+        }
+
+        // results, and the orders to which they refer
+        List<Result> results = turnState.getResultList();
+        assertEquals(results.size(), record.getResults().size(), name);
+        int nLinked = 0;
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            XMLHistoryReader.ResultRecord resultRecord = record.getResults().get(i);
+            String resultName = name + ": " + result.getMessage();
+            assertEquals((result.getPower() == null) ? null : result.getPower().getName(),
+                    resultRecord.getPower(), resultName);
+            assertEquals(result.getMessage(), resultRecord.getMessage(), resultName);
+
+            if (result instanceof OrderResult) {
+                OrderResult orderResult = (OrderResult) result;
+                assertEquals(orderResult.getResultType().toString(), resultRecord.getType(), resultName);
+                int index = indexOf(orders, orderResult.getOrder());
+                assertEquals(index, resultRecord.getOrderID(), resultName);
+                if (index >= 0) {
+                    assertEquals(orderResult.getOrder().toBriefString(),
+                            record.getOrders().get(resultRecord.getOrderID()).getText(), resultName);
+                    nLinked++;
+                }
+            } else {
+                assertNull(resultRecord.getType(), resultName);
+                assertEquals(-1, resultRecord.getOrderID(), resultName);
+            }
+        }
+        return nLinked;
+    }
+
+    private static String describe(Province province, Unit unit, boolean isDislodged) {
+        return province.getShortName() + " " + unit.getPower().getName() + " " + unit.getType().getShortName()
+                + " " + unit.getCoast().getAbbreviation() + " " + isDislodged;
+    }
+
+    /**
+     * The index of the order (by identity), or -1
+     */
+    private static int indexOf(List<Orderable> orders, Orderable order) {
+        for (int i = 0; i < orders.size(); i++) {
+            if (orders.get(i) == order) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -25,12 +25,15 @@ import info.jdip.gui.ClientFrame;
 import info.jdip.gui.dialog.TextViewer;
 import info.jdip.order.OrderFormatOptions;
 import info.jdip.order.Orderable;
-import info.jdip.order.result.OrderResult;
 import info.jdip.order.result.Result;
+import info.jdip.process.AdjudicationMetrics;
+import info.jdip.process.OrderState;
+import info.jdip.process.StdAdjudicator;
 import info.jdip.tool.Tool;
 import info.jdip.tool.ToolProxy;
 import info.jdip.world.Phase;
 import info.jdip.world.Position;
+import info.jdip.world.Power;
 import info.jdip.world.Province;
 import info.jdip.world.TurnState;
 import info.jdip.world.Unit;
@@ -41,7 +44,9 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 
@@ -224,6 +229,16 @@ public class Inspector implements Tool {
             }
         });
 
+        item = new JMenuItem("Show adjudication trace");
+        subMenu.add(item);
+        item.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                if (clientFrame.getWorld() != null) {
+                    displayText(makeAdjudicationTrace());
+                }
+            }
+        });
+
         item = new JMenuItem("Show mode and groups");
         subMenu.add(item);
         item.addActionListener(new ActionListener() {
@@ -308,6 +323,114 @@ public class Inspector implements Tool {
         tv.displayDialog();
     }// displayText()
 
+    /**
+     * Adjudicates a copy of the current turn (the game itself is not changed),
+     * and reports the time spent in each adjudication stage, and, for each order,
+     * its dependencies and how much evaluation it required. Orders which were
+     * hardest to decide are listed first.
+     */
+    private String makeAdjudicationTrace() {
+        final TurnState ts = clientFrame.getTurnState();
+        final TurnState trialTS = new TurnState(ts.getPhase());
+        trialTS.setWorld(ts.getWorld());
+        trialTS.setPosition(ts.getPosition().copy());
+        for (Power power : ts.getWorld().getMap().getPowers()) {
+            trialTS.setOrders(power, new ArrayList<>(ts.getOrders(power)));
+        }
+
+        final StdAdjudicator adjudicator = new StdAdjudicator(clientFrame.getGUIOrderFactory(), trialTS);
+        adjudicator.setPowerOrderChecking(true);
+        adjudicator.process();
+        final AdjudicationMetrics metrics = adjudicator.getMetrics();
+
+        StringBuilder sb = new StringBuilder(4096);
+        appendTSInfo(sb, ts);
+
+        sb.append("Stage times (us):\n");
+        for (AdjudicationMetrics.Stage stage : AdjudicationMetrics.Stage.values()) {
+            sb.append(String.format("  %-22s %10d%n", stage.getName(), metrics.getStageNanos(stage) / 1000L));
+        }
+        sb.append(String.format("  %-22s %10d%n%n", "total", metrics.getTotalNanos() / 1000L));
+
+        sb.append("orders: ");
+        sb.append(metrics.getOrderCount());
+        sb.append("  iterations: ");
+        sb.append(metrics.getIterations());
+        sb.append("  evaluations: ");
+        sb.append(metrics.getOrderEvaluations());
+        sb.append("  convoy path searches: ");
+        sb.append(metrics.getConvoyPathSearches());
+        sb.append("\nparadoxes: ");
+        sb.append(metrics.getParadoxCount());
+        sb.append("  circular breaks: ");
+        sb.append(metrics.getCircularBreaks());
+        sb.append("  Szykman: ");
+        sb.append(metrics.getSzykmanApplications());
+        if (metrics.isUnresolvedParadox()) {
+            sb.append("  *UNRESOLVED PARADOX*");
+        }
+        sb.append("\n\n");
+
+        final OrderState[] orderStates = adjudicator.getOrderStates();
+        if (orderStates == null || orderStates.length == 0) {
+            sb.append("No orders were adjudicated.\n");
+            return sb.toString();
+        }
+
+        // undecided orders first, then orders decided in later iterations
+        final OrderState[] sorted = orderStates.clone();
+        Arrays.sort(sorted, new Comparator<OrderState>() {
+            public int compare(OrderState os1, OrderState os2) {
+                final int d1 = (os1.getDecidedIteration() == 0) ? Integer.MAX_VALUE : os1.getDecidedIteration();
+                final int d2 = (os2.getDecidedIteration() == 0) ? Integer.MAX_VALUE : os2.getDecidedIteration();
+                if (d1 != d2) {
+                    return (d1 > d2) ? -1 : 1;
+                }
+                return Integer.compare(os2.getEvaluationCount(), os1.getEvaluationCount());
+            }
+        });
+
+        // flags: C = convoy path searched, P = undecided at a paradox, R = circular movement
+        sb.append("Orders (decided: evaluation iteration, or - if not decided by evaluation)\n");
+        sb.append("decided evals convoy flags order\n");
+        for (OrderState os : sorted) {
+            sb.append(String.format("%7s %5d %6d %-5s %s%n",
+                    (os.getDecidedIteration() == 0) ? "-" : String.valueOf(os.getDecidedIteration()),
+                    os.getEvaluationCount(),
+                    os.getConvoyPathSearches(),
+                    ((os.getConvoyPathSearches() > 0) ? "C" : "")
+                            + (os.isParadoxInvolved() ? "P" : "")
+                            + (os.isCircular() ? "R" : ""),
+                    os.getOrder().toFormattedString(TERSE_OFO)));
+
+            appendDependencies(sb, "supports", os.getDependentSupports());
+            appendDependencies(sb, "self-supports", os.getDependentSelfSupports());
+            appendDependencies(sb, "moves to source", os.getDependentMovesToSource());
+            appendDependencies(sb, "moves to destination", os.getDependentMovesToDestination());
+            if (os.getHeadToHead() != null) {
+                appendDependencies(sb, "head-to-head", new OrderState[]{os.getHeadToHead()});
+            }
+        }
+
+        return sb.toString();
+    }// makeAdjudicationTrace()
+
+    /**
+     * Appends the source provinces of the orders that an order depends upon
+     */
+    private void appendDependencies(StringBuilder sb, String label, OrderState[] dependencies) {
+        if (dependencies.length > 0) {
+            sb.append("                          <- ");
+            sb.append(label);
+            sb.append(":");
+            for (OrderState dep : dependencies) {
+                sb.append(" ");
+                sb.append(dep.getSourceProvince().getShortName());
+            }
+            sb.append("\n");
+        }
+    }// appendDependencies()
+
     /**
      * Create a TestCase from the current turn
      */
@@ -378,24 +501,11 @@ public class Inspector implements Tool {
                 // we assume all orders fail UNLESS a success result for that order
                 // exists. NOTE THAT ALL THESE RESULTS are from the PRIOR turnstate.
                 //
-                List<Result> results = prevTS.getResultList();
-
                 List<Orderable> orders = prevTS.getAllOrders();
                 for (Orderable o : orders) {
                     sb.append("\t");
 
-                    boolean isSuccess = false;
-                    for (Result result : results) {
-                        if (result instanceof OrderResult) {
-                            OrderResult or = (OrderResult) result;
-                            if (or.getOrder() == o
-                                    && or.getResultType() == OrderResult.ResultType.SUCCESS) {
-                                isSuccess = true;
-                            }
-                        }
-                    }
-
-                    if (isSuccess) {
+                    if (prevTS.getResultIndex().isSuccessful(o)) {
                         sb.append("SUCCESS: ");
                     } else {
                         sb.append("FAILURE: ");